@@ -23,8 +23,13 @@
 
 package com.gazbert.bxbot.core.config.exchange;
 
+import com.gazbert.bxbot.domain.exchange.CircuitBreakerConfig;
+import com.gazbert.bxbot.domain.exchange.HedgingConfig;
 import com.gazbert.bxbot.domain.exchange.ExchangeConfig;
 import com.gazbert.bxbot.domain.exchange.NetworkConfig;
+import com.gazbert.bxbot.domain.exchange.RateLimitConfig;
+import com.gazbert.bxbot.domain.exchange.RetryConfig;
+import com.gazbert.bxbot.domain.exchange.TimeoutConfig;
 import java.util.List;
 import java.util.Map;
 import org.apache.logging.log4j.LogManager;
@@ -76,6 +81,62 @@ public final class ExchangeApiConfigBuilder {
                     + exchangeConfig.getAdapter());
       }
 
+      final RateLimitConfig rateLimitConfig = networkConfig.getRateLimit();
+      if (rateLimitConfig != null) {
+        exchangeApiNetworkConfig.setRateLimitConfig(buildRateLimitConfig(rateLimitConfig));
+      } else {
+        LOG.info(
+            () ->
+                "No (optional) NetworkConfiguration RateLimit has been set for "
+                    + "Exchange Adapter: "
+                    + exchangeConfig.getAdapter());
+      }
+
+      final RetryConfig retryConfig = networkConfig.getRetry();
+      if (retryConfig != null) {
+        exchangeApiNetworkConfig.setRetryConfig(buildRetryConfig(retryConfig));
+      } else {
+        LOG.info(
+            () ->
+                "No (optional) NetworkConfiguration Retry has been set for "
+                    + "Exchange Adapter: "
+                    + exchangeConfig.getAdapter());
+      }
+
+      final CircuitBreakerConfig circuitBreakerConfig = networkConfig.getCircuitBreaker();
+      if (circuitBreakerConfig != null) {
+        exchangeApiNetworkConfig.setCircuitBreakerConfig(
+            buildCircuitBreakerConfig(circuitBreakerConfig));
+      } else {
+        LOG.info(
+            () ->
+                "No (optional) NetworkConfiguration CircuitBreaker has been set for "
+                    + "Exchange Adapter: "
+                    + exchangeConfig.getAdapter());
+      }
+
+      final TimeoutConfig timeoutConfig = networkConfig.getTimeouts();
+      if (timeoutConfig != null) {
+        exchangeApiNetworkConfig.setTimeoutConfig(buildTimeoutConfig(timeoutConfig));
+      } else {
+        LOG.info(
+            () ->
+                "No (optional) NetworkConfiguration Timeouts have been set for "
+                    + "Exchange Adapter: "
+                    + exchangeConfig.getAdapter());
+      }
+
+      final HedgingConfig hedgingConfig = networkConfig.getHedging();
+      if (hedgingConfig != null) {
+        exchangeApiNetworkConfig.setHedgingConfig(buildHedgingConfig(hedgingConfig));
+      } else {
+        LOG.info(
+            () ->
+                "No (optional) NetworkConfiguration Hedging has been set for "
+                    + "Exchange Adapter: "
+                    + exchangeConfig.getAdapter());
+      }
+
       exchangeApiConfig.setNetworkConfig(exchangeApiNetworkConfig);
       LOG.info(() -> "NetworkConfiguration has been set: " + exchangeApiNetworkConfig);
 
@@ -117,4 +178,61 @@ public final class ExchangeApiConfigBuilder {
 
     return exchangeApiConfig;
   }
+
+  private static RateLimitConfigImpl buildRateLimitConfig(RateLimitConfig rateLimitConfig) {
+    final RateLimitConfigImpl exchangeApiRateLimitConfig = new RateLimitConfigImpl();
+    exchangeApiRateLimitConfig.setPublicApiCapacity(rateLimitConfig.getPublicApiCapacity());
+    exchangeApiRateLimitConfig.setPublicApiRefillPerSecond(
+        rateLimitConfig.getPublicApiRefillPerSecond());
+    exchangeApiRateLimitConfig.setPrivateApiCapacity(rateLimitConfig.getPrivateApiCapacity());
+    exchangeApiRateLimitConfig.setPrivateApiRefillPerSecond(
+        rateLimitConfig.getPrivateApiRefillPerSecond());
+
+    final Map<String, Integer> methodCosts = rateLimitConfig.getMethodCosts();
+    if (methodCosts != null) {
+      exchangeApiRateLimitConfig.setMethodCosts(methodCosts);
+    }
+    return exchangeApiRateLimitConfig;
+  }
+
+  private static RetryConfigImpl buildRetryConfig(RetryConfig retryConfig) {
+    final RetryConfigImpl exchangeApiRetryConfig = new RetryConfigImpl();
+    exchangeApiRetryConfig.setMaxAttempts(retryConfig.getMaxAttempts());
+    exchangeApiRetryConfig.setInitialBackoffMillis(retryConfig.getInitialBackoffMillis());
+    exchangeApiRetryConfig.setMaxBackoffMillis(retryConfig.getMaxBackoffMillis());
+    exchangeApiRetryConfig.setDeadlineMillis(retryConfig.getDeadlineMillis());
+    return exchangeApiRetryConfig;
+  }
+
+  private static CircuitBreakerConfigImpl buildCircuitBreakerConfig(
+      CircuitBreakerConfig circuitBreakerConfig) {
+    final CircuitBreakerConfigImpl exchangeApiCircuitBreakerConfig = new CircuitBreakerConfigImpl();
+    exchangeApiCircuitBreakerConfig.setFailureRateThreshold(
+        circuitBreakerConfig.getFailureRateThreshold());
+    exchangeApiCircuitBreakerConfig.setWindowSize(circuitBreakerConfig.getWindowSize());
+    exchangeApiCircuitBreakerConfig.setMinimumRequests(circuitBreakerConfig.getMinimumRequests());
+    exchangeApiCircuitBreakerConfig.setCooldownSeconds(circuitBreakerConfig.getCooldownSeconds());
+    return exchangeApiCircuitBreakerConfig;
+  }
+
+  private static TimeoutConfigImpl buildTimeoutConfig(TimeoutConfig timeoutConfig) {
+    final TimeoutConfigImpl exchangeApiTimeoutConfig = new TimeoutConfigImpl();
+    exchangeApiTimeoutConfig.setConnectTimeoutMillis(timeoutConfig.getConnectTimeoutMillis());
+    exchangeApiTimeoutConfig.setReadTimeoutMillis(timeoutConfig.getReadTimeoutMillis());
+    exchangeApiTimeoutConfig.setMarketDataReadTimeoutMillis(
+        timeoutConfig.getMarketDataReadTimeoutMillis());
+    exchangeApiTimeoutConfig.setOrderReadTimeoutMillis(timeoutConfig.getOrderReadTimeoutMillis());
+    exchangeApiTimeoutConfig.setBalanceReadTimeoutMillis(
+        timeoutConfig.getBalanceReadTimeoutMillis());
+    return exchangeApiTimeoutConfig;
+  }
+
+  private static HedgingConfigImpl buildHedgingConfig(HedgingConfig hedgingConfig) {
+    final HedgingConfigImpl exchangeApiHedgingConfig = new HedgingConfigImpl();
+    exchangeApiHedgingConfig.setLatencyPercentile(hedgingConfig.getLatencyPercentile());
+    exchangeApiHedgingConfig.setBudgetPercent(hedgingConfig.getBudgetPercent());
+    exchangeApiHedgingConfig.setMinDelayMillis(hedgingConfig.getMinDelayMillis());
+    exchangeApiHedgingConfig.setWindowSize(hedgingConfig.getWindowSize());
+    return exchangeApiHedgingConfig;
+  }
 }
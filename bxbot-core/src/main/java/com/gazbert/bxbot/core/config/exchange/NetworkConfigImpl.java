@@ -23,7 +23,12 @@
 
 package com.gazbert.bxbot.core.config.exchange;
 
+import com.gazbert.bxbot.exchange.api.CircuitBreakerConfig;
+import com.gazbert.bxbot.exchange.api.HedgingConfig;
 import com.gazbert.bxbot.exchange.api.NetworkConfig;
+import com.gazbert.bxbot.exchange.api.RateLimitConfig;
+import com.gazbert.bxbot.exchange.api.RetryConfig;
+import com.gazbert.bxbot.exchange.api.TimeoutConfig;
 import com.google.common.base.MoreObjects;
 
 import java.util.ArrayList;
@@ -39,6 +44,11 @@ public class NetworkConfigImpl implements NetworkConfig {
   private Integer connectionTimeout;
   private List<Integer> nonFatalErrorCodes;
   private List<String> nonFatalErrorMessages;
+  private RateLimitConfig rateLimitConfig;
+  private RetryConfig retryConfig;
+  private CircuitBreakerConfig circuitBreakerConfig;
+  private TimeoutConfig timeoutConfig;
+  private HedgingConfig hedgingConfig;
 
   public NetworkConfigImpl() {
     nonFatalErrorCodes = new ArrayList<>();
@@ -72,12 +82,62 @@ public class NetworkConfigImpl implements NetworkConfig {
     this.nonFatalErrorMessages = nonFatalErrorMessages;
   }
 
+  @Override
+  public RateLimitConfig getRateLimitConfig() {
+    return rateLimitConfig;
+  }
+
+  public void setRateLimitConfig(RateLimitConfig rateLimitConfig) {
+    this.rateLimitConfig = rateLimitConfig;
+  }
+
+  @Override
+  public RetryConfig getRetryConfig() {
+    return retryConfig;
+  }
+
+  public void setRetryConfig(RetryConfig retryConfig) {
+    this.retryConfig = retryConfig;
+  }
+
+  @Override
+  public CircuitBreakerConfig getCircuitBreakerConfig() {
+    return circuitBreakerConfig;
+  }
+
+  public void setCircuitBreakerConfig(CircuitBreakerConfig circuitBreakerConfig) {
+    this.circuitBreakerConfig = circuitBreakerConfig;
+  }
+
+  @Override
+  public TimeoutConfig getTimeoutConfig() {
+    return timeoutConfig;
+  }
+
+  public void setTimeoutConfig(TimeoutConfig timeoutConfig) {
+    this.timeoutConfig = timeoutConfig;
+  }
+
+  @Override
+  public HedgingConfig getHedgingConfig() {
+    return hedgingConfig;
+  }
+
+  public void setHedgingConfig(HedgingConfig hedgingConfig) {
+    this.hedgingConfig = hedgingConfig;
+  }
+
   @Override
   public String toString() {
     return MoreObjects.toStringHelper(this)
                .add("connectionTimeout", connectionTimeout)
                .add("nonFatalErrorCodes", nonFatalErrorCodes)
                .add("nonFatalErrorMessages", nonFatalErrorMessages)
+               .add("rateLimitConfig", rateLimitConfig)
+               .add("retryConfig", retryConfig)
+               .add("circuitBreakerConfig", circuitBreakerConfig)
+               .add("timeoutConfig", timeoutConfig)
+               .add("hedgingConfig", hedgingConfig)
                .toString();
   }
 }
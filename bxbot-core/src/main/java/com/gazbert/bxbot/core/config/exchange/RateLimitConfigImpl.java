@@ -0,0 +1,103 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.core.config.exchange;
+
+import com.gazbert.bxbot.exchange.api.RateLimitConfig;
+import com.google.common.base.MoreObjects;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Exchange API Rate Limit config.
+ *
+ * @author gazbert
+ */
+public class RateLimitConfigImpl implements RateLimitConfig {
+
+  private Integer publicApiCapacity;
+  private Double publicApiRefillPerSecond;
+  private Integer privateApiCapacity;
+  private Double privateApiRefillPerSecond;
+  private Map<String, Integer> methodCosts;
+
+  public RateLimitConfigImpl() {
+    methodCosts = new HashMap<>();
+  }
+
+  @Override
+  public Integer getPublicApiCapacity() {
+    return publicApiCapacity;
+  }
+
+  public void setPublicApiCapacity(Integer publicApiCapacity) {
+    this.publicApiCapacity = publicApiCapacity;
+  }
+
+  @Override
+  public Double getPublicApiRefillPerSecond() {
+    return publicApiRefillPerSecond;
+  }
+
+  public void setPublicApiRefillPerSecond(Double publicApiRefillPerSecond) {
+    this.publicApiRefillPerSecond = publicApiRefillPerSecond;
+  }
+
+  @Override
+  public Integer getPrivateApiCapacity() {
+    return privateApiCapacity;
+  }
+
+  public void setPrivateApiCapacity(Integer privateApiCapacity) {
+    this.privateApiCapacity = privateApiCapacity;
+  }
+
+  @Override
+  public Double getPrivateApiRefillPerSecond() {
+    return privateApiRefillPerSecond;
+  }
+
+  public void setPrivateApiRefillPerSecond(Double privateApiRefillPerSecond) {
+    this.privateApiRefillPerSecond = privateApiRefillPerSecond;
+  }
+
+  @Override
+  public Map<String, Integer> getMethodCosts() {
+    return methodCosts;
+  }
+
+  public void setMethodCosts(Map<String, Integer> methodCosts) {
+    this.methodCosts = methodCosts;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("publicApiCapacity", publicApiCapacity)
+        .add("publicApiRefillPerSecond", publicApiRefillPerSecond)
+        .add("privateApiCapacity", privateApiCapacity)
+        .add("privateApiRefillPerSecond", privateApiRefillPerSecond)
+        .add("methodCosts", methodCosts)
+        .toString();
+  }
+}
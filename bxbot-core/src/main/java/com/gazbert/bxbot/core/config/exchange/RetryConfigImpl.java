@@ -0,0 +1,86 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.core.config.exchange;
+
+import com.gazbert.bxbot.exchange.api.RetryConfig;
+import com.google.common.base.MoreObjects;
+
+/**
+ * Exchange API Retry config.
+ *
+ * @author gazbert
+ */
+public class RetryConfigImpl implements RetryConfig {
+
+  private Integer maxAttempts;
+  private Integer initialBackoffMillis;
+  private Integer maxBackoffMillis;
+  private Integer deadlineMillis;
+
+  @Override
+  public Integer getMaxAttempts() {
+    return maxAttempts;
+  }
+
+  public void setMaxAttempts(Integer maxAttempts) {
+    this.maxAttempts = maxAttempts;
+  }
+
+  @Override
+  public Integer getInitialBackoffMillis() {
+    return initialBackoffMillis;
+  }
+
+  public void setInitialBackoffMillis(Integer initialBackoffMillis) {
+    this.initialBackoffMillis = initialBackoffMillis;
+  }
+
+  @Override
+  public Integer getMaxBackoffMillis() {
+    return maxBackoffMillis;
+  }
+
+  public void setMaxBackoffMillis(Integer maxBackoffMillis) {
+    this.maxBackoffMillis = maxBackoffMillis;
+  }
+
+  @Override
+  public Integer getDeadlineMillis() {
+    return deadlineMillis;
+  }
+
+  public void setDeadlineMillis(Integer deadlineMillis) {
+    this.deadlineMillis = deadlineMillis;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("maxAttempts", maxAttempts)
+        .add("initialBackoffMillis", initialBackoffMillis)
+        .add("maxBackoffMillis", maxBackoffMillis)
+        .add("deadlineMillis", deadlineMillis)
+        .toString();
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.core.config.exchange;
+
+import com.gazbert.bxbot.exchange.api.TimeoutConfig;
+import com.google.common.base.MoreObjects;
+
+/**
+ * Exchange API Timeout config.
+ *
+ * @author gazbert
+ */
+public class TimeoutConfigImpl implements TimeoutConfig {
+
+  private Integer connectTimeoutMillis;
+  private Integer readTimeoutMillis;
+  private Integer marketDataReadTimeoutMillis;
+  private Integer orderReadTimeoutMillis;
+  private Integer balanceReadTimeoutMillis;
+
+  @Override
+  public Integer getConnectTimeoutMillis() {
+    return connectTimeoutMillis;
+  }
+
+  public void setConnectTimeoutMillis(Integer connectTimeoutMillis) {
+    this.connectTimeoutMillis = connectTimeoutMillis;
+  }
+
+  @Override
+  public Integer getReadTimeoutMillis() {
+    return readTimeoutMillis;
+  }
+
+  public void setReadTimeoutMillis(Integer readTimeoutMillis) {
+    this.readTimeoutMillis = readTimeoutMillis;
+  }
+
+  @Override
+  public Integer getMarketDataReadTimeoutMillis() {
+    return marketDataReadTimeoutMillis;
+  }
+
+  public void setMarketDataReadTimeoutMillis(Integer marketDataReadTimeoutMillis) {
+    this.marketDataReadTimeoutMillis = marketDataReadTimeoutMillis;
+  }
+
+  @Override
+  public Integer getOrderReadTimeoutMillis() {
+    return orderReadTimeoutMillis;
+  }
+
+  public void setOrderReadTimeoutMillis(Integer orderReadTimeoutMillis) {
+    this.orderReadTimeoutMillis = orderReadTimeoutMillis;
+  }
+
+  @Override
+  public Integer getBalanceReadTimeoutMillis() {
+    return balanceReadTimeoutMillis;
+  }
+
+  public void setBalanceReadTimeoutMillis(Integer balanceReadTimeoutMillis) {
+    this.balanceReadTimeoutMillis = balanceReadTimeoutMillis;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("connectTimeoutMillis", connectTimeoutMillis)
+        .add("readTimeoutMillis", readTimeoutMillis)
+        .add("marketDataReadTimeoutMillis", marketDataReadTimeoutMillis)
+        .add("orderReadTimeoutMillis", orderReadTimeoutMillis)
+        .add("balanceReadTimeoutMillis", balanceReadTimeoutMillis)
+        .toString();
+  }
+}
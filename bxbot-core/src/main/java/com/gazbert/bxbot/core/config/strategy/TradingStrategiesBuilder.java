@@ -56,7 +56,10 @@ public class TradingStrategiesBuilder {
     this.tradingStrategyFactory = tradingStrategyFactory;
   }
 
-  /** Builds the Trading Strategy execution list. */
+  /**
+   * Builds the Trading Strategy execution list. The list contains 1 strategy per enabled market, in
+   * the same order as the enabled markets.
+   */
   public List<TradingStrategy> buildStrategies(
       List<StrategyConfig> strategies,
       List<MarketConfig> markets,
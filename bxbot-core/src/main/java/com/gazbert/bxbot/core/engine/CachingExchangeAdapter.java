@@ -0,0 +1,490 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.core.engine;
+
+import com.gazbert.bxbot.domain.engine.MarketDataCacheConfig;
+import com.gazbert.bxbot.exchange.api.ExchangeAdapter;
+import com.gazbert.bxbot.exchange.api.ExchangeConfig;
+import com.gazbert.bxbot.trading.api.BalanceInfo;
+import com.gazbert.bxbot.trading.api.ExchangeNetworkException;
+import com.gazbert.bxbot.trading.api.MarketOrderBook;
+import com.gazbert.bxbot.trading.api.OpenOrder;
+import com.gazbert.bxbot.trading.api.OrderType;
+import com.gazbert.bxbot.trading.api.Ticker;
+import com.gazbert.bxbot.trading.api.TradingApiException;
+import com.google.common.base.MoreObjects;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Decorates an Exchange Adapter with a short-lived cache of market data, so Trading Strategies
+ * that ask for the same data in a trade cycle share a single exchange call.
+ *
+ * <p>Each {@link MarketDataCall} has its own time-to-live; a TTL of 0 means nothing is cached.
+ * The cache only stores results. Concurrent identical requests that miss it are coalesced by the
+ * Exchange Adapter's own single-flight, not here. Failures are not cached. The async calls share
+ * the cache, and are passed on to the adapter's own async calls.
+ *
+ * <p>Creating or cancelling an order invalidates the cached balance info and the open orders for
+ * the order's market. Cached results are shared between callers and must not be modified.
+ *
+ * @author gazbert
+ */
+final class CachingExchangeAdapter implements ExchangeAdapter {
+
+  /** The Trading API calls whose results are cached. */
+  enum MarketDataCall {
+    MARKET_ORDERS,
+    LATEST_MARKET_PRICE,
+    TICKER,
+    BALANCE_INFO,
+    OPEN_ORDERS
+  }
+
+  private static final String BALANCE_INFO_KEY = "";
+
+  private final ExchangeAdapter delegate;
+  private final LongSupplier nanoClock;
+
+  private final Map<MarketDataCall, Long> ttlNanos = new EnumMap<>(MarketDataCall.class);
+  private final Map<MarketDataCall, ConcurrentMap<String, CacheEntry>> caches =
+      new EnumMap<>(MarketDataCall.class);
+  private final Map<MarketDataCall, AtomicLong> generations = new EnumMap<>(MarketDataCall.class);
+  private final Map<MarketDataCall, LongAdder> hits = new EnumMap<>(MarketDataCall.class);
+  private final Map<MarketDataCall, LongAdder> misses = new EnumMap<>(MarketDataCall.class);
+
+  CachingExchangeAdapter(ExchangeAdapter delegate, MarketDataCacheConfig config) {
+    this(delegate, config, System::nanoTime);
+  }
+
+  CachingExchangeAdapter(
+      ExchangeAdapter delegate, MarketDataCacheConfig config, LongSupplier nanoClock) {
+    this.delegate = delegate;
+    this.nanoClock = nanoClock;
+
+    ttlNanos.put(MarketDataCall.MARKET_ORDERS, toNanos(config.getMarketOrdersTtl()));
+    ttlNanos.put(MarketDataCall.LATEST_MARKET_PRICE, toNanos(config.getLatestMarketPriceTtl()));
+    ttlNanos.put(MarketDataCall.TICKER, toNanos(config.getTickerTtl()));
+    ttlNanos.put(MarketDataCall.BALANCE_INFO, toNanos(config.getBalanceInfoTtl()));
+    ttlNanos.put(MarketDataCall.OPEN_ORDERS, toNanos(config.getOpenOrdersTtl()));
+
+    for (final MarketDataCall call : MarketDataCall.values()) {
+      caches.put(call, new ConcurrentHashMap<>());
+      generations.put(call, new AtomicLong());
+      hits.put(call, new LongAdder());
+      misses.put(call, new LongAdder());
+    }
+  }
+
+  @Override
+  public void init(ExchangeConfig config) {
+    delegate.init(config);
+  }
+
+  @Override
+  public String getImplName() {
+    return delegate.getImplName();
+  }
+
+  @Override
+  public String getVersion() {
+    return delegate.getVersion();
+  }
+
+  @Override
+  public Map<String, String> getCircuitBreakerStates() {
+    return delegate.getCircuitBreakerStates();
+  }
+
+  @Override
+  public boolean isCancelAllOrdersAcrossMarketsSupported() {
+    return delegate.isCancelAllOrdersAcrossMarketsSupported();
+  }
+
+  @Override
+  public void setRequestDeadline(long deadlineNanoTime) {
+    delegate.setRequestDeadline(deadlineNanoTime);
+  }
+
+  @Override
+  public void clearRequestDeadline() {
+    delegate.clearRequestDeadline();
+  }
+
+  @Override
+  public MarketOrderBook getMarketOrders(String marketId)
+      throws ExchangeNetworkException, TradingApiException {
+    return get(MarketDataCall.MARKET_ORDERS, marketId, () -> delegate.getMarketOrders(marketId));
+  }
+
+  @Override
+  public MarketOrderBook getMarketOrders(String marketId, int depth)
+      throws ExchangeNetworkException, TradingApiException {
+    return get(
+        MarketDataCall.MARKET_ORDERS,
+        marketId + '#' + depth,
+        () -> delegate.getMarketOrders(marketId, depth));
+  }
+
+  /**
+   * Fetches the order books of the markets that are not already cached in a single call to the
+   * delegate. Each book is then cached as if it had been fetched on its own, so this is how the
+   * engine prefetches the books its strategies will ask for.
+   */
+  @Override
+  public Map<String, MarketOrderBook> getMarketOrders(Collection<String> marketIds)
+      throws ExchangeNetworkException, TradingApiException {
+    final Map<String, MarketOrderBook> orderBooks = new LinkedHashMap<>();
+    final List<String> missingMarketIds = new ArrayList<>();
+    for (final String marketId : marketIds) {
+      final MarketOrderBook orderBook = lookup(MarketDataCall.MARKET_ORDERS, marketId);
+      orderBooks.put(marketId, orderBook);
+      if (orderBook == null) {
+        missingMarketIds.add(marketId);
+      }
+    }
+
+    if (!missingMarketIds.isEmpty()) {
+      final long generation = generations.get(MarketDataCall.MARKET_ORDERS).get();
+      final Map<String, MarketOrderBook> fetchedOrderBooks =
+          delegate.getMarketOrders(missingMarketIds);
+      String unfetchedMarketId = null;
+      for (final String marketId : missingMarketIds) {
+        final MarketOrderBook orderBook = fetchedOrderBooks.get(marketId);
+        if (orderBook == null) {
+          unfetchedMarketId = unfetchedMarketId == null ? marketId : unfetchedMarketId;
+        } else {
+          store(MarketDataCall.MARKET_ORDERS, marketId, generation, orderBook);
+          orderBooks.put(marketId, orderBook);
+        }
+      }
+      if (unfetchedMarketId != null) {
+        throw new TradingApiException("No order book returned for market: " + unfetchedMarketId);
+      }
+    }
+    return orderBooks;
+  }
+
+  @Override
+  public CompletableFuture<MarketOrderBook> getMarketOrdersAsync(String marketId) {
+    return getAsync(
+        MarketDataCall.MARKET_ORDERS, marketId, () -> delegate.getMarketOrdersAsync(marketId));
+  }
+
+  @Override
+  public List<OpenOrder> getYourOpenOrders(String marketId)
+      throws ExchangeNetworkException, TradingApiException {
+    return get(MarketDataCall.OPEN_ORDERS, marketId, () -> delegate.getYourOpenOrders(marketId));
+  }
+
+  @Override
+  public CompletableFuture<List<OpenOrder>> getYourOpenOrdersAsync(String marketId) {
+    return getAsync(
+        MarketDataCall.OPEN_ORDERS, marketId, () -> delegate.getYourOpenOrdersAsync(marketId));
+  }
+
+  /**
+   * Asks the order manager, if the adapter has one; otherwise looks for the order in the cached
+   * open orders.
+   */
+  @Override
+  public boolean isOrderOpen(String orderId, String marketId)
+      throws ExchangeNetworkException, TradingApiException {
+    if (delegate instanceof OrderManagingExchangeAdapter) {
+      return delegate.isOrderOpen(orderId, marketId);
+    }
+    return ExchangeAdapter.super.isOrderOpen(orderId, marketId);
+  }
+
+  @Override
+  public String createOrder(
+      String marketId, OrderType orderType, BigDecimal quantity, BigDecimal price)
+      throws ExchangeNetworkException, TradingApiException {
+    try {
+      return delegate.createOrder(marketId, orderType, quantity, price);
+    } finally {
+      invalidateAccountData(marketId);
+    }
+  }
+
+  @Override
+  public CompletableFuture<String> createOrderAsync(
+      String marketId, OrderType orderType, BigDecimal quantity, BigDecimal price) {
+    return delegate
+        .createOrderAsync(marketId, orderType, quantity, price)
+        .whenComplete((orderId, error) -> invalidateAccountData(marketId));
+  }
+
+  @Override
+  public boolean cancelOrder(String orderId, String marketId)
+      throws ExchangeNetworkException, TradingApiException {
+    try {
+      return delegate.cancelOrder(orderId, marketId);
+    } finally {
+      invalidateAccountData(marketId);
+    }
+  }
+
+  @Override
+  public CompletableFuture<Boolean> cancelOrderAsync(String orderId, String marketId) {
+    return delegate
+        .cancelOrderAsync(orderId, marketId)
+        .whenComplete((cancelled, error) -> invalidateAccountData(marketId));
+  }
+
+  @Override
+  public Map<String, Boolean> cancelOrders(Collection<String> orderIds, String marketId)
+      throws ExchangeNetworkException, TradingApiException {
+    try {
+      return delegate.cancelOrders(orderIds, marketId);
+    } finally {
+      invalidateAccountData(marketId);
+    }
+  }
+
+  @Override
+  public int cancelAllOrders(String marketId)
+      throws ExchangeNetworkException, TradingApiException {
+    try {
+      return delegate.cancelAllOrders(marketId);
+    } finally {
+      invalidateAccountData(marketId);
+    }
+  }
+
+  @Override
+  public Map<String, Integer> cancelAllOrders(Collection<String> marketIds)
+      throws ExchangeNetworkException, TradingApiException {
+    try {
+      return delegate.cancelAllOrders(marketIds);
+    } finally {
+      for (final String marketId : marketIds) {
+        invalidateAccountData(marketId);
+      }
+    }
+  }
+
+  @Override
+  public BigDecimal getLatestMarketPrice(String marketId)
+      throws ExchangeNetworkException, TradingApiException {
+    return get(
+        MarketDataCall.LATEST_MARKET_PRICE,
+        marketId,
+        () -> delegate.getLatestMarketPrice(marketId));
+  }
+
+  @Override
+  public CompletableFuture<BigDecimal> getLatestMarketPriceAsync(String marketId) {
+    return getAsync(
+        MarketDataCall.LATEST_MARKET_PRICE,
+        marketId,
+        () -> delegate.getLatestMarketPriceAsync(marketId));
+  }
+
+  @Override
+  public BalanceInfo getBalanceInfo() throws ExchangeNetworkException, TradingApiException {
+    return get(MarketDataCall.BALANCE_INFO, BALANCE_INFO_KEY, delegate::getBalanceInfo);
+  }
+
+  @Override
+  public CompletableFuture<BalanceInfo> getBalanceInfoAsync() {
+    return getAsync(MarketDataCall.BALANCE_INFO, BALANCE_INFO_KEY, delegate::getBalanceInfoAsync);
+  }
+
+  @Override
+  public BigDecimal getPercentageOfBuyOrderTakenForExchangeFee(String marketId)
+      throws TradingApiException, ExchangeNetworkException {
+    return delegate.getPercentageOfBuyOrderTakenForExchangeFee(marketId);
+  }
+
+  @Override
+  public BigDecimal getPercentageOfSellOrderTakenForExchangeFee(String marketId)
+      throws TradingApiException, ExchangeNetworkException {
+    return delegate.getPercentageOfSellOrderTakenForExchangeFee(marketId);
+  }
+
+  @Override
+  public Ticker getTicker(String marketId) throws TradingApiException, ExchangeNetworkException {
+    return get(MarketDataCall.TICKER, marketId, () -> delegate.getTicker(marketId));
+  }
+
+  @Override
+  public CompletableFuture<Ticker> getTickerAsync(String marketId) {
+    return getAsync(MarketDataCall.TICKER, marketId, () -> delegate.getTickerAsync(marketId));
+  }
+
+  /**
+   * Drops all the cached results of a call, e.g. so the next Emergency Stop check fetches a fresh
+   * balance. Requests already in flight are not affected, but their results will not be cached.
+   *
+   * @param call the call.
+   */
+  void invalidate(MarketDataCall call) {
+    generations.get(call).incrementAndGet();
+    caches.get(call).clear();
+  }
+
+  /**
+   * Returns true if the results of a call are cached, i.e. it has a TTL configured.
+   *
+   * @param call the call.
+   * @return true if the call is cached.
+   */
+  boolean isCached(MarketDataCall call) {
+    return ttlNanos.get(call) > 0;
+  }
+
+  /**
+   * Returns the number of requests served from the cache.
+   *
+   * @param call the call.
+   * @return the hit count.
+   */
+  long getHitCount(MarketDataCall call) {
+    return hits.get(call).sum();
+  }
+
+  /**
+   * Returns the number of requests that were sent to the exchange.
+   *
+   * @param call the call.
+   * @return the miss count.
+   */
+  long getMissCount(MarketDataCall call) {
+    return misses.get(call).sum();
+  }
+
+  ExchangeAdapter getDelegate() {
+    return delegate;
+  }
+
+  @Override
+  public String toString() {
+    final MoreObjects.ToStringHelper helper =
+        MoreObjects.toStringHelper(this).add("delegate", delegate.getClass().getName());
+    for (final MarketDataCall call : MarketDataCall.values()) {
+      helper.add(call.name(), getHitCount(call) + " hits/" + getMissCount(call) + " misses");
+    }
+    return helper.toString();
+  }
+
+  // --------------------------------------------------------------------------
+  //  Util methods
+  // --------------------------------------------------------------------------
+
+  private void invalidateAccountData(String marketId) {
+    invalidate(MarketDataCall.BALANCE_INFO);
+    generations.get(MarketDataCall.OPEN_ORDERS).incrementAndGet();
+    caches.get(MarketDataCall.OPEN_ORDERS).remove(marketId);
+  }
+
+  private <T> T get(MarketDataCall call, String key, BlockingCall<T> blockingCall)
+      throws ExchangeNetworkException, TradingApiException {
+    final T cached = lookup(call, key);
+    if (cached != null) {
+      return cached;
+    }
+    final long generation = generations.get(call).get();
+    final T result = blockingCall.call();
+    store(call, key, generation, result);
+    return result;
+  }
+
+  private <T> CompletableFuture<T> getAsync(
+      MarketDataCall call, String key, Supplier<CompletableFuture<T>> asyncCall) {
+    final T cached = lookup(call, key);
+    if (cached != null) {
+      return CompletableFuture.completedFuture(cached);
+    }
+    final long generation = generations.get(call).get();
+    return asyncCall
+        .get()
+        .thenApply(
+            result -> {
+              store(call, key, generation, result);
+              return result;
+            });
+  }
+
+  /* Returns the cached result, or null if there is none or it has expired. */
+  @SuppressWarnings("unchecked")
+  private <T> T lookup(MarketDataCall call, String key) {
+    final CacheEntry entry = caches.get(call).get(key);
+    if (entry != null && nanoClock.getAsLong() - entry.expiresAt < 0) {
+      hits.get(call).increment();
+      return (T) entry.result;
+    }
+    misses.get(call).increment();
+    return null;
+  }
+
+  /*
+   * Caches the result, unless the call is not cached or was invalidated while the result was
+   * being fetched.
+   */
+  private void store(MarketDataCall call, String key, long generation, Object result) {
+    if (!isCached(call) || result == null) {
+      return;
+    }
+    final CacheEntry entry = new CacheEntry(result, nanoClock.getAsLong() + ttlNanos.get(call));
+    caches.get(call).put(key, entry);
+    if (generations.get(call).get() != generation) {
+      caches.get(call).remove(key, entry);
+    }
+  }
+
+  private static long toNanos(Integer ttlMillis) {
+    return ttlMillis == null ? 0 : TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+  }
+
+  /** A blocking Trading API call. */
+  @FunctionalInterface
+  private interface BlockingCall<T> {
+    T call() throws ExchangeNetworkException, TradingApiException;
+  }
+
+  /** A cached result and when it expires. */
+  private static final class CacheEntry {
+    private final Object result;
+    private final long expiresAt;
+
+    private CacheEntry(Object result, long expiresAt) {
+      this.result = result;
+      this.expiresAt = expiresAt;
+    }
+  }
+}
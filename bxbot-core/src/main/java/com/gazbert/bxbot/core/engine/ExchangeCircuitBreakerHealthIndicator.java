@@ -0,0 +1,55 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.core.engine;
+
+import com.gazbert.bxbot.services.runtime.BotStatusService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the state of the Exchange Adapter's circuit breakers as health details.
+ *
+ * <p>An open circuit means an exchange endpoint is degraded, not that the bot is down - the
+ * Trading Engine keeps running and retries on the next trade cycle - so the health status is
+ * always UP.
+ *
+ * @author gazbert
+ */
+@Component(BotStatusService.CIRCUIT_BREAKER_HEALTH_INDICATOR + "HealthIndicator")
+public class ExchangeCircuitBreakerHealthIndicator implements HealthIndicator {
+
+  private final TradingEngine tradingEngine;
+
+  @Autowired
+  public ExchangeCircuitBreakerHealthIndicator(TradingEngine tradingEngine) {
+    this.tradingEngine = tradingEngine;
+  }
+
+  @Override
+  public Health health() {
+    return Health.up().withDetails(tradingEngine.getExchangeCircuitBreakerStates()).build();
+  }
+}
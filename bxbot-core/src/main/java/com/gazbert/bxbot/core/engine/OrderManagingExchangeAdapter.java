@@ -0,0 +1,425 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.core.engine;
+
+import com.gazbert.bxbot.exchange.api.ExchangeAdapter;
+import com.gazbert.bxbot.exchange.api.ExchangeConfig;
+import com.gazbert.bxbot.trading.api.BalanceInfo;
+import com.gazbert.bxbot.trading.api.ExchangeNetworkException;
+import com.gazbert.bxbot.trading.api.MarketOrderBook;
+import com.gazbert.bxbot.trading.api.OpenOrder;
+import com.gazbert.bxbot.trading.api.OrderType;
+import com.gazbert.bxbot.trading.api.Ticker;
+import com.gazbert.bxbot.trading.api.TradingApiException;
+import com.google.common.base.MoreObjects;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Decorates an Exchange Adapter with a local order management system.
+ *
+ * <p>Every order placed through {@link #createOrder(String, OrderType, BigDecimal, BigDecimal)} is
+ * recorded, and the open orders are indexed by id and by market. {@link #isOrderOpen(String,
+ * String)} is answered from the index, so a Trading Strategy can check its last order every trade
+ * cycle without a signed round trip to the exchange.
+ *
+ * <p>Each market is reconciled with the exchange's open orders on a slower interval: orders that
+ * are no longer open on the exchange, i.e. they filled or were cancelled, are dropped, and open
+ * orders the bot did not place through this adapter, e.g. before a restart, are added. Any call to
+ * {@link #getYourOpenOrders(String)} also reconciles the market.
+ *
+ * <p>The async calls are handed to the delegate, and the orders they place, cancel or fetch are
+ * tracked when their futures complete.
+ *
+ * @author gazbert
+ */
+final class OrderManagingExchangeAdapter implements ExchangeAdapter {
+
+  private static final Logger LOG = LogManager.getLogger();
+
+  private final ExchangeAdapter delegate;
+  private final long reconcileIntervalNanos;
+  private final LongSupplier nanoClock;
+
+  private final ConcurrentMap<String, TrackedOrder> openOrdersById = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, MarketOrders> ordersByMarket = new ConcurrentHashMap<>();
+
+  private final LongAdder localLookupCount = new LongAdder();
+  private final LongAdder reconcileCount = new LongAdder();
+  private final LongAdder closedOrderCount = new LongAdder();
+
+  OrderManagingExchangeAdapter(ExchangeAdapter delegate, int reconcileIntervalSecs) {
+    this(delegate, reconcileIntervalSecs, System::nanoTime);
+  }
+
+  OrderManagingExchangeAdapter(
+      ExchangeAdapter delegate, int reconcileIntervalSecs, LongSupplier nanoClock) {
+    this.delegate = delegate;
+    this.reconcileIntervalNanos = TimeUnit.SECONDS.toNanos(reconcileIntervalSecs);
+    this.nanoClock = nanoClock;
+  }
+
+  @Override
+  public void init(ExchangeConfig config) {
+    delegate.init(config);
+  }
+
+  @Override
+  public String getImplName() {
+    return delegate.getImplName();
+  }
+
+  @Override
+  public String getVersion() {
+    return delegate.getVersion();
+  }
+
+  @Override
+  public Map<String, String> getCircuitBreakerStates() {
+    return delegate.getCircuitBreakerStates();
+  }
+
+  @Override
+  public boolean isCancelAllOrdersAcrossMarketsSupported() {
+    return delegate.isCancelAllOrdersAcrossMarketsSupported();
+  }
+
+  @Override
+  public void setRequestDeadline(long deadlineNanoTime) {
+    delegate.setRequestDeadline(deadlineNanoTime);
+  }
+
+  @Override
+  public void clearRequestDeadline() {
+    delegate.clearRequestDeadline();
+  }
+
+  @Override
+  public MarketOrderBook getMarketOrders(String marketId)
+      throws ExchangeNetworkException, TradingApiException {
+    return delegate.getMarketOrders(marketId);
+  }
+
+  @Override
+  public MarketOrderBook getMarketOrders(String marketId, int depth)
+      throws ExchangeNetworkException, TradingApiException {
+    return delegate.getMarketOrders(marketId, depth);
+  }
+
+  @Override
+  public Map<String, MarketOrderBook> getMarketOrders(Collection<String> marketIds)
+      throws ExchangeNetworkException, TradingApiException {
+    return delegate.getMarketOrders(marketIds);
+  }
+
+  @Override
+  public CompletableFuture<MarketOrderBook> getMarketOrdersAsync(String marketId) {
+    return delegate.getMarketOrdersAsync(marketId);
+  }
+
+  @Override
+  public List<OpenOrder> getYourOpenOrders(String marketId)
+      throws ExchangeNetworkException, TradingApiException {
+    final long fetchStartedAt = nanoClock.getAsLong();
+    final List<OpenOrder> openOrders = delegate.getYourOpenOrders(marketId);
+    reconcile(marketId, openOrders, fetchStartedAt);
+    return openOrders;
+  }
+
+  @Override
+  public CompletableFuture<List<OpenOrder>> getYourOpenOrdersAsync(String marketId) {
+    final long fetchStartedAt = nanoClock.getAsLong();
+    return delegate
+        .getYourOpenOrdersAsync(marketId)
+        .thenApply(
+            openOrders -> {
+              reconcile(marketId, openOrders, fetchStartedAt);
+              return openOrders;
+            });
+  }
+
+  /**
+   * Answers from the tracked orders, reconciling the market with the exchange first if it is due.
+   */
+  @Override
+  public boolean isOrderOpen(String orderId, String marketId)
+      throws ExchangeNetworkException, TradingApiException {
+    if (isReconcileDue(marketId)) {
+      getYourOpenOrders(marketId);
+    } else {
+      localLookupCount.increment();
+    }
+    final TrackedOrder order = openOrdersById.get(orderId);
+    return order != null && order.marketId.equals(marketId);
+  }
+
+  @Override
+  public String createOrder(
+      String marketId, OrderType orderType, BigDecimal quantity, BigDecimal price)
+      throws ExchangeNetworkException, TradingApiException {
+    final String orderId = delegate.createOrder(marketId, orderType, quantity, price);
+    trackOrder(orderId, marketId);
+    return orderId;
+  }
+
+  @Override
+  public CompletableFuture<String> createOrderAsync(
+      String marketId, OrderType orderType, BigDecimal quantity, BigDecimal price) {
+    return delegate
+        .createOrderAsync(marketId, orderType, quantity, price)
+        .thenApply(
+            orderId -> {
+              trackOrder(orderId, marketId);
+              return orderId;
+            });
+  }
+
+  @Override
+  public boolean cancelOrder(String orderId, String marketId)
+      throws ExchangeNetworkException, TradingApiException {
+    final boolean cancelled = delegate.cancelOrder(orderId, marketId);
+    if (cancelled) {
+      dropOrder(orderId, marketId);
+    }
+    return cancelled;
+  }
+
+  @Override
+  public CompletableFuture<Boolean> cancelOrderAsync(String orderId, String marketId) {
+    return delegate
+        .cancelOrderAsync(orderId, marketId)
+        .thenApply(
+            cancelled -> {
+              if (cancelled) {
+                dropOrder(orderId, marketId);
+              }
+              return cancelled;
+            });
+  }
+
+  @Override
+  public Map<String, Boolean> cancelOrders(Collection<String> orderIds, String marketId)
+      throws ExchangeNetworkException, TradingApiException {
+    final Map<String, Boolean> cancelled = delegate.cancelOrders(orderIds, marketId);
+    cancelled.forEach(
+        (orderId, orderCancelled) -> {
+          if (orderCancelled) {
+            dropOrder(orderId, marketId);
+          }
+        });
+    return cancelled;
+  }
+
+  /**
+   * Cancels the market's orders on the exchange, then reconciles the market at the next lookup to
+   * find out which of the tracked orders are gone.
+   */
+  @Override
+  public int cancelAllOrders(String marketId)
+      throws ExchangeNetworkException, TradingApiException {
+    try {
+      return delegate.cancelAllOrders(marketId);
+    } finally {
+      marketOrdersFor(marketId).reconciled = false;
+    }
+  }
+
+  /** Cancels the markets' orders, then reconciles each market at its next lookup. */
+  @Override
+  public Map<String, Integer> cancelAllOrders(Collection<String> marketIds)
+      throws ExchangeNetworkException, TradingApiException {
+    try {
+      return delegate.cancelAllOrders(marketIds);
+    } finally {
+      for (final String marketId : marketIds) {
+        marketOrdersFor(marketId).reconciled = false;
+      }
+    }
+  }
+
+  @Override
+  public BigDecimal getLatestMarketPrice(String marketId)
+      throws ExchangeNetworkException, TradingApiException {
+    return delegate.getLatestMarketPrice(marketId);
+  }
+
+  @Override
+  public CompletableFuture<BigDecimal> getLatestMarketPriceAsync(String marketId) {
+    return delegate.getLatestMarketPriceAsync(marketId);
+  }
+
+  @Override
+  public BalanceInfo getBalanceInfo() throws ExchangeNetworkException, TradingApiException {
+    return delegate.getBalanceInfo();
+  }
+
+  @Override
+  public CompletableFuture<BalanceInfo> getBalanceInfoAsync() {
+    return delegate.getBalanceInfoAsync();
+  }
+
+  @Override
+  public BigDecimal getPercentageOfBuyOrderTakenForExchangeFee(String marketId)
+      throws TradingApiException, ExchangeNetworkException {
+    return delegate.getPercentageOfBuyOrderTakenForExchangeFee(marketId);
+  }
+
+  @Override
+  public BigDecimal getPercentageOfSellOrderTakenForExchangeFee(String marketId)
+      throws TradingApiException, ExchangeNetworkException {
+    return delegate.getPercentageOfSellOrderTakenForExchangeFee(marketId);
+  }
+
+  @Override
+  public Ticker getTicker(String marketId) throws TradingApiException, ExchangeNetworkException {
+    return delegate.getTicker(marketId);
+  }
+
+  @Override
+  public CompletableFuture<Ticker> getTickerAsync(String marketId) {
+    return delegate.getTickerAsync(marketId);
+  }
+
+  /**
+   * Returns the number of orders currently tracked as open.
+   *
+   * @return the open order count.
+   */
+  int getOpenOrderCount() {
+    return openOrdersById.size();
+  }
+
+  ExchangeAdapter getDelegate() {
+    return delegate;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("delegate", delegate.getClass().getName())
+        .add("openOrders", openOrdersById.size())
+        .add("localLookups", localLookupCount.sum())
+        .add("reconciles", reconcileCount.sum())
+        .add("closedOrders", closedOrderCount.sum())
+        .toString();
+  }
+
+  // --------------------------------------------------------------------------
+  //  Util methods
+  // --------------------------------------------------------------------------
+
+  private MarketOrders marketOrdersFor(String marketId) {
+    return ordersByMarket.computeIfAbsent(marketId, id -> new MarketOrders());
+  }
+
+  private void trackOrder(String orderId, String marketId) {
+    final MarketOrders market = marketOrdersFor(marketId);
+    synchronized (market) {
+      openOrdersById.put(orderId, new TrackedOrder(marketId, nanoClock.getAsLong()));
+      market.openOrderIds.add(orderId);
+    }
+  }
+
+  private void dropOrder(String orderId, String marketId) {
+    final MarketOrders market = marketOrdersFor(marketId);
+    synchronized (market) {
+      if (market.openOrderIds.remove(orderId)) {
+        openOrdersById.remove(orderId);
+        closedOrderCount.increment();
+      }
+    }
+  }
+
+  private boolean isReconcileDue(String marketId) {
+    final MarketOrders market = ordersByMarket.get(marketId);
+    return market == null
+        || !market.reconciled
+        || nanoClock.getAsLong() - market.lastReconciledAt >= reconcileIntervalNanos;
+  }
+
+  /*
+   * Orders placed after the exchange's open orders were fetched may be missing from them, so they
+   * are kept until the next reconcile.
+   */
+  private void reconcile(String marketId, List<OpenOrder> exchangeOpenOrders, long fetchStartedAt) {
+    final Set<String> exchangeOpenOrderIds = new HashSet<>();
+    for (final OpenOrder openOrder : exchangeOpenOrders) {
+      exchangeOpenOrderIds.add(openOrder.getId());
+    }
+
+    final MarketOrders market = marketOrdersFor(marketId);
+    synchronized (market) {
+      market.openOrderIds.removeIf(
+          orderId -> {
+            final TrackedOrder order = openOrdersById.get(orderId);
+            if (exchangeOpenOrderIds.contains(orderId) || order.placedAt - fetchStartedAt > 0) {
+              return false;
+            }
+            openOrdersById.remove(orderId);
+            closedOrderCount.increment();
+            LOG.info(() -> "Order " + orderId + " on " + marketId + " market is no longer open");
+            return true;
+          });
+
+      for (final String orderId : exchangeOpenOrderIds) {
+        if (market.openOrderIds.add(orderId)) {
+          openOrdersById.put(orderId, new TrackedOrder(marketId, fetchStartedAt));
+        }
+      }
+      market.lastReconciledAt = nanoClock.getAsLong();
+      market.reconciled = true;
+    }
+    reconcileCount.increment();
+  }
+
+  /** An order the bot has placed, or found open on the exchange. */
+  private static final class TrackedOrder {
+    private final String marketId;
+    private final long placedAt;
+
+    private TrackedOrder(String marketId, long placedAt) {
+      this.marketId = marketId;
+      this.placedAt = placedAt;
+    }
+  }
+
+  /** The ids of a market's open orders, and when they were last reconciled with the exchange. */
+  private static final class MarketOrders {
+    private final Set<String> openOrderIds = new HashSet<>();
+    private volatile boolean reconciled;
+    private volatile long lastReconciledAt;
+  }
+}
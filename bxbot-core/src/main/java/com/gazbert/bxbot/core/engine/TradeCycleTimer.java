@@ -0,0 +1,161 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.core.engine;
+
+import com.gazbert.bxbot.domain.engine.TradeCycleOverrunPolicy;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Schedules trade cycles at a fixed rate against the monotonic {@link System#nanoTime()} clock.
+ *
+ * <p>Cycle N is due to start at {@code start + N * interval}, so the time spent executing a cycle
+ * is not added to the interval and the schedule does not drift. When a cycle is still running
+ * after its successor was due to start, the cycle has overrun its slot: the overrun is recorded
+ * and the {@link TradeCycleOverrunPolicy} decides when the next cycle starts.
+ *
+ * <p>An overrun is recorded once, when it is found. Under the {@link
+ * TradeCycleOverrunPolicy#CATCH_UP} policy, the missed cycles replayed after it are not overruns
+ * themselves, and at most {@value #MAX_CATCH_UP_CYCLES} of the latest missed slots are replayed, so
+ * a long stall does not turn into a long burst of back-to-back cycles.
+ *
+ * <p>This class is not thread safe; each trade cycle owns its own timer.
+ *
+ * @author gazbert
+ */
+final class TradeCycleTimer {
+
+  private static final Logger LOG = LogManager.getLogger();
+
+  /** The most missed cycles run back-to-back under the CATCH_UP policy after an overrun. */
+  static final int MAX_CATCH_UP_CYCLES = 3;
+
+  private final String name;
+  private final long intervalNanos;
+  private final TradeCycleOverrunPolicy overrunPolicy;
+  private final LongSupplier nanoClock;
+
+  private long currentCycleStart;
+  private boolean started;
+  private long catchUpCyclesLeft;
+
+  private long overrunCount;
+  private long totalOverrunNanos;
+  private long maxOverrunNanos;
+
+  TradeCycleTimer(String name, int intervalInSecs, TradeCycleOverrunPolicy overrunPolicy) {
+    this(name, intervalInSecs, overrunPolicy, System::nanoTime);
+  }
+
+  TradeCycleTimer(
+      String name,
+      int intervalInSecs,
+      TradeCycleOverrunPolicy overrunPolicy,
+      LongSupplier nanoClock) {
+    this.name = name;
+    this.intervalNanos = TimeUnit.SECONDS.toNanos(intervalInSecs);
+    this.overrunPolicy = overrunPolicy == null ? TradeCycleOverrunPolicy.SKIP : overrunPolicy;
+    this.nanoClock = nanoClock;
+  }
+
+  /** Marks the start of the first trade cycle. Calling it again has no effect. */
+  void start() {
+    if (!started) {
+      currentCycleStart = nanoClock.getAsLong();
+      started = true;
+    }
+  }
+
+  /**
+   * Called when the current trade cycle's work is done. Advances the schedule to the next cycle
+   * and returns how long to wait before starting it.
+   *
+   * @return the delay in nanoseconds until the next trade cycle is due; 0 to start it now.
+   */
+  long nanosUntilNextCycle() {
+    start();
+    final long now = nanoClock.getAsLong();
+    final long nextCycleStart = currentCycleStart + intervalNanos;
+    if (catchUpCyclesLeft > 0) {
+      // replaying a slot missed by an overrun that has already been recorded
+      catchUpCyclesLeft--;
+      currentCycleStart = nextCycleStart;
+      return Math.max(0, nextCycleStart - now);
+    }
+
+    final long overrunNanos = now - nextCycleStart;
+    if (overrunNanos <= 0) {
+      currentCycleStart = nextCycleStart;
+      return -overrunNanos;
+    }
+
+    overrunCount++;
+    totalOverrunNanos += overrunNanos;
+    maxOverrunNanos = Math.max(maxOverrunNanos, overrunNanos);
+    LOG.warn(
+        () ->
+            "*** "
+                + name
+                + " trade cycle overran its slot by "
+                + TimeUnit.NANOSECONDS.toMillis(overrunNanos)
+                + "ms - applying "
+                + overrunPolicy
+                + " policy. Overruns so far: "
+                + overrunCount
+                + " ***");
+
+    final long missedCycles = overrunNanos / intervalNanos + 1;
+    switch (overrunPolicy) {
+      case CATCH_UP:
+        final long replayedCycles = Math.min(missedCycles, MAX_CATCH_UP_CYCLES);
+        currentCycleStart = nextCycleStart + (missedCycles - replayedCycles) * intervalNanos;
+        catchUpCyclesLeft = replayedCycles - 1;
+        return 0;
+      case RUN_IMMEDIATELY:
+        currentCycleStart = now;
+        return 0;
+      case SKIP:
+      default:
+        currentCycleStart = nextCycleStart + missedCycles * intervalNanos;
+        return currentCycleStart - now;
+    }
+  }
+
+  /** Returns the number of trade cycles that overran their slot. */
+  long getOverrunCount() {
+    return overrunCount;
+  }
+
+  /** Returns the sum of all trade cycle overruns in nanoseconds. */
+  long getTotalOverrunNanos() {
+    return totalOverrunNanos;
+  }
+
+  /** Returns the largest trade cycle overrun in nanoseconds. */
+  long getMaxOverrunNanos() {
+    return maxOverrunNanos;
+  }
+}
@@ -31,6 +31,7 @@ import com.gazbert.bxbot.core.mail.EmailAlerter;
 import com.gazbert.bxbot.core.util.ConfigurableComponentFactory;
 import com.gazbert.bxbot.core.util.EmergencyStopChecker;
 import com.gazbert.bxbot.domain.engine.EngineConfig;
+import com.gazbert.bxbot.domain.engine.MarketDataCacheConfig;
 import com.gazbert.bxbot.domain.exchange.ExchangeConfig;
 import com.gazbert.bxbot.domain.market.MarketConfig;
 import com.gazbert.bxbot.domain.strategy.StrategyConfig;
@@ -43,8 +44,23 @@ import com.gazbert.bxbot.strategy.api.StrategyException;
 import com.gazbert.bxbot.strategy.api.TradingStrategy;
 import com.gazbert.bxbot.trading.api.ExchangeNetworkException;
 import com.gazbert.bxbot.trading.api.TradingApiException;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -64,7 +80,21 @@ import org.springframework.stereotype.Component;
  * <p>To keep things simple:
  *
  * <ul>
- *   <li>The engine is single threaded.
+ *   <li>The engine is single threaded by default. If strategyExecutionThreads is set in the engine
+ *       config, the Trading Strategies are executed concurrently on a bounded thread pool - 1 task
+ *       per market - and the engine waits for all of them to complete before the next trade cycle.
+ *       If one of them fails, the others are cancelled and the failure is handled as usual.
+ *   <li>Markets can be given their own tradeCycleInterval in the markets config. Their Trading
+ *       Strategies are executed independently of the engine's trade cycle by a scheduler; the
+ *       Emergency Stop check continues to run at the start of every engine trade cycle. If it is
+ *       breached, they are stopped before your open orders are cancelled.
+ *   <li>Trade cycles are scheduled at a fixed rate against a monotonic clock, so the time taken to
+ *       execute a cycle does not delay the ones after it. The tradeCycleOverrunPolicy in the engine
+ *       config decides what happens when a cycle takes longer than its interval.
+ *   <li>If tradeCycleDeadline is set in the engine config, the exchange requests made during a
+ *       trade cycle must complete within that many seconds of the cycle starting. Requests still
+ *       running at the deadline fail with an ExchangeNetworkException, and are retried at the next
+ *       trade cycle.
  *   <li>The engine only supports trading on 1 exchange per instance of the bot, i.e. 1 Exchange
  *       Adapter per process.
  *   <li>The engine only supports 1 Trading Strategy per Market.
@@ -90,7 +120,15 @@ public class TradingEngine {
   private final EmailAlerter emailAlerter;
   private List<TradingStrategy> tradingStrategies;
   private EngineConfig engineConfig;
-  private ExchangeAdapter exchangeAdapter;
+  private volatile ExchangeAdapter exchangeAdapter;
+  private OrderManagingExchangeAdapter orderManager;
+  private ExecutorService strategyExecutor;
+  private TradeCycleTimer tradeCycleTimer;
+  private List<MarketTradeCycle> marketTradeCycles;
+  private List<String> engineTradeCycleMarketIds;
+  private List<String> enabledMarketIds;
+  private ScheduledExecutorService marketTradeCycleScheduler;
+  private final AtomicReference<Throwable> marketTradeCycleFailure = new AtomicReference<>();
 
   private final ExchangeConfigService exchangeConfigService;
   private final EngineConfigService engineConfigService;
@@ -140,7 +178,16 @@ public class TradingEngine {
     // the sequence order of these methods is significant - don't change it.
     exchangeAdapter = loadExchangeAdapter();
     engineConfig = loadEngineConfig();
+    exchangeAdapter = applyOrderManager(exchangeAdapter);
+    exchangeAdapter = applyMarketDataCache(exchangeAdapter);
     tradingStrategies = loadTradingStrategies();
+    strategyExecutor = createStrategyExecutor();
+    tradeCycleTimer =
+        new TradeCycleTimer(
+            "Engine",
+            engineConfig.getTradeCycleInterval(),
+            engineConfig.getTradeCycleOverrunPolicy());
+    marketTradeCycleScheduler = createMarketTradeCycleScheduler();
   }
 
   /*
@@ -150,20 +197,29 @@ public class TradingEngine {
    */
   private void runMainControlLoop() {
     LOG.info(() -> "Starting Trading Engine for " + engineConfig.getBotId() + " ...");
+    tradeCycleTimer.start();
     while (keepAlive) {
       try {
         LOG.info(() -> "*** Starting next trade cycle... ***");
+        final Long cycleDeadline = getTradeCycleDeadline();
+        setRequestDeadline(cycleDeadline);
+
+        throwIfMarketTradeCycleFailed();
 
         // Emergency Stop Check MUST run at start of every trade cycle.
         if (isEmergencyStopLimitBreached()) {
           break;
         }
 
-        for (final TradingStrategy tradingStrategy : tradingStrategies) {
-          LOG.info(
-              () ->
-                  "Executing Trading Strategy ---> " + tradingStrategy.getClass().getSimpleName());
-          tradingStrategy.execute();
+        // Independently scheduled markets are only started once the first check has passed.
+        startMarketTradeCycles();
+
+        prefetchMarketOrders();
+
+        if (strategyExecutor == null) {
+          executeTradingStrategies();
+        } else {
+          executeTradingStrategiesConcurrently(cycleDeadline);
         }
 
         sleepUntilNextTradingCycle();
@@ -184,11 +240,139 @@ public class TradingEngine {
 
     // We've broken out of the control loop due to error or admin shutdown request
     LOG.fatal(() -> "BX-bot " + engineConfig.getBotId() + " is shutting down NOW!");
+    keepAlive = false;
+    logTradeCycleOverruns();
+    logMarketDataCacheStatistics();
+    logOrderManagerStatistics();
+    if (strategyExecutor != null) {
+      strategyExecutor.shutdownNow();
+    }
+    if (marketTradeCycleScheduler != null) {
+      marketTradeCycleScheduler.shutdownNow();
+    }
     synchronized (IS_RUNNING_MONITOR) {
       isRunning = false;
     }
   }
 
+  private void executeTradingStrategies() throws StrategyException {
+    for (final TradingStrategy tradingStrategy : tradingStrategies) {
+      LOG.info(
+          () -> "Executing Trading Strategy ---> " + tradingStrategy.getClass().getSimpleName());
+      tradingStrategy.execute();
+    }
+  }
+
+  /*
+   * Submits 1 task per market to the strategy executor and waits for them all to complete.
+   * The first strategy to fail cancels the ones still running or waiting to run, and its failure is
+   * re-thrown to the main control loop so the existing error policy is applied.
+   */
+  private void executeTradingStrategiesConcurrently(Long cycleDeadline)
+      throws StrategyException {
+    final CompletionService<Void> strategyCompletionService =
+        new ExecutorCompletionService<>(strategyExecutor);
+    final List<Future<Void>> results = new ArrayList<>();
+    for (final TradingStrategy tradingStrategy : tradingStrategies) {
+      results.add(
+          strategyCompletionService.submit(
+              () -> {
+                LOG.info(
+                    () ->
+                        "Executing Trading Strategy ---> "
+                            + tradingStrategy.getClass().getSimpleName());
+                setRequestDeadline(cycleDeadline);
+                try {
+                  tradingStrategy.execute();
+                } finally {
+                  clearRequestDeadline();
+                }
+                return null;
+              }));
+    }
+
+    Throwable strategyFailure = null;
+    try {
+      for (int i = 0; i < results.size(); i++) {
+        strategyCompletionService.take().get();
+      }
+    } catch (ExecutionException e) {
+      strategyFailure = e.getCause();
+      LOG.warn(() -> "Trading Strategy failed - cancelling the other Trading Strategies");
+      cancelTradingStrategies(results);
+    } catch (InterruptedException e) {
+      LOG.warn(() -> "Control Loop thread interrupted when waiting for Trading Strategies");
+      cancelTradingStrategies(results);
+      Thread.currentThread().interrupt();
+      return;
+    }
+
+    if (strategyFailure instanceof StrategyException) {
+      throw (StrategyException) strategyFailure;
+    } else if (strategyFailure instanceof RuntimeException) {
+      throw (RuntimeException) strategyFailure;
+    } else if (strategyFailure instanceof Error) {
+      throw (Error) strategyFailure;
+    }
+  }
+
+  private static void cancelTradingStrategies(List<Future<Void>> results) {
+    for (final Future<Void> result : results) {
+      result.cancel(true);
+    }
+  }
+
+  private void startMarketTradeCycles() {
+    if (marketTradeCycleScheduler == null || marketTradeCycles.isEmpty()) {
+      return;
+    }
+    for (final MarketTradeCycle marketTradeCycle : marketTradeCycles) {
+      marketTradeCycle.start();
+    }
+    marketTradeCycles.clear(); // they reschedule themselves from now on
+  }
+
+  /*
+   * Fetches the order books of all the markets traded on the engine's trade cycle in one go, so
+   * exchanges that support it (e.g. Kraken) are sent a single request instead of 1 per market.
+   * Only worth doing if the books are cached for the strategies to pick up. If it fails, the
+   * strategies fetch their own books as usual.
+   */
+  private void prefetchMarketOrders() {
+    if (engineTradeCycleMarketIds.size() < 2
+        || !(exchangeAdapter instanceof CachingExchangeAdapter)
+        || !((CachingExchangeAdapter) exchangeAdapter)
+            .isCached(CachingExchangeAdapter.MarketDataCall.MARKET_ORDERS)) {
+      return;
+    }
+    try {
+      exchangeAdapter.getMarketOrders(engineTradeCycleMarketIds);
+    } catch (ExchangeNetworkException | TradingApiException e) {
+      LOG.warn(() -> "Failed to prefetch Market Order Books: " + e.getMessage());
+    }
+  }
+
+  /*
+   * An independently scheduled market's Trading Strategy has failed. We re-throw the failure on
+   * the engine thread so the existing error policy is applied.
+   */
+  private void throwIfMarketTradeCycleFailed() throws StrategyException {
+    final Throwable failure = marketTradeCycleFailure.get();
+    if (failure == null) {
+      return;
+    }
+    Thread.interrupted(); // clear the interrupt used to wake the engine thread
+    if (failure instanceof StrategyException) {
+      throw (StrategyException) failure;
+    } else if (failure instanceof RuntimeException) {
+      throw (RuntimeException) failure;
+    } else {
+      // An Error on the market's thread is wrapped too, so the engine alerts and shuts down cleanly
+      // rather than its own thread dying.
+      throw new IllegalStateException(failure);
+    }
+  }
+
   /*
    * Shutdown the Trading Engine.
    * Might be called from a different thread.
@@ -206,14 +390,52 @@ public class TradingEngine {
     return isRunning;
   }
 
+  /**
+   * Returns the state of the Exchange Adapter's circuit breakers. Might be called from a different
+   * thread.
+   *
+   * @return the circuit breaker state keyed by exchange API endpoint; an empty map if the engine
+   *     has not loaded the Exchange Adapter yet.
+   */
+  public Map<String, String> getExchangeCircuitBreakerStates() {
+    final ExchangeAdapter adapter = exchangeAdapter;
+    return adapter == null ? Collections.emptyMap() : adapter.getCircuitBreakerStates();
+  }
+
+  /*
+   * Returns the System.nanoTime() by which the exchange requests of a trade cycle starting now must
+   * complete, or null if no trade cycle deadline is configured.
+   */
+  private Long getTradeCycleDeadline() {
+    final Integer tradeCycleDeadline = engineConfig.getTradeCycleDeadline();
+    if (tradeCycleDeadline == null) {
+      return null;
+    }
+    return System.nanoTime() + TimeUnit.SECONDS.toNanos(tradeCycleDeadline);
+  }
+
+  private void setRequestDeadline(Long deadline) {
+    if (deadline != null) {
+      exchangeAdapter.setRequestDeadline(deadline);
+    }
+  }
+
+  private void clearRequestDeadline() {
+    if (engineConfig.getTradeCycleDeadline() != null) {
+      exchangeAdapter.clearRequestDeadline();
+    }
+  }
+
   private void sleepUntilNextTradingCycle() {
+    clearRequestDeadline();
+    final long sleepNanos = tradeCycleTimer.nanosUntilNextCycle();
     LOG.info(
         () ->
             "*** Sleeping "
-                + engineConfig.getTradeCycleInterval()
-                + "s til next trade cycle... ***");
+                + TimeUnit.NANOSECONDS.toMillis(sleepNanos)
+                + "ms til next trade cycle... ***");
     try {
-      Thread.sleep(engineConfig.getTradeCycleInterval() * 1000L);
+      TimeUnit.NANOSECONDS.sleep(sleepNanos);
     } catch (InterruptedException e) {
       LOG.warn(() -> "Control Loop thread interrupted when sleeping before next trade cycle");
       Thread.currentThread().interrupt();
@@ -227,16 +449,46 @@ public class TradingEngine {
   private void handleExchangeNetworkException(ExchangeNetworkException e) {
     final String errorMessage =
         "A network error has occurred in Exchange Adapter! "
-            + "BX-bot will try again in "
-            + engineConfig.getTradeCycleInterval()
-            + "s...";
+            + "BX-bot will try again at next trade cycle...";
     LOG.error(() -> errorMessage, e);
+    sleepUntilNextTradingCycle();
+  }
 
-    try {
-      Thread.sleep(engineConfig.getTradeCycleInterval() * 1000L);
-    } catch (InterruptedException e1) {
-      LOG.warn(() -> "Control Loop thread interrupted when sleeping before next trade cycle");
-      Thread.currentThread().interrupt();
+  private void logTradeCycleOverruns() {
+    if (tradeCycleTimer == null || tradeCycleTimer.getOverrunCount() == 0) {
+      return;
+    }
+    LOG.info(
+        () ->
+            "Engine trade cycle overruns: "
+                + tradeCycleTimer.getOverrunCount()
+                + ", total: "
+                + TimeUnit.NANOSECONDS.toMillis(tradeCycleTimer.getTotalOverrunNanos())
+                + "ms, max: "
+                + TimeUnit.NANOSECONDS.toMillis(tradeCycleTimer.getMaxOverrunNanos())
+                + "ms");
+  }
+
+  private String getExchangeAdapterClassName() {
+    ExchangeAdapter adapter = exchangeAdapter;
+    if (adapter instanceof CachingExchangeAdapter) {
+      adapter = ((CachingExchangeAdapter) adapter).getDelegate();
+    }
+    if (adapter instanceof OrderManagingExchangeAdapter) {
+      adapter = ((OrderManagingExchangeAdapter) adapter).getDelegate();
+    }
+    return adapter.getClass().getName();
+  }
+
+  private void logMarketDataCacheStatistics() {
+    if (exchangeAdapter instanceof CachingExchangeAdapter) {
+      LOG.info(() -> "Market data cache: " + exchangeAdapter);
+    }
+  }
+
+  private void logOrderManagerStatistics() {
+    if (orderManager != null) {
+      LOG.info(() -> "Order manager: " + orderManager);
     }
   }
 
@@ -258,7 +510,7 @@ public class TradingEngine {
             e,
             engineConfig.getBotId(),
             engineConfig.getBotName(),
-            exchangeAdapter.getClass().getName()));
+            getExchangeAdapterClassName()));
     keepAlive = false;
   }
 
@@ -280,7 +532,7 @@ public class TradingEngine {
             e,
             engineConfig.getBotId(),
             engineConfig.getBotName(),
-            exchangeAdapter.getClass().getName()));
+            getExchangeAdapterClassName()));
     keepAlive = false;
   }
 
@@ -303,7 +555,7 @@ public class TradingEngine {
             e,
             engineConfig.getBotId(),
             engineConfig.getBotName(),
-            exchangeAdapter.getClass().getName()));
+            getExchangeAdapterClassName()));
     keepAlive = false;
   }
 
@@ -312,8 +564,50 @@ public class TradingEngine {
     if (engineConfig.getEmergencyStopBalance().compareTo(BigDecimal.ZERO) == 0) {
       return false; // by-pass the emergency stop check
     }
+    if (exchangeAdapter instanceof CachingExchangeAdapter) {
+      // the check must see a fresh balance; the strategies then share it for the rest of the cycle
+      ((CachingExchangeAdapter) exchangeAdapter)
+          .invalidate(CachingExchangeAdapter.MarketDataCall.BALANCE_INFO);
+    }
     return EmergencyStopChecker.isEmergencyStopLimitBreached(
-        exchangeAdapter, engineConfig, emailAlerter);
+        exchangeAdapter, engineConfig, emailAlerter, enabledMarketIds, this::stopTrading);
+  }
+
+  /*
+   * Stops all trading before the Emergency Stop cancels the open orders. The independently
+   * scheduled markets and the strategy executor are shut down, and we wait for the strategies still
+   * running to finish, until the deadline, so none of them can place an order behind the cancels.
+   */
+  private void stopTrading(long deadlineNanoTime) {
+    keepAlive = false;
+    shutdownNow(marketTradeCycleScheduler);
+    shutdownNow(strategyExecutor);
+    awaitTermination(marketTradeCycleScheduler, deadlineNanoTime);
+    awaitTermination(strategyExecutor, deadlineNanoTime);
+  }
+
+  private static void shutdownNow(ExecutorService executor) {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
+  private static void awaitTermination(ExecutorService executor, long deadlineNanoTime) {
+    if (executor == null) {
+      return;
+    }
+    try {
+      if (!executor.awaitTermination(
+          Math.max(0, deadlineNanoTime - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+        LOG.error(
+            () ->
+                "Trading Strategies still running at the Emergency Stop deadline for stopping "
+                    + "them - check the exchange for new orders!");
+      }
+    } catch (InterruptedException e) {
+      LOG.warn(() -> "Control Loop thread interrupted when waiting for Trading Strategies to stop");
+      Thread.currentThread().interrupt();
+    }
   }
 
   private ExchangeAdapter loadExchangeAdapter() {
@@ -330,17 +624,185 @@ public class TradingEngine {
     return adapter;
   }
 
+  /*
+   * Wraps the adapter in an order manager if an order reconcile interval is configured, so the
+   * Trading Strategies can check their orders are still open without calling the exchange. It goes
+   * inside the market data cache, which hands isOrderOpen calls straight to it.
+   */
+  private ExchangeAdapter applyOrderManager(ExchangeAdapter adapter) {
+    final Integer orderReconcileInterval = engineConfig.getOrderReconcileInterval();
+    if (orderReconcileInterval == null) {
+      return adapter;
+    }
+    LOG.info(
+        () ->
+            "Orders will be tracked locally and reconciled with the exchange every "
+                + orderReconcileInterval
+                + "s");
+    orderManager = new OrderManagingExchangeAdapter(adapter, orderReconcileInterval);
+    return orderManager;
+  }
+
+  /*
+   * Wraps the adapter in a market data cache if one is configured, so the Trading Strategies share
+   * the results of identical calls made in the same trade cycle.
+   */
+  private ExchangeAdapter applyMarketDataCache(ExchangeAdapter adapter) {
+    final MarketDataCacheConfig marketDataCacheConfig = engineConfig.getMarketDataCache();
+    if (marketDataCacheConfig == null) {
+      return adapter;
+    }
+    LOG.info(() -> "Exchange Adapter calls will use market data cache: " + marketDataCacheConfig);
+    return new CachingExchangeAdapter(adapter, marketDataCacheConfig);
+  }
+
   private EngineConfig loadEngineConfig() {
     final EngineConfig loadedEngineConfig = engineConfigService.getEngineConfig();
     LOG.info(() -> "Fetched Engine config from repository: " + loadedEngineConfig);
     return loadedEngineConfig;
   }
 
+  private ExecutorService createStrategyExecutor() {
+    final int strategyExecutionThreads =
+        Math.min(engineConfig.getStrategyExecutionThreads(), tradingStrategies.size());
+    if (strategyExecutionThreads <= 1) {
+      LOG.info(() -> "Trading Strategies will be executed sequentially on the engine thread");
+      return null;
+    }
+    LOG.info(
+        () ->
+            "Trading Strategies will be executed concurrently using "
+                + strategyExecutionThreads
+                + " threads");
+    return Executors.newFixedThreadPool(
+        strategyExecutionThreads,
+        new ThreadFactoryBuilder().setNameFormat("bxbot-strategy-%d").setDaemon(true).build());
+  }
+
+  private ScheduledExecutorService createMarketTradeCycleScheduler() {
+    if (marketTradeCycles.isEmpty()) {
+      return null;
+    }
+    LOG.info(
+        () ->
+            marketTradeCycles.size()
+                + " market(s) will be traded on their own trade cycle interval");
+    return Executors.newScheduledThreadPool(
+        marketTradeCycles.size(),
+        new ThreadFactoryBuilder().setNameFormat("bxbot-market-%d").setDaemon(true).build());
+  }
+
+  /*
+   * Returns the Trading Strategies executed by the engine's trade cycle. Strategies for markets
+   * that have their own trade cycle interval are stored in marketTradeCycles instead.
+   */
   private List<TradingStrategy> loadTradingStrategies() {
     final List<StrategyConfig> strategies = strategyConfigService.getAllStrategyConfig();
     LOG.info(() -> "Fetched Strategy config from repository: " + strategies);
     final List<MarketConfig> markets = marketConfigService.getAllMarketConfig();
     LOG.info(() -> "Fetched Markets config from repository: " + markets);
-    return tradingStrategiesBuilder.buildStrategies(strategies, markets, exchangeAdapter);
+
+    final List<TradingStrategy> allStrategies =
+        tradingStrategiesBuilder.buildStrategies(strategies, markets, exchangeAdapter);
+    final List<MarketConfig> enabledMarkets =
+        markets.stream().filter(MarketConfig::isEnabled).collect(Collectors.toList());
+    enabledMarketIds =
+        enabledMarkets.stream().map(MarketConfig::getId).collect(Collectors.toList());
+
+    final List<TradingStrategy> engineTradeCycleStrategies = new ArrayList<>();
+    engineTradeCycleMarketIds = new ArrayList<>();
+    marketTradeCycles = new ArrayList<>();
+    for (int i = 0; i < allStrategies.size(); i++) {
+      final MarketConfig market = enabledMarkets.get(i);
+      final Integer marketTradeCycleInterval = market.getTradeCycleInterval();
+      if (marketTradeCycleInterval == null) {
+        engineTradeCycleStrategies.add(allStrategies.get(i));
+        engineTradeCycleMarketIds.add(market.getId());
+      } else if (marketTradeCycleInterval < 1) {
+        final String errorMsg =
+            "Market tradeCycleInterval must be 1 second or more. Market details: " + market;
+        LOG.fatal(() -> errorMsg);
+        throw new IllegalArgumentException(errorMsg);
+      } else {
+        LOG.info(
+            () ->
+                "Market "
+                    + market.getName()
+                    + " will be traded every "
+                    + marketTradeCycleInterval
+                    + "s");
+        marketTradeCycles.add(
+            new MarketTradeCycle(
+                market.getName(),
+                allStrategies.get(i),
+                new TradeCycleTimer(
+                    market.getName(),
+                    marketTradeCycleInterval,
+                    engineConfig.getTradeCycleOverrunPolicy())));
+      }
+    }
+    return engineTradeCycleStrategies;
+  }
+
+  /*
+   * Executes a market's Trading Strategy on its own trade cycle interval. The task reschedules
+   * itself at a fixed rate after each successful execution. If the strategy fails, it stops and
+   * hands the failure to the engine thread.
+   */
+  private class MarketTradeCycle implements Runnable {
+
+    private final String marketName;
+    private final TradingStrategy tradingStrategy;
+    private final TradeCycleTimer tradeCycleTimer;
+
+    MarketTradeCycle(
+        String marketName, TradingStrategy tradingStrategy, TradeCycleTimer tradeCycleTimer) {
+      this.marketName = marketName;
+      this.tradingStrategy = tradingStrategy;
+      this.tradeCycleTimer = tradeCycleTimer;
+    }
+
+    void start() {
+      tradeCycleTimer.start();
+      scheduleNext(0);
+    }
+
+    @Override
+    public void run() {
+      if (!keepAlive || marketTradeCycleFailure.get() != null) {
+        return;
+      }
+      try {
+        LOG.info(
+            () ->
+                "Executing Trading Strategy for "
+                    + marketName
+                    + " market ---> "
+                    + tradingStrategy.getClass().getSimpleName());
+        setRequestDeadline(getTradeCycleDeadline());
+        tradingStrategy.execute();
+      } catch (Throwable t) {
+        // Errors too, else the market would silently stop trading. Failures caused by the engine
+        // stopping the strategies are not reported.
+        if (keepAlive && marketTradeCycleFailure.compareAndSet(null, t)) {
+          engineThread.interrupt(); // wake the engine so it can apply the error policy
+        }
+        return;
+      } finally {
+        clearRequestDeadline();
+      }
+      scheduleNext(tradeCycleTimer.nanosUntilNextCycle());
+    }
+
+    private void scheduleNext(long delayInNanos) {
+      if (!keepAlive) {
+        return;
+      }
+      try {
+        marketTradeCycleScheduler.schedule(this, delayInNanos, TimeUnit.NANOSECONDS);
+      } catch (RejectedExecutionException e) {
+        LOG.info(() -> "Not rescheduling " + marketName + " market - engine is shutting down");
+      }
+    }
   }
 }
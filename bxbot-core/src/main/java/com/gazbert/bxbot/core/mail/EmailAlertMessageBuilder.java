@@ -37,6 +37,7 @@ public final class EmailAlertMessageBuilder {
   private static final String NEWLINE = System.getProperty("line.separator");
   private static final String HORIZONTAL_RULE =
       "--------------------------------------------------" + NEWLINE;
+  private static final String EVENT_TIME_HEADING = "Event Time:" + NEWLINE + NEWLINE;
 
   private EmailAlertMessageBuilder() {
   }
@@ -64,8 +65,7 @@ public final class EmailAlertMessageBuilder {
     msgContent.append(NEWLINE).append(NEWLINE);
 
     msgContent.append(HORIZONTAL_RULE);
-    msgContent.append("Event Time:");
-    msgContent.append(NEWLINE).append(NEWLINE);
+    msgContent.append(EVENT_TIME_HEADING);
     msgContent.append(new Date());
     msgContent.append(NEWLINE).append(NEWLINE);
 
@@ -93,4 +93,22 @@ public final class EmailAlertMessageBuilder {
 
     return msgContent.toString();
   }
+
+  /*
+   * Returns the message content without its event time, so the same event raised again can be
+   * recognised as a duplicate.
+   */
+  static String withoutEventTime(String msgContent) {
+    final int eventTimeStart = msgContent.indexOf(EVENT_TIME_HEADING);
+    if (eventTimeStart < 0) {
+      return msgContent;
+    }
+    final int eventTimeEnd =
+        msgContent.indexOf(NEWLINE, eventTimeStart + EVENT_TIME_HEADING.length());
+    if (eventTimeEnd < 0) {
+      return msgContent;
+    }
+    return msgContent.substring(0, eventTimeStart + EVENT_TIME_HEADING.length())
+        + msgContent.substring(eventTimeEnd);
+  }
 }
@@ -26,11 +26,20 @@ package com.gazbert.bxbot.core.mail;
 import com.gazbert.bxbot.domain.emailalerts.EmailAlertsConfig;
 import com.gazbert.bxbot.domain.emailalerts.SmtpConfig;
 import com.gazbert.bxbot.services.config.EmailAlertsConfigService;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.time.Duration;
+import java.util.Map;
 import java.util.Properties;
-import javax.mail.Authenticator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
 import javax.mail.Message;
 import javax.mail.MessagingException;
-import javax.mail.PasswordAuthentication;
+import javax.mail.NoSuchProviderException;
+import javax.mail.Provider;
 import javax.mail.Session;
 import javax.mail.Transport;
 import javax.mail.internet.InternetAddress;
@@ -44,6 +53,13 @@ import org.springframework.stereotype.Component;
 /**
  * A simple mail sender using SMTP and TLS. It sends plain/text email only.
  *
+ * <p>Alerts are queued and sent by a single background thread, so the caller never waits on the
+ * SMTP server. The thread keeps one authenticated connection open and reuses it for each alert.
+ * An alert that repeats one sent within the duplicate alert window is dropped; an alert that
+ * failed to send does not count, so it can be sent again straight away. The queue is
+ * bounded; if it fills up, further alerts are logged and dropped. Queued alerts are sent before
+ * the bot shuts down.
+ *
  * @author gazbert
  */
 @Component
@@ -52,45 +68,62 @@ public class EmailAlerter {
 
   private static final Logger LOG = LogManager.getLogger();
 
+  private static final int ALERT_QUEUE_CAPACITY = 100;
+  private static final Duration DUPLICATE_ALERT_WINDOW = Duration.ofMinutes(5);
+  private static final Duration SHUTDOWN_DRAIN_TIMEOUT = Duration.ofSeconds(30);
+
   private SmtpConfig smtpConfig;
   private Properties smtpProps;
   private boolean sendEmailAlertsEnabled;
+  private Session session;
+  private ThreadPoolExecutor alertDispatcher;
+
+  // only touched by the alert dispatcher thread, or once it has terminated
+  private Transport transport;
 
+  private final Map<String, Long> recentAlerts = new ConcurrentHashMap<>();
+  private final long duplicateAlertWindowInNanos;
   private final EmailAlertsConfigService emailAlertsConfigService;
 
   @Autowired
   public EmailAlerter(EmailAlertsConfigService emailAlertsConfigService) {
+    this(emailAlertsConfigService, null, DUPLICATE_ALERT_WINDOW);
+  }
+
+  EmailAlerter(
+      EmailAlertsConfigService emailAlertsConfigService,
+      Provider transportProvider,
+      Duration duplicateAlertWindow) {
     this.emailAlertsConfigService = emailAlertsConfigService;
-    initialise();
+    this.duplicateAlertWindowInNanos = duplicateAlertWindow.toNanos();
+    initialise(transportProvider);
   }
 
-  /** Sends an email message. */
+  /** Queues an email message to be sent. Returns without waiting for the message to be sent. */
   public void sendMessage(String subject, String msgContent) {
     if (sendEmailAlertsEnabled) {
-      final Session session =
-          Session.getInstance(
-              smtpProps,
-              new Authenticator() {
-                @Override
-                protected PasswordAuthentication getPasswordAuthentication() {
-                  return new PasswordAuthentication(
-                      smtpConfig.getAccountUsername(), smtpConfig.getAccountPassword());
-                }
-              });
-
+      if (isDuplicateAlert(subject, msgContent)) {
+        LOG.warn(
+            () ->
+                "Not sending duplicate Email Alert - the same alert was sent within the last "
+                    + TimeUnit.NANOSECONDS.toSeconds(duplicateAlertWindowInNanos)
+                    + "s. Subject: "
+                    + subject
+                    + " Content: "
+                    + msgContent);
+        return;
+      }
       try {
-        final Message message = new MimeMessage(session);
-        message.setFrom(new InternetAddress(smtpConfig.getFromAddress()));
-        message.setRecipients(
-            Message.RecipientType.TO, InternetAddress.parse(smtpConfig.getToAddress()));
-        message.setSubject(subject);
-        message.setText(msgContent);
-
-        LOG.info(() -> "About to send following Email Alert with message content: " + msgContent);
-        Transport.send(message);
-
-      } catch (MessagingException e) {
-        LOG.error(() -> "Failed to send Email Alert. Details: " + e.getMessage(), e);
+        alertDispatcher.execute(() -> dispatchMessage(subject, msgContent));
+      } catch (RejectedExecutionException e) {
+        recentAlerts.remove(alertKey(subject, msgContent));
+        LOG.error(
+            () ->
+                "Email Alert queue is full or shut down. Not sending the following message: "
+                    + "Subject: "
+                    + subject
+                    + " Content: "
+                    + msgContent);
       }
     } else {
       LOG.warn(
@@ -102,11 +135,99 @@ public class EmailAlerter {
     }
   }
 
+  /** Sends the queued email messages, then closes the SMTP connection. */
+  @PreDestroy
+  public void shutdown() {
+    if (alertDispatcher == null) {
+      return;
+    }
+    alertDispatcher.shutdown();
+    try {
+      if (!alertDispatcher.awaitTermination(
+          SHUTDOWN_DRAIN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+        LOG.error(
+            () ->
+                "Email Alerts were still being sent after "
+                    + SHUTDOWN_DRAIN_TIMEOUT.getSeconds()
+                    + "s - "
+                    + alertDispatcher.shutdownNow().size()
+                    + " queued alert(s) will not be sent");
+        return;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return;
+    }
+    closeTransport();
+  }
+
   // ------------------------------------------------------------------------
   // Private utils
   // ------------------------------------------------------------------------
 
-  private void initialise() {
+  private boolean isDuplicateAlert(String subject, String msgContent) {
+    final long now = System.nanoTime();
+    recentAlerts.values().removeIf(sentTime -> now - sentTime >= duplicateAlertWindowInNanos);
+    return recentAlerts.putIfAbsent(alertKey(subject, msgContent), now) != null;
+  }
+
+  private static String alertKey(String subject, String msgContent) {
+    return subject + '\n' + EmailAlertMessageBuilder.withoutEventTime(msgContent);
+  }
+
+  private void dispatchMessage(String subject, String msgContent) {
+    try {
+      final Message message = new MimeMessage(session);
+      message.setFrom(new InternetAddress(smtpConfig.getFromAddress()));
+      message.setRecipients(
+          Message.RecipientType.TO, InternetAddress.parse(smtpConfig.getToAddress()));
+      message.setSubject(subject);
+      message.setText(msgContent);
+      message.saveChanges();
+
+      LOG.info(() -> "About to send following Email Alert with message content: " + msgContent);
+      try {
+        connectedTransport().sendMessage(message, message.getAllRecipients());
+      } catch (MessagingException e) {
+        // the server may have dropped the connection since the last alert - try a new one
+        LOG.warn(() -> "Failed to send Email Alert - reconnecting to retry: " + e.getMessage());
+        closeTransport();
+        connectedTransport().sendMessage(message, message.getAllRecipients());
+      }
+
+    } catch (MessagingException e) {
+      closeTransport();
+      // the alert was not sent, so it must not hold back the same alert next time
+      recentAlerts.remove(alertKey(subject, msgContent));
+      LOG.error(() -> "Failed to send Email Alert. Details: " + e.getMessage(), e);
+    }
+  }
+
+  private Transport connectedTransport() throws MessagingException {
+    if (transport == null || !transport.isConnected()) {
+      transport = session.getTransport("smtp");
+      transport.connect(
+          smtpConfig.getHost(),
+          smtpConfig.getTlsPort(),
+          smtpConfig.getAccountUsername(),
+          smtpConfig.getAccountPassword());
+    }
+    return transport;
+  }
+
+  private void closeTransport() {
+    if (transport == null) {
+      return;
+    }
+    try {
+      transport.close();
+    } catch (MessagingException e) {
+      LOG.warn(() -> "Failed to close SMTP connection. Details: " + e.getMessage());
+    }
+    transport = null;
+  }
+
+  private void initialise(Provider transportProvider) {
     final EmailAlertsConfig emailAlertsConfig = emailAlertsConfigService.getEmailAlertsConfig();
     if (emailAlertsConfig != null) {
       sendEmailAlertsEnabled = emailAlertsConfig.isEnabled();
@@ -134,6 +255,26 @@ public class EmailAlerter {
         smtpProps.put("mail.smtp.starttls.enable", "true");
         smtpProps.put("mail.smtp.host", smtpConfig.getHost());
         smtpProps.put("mail.smtp.port", smtpConfig.getTlsPort());
+        session = Session.getInstance(smtpProps);
+        if (transportProvider != null) {
+          try {
+            session.setProvider(transportProvider);
+          } catch (NoSuchProviderException e) {
+            throw new IllegalStateException("Failed to initialise Email Alerter SMTP transport", e);
+          }
+        }
+
+        alertDispatcher =
+            new ThreadPoolExecutor(
+                1,
+                1,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(ALERT_QUEUE_CAPACITY),
+                new ThreadFactoryBuilder()
+                    .setNameFormat("bxbot-email-alerter-%d")
+                    .setDaemon(true)
+                    .build());
 
       } else {
         LOG.warn(() -> "Email Alerts are disabled. Are you sure you want to configure this?");
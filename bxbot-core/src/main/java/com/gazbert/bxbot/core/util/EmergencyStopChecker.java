@@ -25,6 +25,7 @@ package com.gazbert.bxbot.core.util;
 
 import com.gazbert.bxbot.core.mail.EmailAlertMessageBuilder;
 import com.gazbert.bxbot.core.mail.EmailAlerter;
+import com.gazbert.bxbot.core.util.EmergencyStopOrderCanceller.CancelReport;
 import com.gazbert.bxbot.domain.engine.EngineConfig;
 import com.gazbert.bxbot.exchange.api.ExchangeAdapter;
 import com.gazbert.bxbot.trading.api.BalanceInfo;
@@ -32,7 +33,10 @@ import com.gazbert.bxbot.trading.api.ExchangeNetworkException;
 import com.gazbert.bxbot.trading.api.TradingApiException;
 import java.math.BigDecimal;
 import java.text.DecimalFormat;
+import java.time.Duration;
+import java.util.Collection;
 import java.util.Map;
+import java.util.function.LongConsumer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -47,6 +51,8 @@ public class EmergencyStopChecker {
 
   private static final String CRITICAL_EMAIL_ALERT_SUBJECT = "CRITICAL Alert message from BX-bot";
   private static final String DECIMAL_FORMAT_PATTERN = "#.########";
+  private static final String NEWLINE = System.getProperty("line.separator");
+  private static final int DEFAULT_CANCEL_ALL_ORDERS_DEADLINE = 10;
 
   private EmergencyStopChecker() {
   }
@@ -56,7 +62,12 @@ public class EmergencyStopChecker {
    * <strong>below</strong> configured limit.
    *
    * <p>If the balance cannot be obtained or has dropped below the configured limit, we send an
-   * Email Alert and notify the main control loop to immediately shutdown the bot.
+   * Email Alert and notify the main control loop to immediately shutdown the bot. If the limit has
+   * been breached, trading is stopped and your open orders on the markets are then cancelled, so
+   * they are not left live on the exchange after the bot has stopped. Both must be done within the
+   * configured emergencyStopCancelDeadline, which starts when the breach is found; the Trading
+   * Strategies are given up to half of it to stop. The Email Alert is only sent once the cancels
+   * are done, and reports what was cancelled.
    *
    * <p>This check is here to help protect runaway losses due to:
    *
@@ -70,12 +81,20 @@ public class EmergencyStopChecker {
    * @param exchangeAdapter the adapter used to connect to the exchange.
    * @param engineConfig the Trading Engine config.
    * @param emailAlerter the Email Alerter.
+   * @param marketIds the ids of the markets the bot trades.
+   * @param stopTrading stops the Trading Strategies placing orders, waiting for them to stop until
+   *     the given {@link System#nanoTime()} deadline. Called once the limit has been breached, and
+   *     before the open orders are cancelled, so no orders are placed behind the cancels.
    * @return true if the emergency stop limit has been breached, false otherwise.
    * @throws TradingApiException if a serious error has occurred connecting to exchange.
    * @throws ExchangeNetworkException if a temporary network exception has occurred.
    */
   public static boolean isEmergencyStopLimitBreached(
-      ExchangeAdapter exchangeAdapter, EngineConfig engineConfig, EmailAlerter emailAlerter)
+      ExchangeAdapter exchangeAdapter,
+      EngineConfig engineConfig,
+      EmailAlerter emailAlerter,
+      Collection<String> marketIds,
+      LongConsumer stopTrading)
       throws TradingApiException, ExchangeNetworkException {
 
     boolean isEmergencyStopLimitBreached = true;
@@ -139,10 +158,36 @@ public class EmergencyStopChecker {
 
         LOG.fatal(() -> balanceBlownErrorMsg);
 
+        // one deadline for stopping the strategies and cancelling the orders
+        final long startTime = System.nanoTime();
+        final Integer cancelDeadline = engineConfig.getEmergencyStopCancelDeadline();
+        final long deadlineNanos =
+            Duration.ofSeconds(
+                    cancelDeadline == null ? DEFAULT_CANCEL_ALL_ORDERS_DEADLINE : cancelDeadline)
+                .toNanos();
+        stopTrading.accept(startTime + deadlineNanos / 2);
+
+        final CancelReport cancelReport =
+            EmergencyStopOrderCanceller.cancelAllOrders(
+                exchangeAdapter, marketIds, startTime, startTime + deadlineNanos);
+        final String cancelReportMsg =
+            "Emergency Stop cancelled "
+                + cancelReport.getTotalCancelledOrders()
+                + " open order(s) in "
+                + cancelReport.getElapsedMillis()
+                + "ms: "
+                + cancelReport;
+        if (cancelReport.isComplete()) {
+          LOG.warn(() -> cancelReportMsg);
+        } else {
+          LOG.fatal(() -> cancelReportMsg + " - open orders may still be live on the exchange!");
+        }
+
+        // only alert once the orders are cancelled - the alert must not hold the cancels up
         emailAlerter.sendMessage(
             CRITICAL_EMAIL_ALERT_SUBJECT,
             EmailAlertMessageBuilder.buildCriticalMsgContent(
-                balanceBlownErrorMsg,
+                balanceBlownErrorMsg + NEWLINE + NEWLINE + cancelReportMsg,
                 null,
                 engineConfig.getBotId(),
                 engineConfig.getBotName(),
@@ -0,0 +1,291 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.core.util;
+
+import com.gazbert.bxbot.exchange.api.ExchangeAdapter;
+import com.google.common.base.MoreObjects;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Cancels your open orders on every market when the Emergency Stop Limit has been breached.
+ *
+ * <p>If the adapter has a native cancel-all across markets, the markets are cancelled with a single
+ * {@link ExchangeAdapter#cancelAllOrders(Collection)} call. Otherwise, or if that call fails, each
+ * market is cancelled concurrently on its own thread, so one slow or bad market does not hold up
+ * or leave live the others' orders.
+ *
+ * <p>The whole lot is bounded by a hard deadline. Cancels still in flight at the deadline are
+ * abandoned so a hung exchange cannot stop the bot shutting down.
+ *
+ * @author gazbert
+ */
+final class EmergencyStopOrderCanceller {
+
+  private static final Logger LOG = LogManager.getLogger();
+
+  private EmergencyStopOrderCanceller() {
+  }
+
+  /**
+   * Cancels all your open orders on the given markets.
+   *
+   * @param exchangeAdapter the adapter used to connect to the exchange.
+   * @param marketIds the ids of the markets to cancel the open orders on.
+   * @param deadline how long to wait for the cancels to complete.
+   * @return what was cancelled, and how long it took.
+   */
+  static CancelReport cancelAllOrders(
+      ExchangeAdapter exchangeAdapter, Collection<String> marketIds, Duration deadline) {
+    final long startTime = System.nanoTime();
+    return cancelAllOrders(exchangeAdapter, marketIds, startTime, startTime + deadline.toNanos());
+  }
+
+  /**
+   * Cancels all your open orders on the given markets, by a deadline that was set before the
+   * cancels started, e.g. when the Emergency Stop Limit was found to be breached.
+   *
+   * @param exchangeAdapter the adapter used to connect to the exchange.
+   * @param marketIds the ids of the markets to cancel the open orders on.
+   * @param startTime when the Emergency Stop started, as a {@link System#nanoTime()} value. The
+   *     report's elapsed time is measured from it.
+   * @param deadlineNanoTime when to stop waiting for the cancels, as a {@link System#nanoTime()}
+   *     value.
+   * @return what was cancelled, and how long it took.
+   */
+  static CancelReport cancelAllOrders(
+      ExchangeAdapter exchangeAdapter,
+      Collection<String> marketIds,
+      long startTime,
+      long deadlineNanoTime) {
+
+    if (marketIds.isEmpty()) {
+      return new CancelReport(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+    }
+    final List<String> markets = new ArrayList<>(new LinkedHashSet<>(marketIds));
+    final Map<String, Integer> cancelledOrderCounts = new ConcurrentHashMap<>();
+    final Set<String> failedMarketIds = ConcurrentHashMap.newKeySet();
+    final ExecutorService executor =
+        Executors.newFixedThreadPool(
+            markets.size(),
+            new ThreadFactoryBuilder()
+                .setNameFormat("bxbot-emergency-stop-%d")
+                .setDaemon(true)
+                .build());
+    try {
+      boolean deadlineMet = true;
+      if (exchangeAdapter.isCancelAllOrdersAcrossMarketsSupported()) {
+        deadlineMet =
+            cancelAllMarketsInOneCall(
+                exchangeAdapter, markets, cancelledOrderCounts, executor, deadlineNanoTime);
+      }
+      if (deadlineMet && cancelledOrderCounts.isEmpty()) {
+        deadlineMet =
+            cancelEachMarket(
+                exchangeAdapter,
+                markets,
+                cancelledOrderCounts,
+                failedMarketIds,
+                executor,
+                deadlineNanoTime);
+      }
+      if (!deadlineMet) {
+        LOG.error(
+            () ->
+                "Emergency Stop: open orders were not all cancelled within "
+                    + TimeUnit.NANOSECONDS.toMillis(deadlineNanoTime - startTime)
+                    + "ms - check the exchange!");
+      }
+
+      // report before shutdownNow interrupts the cancels that missed the deadline
+      final CancelReport report =
+          new CancelReport(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+      for (final String marketId : markets) {
+        final Integer cancelledCount = cancelledOrderCounts.get(marketId);
+        if (cancelledCount != null) {
+          report.cancelledOrderCounts.put(marketId, cancelledCount);
+        } else if (failedMarketIds.contains(marketId)) {
+          report.failedMarketIds.add(marketId);
+        } else {
+          report.timedOutMarketIds.add(marketId);
+        }
+      }
+      return report;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /*
+   * Cancels all the markets with the adapter's native cancel-all. Returns false if the deadline
+   * passed first. If the call fails, nothing is recorded and the caller cancels each market.
+   */
+  private static boolean cancelAllMarketsInOneCall(
+      ExchangeAdapter exchangeAdapter,
+      List<String> marketIds,
+      Map<String, Integer> cancelledOrderCounts,
+      ExecutorService executor,
+      long deadlineNanoTime) {
+    final Future<Map<String, Integer>> cancels =
+        executor.submit(() -> exchangeAdapter.cancelAllOrders(marketIds));
+    try {
+      final Map<String, Integer> cancelledCounts =
+          cancels.get(nanosUntil(deadlineNanoTime), TimeUnit.NANOSECONDS);
+      cancelledCounts.forEach(EmergencyStopOrderCanceller::logCancelled);
+      cancelledOrderCounts.putAll(cancelledCounts);
+    } catch (ExecutionException e) {
+      LOG.error(
+          "Emergency Stop: failed to cancel the open orders on all markets - cancelling each "
+              + "market instead...",
+          e.getCause());
+    } catch (TimeoutException e) {
+      return false;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+    return true;
+  }
+
+  /*
+   * Cancels each market concurrently and records its cancelled count, or its failure, as it
+   * completes. Returns false if the deadline passed before they all completed; the markets missing
+   * from both are reported as timed out.
+   */
+  private static boolean cancelEachMarket(
+      ExchangeAdapter exchangeAdapter,
+      List<String> marketIds,
+      Map<String, Integer> cancelledOrderCounts,
+      Set<String> failedMarketIds,
+      ExecutorService executor,
+      long deadlineNanoTime) {
+    final Map<String, Future<Integer>> cancels = new LinkedHashMap<>();
+    for (final String marketId : marketIds) {
+      cancels.put(marketId, executor.submit(() -> exchangeAdapter.cancelAllOrders(marketId)));
+    }
+
+    boolean deadlineMet = true;
+    for (final Map.Entry<String, Future<Integer>> cancel : cancels.entrySet()) {
+      final String marketId = cancel.getKey();
+      try {
+        final int cancelledCount =
+            cancel.getValue().get(nanosUntil(deadlineNanoTime), TimeUnit.NANOSECONDS);
+        logCancelled(marketId, cancelledCount);
+        cancelledOrderCounts.put(marketId, cancelledCount);
+      } catch (ExecutionException e) {
+        LOG.error(
+            () ->
+                "Emergency Stop: failed to cancel the open orders on market "
+                    + marketId
+                    + " - check the exchange!",
+            e.getCause());
+        failedMarketIds.add(marketId);
+      } catch (TimeoutException e) {
+        deadlineMet = false;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+    }
+    return deadlineMet;
+  }
+
+  private static long nanosUntil(long deadlineNanoTime) {
+    return Math.max(0, deadlineNanoTime - System.nanoTime());
+  }
+
+  private static void logCancelled(String marketId, int cancelledCount) {
+    LOG.warn(
+        () ->
+            "Emergency Stop: cancelled "
+                + cancelledCount
+                + " open order(s) on market "
+                + marketId);
+  }
+
+  /** What the Emergency Stop cancelled, and how long it took. */
+  static final class CancelReport {
+
+    private final Map<String, Integer> cancelledOrderCounts = new LinkedHashMap<>();
+    private final List<String> failedMarketIds = new ArrayList<>();
+    private final List<String> timedOutMarketIds = new ArrayList<>();
+    private final long elapsedMillis;
+
+    private CancelReport(long elapsedMillis) {
+      this.elapsedMillis = elapsedMillis;
+    }
+
+    Map<String, Integer> getCancelledOrderCounts() {
+      return Collections.unmodifiableMap(cancelledOrderCounts);
+    }
+
+    int getTotalCancelledOrders() {
+      return cancelledOrderCounts.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    List<String> getFailedMarketIds() {
+      return Collections.unmodifiableList(failedMarketIds);
+    }
+
+    List<String> getTimedOutMarketIds() {
+      return Collections.unmodifiableList(timedOutMarketIds);
+    }
+
+    long getElapsedMillis() {
+      return elapsedMillis;
+    }
+
+    boolean isComplete() {
+      return failedMarketIds.isEmpty() && timedOutMarketIds.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+      return MoreObjects.toStringHelper(this)
+          .add("totalCancelledOrders", getTotalCancelledOrders())
+          .add("cancelledOrderCounts", cancelledOrderCounts)
+          .add("failedMarketIds", failedMarketIds)
+          .add("timedOutMarketIds", timedOutMarketIds)
+          .add("elapsedMillis", elapsedMillis)
+          .toString();
+    }
+  }
+}
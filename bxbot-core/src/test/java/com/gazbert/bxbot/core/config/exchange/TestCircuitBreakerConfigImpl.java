@@ -0,0 +1,70 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.core.config.exchange;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+/**
+ * Tests Circuit Breaker Config exchange API config object behaves as expected.
+ *
+ * @author gazbert
+ */
+public class TestCircuitBreakerConfigImpl {
+
+  private static final Integer FAILURE_RATE_THRESHOLD = 50;
+  private static final Integer WINDOW_SIZE = 10;
+  private static final Integer MINIMUM_REQUESTS = 5;
+  private static final Integer COOLDOWN_SECONDS = 60;
+
+  @Test
+  public void testInitialisationWorksAsExpected() {
+
+    final CircuitBreakerConfigImpl circuitBreakerConfig = new CircuitBreakerConfigImpl();
+    assertNull(circuitBreakerConfig.getFailureRateThreshold());
+    assertNull(circuitBreakerConfig.getWindowSize());
+    assertNull(circuitBreakerConfig.getMinimumRequests());
+    assertNull(circuitBreakerConfig.getCooldownSeconds());
+  }
+
+  @Test
+  public void testSettersWorkAsExpected() {
+
+    final CircuitBreakerConfigImpl circuitBreakerConfig = new CircuitBreakerConfigImpl();
+
+    circuitBreakerConfig.setFailureRateThreshold(FAILURE_RATE_THRESHOLD);
+    assertEquals(FAILURE_RATE_THRESHOLD, circuitBreakerConfig.getFailureRateThreshold());
+
+    circuitBreakerConfig.setWindowSize(WINDOW_SIZE);
+    assertEquals(WINDOW_SIZE, circuitBreakerConfig.getWindowSize());
+
+    circuitBreakerConfig.setMinimumRequests(MINIMUM_REQUESTS);
+    assertEquals(MINIMUM_REQUESTS, circuitBreakerConfig.getMinimumRequests());
+
+    circuitBreakerConfig.setCooldownSeconds(COOLDOWN_SECONDS);
+    assertEquals(COOLDOWN_SECONDS, circuitBreakerConfig.getCooldownSeconds());
+  }
+}
@@ -25,8 +25,13 @@ package com.gazbert.bxbot.core.config.exchange;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.gazbert.bxbot.domain.exchange.CircuitBreakerConfig;
 import com.gazbert.bxbot.domain.exchange.ExchangeConfig;
+import com.gazbert.bxbot.domain.exchange.HedgingConfig;
 import com.gazbert.bxbot.domain.exchange.NetworkConfig;
+import com.gazbert.bxbot.domain.exchange.RateLimitConfig;
+import com.gazbert.bxbot.domain.exchange.RetryConfig;
+import com.gazbert.bxbot.domain.exchange.TimeoutConfig;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -53,6 +58,33 @@ public class TestExchangeApiConfigBuilder {
   private static final List<String> NON_FATAL_ERROR_MESSAGES =
       Arrays.asList("Connection refused", "Remote host closed connection during handshake");
 
+  private static final Integer PUBLIC_API_CAPACITY = 15;
+  private static final Double PUBLIC_API_REFILL_PER_SECOND = 1.0;
+  private static final Integer PRIVATE_API_CAPACITY = 20;
+  private static final Double PRIVATE_API_REFILL_PER_SECOND = 0.33;
+  private static final Map<String, Integer> METHOD_COSTS = Map.of("Ledgers", 2);
+
+  private static final Integer MAX_ATTEMPTS = 3;
+  private static final Integer INITIAL_BACKOFF_MILLIS = 100;
+  private static final Integer MAX_BACKOFF_MILLIS = 2000;
+  private static final Integer DEADLINE_MILLIS = 5000;
+
+  private static final Integer FAILURE_RATE_THRESHOLD = 50;
+  private static final Integer WINDOW_SIZE = 10;
+  private static final Integer MINIMUM_REQUESTS = 5;
+  private static final Integer COOLDOWN_SECONDS = 60;
+
+  private static final Integer CONNECT_TIMEOUT_MILLIS = 2000;
+  private static final Integer READ_TIMEOUT_MILLIS = 10000;
+  private static final Integer MARKET_DATA_READ_TIMEOUT_MILLIS = 3000;
+  private static final Integer ORDER_READ_TIMEOUT_MILLIS = 20000;
+  private static final Integer BALANCE_READ_TIMEOUT_MILLIS = 5000;
+
+  private static final Integer LATENCY_PERCENTILE = 95;
+  private static final Integer BUDGET_PERCENT = 10;
+  private static final Integer MIN_DELAY_MILLIS = 20;
+  private static final Integer HEDGING_WINDOW_SIZE = 100;
+
   private static final String BUY_FEE_CONFIG_ITEM_KEY = "buy-fee";
   private static final String BUY_FEE_CONFIG_ITEM_VALUE = "0.20";
   private static final String SELL_FEE_CONFIG_ITEM_KEY = "sell-fee";
@@ -78,6 +110,46 @@ public class TestExchangeApiConfigBuilder {
     assertThat(exchangeApiConfig.getNetworkConfig().getNonFatalErrorMessages())
         .isEqualTo(NON_FATAL_ERROR_MESSAGES);
 
+    final com.gazbert.bxbot.exchange.api.RateLimitConfig rateLimitConfig =
+        exchangeApiConfig.getNetworkConfig().getRateLimitConfig();
+    assertThat(rateLimitConfig.getPublicApiCapacity()).isEqualTo(PUBLIC_API_CAPACITY);
+    assertThat(rateLimitConfig.getPublicApiRefillPerSecond())
+        .isEqualTo(PUBLIC_API_REFILL_PER_SECOND);
+    assertThat(rateLimitConfig.getPrivateApiCapacity()).isEqualTo(PRIVATE_API_CAPACITY);
+    assertThat(rateLimitConfig.getPrivateApiRefillPerSecond())
+        .isEqualTo(PRIVATE_API_REFILL_PER_SECOND);
+    assertThat(rateLimitConfig.getMethodCosts()).isEqualTo(METHOD_COSTS);
+
+    final com.gazbert.bxbot.exchange.api.RetryConfig retryConfig =
+        exchangeApiConfig.getNetworkConfig().getRetryConfig();
+    assertThat(retryConfig.getMaxAttempts()).isEqualTo(MAX_ATTEMPTS);
+    assertThat(retryConfig.getInitialBackoffMillis()).isEqualTo(INITIAL_BACKOFF_MILLIS);
+    assertThat(retryConfig.getMaxBackoffMillis()).isEqualTo(MAX_BACKOFF_MILLIS);
+    assertThat(retryConfig.getDeadlineMillis()).isEqualTo(DEADLINE_MILLIS);
+
+    final com.gazbert.bxbot.exchange.api.CircuitBreakerConfig circuitBreakerConfig =
+        exchangeApiConfig.getNetworkConfig().getCircuitBreakerConfig();
+    assertThat(circuitBreakerConfig.getFailureRateThreshold()).isEqualTo(FAILURE_RATE_THRESHOLD);
+    assertThat(circuitBreakerConfig.getWindowSize()).isEqualTo(WINDOW_SIZE);
+    assertThat(circuitBreakerConfig.getMinimumRequests()).isEqualTo(MINIMUM_REQUESTS);
+    assertThat(circuitBreakerConfig.getCooldownSeconds()).isEqualTo(COOLDOWN_SECONDS);
+
+    final com.gazbert.bxbot.exchange.api.TimeoutConfig timeoutConfig =
+        exchangeApiConfig.getNetworkConfig().getTimeoutConfig();
+    assertThat(timeoutConfig.getConnectTimeoutMillis()).isEqualTo(CONNECT_TIMEOUT_MILLIS);
+    assertThat(timeoutConfig.getReadTimeoutMillis()).isEqualTo(READ_TIMEOUT_MILLIS);
+    assertThat(timeoutConfig.getMarketDataReadTimeoutMillis())
+        .isEqualTo(MARKET_DATA_READ_TIMEOUT_MILLIS);
+    assertThat(timeoutConfig.getOrderReadTimeoutMillis()).isEqualTo(ORDER_READ_TIMEOUT_MILLIS);
+    assertThat(timeoutConfig.getBalanceReadTimeoutMillis()).isEqualTo(BALANCE_READ_TIMEOUT_MILLIS);
+
+    final com.gazbert.bxbot.exchange.api.HedgingConfig hedgingConfig =
+        exchangeApiConfig.getNetworkConfig().getHedgingConfig();
+    assertThat(hedgingConfig.getLatencyPercentile()).isEqualTo(LATENCY_PERCENTILE);
+    assertThat(hedgingConfig.getBudgetPercent()).isEqualTo(BUDGET_PERCENT);
+    assertThat(hedgingConfig.getMinDelayMillis()).isEqualTo(MIN_DELAY_MILLIS);
+    assertThat(hedgingConfig.getWindowSize()).isEqualTo(HEDGING_WINDOW_SIZE);
+
     assertThat(exchangeApiConfig.getOtherConfig().getItem(BUY_FEE_CONFIG_ITEM_KEY))
         .isEqualTo(BUY_FEE_CONFIG_ITEM_VALUE);
     assertThat(exchangeApiConfig.getOtherConfig().getItem(SELL_FEE_CONFIG_ITEM_KEY))
@@ -114,6 +186,11 @@ public class TestExchangeApiConfigBuilder {
         .isEqualTo(CONNECTION_TIMEOUT);
     assertThat(exchangeApiConfig.getNetworkConfig().getNonFatalErrorCodes()).isEmpty();
     assertThat(exchangeApiConfig.getNetworkConfig().getNonFatalErrorMessages()).isEmpty();
+    assertThat(exchangeApiConfig.getNetworkConfig().getRateLimitConfig()).isNull();
+    assertThat(exchangeApiConfig.getNetworkConfig().getRetryConfig()).isNull();
+    assertThat(exchangeApiConfig.getNetworkConfig().getCircuitBreakerConfig()).isNull();
+    assertThat(exchangeApiConfig.getNetworkConfig().getTimeoutConfig()).isNull();
+    assertThat(exchangeApiConfig.getNetworkConfig().getHedgingConfig()).isNull();
 
     assertThat(exchangeApiConfig.getOtherConfig().getItem(BUY_FEE_CONFIG_ITEM_KEY))
         .isEqualTo(BUY_FEE_CONFIG_ITEM_VALUE);
@@ -133,9 +210,61 @@ public class TestExchangeApiConfigBuilder {
     networkConfig.setConnectionTimeout(CONNECTION_TIMEOUT);
     networkConfig.setNonFatalErrorCodes(NON_FATAL_ERROR_CODES);
     networkConfig.setNonFatalErrorMessages(NON_FATAL_ERROR_MESSAGES);
+    networkConfig.setRateLimit(buildRateLimitConfig());
+    networkConfig.setRetry(buildRetryConfig());
+    networkConfig.setCircuitBreaker(buildCircuitBreakerConfig());
+    networkConfig.setTimeouts(buildTimeoutConfig());
+    networkConfig.setHedging(buildHedgingConfig());
     return networkConfig;
   }
 
+  private static RateLimitConfig buildRateLimitConfig() {
+    final RateLimitConfig rateLimitConfig = new RateLimitConfig();
+    rateLimitConfig.setPublicApiCapacity(PUBLIC_API_CAPACITY);
+    rateLimitConfig.setPublicApiRefillPerSecond(PUBLIC_API_REFILL_PER_SECOND);
+    rateLimitConfig.setPrivateApiCapacity(PRIVATE_API_CAPACITY);
+    rateLimitConfig.setPrivateApiRefillPerSecond(PRIVATE_API_REFILL_PER_SECOND);
+    rateLimitConfig.setMethodCosts(METHOD_COSTS);
+    return rateLimitConfig;
+  }
+
+  private static RetryConfig buildRetryConfig() {
+    final RetryConfig retryConfig = new RetryConfig();
+    retryConfig.setMaxAttempts(MAX_ATTEMPTS);
+    retryConfig.setInitialBackoffMillis(INITIAL_BACKOFF_MILLIS);
+    retryConfig.setMaxBackoffMillis(MAX_BACKOFF_MILLIS);
+    retryConfig.setDeadlineMillis(DEADLINE_MILLIS);
+    return retryConfig;
+  }
+
+  private static CircuitBreakerConfig buildCircuitBreakerConfig() {
+    final CircuitBreakerConfig circuitBreakerConfig = new CircuitBreakerConfig();
+    circuitBreakerConfig.setFailureRateThreshold(FAILURE_RATE_THRESHOLD);
+    circuitBreakerConfig.setWindowSize(WINDOW_SIZE);
+    circuitBreakerConfig.setMinimumRequests(MINIMUM_REQUESTS);
+    circuitBreakerConfig.setCooldownSeconds(COOLDOWN_SECONDS);
+    return circuitBreakerConfig;
+  }
+
+  private static TimeoutConfig buildTimeoutConfig() {
+    final TimeoutConfig timeoutConfig = new TimeoutConfig();
+    timeoutConfig.setConnectTimeoutMillis(CONNECT_TIMEOUT_MILLIS);
+    timeoutConfig.setReadTimeoutMillis(READ_TIMEOUT_MILLIS);
+    timeoutConfig.setMarketDataReadTimeoutMillis(MARKET_DATA_READ_TIMEOUT_MILLIS);
+    timeoutConfig.setOrderReadTimeoutMillis(ORDER_READ_TIMEOUT_MILLIS);
+    timeoutConfig.setBalanceReadTimeoutMillis(BALANCE_READ_TIMEOUT_MILLIS);
+    return timeoutConfig;
+  }
+
+  private static HedgingConfig buildHedgingConfig() {
+    final HedgingConfig hedgingConfig = new HedgingConfig();
+    hedgingConfig.setLatencyPercentile(LATENCY_PERCENTILE);
+    hedgingConfig.setBudgetPercent(BUDGET_PERCENT);
+    hedgingConfig.setMinDelayMillis(MIN_DELAY_MILLIS);
+    hedgingConfig.setWindowSize(HEDGING_WINDOW_SIZE);
+    return hedgingConfig;
+  }
+
   private static NetworkConfig buildNetworkConfigWithoutErrorCodesAndMessages() {
     final NetworkConfig networkConfig = new NetworkConfig();
     networkConfig.setConnectionTimeout(CONNECTION_TIMEOUT);
@@ -0,0 +1,82 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.core.config.exchange;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+/**
+ * Tests Hedging Config exchange API config object behaves as expected.
+ *
+ * @author gazbert
+ */
+public class TestHedgingConfigImpl {
+
+  private static final Integer LATENCY_PERCENTILE = 95;
+  private static final Integer BUDGET_PERCENT = 10;
+  private static final Integer MIN_DELAY_MILLIS = 20;
+  private static final Integer WINDOW_SIZE = 100;
+
+  @Test
+  public void testInitialisationWorksAsExpected() {
+    final HedgingConfigImpl hedgingConfig = new HedgingConfigImpl();
+    assertNull(hedgingConfig.getLatencyPercentile());
+    assertNull(hedgingConfig.getBudgetPercent());
+    assertNull(hedgingConfig.getMinDelayMillis());
+    assertNull(hedgingConfig.getWindowSize());
+  }
+
+  @Test
+  public void testSettersWorkAsExpected() {
+    final HedgingConfigImpl hedgingConfig = new HedgingConfigImpl();
+
+    hedgingConfig.setLatencyPercentile(LATENCY_PERCENTILE);
+    assertEquals(LATENCY_PERCENTILE, hedgingConfig.getLatencyPercentile());
+
+    hedgingConfig.setBudgetPercent(BUDGET_PERCENT);
+    assertEquals(BUDGET_PERCENT, hedgingConfig.getBudgetPercent());
+
+    hedgingConfig.setMinDelayMillis(MIN_DELAY_MILLIS);
+    assertEquals(MIN_DELAY_MILLIS, hedgingConfig.getMinDelayMillis());
+
+    hedgingConfig.setWindowSize(WINDOW_SIZE);
+    assertEquals(WINDOW_SIZE, hedgingConfig.getWindowSize());
+  }
+
+  @Test
+  public void testToStringWorksAsExpected() {
+    final HedgingConfigImpl hedgingConfig = new HedgingConfigImpl();
+    hedgingConfig.setLatencyPercentile(LATENCY_PERCENTILE);
+    hedgingConfig.setBudgetPercent(BUDGET_PERCENT);
+    hedgingConfig.setMinDelayMillis(MIN_DELAY_MILLIS);
+    hedgingConfig.setWindowSize(WINDOW_SIZE);
+
+    assertEquals(
+        "HedgingConfigImpl{latencyPercentile=95, budgetPercent=10, minDelayMillis=20, "
+            + "windowSize=100}",
+        hedgingConfig.toString());
+  }
+}
@@ -53,6 +53,11 @@ public class TestNetworkConfigImpl {
     assertNull(networkConfig.getConnectionTimeout());
     assertTrue(networkConfig.getNonFatalErrorCodes().isEmpty());
     assertTrue(networkConfig.getNonFatalErrorMessages().isEmpty());
+    assertNull(networkConfig.getRateLimitConfig());
+    assertNull(networkConfig.getRetryConfig());
+    assertNull(networkConfig.getCircuitBreakerConfig());
+    assertNull(networkConfig.getTimeoutConfig());
+    assertNull(networkConfig.getHedgingConfig());
   }
 
   @Test
@@ -68,5 +73,25 @@ public class TestNetworkConfigImpl {
 
     networkConfig.setNonFatalErrorMessages(NON_FATAL_ERROR_MESSAGES);
     assertEquals(NON_FATAL_ERROR_MESSAGES, networkConfig.getNonFatalErrorMessages());
+
+    final RateLimitConfigImpl rateLimitConfig = new RateLimitConfigImpl();
+    networkConfig.setRateLimitConfig(rateLimitConfig);
+    assertEquals(rateLimitConfig, networkConfig.getRateLimitConfig());
+
+    final RetryConfigImpl retryConfig = new RetryConfigImpl();
+    networkConfig.setRetryConfig(retryConfig);
+    assertEquals(retryConfig, networkConfig.getRetryConfig());
+
+    final CircuitBreakerConfigImpl circuitBreakerConfig = new CircuitBreakerConfigImpl();
+    networkConfig.setCircuitBreakerConfig(circuitBreakerConfig);
+    assertEquals(circuitBreakerConfig, networkConfig.getCircuitBreakerConfig());
+
+    final TimeoutConfigImpl timeoutConfig = new TimeoutConfigImpl();
+    networkConfig.setTimeoutConfig(timeoutConfig);
+    assertEquals(timeoutConfig, networkConfig.getTimeoutConfig());
+
+    final HedgingConfigImpl hedgingConfig = new HedgingConfigImpl();
+    networkConfig.setHedgingConfig(hedgingConfig);
+    assertEquals(hedgingConfig, networkConfig.getHedgingConfig());
   }
 }
@@ -0,0 +1,77 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.core.config.exchange;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+import org.junit.Test;
+
+/**
+ * Tests Rate Limit Config exchange API config object behaves as expected.
+ *
+ * @author gazbert
+ */
+public class TestRateLimitConfigImpl {
+
+  private static final Integer PUBLIC_API_CAPACITY = 15;
+  private static final Double PUBLIC_API_REFILL_PER_SECOND = 1.0;
+  private static final Integer PRIVATE_API_CAPACITY = 20;
+  private static final Double PRIVATE_API_REFILL_PER_SECOND = 0.33;
+  private static final Map<String, Integer> METHOD_COSTS = Map.of("Ledgers", 2);
+
+  @Test
+  public void testInitialisationWorksAsExpected() {
+
+    final RateLimitConfigImpl rateLimitConfig = new RateLimitConfigImpl();
+    assertNull(rateLimitConfig.getPublicApiCapacity());
+    assertNull(rateLimitConfig.getPublicApiRefillPerSecond());
+    assertNull(rateLimitConfig.getPrivateApiCapacity());
+    assertNull(rateLimitConfig.getPrivateApiRefillPerSecond());
+    assertTrue(rateLimitConfig.getMethodCosts().isEmpty());
+  }
+
+  @Test
+  public void testSettersWorkAsExpected() {
+
+    final RateLimitConfigImpl rateLimitConfig = new RateLimitConfigImpl();
+
+    rateLimitConfig.setPublicApiCapacity(PUBLIC_API_CAPACITY);
+    assertEquals(PUBLIC_API_CAPACITY, rateLimitConfig.getPublicApiCapacity());
+
+    rateLimitConfig.setPublicApiRefillPerSecond(PUBLIC_API_REFILL_PER_SECOND);
+    assertEquals(PUBLIC_API_REFILL_PER_SECOND, rateLimitConfig.getPublicApiRefillPerSecond());
+
+    rateLimitConfig.setPrivateApiCapacity(PRIVATE_API_CAPACITY);
+    assertEquals(PRIVATE_API_CAPACITY, rateLimitConfig.getPrivateApiCapacity());
+
+    rateLimitConfig.setPrivateApiRefillPerSecond(PRIVATE_API_REFILL_PER_SECOND);
+    assertEquals(PRIVATE_API_REFILL_PER_SECOND, rateLimitConfig.getPrivateApiRefillPerSecond());
+
+    rateLimitConfig.setMethodCosts(METHOD_COSTS);
+    assertEquals(METHOD_COSTS, rateLimitConfig.getMethodCosts());
+  }
+}
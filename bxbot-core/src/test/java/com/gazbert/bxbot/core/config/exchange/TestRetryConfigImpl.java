@@ -0,0 +1,70 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.core.config.exchange;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+/**
+ * Tests Retry Config exchange API config object behaves as expected.
+ *
+ * @author gazbert
+ */
+public class TestRetryConfigImpl {
+
+  private static final Integer MAX_ATTEMPTS = 3;
+  private static final Integer INITIAL_BACKOFF_MILLIS = 100;
+  private static final Integer MAX_BACKOFF_MILLIS = 2000;
+  private static final Integer DEADLINE_MILLIS = 5000;
+
+  @Test
+  public void testInitialisationWorksAsExpected() {
+
+    final RetryConfigImpl retryConfig = new RetryConfigImpl();
+    assertNull(retryConfig.getMaxAttempts());
+    assertNull(retryConfig.getInitialBackoffMillis());
+    assertNull(retryConfig.getMaxBackoffMillis());
+    assertNull(retryConfig.getDeadlineMillis());
+  }
+
+  @Test
+  public void testSettersWorkAsExpected() {
+
+    final RetryConfigImpl retryConfig = new RetryConfigImpl();
+
+    retryConfig.setMaxAttempts(MAX_ATTEMPTS);
+    assertEquals(MAX_ATTEMPTS, retryConfig.getMaxAttempts());
+
+    retryConfig.setInitialBackoffMillis(INITIAL_BACKOFF_MILLIS);
+    assertEquals(INITIAL_BACKOFF_MILLIS, retryConfig.getInitialBackoffMillis());
+
+    retryConfig.setMaxBackoffMillis(MAX_BACKOFF_MILLIS);
+    assertEquals(MAX_BACKOFF_MILLIS, retryConfig.getMaxBackoffMillis());
+
+    retryConfig.setDeadlineMillis(DEADLINE_MILLIS);
+    assertEquals(DEADLINE_MILLIS, retryConfig.getDeadlineMillis());
+  }
+}
@@ -0,0 +1,446 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.core.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.gazbert.bxbot.core.engine.CachingExchangeAdapter.MarketDataCall;
+import com.gazbert.bxbot.domain.engine.MarketDataCacheConfig;
+import com.gazbert.bxbot.exchange.api.ExchangeAdapter;
+import com.gazbert.bxbot.exchange.api.ExchangeConfig;
+import com.gazbert.bxbot.trading.api.BalanceInfo;
+import com.gazbert.bxbot.trading.api.ExchangeNetworkException;
+import com.gazbert.bxbot.trading.api.MarketOrder;
+import com.gazbert.bxbot.trading.api.MarketOrderBook;
+import com.gazbert.bxbot.trading.api.OpenOrder;
+import com.gazbert.bxbot.trading.api.OrderType;
+import com.gazbert.bxbot.trading.api.Ticker;
+import com.gazbert.bxbot.trading.api.TradingApiException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the Caching Exchange Adapter behaves as expected.
+ *
+ * @author gazbert
+ */
+public class TestCachingExchangeAdapter {
+
+  private static final String MARKET_ID = "btcusd";
+  private static final int MARKET_ORDERS_TTL = 2000;
+  private static final int BALANCE_INFO_TTL = 5000;
+  private static final int OPEN_ORDERS_TTL = 5000;
+  private static final long ONE_SEC_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  private long now;
+  private StubExchangeAdapter stubAdapter;
+  private CachingExchangeAdapter cachingAdapter;
+
+  /** Creates a caching adapter around a stub adapter, with a fake clock. */
+  @Before
+  public void setupBeforeEachTest() {
+    now = 1_000L;
+    stubAdapter = new StubExchangeAdapter();
+
+    final MarketDataCacheConfig config = new MarketDataCacheConfig();
+    config.setMarketOrdersTtl(MARKET_ORDERS_TTL);
+    config.setBalanceInfoTtl(BALANCE_INFO_TTL);
+    config.setOpenOrdersTtl(OPEN_ORDERS_TTL);
+    cachingAdapter = new CachingExchangeAdapter(stubAdapter, config, () -> now);
+  }
+
+  @Test
+  public void testResultsAreSharedUntilTtlExpires() throws Exception {
+    final MarketOrderBook orderBook = cachingAdapter.getMarketOrders(MARKET_ID);
+    now += ONE_SEC_NANOS;
+    assertSame(orderBook, cachingAdapter.getMarketOrders(MARKET_ID));
+    assertEquals(1, stubAdapter.marketOrdersCalls.get());
+
+    now += ONE_SEC_NANOS;
+    cachingAdapter.getMarketOrders(MARKET_ID);
+    assertEquals(2, stubAdapter.marketOrdersCalls.get());
+
+    assertEquals(1, cachingAdapter.getHitCount(MarketDataCall.MARKET_ORDERS));
+    assertEquals(2, cachingAdapter.getMissCount(MarketDataCall.MARKET_ORDERS));
+  }
+
+  @Test
+  public void testDifferentMarketsAndDepthsAreCachedSeparately() throws Exception {
+    cachingAdapter.getMarketOrders(MARKET_ID);
+    cachingAdapter.getMarketOrders("ltcusd");
+    cachingAdapter.getMarketOrders(MARKET_ID, 1);
+    cachingAdapter.getMarketOrders(MARKET_ID, 1);
+
+    assertEquals(3, stubAdapter.marketOrdersCalls.get());
+    assertEquals(1, cachingAdapter.getHitCount(MarketDataCall.MARKET_ORDERS));
+  }
+
+  @Test
+  public void testCallsWithoutTtlAreNotCached() throws Exception {
+    cachingAdapter.getLatestMarketPrice(MARKET_ID);
+    cachingAdapter.getLatestMarketPrice(MARKET_ID);
+
+    assertEquals(2, stubAdapter.latestMarketPriceCalls.get());
+    assertEquals(0, cachingAdapter.getHitCount(MarketDataCall.LATEST_MARKET_PRICE));
+    assertEquals(2, cachingAdapter.getMissCount(MarketDataCall.LATEST_MARKET_PRICE));
+  }
+
+  @Test
+  public void testCreatingAndCancellingOrdersInvalidatesAccountData() throws Exception {
+    cachingAdapter.getBalanceInfo();
+    cachingAdapter.getYourOpenOrders(MARKET_ID);
+    cachingAdapter.getMarketOrders(MARKET_ID);
+
+    cachingAdapter.createOrder(MARKET_ID, OrderType.BUY, BigDecimal.ONE, BigDecimal.TEN);
+    cachingAdapter.getBalanceInfo();
+    cachingAdapter.getYourOpenOrders(MARKET_ID);
+    cachingAdapter.getMarketOrders(MARKET_ID);
+    assertEquals(2, stubAdapter.balanceInfoCalls.get());
+    assertEquals(2, stubAdapter.openOrdersCalls.get());
+    assertEquals(1, stubAdapter.marketOrdersCalls.get());
+
+    cachingAdapter.cancelOrder("order-1", MARKET_ID);
+    cachingAdapter.getBalanceInfo();
+    cachingAdapter.getYourOpenOrders(MARKET_ID);
+    assertEquals(3, stubAdapter.balanceInfoCalls.get());
+    assertEquals(3, stubAdapter.openOrdersCalls.get());
+  }
+
+  @Test
+  public void testInvalidatingCallDropsCachedResults() throws Exception {
+    cachingAdapter.getBalanceInfo();
+    cachingAdapter.invalidate(MarketDataCall.BALANCE_INFO);
+    cachingAdapter.getBalanceInfo();
+
+    assertEquals(2, stubAdapter.balanceInfoCalls.get());
+  }
+
+  @Test
+  public void testFailuresAreNotCached() throws Exception {
+    stubAdapter.failNextCall = true;
+    try {
+      cachingAdapter.getMarketOrders(MARKET_ID);
+      fail("Expected ExchangeNetworkException");
+    } catch (ExchangeNetworkException e) {
+      // expected
+    }
+
+    cachingAdapter.getMarketOrders(MARKET_ID);
+    assertEquals(2, stubAdapter.marketOrdersCalls.get());
+  }
+
+  @Test
+  public void testResultFetchedWhileCallIsInvalidatedIsNotCached() throws Exception {
+    stubAdapter.callStarted = new CountDownLatch(1);
+    stubAdapter.releaseCall = new CountDownLatch(1);
+
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      final Future<MarketOrderBook> inFlight =
+          executor.submit(() -> cachingAdapter.getMarketOrders(MARKET_ID));
+      stubAdapter.callStarted.await(5, TimeUnit.SECONDS);
+      cachingAdapter.invalidate(MarketDataCall.MARKET_ORDERS);
+      stubAdapter.releaseCall.countDown();
+      inFlight.get(5, TimeUnit.SECONDS);
+    } finally {
+      executor.shutdownNow();
+    }
+
+    stubAdapter.callStarted = null;
+    cachingAdapter.getMarketOrders(MARKET_ID);
+    assertEquals(2, stubAdapter.marketOrdersCalls.get());
+  }
+
+  @Test
+  public void testAsyncRequestsShareCache() throws Exception {
+    final MarketOrderBook orderBook = cachingAdapter.getMarketOrdersAsync(MARKET_ID).get();
+    assertSame(orderBook, cachingAdapter.getMarketOrders(MARKET_ID));
+    assertSame(orderBook, cachingAdapter.getMarketOrdersAsync(MARKET_ID).get());
+    assertEquals(1, stubAdapter.marketOrdersCalls.get());
+  }
+
+  @Test
+  public void testAsyncReadsAreForwardedToTheDelegateAndShareCache() throws Exception {
+    final List<OpenOrder> openOrders = cachingAdapter.getYourOpenOrdersAsync(MARKET_ID).get();
+    assertSame(openOrders, cachingAdapter.getYourOpenOrdersAsync(MARKET_ID).get());
+    assertSame(openOrders, cachingAdapter.getYourOpenOrders(MARKET_ID));
+    assertEquals(1, stubAdapter.openOrdersCalls.get());
+
+    final BalanceInfo balanceInfo = cachingAdapter.getBalanceInfoAsync().get();
+    assertSame(balanceInfo, cachingAdapter.getBalanceInfoAsync().get());
+    assertSame(balanceInfo, cachingAdapter.getBalanceInfo());
+    assertEquals(1, stubAdapter.balanceInfoCalls.get());
+
+    // no TTL configured for these
+    cachingAdapter.getLatestMarketPriceAsync(MARKET_ID).get();
+    cachingAdapter.getLatestMarketPriceAsync(MARKET_ID).get();
+    assertEquals(2, stubAdapter.latestMarketPriceCalls.get());
+    cachingAdapter.getTickerAsync(MARKET_ID).get();
+    assertEquals(1, cachingAdapter.getMissCount(MarketDataCall.TICKER));
+
+    assertEquals(5, stubAdapter.asyncCalls.get());
+  }
+
+  @Test
+  public void testCreatingAndCancellingOrdersAsynchronouslyInvalidatesAccountData()
+      throws Exception {
+    cachingAdapter.getBalanceInfoAsync().get();
+    cachingAdapter.getYourOpenOrdersAsync(MARKET_ID).get();
+
+    assertEquals(
+        "order-1",
+        cachingAdapter.createOrderAsync(MARKET_ID, OrderType.BUY, BigDecimal.ONE, BigDecimal.TEN)
+            .get());
+    cachingAdapter.getBalanceInfoAsync().get();
+    cachingAdapter.getYourOpenOrdersAsync(MARKET_ID).get();
+    assertEquals(2, stubAdapter.balanceInfoCalls.get());
+    assertEquals(2, stubAdapter.openOrdersCalls.get());
+
+    assertTrue(cachingAdapter.cancelOrderAsync("order-1", MARKET_ID).get());
+    cachingAdapter.getBalanceInfoAsync().get();
+    cachingAdapter.getYourOpenOrdersAsync(MARKET_ID).get();
+    assertEquals(3, stubAdapter.balanceInfoCalls.get());
+    assertEquals(3, stubAdapter.openOrdersCalls.get());
+
+    assertEquals(8, stubAdapter.asyncCalls.get());
+  }
+
+  @Test
+  public void testBatchFetchOnlyFetchesMissingMarketsAndCachesEachBook() throws Exception {
+    final MarketOrderBook cachedOrderBook = cachingAdapter.getMarketOrders(MARKET_ID);
+
+    final Map<String, MarketOrderBook> orderBooks =
+        cachingAdapter.getMarketOrders(List.of(MARKET_ID, "ltcusd", "ethusd"));
+
+    assertEquals(List.of(MARKET_ID, "ltcusd", "ethusd"), new ArrayList<>(orderBooks.keySet()));
+    assertSame(cachedOrderBook, orderBooks.get(MARKET_ID));
+    assertEquals(List.of("ltcusd", "ethusd"), stubAdapter.batchMarketIds);
+
+    assertSame(orderBooks.get("ltcusd"), cachingAdapter.getMarketOrders("ltcusd"));
+    assertSame(orderBooks.get("ethusd"), cachingAdapter.getMarketOrders("ethusd"));
+    assertEquals(3, stubAdapter.marketOrdersCalls.get());
+  }
+
+  @Test
+  public void testFailedBatchFetchIsNotCached() throws Exception {
+    stubAdapter.failNextCall = true;
+    try {
+      cachingAdapter.getMarketOrders(List.of(MARKET_ID, "ltcusd"));
+      fail("Expected ExchangeNetworkException");
+    } catch (ExchangeNetworkException e) {
+      // expected
+    }
+
+    cachingAdapter.getMarketOrders(MARKET_ID);
+    cachingAdapter.getMarketOrders("ltcusd");
+    assertEquals(3, stubAdapter.marketOrdersCalls.get());
+  }
+
+  /** Counts the calls made to the exchange. */
+  private static class StubExchangeAdapter implements ExchangeAdapter {
+
+    private final AtomicInteger marketOrdersCalls = new AtomicInteger();
+    private final AtomicInteger latestMarketPriceCalls = new AtomicInteger();
+    private final AtomicInteger balanceInfoCalls = new AtomicInteger();
+    private final AtomicInteger openOrdersCalls = new AtomicInteger();
+    private final AtomicInteger asyncCalls = new AtomicInteger();
+    private volatile List<String> batchMarketIds;
+    private volatile boolean failNextCall;
+    private volatile CountDownLatch callStarted;
+    private volatile CountDownLatch releaseCall;
+
+    @Override
+    public void init(ExchangeConfig config) {
+    }
+
+    @Override
+    public String getImplName() {
+      return "Stub";
+    }
+
+    @Override
+    public MarketOrderBook getMarketOrders(String marketId)
+        throws ExchangeNetworkException, TradingApiException {
+      marketOrdersCalls.incrementAndGet();
+      if (failNextCall) {
+        failNextCall = false;
+        throw new ExchangeNetworkException("Connection reset");
+      }
+      if (callStarted != null) {
+        callStarted.countDown();
+        try {
+          releaseCall.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          throw new TradingApiException("Interrupted", e);
+        }
+      }
+      return new MarketOrderBook() {
+        @Override
+        public String getMarketId() {
+          return marketId;
+        }
+
+        @Override
+        public List<MarketOrder> getSellOrders() {
+          return Collections.emptyList();
+        }
+
+        @Override
+        public List<MarketOrder> getBuyOrders() {
+          return Collections.emptyList();
+        }
+      };
+    }
+
+    @Override
+    public MarketOrderBook getMarketOrders(String marketId, int depth)
+        throws ExchangeNetworkException, TradingApiException {
+      return getMarketOrders(marketId);
+    }
+
+    @Override
+    public Map<String, MarketOrderBook> getMarketOrders(Collection<String> marketIds)
+        throws ExchangeNetworkException, TradingApiException {
+      batchMarketIds = new ArrayList<>(marketIds);
+      return ExchangeAdapter.super.getMarketOrders(marketIds);
+    }
+
+    @Override
+    public CompletableFuture<MarketOrderBook> getMarketOrdersAsync(String marketId) {
+      try {
+        return CompletableFuture.completedFuture(getMarketOrders(marketId));
+      } catch (ExchangeNetworkException | TradingApiException e) {
+        final CompletableFuture<MarketOrderBook> failed = new CompletableFuture<>();
+        failed.completeExceptionally(e);
+        return failed;
+      }
+    }
+
+    @Override
+    public List<OpenOrder> getYourOpenOrders(String marketId) {
+      openOrdersCalls.incrementAndGet();
+      return new ArrayList<>();
+    }
+
+    @Override
+    public CompletableFuture<List<OpenOrder>> getYourOpenOrdersAsync(String marketId) {
+      asyncCalls.incrementAndGet();
+      return CompletableFuture.completedFuture(getYourOpenOrders(marketId));
+    }
+
+    @Override
+    public CompletableFuture<String> createOrderAsync(
+        String marketId, OrderType orderType, BigDecimal quantity, BigDecimal price) {
+      asyncCalls.incrementAndGet();
+      return CompletableFuture.completedFuture(createOrder(marketId, orderType, quantity, price));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> cancelOrderAsync(String orderId, String marketId) {
+      asyncCalls.incrementAndGet();
+      return CompletableFuture.completedFuture(cancelOrder(orderId, marketId));
+    }
+
+    @Override
+    public CompletableFuture<BigDecimal> getLatestMarketPriceAsync(String marketId) {
+      asyncCalls.incrementAndGet();
+      return CompletableFuture.completedFuture(getLatestMarketPrice(marketId));
+    }
+
+    @Override
+    public CompletableFuture<BalanceInfo> getBalanceInfoAsync() {
+      asyncCalls.incrementAndGet();
+      return CompletableFuture.completedFuture(getBalanceInfo());
+    }
+
+    @Override
+    public CompletableFuture<Ticker> getTickerAsync(String marketId) {
+      asyncCalls.incrementAndGet();
+      try {
+        return CompletableFuture.completedFuture(getTicker(marketId));
+      } catch (ExchangeNetworkException | TradingApiException e) {
+        return CompletableFuture.failedFuture(e);
+      }
+    }
+
+    @Override
+    public String createOrder(
+        String marketId, OrderType orderType, BigDecimal quantity, BigDecimal price) {
+      return "order-1";
+    }
+
+    @Override
+    public boolean cancelOrder(String orderId, String marketId) {
+      return true;
+    }
+
+    @Override
+    public BigDecimal getLatestMarketPrice(String marketId) {
+      latestMarketPriceCalls.incrementAndGet();
+      return BigDecimal.TEN;
+    }
+
+    @Override
+    public BalanceInfo getBalanceInfo() {
+      balanceInfoCalls.incrementAndGet();
+      return new BalanceInfo() {
+        @Override
+        public Map<String, BigDecimal> getBalancesAvailable() {
+          return Collections.emptyMap();
+        }
+
+        @Override
+        public Map<String, BigDecimal> getBalancesOnHold() {
+          return Collections.emptyMap();
+        }
+      };
+    }
+
+    @Override
+    public BigDecimal getPercentageOfBuyOrderTakenForExchangeFee(String marketId) {
+      return BigDecimal.ZERO;
+    }
+
+    @Override
+    public BigDecimal getPercentageOfSellOrderTakenForExchangeFee(String marketId) {
+      return BigDecimal.ZERO;
+    }
+  }
+}
@@ -0,0 +1,398 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.core.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.gazbert.bxbot.domain.engine.MarketDataCacheConfig;
+import com.gazbert.bxbot.exchange.api.ExchangeAdapter;
+import com.gazbert.bxbot.exchange.api.ExchangeConfig;
+import com.gazbert.bxbot.trading.api.BalanceInfo;
+import com.gazbert.bxbot.trading.api.ExchangeNetworkException;
+import com.gazbert.bxbot.trading.api.MarketOrderBook;
+import com.gazbert.bxbot.trading.api.OpenOrder;
+import com.gazbert.bxbot.trading.api.OrderType;
+import com.gazbert.bxbot.trading.api.Ticker;
+import com.gazbert.bxbot.trading.api.TradingApiException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the Order Managing Exchange Adapter behaves as expected.
+ *
+ * @author gazbert
+ */
+public class TestOrderManagingExchangeAdapter {
+
+  private static final String MARKET_ID = "btcusd";
+  private static final int RECONCILE_INTERVAL_SECS = 60;
+  private static final long ONE_MIN_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+  private long now;
+  private StubExchangeAdapter stubAdapter;
+  private OrderManagingExchangeAdapter orderManager;
+
+  /** Creates an order manager around a stub adapter, with a fake clock. */
+  @Before
+  public void setupBeforeEachTest() {
+    now = 1_000L;
+    stubAdapter = new StubExchangeAdapter();
+    orderManager =
+        new OrderManagingExchangeAdapter(stubAdapter, RECONCILE_INTERVAL_SECS, () -> now);
+  }
+
+  @Test
+  public void testOrdersAreCheckedLocallyBetweenReconciles() throws Exception {
+    stubAdapter.exchangeOpenOrders.put("order-on-exchange", MARKET_ID);
+
+    assertTrue(orderManager.isOrderOpen("order-on-exchange", MARKET_ID));
+    assertEquals(1, stubAdapter.openOrdersCalls.get());
+
+    final String orderId =
+        orderManager.createOrder(MARKET_ID, OrderType.BUY, BigDecimal.ONE, BigDecimal.TEN);
+    for (int i = 0; i < 5; i++) {
+      assertTrue(orderManager.isOrderOpen(orderId, MARKET_ID));
+      assertTrue(orderManager.isOrderOpen("order-on-exchange", MARKET_ID));
+      assertFalse(orderManager.isOrderOpen("unknown-order", MARKET_ID));
+    }
+    assertEquals(1, stubAdapter.openOrdersCalls.get());
+    assertEquals(2, orderManager.getOpenOrderCount());
+  }
+
+  @Test
+  public void testFilledOrdersAreDroppedAtNextReconcile() throws Exception {
+    final String orderId =
+        orderManager.createOrder(MARKET_ID, OrderType.SELL, BigDecimal.ONE, BigDecimal.TEN);
+    assertTrue(orderManager.isOrderOpen(orderId, MARKET_ID));
+
+    stubAdapter.exchangeOpenOrders.clear(); // it fills
+    now += ONE_MIN_NANOS - 1;
+    assertTrue(orderManager.isOrderOpen(orderId, MARKET_ID));
+    assertEquals(1, stubAdapter.openOrdersCalls.get());
+
+    now += 1;
+    assertFalse(orderManager.isOrderOpen(orderId, MARKET_ID));
+    assertEquals(2, stubAdapter.openOrdersCalls.get());
+    assertEquals(0, orderManager.getOpenOrderCount());
+  }
+
+  @Test
+  public void testOrderPlacedWhileOpenOrdersAreFetchedIsKept() throws Exception {
+    stubAdapter.duringOpenOrdersFetch =
+        () -> {
+          now += 1;
+          stubAdapter.lastOrderId =
+              orderManager.createOrder(MARKET_ID, OrderType.BUY, BigDecimal.ONE, BigDecimal.TEN);
+        };
+
+    orderManager.getYourOpenOrders(MARKET_ID);
+
+    assertTrue(orderManager.isOrderOpen(stubAdapter.lastOrderId, MARKET_ID));
+    assertEquals(1, stubAdapter.openOrdersCalls.get());
+  }
+
+  @Test
+  public void testCancelledOrdersAreDropped() throws Exception {
+    final String orderId =
+        orderManager.createOrder(MARKET_ID, OrderType.BUY, BigDecimal.ONE, BigDecimal.TEN);
+    orderManager.getYourOpenOrders(MARKET_ID);
+
+    assertTrue(orderManager.cancelOrder(orderId, MARKET_ID));
+
+    assertFalse(orderManager.isOrderOpen(orderId, MARKET_ID));
+    assertEquals(0, orderManager.getOpenOrderCount());
+  }
+
+  @Test
+  public void testBulkCancelledOrdersAreDropped() throws Exception {
+    final String cancelledOrderId =
+        orderManager.createOrder(MARKET_ID, OrderType.BUY, BigDecimal.ONE, BigDecimal.TEN);
+    final String openOrderId =
+        orderManager.createOrder(MARKET_ID, OrderType.BUY, BigDecimal.ONE, BigDecimal.TEN);
+    orderManager.getYourOpenOrders(MARKET_ID);
+
+    final Map<String, Boolean> cancelled =
+        orderManager.cancelOrders(Arrays.asList(cancelledOrderId, "unknown-order"), MARKET_ID);
+
+    assertTrue(cancelled.get(cancelledOrderId));
+    assertFalse(cancelled.get("unknown-order"));
+    assertFalse(orderManager.isOrderOpen(cancelledOrderId, MARKET_ID));
+    assertTrue(orderManager.isOrderOpen(openOrderId, MARKET_ID));
+    assertEquals(1, stubAdapter.openOrdersCalls.get());
+  }
+
+  @Test
+  public void testMarketIsReconciledAfterCancelAllOrders() throws Exception {
+    final String orderId =
+        orderManager.createOrder(MARKET_ID, OrderType.BUY, BigDecimal.ONE, BigDecimal.TEN);
+    orderManager.getYourOpenOrders(MARKET_ID);
+
+    assertEquals(1, orderManager.cancelAllOrders(MARKET_ID));
+
+    assertFalse(orderManager.isOrderOpen(orderId, MARKET_ID));
+    assertEquals(0, orderManager.getOpenOrderCount());
+    // 1 fetch to find the orders to cancel, and 1 to reconcile the market afterwards
+    assertEquals(3, stubAdapter.openOrdersCalls.get());
+  }
+
+  @Test
+  public void testOrdersAreTrackedPerMarket() throws Exception {
+    final String orderId =
+        orderManager.createOrder(MARKET_ID, OrderType.BUY, BigDecimal.ONE, BigDecimal.TEN);
+
+    assertFalse(orderManager.isOrderOpen(orderId, "ltcusd"));
+    assertTrue(orderManager.isOrderOpen(orderId, MARKET_ID));
+    assertEquals(2, stubAdapter.openOrdersCalls.get()); // each market is reconciled on first use
+  }
+
+  @Test
+  public void testCachingAdapterHandsOrderChecksToOrderManager() throws Exception {
+    final CachingExchangeAdapter cachingAdapter =
+        new CachingExchangeAdapter(orderManager, new MarketDataCacheConfig(), () -> now);
+    final String orderId =
+        cachingAdapter.createOrder(MARKET_ID, OrderType.BUY, BigDecimal.ONE, BigDecimal.TEN);
+
+    assertTrue(cachingAdapter.isOrderOpen(orderId, MARKET_ID));
+    assertTrue(cachingAdapter.isOrderOpen(orderId, MARKET_ID));
+    assertEquals(1, stubAdapter.openOrdersCalls.get());
+  }
+
+  @Test
+  public void testAsyncCallsAreForwardedToTheDelegateAndOrdersAreTracked() throws Exception {
+    stubAdapter.exchangeOpenOrders.put("order-on-exchange", MARKET_ID);
+    assertEquals(1, orderManager.getYourOpenOrdersAsync(MARKET_ID).get().size());
+    assertTrue(orderManager.isOrderOpen("order-on-exchange", MARKET_ID));
+    assertEquals(1, stubAdapter.openOrdersCalls.get());
+
+    final String orderId =
+        orderManager
+            .createOrderAsync(MARKET_ID, OrderType.BUY, BigDecimal.ONE, BigDecimal.TEN)
+            .get();
+    assertTrue(orderManager.isOrderOpen(orderId, MARKET_ID));
+    assertEquals(2, orderManager.getOpenOrderCount());
+
+    assertTrue(orderManager.cancelOrderAsync(orderId, MARKET_ID).get());
+    assertFalse(orderManager.isOrderOpen(orderId, MARKET_ID));
+    assertEquals(1, orderManager.getOpenOrderCount());
+
+    assertEquals(BigDecimal.TEN, orderManager.getLatestMarketPriceAsync(MARKET_ID).get());
+    orderManager.getBalanceInfoAsync().get();
+    orderManager.getTickerAsync(MARKET_ID).get();
+    assertEquals(6, stubAdapter.asyncCalls.get());
+    assertEquals(1, stubAdapter.openOrdersCalls.get());
+  }
+
+  /** Plays the part of the exchange's order book for your orders. */
+  private static class StubExchangeAdapter implements ExchangeAdapter {
+
+    private final Map<String, String> exchangeOpenOrders = new ConcurrentHashMap<>();
+    private final AtomicInteger openOrdersCalls = new AtomicInteger();
+    private final AtomicInteger orderIds = new AtomicInteger();
+    private final AtomicInteger asyncCalls = new AtomicInteger();
+    private volatile OrderAction duringOpenOrdersFetch;
+    private volatile String lastOrderId;
+
+    @Override
+    public void init(ExchangeConfig config) {
+    }
+
+    @Override
+    public String getImplName() {
+      return "Stub";
+    }
+
+    @Override
+    public MarketOrderBook getMarketOrders(String marketId) {
+      return null;
+    }
+
+    @Override
+    public List<OpenOrder> getYourOpenOrders(String marketId)
+        throws ExchangeNetworkException, TradingApiException {
+      openOrdersCalls.incrementAndGet();
+      final List<OpenOrder> openOrders = new ArrayList<>();
+      exchangeOpenOrders.forEach(
+          (orderId, orderMarketId) -> {
+            if (orderMarketId.equals(marketId)) {
+              openOrders.add(new StubOpenOrder(orderId, marketId));
+            }
+          });
+      if (duringOpenOrdersFetch != null) {
+        final OrderAction action = duringOpenOrdersFetch;
+        duringOpenOrdersFetch = null;
+        action.run();
+      }
+      return openOrders;
+    }
+
+    @Override
+    public String createOrder(
+        String marketId, OrderType orderType, BigDecimal quantity, BigDecimal price) {
+      final String orderId = "order-" + orderIds.incrementAndGet();
+      exchangeOpenOrders.put(orderId, marketId);
+      return orderId;
+    }
+
+    @Override
+    public boolean cancelOrder(String orderId, String marketId) {
+      return exchangeOpenOrders.remove(orderId) != null;
+    }
+
+    @Override
+    public BigDecimal getLatestMarketPrice(String marketId) {
+      return BigDecimal.TEN;
+    }
+
+    @Override
+    public BalanceInfo getBalanceInfo() {
+      return null;
+    }
+
+    @Override
+    public Ticker getTicker(String marketId) {
+      return null;
+    }
+
+    @Override
+    public CompletableFuture<List<OpenOrder>> getYourOpenOrdersAsync(String marketId) {
+      asyncCalls.incrementAndGet();
+      try {
+        return CompletableFuture.completedFuture(getYourOpenOrders(marketId));
+      } catch (ExchangeNetworkException | TradingApiException e) {
+        return CompletableFuture.failedFuture(e);
+      }
+    }
+
+    @Override
+    public CompletableFuture<String> createOrderAsync(
+        String marketId, OrderType orderType, BigDecimal quantity, BigDecimal price) {
+      asyncCalls.incrementAndGet();
+      return CompletableFuture.completedFuture(createOrder(marketId, orderType, quantity, price));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> cancelOrderAsync(String orderId, String marketId) {
+      asyncCalls.incrementAndGet();
+      return CompletableFuture.completedFuture(cancelOrder(orderId, marketId));
+    }
+
+    @Override
+    public CompletableFuture<BigDecimal> getLatestMarketPriceAsync(String marketId) {
+      asyncCalls.incrementAndGet();
+      return CompletableFuture.completedFuture(getLatestMarketPrice(marketId));
+    }
+
+    @Override
+    public CompletableFuture<BalanceInfo> getBalanceInfoAsync() {
+      asyncCalls.incrementAndGet();
+      return CompletableFuture.completedFuture(getBalanceInfo());
+    }
+
+    @Override
+    public CompletableFuture<Ticker> getTickerAsync(String marketId) {
+      asyncCalls.incrementAndGet();
+      return CompletableFuture.completedFuture(getTicker(marketId));
+    }
+
+    @Override
+    public BigDecimal getPercentageOfBuyOrderTakenForExchangeFee(String marketId) {
+      return BigDecimal.ZERO;
+    }
+
+    @Override
+    public BigDecimal getPercentageOfSellOrderTakenForExchangeFee(String marketId) {
+      return BigDecimal.ZERO;
+    }
+  }
+
+  /** An open order on the stub exchange. */
+  private static class StubOpenOrder implements OpenOrder {
+
+    private final String id;
+    private final String marketId;
+
+    StubOpenOrder(String id, String marketId) {
+      this.id = id;
+      this.marketId = marketId;
+    }
+
+    @Override
+    public String getId() {
+      return id;
+    }
+
+    @Override
+    public Date getCreationDate() {
+      return new Date();
+    }
+
+    @Override
+    public String getMarketId() {
+      return marketId;
+    }
+
+    @Override
+    public OrderType getType() {
+      return OrderType.BUY;
+    }
+
+    @Override
+    public BigDecimal getPrice() {
+      return BigDecimal.TEN;
+    }
+
+    @Override
+    public BigDecimal getQuantity() {
+      return BigDecimal.ONE;
+    }
+
+    @Override
+    public BigDecimal getOriginalQuantity() {
+      return BigDecimal.ONE;
+    }
+
+    @Override
+    public BigDecimal getTotal() {
+      return BigDecimal.TEN;
+    }
+  }
+
+  /** Something the bot does while a request is with the exchange. */
+  @FunctionalInterface
+  private interface OrderAction {
+    void run() throws ExchangeNetworkException, TradingApiException;
+  }
+}
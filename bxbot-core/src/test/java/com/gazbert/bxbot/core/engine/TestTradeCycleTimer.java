@@ -0,0 +1,151 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.core.engine;
+
+import static org.junit.Assert.assertEquals;
+
+import com.gazbert.bxbot.domain.engine.TradeCycleOverrunPolicy;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the Trade Cycle Timer behaves as expected.
+ *
+ * @author gazbert
+ */
+public class TestTradeCycleTimer {
+
+  private static final int TRADE_CYCLE_INTERVAL = 10;
+  private static final long INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(TRADE_CYCLE_INTERVAL);
+  private static final long ONE_SEC_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  private long now;
+
+  @Before
+  public void setupBeforeEachTest() {
+    now = 1_000L;
+  }
+
+  @Test
+  public void testCycleWorkIsNotAddedToInterval() {
+    final TradeCycleTimer timer = createTimer(TradeCycleOverrunPolicy.SKIP);
+    timer.start();
+
+    now += 3 * ONE_SEC_NANOS;
+    assertEquals(7 * ONE_SEC_NANOS, timer.nanosUntilNextCycle());
+
+    now += 7 * ONE_SEC_NANOS + 4 * ONE_SEC_NANOS;
+    assertEquals(6 * ONE_SEC_NANOS, timer.nanosUntilNextCycle());
+
+    assertEquals(0, timer.getOverrunCount());
+    assertEquals(0, timer.getTotalOverrunNanos());
+    assertEquals(0, timer.getMaxOverrunNanos());
+  }
+
+  @Test
+  public void testSkipPolicyStartsNextCycleAtNextSlot() {
+    final TradeCycleTimer timer = createTimer(TradeCycleOverrunPolicy.SKIP);
+    timer.start();
+
+    now += INTERVAL_NANOS * 2 + 3 * ONE_SEC_NANOS; // overruns by 13s
+    assertEquals(7 * ONE_SEC_NANOS, timer.nanosUntilNextCycle());
+
+    now += 7 * ONE_SEC_NANOS + ONE_SEC_NANOS;
+    assertEquals(9 * ONE_SEC_NANOS, timer.nanosUntilNextCycle());
+
+    assertEquals(1, timer.getOverrunCount());
+    assertEquals(13 * ONE_SEC_NANOS, timer.getTotalOverrunNanos());
+    assertEquals(13 * ONE_SEC_NANOS, timer.getMaxOverrunNanos());
+  }
+
+  @Test
+  public void testCatchUpPolicyRunsMissedCyclesBackToBack() {
+    final TradeCycleTimer timer = createTimer(TradeCycleOverrunPolicy.CATCH_UP);
+    timer.start();
+
+    now += INTERVAL_NANOS * 2 + 3 * ONE_SEC_NANOS; // 2nd and 3rd slots missed
+    assertEquals(0, timer.nanosUntilNextCycle());
+
+    now += ONE_SEC_NANOS;
+    assertEquals(0, timer.nanosUntilNextCycle());
+
+    now += ONE_SEC_NANOS;
+    assertEquals(5 * ONE_SEC_NANOS, timer.nanosUntilNextCycle());
+
+    assertEquals(1, timer.getOverrunCount());
+    assertEquals(13 * ONE_SEC_NANOS, timer.getTotalOverrunNanos());
+    assertEquals(13 * ONE_SEC_NANOS, timer.getMaxOverrunNanos());
+  }
+
+  @Test
+  public void testCatchUpPolicyRecordsStallOnceAndCapsReplayedCycles() {
+    final TradeCycleTimer timer = createTimer(TradeCycleOverrunPolicy.CATCH_UP);
+    timer.start();
+
+    now += INTERVAL_NANOS * 5 + 5 * ONE_SEC_NANOS; // 5 slots missed
+    assertEquals(0, timer.nanosUntilNextCycle());
+
+    // only the latest missed slots are replayed, then the engine is back on schedule
+    for (int i = 1; i < TradeCycleTimer.MAX_CATCH_UP_CYCLES; i++) {
+      now += ONE_SEC_NANOS;
+      assertEquals(0, timer.nanosUntilNextCycle());
+    }
+    now += ONE_SEC_NANOS;
+    assertEquals(2 * ONE_SEC_NANOS, timer.nanosUntilNextCycle());
+
+    assertEquals(1, timer.getOverrunCount());
+    assertEquals(45 * ONE_SEC_NANOS, timer.getTotalOverrunNanos());
+    assertEquals(45 * ONE_SEC_NANOS, timer.getMaxOverrunNanos());
+  }
+
+  @Test
+  public void testRunImmediatelyPolicyRealignsSchedule() {
+    final TradeCycleTimer timer = createTimer(TradeCycleOverrunPolicy.RUN_IMMEDIATELY);
+    timer.start();
+
+    now += INTERVAL_NANOS + 3 * ONE_SEC_NANOS;
+    assertEquals(0, timer.nanosUntilNextCycle());
+
+    now += 2 * ONE_SEC_NANOS;
+    assertEquals(8 * ONE_SEC_NANOS, timer.nanosUntilNextCycle());
+
+    assertEquals(1, timer.getOverrunCount());
+    assertEquals(3 * ONE_SEC_NANOS, timer.getMaxOverrunNanos());
+  }
+
+  @Test
+  public void testSkipPolicyIsUsedWhenNoPolicyConfigured() {
+    final TradeCycleTimer timer = createTimer(null);
+    timer.start();
+
+    now += INTERVAL_NANOS + 3 * ONE_SEC_NANOS;
+    assertEquals(7 * ONE_SEC_NANOS, timer.nanosUntilNextCycle());
+    assertEquals(1, timer.getOverrunCount());
+  }
+
+  private TradeCycleTimer createTimer(TradeCycleOverrunPolicy policy) {
+    return new TradeCycleTimer("Test", TRADE_CYCLE_INTERVAL, policy, () -> now);
+  }
+}
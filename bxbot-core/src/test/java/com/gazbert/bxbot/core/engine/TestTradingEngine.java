@@ -25,6 +25,7 @@ package com.gazbert.bxbot.core.engine;
 
 import static junit.framework.TestCase.assertTrue;
 import static org.awaitility.Awaitility.await;
+import static org.easymock.EasyMock.anyLong;
 import static org.easymock.EasyMock.anyObject;
 import static org.easymock.EasyMock.contains;
 import static org.easymock.EasyMock.eq;
@@ -60,8 +61,10 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -122,6 +125,8 @@ public class TestTradingEngine {
   private static final BigDecimal ENGINE_EMERGENCY_STOP_BALANCE = new BigDecimal("0.5");
   private static final int ENGINE_TRADE_CYCLE_INTERVAL =
       1; // unrealistic, but 1 second speeds up tests ;-)
+  private static final int ENGINE_STRATEGY_EXECUTION_THREADS = 2;
+  private static final int ENGINE_TRADE_CYCLE_DEADLINE = 30;
 
   private static final String STRATEGY_ID = "MyMacdStrategy_v3";
   private static final String STRATEGY_NAME = "MACD Shorting algo";
@@ -137,6 +142,13 @@ public class TestTradingEngine {
   private static final String MARKET_COUNTER_CURRENCY = "USD";
   private static final boolean MARKET_IS_ENABLED = true;
 
+  private static final Integer MARKET_TRADE_CYCLE_INTERVAL = 1;
+
+  private static final String MARKET_2_NAME = "LTC/BTC";
+  private static final String MARKET_2_ID = "ltc_btc";
+  private static final String MARKET_2_BASE_CURRENCY = "LTC";
+  private static final String MARKET_2_COUNTER_CURRENCY = "BTC";
+
   // Mocks used by all tests
   private ExchangeAdapter exchangeAdapter;
   private TradingStrategy tradingStrategy;
@@ -203,6 +215,10 @@ public class TestTradingEngine {
     expect(exchangeAdapter.getBalanceInfo()).andReturn(balanceInfo);
     expect(balanceInfo.getBalancesAvailable()).andReturn(balancesAvailable);
 
+    // expect open orders to be cancelled
+    expect(exchangeAdapter.isCancelAllOrdersAcrossMarketsSupported()).andReturn(false);
+    expect(exchangeAdapter.cancelAllOrders(MARKET_ID)).andReturn(2);
+
     // expect Email Alert to be sent
     emailAlerter.sendMessage(
         eq(CRITICAL_EMAIL_ALERT_SUBJECT),
@@ -311,6 +327,272 @@ public class TestTradingEngine {
     PowerMock.verifyAll();
   }
 
+  /*
+   * Tests the engine executes the Trading Strategies concurrently when strategyExecutionThreads is
+   * set. Scenario is 2 markets, at least one successful trade cycle, and then we shut it down.
+   */
+  @Test
+  public void testEngineExecutesTradingStrategiesConcurrentlyAndCanBeShutdownSuccessfully()
+      throws Exception {
+    final TradingStrategy anotherTradingStrategy = PowerMock.createMock(TradingStrategy.class);
+
+    setupExchangeAdapterConfigExpectations();
+    expect(engineConfigService.getEngineConfig())
+        .andReturn(someEngineConfigForConcurrentStrategyExecution());
+    expect(strategyConfigService.getAllStrategyConfig()).andReturn(allTheStrategiesConfig());
+    expect(marketConfigService.getAllMarketConfig()).andReturn(twoMarketsConfig());
+    expect(ConfigurableComponentFactory.createComponent(STRATEGY_IMPL_CLASS))
+        .andReturn(tradingStrategy)
+        .andReturn(anotherTradingStrategy);
+    tradingStrategy.init(
+        eq(exchangeAdapter),
+        anyObject(Market.class),
+        anyObject(com.gazbert.bxbot.strategy.api.StrategyConfig.class));
+    anotherTradingStrategy.init(
+        eq(exchangeAdapter),
+        anyObject(Market.class),
+        anyObject(com.gazbert.bxbot.strategy.api.StrategyConfig.class));
+
+    // expect both Trading Strategies to be invoked
+    tradingStrategy.execute();
+    expectLastCall().atLeastOnce();
+    anotherTradingStrategy.execute();
+    expectLastCall().atLeastOnce();
+
+    PowerMock.replayAll();
+
+    final TradingEngine tradingEngine =
+        new TradingEngine(
+            exchangeConfigService,
+            engineConfigService,
+            strategyConfigService,
+            marketConfigService,
+            emailAlerter,
+            tradingStrategiesBuilder);
+
+    final Executor executor = Executors.newSingleThreadExecutor();
+    executor.execute(tradingEngine::start);
+
+    await().until(engineStateChanged(tradingEngine, EngineState.RUNNING));
+    assertTrue(tradingEngine.isRunning());
+
+    tradingEngine.shutdown();
+
+    await().until(engineStateChanged(tradingEngine, EngineState.SHUTDOWN));
+    assertFalse(tradingEngine.isRunning());
+
+    PowerMock.verifyAll();
+  }
+
+  /*
+   * Tests the engine cancels the other Trading Strategies when one of them fails while they are
+   * executed concurrently. Scenario is 2 markets: 1 strategy blocks until it is interrupted, the
+   * other throws a StrategyException - we expect the engine to shutdown.
+   */
+  @Test
+  public void testEngineCancelsOtherTradingStrategiesWhenOneFailsConcurrently() throws Exception {
+    final TradingStrategy anotherTradingStrategy = PowerMock.createMock(TradingStrategy.class);
+    final String exceptionErrorMsg = "Eeek! My strat just broke. Please shutdown!";
+    final CountDownLatch neverReleased = new CountDownLatch(1);
+    final AtomicBoolean blockedStrategyInterrupted = new AtomicBoolean();
+
+    setupExchangeAdapterConfigExpectations();
+    expect(engineConfigService.getEngineConfig())
+        .andReturn(someEngineConfigForConcurrentStrategyExecution());
+    expect(strategyConfigService.getAllStrategyConfig()).andReturn(allTheStrategiesConfig());
+    expect(marketConfigService.getAllMarketConfig()).andReturn(twoMarketsConfig());
+    expect(ConfigurableComponentFactory.createComponent(STRATEGY_IMPL_CLASS))
+        .andReturn(tradingStrategy)
+        .andReturn(anotherTradingStrategy);
+    tradingStrategy.init(
+        eq(exchangeAdapter),
+        anyObject(Market.class),
+        anyObject(com.gazbert.bxbot.strategy.api.StrategyConfig.class));
+    anotherTradingStrategy.init(
+        eq(exchangeAdapter),
+        anyObject(Market.class),
+        anyObject(com.gazbert.bxbot.strategy.api.StrategyConfig.class));
+
+    tradingStrategy.execute();
+    expectLastCall()
+        .andAnswer(
+            () -> {
+              try {
+                neverReleased.await();
+              } catch (InterruptedException e) {
+                blockedStrategyInterrupted.set(true);
+              }
+              return null;
+            });
+    anotherTradingStrategy.execute();
+    expectLastCall().andThrow(new StrategyException(exceptionErrorMsg));
+
+    // expect Email Alert to be sent
+    emailAlerter.sendMessage(
+        eq(CRITICAL_EMAIL_ALERT_SUBJECT),
+        contains("A FATAL error has occurred in Trading Strategy! Details: " + exceptionErrorMsg));
+    PowerMock.replayAll();
+
+    final TradingEngine tradingEngine =
+        new TradingEngine(
+            exchangeConfigService,
+            engineConfigService,
+            strategyConfigService,
+            marketConfigService,
+            emailAlerter,
+            tradingStrategiesBuilder);
+
+    tradingEngine.start();
+
+    await().until(engineStateChanged(tradingEngine, EngineState.SHUTDOWN));
+    assertFalse(tradingEngine.isRunning());
+    await().untilTrue(blockedStrategyInterrupted);
+
+    PowerMock.verifyAll();
+  }
+
+  /*
+   * Tests the engine sets the Exchange Adapter's request deadline at the start of each trade cycle
+   * and clears it at the end when tradeCycleDeadline is set.
+   */
+  @Test
+  public void testEngineSetsRequestDeadlineForEachTradeCycle() throws Exception {
+    setupExchangeAdapterConfigExpectations();
+    expect(engineConfigService.getEngineConfig())
+        .andReturn(someEngineConfigWithTradeCycleDeadline());
+    setupStrategyAndMarketConfigExpectations();
+
+    exchangeAdapter.setRequestDeadline(anyLong());
+    expectLastCall().atLeastOnce();
+    tradingStrategy.execute();
+    expectLastCall().atLeastOnce();
+    exchangeAdapter.clearRequestDeadline();
+    expectLastCall().atLeastOnce();
+
+    PowerMock.replayAll();
+
+    final TradingEngine tradingEngine =
+        new TradingEngine(
+            exchangeConfigService,
+            engineConfigService,
+            strategyConfigService,
+            marketConfigService,
+            emailAlerter,
+            tradingStrategiesBuilder);
+
+    final Executor executor = Executors.newSingleThreadExecutor();
+    executor.execute(tradingEngine::start);
+
+    await().until(engineStateChanged(tradingEngine, EngineState.RUNNING));
+    assertTrue(tradingEngine.isRunning());
+
+    tradingEngine.shutdown();
+
+    await().until(engineStateChanged(tradingEngine, EngineState.SHUTDOWN));
+    assertFalse(tradingEngine.isRunning());
+
+    PowerMock.verifyAll();
+  }
+
+  /*
+   * Tests the engine executes a Trading Strategy on the market's own trade cycle interval when it
+   * is set. Scenario is at least one successful market trade cycle and then we shut it down.
+   */
+  @Test
+  public void testEngineExecutesMarketWithOwnTradeCycleIntervalAndCanBeShutdownSuccessfully()
+      throws Exception {
+    setupExchangeAdapterConfigExpectations();
+    setupEngineConfigForNoEmergencyStopCheckExpectations();
+    expect(strategyConfigService.getAllStrategyConfig()).andReturn(allTheStrategiesConfig());
+    expect(marketConfigService.getAllMarketConfig())
+        .andReturn(allTheMarketsConfigWithOwnTradeCycleInterval());
+    expect(ConfigurableComponentFactory.createComponent(STRATEGY_IMPL_CLASS))
+        .andReturn(tradingStrategy);
+    tradingStrategy.init(
+        eq(exchangeAdapter),
+        anyObject(Market.class),
+        anyObject(com.gazbert.bxbot.strategy.api.StrategyConfig.class));
+
+    // expect Trading Strategy to be invoked by the market scheduler
+    tradingStrategy.execute();
+    expectLastCall().atLeastOnce();
+
+    PowerMock.replayAll();
+
+    final TradingEngine tradingEngine =
+        new TradingEngine(
+            exchangeConfigService,
+            engineConfigService,
+            strategyConfigService,
+            marketConfigService,
+            emailAlerter,
+            tradingStrategiesBuilder);
+
+    final Executor executor = Executors.newSingleThreadExecutor();
+    executor.execute(tradingEngine::start);
+
+    await().until(engineStateChanged(tradingEngine, EngineState.RUNNING));
+    assertTrue(tradingEngine.isRunning());
+    Thread.sleep(ENGINE_TRADE_CYCLE_INTERVAL * 1000L); // give the scheduler time to run
+
+    tradingEngine.shutdown();
+
+    await().until(engineStateChanged(tradingEngine, EngineState.SHUTDOWN));
+    assertFalse(tradingEngine.isRunning());
+
+    PowerMock.verifyAll();
+  }
+
+  /*
+   * Tests the engine shuts down when a Trading Strategy running on its market's own trade cycle
+   * interval throws an Error - it must not just stop trading that market.
+   */
+  @Test
+  public void testEngineShutsDownWhenItReceivesErrorFromMarketWithOwnTradeCycleInterval()
+      throws Exception {
+    setupExchangeAdapterConfigExpectations();
+    setupEngineConfigForNoEmergencyStopCheckExpectations();
+    expect(strategyConfigService.getAllStrategyConfig()).andReturn(allTheStrategiesConfig());
+    expect(marketConfigService.getAllMarketConfig())
+        .andReturn(allTheMarketsConfigWithOwnTradeCycleInterval());
+    expect(ConfigurableComponentFactory.createComponent(STRATEGY_IMPL_CLASS))
+        .andReturn(tradingStrategy);
+    tradingStrategy.init(
+        eq(exchangeAdapter),
+        anyObject(Market.class),
+        anyObject(com.gazbert.bxbot.strategy.api.StrategyConfig.class));
+
+    final String errorMsg = "Well, that's not good.";
+    tradingStrategy.execute();
+    expectLastCall().andThrow(new AssertionError(errorMsg));
+
+    // expect Email Alert to be sent
+    emailAlerter.sendMessage(
+        eq(CRITICAL_EMAIL_ALERT_SUBJECT),
+        contains(
+            "An unexpected FATAL error has occurred in Exchange Adapter or Trading Strategy! "
+                + "Details: java.lang.AssertionError: "
+                + errorMsg));
+
+    PowerMock.replayAll();
+
+    final TradingEngine tradingEngine =
+        new TradingEngine(
+            exchangeConfigService,
+            engineConfigService,
+            strategyConfigService,
+            marketConfigService,
+            emailAlerter,
+            tradingStrategiesBuilder);
+
+    tradingEngine.start();
+
+    await().until(engineStateChanged(tradingEngine, EngineState.SHUTDOWN));
+    assertFalse(tradingEngine.isRunning());
+
+    PowerMock.verifyAll();
+  }
+
   /*
    * Tests the engine starts up, executes 1 trade cycle successfully, but then receives
    * StrategyException from Trading Strategy - we expect the engine to shutdown.
@@ -828,6 +1110,18 @@ public class TestTradingEngine {
     return engineConfig;
   }
 
+  private static EngineConfig someEngineConfigForConcurrentStrategyExecution() {
+    final EngineConfig engineConfig = someEngineConfigForNoEmergencyStopCheck();
+    engineConfig.setStrategyExecutionThreads(ENGINE_STRATEGY_EXECUTION_THREADS);
+    return engineConfig;
+  }
+
+  private static EngineConfig someEngineConfigWithTradeCycleDeadline() {
+    final EngineConfig engineConfig = someEngineConfigForNoEmergencyStopCheck();
+    engineConfig.setTradeCycleDeadline(ENGINE_TRADE_CYCLE_DEADLINE);
+    return engineConfig;
+  }
+
   private static List<StrategyConfig> allTheStrategiesConfig() {
     final Map<String, String> configItems = new HashMap<>();
     configItems.put(STRATEGY_CONFIG_ITEM_NAME, STRATEGY_CONFIG_ITEM_VALUE);
@@ -860,6 +1154,25 @@ public class TestTradingEngine {
     return allMarkets;
   }
 
+  private static List<MarketConfig> allTheMarketsConfigWithOwnTradeCycleInterval() {
+    final List<MarketConfig> allMarkets = allTheMarketsConfig();
+    allMarkets.get(0).setTradeCycleInterval(MARKET_TRADE_CYCLE_INTERVAL);
+    return allMarkets;
+  }
+
+  private static List<MarketConfig> twoMarketsConfig() {
+    final List<MarketConfig> allMarkets = allTheMarketsConfig();
+    allMarkets.add(
+        new MarketConfig(
+            MARKET_2_ID,
+            MARKET_2_NAME,
+            MARKET_2_BASE_CURRENCY,
+            MARKET_2_COUNTER_CURRENCY,
+            MARKET_IS_ENABLED,
+            STRATEGY_ID));
+    return allMarkets;
+  }
+
   private Callable<Boolean> engineStateChanged(TradingEngine engine, EngineState engineState) {
     return () -> {
       boolean stateChanged = false;
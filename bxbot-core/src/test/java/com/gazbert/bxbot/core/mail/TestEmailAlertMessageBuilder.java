@@ -23,6 +23,8 @@
 
 package com.gazbert.bxbot.core.mail;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
@@ -104,4 +106,17 @@ public class TestEmailAlertMessageBuilder {
     assertTrue(msgContent.startsWith(expectedStartOfMsg));
     assertTrue(msgContent.contains(expectedMiddleOfMsg));
   }
+
+  @Test
+  public void testMsgContentWithoutEventTime() {
+    final String msgContent =
+        EmailAlertMessageBuilder.buildCriticalMsgContent(
+            "The trouble with Tribbles...", null, "seti-alpha-3", "The Pioneer", "Bitstamp");
+    final String eventTime = msgContent.split(NEWLINE)[15];
+
+    final String withoutEventTime = EmailAlertMessageBuilder.withoutEventTime(msgContent);
+    assertFalse(withoutEventTime.contains(eventTime));
+    assertEquals(msgContent.replace(eventTime, ""), withoutEventTime);
+    assertEquals("No event time", EmailAlertMessageBuilder.withoutEventTime("No event time"));
+  }
 }
@@ -25,19 +25,31 @@ package com.gazbert.bxbot.core.mail;
 
 import static junit.framework.TestCase.assertNotNull;
 import static org.easymock.EasyMock.expect;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
 
 import com.gazbert.bxbot.domain.emailalerts.EmailAlertsConfig;
 import com.gazbert.bxbot.domain.emailalerts.SmtpConfig;
 import com.gazbert.bxbot.services.config.EmailAlertsConfigService;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.mail.Address;
 import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.Provider;
+import javax.mail.Session;
 import javax.mail.Transport;
-import org.easymock.EasyMock;
+import javax.mail.URLName;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.powermock.api.easymock.PowerMock;
 import org.powermock.core.classloader.annotations.PowerMockIgnore;
-import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
 /**
@@ -46,7 +58,6 @@ import org.powermock.modules.junit4.PowerMockRunner;
  * @author gazbert
  */
 @RunWith(PowerMockRunner.class)
-@PrepareForTest({Transport.class})
 @PowerMockIgnore({
     "javax.crypto.*",
     "javax.management.*",
@@ -72,6 +83,7 @@ public class TestEmailAlerter {
   @Before
   public void setup() {
     emailAlertsConfigService = PowerMock.createMock(EmailAlertsConfigService.class);
+    RecordingTransport.reset();
   }
 
   @Test
@@ -123,22 +135,93 @@ public class TestEmailAlerter {
   }
 
   /*
-   * Can safely run this test without 'real' credentials.
-   * Crude use of mocks to test behaviour.
+   * Can safely run these tests without 'real' credentials.
+   * The Recording Transport stands in for the SMTP server.
    * It does not send anything down the wire.
    */
   @Test
-  public void testEmailAlerterSendsMailSuccessfullyUsingMockTransport() throws Exception {
+  public void testEmailAlerterSendsMailOnBackgroundThreadUsingOneConnection() throws Exception {
     expect(emailAlertsConfigService.getEmailAlertsConfig())
         .andReturn(someEmailAlertsConfigWithAlertsEnabledAndSmtpConfig());
+    PowerMock.replayAll();
+
+    final EmailAlerter emailAlerter = createEmailAlerterWithRecordingTransport();
+    emailAlerter.sendMessage(EMAIL_SUBJECT, EMAIL_MSG);
+    emailAlerter.sendMessage(EMAIL_SUBJECT, "The exchange has blown up again!");
+    emailAlerter.shutdown();
 
-    PowerMock.mockStatic(Transport.class);
-    Transport.send(EasyMock.anyObject(Message.class));
+    assertEquals(2, RecordingTransport.SENT_MESSAGES.size());
+    assertEquals(EMAIL_MSG, RecordingTransport.SENT_MESSAGES.get(0).getContent());
+    assertEquals(1, RecordingTransport.CONNECTS.get());
+    assertEquals(0, RecordingTransport.OPEN_CONNECTIONS.get());
+    assertNotEquals(Thread.currentThread().getName(), RecordingTransport.sendingThreadName);
+
+    PowerMock.verifyAll();
+  }
 
+  @Test
+  public void testEmailAlerterDropsDuplicateAlerts() throws Exception {
+    expect(emailAlertsConfigService.getEmailAlertsConfig())
+        .andReturn(someEmailAlertsConfigWithAlertsEnabledAndSmtpConfig());
     PowerMock.replayAll();
 
-    final EmailAlerter emailAlerter = new EmailAlerter(emailAlertsConfigService);
+    final EmailAlerter emailAlerter = createEmailAlerterWithRecordingTransport();
+    emailAlerter.sendMessage(EMAIL_SUBJECT, EMAIL_MSG);
+    emailAlerter.sendMessage(EMAIL_SUBJECT, EMAIL_MSG);
+    emailAlerter.sendMessage("Another subject", EMAIL_MSG);
+    emailAlerter.shutdown();
+
+    assertEquals(2, RecordingTransport.SENT_MESSAGES.size());
+    assertEquals("Another subject", RecordingTransport.SENT_MESSAGES.get(1).getSubject());
+
+    PowerMock.verifyAll();
+  }
+
+  @Test
+  public void testEmailAlerterDoesNotDropAlertRepeatingOneThatFailedToSend() throws Exception {
+    expect(emailAlertsConfigService.getEmailAlertsConfig())
+        .andReturn(someEmailAlertsConfigWithAlertsEnabledAndSmtpConfig());
+    PowerMock.replayAll();
+
+    RecordingTransport.FAILED_SENDS.set(2); // the send, and its retry on a new connection
+    final EmailAlerter emailAlerter = createEmailAlerterWithRecordingTransport();
     emailAlerter.sendMessage(EMAIL_SUBJECT, EMAIL_MSG);
+    emailAlerter.sendMessage("Another subject", EMAIL_MSG);
+
+    // alerts are sent in order, so the failed one has been handled once the next is sent
+    final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (RecordingTransport.SENT_MESSAGES.isEmpty() && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    emailAlerter.sendMessage(EMAIL_SUBJECT, EMAIL_MSG);
+    emailAlerter.shutdown();
+
+    assertEquals(2, RecordingTransport.SENT_MESSAGES.size());
+    assertEquals(EMAIL_SUBJECT, RecordingTransport.SENT_MESSAGES.get(1).getSubject());
+    assertEquals(EMAIL_MSG, RecordingTransport.SENT_MESSAGES.get(1).getContent());
+
+    PowerMock.verifyAll();
+  }
+
+  @Test
+  public void testEmailAlerterSendsQueuedAlertsOnShutdown() throws Exception {
+    expect(emailAlertsConfigService.getEmailAlertsConfig())
+        .andReturn(someEmailAlertsConfigWithAlertsEnabledAndSmtpConfig());
+    PowerMock.replayAll();
+
+    RecordingTransport.sendAllowed = new CountDownLatch(1);
+    final EmailAlerter emailAlerter = createEmailAlerterWithRecordingTransport();
+    for (int i = 0; i < 3; i++) {
+      emailAlerter.sendMessage(EMAIL_SUBJECT, EMAIL_MSG + " " + i);
+    }
+    // the caller is not held up by the slow SMTP server
+    assertTrue(RecordingTransport.SENT_MESSAGES.isEmpty());
+
+    RecordingTransport.sendAllowed.countDown();
+    emailAlerter.shutdown();
+
+    assertEquals(3, RecordingTransport.SENT_MESSAGES.size());
+    assertEquals(EMAIL_MSG + " 2", RecordingTransport.SENT_MESSAGES.get(2).getContent());
 
     PowerMock.verifyAll();
   }
@@ -150,8 +233,8 @@ public class TestEmailAlerter {
    * <ol>
    *   <li>Uncomment @Test.
    *   <li>Change the [project-root]/config/email-alerts.yaml to use your account SMTP settings.
-   *   <li>Comment out @RunWith(PowerMockRunner.class) and @PrepareForTest(Transport.class) at top
-   *       of class - they mess with the SSLContext and the test will fail - no time to debug why
+   *   <li>Comment out @RunWith(PowerMockRunner.class) at top
+   *       of class - it messes with the SSLContext and the test will fail - no time to debug why
    *       but related to: https://code.google.com/p/powermock/issues/detail?id=288
    *   <li>Run this test on its own.
    * </ol>
@@ -160,6 +243,7 @@ public class TestEmailAlerter {
   public void testEmailAlerterReallySendsMailSuccessfully() {
     final EmailAlerter emailAlerter = new EmailAlerter(emailAlertsConfigService);
     emailAlerter.sendMessage(EMAIL_SUBJECT, EMAIL_MSG);
+    emailAlerter.shutdown();
 
     // expect to send message - check your inbox!
   }
@@ -168,6 +252,13 @@ public class TestEmailAlerter {
   // Private utils
   // ------------------------------------------------------------------------
 
+  private EmailAlerter createEmailAlerterWithRecordingTransport() {
+    final Provider recordingTransport =
+        new Provider(
+            Provider.Type.TRANSPORT, "smtp", RecordingTransport.class.getName(), "BX-bot", null);
+    return new EmailAlerter(emailAlertsConfigService, recordingTransport, Duration.ofMinutes(1));
+  }
+
   private static EmailAlertsConfig someEmailAlertsConfigWithAlertsEnabledAndSmtpConfig() {
     final SmtpConfig smtpConfig =
         new SmtpConfig(
@@ -201,4 +292,55 @@ public class TestEmailAlerter {
     emailAlertsConfig.setSmtpConfig(smtpConfig);
     return emailAlertsConfig;
   }
+
+  /** Records the messages sent instead of sending them to an SMTP server. */
+  public static class RecordingTransport extends Transport {
+
+    static final List<Message> SENT_MESSAGES = new CopyOnWriteArrayList<>();
+    static final AtomicInteger CONNECTS = new AtomicInteger();
+    static final AtomicInteger OPEN_CONNECTIONS = new AtomicInteger();
+    static final AtomicInteger FAILED_SENDS = new AtomicInteger();
+    static volatile CountDownLatch sendAllowed = new CountDownLatch(0);
+    static volatile String sendingThreadName;
+
+    public RecordingTransport(Session session, URLName urlName) {
+      super(session, urlName);
+    }
+
+    static void reset() {
+      SENT_MESSAGES.clear();
+      CONNECTS.set(0);
+      OPEN_CONNECTIONS.set(0);
+      FAILED_SENDS.set(0);
+      sendAllowed = new CountDownLatch(0);
+      sendingThreadName = null;
+    }
+
+    @Override
+    protected boolean protocolConnect(String host, int port, String user, String password) {
+      CONNECTS.incrementAndGet();
+      OPEN_CONNECTIONS.incrementAndGet();
+      return true;
+    }
+
+    @Override
+    public void sendMessage(Message message, Address[] addresses) throws MessagingException {
+      try {
+        sendAllowed.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      if (FAILED_SENDS.getAndUpdate(failedSends -> Math.max(0, failedSends - 1)) > 0) {
+        throw new MessagingException("Could not connect to SMTP host");
+      }
+      sendingThreadName = Thread.currentThread().getName();
+      SENT_MESSAGES.add(message);
+    }
+
+    @Override
+    public synchronized void close() throws MessagingException {
+      OPEN_CONNECTIONS.decrementAndGet();
+      super.close();
+    }
+  }
 }
@@ -0,0 +1,269 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.core.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.gazbert.bxbot.core.util.EmergencyStopOrderCanceller.CancelReport;
+import com.gazbert.bxbot.exchange.api.ExchangeAdapter;
+import com.gazbert.bxbot.exchange.api.ExchangeConfig;
+import com.gazbert.bxbot.trading.api.BalanceInfo;
+import com.gazbert.bxbot.trading.api.MarketOrderBook;
+import com.gazbert.bxbot.trading.api.OpenOrder;
+import com.gazbert.bxbot.trading.api.OrderType;
+import com.gazbert.bxbot.trading.api.TradingApiException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+/**
+ * Tests the Emergency Stop Order Canceller behaves as expected.
+ *
+ * @author gazbert
+ */
+public class TestEmergencyStopOrderCanceller {
+
+  private static final Duration DEADLINE = Duration.ofSeconds(5);
+
+  @Test
+  public void testMarketsAreCancelledInOneCall() {
+    final List<Collection<String>> cancelCalls = new ArrayList<>();
+    final StubExchangeAdapter stubAdapter =
+        new StubExchangeAdapter() {
+          @Override
+          public boolean isCancelAllOrdersAcrossMarketsSupported() {
+            return true;
+          }
+
+          @Override
+          public Map<String, Integer> cancelAllOrders(Collection<String> marketIds) {
+            cancelCalls.add(marketIds);
+            final Map<String, Integer> cancelledCounts = new LinkedHashMap<>();
+            marketIds.forEach(marketId -> cancelledCounts.put(marketId, marketId.length()));
+            return cancelledCounts;
+          }
+
+          @Override
+          public int cancelAllOrders(String marketId) throws TradingApiException {
+            throw new TradingApiException("Markets should be cancelled in one call");
+          }
+        };
+
+    final CancelReport report =
+        EmergencyStopOrderCanceller.cancelAllOrders(
+            stubAdapter, Arrays.asList("btcusd", "ethbtc", "ltc"), DEADLINE);
+
+    assertTrue(report.isComplete());
+    assertEquals(List.of(List.of("btcusd", "ethbtc", "ltc")), cancelCalls);
+    assertEquals(Map.of("btcusd", 6, "ethbtc", 6, "ltc", 3), report.getCancelledOrderCounts());
+    assertEquals(15, report.getTotalCancelledOrders());
+  }
+
+  @Test
+  public void testFailedCallFallsBackToEachMarketAndHungMarketsAreReportedAtDeadline() {
+    final CountDownLatch exchangeHung = new CountDownLatch(1);
+    final StubExchangeAdapter stubAdapter =
+        new StubExchangeAdapter() {
+          @Override
+          public boolean isCancelAllOrdersAcrossMarketsSupported() {
+            return true;
+          }
+
+          @Override
+          public Map<String, Integer> cancelAllOrders(Collection<String> marketIds)
+              throws TradingApiException {
+            throw new TradingApiException("Open orders not returned");
+          }
+
+          @Override
+          public int cancelAllOrders(String marketId) throws TradingApiException {
+            if ("ethbtc".equals(marketId)) {
+              throw new TradingApiException("Cancel rejected");
+            }
+            if ("ltcusd".equals(marketId)) {
+              try {
+                exchangeHung.await();
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+            }
+            return 2;
+          }
+        };
+
+    final CancelReport report =
+        EmergencyStopOrderCanceller.cancelAllOrders(
+            stubAdapter,
+            Arrays.asList("btcusd", "ethbtc", "ltcusd", "xrpusd"),
+            Duration.ofMillis(200));
+
+    assertFalse(report.isComplete());
+    assertEquals(Map.of("btcusd", 2, "xrpusd", 2), report.getCancelledOrderCounts());
+    assertEquals(Collections.singletonList("ethbtc"), report.getFailedMarketIds());
+    assertEquals(Collections.singletonList("ltcusd"), report.getTimedOutMarketIds());
+    assertTrue(report.getElapsedMillis() >= 200);
+    assertTrue(report.getElapsedMillis() < DEADLINE.toMillis());
+    exchangeHung.countDown();
+  }
+
+  @Test
+  public void testMarketsAreCancelledConcurrentlyWithoutNativeCancelAll() {
+    final List<String> markets = Arrays.asList("btcusd", "ethbtc", "ltcusd");
+    final CountDownLatch allMarketsCancelling = new CountDownLatch(markets.size());
+    final StubExchangeAdapter stubAdapter =
+        new StubExchangeAdapter() {
+          @Override
+          public Map<String, Integer> cancelAllOrders(Collection<String> marketIds)
+              throws TradingApiException {
+            throw new TradingApiException("Markets should be cancelled one by one");
+          }
+
+          @Override
+          public int cancelAllOrders(String marketId) {
+            allMarketsCancelling.countDown();
+            try {
+              // only returns once every market is being cancelled at the same time
+              return allMarketsCancelling.await(DEADLINE.toMillis(), TimeUnit.MILLISECONDS)
+                  ? 1
+                  : 0;
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+              return 0;
+            }
+          }
+        };
+
+    final CancelReport report =
+        EmergencyStopOrderCanceller.cancelAllOrders(stubAdapter, markets, DEADLINE);
+
+    assertTrue(report.isComplete());
+    assertEquals(Map.of("btcusd", 1, "ethbtc", 1, "ltcusd", 1), report.getCancelledOrderCounts());
+  }
+
+  @Test
+  public void testCancelsShareTheDeadlineSetWhenTheEmergencyStopStarted() {
+    final long startTime = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(300);
+    final CountDownLatch exchangeHung = new CountDownLatch(1);
+    final StubExchangeAdapter stubAdapter =
+        new StubExchangeAdapter() {
+          @Override
+          public int cancelAllOrders(String marketId) {
+            try {
+              exchangeHung.await();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+            return 1;
+          }
+        };
+
+    final CancelReport report =
+        EmergencyStopOrderCanceller.cancelAllOrders(
+            stubAdapter,
+            Collections.singletonList("btcusd"),
+            startTime,
+            startTime + TimeUnit.MILLISECONDS.toNanos(500));
+
+    assertEquals(Collections.singletonList("btcusd"), report.getTimedOutMarketIds());
+    // the time spent stopping trading before the cancels is counted, and taken off their deadline
+    assertTrue(report.getElapsedMillis() >= 500);
+    assertTrue(report.getElapsedMillis() < DEADLINE.toMillis());
+    exchangeHung.countDown();
+  }
+
+  @Test
+  public void testNoMarketsToCancel() {
+    final CancelReport report =
+        EmergencyStopOrderCanceller.cancelAllOrders(
+            new StubExchangeAdapter(), Collections.emptyList(), DEADLINE);
+
+    assertTrue(report.isComplete());
+    assertEquals(0, report.getTotalCancelledOrders());
+  }
+
+  /** Plays the part of the exchange. */
+  private static class StubExchangeAdapter implements ExchangeAdapter {
+
+    @Override
+    public void init(ExchangeConfig config) {
+    }
+
+    @Override
+    public String getImplName() {
+      return "Stub";
+    }
+
+    @Override
+    public MarketOrderBook getMarketOrders(String marketId) {
+      return null;
+    }
+
+    @Override
+    public List<OpenOrder> getYourOpenOrders(String marketId) {
+      return Collections.emptyList();
+    }
+
+    @Override
+    public String createOrder(
+        String marketId, OrderType orderType, BigDecimal quantity, BigDecimal price) {
+      return null;
+    }
+
+    @Override
+    public boolean cancelOrder(String orderId, String marketId) {
+      return false;
+    }
+
+    @Override
+    public BigDecimal getLatestMarketPrice(String marketId) {
+      return BigDecimal.TEN;
+    }
+
+    @Override
+    public BalanceInfo getBalanceInfo() {
+      return null;
+    }
+
+    @Override
+    public BigDecimal getPercentageOfBuyOrderTakenForExchangeFee(String marketId) {
+      return BigDecimal.ZERO;
+    }
+
+    @Override
+    public BigDecimal getPercentageOfSellOrderTakenForExchangeFee(String marketId) {
+      return BigDecimal.ZERO;
+    }
+  }
+}
@@ -27,6 +27,7 @@ import com.google.common.base.MoreObjects;
 import io.swagger.annotations.ApiModel;
 import io.swagger.annotations.ApiModelProperty;
 import java.util.Date;
+import java.util.Map;
 
 /**
  * Domain object representing the Bot's status.
@@ -42,6 +43,7 @@ public class BotStatus {
   private String displayName;
   private String status;
   private Date datetime;
+  private Map<String, String> circuitBreakers;
 
   // Required by ConfigurableComponentFactory
   public BotStatus() {
@@ -87,6 +89,14 @@ public class BotStatus {
     this.datetime = datetime != null ? new Date(datetime.getTime()) : null;
   }
 
+  public Map<String, String> getCircuitBreakers() {
+    return circuitBreakers;
+  }
+
+  public void setCircuitBreakers(Map<String, String> circuitBreakers) {
+    this.circuitBreakers = circuitBreakers;
+  }
+
   @Override
   public String toString() {
     return MoreObjects.toStringHelper(this)
@@ -94,6 +104,7 @@ public class BotStatus {
         .add("displayName", displayName)
         .add("status", status)
         .add("datetime", getDatetime())
+        .add("circuitBreakers", circuitBreakers)
         .toString();
   }
 }
@@ -28,6 +28,7 @@ import com.google.common.base.Objects;
 import io.swagger.annotations.ApiModel;
 import io.swagger.annotations.ApiModelProperty;
 import java.math.BigDecimal;
+import javax.validation.Valid;
 import javax.validation.constraints.DecimalMin;
 import javax.validation.constraints.Min;
 
@@ -48,9 +49,26 @@ public class EngineConfig {
   @DecimalMin(message = "Emergency Stop Balance must be 0 or more", value = "0")
   private BigDecimal emergencyStopBalance;
 
+  @Min(value = 1, message = "Emergency Stop Cancel Deadline must be 1 second or more")
+  private Integer emergencyStopCancelDeadline;
+
   @Min(value = 1, message = "Trace Cycle Interval must be more than 1 second")
   private int tradeCycleInterval;
 
+  @Min(value = 0, message = "Strategy Execution Threads must be 0 or more")
+  private int strategyExecutionThreads;
+
+  private TradeCycleOverrunPolicy tradeCycleOverrunPolicy;
+
+  @Min(value = 1, message = "Trade Cycle Deadline must be 1 second or more")
+  private Integer tradeCycleDeadline;
+
+  @Valid
+  private MarketDataCacheConfig marketDataCache;
+
+  @Min(value = 1, message = "Order Reconcile Interval must be 1 second or more")
+  private Integer orderReconcileInterval;
+
   // Required by ConfigurableComponentFactory
   public EngineConfig() {
   }
@@ -102,6 +120,14 @@ public class EngineConfig {
     this.emergencyStopBalance = emergencyStopBalance;
   }
 
+  public Integer getEmergencyStopCancelDeadline() {
+    return emergencyStopCancelDeadline;
+  }
+
+  public void setEmergencyStopCancelDeadline(Integer emergencyStopCancelDeadline) {
+    this.emergencyStopCancelDeadline = emergencyStopCancelDeadline;
+  }
+
   public int getTradeCycleInterval() {
     return tradeCycleInterval;
   }
@@ -110,6 +136,46 @@ public class EngineConfig {
     this.tradeCycleInterval = tradeCycleInterval;
   }
 
+  public int getStrategyExecutionThreads() {
+    return strategyExecutionThreads;
+  }
+
+  public void setStrategyExecutionThreads(int strategyExecutionThreads) {
+    this.strategyExecutionThreads = strategyExecutionThreads;
+  }
+
+  public TradeCycleOverrunPolicy getTradeCycleOverrunPolicy() {
+    return tradeCycleOverrunPolicy;
+  }
+
+  public void setTradeCycleOverrunPolicy(TradeCycleOverrunPolicy tradeCycleOverrunPolicy) {
+    this.tradeCycleOverrunPolicy = tradeCycleOverrunPolicy;
+  }
+
+  public Integer getTradeCycleDeadline() {
+    return tradeCycleDeadline;
+  }
+
+  public void setTradeCycleDeadline(Integer tradeCycleDeadline) {
+    this.tradeCycleDeadline = tradeCycleDeadline;
+  }
+
+  public MarketDataCacheConfig getMarketDataCache() {
+    return marketDataCache;
+  }
+
+  public void setMarketDataCache(MarketDataCacheConfig marketDataCache) {
+    this.marketDataCache = marketDataCache;
+  }
+
+  public Integer getOrderReconcileInterval() {
+    return orderReconcileInterval;
+  }
+
+  public void setOrderReconcileInterval(Integer orderReconcileInterval) {
+    this.orderReconcileInterval = orderReconcileInterval;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -134,7 +200,13 @@ public class EngineConfig {
         .add("botName", botName)
         .add("emergencyStopCurrency", emergencyStopCurrency)
         .add("emergencyStopBalance", emergencyStopBalance)
+        .add("emergencyStopCancelDeadline", emergencyStopCancelDeadline)
         .add("tradeCycleInterval", tradeCycleInterval)
+        .add("strategyExecutionThreads", strategyExecutionThreads)
+        .add("tradeCycleOverrunPolicy", tradeCycleOverrunPolicy)
+        .add("tradeCycleDeadline", tradeCycleDeadline)
+        .add("marketDataCache", marketDataCache)
+        .add("orderReconcileInterval", orderReconcileInterval)
         .toString();
   }
 }
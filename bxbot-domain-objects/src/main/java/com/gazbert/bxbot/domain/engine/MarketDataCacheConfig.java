@@ -0,0 +1,106 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.domain.engine;
+
+import com.google.common.base.MoreObjects;
+import javax.validation.constraints.Min;
+
+/**
+ * Domain object representing the Engine's market data cache config.
+ *
+ * <p>Each value is the time in milliseconds a result fetched from the exchange is shared with the
+ * Trading Strategies (and the Emergency Stop check) that ask for the same data. A value that is not
+ * set, or is 0, means the result is not cached, but concurrent identical requests are still sent to
+ * the exchange only once.
+ *
+ * @author gazbert
+ */
+public class MarketDataCacheConfig {
+
+  @Min(value = 0, message = "Market Orders TTL must be 0 or more")
+  private Integer marketOrdersTtl;
+
+  @Min(value = 0, message = "Latest Market Price TTL must be 0 or more")
+  private Integer latestMarketPriceTtl;
+
+  @Min(value = 0, message = "Ticker TTL must be 0 or more")
+  private Integer tickerTtl;
+
+  @Min(value = 0, message = "Balance Info TTL must be 0 or more")
+  private Integer balanceInfoTtl;
+
+  @Min(value = 0, message = "Open Orders TTL must be 0 or more")
+  private Integer openOrdersTtl;
+
+  public Integer getMarketOrdersTtl() {
+    return marketOrdersTtl;
+  }
+
+  public void setMarketOrdersTtl(Integer marketOrdersTtl) {
+    this.marketOrdersTtl = marketOrdersTtl;
+  }
+
+  public Integer getLatestMarketPriceTtl() {
+    return latestMarketPriceTtl;
+  }
+
+  public void setLatestMarketPriceTtl(Integer latestMarketPriceTtl) {
+    this.latestMarketPriceTtl = latestMarketPriceTtl;
+  }
+
+  public Integer getTickerTtl() {
+    return tickerTtl;
+  }
+
+  public void setTickerTtl(Integer tickerTtl) {
+    this.tickerTtl = tickerTtl;
+  }
+
+  public Integer getBalanceInfoTtl() {
+    return balanceInfoTtl;
+  }
+
+  public void setBalanceInfoTtl(Integer balanceInfoTtl) {
+    this.balanceInfoTtl = balanceInfoTtl;
+  }
+
+  public Integer getOpenOrdersTtl() {
+    return openOrdersTtl;
+  }
+
+  public void setOpenOrdersTtl(Integer openOrdersTtl) {
+    this.openOrdersTtl = openOrdersTtl;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("marketOrdersTtl", marketOrdersTtl)
+        .add("latestMarketPriceTtl", latestMarketPriceTtl)
+        .add("tickerTtl", tickerTtl)
+        .add("balanceInfoTtl", balanceInfoTtl)
+        .add("openOrdersTtl", openOrdersTtl)
+        .toString();
+  }
+}
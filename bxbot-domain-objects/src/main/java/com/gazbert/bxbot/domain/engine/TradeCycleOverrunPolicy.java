@@ -0,0 +1,49 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.domain.engine;
+
+/**
+ * Defines what the Trading Engine does when a trade cycle overruns its fixed-rate slot, i.e. the
+ * work of the cycle is still running when the next cycle was due to start.
+ *
+ * @author gazbert
+ */
+public enum TradeCycleOverrunPolicy {
+
+  /**
+   * Drop the missed slots and start the next cycle at the next slot boundary. This is the default.
+   */
+  SKIP,
+
+  /**
+   * Run the missed cycles back-to-back, without sleeping, until the engine is back on schedule.
+   * Only the latest 3 missed cycles are run; any older ones are dropped.
+   */
+  CATCH_UP,
+
+  /**
+   * Start the next cycle immediately and re-align the schedule to that start time.
+   */
+  RUN_IMMEDIATELY
+}
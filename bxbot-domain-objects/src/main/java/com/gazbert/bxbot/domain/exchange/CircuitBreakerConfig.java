@@ -0,0 +1,95 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.domain.exchange;
+
+import com.google.common.base.MoreObjects;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+
+/**
+ * Domain object representing the Exchange circuit breaker config.
+ *
+ * <p>Each API endpoint has its own circuit. It opens when the failure rate of its most recent
+ * requests reaches the threshold, and requests to the endpoint then fail fast. After the cooldown,
+ * a single probe request is let through to decide whether to close the circuit again.
+ *
+ * @author gazbert
+ */
+public class CircuitBreakerConfig {
+
+  @Min(value = 1, message = "Failure rate threshold must be between 1 and 100")
+  @Max(value = 100, message = "Failure rate threshold must be between 1 and 100")
+  private Integer failureRateThreshold;
+
+  @Min(value = 1, message = "Window size must be 1 or more")
+  private Integer windowSize;
+
+  @Min(value = 1, message = "Minimum requests must be 1 or more")
+  private Integer minimumRequests;
+
+  @Min(value = 1, message = "Cooldown must be 1 second or more")
+  private Integer cooldownSeconds;
+
+  public Integer getFailureRateThreshold() {
+    return failureRateThreshold;
+  }
+
+  public void setFailureRateThreshold(Integer failureRateThreshold) {
+    this.failureRateThreshold = failureRateThreshold;
+  }
+
+  public Integer getWindowSize() {
+    return windowSize;
+  }
+
+  public void setWindowSize(Integer windowSize) {
+    this.windowSize = windowSize;
+  }
+
+  public Integer getMinimumRequests() {
+    return minimumRequests;
+  }
+
+  public void setMinimumRequests(Integer minimumRequests) {
+    this.minimumRequests = minimumRequests;
+  }
+
+  public Integer getCooldownSeconds() {
+    return cooldownSeconds;
+  }
+
+  public void setCooldownSeconds(Integer cooldownSeconds) {
+    this.cooldownSeconds = cooldownSeconds;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("failureRateThreshold", failureRateThreshold)
+        .add("windowSize", windowSize)
+        .add("minimumRequests", minimumRequests)
+        .add("cooldownSeconds", cooldownSeconds)
+        .toString();
+  }
+}
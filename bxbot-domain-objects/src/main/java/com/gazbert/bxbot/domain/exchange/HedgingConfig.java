@@ -0,0 +1,96 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.domain.exchange;
+
+import com.google.common.base.MoreObjects;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+
+/**
+ * Domain object representing the Exchange request hedging config.
+ *
+ * <p>If a public market data request has not been answered within the given percentile of the
+ * endpoint's recent response times, a second request is sent and whichever answers first is used.
+ * The budget caps the hedged requests as a percentage of all requests.
+ *
+ * @author gazbert
+ */
+public class HedgingConfig {
+
+  @Min(value = 1, message = "Latency percentile must be between 1 and 99")
+  @Max(value = 99, message = "Latency percentile must be between 1 and 99")
+  private Integer latencyPercentile;
+
+  @Min(value = 1, message = "Budget percent must be between 1 and 100")
+  @Max(value = 100, message = "Budget percent must be between 1 and 100")
+  private Integer budgetPercent;
+
+  @Min(value = 1, message = "Minimum delay must be 1 millisecond or more")
+  private Integer minDelayMillis;
+
+  @Min(value = 1, message = "Window size must be 1 or more")
+  private Integer windowSize;
+
+  public Integer getLatencyPercentile() {
+    return latencyPercentile;
+  }
+
+  public void setLatencyPercentile(Integer latencyPercentile) {
+    this.latencyPercentile = latencyPercentile;
+  }
+
+  public Integer getBudgetPercent() {
+    return budgetPercent;
+  }
+
+  public void setBudgetPercent(Integer budgetPercent) {
+    this.budgetPercent = budgetPercent;
+  }
+
+  public Integer getMinDelayMillis() {
+    return minDelayMillis;
+  }
+
+  public void setMinDelayMillis(Integer minDelayMillis) {
+    this.minDelayMillis = minDelayMillis;
+  }
+
+  public Integer getWindowSize() {
+    return windowSize;
+  }
+
+  public void setWindowSize(Integer windowSize) {
+    this.windowSize = windowSize;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("latencyPercentile", latencyPercentile)
+        .add("budgetPercent", budgetPercent)
+        .add("minDelayMillis", minDelayMillis)
+        .add("windowSize", windowSize)
+        .toString();
+  }
+}
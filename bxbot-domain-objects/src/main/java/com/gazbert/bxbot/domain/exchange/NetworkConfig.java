@@ -26,6 +26,7 @@ package com.gazbert.bxbot.domain.exchange;
 import com.google.common.base.MoreObjects;
 import java.util.ArrayList;
 import java.util.List;
+import javax.validation.Valid;
 import javax.validation.constraints.Min;
 
 /**
@@ -41,6 +42,21 @@ public class NetworkConfig {
   private List<Integer> nonFatalErrorCodes;
   private List<String> nonFatalErrorMessages;
 
+  @Valid
+  private RateLimitConfig rateLimit;
+
+  @Valid
+  private RetryConfig retry;
+
+  @Valid
+  private CircuitBreakerConfig circuitBreaker;
+
+  @Valid
+  private TimeoutConfig timeouts;
+
+  @Valid
+  private HedgingConfig hedging;
+
   public NetworkConfig() {
     nonFatalErrorCodes = new ArrayList<>();
     nonFatalErrorMessages = new ArrayList<>();
@@ -70,12 +86,57 @@ public class NetworkConfig {
     this.nonFatalErrorMessages = nonFatalErrorMessages;
   }
 
+  public RateLimitConfig getRateLimit() {
+    return rateLimit;
+  }
+
+  public void setRateLimit(RateLimitConfig rateLimit) {
+    this.rateLimit = rateLimit;
+  }
+
+  public RetryConfig getRetry() {
+    return retry;
+  }
+
+  public void setRetry(RetryConfig retry) {
+    this.retry = retry;
+  }
+
+  public CircuitBreakerConfig getCircuitBreaker() {
+    return circuitBreaker;
+  }
+
+  public void setCircuitBreaker(CircuitBreakerConfig circuitBreaker) {
+    this.circuitBreaker = circuitBreaker;
+  }
+
+  public TimeoutConfig getTimeouts() {
+    return timeouts;
+  }
+
+  public void setTimeouts(TimeoutConfig timeouts) {
+    this.timeouts = timeouts;
+  }
+
+  public HedgingConfig getHedging() {
+    return hedging;
+  }
+
+  public void setHedging(HedgingConfig hedging) {
+    this.hedging = hedging;
+  }
+
   @Override
   public String toString() {
     return MoreObjects.toStringHelper(this)
         .add("connectionTimeout", connectionTimeout)
         .add("nonFatalErrorCodes", nonFatalErrorCodes)
         .add("nonFatalErrorMessages", nonFatalErrorMessages)
+        .add("rateLimit", rateLimit)
+        .add("retry", retry)
+        .add("circuitBreaker", circuitBreaker)
+        .add("timeouts", timeouts)
+        .add("hedging", hedging)
         .toString();
   }
 }
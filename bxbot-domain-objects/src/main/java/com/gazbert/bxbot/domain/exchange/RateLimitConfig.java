@@ -0,0 +1,112 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.domain.exchange;
+
+import com.google.common.base.MoreObjects;
+import java.util.HashMap;
+import java.util.Map;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.Positive;
+
+/**
+ * Domain object representing the Exchange rate limit config.
+ *
+ * <p>Requests to the exchange's public and private (authenticated) APIs are each charged to a
+ * token bucket that holds up to the given capacity and refills at the given rate per second. If
+ * the private bucket is not set, private requests are charged to the public one. A request costs 1
+ * token, unless its API method is listed in the method costs.
+ *
+ * @author gazbert
+ */
+public class RateLimitConfig {
+
+  @Min(value = 1, message = "Public API capacity must be 1 or more")
+  private Integer publicApiCapacity;
+
+  @Positive(message = "Public API refill per second must be more than 0")
+  private Double publicApiRefillPerSecond;
+
+  @Min(value = 1, message = "Private API capacity must be 1 or more")
+  private Integer privateApiCapacity;
+
+  @Positive(message = "Private API refill per second must be more than 0")
+  private Double privateApiRefillPerSecond;
+
+  private Map<String, Integer> methodCosts;
+
+  public RateLimitConfig() {
+    methodCosts = new HashMap<>();
+  }
+
+  public Integer getPublicApiCapacity() {
+    return publicApiCapacity;
+  }
+
+  public void setPublicApiCapacity(Integer publicApiCapacity) {
+    this.publicApiCapacity = publicApiCapacity;
+  }
+
+  public Double getPublicApiRefillPerSecond() {
+    return publicApiRefillPerSecond;
+  }
+
+  public void setPublicApiRefillPerSecond(Double publicApiRefillPerSecond) {
+    this.publicApiRefillPerSecond = publicApiRefillPerSecond;
+  }
+
+  public Integer getPrivateApiCapacity() {
+    return privateApiCapacity;
+  }
+
+  public void setPrivateApiCapacity(Integer privateApiCapacity) {
+    this.privateApiCapacity = privateApiCapacity;
+  }
+
+  public Double getPrivateApiRefillPerSecond() {
+    return privateApiRefillPerSecond;
+  }
+
+  public void setPrivateApiRefillPerSecond(Double privateApiRefillPerSecond) {
+    this.privateApiRefillPerSecond = privateApiRefillPerSecond;
+  }
+
+  public Map<String, Integer> getMethodCosts() {
+    return methodCosts;
+  }
+
+  public void setMethodCosts(Map<String, Integer> methodCosts) {
+    this.methodCosts = methodCosts;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("publicApiCapacity", publicApiCapacity)
+        .add("publicApiRefillPerSecond", publicApiRefillPerSecond)
+        .add("privateApiCapacity", privateApiCapacity)
+        .add("privateApiRefillPerSecond", privateApiRefillPerSecond)
+        .add("methodCosts", methodCosts)
+        .toString();
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.domain.exchange;
+
+import com.google.common.base.MoreObjects;
+import javax.validation.constraints.Min;
+
+/**
+ * Domain object representing the Exchange request retry config.
+ *
+ * <p>Idempotent requests that fail with a recoverable network error are sent again, up to the max
+ * attempts, after an exponential backoff with random jitter. No attempt is started after the
+ * deadline has passed.
+ *
+ * @author gazbert
+ */
+public class RetryConfig {
+
+  @Min(value = 1, message = "Max attempts must be 1 or more")
+  private Integer maxAttempts;
+
+  @Min(value = 0, message = "Initial backoff must be 0 or more")
+  private Integer initialBackoffMillis;
+
+  @Min(value = 0, message = "Max backoff must be 0 or more")
+  private Integer maxBackoffMillis;
+
+  @Min(value = 0, message = "Deadline must be 0 or more")
+  private Integer deadlineMillis;
+
+  public Integer getMaxAttempts() {
+    return maxAttempts;
+  }
+
+  public void setMaxAttempts(Integer maxAttempts) {
+    this.maxAttempts = maxAttempts;
+  }
+
+  public Integer getInitialBackoffMillis() {
+    return initialBackoffMillis;
+  }
+
+  public void setInitialBackoffMillis(Integer initialBackoffMillis) {
+    this.initialBackoffMillis = initialBackoffMillis;
+  }
+
+  public Integer getMaxBackoffMillis() {
+    return maxBackoffMillis;
+  }
+
+  public void setMaxBackoffMillis(Integer maxBackoffMillis) {
+    this.maxBackoffMillis = maxBackoffMillis;
+  }
+
+  public Integer getDeadlineMillis() {
+    return deadlineMillis;
+  }
+
+  public void setDeadlineMillis(Integer deadlineMillis) {
+    this.deadlineMillis = deadlineMillis;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("maxAttempts", maxAttempts)
+        .add("initialBackoffMillis", initialBackoffMillis)
+        .add("maxBackoffMillis", maxBackoffMillis)
+        .add("deadlineMillis", deadlineMillis)
+        .toString();
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.domain.exchange;
+
+import com.google.common.base.MoreObjects;
+import javax.validation.constraints.Min;
+
+/**
+ * Domain object representing the Exchange request timeout config.
+ *
+ * <p>The connect timeout bounds how long it takes to open a connection to the exchange; the read
+ * timeout bounds how long a request then waits for the response. The read timeout can be overridden
+ * for market data, order and balance requests. Any timeout not set falls back to the network
+ * config's connection timeout.
+ *
+ * @author gazbert
+ */
+public class TimeoutConfig {
+
+  @Min(value = 1, message = "Connect timeout must be 1 or more")
+  private Integer connectTimeoutMillis;
+
+  @Min(value = 1, message = "Read timeout must be 1 or more")
+  private Integer readTimeoutMillis;
+
+  @Min(value = 1, message = "Market data read timeout must be 1 or more")
+  private Integer marketDataReadTimeoutMillis;
+
+  @Min(value = 1, message = "Order read timeout must be 1 or more")
+  private Integer orderReadTimeoutMillis;
+
+  @Min(value = 1, message = "Balance read timeout must be 1 or more")
+  private Integer balanceReadTimeoutMillis;
+
+  public Integer getConnectTimeoutMillis() {
+    return connectTimeoutMillis;
+  }
+
+  public void setConnectTimeoutMillis(Integer connectTimeoutMillis) {
+    this.connectTimeoutMillis = connectTimeoutMillis;
+  }
+
+  public Integer getReadTimeoutMillis() {
+    return readTimeoutMillis;
+  }
+
+  public void setReadTimeoutMillis(Integer readTimeoutMillis) {
+    this.readTimeoutMillis = readTimeoutMillis;
+  }
+
+  public Integer getMarketDataReadTimeoutMillis() {
+    return marketDataReadTimeoutMillis;
+  }
+
+  public void setMarketDataReadTimeoutMillis(Integer marketDataReadTimeoutMillis) {
+    this.marketDataReadTimeoutMillis = marketDataReadTimeoutMillis;
+  }
+
+  public Integer getOrderReadTimeoutMillis() {
+    return orderReadTimeoutMillis;
+  }
+
+  public void setOrderReadTimeoutMillis(Integer orderReadTimeoutMillis) {
+    this.orderReadTimeoutMillis = orderReadTimeoutMillis;
+  }
+
+  public Integer getBalanceReadTimeoutMillis() {
+    return balanceReadTimeoutMillis;
+  }
+
+  public void setBalanceReadTimeoutMillis(Integer balanceReadTimeoutMillis) {
+    this.balanceReadTimeoutMillis = balanceReadTimeoutMillis;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("connectTimeoutMillis", connectTimeoutMillis)
+        .add("readTimeoutMillis", readTimeoutMillis)
+        .add("marketDataReadTimeoutMillis", marketDataReadTimeoutMillis)
+        .add("orderReadTimeoutMillis", orderReadTimeoutMillis)
+        .add("balanceReadTimeoutMillis", balanceReadTimeoutMillis)
+        .toString();
+  }
+}
@@ -27,7 +27,9 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Collections;
 import java.util.Date;
+import java.util.Map;
 import org.junit.Test;
 
 /**
@@ -41,6 +43,8 @@ public class TestBotStatus {
   private static final String DISPLAY_NAME = "Avro 707";
   private static final String STATUS = "running";
   private static final Date DATE = new Date();
+  private static final Map<String, String> CIRCUIT_BREAKERS =
+      Collections.singletonMap("/ticker", "OPEN");
 
   @Test
   public void testInitialisationWorksAsExpected() {
@@ -64,6 +68,7 @@ public class TestBotStatus {
     assertNull(botStatus.getDisplayName());
     assertNull(botStatus.getStatus());
     assertNull(botStatus.getDatetime());
+    assertNull(botStatus.getCircuitBreakers());
 
     botStatus.setBotId(BOT_ID);
     assertEquals(BOT_ID, botStatus.getBotId());
@@ -79,6 +84,9 @@ public class TestBotStatus {
 
     botStatus.setDatetime(DATE);
     assertEquals(DATE.getTime(), botStatus.getDatetime().getTime());
+
+    botStatus.setCircuitBreakers(CIRCUIT_BREAKERS);
+    assertEquals(CIRCUIT_BREAKERS, botStatus.getCircuitBreakers());
   }
 
   @Test
@@ -86,5 +94,8 @@ public class TestBotStatus {
     final BotStatus botStatus = new BotStatus(BOT_ID, DISPLAY_NAME, STATUS, DATE);
     assertTrue(botStatus.toString().startsWith(
         "BotStatus{botId=avro-707_1, displayName=Avro 707, status=running, datetime="));
+
+    botStatus.setCircuitBreakers(CIRCUIT_BREAKERS);
+    assertTrue(botStatus.toString().endsWith(", circuitBreakers={/ticker=OPEN}}"));
   }
 }
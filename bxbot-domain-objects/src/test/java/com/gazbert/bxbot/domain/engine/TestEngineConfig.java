@@ -41,7 +41,14 @@ public class TestEngineConfig {
   private static final String BOT_NAME = "Avro 707";
   private static final String EMERGENCY_STOP_CURRENCY = "BTC";
   private static final BigDecimal EMERGENCY_STOP_BALANCE = new BigDecimal("1.5");
+  private static final Integer EMERGENCY_STOP_CANCEL_DEADLINE = 20;
   private static final int TRADE_CYCLE_INTERVAL = 30;
+  private static final int STRATEGY_EXECUTION_THREADS = 4;
+  private static final TradeCycleOverrunPolicy TRADE_CYCLE_OVERRUN_POLICY =
+      TradeCycleOverrunPolicy.CATCH_UP;
+  private static final Integer TRADE_CYCLE_DEADLINE = 25;
+  private static final MarketDataCacheConfig MARKET_DATA_CACHE = new MarketDataCacheConfig();
+  private static final Integer ORDER_RECONCILE_INTERVAL = 60;
 
   @Test
   public void testInitialisationWorksAsExpected() {
@@ -67,7 +74,13 @@ public class TestEngineConfig {
     assertNull(engineConfig.getBotName());
     assertNull(engineConfig.getEmergencyStopCurrency());
     assertNull(engineConfig.getEmergencyStopBalance());
+    assertNull(engineConfig.getEmergencyStopCancelDeadline());
     assertEquals(0, engineConfig.getTradeCycleInterval());
+    assertEquals(0, engineConfig.getStrategyExecutionThreads());
+    assertNull(engineConfig.getTradeCycleOverrunPolicy());
+    assertNull(engineConfig.getTradeCycleDeadline());
+    assertNull(engineConfig.getMarketDataCache());
+    assertNull(engineConfig.getOrderReconcileInterval());
 
     engineConfig.setBotId(BOT_ID);
     assertEquals(BOT_ID, engineConfig.getBotId());
@@ -81,8 +94,26 @@ public class TestEngineConfig {
     engineConfig.setEmergencyStopBalance(EMERGENCY_STOP_BALANCE);
     assertEquals(EMERGENCY_STOP_BALANCE, engineConfig.getEmergencyStopBalance());
 
+    engineConfig.setEmergencyStopCancelDeadline(EMERGENCY_STOP_CANCEL_DEADLINE);
+    assertEquals(EMERGENCY_STOP_CANCEL_DEADLINE, engineConfig.getEmergencyStopCancelDeadline());
+
     engineConfig.setTradeCycleInterval(TRADE_CYCLE_INTERVAL);
     assertEquals(TRADE_CYCLE_INTERVAL, engineConfig.getTradeCycleInterval());
+
+    engineConfig.setStrategyExecutionThreads(STRATEGY_EXECUTION_THREADS);
+    assertEquals(STRATEGY_EXECUTION_THREADS, engineConfig.getStrategyExecutionThreads());
+
+    engineConfig.setTradeCycleOverrunPolicy(TRADE_CYCLE_OVERRUN_POLICY);
+    assertEquals(TRADE_CYCLE_OVERRUN_POLICY, engineConfig.getTradeCycleOverrunPolicy());
+
+    engineConfig.setTradeCycleDeadline(TRADE_CYCLE_DEADLINE);
+    assertEquals(TRADE_CYCLE_DEADLINE, engineConfig.getTradeCycleDeadline());
+
+    engineConfig.setMarketDataCache(MARKET_DATA_CACHE);
+    assertEquals(MARKET_DATA_CACHE, engineConfig.getMarketDataCache());
+
+    engineConfig.setOrderReconcileInterval(ORDER_RECONCILE_INTERVAL);
+    assertEquals(ORDER_RECONCILE_INTERVAL, engineConfig.getOrderReconcileInterval());
   }
 
   @Test
@@ -159,7 +190,9 @@ public class TestEngineConfig {
 
     assertEquals(
         "EngineConfig{botId=avro-707_1, botName=Avro 707, emergencyStopCurrency=BTC, "
-            + "emergencyStopBalance=1.5, tradeCycleInterval=30}",
+            + "emergencyStopBalance=1.5, emergencyStopCancelDeadline=null, tradeCycleInterval=30, "
+            + "strategyExecutionThreads=0, tradeCycleOverrunPolicy=null, tradeCycleDeadline=null, "
+            + "marketDataCache=null, orderReconcileInterval=null}",
         engineConfig.toString());
   }
 }
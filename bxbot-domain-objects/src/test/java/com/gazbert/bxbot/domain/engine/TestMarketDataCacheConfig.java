@@ -0,0 +1,85 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.domain.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+/**
+ * Tests MarketDataCacheConfig domain object behaves as expected.
+ *
+ * @author gazbert
+ */
+public class TestMarketDataCacheConfig {
+
+  private static final Integer MARKET_ORDERS_TTL = 2000;
+  private static final Integer LATEST_MARKET_PRICE_TTL = 1000;
+  private static final Integer TICKER_TTL = 3000;
+  private static final Integer BALANCE_INFO_TTL = 5000;
+  private static final Integer OPEN_ORDERS_TTL = 0;
+
+  @Test
+  public void testInitialisationWorksAsExpected() {
+    final MarketDataCacheConfig marketDataCacheConfig = new MarketDataCacheConfig();
+    assertNull(marketDataCacheConfig.getMarketOrdersTtl());
+    assertNull(marketDataCacheConfig.getLatestMarketPriceTtl());
+    assertNull(marketDataCacheConfig.getTickerTtl());
+    assertNull(marketDataCacheConfig.getBalanceInfoTtl());
+    assertNull(marketDataCacheConfig.getOpenOrdersTtl());
+  }
+
+  @Test
+  public void testSettersWorkAsExpected() {
+    final MarketDataCacheConfig marketDataCacheConfig = new MarketDataCacheConfig();
+
+    marketDataCacheConfig.setMarketOrdersTtl(MARKET_ORDERS_TTL);
+    assertEquals(MARKET_ORDERS_TTL, marketDataCacheConfig.getMarketOrdersTtl());
+
+    marketDataCacheConfig.setLatestMarketPriceTtl(LATEST_MARKET_PRICE_TTL);
+    assertEquals(LATEST_MARKET_PRICE_TTL, marketDataCacheConfig.getLatestMarketPriceTtl());
+
+    marketDataCacheConfig.setTickerTtl(TICKER_TTL);
+    assertEquals(TICKER_TTL, marketDataCacheConfig.getTickerTtl());
+
+    marketDataCacheConfig.setBalanceInfoTtl(BALANCE_INFO_TTL);
+    assertEquals(BALANCE_INFO_TTL, marketDataCacheConfig.getBalanceInfoTtl());
+
+    marketDataCacheConfig.setOpenOrdersTtl(OPEN_ORDERS_TTL);
+    assertEquals(OPEN_ORDERS_TTL, marketDataCacheConfig.getOpenOrdersTtl());
+  }
+
+  @Test
+  public void testToStringWorksAsExpected() {
+    final MarketDataCacheConfig marketDataCacheConfig = new MarketDataCacheConfig();
+    marketDataCacheConfig.setMarketOrdersTtl(MARKET_ORDERS_TTL);
+    marketDataCacheConfig.setBalanceInfoTtl(BALANCE_INFO_TTL);
+
+    assertEquals(
+        "MarketDataCacheConfig{marketOrdersTtl=2000, latestMarketPriceTtl=null, tickerTtl=null,"
+            + " balanceInfoTtl=5000, openOrdersTtl=null}",
+        marketDataCacheConfig.toString());
+  }
+}
@@ -86,7 +86,9 @@ public class TestExchangeConfig {
         "ExchangeConfig{name=Bitstamp, "
             + "adapter=com.gazbert.bxbot.exchanges.TestExchangeAdapter, "
             + "networkConfig=NetworkConfig{connectionTimeout=null, nonFatalErrorCodes=[], "
-            + "nonFatalErrorMessages=[]}, otherConfig={}}",
+            + "nonFatalErrorMessages=[], rateLimit=null, retry=null, circuitBreaker=null, "
+            + "timeouts=null, hedging=null}, "
+            + "otherConfig={}}",
         exchangeConfig.toString());
   }
 }
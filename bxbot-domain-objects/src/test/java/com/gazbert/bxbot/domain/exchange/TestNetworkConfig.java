@@ -52,6 +52,11 @@ public class TestNetworkConfig {
     assertNull(networkConfig.getConnectionTimeout());
     assertTrue(networkConfig.getNonFatalErrorCodes().isEmpty());
     assertTrue(networkConfig.getNonFatalErrorMessages().isEmpty());
+    assertNull(networkConfig.getRateLimit());
+    assertNull(networkConfig.getRetry());
+    assertNull(networkConfig.getCircuitBreaker());
+    assertNull(networkConfig.getTimeouts());
+    assertNull(networkConfig.getHedging());
   }
 
   @Test
@@ -66,6 +71,26 @@ public class TestNetworkConfig {
 
     networkConfig.setNonFatalErrorMessages(NON_FATAL_ERROR_MESSAGES);
     assertEquals(NON_FATAL_ERROR_MESSAGES, networkConfig.getNonFatalErrorMessages());
+
+    final RateLimitConfig rateLimit = new RateLimitConfig();
+    networkConfig.setRateLimit(rateLimit);
+    assertEquals(rateLimit, networkConfig.getRateLimit());
+
+    final RetryConfig retry = new RetryConfig();
+    networkConfig.setRetry(retry);
+    assertEquals(retry, networkConfig.getRetry());
+
+    final CircuitBreakerConfig circuitBreaker = new CircuitBreakerConfig();
+    networkConfig.setCircuitBreaker(circuitBreaker);
+    assertEquals(circuitBreaker, networkConfig.getCircuitBreaker());
+
+    final TimeoutConfig timeouts = new TimeoutConfig();
+    networkConfig.setTimeouts(timeouts);
+    assertEquals(timeouts, networkConfig.getTimeouts());
+
+    final HedgingConfig hedging = new HedgingConfig();
+    networkConfig.setHedging(hedging);
+    assertEquals(hedging, networkConfig.getHedging());
   }
 
   @Test
@@ -78,7 +103,8 @@ public class TestNetworkConfig {
     assertEquals(
         "NetworkConfig{connectionTimeout=30, nonFatalErrorCodes=[502, 503, 504],"
             + " nonFatalErrorMessages=[Connection refused, Connection reset, "
-            + "Remote host closed connection during handshake]}",
+            + "Remote host closed connection during handshake], rateLimit=null, retry=null, "
+            + "circuitBreaker=null, timeouts=null, hedging=null}",
         networkConfig.toString());
   }
 }
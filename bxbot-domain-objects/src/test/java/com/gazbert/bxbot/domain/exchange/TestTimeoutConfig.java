@@ -0,0 +1,89 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.domain.exchange;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+/**
+ * Tests TimeoutConfig domain object behaves as expected.
+ *
+ * @author gazbert
+ */
+public class TestTimeoutConfig {
+
+  private static final Integer CONNECT_TIMEOUT_MILLIS = 2000;
+  private static final Integer READ_TIMEOUT_MILLIS = 10000;
+  private static final Integer MARKET_DATA_READ_TIMEOUT_MILLIS = 3000;
+  private static final Integer ORDER_READ_TIMEOUT_MILLIS = 20000;
+  private static final Integer BALANCE_READ_TIMEOUT_MILLIS = 5000;
+
+  @Test
+  public void testInitialisationWorksAsExpected() {
+    final TimeoutConfig timeoutConfig = new TimeoutConfig();
+    assertNull(timeoutConfig.getConnectTimeoutMillis());
+    assertNull(timeoutConfig.getReadTimeoutMillis());
+    assertNull(timeoutConfig.getMarketDataReadTimeoutMillis());
+    assertNull(timeoutConfig.getOrderReadTimeoutMillis());
+    assertNull(timeoutConfig.getBalanceReadTimeoutMillis());
+  }
+
+  @Test
+  public void testSettersWorkAsExpected() {
+    final TimeoutConfig timeoutConfig = new TimeoutConfig();
+
+    timeoutConfig.setConnectTimeoutMillis(CONNECT_TIMEOUT_MILLIS);
+    assertEquals(CONNECT_TIMEOUT_MILLIS, timeoutConfig.getConnectTimeoutMillis());
+
+    timeoutConfig.setReadTimeoutMillis(READ_TIMEOUT_MILLIS);
+    assertEquals(READ_TIMEOUT_MILLIS, timeoutConfig.getReadTimeoutMillis());
+
+    timeoutConfig.setMarketDataReadTimeoutMillis(MARKET_DATA_READ_TIMEOUT_MILLIS);
+    assertEquals(MARKET_DATA_READ_TIMEOUT_MILLIS, timeoutConfig.getMarketDataReadTimeoutMillis());
+
+    timeoutConfig.setOrderReadTimeoutMillis(ORDER_READ_TIMEOUT_MILLIS);
+    assertEquals(ORDER_READ_TIMEOUT_MILLIS, timeoutConfig.getOrderReadTimeoutMillis());
+
+    timeoutConfig.setBalanceReadTimeoutMillis(BALANCE_READ_TIMEOUT_MILLIS);
+    assertEquals(BALANCE_READ_TIMEOUT_MILLIS, timeoutConfig.getBalanceReadTimeoutMillis());
+  }
+
+  @Test
+  public void testToStringWorksAsExpected() {
+    final TimeoutConfig timeoutConfig = new TimeoutConfig();
+    timeoutConfig.setConnectTimeoutMillis(CONNECT_TIMEOUT_MILLIS);
+    timeoutConfig.setReadTimeoutMillis(READ_TIMEOUT_MILLIS);
+    timeoutConfig.setMarketDataReadTimeoutMillis(MARKET_DATA_READ_TIMEOUT_MILLIS);
+    timeoutConfig.setOrderReadTimeoutMillis(ORDER_READ_TIMEOUT_MILLIS);
+    timeoutConfig.setBalanceReadTimeoutMillis(BALANCE_READ_TIMEOUT_MILLIS);
+
+    assertEquals(
+        "TimeoutConfig{connectTimeoutMillis=2000, readTimeoutMillis=10000, "
+            + "marketDataReadTimeoutMillis=3000, orderReadTimeoutMillis=20000, "
+            + "balanceReadTimeoutMillis=5000}",
+        timeoutConfig.toString());
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.exchange.api;
+
+/**
+ * Encapsulates the (optional) circuit breaker configuration for an Exchange Adapter.
+ *
+ * <p>Each API endpoint has its own circuit. It opens when the failure rate of the endpoint's most
+ * recent requests reaches the threshold; requests to it then fail fast instead of waiting for the
+ * connection timeout. After the cooldown, a single probe request is let through: if it succeeds the
+ * circuit closes, otherwise it stays open for another cooldown.
+ *
+ * @author gazbert
+ * @since 1.2
+ */
+public interface CircuitBreakerConfig {
+
+  /**
+   * Fetches the percentage of failed requests that opens a circuit.
+   *
+   * @return the failure rate threshold (1-100) if present, null otherwise.
+   */
+  Integer getFailureRateThreshold();
+
+  /**
+   * Fetches the number of most recent requests the failure rate is calculated over.
+   *
+   * @return the window size if present, null otherwise.
+   */
+  Integer getWindowSize();
+
+  /**
+   * Fetches the number of requests an endpoint must have made before its circuit can open.
+   *
+   * @return the minimum requests if present, null otherwise.
+   */
+  Integer getMinimumRequests();
+
+  /**
+   * Fetches how long a circuit stays open before a probe request is let through.
+   *
+   * @return the cooldown in seconds if present, null otherwise.
+   */
+  Integer getCooldownSeconds();
+}
@@ -23,19 +23,30 @@
 
 package com.gazbert.bxbot.exchange.api;
 
-import com.gazbert.bxbot.trading.api.TradingApi;
+import com.gazbert.bxbot.trading.api.AsyncTradingApi;
+import java.util.Collections;
+import java.util.Map;
 
 /**
  * All Exchange Adapters must implement this interface. It's main purpose is for the Trading Engine
  * to pass the adapter its configuration on startup.
  *
- * <p>The Trading Engine will send only 1 thread through the Exchange Adapter code at a time - you
- * do not have to code for concurrency.
+ * <p>By default, the Trading Engine will send only 1 thread through the Exchange Adapter code at a
+ * time. If the engine is configured to execute Trading Strategies concurrently (see the
+ * strategyExecutionThreads engine config), the adapter will be called by multiple threads - 1 per
+ * market - and must be coded for concurrency, e.g. authenticated requests that use a nonce must be
+ * received by the exchange in nonce order, and a {@code javax.crypto.Mac} must not be shared
+ * between threads. A request with a nonce should not be sent until the one before it has been
+ * answered, as the HTTP client may otherwise send them over separate connections, but the calling
+ * threads do not need to block while their requests wait their turn.
+ *
+ * <p>Exchange Adapters also provide the {@link AsyncTradingApi}. The default methods run the
+ * blocking calls on a shared thread pool, so adapters must be thread safe for the async API too.
  *
  * @author gazbert
  * @since 1.0
  */
-public interface ExchangeAdapter extends TradingApi {
+public interface ExchangeAdapter extends AsyncTradingApi {
 
   /**
    * Called once by the Trading Engine when it starts up.
@@ -43,4 +54,51 @@ public interface ExchangeAdapter extends TradingApi {
    * @param config configuration for the Exchange Adapter.
    */
   void init(ExchangeConfig config);
+
+  /**
+   * Returns the state of the adapter's circuit breakers. The Trading Engine reports these in the
+   * bot's status.
+   *
+   * @return the circuit breaker state - CLOSED, OPEN, or HALF_OPEN - keyed by exchange API
+   *     endpoint; an empty map if the adapter has no circuit breakers.
+   * @since 1.2
+   */
+  default Map<String, String> getCircuitBreakerStates() {
+    return Collections.emptyMap();
+  }
+
+  /**
+   * Returns true if the adapter cancels your open orders on several markets using a single
+   * exchange request, e.g. a cancel-all request that is not tied to a market. The Trading Engine
+   * then hands all the markets to {@link #cancelAllOrders(java.util.Collection)} in one call on an
+   * emergency stop; otherwise it cancels each market concurrently.
+   *
+   * @return true if the adapter has a native cancel-all across markets, false otherwise.
+   * @since 1.2
+   */
+  default boolean isCancelAllOrdersAcrossMarketsSupported() {
+    return false;
+  }
+
+  /**
+   * Sets the deadline for the requests the calling thread sends to the exchange. The Trading Engine
+   * calls this at the start of each trade cycle when a trade cycle deadline is configured, so that
+   * a slow exchange cannot overrun the cycle. Adapters that support it should cut short their
+   * request timeouts to end by the deadline, and fail requests once it has passed.
+   *
+   * @param deadlineNanoTime the deadline, as a {@link System#nanoTime()} value.
+   * @since 1.2
+   */
+  default void setRequestDeadline(long deadlineNanoTime) {
+    // no deadline support by default
+  }
+
+  /**
+   * Clears the calling thread's request deadline.
+   *
+   * @since 1.2
+   */
+  default void clearRequestDeadline() {
+    // no deadline support by default
+  }
 }
@@ -0,0 +1,66 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.exchange.api;
+
+/**
+ * Encapsulates the (optional) request hedging configuration for an Exchange Adapter.
+ *
+ * <p>Hedging only applies to idempotent public API requests, e.g. fetching the order book or
+ * ticker. If the exchange has not answered a request within the given percentile of the endpoint's
+ * recent response times, a second request is sent and whichever answers first is used. The budget
+ * stops hedging from doubling the requests sent to the exchange.
+ *
+ * @author gazbert
+ * @since 1.2
+ */
+public interface HedgingConfig {
+
+  /**
+   * Fetches the percentile of the endpoint's recent response times to wait for before hedging.
+   *
+   * @return the latency percentile (1-99) if present, null otherwise.
+   */
+  Integer getLatencyPercentile();
+
+  /**
+   * Fetches the maximum number of hedged requests, as a percentage of all hedgeable requests.
+   *
+   * @return the budget percent (1-100) if present, null otherwise.
+   */
+  Integer getBudgetPercent();
+
+  /**
+   * Fetches the minimum time to wait before hedging, however fast the endpoint has been.
+   *
+   * @return the minimum delay in millis if present, null otherwise.
+   */
+  Integer getMinDelayMillis();
+
+  /**
+   * Fetches the number of most recent response times the percentile is calculated over.
+   *
+   * @return the window size if present, null otherwise.
+   */
+  Integer getWindowSize();
+}
@@ -53,4 +53,56 @@ public interface NetworkConfig {
    * @return the connection timeout value if present, null otherwise.
    */
   Integer getConnectionTimeout();
+
+  /**
+   * Fetches (optional) rate limit config.
+   *
+   * @return the rate limit config if present, null otherwise - requests are not rate limited.
+   * @since 1.2
+   */
+  default RateLimitConfig getRateLimitConfig() {
+    return null;
+  }
+
+  /**
+   * Fetches (optional) request retry config.
+   *
+   * @return the retry config if present, null otherwise - failed requests are not retried.
+   * @since 1.2
+   */
+  default RetryConfig getRetryConfig() {
+    return null;
+  }
+
+  /**
+   * Fetches (optional) circuit breaker config.
+   *
+   * @return the circuit breaker config if present, null otherwise - requests always go to the
+   *     exchange.
+   * @since 1.2
+   */
+  default CircuitBreakerConfig getCircuitBreakerConfig() {
+    return null;
+  }
+
+  /**
+   * Fetches (optional) request timeout config.
+   *
+   * @return the timeout config if present, null otherwise - the connection timeout is used for
+   *     connecting and reading.
+   * @since 1.2
+   */
+  default TimeoutConfig getTimeoutConfig() {
+    return null;
+  }
+
+  /**
+   * Fetches (optional) request hedging config.
+   *
+   * @return the hedging config if present, null otherwise - requests are never hedged.
+   * @since 1.2
+   */
+  default HedgingConfig getHedgingConfig() {
+    return null;
+  }
 }
@@ -0,0 +1,76 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.exchange.api;
+
+import java.util.Map;
+
+/**
+ * Encapsulates the (optional) rate limit configuration for an Exchange Adapter.
+ *
+ * <p>Requests to the exchange's public and private (authenticated) APIs are each charged to a
+ * token bucket that holds up to the given capacity and refills at the given rate per second.
+ *
+ * @author gazbert
+ * @since 1.2
+ */
+public interface RateLimitConfig {
+
+  /**
+   * Fetches the capacity of the public API token bucket.
+   *
+   * @return the capacity if present, null otherwise - public requests are not limited.
+   */
+  Integer getPublicApiCapacity();
+
+  /**
+   * Fetches the number of tokens added to the public API token bucket per second.
+   *
+   * @return the refill rate if present, null otherwise - public requests are not limited.
+   */
+  Double getPublicApiRefillPerSecond();
+
+  /**
+   * Fetches the capacity of the private API token bucket.
+   *
+   * @return the capacity if present, null otherwise - private requests are charged to the public
+   *     API token bucket.
+   */
+  Integer getPrivateApiCapacity();
+
+  /**
+   * Fetches the number of tokens added to the private API token bucket per second.
+   *
+   * @return the refill rate if present, null otherwise - private requests are charged to the
+   *     public API token bucket.
+   */
+  Double getPrivateApiRefillPerSecond();
+
+  /**
+   * Fetches the number of tokens charged for API methods that do not cost 1, e.g. Kraken charges 2
+   * for Ledgers.
+   *
+   * @return the API method costs, keyed by API method name; an empty map if there are none.
+   */
+  Map<String, Integer> getMethodCosts();
+}
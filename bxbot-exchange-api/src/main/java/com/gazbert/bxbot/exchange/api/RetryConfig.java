@@ -0,0 +1,66 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.exchange.api;
+
+/**
+ * Encapsulates the (optional) request retry configuration for an Exchange Adapter.
+ *
+ * <p>Idempotent requests that fail with a recoverable network error are sent again, up to the max
+ * attempts, after an exponential backoff with random jitter. Non-idempotent requests, e.g. placing
+ * an order, are never retried.
+ *
+ * @author gazbert
+ * @since 1.2
+ */
+public interface RetryConfig {
+
+  /**
+   * Fetches the max number of attempts made to send a request, including the first one.
+   *
+   * @return the max attempts if present, null otherwise - requests are not retried.
+   */
+  Integer getMaxAttempts();
+
+  /**
+   * Fetches the backoff before the first retry. It doubles for each retry after that.
+   *
+   * @return the initial backoff in millis if present, null otherwise.
+   */
+  Integer getInitialBackoffMillis();
+
+  /**
+   * Fetches the upper bound of the backoff between retries.
+   *
+   * @return the max backoff in millis if present, null otherwise.
+   */
+  Integer getMaxBackoffMillis();
+
+  /**
+   * Fetches the time after the first attempt beyond which no more retries are started.
+   *
+   * @return the deadline in millis if present, null otherwise - retries are bounded by the max
+   *     attempts only.
+   */
+  Integer getDeadlineMillis();
+}
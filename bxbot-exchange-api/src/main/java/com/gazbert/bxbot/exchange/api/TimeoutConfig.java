@@ -0,0 +1,75 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.exchange.api;
+
+/**
+ * Encapsulates the (optional) request timeout configuration for an Exchange Adapter.
+ *
+ * <p>The connect and read timeouts are set separately, and the read timeout can be overridden for
+ * market data, order and balance requests. Any timeout not set falls back to the {@link
+ * NetworkConfig#getConnectionTimeout()}.
+ *
+ * @author gazbert
+ * @since 1.2
+ */
+public interface TimeoutConfig {
+
+  /**
+   * Fetches how long to wait for a connection to the exchange to be opened.
+   *
+   * @return the connect timeout in millis if present, null otherwise.
+   */
+  Integer getConnectTimeoutMillis();
+
+  /**
+   * Fetches how long a request waits for the exchange's response once it has been sent.
+   *
+   * @return the read timeout in millis if present, null otherwise.
+   */
+  Integer getReadTimeoutMillis();
+
+  /**
+   * Fetches the read timeout for market data requests, e.g. the order book and ticker.
+   *
+   * @return the market data read timeout in millis if present, null otherwise - the read timeout
+   *     is used.
+   */
+  Integer getMarketDataReadTimeoutMillis();
+
+  /**
+   * Fetches the read timeout for order requests, e.g. placing and cancelling orders.
+   *
+   * @return the order read timeout in millis if present, null otherwise - the read timeout is
+   *     used.
+   */
+  Integer getOrderReadTimeoutMillis();
+
+  /**
+   * Fetches the read timeout for balance requests.
+   *
+   * @return the balance read timeout in millis if present, null otherwise - the read timeout is
+   *     used.
+   */
+  Integer getBalanceReadTimeoutMillis();
+}
@@ -83,12 +83,17 @@ public class BitstampIT {
     expect(networkConfig.getConnectionTimeout()).andReturn(30);
     expect(networkConfig.getNonFatalErrorCodes()).andReturn(nonFatalNetworkErrorCodes);
     expect(networkConfig.getNonFatalErrorMessages()).andReturn(nonFatalNetworkErrorMessages);
+    expect(networkConfig.getRateLimitConfig()).andReturn(null);
+    expect(networkConfig.getRetryConfig()).andReturn(null);
+    expect(networkConfig.getCircuitBreakerConfig()).andReturn(null);
+    expect(networkConfig.getTimeoutConfig()).andReturn(null);
+    expect(networkConfig.getHedgingConfig()).andReturn(null);
 
     exchangeConfig = createMock(ExchangeConfig.class);
     expect(exchangeConfig.getAuthenticationConfig()).andReturn(authenticationConfig);
     expect(exchangeConfig.getNetworkConfig()).andReturn(networkConfig);
-
-    // no other config for this adapter
+    // other config is optional for this adapter
+    expect(exchangeConfig.getOtherConfig()).andReturn(null);
   }
 
   @Test
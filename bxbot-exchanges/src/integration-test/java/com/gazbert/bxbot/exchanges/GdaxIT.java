@@ -88,10 +88,16 @@ public class GdaxIT {
     expect(networkConfig.getConnectionTimeout()).andReturn(30);
     expect(networkConfig.getNonFatalErrorCodes()).andReturn(nonFatalNetworkErrorCodes);
     expect(networkConfig.getNonFatalErrorMessages()).andReturn(nonFatalNetworkErrorMessages);
+    expect(networkConfig.getRateLimitConfig()).andReturn(null);
+    expect(networkConfig.getRetryConfig()).andReturn(null);
+    expect(networkConfig.getCircuitBreakerConfig()).andReturn(null);
+    expect(networkConfig.getTimeoutConfig()).andReturn(null);
+    expect(networkConfig.getHedgingConfig()).andReturn(null);
 
     otherConfig = createMock(OtherConfig.class);
     expect(otherConfig.getItem("buy-fee")).andReturn("0.25");
     expect(otherConfig.getItem("sell-fee")).andReturn("0.25");
+    expect(otherConfig.getItem("streaming-order-book-parsing")).andReturn(null);
 
     exchangeConfig = createMock(ExchangeConfig.class);
     expect(exchangeConfig.getAuthenticationConfig()).andReturn(authenticationConfig);
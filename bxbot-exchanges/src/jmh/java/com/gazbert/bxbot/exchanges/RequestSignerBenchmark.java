@@ -0,0 +1,147 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.exchanges;
+
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of signing an authenticated request, in nanoseconds.
+ *
+ * <p>Each request is signed with the {@link RequestSigner}, which reuses a keyed Mac and digest per
+ * thread, and with a new Mac and digest per call. The Bitfinex benchmarks sign a hex encoded
+ * HMAC-SHA384 of the request payload. The Kraken benchmarks sign an HMAC-SHA512 of the path and a
+ * SHA-256 hash of the nonce and post data.
+ *
+ * <p>The signer is shared by all benchmark threads, as it is by an adapter's callers, so running
+ * with e.g. <code>-t 4</code> shows the cost under concurrent order placement. Run with
+ * <code>-prof gc</code> to see the bytes allocated per request.
+ *
+ * @author gazbert
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestSignerBenchmark {
+
+  private static final String BITFINEX_MAC_ALGORITHM = "HmacSHA384";
+  private static final String KRAKEN_MAC_ALGORITHM = "HmacSHA512";
+  private static final String KRAKEN_DIGEST_ALGORITHM = "SHA-256";
+  private static final String KRAKEN_PATH = "/0/private/AddOrder";
+  private static final long NONCE = 1591022400000L;
+
+  private final String bitfinexPayload =
+      Base64.getEncoder()
+          .encodeToString(
+              ("{\"request\":\"/v1/order/new\",\"nonce\":\"" + NONCE + "\",\"symbol\":\"btcusd\","
+                      + "\"amount\":\"0.01\",\"price\":\"9650.25\",\"exchange\":\"bitfinex\","
+                      + "\"side\":\"buy\",\"type\":\"exchange limit\"}")
+                  .getBytes(StandardCharsets.UTF_8));
+  private final String krakenPostData =
+      "nonce=" + NONCE + "&pair=XXBTZUSD&type=buy&ordertype=limit&price=9650.2&volume=0.01";
+
+  private SecretKeySpec bitfinexKey;
+  private SecretKeySpec krakenKey;
+  private RequestSigner bitfinexSigner;
+  private RequestSigner krakenSigner;
+
+  /**
+   * Creates the keys and signers.
+   *
+   * @throws Exception if the algorithms are not installed.
+   */
+  @Setup
+  public void setup() throws Exception {
+    final byte[] secret = "benchmark-secret-key".getBytes(StandardCharsets.UTF_8);
+    bitfinexKey = new SecretKeySpec(secret, BITFINEX_MAC_ALGORITHM);
+    krakenKey = new SecretKeySpec(secret, KRAKEN_MAC_ALGORITHM);
+    bitfinexSigner = RequestSigner.create(BITFINEX_MAC_ALGORITHM, secret);
+    krakenSigner = RequestSigner.create(KRAKEN_MAC_ALGORITHM, secret, KRAKEN_DIGEST_ALGORITHM);
+  }
+
+  @Benchmark
+  public String bitfinexRequestSigner() {
+    return RequestSigner.toHex(bitfinexSigner.sign(bitfinexPayload));
+  }
+
+  /**
+   * Signs the Bitfinex payload with a new Mac.
+   *
+   * @return the signature.
+   * @throws Exception if the Mac cannot be created.
+   */
+  @Benchmark
+  public String bitfinexNewMacPerCall() throws Exception {
+    final Mac mac = newMac(bitfinexKey);
+    return RequestSigner.toHex(mac.doFinal(bitfinexPayload.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  @Benchmark
+  public byte[] krakenRequestSigner() {
+    final byte[] messageHash = krakenSigner.digest(Long.toString(NONCE), krakenPostData);
+    return krakenSigner.sign(KRAKEN_PATH, messageHash);
+  }
+
+  /**
+   * Signs the Kraken request with a new Mac and digest.
+   *
+   * @return the signature.
+   * @throws Exception if the Mac or digest cannot be created.
+   */
+  @Benchmark
+  public byte[] krakenNewMacPerCall() throws Exception {
+    final MessageDigest messageDigest = MessageDigest.getInstance(KRAKEN_DIGEST_ALGORITHM);
+    messageDigest.update((NONCE + krakenPostData).getBytes(StandardCharsets.UTF_8));
+    final Mac mac = newMac(krakenKey);
+    mac.update(KRAKEN_PATH.getBytes(StandardCharsets.UTF_8));
+    mac.update(messageDigest.digest());
+    return mac.doFinal();
+  }
+
+  private static Mac newMac(SecretKeySpec key)
+      throws NoSuchAlgorithmException, InvalidKeyException {
+    final Mac mac = Mac.getInstance(key.getAlgorithm());
+    mac.init(key);
+    return mac;
+  }
+}
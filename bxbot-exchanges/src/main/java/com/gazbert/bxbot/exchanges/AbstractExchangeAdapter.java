@@ -24,33 +24,53 @@
 package com.gazbert.bxbot.exchanges;
 
 import com.gazbert.bxbot.exchange.api.AuthenticationConfig;
+import com.gazbert.bxbot.exchange.api.CircuitBreakerConfig;
 import com.gazbert.bxbot.exchange.api.ExchangeConfig;
+import com.gazbert.bxbot.exchange.api.HedgingConfig;
 import com.gazbert.bxbot.exchange.api.NetworkConfig;
 import com.gazbert.bxbot.exchange.api.OtherConfig;
+import com.gazbert.bxbot.exchange.api.RateLimitConfig;
+import com.gazbert.bxbot.exchange.api.RetryConfig;
+import com.gazbert.bxbot.exchange.api.TimeoutConfig;
 import com.gazbert.bxbot.trading.api.ExchangeNetworkException;
 import com.gazbert.bxbot.trading.api.TradingApiException;
 import com.google.common.base.MoreObjects;
-import java.io.BufferedReader;
-import java.io.FileNotFoundException;
+import com.google.gson.stream.JsonReader;
+import java.io.Closeable;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
+import java.io.OutputStream;
+import java.net.ConnectException;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
-import java.net.SocketTimeoutException;
 import java.net.URL;
-import java.net.URLConnection;
 import java.net.UnknownHostException;
+import java.net.http.HttpTimeoutException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.UnresolvedAddressException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 import java.text.DecimalFormatSymbols;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -73,6 +93,22 @@ abstract class AbstractExchangeAdapter {
       "Failed to connect to Exchange due to socket timeout.";
   private static final String IO_5XX_TIMEOUT_ERROR_MSG =
       "Failed to connect to Exchange due to 5xx timeout.";
+  private static final String UNEXPECTED_ADAPTER_ERROR_MSG =
+      "Unexpected error has occurred in Exchange Adapter.";
+  private static final String UNEXPECTED_RESPONSE_ERROR_MSG =
+      "Unexpected response received from Exchange for: ";
+  private static final String DEAD_EXCHANGE_ERROR_MSG =
+      "Failed to connect to Exchange. It's dead Jim!";
+  private static final String DROPPED_CONNECTION_ERROR_MSG =
+      "Failed to connect to Exchange. Connection was refused or closed by the server.";
+
+  // What the JDK HttpClient says when a pooled keep-alive connection has been closed under it.
+  private static final Set<String> DROPPED_CONNECTION_MESSAGES =
+      Set.of("HTTP/1.1 header parser received no bytes", "EOF reached while reading");
+  private static final String CIRCUIT_OPEN_ERROR_MSG =
+      "Circuit breaker is open - not calling Exchange endpoint: ";
+  private static final String DEADLINE_PASSED_ERROR_MSG =
+      "Request deadline has passed - not calling Exchange: ";
   private static final String AUTHENTICATION_CONFIG_MISSING =
       "authenticationConfig is missing in exchange.yaml file.";
   private static final String NETWORK_CONFIG_MISSING =
@@ -85,11 +121,34 @@ abstract class AbstractExchangeAdapter {
   private static final String CONNECTION_TIMEOUT_PROPERTY_NAME = "connection-timeout";
   private static final String NON_FATAL_ERROR_CODES_PROPERTY_NAME = "non-fatal-error-codes";
   private static final String NON_FATAL_ERROR_MESSAGES_PROPERTY_NAME = "non-fatal-error-messages";
+  private static final String RATE_LIMIT_PROPERTY_NAME = "rate-limit";
+  private static final String RETRY_PROPERTY_NAME = "retry";
+  private static final String CIRCUIT_BREAKER_PROPERTY_NAME = "circuit-breaker";
+  private static final String HEDGING_PROPERTY_NAME = "hedging";
+  private static final String CONNECT_TIMEOUT_PROPERTY_NAME = "connect-timeout";
+  private static final String READ_TIMEOUT_PROPERTY_NAME = "read-timeout";
+  private static final String STREAMING_ORDER_BOOK_PARSING_PROPERTY_NAME =
+      "streaming-order-book-parsing";
+  private static final String NONCE_FILE_PROPERTY_NAME = "nonce-file";
 
   private final Set<Integer> nonFatalNetworkErrorCodes;
   private final Set<String> nonFatalNetworkErrorMessages;
 
   private int connectionTimeout;
+  private Duration connectTimeout;
+  private Duration readTimeout;
+  private final Map<ExchangeOperation, Duration> operationReadTimeouts =
+      new EnumMap<>(ExchangeOperation.class);
+  private final ThreadLocal<Long> requestDeadline = new ThreadLocal<>();
+  private ExchangeHttpTransport httpTransport;
+  private ExchangeRateLimiter rateLimiter;
+  private ExchangeRetryPolicy retryPolicy;
+  private ExchangeCircuitBreaker circuitBreaker;
+  private ExchangeRequestHedger requestHedger;
+  private final ExchangeSingleFlight singleFlight = new ExchangeSingleFlight();
+  private final Object nonceOrderedRequestLock = new Object();
+  private CompletableFuture<?> lastNonceOrderedRequest = CompletableFuture.completedFuture(null);
+  private boolean streamingOrderBookParsing;
   private DecimalFormatSymbols decimalFormatSymbols;
 
   /**
@@ -98,6 +157,8 @@ abstract class AbstractExchangeAdapter {
    */
   AbstractExchangeAdapter() {
     connectionTimeout = 30;
+    connectTimeout = Duration.ofSeconds(connectionTimeout);
+    readTimeout = connectTimeout;
     nonFatalNetworkErrorCodes = new HashSet<>();
     nonFatalNetworkErrorMessages = new HashSet<>();
 
@@ -110,11 +171,16 @@ abstract class AbstractExchangeAdapter {
   /**
    * Makes a request to the Exchange.
    *
+   * <p>The request is sent using the adapter's {@link ExchangeHttpTransport}, which keeps
+   * connections to the exchange alive between calls. Idempotent requests that fail with an {@link
+   * ExchangeNetworkException} are retried if a retry policy is configured. If the endpoint's
+   * circuit breaker is open, or the calling thread's request deadline has passed, an {@link
+   * ExchangeNetworkException} is thrown without calling the exchange.
+   *
    * @param url the URL to invoke.
    * @param postData optional post data to send. This can be null.
    * @param httpMethod the HTTP method to use, e.g. GET, POST, DELETE
-   * @param requestHeaders optional request headers to set on the {@link URLConnection} used to
-   *     invoke the Exchange.
+   * @param requestHeaders optional request headers to send to the Exchange.
    * @return the response from the Exchange.
    * @throws ExchangeNetworkException if a network error occurred trying to connect to the exchange.
    *     This exception allows for recovery from temporary network issues.
@@ -125,97 +191,439 @@ abstract class AbstractExchangeAdapter {
       URL url, String httpMethod, String postData, Map<String, String> requestHeaders)
       throws TradingApiException, ExchangeNetworkException {
 
-    HttpURLConnection exchangeConnection = null;
-    final StringBuilder exchangeResponse = new StringBuilder();
-
+    throwIfDeadlinePassed(url, requestDeadline.get());
+    final String circuit = enterCircuit(url);
+    boolean networkError = false;
     try {
-      LOG.debug(() -> "Using following URL for API call: " + url);
+      return sendNetworkRequestWithRetry(url, httpMethod, postData, requestHeaders);
+    } catch (ExchangeNetworkException e) {
+      networkError = true;
+      throw e;
+    } finally {
+      exitCircuit(circuit, networkError);
+      exitOrderRequest(url, httpMethod, requestHeaders);
+    }
+  }
 
-      exchangeConnection = (HttpURLConnection) url.openConnection();
-      exchangeConnection.setUseCaches(false);
-      exchangeConnection.setDoOutput(true);
-      exchangeConnection.setRequestMethod(httpMethod); // GET|POST|DELETE
+  /**
+   * Makes a request to the Exchange and parses the response body straight off the wire.
+   *
+   * <p>Unlike {@link #sendNetworkRequest(URL, String, String, Map)}, the body is never read into
+   * a String: the parser pulls tokens from the connection's input stream as they arrive. Error
+   * responses (4xx/5xx) are still read in full so they can be reported. Idempotent requests are
+   * retried in the same way, and the parser is run afresh for each attempt.
+   *
+   * @param url the URL to invoke.
+   * @param httpMethod the HTTP method to use, e.g. GET, POST, DELETE
+   * @param postData optional post data to send. This can be null.
+   * @param requestHeaders optional request headers to send to the Exchange.
+   * @param responseParser parses the response body.
+   * @param <T> the parsed result type.
+   * @return the parsed response from the Exchange.
+   * @throws ExchangeNetworkException if a network error occurred trying to connect to the exchange.
+   *     This exception allows for recovery from temporary network issues.
+   * @throws TradingApiException if the API call failed for any reason other than a network error.
+   *     This means something really bad as happened.
+   */
+  <T> T sendNetworkRequestStreaming(
+      URL url,
+      String httpMethod,
+      String postData,
+      Map<String, String> requestHeaders,
+      ExchangeResponseStreamParser<T> responseParser)
+      throws TradingApiException, ExchangeNetworkException {
 
-      setRequestHeaders(exchangeConnection, requestHeaders);
+    throwIfDeadlinePassed(url, requestDeadline.get());
+    final String circuit = enterCircuit(url);
+    boolean networkError = false;
+    try {
+      return sendNetworkRequestStreamingWithRetry(
+          url, httpMethod, postData, requestHeaders, responseParser);
+    } catch (ExchangeNetworkException e) {
+      networkError = true;
+      throw e;
+    } finally {
+      exitCircuit(circuit, networkError);
+      exitOrderRequest(url, httpMethod, requestHeaders);
+    }
+  }
 
-      // Add a timeout so we don't get blocked indefinitely; timeout on URLConnection is in millis.
-      final int timeoutInMillis = connectionTimeout * 1000;
-      exchangeConnection.setConnectTimeout(timeoutInMillis);
-      exchangeConnection.setReadTimeout(timeoutInMillis);
+  /**
+   * Makes a request to the Exchange without blocking the calling thread.
+   *
+   * <p>The returned future completes exceptionally with the same {@link ExchangeNetworkException}
+   * or {@link TradingApiException} that {@link #sendNetworkRequest(URL, String, String, Map)} would
+   * throw for the request, after the same retries. If the request has to wait for the rate limit,
+   * or back off before a retry, it is sent later from a timer rather than by blocking the calling
+   * thread. If the endpoint's circuit breaker is open, or the calling thread's request deadline
+   * has passed, the future fails straight away.
+   *
+   * @param url the URL to invoke.
+   * @param httpMethod the HTTP method to use, e.g. GET, POST, DELETE
+   * @param postData optional post data to send. This can be null.
+   * @param requestHeaders optional request headers to send to the Exchange.
+   * @return a future for the response from the Exchange.
+   */
+  CompletableFuture<ExchangeHttpResponse> sendNetworkRequestAsync(
+      URL url, String httpMethod, String postData, Map<String, String> requestHeaders) {
+    return sendNetworkRequestAsyncWithDeadline(
+        url, httpMethod, postData, requestHeaders, requestDeadline.get());
+  }
 
-      if (httpMethod.equalsIgnoreCase("POST") && postData != null) {
-        LOG.debug(() -> "Doing POST with request body: " + postData);
-        try (final OutputStreamWriter outputPostStream =
-            new OutputStreamWriter(exchangeConnection.getOutputStream(), StandardCharsets.UTF_8)) {
-          outputPostStream.write(postData);
-        }
-      }
+  /**
+   * Makes a request to the Exchange without blocking the calling thread, once every nonce ordered
+   * request made before it has completed.
+   *
+   * <p>Adapters that sign requests with an increasing nonce make them through this while holding
+   * their nonce lock, so the exchange receives them in nonce order. Without it, the HTTP client
+   * can send concurrent requests over separate connections, and requests waiting for the rate
+   * limit are sent from a timer, so either could overtake a request with a lower nonce. The
+   * request does not reserve its rate limit until it is its turn, so waiting for the rate limit
+   * keeps the order too.
+   *
+   * <p>The request completes the same way as {@link #sendNetworkRequestAsync(URL, String, String,
+   * Map)}. Cancelling the returned future does not let the next request overtake this one.
+   *
+   * @param url the URL to invoke.
+   * @param httpMethod the HTTP method to use, e.g. GET, POST, DELETE
+   * @param postData optional post data to send. This can be null.
+   * @param requestHeaders optional request headers to send to the Exchange.
+   * @return a future for the response from the Exchange.
+   */
+  CompletableFuture<ExchangeHttpResponse> sendNonceOrderedRequestAsync(
+      URL url, String httpMethod, String postData, Map<String, String> requestHeaders) {
+    final Long deadline = requestDeadline.get();
+    synchronized (nonceOrderedRequestLock) {
+      final CompletableFuture<ExchangeHttpResponse> response =
+          lastNonceOrderedRequest
+              .handle((previousResponse, error) -> null)
+              .thenCompose(
+                  previous ->
+                      sendNetworkRequestAsyncWithDeadline(
+                          url, httpMethod, postData, requestHeaders, deadline));
+      lastNonceOrderedRequest = response;
+      return response.copy();
+    }
+  }
 
-      // Grab the response - we just block here as per Connection API
-      try (final BufferedReader responseInputStream =
-          new BufferedReader(
-              new InputStreamReader(exchangeConnection.getInputStream(), StandardCharsets.UTF_8))) {
-
-        // Read the JSON response lines into our response buffer
-        String responseLine;
-        while ((responseLine = responseInputStream.readLine()) != null) {
-          exchangeResponse.append(responseLine);
-        }
-
-        return new ExchangeHttpResponse(
-            exchangeConnection.getResponseCode(),
-            exchangeConnection.getResponseMessage(),
-            exchangeResponse.toString());
-      }
+  private CompletableFuture<ExchangeHttpResponse> sendNetworkRequestAsyncWithDeadline(
+      URL url,
+      String httpMethod,
+      String postData,
+      Map<String, String> requestHeaders,
+      Long deadline) {
+    final String circuit;
+    try {
+      throwIfDeadlinePassed(url, deadline);
+      circuit = enterCircuit(url);
+    } catch (ExchangeNetworkException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+    final CompletableFuture<ExchangeHttpResponse> result = new CompletableFuture<>();
+    sendNetworkRequestAsyncWithRetry(
+        url, httpMethod, postData, requestHeaders, 0, System.nanoTime(), deadline, result);
+    return result.whenComplete(
+        (exchangeResponse, error) -> {
+          exitCircuit(circuit, error instanceof ExchangeNetworkException);
+          exitOrderRequest(url, httpMethod, requestHeaders);
+        });
+  }
 
-    } catch (MalformedURLException e) {
-      final String errorMsg = UNEXPECTED_IO_ERROR_MSG;
-      LOG.error(errorMsg, e);
-      throw new TradingApiException(errorMsg, e);
+  /**
+   * Adapts the response from an async request into a Trading API result. If the adapter throws
+   * anything other than a {@link TradingApiException} or {@link ExchangeNetworkException}, it is
+   * wrapped in a {@link TradingApiException} - the same as the blocking API calls do.
+   *
+   * @param futureResponse the future response from the Exchange.
+   * @param responseAdapter adapts the response into the result.
+   * @param <T> the result type.
+   * @return a future for the result.
+   */
+  <T> CompletableFuture<T> adaptResponseAsync(
+      CompletableFuture<ExchangeHttpResponse> futureResponse,
+      ExchangeResponseAdapter<T> responseAdapter) {
+    return futureResponse.thenCompose(
+        response -> {
+          try {
+            return CompletableFuture.completedFuture(responseAdapter.adapt(response));
+          } catch (TradingApiException | ExchangeNetworkException e) {
+            return CompletableFuture.failedFuture(e);
+          } catch (Exception e) {
+            LOG.error(UNEXPECTED_ADAPTER_ERROR_MSG, e);
+            return CompletableFuture.failedFuture(
+                new TradingApiException(UNEXPECTED_ADAPTER_ERROR_MSG, e));
+          }
+        });
+  }
 
-    } catch (SocketTimeoutException e) {
-      final String errorMsg = IO_SOCKET_TIMEOUT_ERROR_MSG;
+  /**
+   * Waits for the response to an async request. Adapters that sign requests with a nonce use this
+   * to queue the request while holding their nonce lock, and read the response after releasing it.
+   *
+   * @param futureResponse the future response from the Exchange.
+   * @return the response from the Exchange.
+   * @throws ExchangeNetworkException if a network error occurred trying to connect to the exchange,
+   *     or the calling thread was interrupted while waiting.
+   * @throws TradingApiException if the API call failed for any reason other than a network error.
+   */
+  ExchangeHttpResponse awaitResponse(CompletableFuture<ExchangeHttpResponse> futureResponse)
+      throws TradingApiException, ExchangeNetworkException {
+    try {
+      return futureResponse.get();
+    } catch (InterruptedException e) {
+      futureResponse.cancel(false); // any response that arrives now is discarded
+      Thread.currentThread().interrupt();
+      final String errorMsg = "Interrupted waiting for response from Exchange.";
       LOG.error(errorMsg, e);
       throw new ExchangeNetworkException(errorMsg, e);
+    } catch (ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof ExchangeNetworkException) {
+        throw (ExchangeNetworkException) cause;
+      } else if (cause instanceof TradingApiException) {
+        throw (TradingApiException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      LOG.error(UNEXPECTED_IO_ERROR_MSG, cause);
+      throw new TradingApiException(UNEXPECTED_IO_ERROR_MSG, cause);
+    }
+  }
 
-    } catch (FileNotFoundException | UnknownHostException e) {
-      // Huobi started throwing FileNotFoundException as of 8 Nov 2015.
-      // EC2 started throwing UnknownHostException for BTC-e, GDAX, as of 14 July 2016 :-/
-      final String errorMsg = "Failed to connect to Exchange. It's dead Jim!";
-      LOG.error(errorMsg, e);
-      throw new ExchangeNetworkException(errorMsg, e);
+  /**
+   * Makes a Trading API call, or waits for an identical call already in flight and shares its
+   * result. Identical calls, e.g. from 2 Trading Strategies asking for the same order book at once,
+   * then cost a single request to the exchange. The result must not be modified by the caller.
+   *
+   * @param operation the kind of call. Account data calls, e.g. for balances, are not joined once
+   *     an order request has completed since they were sent.
+   * @param key the Trading API method name followed by its arguments.
+   * @param call makes the call.
+   * @param <T> the result type.
+   * @return the result.
+   * @throws ExchangeNetworkException if a network error occurred trying to connect to the exchange.
+   * @throws TradingApiException if the API call failed for any reason other than a network error.
+   */
+  <T> T singleFlight(ExchangeOperation operation, List<?> key, TradingApiCall<T> call)
+      throws ExchangeNetworkException, TradingApiException {
+    return singleFlight.call(operation, key, call, requestDeadline.get());
+  }
 
-    } catch (IOException e) {
-      try {
-        if (errorMessageIsRecoverableNetworkError(e)) {
-          final String errorMsg =
-              "Failed to connect to Exchange. SSL Connection was refused or reset by the server.";
-          LOG.error(errorMsg, e);
-          throw new ExchangeNetworkException(errorMsg, e);
-
-        } else if (errorCodeIsRecoverableNetworkError(exchangeConnection)) {
-          final String errorMsg = IO_5XX_TIMEOUT_ERROR_MSG;
-          LOG.error(errorMsg, e);
-          throw new ExchangeNetworkException(errorMsg, e);
-
-        } else {
-          // Game over!
-          String errorMsg = extractIoErrorMessage(exchangeConnection);
-          LOG.error(errorMsg, e);
-          throw new TradingApiException(errorMsg, e);
-        }
-
-      } catch (IOException e1) {
-        final String errorMsg = UNEXPECTED_IO_ERROR_MSG;
-        LOG.error(errorMsg, e1);
-        throw new TradingApiException(errorMsg, e1);
-      }
+  /**
+   * Makes an async Trading API call, or joins an identical call already in flight - sync or async.
+   *
+   * @param operation the kind of call.
+   * @param key the Trading API method name followed by its arguments.
+   * @param call makes the call.
+   * @param <T> the result type.
+   * @return a future for the result.
+   * @see #singleFlight(ExchangeOperation, List, TradingApiCall)
+   */
+  <T> CompletableFuture<T> singleFlightAsync(
+      ExchangeOperation operation, List<?> key, Supplier<CompletableFuture<T>> call) {
+    return singleFlight.callAsync(operation, key, call);
+  }
 
-    } finally {
-      if (exchangeConnection != null) {
-        exchangeConnection.disconnect();
+  /**
+   * Returns true if the order book should be parsed straight off the wire using {@link
+   * #sendNetworkRequestStreaming(URL, String, String, Map, ExchangeResponseStreamParser)}. This is
+   * switched on by setting the {@value #STREAMING_ORDER_BOOK_PARSING_PROPERTY_NAME} item in the
+   * adapter's other config to true.
+   *
+   * @return true if streaming order book parsing is enabled.
+   */
+  boolean isStreamingOrderBookParsingEnabled() {
+    return streamingOrderBookParsing;
+  }
+
+  /**
+   * Sets streaming order book parsing from the optional {@value
+   * #STREAMING_ORDER_BOOK_PARSING_PROPERTY_NAME} item in the adapter's other config. It is off if
+   * the item is not set.
+   *
+   * @param otherConfig other config for the adapter. This can be null.
+   */
+  void setStreamingOrderBookParsing(OtherConfig otherConfig) {
+    final String streamingOrderBookParsingConfig =
+        otherConfig == null
+            ? null
+            : otherConfig.getItem(STREAMING_ORDER_BOOK_PARSING_PROPERTY_NAME);
+    streamingOrderBookParsing = Boolean.parseBoolean(streamingOrderBookParsingConfig);
+    LOG.info(() -> STREAMING_ORDER_BOOK_PARSING_PROPERTY_NAME + ": " + streamingOrderBookParsing);
+  }
+
+  /**
+   * Checks the number of order book levels requested is valid.
+   *
+   * @param depth the order book depth.
+   * @throws IllegalArgumentException if the depth is less than 1.
+   */
+  static void assertValidOrderBookDepth(int depth) {
+    if (depth < 1) {
+      final String errorMsg = "Order book depth must be at least 1. Value: " + depth;
+      LOG.error(errorMsg);
+      throw new IllegalArgumentException(errorMsg);
+    }
+  }
+
+  /**
+   * Counts the orders cancelled ok in the result of a bulk cancel.
+   *
+   * @param cancelled true for each order cancelled ok, false otherwise, keyed by order id.
+   * @return the number of orders cancelled.
+   */
+  static int countCancelledOrders(Map<String, Boolean> cancelled) {
+    int cancelledCount = 0;
+    for (final boolean orderCancelled : cancelled.values()) {
+      if (orderCancelled) {
+        cancelledCount++;
       }
     }
+    return cancelledCount;
+  }
+
+  /**
+   * Returns a snapshot of the HTTP transport statistics for this adapter.
+   *
+   * @return the transport statistics.
+   */
+  HttpTransportStatistics getHttpTransportStatistics() {
+    return getHttpTransport().getStatistics();
+  }
+
+  /**
+   * Returns the rate limiter for this adapter.
+   *
+   * @return the rate limiter, or null if requests are not rate limited.
+   */
+  ExchangeRateLimiter getRateLimiter() {
+    return rateLimiter;
+  }
+
+  /**
+   * Returns the retry policy for this adapter.
+   *
+   * @return the retry policy, or null if requests are not retried.
+   */
+  ExchangeRetryPolicy getRetryPolicy() {
+    return retryPolicy;
+  }
+
+  /**
+   * Sets the deadline for the requests the calling thread sends to the exchange, e.g. the end of
+   * the Trading Engine's trade cycle. Each request's read timeout is cut short so it ends by the
+   * deadline, no retry is started after it, and once it has passed requests fail fast with an
+   * {@link ExchangeNetworkException}.
+   *
+   * @param deadlineNanoTime the deadline, as a {@link System#nanoTime()} value.
+   */
+  public void setRequestDeadline(long deadlineNanoTime) {
+    requestDeadline.set(deadlineNanoTime);
+  }
+
+  /** Clears the calling thread's request deadline. */
+  public void clearRequestDeadline() {
+    requestDeadline.remove();
+  }
+
+  /**
+   * Returns the state of the adapter's circuit breakers.
+   *
+   * @return the circuit breaker state - CLOSED, OPEN, or HALF_OPEN - keyed by exchange API
+   *     endpoint; an empty map if the adapter has no circuit breaker.
+   */
+  public Map<String, String> getCircuitBreakerStates() {
+    if (circuitBreaker == null) {
+      return Collections.emptyMap();
+    }
+    final Map<String, String> states = new TreeMap<>();
+    circuitBreaker.getStates().forEach((endpoint, state) -> states.put(endpoint, state.name()));
+    return states;
+  }
+
+  /**
+   * Returns the circuit breaker for this adapter.
+   *
+   * @return the circuit breaker, or null if there is none.
+   */
+  ExchangeCircuitBreaker getCircuitBreaker() {
+    return circuitBreaker;
+  }
+
+  /**
+   * Returns the request hedger for this adapter.
+   *
+   * @return the request hedger, or null if there is none.
+   */
+  ExchangeRequestHedger getRequestHedger() {
+    return requestHedger;
+  }
+
+  /**
+   * Returns the single-flight coalescing of identical Trading API calls for this adapter.
+   *
+   * @return the single flight.
+   */
+  ExchangeSingleFlight getSingleFlight() {
+    return singleFlight;
+  }
+
+  /**
+   * Returns true if the request is to the exchange's private (authenticated) API, so it is charged
+   * to the private API rate limit. By default, anything other than a GET is private; adapters whose
+   * authenticated API also uses GETs should override this.
+   *
+   * @param url the request URL.
+   * @param httpMethod the HTTP method, e.g. GET, POST, DELETE
+   * @param requestHeaders the request headers. This can be null.
+   * @return true if the request is to the private API.
+   */
+  boolean isPrivateApiRequest(URL url, String httpMethod, Map<String, String> requestHeaders) {
+    return !"GET".equals(httpMethod);
+  }
+
+  /**
+   * Returns the kind of operation the request is for, which decides its read timeout. By default,
+   * public API requests are market data and private API requests are orders; adapters should
+   * override this to pick out their balance requests.
+   *
+   * @param url the request URL.
+   * @param httpMethod the HTTP method, e.g. GET, POST, DELETE
+   * @param requestHeaders the request headers. This can be null.
+   * @return the operation.
+   */
+  ExchangeOperation getExchangeOperation(
+      URL url, String httpMethod, Map<String, String> requestHeaders) {
+    return isPrivateApiRequest(url, httpMethod, requestHeaders)
+        ? ExchangeOperation.ORDER
+        : ExchangeOperation.MARKET_DATA;
+  }
+
+  /**
+   * Returns true if the request can be safely sent again after a network error. By default, only
+   * public API GETs are: a retried private request would resend a nonce the exchange may have
+   * already seen, and a retried POST could, e.g., place the same order twice. Adapters whose
+   * private GETs can be resent should override this.
+   *
+   * @param url the request URL.
+   * @param httpMethod the HTTP method, e.g. GET, POST, DELETE
+   * @param requestHeaders the request headers. This can be null.
+   * @return true if the request can be retried.
+   */
+  boolean isIdempotentRequest(URL url, String httpMethod, Map<String, String> requestHeaders) {
+    return "GET".equals(httpMethod) && !isPrivateApiRequest(url, httpMethod, requestHeaders);
+  }
+
+  /**
+   * Sets the transport used to send requests to the exchange. By default, adapters share a pooled
+   * {@link HttpClientExchangeTransport}.
+   *
+   * @param httpTransport the transport to use.
+   */
+  void setHttpTransport(ExchangeHttpTransport httpTransport) {
+    this.httpTransport = httpTransport;
   }
 
   /**
@@ -242,6 +650,34 @@ abstract class AbstractExchangeAdapter {
     }
     LOG.info(() -> CONNECTION_TIMEOUT_PROPERTY_NAME + ": " + connectionTimeout);
 
+    connectTimeout = Duration.ofSeconds(connectionTimeout);
+    readTimeout = connectTimeout;
+    final TimeoutConfig timeoutConfig = networkConfig.getTimeoutConfig();
+    if (timeoutConfig != null) {
+      connectTimeout = getTimeout(timeoutConfig.getConnectTimeoutMillis(), connectTimeout);
+      readTimeout = getTimeout(timeoutConfig.getReadTimeoutMillis(), readTimeout);
+      operationReadTimeouts.put(
+          ExchangeOperation.MARKET_DATA,
+          getTimeout(timeoutConfig.getMarketDataReadTimeoutMillis(), readTimeout));
+      operationReadTimeouts.put(
+          ExchangeOperation.ORDER,
+          getTimeout(timeoutConfig.getOrderReadTimeoutMillis(), readTimeout));
+      operationReadTimeouts.put(
+          ExchangeOperation.BALANCE,
+          getTimeout(timeoutConfig.getBalanceReadTimeoutMillis(), readTimeout));
+    }
+    LOG.info(() -> CONNECT_TIMEOUT_PROPERTY_NAME + ": " + connectTimeout);
+    LOG.info(
+        () ->
+            READ_TIMEOUT_PROPERTY_NAME
+                + ": "
+                + readTimeout
+                + " per operation: "
+                + operationReadTimeouts);
+    if (httpTransport == null) {
+      httpTransport = HttpClientExchangeTransport.getSharedInstance(connectTimeout);
+    }
+
     final List<Integer> nonFatalErrorCodesFromConfig = networkConfig.getNonFatalErrorCodes();
     if (nonFatalErrorCodesFromConfig != null) {
       nonFatalNetworkErrorCodes.addAll(nonFatalErrorCodesFromConfig);
@@ -253,6 +689,30 @@ abstract class AbstractExchangeAdapter {
       nonFatalNetworkErrorMessages.addAll(nonFatalErrorMessagesFromConfig);
     }
     LOG.info(() -> NON_FATAL_ERROR_MESSAGES_PROPERTY_NAME + ": " + nonFatalNetworkErrorMessages);
+
+    final RateLimitConfig rateLimitConfig = networkConfig.getRateLimitConfig();
+    if (rateLimitConfig != null) {
+      rateLimiter = ExchangeRateLimiter.create(rateLimitConfig);
+    }
+    LOG.info(() -> RATE_LIMIT_PROPERTY_NAME + ": " + rateLimiter);
+
+    final RetryConfig retryConfig = networkConfig.getRetryConfig();
+    if (retryConfig != null) {
+      retryPolicy = ExchangeRetryPolicy.create(retryConfig);
+    }
+    LOG.info(() -> RETRY_PROPERTY_NAME + ": " + retryPolicy);
+
+    final CircuitBreakerConfig circuitBreakerConfig = networkConfig.getCircuitBreakerConfig();
+    if (circuitBreakerConfig != null) {
+      circuitBreaker = ExchangeCircuitBreaker.create(circuitBreakerConfig);
+    }
+    LOG.info(() -> CIRCUIT_BREAKER_PROPERTY_NAME + ": " + circuitBreaker);
+
+    final HedgingConfig hedgingConfig = networkConfig.getHedgingConfig();
+    if (hedgingConfig != null) {
+      requestHedger = ExchangeRequestHedger.create(hedgingConfig);
+    }
+    LOG.info(() -> HEDGING_PROPERTY_NAME + ": " + requestHedger);
   }
 
   /**
@@ -273,6 +733,32 @@ abstract class AbstractExchangeAdapter {
     return authenticationConfig;
   }
 
+  /**
+   * Creates the nonce provider for signing authenticated requests. The nonces are persisted to the
+   * file named by the optional {@value #NONCE_FILE_PROPERTY_NAME} item in the adapter's other
+   * config, if it is set, so they keep increasing across a restart of the bot.
+   *
+   * @param unit the unit of the clock time used for the nonces.
+   * @param otherConfig other config for the adapter. This can be null.
+   * @return the nonce provider.
+   * @throws IllegalStateException if the nonce file cannot be opened.
+   */
+  NonceProvider createNonceProvider(TimeUnit unit, OtherConfig otherConfig) {
+    final String nonceFile =
+        otherConfig == null ? null : otherConfig.getItem(NONCE_FILE_PROPERTY_NAME);
+    if (nonceFile == null) {
+      return NonceProvider.create(unit);
+    }
+    try {
+      LOG.info(() -> "Nonces will be persisted to: " + nonceFile);
+      return NonceProvider.create(unit, Paths.get(nonceFile));
+    } catch (IOException e) {
+      final String errorMsg = "Failed to open nonce file: " + nonceFile;
+      LOG.error(errorMsg, e);
+      throw new IllegalStateException(errorMsg, e);
+    }
+  }
+
   /**
    * Fetches other config for the exchange adapter.
    *
@@ -350,6 +836,64 @@ abstract class AbstractExchangeAdapter {
     return decimalFormatSymbols;
   }
 
+  /**
+   * Adapts an Exchange HTTP response into a Trading API result.
+   *
+   * @param <T> the result type.
+   */
+  @FunctionalInterface
+  interface ExchangeResponseAdapter<T> {
+
+    /**
+     * Adapts the response.
+     *
+     * @param response the response from the Exchange.
+     * @return the Trading API result.
+     * @throws Exception if the response cannot be adapted.
+     */
+    T adapt(ExchangeHttpResponse response) throws Exception;
+  }
+
+  /**
+   * Parses an Exchange HTTP response body as it is streamed from the connection.
+   *
+   * @param <T> the result type.
+   */
+  @FunctionalInterface
+  interface ExchangeResponseStreamParser<T> {
+
+    /**
+     * Parses the response body.
+     *
+     * @param reader reads the JSON response body.
+     * @return the Trading API result.
+     * @throws IOException if the response body cannot be read or is not valid JSON.
+     * @throws TradingApiException if the response is an error from the Exchange.
+     * @throws ExchangeNetworkException if the response is a recoverable error from the Exchange.
+     */
+    T parse(JsonReader reader)
+        throws IOException, TradingApiException, ExchangeNetworkException;
+  }
+
+  /**
+   * A blocking Trading API call.
+   *
+   * @param <T> the result type.
+   */
+  @FunctionalInterface
+  interface TradingApiCall<T> {
+
+    /**
+     * Makes the call.
+     *
+     * @return the Trading API result.
+     * @throws ExchangeNetworkException if a network error occurred trying to connect to the
+     *     exchange.
+     * @throws TradingApiException if the call failed for any reason other than a network error.
+     */
+    T call() throws ExchangeNetworkException, TradingApiException;
+  }
+
   /** Wrapper for holding Exchange HTTP response. */
   static class ExchangeHttpResponse {
 
@@ -385,56 +929,720 @@ abstract class AbstractExchangeAdapter {
     }
   }
 
+  /** Wrapper for holding Exchange HTTP response whose body has not been read yet. */
+  static class ExchangeHttpStreamResponse implements Closeable {
+
+    private final int statusCode;
+    private final String reasonPhrase;
+    private final InputStream body;
+
+    ExchangeHttpStreamResponse(int statusCode, String reasonPhrase, InputStream body) {
+      this.statusCode = statusCode;
+      this.reasonPhrase = reasonPhrase;
+      this.body = body;
+    }
+
+    String getReasonPhrase() {
+      return reasonPhrase;
+    }
+
+    int getStatusCode() {
+      return statusCode;
+    }
+
+    InputStream getBody() {
+      return body;
+    }
+
+    /**
+     * Reads the rest of the body into a regular response.
+     *
+     * @return the buffered response.
+     * @throws IOException if the body cannot be read.
+     */
+    ExchangeHttpResponse readFully() throws IOException {
+      return new ExchangeHttpResponse(
+          statusCode, reasonPhrase, new String(body.readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads and discards whatever is left of the body, e.g. trailing whitespace after the JSON.
+     *
+     * @throws IOException if the body cannot be read.
+     */
+    void discardRemainingBody() throws IOException {
+      body.transferTo(OutputStream.nullOutputStream());
+    }
+
+    @Override
+    public void close() throws IOException {
+      body.close();
+    }
+
+    @Override
+    public String toString() {
+      return MoreObjects.toStringHelper(this)
+          .add("statusCode", statusCode)
+          .add("reasonPhrase", reasonPhrase)
+          .toString();
+    }
+  }
+
   // --------------------------------------------------------------------------
   //  Util methods
   // --------------------------------------------------------------------------
 
-  private void setRequestHeaders(
-      HttpURLConnection exchangeConnection, Map<String, String> requestHeaders) {
-    // Er, perhaps, we need to be a bit more stealth here...
-    // This was needed for some exchanges back in the day!
-    exchangeConnection.setRequestProperty(
-        "User-Agent",
-        "Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 (KHTML, like Gecko) "
-            + "Chrome/74.0.3729.169 Safari/537.36");
-
-    if (requestHeaders != null) {
-      for (final Map.Entry<String, String> requestHeader : requestHeaders.entrySet()) {
-        exchangeConnection.setRequestProperty(requestHeader.getKey(), requestHeader.getValue());
-        LOG.debug(() -> "Setting following request header: " + requestHeader);
+  private ExchangeHttpTransport getHttpTransport() {
+    if (httpTransport == null) {
+      httpTransport = HttpClientExchangeTransport.getSharedInstance(connectTimeout);
+    }
+    return httpTransport;
+  }
+
+  /*
+   * Sends a request, retrying it if it is idempotent and the retry policy allows.
+   */
+  private ExchangeHttpResponse sendNetworkRequestWithRetry(
+      URL url, String httpMethod, String postData, Map<String, String> requestHeaders)
+      throws TradingApiException, ExchangeNetworkException {
+
+    final long startNanos = System.nanoTime();
+    int attempts = 0;
+    while (true) {
+      try {
+        final ExchangeHttpResponse exchangeResponse =
+            sendNetworkRequestOnce(url, httpMethod, postData, requestHeaders);
+        recordRecovery(attempts);
+        return exchangeResponse;
+      } catch (ExchangeNetworkException e) {
+        awaitRetry(e, ++attempts, startNanos, url, httpMethod, requestHeaders);
       }
     }
   }
 
-  private boolean errorMessageIsRecoverableNetworkError(Exception e) {
-    return e.getMessage() != null && nonFatalNetworkErrorMessages.contains(e.getMessage());
+  /*
+   * Sends a streaming request, retrying it if it is idempotent and the retry policy allows.
+   */
+  private <T> T sendNetworkRequestStreamingWithRetry(
+      URL url,
+      String httpMethod,
+      String postData,
+      Map<String, String> requestHeaders,
+      ExchangeResponseStreamParser<T> responseParser)
+      throws TradingApiException, ExchangeNetworkException {
+
+    final long startNanos = System.nanoTime();
+    int attempts = 0;
+    while (true) {
+      try {
+        final T result =
+            sendNetworkRequestStreamingOnce(
+                url, httpMethod, postData, requestHeaders, responseParser);
+        recordRecovery(attempts);
+        return result;
+      } catch (ExchangeNetworkException e) {
+        awaitRetry(e, ++attempts, startNanos, url, httpMethod, requestHeaders);
+      }
+    }
+  }
+
+  /*
+   * Sends an attempt of an async request and, if it fails and can be retried, schedules the next
+   * attempt on a timer once the backoff is over.
+   */
+  private void sendNetworkRequestAsyncWithRetry(
+      URL url,
+      String httpMethod,
+      String postData,
+      Map<String, String> requestHeaders,
+      int attempts,
+      long startNanos,
+      Long deadline,
+      CompletableFuture<ExchangeHttpResponse> result) {
+    sendNetworkRequestAsyncOnce(url, httpMethod, postData, requestHeaders, deadline)
+        .whenComplete(
+            (exchangeResponse, error) -> {
+              if (error == null) {
+                recordRecovery(attempts);
+                result.complete(exchangeResponse);
+                return;
+              }
+              final long backoffNanos =
+                  error instanceof ExchangeNetworkException
+                      ? getRetryBackoffNanos(
+                          attempts + 1, startNanos, deadline, url, httpMethod, requestHeaders)
+                      : ExchangeRetryPolicy.NO_RETRY;
+              if (backoffNanos == ExchangeRetryPolicy.NO_RETRY) {
+                result.completeExceptionally(error);
+                return;
+              }
+              final Runnable retry =
+                  () ->
+                      sendNetworkRequestAsyncWithRetry(
+                          url,
+                          httpMethod,
+                          postData,
+                          requestHeaders,
+                          attempts + 1,
+                          startNanos,
+                          deadline,
+                          result);
+              CompletableFuture.delayedExecutor(backoffNanos, TimeUnit.NANOSECONDS).execute(retry);
+            });
+  }
+
+  /*
+   * Sends a single attempt of a request.
+   */
+  private ExchangeHttpResponse sendNetworkRequestOnce(
+      URL url, String httpMethod, String postData, Map<String, String> requestHeaders)
+      throws TradingApiException, ExchangeNetworkException {
+
+    try {
+      LOG.debug(() -> "Using following URL for API call: " + url);
+      awaitRateLimit(url, httpMethod, requestHeaders);
+
+      // Add a timeout so we don't get blocked indefinitely.
+      final Duration timeout =
+          getReadTimeout(url, httpMethod, requestHeaders, requestDeadline.get());
+      final ExchangeHttpResponse exchangeResponse =
+          sendOnTransport(url, httpMethod, postData, requestHeaders, timeout);
+
+      if (exchangeResponse.getStatusCode() < HttpURLConnection.HTTP_BAD_REQUEST) {
+        return exchangeResponse;
+      }
+      return handleErrorResponse(exchangeResponse);
+
+    } catch (IOException e) {
+      final Exception exchangeError = adaptIoError(e);
+      if (exchangeError instanceof ExchangeNetworkException) {
+        throw (ExchangeNetworkException) exchangeError;
+      } else if (exchangeError instanceof TradingApiException) {
+        throw (TradingApiException) exchangeError;
+      }
+      throw new IllegalStateException(exchangeError);
+
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      final String errorMsg = "Interrupted waiting for response from Exchange.";
+      LOG.error(errorMsg, e);
+      throw new ExchangeNetworkException(errorMsg, e);
+    }
+  }
+
+  /*
+   * Sends a single attempt of a streaming request.
+   */
+  private <T> T sendNetworkRequestStreamingOnce(
+      URL url,
+      String httpMethod,
+      String postData,
+      Map<String, String> requestHeaders,
+      ExchangeResponseStreamParser<T> responseParser)
+      throws TradingApiException, ExchangeNetworkException {
+
+    LOG.debug(() -> "Using following URL for streaming API call: " + url);
+    try {
+      awaitRateLimit(url, httpMethod, requestHeaders);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      final String errorMsg = "Interrupted waiting for Exchange rate limit.";
+      LOG.error(errorMsg, e);
+      throw new ExchangeNetworkException(errorMsg, e);
+    }
+
+    final Duration timeout =
+        getReadTimeout(url, httpMethod, requestHeaders, requestDeadline.get());
+    try (ExchangeHttpStreamResponse exchangeResponse =
+        sendStreamingOnTransport(url, httpMethod, postData, requestHeaders, timeout)) {
+
+      if (exchangeResponse.getStatusCode() >= HttpURLConnection.HTTP_BAD_REQUEST) {
+        handleErrorResponse(exchangeResponse.readFully());
+      }
+
+      final JsonReader reader =
+          new JsonReader(
+              new InputStreamReader(exchangeResponse.getBody(), StandardCharsets.UTF_8));
+      final T result = responseParser.parse(reader);
+
+      // Read to EOF so the connection goes back to the pool instead of being closed.
+      exchangeResponse.discardRemainingBody();
+      return result;
+
+    } catch (IOException e) {
+      final Exception exchangeError = adaptIoError(e);
+      if (exchangeError instanceof ExchangeNetworkException) {
+        throw (ExchangeNetworkException) exchangeError;
+      } else if (exchangeError instanceof TradingApiException) {
+        throw (TradingApiException) exchangeError;
+      }
+      throw new IllegalStateException(exchangeError);
+
+    } catch (IllegalStateException | NumberFormatException e) {
+      // The JSON is well formed, but not the shape the parser expected.
+      final String errorMsg = UNEXPECTED_RESPONSE_ERROR_MSG + url;
+      LOG.error(errorMsg, e);
+      throw new TradingApiException(errorMsg, e);
+
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      final String errorMsg = "Interrupted waiting for response from Exchange.";
+      LOG.error(errorMsg, e);
+      throw new ExchangeNetworkException(errorMsg, e);
+    }
+  }
+
+  /*
+   * Sends a single attempt of an async request.
+   */
+  private CompletableFuture<ExchangeHttpResponse> sendNetworkRequestAsyncOnce(
+      URL url,
+      String httpMethod,
+      String postData,
+      Map<String, String> requestHeaders,
+      Long deadline) {
+
+    LOG.debug(() -> "Using following URL for async API call: " + url);
+    final CompletableFuture<ExchangeHttpResponse> result = new CompletableFuture<>();
+    sendAsyncWithinRateLimit(url, httpMethod, postData, requestHeaders, deadline)
+        .whenComplete(
+            (exchangeResponse, error) -> {
+              if (error == null) {
+                try {
+                  result.complete(
+                      exchangeResponse.getStatusCode() < HttpURLConnection.HTTP_BAD_REQUEST
+                          ? exchangeResponse
+                          : handleErrorResponse(exchangeResponse));
+                } catch (TradingApiException | ExchangeNetworkException e) {
+                  result.completeExceptionally(e);
+                }
+                return;
+              }
+              final Throwable cause =
+                  error instanceof CompletionException && error.getCause() != null
+                      ? error.getCause()
+                      : error;
+              if (cause instanceof IOException) {
+                result.completeExceptionally(adaptIoError((IOException) cause));
+              } else if (cause instanceof ExchangeNetworkException) {
+                result.completeExceptionally(cause);
+              } else {
+                LOG.error(UNEXPECTED_IO_ERROR_MSG, cause);
+                result.completeExceptionally(
+                    new TradingApiException(UNEXPECTED_IO_ERROR_MSG, cause));
+              }
+            });
+    return result;
+  }
+
+  /*
+   * Backs off before the next attempt of a request, or rethrows the error if it must not be
+   * retried.
+   */
+  private void awaitRetry(
+      ExchangeNetworkException error,
+      int attempts,
+      long startNanos,
+      URL url,
+      String httpMethod,
+      Map<String, String> requestHeaders)
+      throws ExchangeNetworkException {
+    final long backoffNanos =
+        getRetryBackoffNanos(
+            attempts, startNanos, requestDeadline.get(), url, httpMethod, requestHeaders);
+    if (backoffNanos == ExchangeRetryPolicy.NO_RETRY || Thread.currentThread().isInterrupted()) {
+      throw error;
+    }
+    try {
+      TimeUnit.NANOSECONDS.sleep(backoffNanos);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw error;
+    }
+  }
+
+  /*
+   * Returns the backoff before retrying a failed request, or NO_RETRY if there is no retry policy,
+   * the request is not idempotent, the policy's attempts or deadline are used up, or the retry
+   * would not start before the request deadline.
+   */
+  private long getRetryBackoffNanos(
+      int attempts,
+      long startNanos,
+      Long deadline,
+      URL url,
+      String httpMethod,
+      Map<String, String> requestHeaders) {
+    if (retryPolicy == null || !isIdempotentRequest(url, httpMethod, requestHeaders)) {
+      return ExchangeRetryPolicy.NO_RETRY;
+    }
+    final long now = System.nanoTime();
+    final long backoffNanos = retryPolicy.nextBackoffNanos(attempts, now - startNanos);
+    if (backoffNanos == ExchangeRetryPolicy.NO_RETRY
+        || deadline != null && now + backoffNanos - deadline >= 0) {
+      return ExchangeRetryPolicy.NO_RETRY;
+    }
+    LOG.warn(
+        () ->
+            "Retrying API call in "
+                + TimeUnit.NANOSECONDS.toMillis(backoffNanos)
+                + "ms after attempt "
+                + attempts
+                + " failed: "
+                + url);
+    return backoffNanos;
+  }
+
+  /*
+   * Fails fast if the circuit for the request's endpoint is open. Returns the endpoint, or null if
+   * there is no circuit breaker.
+   */
+  private String enterCircuit(URL url) throws ExchangeNetworkException {
+    if (circuitBreaker == null) {
+      return null;
+    }
+    final String endpoint = url.getPath();
+    if (!circuitBreaker.tryAcquire(endpoint)) {
+      final String errorMsg = CIRCUIT_OPEN_ERROR_MSG + endpoint;
+      LOG.warn(errorMsg);
+      throw new ExchangeNetworkException(errorMsg);
+    }
+    return endpoint;
+  }
+
+  private void exitCircuit(String endpoint, boolean networkError) {
+    if (endpoint == null) {
+      return;
+    }
+    if (networkError) {
+      circuitBreaker.onFailure(endpoint);
+    } else {
+      circuitBreaker.onSuccess(endpoint);
+    }
   }
 
-  private boolean errorCodeIsRecoverableNetworkError(HttpURLConnection exchangeConnection)
-      throws IOException {
-    return (exchangeConnection != null
-        && nonFatalNetworkErrorCodes.contains(exchangeConnection.getResponseCode()));
+  /*
+   * Once an order request has completed, account data calls already in flight may predate it.
+   */
+  private void exitOrderRequest(URL url, String httpMethod, Map<String, String> requestHeaders) {
+    if (getExchangeOperation(url, httpMethod, requestHeaders) == ExchangeOperation.ORDER) {
+      singleFlight.recordOrderRequest();
+    }
   }
 
-  private String extractIoErrorMessage(HttpURLConnection exchangeConnection) throws IOException {
-    String errorMsg = UNEXPECTED_IO_ERROR_MSG;
-    // Check for any clue in the response...
-    if (exchangeConnection != null) {
-      final InputStream rawErrorStream = exchangeConnection.getErrorStream();
-      if (rawErrorStream != null) {
-        try (final BufferedReader errorInputStream =
-            new BufferedReader(new InputStreamReader(rawErrorStream, StandardCharsets.UTF_8))) {
+  private void recordRecovery(int retries) {
+    if (retries > 0) {
+      retryPolicy.recordRecovery();
+      LOG.info(() -> "API call succeeded after " + retries + " retries.");
+    }
+  }
 
-          final StringBuilder errorResponse = new StringBuilder();
-          String errorLine;
-          while ((errorLine = errorInputStream.readLine()) != null) {
-            errorResponse.append(errorLine);
+  /*
+   * Reserves the rate limit tokens for the request and returns how long to wait before sending it.
+   */
+  private long reserveRateLimit(URL url, String httpMethod, Map<String, String> requestHeaders) {
+    if (rateLimiter == null) {
+      return 0;
+    }
+    final long waitNanos =
+        rateLimiter.reserve(url, isPrivateApiRequest(url, httpMethod, requestHeaders));
+    if (waitNanos > 0) {
+      LOG.debug(
+          () ->
+              "Waiting "
+                  + TimeUnit.NANOSECONDS.toMillis(waitNanos)
+                  + "ms for Exchange rate limit before calling: "
+                  + url);
+    }
+    return waitNanos;
+  }
+
+  /*
+   * Sends the request now, or from a timer once the rate limit allows it.
+   */
+  private CompletableFuture<ExchangeHttpResponse> sendAsyncWithinRateLimit(
+      URL url,
+      String httpMethod,
+      String postData,
+      Map<String, String> requestHeaders,
+      Long deadline) {
+    final long waitNanos = reserveRateLimit(url, httpMethod, requestHeaders);
+    final Supplier<CompletableFuture<ExchangeHttpResponse>> send =
+        () -> {
+          try {
+            final Duration timeout = getReadTimeout(url, httpMethod, requestHeaders, deadline);
+            if (isHedgeableRequest(url, httpMethod, requestHeaders)) {
+              return sendHedged(
+                  url,
+                  () ->
+                      getHttpTransport()
+                          .sendAsync(url, httpMethod, postData, requestHeaders, timeout),
+                  exchangeResponse -> {});
+            }
+            return getHttpTransport().sendAsync(url, httpMethod, postData, requestHeaders, timeout);
+          } catch (ExchangeNetworkException e) {
+            return CompletableFuture.failedFuture(e);
           }
-          errorMsg += " ErrorStream Response: " + errorResponse;
-        }
+        };
+    if (waitNanos == 0) {
+      return send.get();
+    }
+    final Executor afterWait = CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS);
+    return CompletableFuture.supplyAsync(send, afterWait).thenCompose(Function.identity());
+  }
+
+  /*
+   * Sends the request on the transport, hedging it if it is eligible.
+   */
+  private ExchangeHttpResponse sendOnTransport(
+      URL url,
+      String httpMethod,
+      String postData,
+      Map<String, String> requestHeaders,
+      Duration timeout)
+      throws IOException, InterruptedException {
+    if (!isHedgeableRequest(url, httpMethod, requestHeaders)) {
+      return getHttpTransport().send(url, httpMethod, postData, requestHeaders, timeout);
+    }
+    return awaitHedgedResponse(
+        sendHedged(
+            url,
+            () -> getHttpTransport().sendAsync(url, httpMethod, postData, requestHeaders, timeout),
+            exchangeResponse -> {}));
+  }
+
+  /*
+   * Sends the streaming request on the transport, hedging it if it is eligible. The losing
+   * response of a hedged request is closed unread.
+   */
+  private ExchangeHttpStreamResponse sendStreamingOnTransport(
+      URL url,
+      String httpMethod,
+      String postData,
+      Map<String, String> requestHeaders,
+      Duration timeout)
+      throws IOException, InterruptedException {
+    if (!isHedgeableRequest(url, httpMethod, requestHeaders)) {
+      return getHttpTransport().sendStreaming(url, httpMethod, postData, requestHeaders, timeout);
+    }
+    return awaitHedgedResponse(
+        sendHedged(
+            url,
+            () ->
+                getHttpTransport()
+                    .sendStreamingAsync(url, httpMethod, postData, requestHeaders, timeout),
+            AbstractExchangeAdapter::closeQuietly));
+  }
+
+  /*
+   * Only idempotent public API requests are hedged: sending them twice has no side effects, and
+   * they are not signed with a nonce the exchange would reject the second time.
+   */
+  private boolean isHedgeableRequest(
+      URL url, String httpMethod, Map<String, String> requestHeaders) {
+    return requestHedger != null
+        && !isPrivateApiRequest(url, httpMethod, requestHeaders)
+        && isIdempotentRequest(url, httpMethod, requestHeaders);
+  }
+
+  /*
+   * A hedge is only sent if the public API rate limit has room for it now, so hedging never makes
+   * other requests wait.
+   */
+  private <T> CompletableFuture<T> sendHedged(
+      URL url, Supplier<CompletableFuture<T>> request, Consumer<T> discard) {
+    return requestHedger.send(
+        url.getPath(),
+        request,
+        () -> rateLimiter == null || rateLimiter.tryReserve(url, false),
+        discard);
+  }
+
+  private static <T> T awaitHedgedResponse(CompletableFuture<T> response)
+      throws IOException, InterruptedException {
+    try {
+      return response.get();
+    } catch (InterruptedException e) {
+      response.cancel(false); // any response that arrives now is discarded
+      throw e;
+    } catch (ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new IOException(cause);
+    }
+  }
+
+  private static void closeQuietly(ExchangeHttpStreamResponse exchangeResponse) {
+    try {
+      exchangeResponse.close();
+    } catch (IOException e) {
+      LOG.debug(() -> "Failed to close discarded Exchange response", e);
+    }
+  }
+
+  /*
+   * Returns the read timeout for the request's operation, cut short so it ends by the request
+   * deadline if there is one.
+   */
+  private Duration getReadTimeout(
+      URL url, String httpMethod, Map<String, String> requestHeaders, Long deadline)
+      throws ExchangeNetworkException {
+    final Duration timeout =
+        operationReadTimeouts.getOrDefault(
+            getExchangeOperation(url, httpMethod, requestHeaders), readTimeout);
+    if (deadline == null) {
+      return timeout;
+    }
+    throwIfDeadlinePassed(url, deadline);
+    final long remainingNanos = deadline - System.nanoTime();
+    return remainingNanos < timeout.toNanos() ? Duration.ofNanos(remainingNanos) : timeout;
+  }
+
+  private static void throwIfDeadlinePassed(URL url, Long deadline)
+      throws ExchangeNetworkException {
+    if (deadline != null && deadline - System.nanoTime() <= 0) {
+      final String errorMsg = DEADLINE_PASSED_ERROR_MSG + url;
+      LOG.warn(errorMsg);
+      throw new ExchangeNetworkException(errorMsg);
+    }
+  }
+
+  private static Duration getTimeout(Integer timeoutMillis, Duration defaultTimeout) {
+    if (timeoutMillis == null) {
+      return defaultTimeout;
+    }
+    if (timeoutMillis < 1) {
+      final String errorMsg = "Timeouts must be 1 millisecond or more. Timeout: " + timeoutMillis;
+      LOG.error(errorMsg);
+      throw new IllegalArgumentException(errorMsg);
+    }
+    return Duration.ofMillis(timeoutMillis);
+  }
+
+  private void awaitRateLimit(URL url, String httpMethod, Map<String, String> requestHeaders)
+      throws InterruptedException {
+    final long waitNanos = reserveRateLimit(url, httpMethod, requestHeaders);
+    if (waitNanos > 0) {
+      TimeUnit.NANOSECONDS.sleep(waitNanos);
+    }
+  }
+
+  /*
+   * Maps a 4xx/5xx response onto the exception the engine expects - this is the same policy we
+   * had when HttpURLConnection threw an IOException for these responses.
+   */
+  private ExchangeHttpResponse handleErrorResponse(ExchangeHttpResponse exchangeResponse)
+      throws TradingApiException, ExchangeNetworkException {
+    final int statusCode = exchangeResponse.getStatusCode();
+    if (statusCode == HttpURLConnection.HTTP_NOT_FOUND
+        || statusCode == HttpURLConnection.HTTP_GONE) {
+      // Huobi started returning 404s as of 8 Nov 2015.
+      final String errorMsg = DEAD_EXCHANGE_ERROR_MSG + " Response: " + exchangeResponse;
+      LOG.error(errorMsg);
+      throw new ExchangeNetworkException(errorMsg);
+
+    } else if (nonFatalNetworkErrorCodes.contains(statusCode)) {
+      final String errorMsg = IO_5XX_TIMEOUT_ERROR_MSG + " Response: " + exchangeResponse;
+      LOG.error(errorMsg);
+      throw new ExchangeNetworkException(errorMsg);
+
+    } else {
+      // Game over!
+      final String errorMsg =
+          UNEXPECTED_IO_ERROR_MSG + " ErrorStream Response: " + exchangeResponse.getPayload();
+      LOG.error(errorMsg);
+      throw new TradingApiException(errorMsg);
+    }
+  }
+
+  /*
+   * Maps an IO error onto an ExchangeNetworkException if we can recover from it at the next trade
+   * cycle, or a TradingApiException if we can't.
+   */
+  private Exception adaptIoError(IOException e) {
+    if (e instanceof MalformedURLException) {
+      final String errorMsg = UNEXPECTED_IO_ERROR_MSG;
+      LOG.error(errorMsg, e);
+      return new TradingApiException(errorMsg, e);
+
+    } else if (isTimeout(e)) {
+      final String errorMsg = IO_SOCKET_TIMEOUT_ERROR_MSG;
+      LOG.error(errorMsg, e);
+      return new ExchangeNetworkException(errorMsg, e);
+
+    } else if (isUnknownHost(e)) {
+      // EC2 started throwing UnknownHostException for BTC-e, GDAX, as of 14 July 2016 :-/
+      final String errorMsg = DEAD_EXCHANGE_ERROR_MSG;
+      LOG.error(errorMsg, e);
+      return new ExchangeNetworkException(errorMsg, e);
+
+    } else if (isDroppedConnection(e)) {
+      // The exchange closed a pooled keep-alive connection, or refused a new one - try again
+      // next trade cycle.
+      final String errorMsg = DROPPED_CONNECTION_ERROR_MSG;
+      LOG.error(errorMsg, e);
+      return new ExchangeNetworkException(errorMsg, e);
+
+    } else if (errorMessageIsRecoverableNetworkError(e)) {
+      final String errorMsg =
+          "Failed to connect to Exchange. SSL Connection was refused or reset by the server.";
+      LOG.error(errorMsg, e);
+      return new ExchangeNetworkException(errorMsg, e);
+
+    } else {
+      // Game over!
+      final String errorMsg = UNEXPECTED_IO_ERROR_MSG;
+      LOG.error(errorMsg, e);
+      return new TradingApiException(errorMsg, e);
+    }
+  }
+
+  private static boolean isUnknownHost(IOException e) {
+    // The JDK HttpClient wraps socket errors, so check the whole cause chain.
+    for (Throwable t = e; t != null; t = t.getCause()) {
+      if (t instanceof UnknownHostException || t instanceof UnresolvedAddressException) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isTimeout(IOException e) {
+    // Includes HttpConnectTimeoutException, which the HttpClient can wrap in a ConnectException.
+    for (Throwable t = e; t != null; t = t.getCause()) {
+      if (t instanceof HttpTimeoutException) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isDroppedConnection(IOException e) {
+    // The HttpClient often gives these no message, so match on type as well.
+    for (Throwable t = e; t != null; t = t.getCause()) {
+      if (t instanceof ConnectException
+          || t instanceof EOFException
+          || t instanceof ClosedChannelException
+          || (t.getMessage() != null && DROPPED_CONNECTION_MESSAGES.contains(t.getMessage()))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean errorMessageIsRecoverableNetworkError(Exception e) {
+    for (Throwable t = e; t != null; t = t.getCause()) {
+      if (t.getMessage() != null && nonFatalNetworkErrorMessages.contains(t.getMessage())) {
+        return true;
       }
     }
-    return errorMsg;
+    return false;
   }
 
   private static String assertItemExists(String itemName, String itemValue) {
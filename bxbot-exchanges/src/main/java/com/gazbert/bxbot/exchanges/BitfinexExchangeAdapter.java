@@ -26,6 +26,7 @@ package com.gazbert.bxbot.exchanges;
 import com.gazbert.bxbot.exchange.api.AuthenticationConfig;
 import com.gazbert.bxbot.exchange.api.ExchangeAdapter;
 import com.gazbert.bxbot.exchange.api.ExchangeConfig;
+import com.gazbert.bxbot.exchange.api.OtherConfig;
 import com.gazbert.bxbot.exchanges.trading.api.impl.BalanceInfoImpl;
 import com.gazbert.bxbot.exchanges.trading.api.impl.MarketOrderBookImpl;
 import com.gazbert.bxbot.exchanges.trading.api.impl.MarketOrderImpl;
@@ -55,12 +56,13 @@ import java.security.NoSuchAlgorithmException;
 import java.text.DecimalFormat;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import javax.xml.bind.DatatypeConverter;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -130,19 +132,23 @@ public final class BitfinexExchangeAdapter extends AbstractExchangeAdapter
   private String key = "";
   private String secret = "";
 
-  private Mac mac;
+  private RequestSigner requestSigner;
   private boolean initializedMacAuthentication = false;
-  private long nonce = 0;
+  private NonceProvider nonceProvider;
 
   private Gson gson;
 
+  /*
+   * Synchronized so the authenticated requests, which are sent under the same lock, see the
+   * config and request signer it sets up.
+   */
   @Override
-  public void init(ExchangeConfig config) {
+  public synchronized void init(ExchangeConfig config) {
     LOG.info(() -> "About to initialise Bitfinex ExchangeConfig: " + config);
     setAuthenticationConfig(config);
     setNetworkConfig(config);
+    setOtherConfig(config);
 
-    nonce = System.currentTimeMillis() / 1000;
     initSecureMessageLayer();
     initGson();
   }
@@ -155,36 +161,42 @@ public final class BitfinexExchangeAdapter extends AbstractExchangeAdapter
   @Override
   public MarketOrderBook getMarketOrders(String marketId)
       throws TradingApiException, ExchangeNetworkException {
-    try {
-      final ExchangeHttpResponse response = sendPublicRequestToExchange("book/" + marketId);
-      LOG.debug(() -> "Market Orders response: " + response);
+    return singleFlight(
+        ExchangeOperation.MARKET_DATA,
+        Arrays.asList("getMarketOrders", marketId),
+        () -> getMarketOrders(marketId, "book/" + marketId));
+  }
 
-      final BitfinexOrderBook orderBook =
-          gson.fromJson(response.getPayload(), BitfinexOrderBook.class);
-
-      final List<MarketOrder> buyOrders = new ArrayList<>();
-      for (BitfinexMarketOrder bitfinexBuyOrder : orderBook.bids) {
-        final MarketOrder buyOrder =
-            new MarketOrderImpl(
-                OrderType.BUY,
-                bitfinexBuyOrder.price,
-                bitfinexBuyOrder.amount,
-                bitfinexBuyOrder.price.multiply(bitfinexBuyOrder.amount));
-        buyOrders.add(buyOrder);
-      }
+  /**
+   * Fetches the top {@code depth} levels of the order book. The depth is passed to Bitfinex as the
+   * limit_bids and limit_asks params, so only the levels asked for are sent back.
+   */
+  @Override
+  public MarketOrderBook getMarketOrders(String marketId, int depth)
+      throws TradingApiException, ExchangeNetworkException {
+    assertValidOrderBookDepth(depth);
+    final String apiMethod =
+        "book/" + marketId + "?limit_bids=" + depth + "&limit_asks=" + depth;
+    return singleFlight(
+        ExchangeOperation.MARKET_DATA,
+        Arrays.asList("getMarketOrders", marketId, depth),
+        () -> getMarketOrders(marketId, apiMethod));
+  }
 
-      final List<MarketOrder> sellOrders = new ArrayList<>();
-      for (BitfinexMarketOrder bitfinexSellOrder : orderBook.asks) {
-        final MarketOrder sellOrder =
-            new MarketOrderImpl(
-                OrderType.SELL,
-                bitfinexSellOrder.price,
-                bitfinexSellOrder.amount,
-                bitfinexSellOrder.price.multiply(bitfinexSellOrder.amount));
-        sellOrders.add(sellOrder);
+  private MarketOrderBook getMarketOrders(String marketId, String apiMethod)
+      throws TradingApiException, ExchangeNetworkException {
+    try {
+      if (isStreamingOrderBookParsingEnabled()) {
+        return sendPublicRequestToExchangeStreaming(
+            apiMethod,
+            reader ->
+                StreamingOrderBookReader.readObjectOrderBook(marketId, reader, "price", "amount"));
       }
 
-      return new MarketOrderBookImpl(marketId, sellOrders, buyOrders);
+      final ExchangeHttpResponse response = sendPublicRequestToExchange(apiMethod);
+      LOG.debug(() -> "Market Orders response: " + response);
+
+      return adaptBitfinexOrderBook(marketId, response);
 
     } catch (ExchangeNetworkException | TradingApiException e) {
       throw e;
@@ -195,57 +207,26 @@ public final class BitfinexExchangeAdapter extends AbstractExchangeAdapter
     }
   }
 
+  @Override
+  public CompletableFuture<MarketOrderBook> getMarketOrdersAsync(String marketId) {
+    return singleFlightAsync(
+        ExchangeOperation.MARKET_DATA,
+        Arrays.asList("getMarketOrders", marketId),
+        () -> fetchMarketOrdersAsync(marketId));
+  }
+
+  private CompletableFuture<MarketOrderBook> fetchMarketOrdersAsync(String marketId) {
+    return adaptResponseAsync(
+        sendPublicRequestToExchangeAsync("book/" + marketId),
+        response -> adaptBitfinexOrderBook(marketId, response));
+  }
+
   @Override
   public List<OpenOrder> getYourOpenOrders(String marketId)
       throws TradingApiException, ExchangeNetworkException {
     try {
       final ExchangeHttpResponse response = sendAuthenticatedRequestToExchange("orders", null);
-      LOG.debug(() -> "Open Orders response: " + response);
-
-      final BitfinexOpenOrders bitfinexOpenOrders =
-          gson.fromJson(response.getPayload(), BitfinexOpenOrders.class);
-
-      final List<OpenOrder> ordersToReturn = new ArrayList<>();
-      for (final BitfinexOpenOrder bitfinexOpenOrder : bitfinexOpenOrders) {
-
-        if (!marketId.equalsIgnoreCase(bitfinexOpenOrder.symbol)) {
-          continue;
-        }
-
-        OrderType orderType;
-        switch (bitfinexOpenOrder.side) {
-          case "buy":
-            orderType = OrderType.BUY;
-            break;
-          case "sell":
-            orderType = OrderType.SELL;
-            break;
-          default:
-            throw new TradingApiException(
-                "Unrecognised order type received in getYourOpenOrders(). Value: "
-                    + bitfinexOpenOrder.type);
-        }
-
-        final OpenOrder order =
-            new OpenOrderImpl(
-                Long.toString(bitfinexOpenOrder.id),
-                // for some reason 'finex adds decimal point to long date value, e.g. "1442073766.0"
-                //  - grrrr!
-                Date.from(
-                    Instant.ofEpochMilli(
-                        Integer.parseInt(bitfinexOpenOrder.timestamp.split("\\.")[0]))),
-                marketId,
-                orderType,
-                bitfinexOpenOrder.price,
-                bitfinexOpenOrder.remainingAmount,
-                bitfinexOpenOrder.originalAmount,
-                bitfinexOpenOrder.price.multiply(
-                    bitfinexOpenOrder.originalAmount) // total - not provided by finex :-(
-                );
-
-        ordersToReturn.add(order);
-      }
-      return ordersToReturn;
+      return adaptBitfinexOpenOrdersResponse(response, marketId);
 
     } catch (ExchangeNetworkException | TradingApiException e) {
       throw e;
@@ -256,6 +237,64 @@ public final class BitfinexExchangeAdapter extends AbstractExchangeAdapter
     }
   }
 
+  @Override
+  public CompletableFuture<List<OpenOrder>> getYourOpenOrdersAsync(String marketId) {
+    return adaptResponseAsync(
+        sendAuthenticatedRequestToExchangeAsync("orders", null),
+        response -> adaptBitfinexOpenOrdersResponse(response, marketId));
+  }
+
+  private List<OpenOrder> adaptBitfinexOpenOrdersResponse(
+      ExchangeHttpResponse response, String marketId)
+      throws TradingApiException, ExchangeNetworkException {
+    LOG.debug(() -> "Open Orders response: " + response);
+
+    final BitfinexOpenOrders bitfinexOpenOrders =
+        gson.fromJson(response.getPayload(), BitfinexOpenOrders.class);
+
+    final List<OpenOrder> ordersToReturn = new ArrayList<>();
+    for (final BitfinexOpenOrder bitfinexOpenOrder : bitfinexOpenOrders) {
+
+      if (!marketId.equalsIgnoreCase(bitfinexOpenOrder.symbol)) {
+        continue;
+      }
+
+      OrderType orderType;
+      switch (bitfinexOpenOrder.side) {
+        case "buy":
+          orderType = OrderType.BUY;
+          break;
+        case "sell":
+          orderType = OrderType.SELL;
+          break;
+        default:
+          throw new TradingApiException(
+              "Unrecognised order type received in getYourOpenOrders(). Value: "
+                  + bitfinexOpenOrder.type);
+      }
+
+      final OpenOrder order =
+          new OpenOrderImpl(
+              Long.toString(bitfinexOpenOrder.id),
+              // for some reason 'finex adds decimal point to long date value, e.g. "1442073766.0"
+              //  - grrrr!
+              Date.from(
+                  Instant.ofEpochMilli(
+                      Integer.parseInt(bitfinexOpenOrder.timestamp.split("\\.")[0]))),
+              marketId,
+              orderType,
+              bitfinexOpenOrder.price,
+              bitfinexOpenOrder.remainingAmount,
+              bitfinexOpenOrder.originalAmount,
+              bitfinexOpenOrder.price.multiply(
+                  bitfinexOpenOrder.originalAmount) // total - not provided by finex :-(
+              );
+
+      ordersToReturn.add(order);
+    }
+    return ordersToReturn;
+  }
+
   @Override
   public String createOrder(
       String marketId, OrderType orderType, BigDecimal quantity, BigDecimal price)
@@ -380,34 +419,14 @@ public final class BitfinexExchangeAdapter extends AbstractExchangeAdapter
 
   @Override
   public BalanceInfo getBalanceInfo() throws TradingApiException, ExchangeNetworkException {
+    return singleFlight(
+        ExchangeOperation.BALANCE, List.of("getBalanceInfo"), this::fetchBalanceInfo);
+  }
+
+  private BalanceInfo fetchBalanceInfo() throws TradingApiException, ExchangeNetworkException {
     try {
       final ExchangeHttpResponse response = sendAuthenticatedRequestToExchange("balances", null);
-      LOG.debug(() -> "Balance Info response: " + response);
-
-      final BitfinexBalances allAccountBalances =
-          gson.fromJson(response.getPayload(), BitfinexBalances.class);
-      final HashMap<String, BigDecimal> balancesAvailable = new HashMap<>();
-
-      /*
-       * The adapter only fetches the 'exchange' account balance details - this is the Bitfinex
-       * 'exchange' account, i.e. the limit order trading account balance.
-       */
-      if (allAccountBalances != null) {
-        allAccountBalances.stream()
-            .filter(accountBalance -> accountBalance.type.equalsIgnoreCase(EXCHANGE))
-            .forEach(
-                accountBalance -> {
-                  if (accountBalance.currency.equalsIgnoreCase("usd")) {
-                    balancesAvailable.put("USD", accountBalance.available);
-                  } else if (accountBalance.currency.equalsIgnoreCase("btc")) {
-                    balancesAvailable.put("BTC", accountBalance.available);
-                  }
-                });
-      }
-
-      // 2nd arg of BalanceInfo constructor for reserved/on-hold balances is not provided by
-      // exchange.
-      return new BalanceInfoImpl(balancesAvailable, new HashMap<>());
+      return adaptBitfinexBalanceResponse(response);
 
     } catch (ExchangeNetworkException | TradingApiException e) {
       throw e;
@@ -418,6 +437,47 @@ public final class BitfinexExchangeAdapter extends AbstractExchangeAdapter
     }
   }
 
+  @Override
+  public CompletableFuture<BalanceInfo> getBalanceInfoAsync() {
+    return singleFlightAsync(
+        ExchangeOperation.BALANCE,
+        List.of("getBalanceInfo"),
+        () ->
+            adaptResponseAsync(
+                sendAuthenticatedRequestToExchangeAsync("balances", null),
+                this::adaptBitfinexBalanceResponse));
+  }
+
+  private BalanceInfo adaptBitfinexBalanceResponse(ExchangeHttpResponse response)
+      throws TradingApiException, ExchangeNetworkException {
+    LOG.debug(() -> "Balance Info response: " + response);
+
+    final BitfinexBalances allAccountBalances =
+        gson.fromJson(response.getPayload(), BitfinexBalances.class);
+    final HashMap<String, BigDecimal> balancesAvailable = new HashMap<>();
+
+    /*
+     * The adapter only fetches the 'exchange' account balance details - this is the Bitfinex
+     * 'exchange' account, i.e. the limit order trading account balance.
+     */
+    if (allAccountBalances != null) {
+      allAccountBalances.stream()
+          .filter(accountBalance -> accountBalance.type.equalsIgnoreCase(EXCHANGE))
+          .forEach(
+              accountBalance -> {
+                if (accountBalance.currency.equalsIgnoreCase("usd")) {
+                  balancesAvailable.put("USD", accountBalance.available);
+                } else if (accountBalance.currency.equalsIgnoreCase("btc")) {
+                  balancesAvailable.put("BTC", accountBalance.available);
+                }
+              });
+    }
+
+    // 2nd arg of BalanceInfo constructor for reserved/on-hold balances is not provided by
+    // exchange.
+    return new BalanceInfoImpl(balancesAvailable, new HashMap<>());
+  }
+
   @Override
   public BigDecimal getPercentageOfBuyOrderTakenForExchangeFee(String marketId)
       throws TradingApiException, ExchangeNetworkException {
@@ -477,22 +537,7 @@ public final class BitfinexExchangeAdapter extends AbstractExchangeAdapter
   public Ticker getTicker(String marketId) throws TradingApiException, ExchangeNetworkException {
     try {
       final ExchangeHttpResponse response = sendPublicRequestToExchange("pubticker/" + marketId);
-      LOG.debug(() -> "Latest Market Price response: " + response);
-
-      final BitfinexTicker ticker = gson.fromJson(response.getPayload(), BitfinexTicker.class);
-      return new TickerImpl(
-          ticker.lastPrice,
-          ticker.bid,
-          ticker.ask,
-          ticker.low,
-          ticker.high,
-          null, // open not supplied by Bitfinex
-          ticker.volume,
-          null, // vwap not supplied by Bitfinex
-          // for some reason 'finex adds decimal point to long date value, e.g. "1513631756.0798516"
-          //  - grrrr!
-          Date.from(Instant.ofEpochMilli(Integer.parseInt(ticker.timestamp.split("\\.")[0])))
-              .getTime());
+      return adaptBitfinexTickerResponse(response);
 
     } catch (ExchangeNetworkException | TradingApiException e) {
       throw e;
@@ -503,6 +548,33 @@ public final class BitfinexExchangeAdapter extends AbstractExchangeAdapter
     }
   }
 
+  @Override
+  public CompletableFuture<Ticker> getTickerAsync(String marketId) {
+    return adaptResponseAsync(
+        sendPublicRequestToExchangeAsync("pubticker/" + marketId),
+        this::adaptBitfinexTickerResponse);
+  }
+
+  private Ticker adaptBitfinexTickerResponse(ExchangeHttpResponse response)
+      throws TradingApiException, ExchangeNetworkException {
+    LOG.debug(() -> "Latest Market Price response: " + response);
+
+    final BitfinexTicker ticker = gson.fromJson(response.getPayload(), BitfinexTicker.class);
+    return new TickerImpl(
+        ticker.lastPrice,
+        ticker.bid,
+        ticker.ask,
+        ticker.low,
+        ticker.high,
+        null, // open not supplied by Bitfinex
+        ticker.volume,
+        null, // vwap not supplied by Bitfinex
+        // for some reason 'finex adds decimal point to long date value, e.g. "1513631756.0798516"
+        //  - grrrr!
+        Date.from(Instant.ofEpochMilli(Integer.parseInt(ticker.timestamp.split("\\.")[0])))
+            .getTime());
+  }
+
   // --------------------------------------------------------------------------
   //  GSON classes for JSON responses.
   //  See https://www.bitfinex.com/pages/api
@@ -906,6 +978,43 @@ public final class BitfinexExchangeAdapter extends AbstractExchangeAdapter
     }
   }
 
+  private <T> T sendPublicRequestToExchangeStreaming(
+      String apiMethod, ExchangeResponseStreamParser<T> responseParser)
+      throws ExchangeNetworkException, TradingApiException {
+    try {
+      final URL url = new URL(PUBLIC_API_BASE_URL + apiMethod);
+      return sendNetworkRequestStreaming(url, "GET", null, createHeaderParamMap(), responseParser);
+
+    } catch (MalformedURLException e) {
+      final String errorMsg = UNEXPECTED_IO_ERROR_MSG;
+      LOG.error(errorMsg, e);
+      throw new TradingApiException(errorMsg, e);
+    }
+  }
+
+  private CompletableFuture<ExchangeHttpResponse> sendPublicRequestToExchangeAsync(
+      String apiMethod) {
+    try {
+      final URL url = new URL(PUBLIC_API_BASE_URL + apiMethod);
+      return sendNetworkRequestAsync(url, "GET", null, createHeaderParamMap());
+
+    } catch (MalformedURLException e) {
+      final String errorMsg = UNEXPECTED_IO_ERROR_MSG;
+      LOG.error(errorMsg, e);
+      return CompletableFuture.failedFuture(new TradingApiException(errorMsg, e));
+    }
+  }
+
+  /*
+   * The request is signed and queued in nonce order under the nonce lock, but its response is
+   * waited for outside the lock.
+   */
+  private ExchangeHttpResponse sendAuthenticatedRequestToExchange(
+      String apiMethod, Map<String, Object> params)
+      throws ExchangeNetworkException, TradingApiException {
+    return awaitResponse(sendAuthenticatedRequestToExchangeAsync(apiMethod, params));
+  }
+
   /*
    * Makes an authenticated API call to the Bitfinex exchange.
    *
@@ -932,9 +1041,8 @@ public final class BitfinexExchangeAdapter extends AbstractExchangeAdapter
    * X-BFX-PAYLOAD
    * X-BFX-SIGNATURE
    */
-  private ExchangeHttpResponse sendAuthenticatedRequestToExchange(
-      String apiMethod, Map<String, Object> params)
-      throws ExchangeNetworkException, TradingApiException {
+  private synchronized CompletableFuture<ExchangeHttpResponse>
+      sendAuthenticatedRequestToExchangeAsync(String apiMethod, Map<String, Object> params) {
 
     if (!initializedMacAuthentication) {
       final String errorMsg = "MAC Message security layer has not been initialized.";
@@ -949,8 +1057,7 @@ public final class BitfinexExchangeAdapter extends AbstractExchangeAdapter
       }
 
       // nonce is required by Bitfinex in every request
-      params.put("nonce", Long.toString(nonce));
-      nonce++; // increment ready for next call.
+      params.put("nonce", Long.toString(nonceProvider.next()));
 
       // must include the method in request param too
       params.put("request", "/" + BITFINEX_API_VERSION + "/" + apiMethod);
@@ -968,38 +1075,27 @@ public final class BitfinexExchangeAdapter extends AbstractExchangeAdapter
       requestHeaders.put("X-BFX-PAYLOAD", base64payload);
 
       // Add the signature
-      mac.reset(); // force reset
-      mac.update(base64payload.getBytes(StandardCharsets.UTF_8));
-
       /*
        * signature = HMAC-SHA384(payload, api-secret) as hexadecimal - MUST be in LOWERCASE else
        * signature fails. See:
        * http://bitcoin.stackexchange.com/questions/25835/bitfinex-api-call-returns-400-bad-request
        */
-      final String signature = toHex(mac.doFinal()).toLowerCase();
+      final String signature = RequestSigner.toHex(requestSigner.sign(base64payload));
       requestHeaders.put("X-BFX-SIGNATURE", signature);
 
       // payload is JSON for this exchange
       requestHeaders.put("Content-Type", "application/json");
 
       final URL url = new URL(AUTHENTICATED_API_URL + apiMethod);
-      return makeNetworkRequest(url, "POST", paramsInJson, requestHeaders);
+      return makeNetworkRequestAsync(url, "POST", paramsInJson, requestHeaders);
 
     } catch (MalformedURLException e) {
       final String errorMsg = UNEXPECTED_IO_ERROR_MSG;
       LOG.error(errorMsg, e);
-      throw new TradingApiException(errorMsg, e);
+      return CompletableFuture.failedFuture(new TradingApiException(errorMsg, e));
     }
   }
 
-  private String toHex(byte[] byteArrayToConvert) {
-    final StringBuilder hexString = new StringBuilder();
-    for (final byte aByte : byteArrayToConvert) {
-      hexString.append(String.format("%02x", aByte & 0xff));
-    }
-    return hexString.toString();
-  }
-
   /*
    * Initialises the secure messaging layer.
    * Sets up the MAC to safeguard the data we send to the exchange.
@@ -1008,10 +1104,7 @@ public final class BitfinexExchangeAdapter extends AbstractExchangeAdapter
    */
   private void initSecureMessageLayer() {
     try {
-      final SecretKeySpec keyspec =
-          new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA384");
-      mac = Mac.getInstance("HmacSHA384");
-      mac.init(keyspec);
+      requestSigner = RequestSigner.create("HmacSHA384", secret.getBytes(StandardCharsets.UTF_8));
       initializedMacAuthentication = true;
     } catch (NoSuchAlgorithmException e) {
       final String errorMsg = "Failed to setup MAC security. HINT: Is HMAC-SHA384 installed?";
@@ -1034,10 +1127,46 @@ public final class BitfinexExchangeAdapter extends AbstractExchangeAdapter
     secret = getAuthenticationConfigItem(authenticationConfig, SECRET_PROPERTY_NAME);
   }
 
+  private void setOtherConfig(ExchangeConfig exchangeConfig) {
+    // other config is optional for this adapter
+    final OtherConfig otherConfig = exchangeConfig.getOtherConfig();
+    setStreamingOrderBookParsing(otherConfig);
+    nonceProvider = createNonceProvider(TimeUnit.MILLISECONDS, otherConfig);
+  }
+
   // --------------------------------------------------------------------------
   //  Util methods
   // --------------------------------------------------------------------------
 
+  private MarketOrderBook adaptBitfinexOrderBook(String marketId, ExchangeHttpResponse response) {
+    final BitfinexOrderBook orderBook =
+        gson.fromJson(response.getPayload(), BitfinexOrderBook.class);
+
+    final List<MarketOrder> buyOrders = new ArrayList<>();
+    for (BitfinexMarketOrder bitfinexBuyOrder : orderBook.bids) {
+      final MarketOrder buyOrder =
+          new MarketOrderImpl(
+              OrderType.BUY,
+              bitfinexBuyOrder.price,
+              bitfinexBuyOrder.amount,
+              bitfinexBuyOrder.price.multiply(bitfinexBuyOrder.amount));
+      buyOrders.add(buyOrder);
+    }
+
+    final List<MarketOrder> sellOrders = new ArrayList<>();
+    for (BitfinexMarketOrder bitfinexSellOrder : orderBook.asks) {
+      final MarketOrder sellOrder =
+          new MarketOrderImpl(
+              OrderType.SELL,
+              bitfinexSellOrder.price,
+              bitfinexSellOrder.amount,
+              bitfinexSellOrder.price.multiply(bitfinexSellOrder.amount));
+      sellOrders.add(sellOrder);
+    }
+
+    return new MarketOrderBookImpl(marketId, sellOrders, buyOrders);
+  }
+
   private void initGson() {
     final GsonBuilder gsonBuilder = new GsonBuilder();
     gson = gsonBuilder.create();
@@ -1050,6 +1179,18 @@ public final class BitfinexExchangeAdapter extends AbstractExchangeAdapter
     return new HashMap<>();
   }
 
+  /*
+   * Balance requests go to the "balances" and "account_infos" endpoints.
+   */
+  @Override
+  ExchangeOperation getExchangeOperation(
+      URL url, String httpMethod, Map<String, String> requestHeaders) {
+    final String path = url.getPath();
+    return path.endsWith("/balances") || path.endsWith("/account_infos")
+        ? ExchangeOperation.BALANCE
+        : super.getExchangeOperation(url, httpMethod, requestHeaders);
+  }
+
   /*
    * Hack for unit-testing header params passed to transport layer.
    */
@@ -1065,4 +1206,12 @@ public final class BitfinexExchangeAdapter extends AbstractExchangeAdapter
       throws TradingApiException, ExchangeNetworkException {
     return super.sendNetworkRequest(url, httpMethod, postData, requestHeaders);
   }
+
+  /*
+   * Hack for unit-testing transport layer.
+   */
+  private CompletableFuture<ExchangeHttpResponse> makeNetworkRequestAsync(
+      URL url, String httpMethod, String postData, Map<String, String> requestHeaders) {
+    return super.sendNonceOrderedRequestAsync(url, httpMethod, postData, requestHeaders);
+  }
 }
@@ -26,6 +26,7 @@ package com.gazbert.bxbot.exchanges;
 import com.gazbert.bxbot.exchange.api.AuthenticationConfig;
 import com.gazbert.bxbot.exchange.api.ExchangeAdapter;
 import com.gazbert.bxbot.exchange.api.ExchangeConfig;
+import com.gazbert.bxbot.exchange.api.OtherConfig;
 import com.gazbert.bxbot.exchanges.trading.api.impl.BalanceInfoImpl;
 import com.gazbert.bxbot.exchanges.trading.api.impl.MarketOrderBookImpl;
 import com.gazbert.bxbot.exchanges.trading.api.impl.MarketOrderImpl;
@@ -48,7 +49,6 @@ import com.google.gson.JsonDeserializer;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonParseException;
 import com.google.gson.annotations.SerializedName;
-import java.lang.reflect.Field;
 import java.lang.reflect.Type;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -63,12 +63,14 @@ import java.text.DecimalFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -122,23 +124,48 @@ public class BitstampExchangeAdapter extends AbstractExchangeAdapter implements
   private static final String KEY_PROPERTY_NAME = "key";
   private static final String SECRET_PROPERTY_NAME = "secret";
 
+  private static final String FEE_REFRESH_INTERVAL_PROPERTY_NAME = "fee-refresh-interval";
+  private static final long DEFAULT_FEE_REFRESH_INTERVAL_IN_SECS = 3600;
+
+  /** The fee field of the balance response for each market, so fees are not looked up by name. */
+  private static final Map<String, Function<BitstampBalance, BigDecimal>> FEE_FIELDS =
+      Map.of(
+          "btceur", balance -> balance.btceurFee,
+          "btcusd", balance -> balance.btcusdFee,
+          "eurusd", balance -> balance.eurusdFee,
+          "ltcbtc", balance -> balance.ltcbtcFee,
+          "ltceur", balance -> balance.ltceurFee,
+          "ltcusd", balance -> balance.ltcusdFee,
+          "xrpbtc", balance -> balance.xrpbtcFee,
+          "xrpeur", balance -> balance.xrpeurFee,
+          "xrpusd", balance -> balance.xrpusdFee);
+
   private String clientId = "";
   private String key = "";
   private String secret = "";
 
-  private Mac mac;
-  private long nonce = 0;
+  private RequestSigner requestSigner;
+  private NonceProvider nonceProvider;
   private boolean initializedMacAuthentication = false;
 
+  private long feeRefreshIntervalNanos =
+      TimeUnit.SECONDS.toNanos(DEFAULT_FEE_REFRESH_INTERVAL_IN_SECS);
+  private final Object feeRefreshLock = new Object();
+  private volatile ExchangeFees exchangeFees;
+
   private Gson gson;
 
+  /*
+   * Synchronized so the authenticated requests, which are sent under the same lock, see the
+   * config and request signer it sets up.
+   */
   @Override
-  public void init(ExchangeConfig config) {
+  public synchronized void init(ExchangeConfig config) {
     LOG.info(() -> "About to initialise Bitstamp ExchangeConfig: " + config);
     setAuthenticationConfig(config);
     setNetworkConfig(config);
+    setOtherConfig(config);
 
-    nonce = System.currentTimeMillis() / 1000;
     initSecureMessageLayer();
     initGson();
   }
@@ -151,38 +178,55 @@ public class BitstampExchangeAdapter extends AbstractExchangeAdapter implements
   @Override
   public MarketOrderBook getMarketOrders(String marketId)
       throws TradingApiException, ExchangeNetworkException {
+    return singleFlight(
+        ExchangeOperation.MARKET_DATA,
+        Arrays.asList("getMarketOrders", marketId),
+        () -> fetchMarketOrders(marketId));
+  }
+
+  /**
+   * Fetches the top {@code depth} levels of the order book. Bitstamp has no depth param and returns
+   * the whole book, so the levels below {@code depth} are skipped over as the response is parsed.
+   */
+  @Override
+  public MarketOrderBook getMarketOrders(String marketId, int depth)
+      throws TradingApiException, ExchangeNetworkException {
+    assertValidOrderBookDepth(depth);
+    return singleFlight(
+        ExchangeOperation.MARKET_DATA,
+        Arrays.asList("getMarketOrders", marketId, depth),
+        () -> fetchMarketOrders(marketId, depth));
+  }
+
+  private MarketOrderBook fetchMarketOrders(String marketId)
+      throws TradingApiException, ExchangeNetworkException {
     try {
+      if (isStreamingOrderBookParsingEnabled()) {
+        return sendPublicRequestToExchangeStreaming(
+            "order_book/" + marketId,
+            reader -> StreamingOrderBookReader.readArrayOrderBook(marketId, reader));
+      }
+
       final ExchangeHttpResponse response = sendPublicRequestToExchange("order_book/" + marketId);
       LOG.debug(() -> "Market Orders response: " + response);
 
-      final BitstampOrderBook bitstampOrderBook =
-          gson.fromJson(response.getPayload(), BitstampOrderBook.class);
-
-      final List<MarketOrder> buyOrders = new ArrayList<>();
-      final List<List<BigDecimal>> bitstampBuyOrders = bitstampOrderBook.bids;
-      for (final List<BigDecimal> order : bitstampBuyOrders) {
-        final MarketOrder buyOrder =
-            new MarketOrderImpl(
-                OrderType.BUY,
-                order.get(0), // price
-                order.get(1), // quantity
-                order.get(0).multiply(order.get(1)));
-        buyOrders.add(buyOrder);
-      }
+      return adaptBitstampOrderBook(marketId, response);
 
-      final List<MarketOrder> sellOrders = new ArrayList<>();
-      final List<List<BigDecimal>> bitstampSellOrders = bitstampOrderBook.asks;
-      for (final List<BigDecimal> order : bitstampSellOrders) {
-        final MarketOrder sellOrder =
-            new MarketOrderImpl(
-                OrderType.SELL,
-                order.get(0), // price
-                order.get(1), // quantity
-                order.get(0).multiply(order.get(1)));
-        sellOrders.add(sellOrder);
-      }
+    } catch (ExchangeNetworkException | TradingApiException e) {
+      throw e;
+
+    } catch (Exception e) {
+      LOG.error(UNEXPECTED_ERROR_MSG, e);
+      throw new TradingApiException(UNEXPECTED_ERROR_MSG, e);
+    }
+  }
 
-      return new MarketOrderBookImpl(marketId, sellOrders, buyOrders);
+  private MarketOrderBook fetchMarketOrders(String marketId, int depth)
+      throws TradingApiException, ExchangeNetworkException {
+    try {
+      return sendPublicRequestToExchangeStreaming(
+          "order_book/" + marketId,
+          reader -> StreamingOrderBookReader.readArrayOrderBook(marketId, reader, depth));
 
     } catch (ExchangeNetworkException | TradingApiException e) {
       throw e;
@@ -193,44 +237,27 @@ public class BitstampExchangeAdapter extends AbstractExchangeAdapter implements
     }
   }
 
+  @Override
+  public CompletableFuture<MarketOrderBook> getMarketOrdersAsync(String marketId) {
+    return singleFlightAsync(
+        ExchangeOperation.MARKET_DATA,
+        Arrays.asList("getMarketOrders", marketId),
+        () -> fetchMarketOrdersAsync(marketId));
+  }
+
+  private CompletableFuture<MarketOrderBook> fetchMarketOrdersAsync(String marketId) {
+    return adaptResponseAsync(
+        sendPublicRequestToExchangeAsync("order_book/" + marketId),
+        response -> adaptBitstampOrderBook(marketId, response));
+  }
+
   @Override
   public List<OpenOrder> getYourOpenOrders(String marketId)
       throws TradingApiException, ExchangeNetworkException {
     try {
       final ExchangeHttpResponse response =
           sendAuthenticatedRequestToExchange("open_orders/" + marketId, null);
-      LOG.debug(() -> "Open Orders response: " + response);
-
-      final BitstampOrderResponse[] myOpenOrders =
-          gson.fromJson(response.getPayload(), BitstampOrderResponse[].class);
-
-      // No need to filter on marketId; exchange does this for us.
-      final List<OpenOrder> ordersToReturn = new ArrayList<>();
-      for (final BitstampOrderResponse openOrder : myOpenOrders) {
-        OrderType orderType;
-        if (openOrder.type == 0) {
-          orderType = OrderType.BUY;
-        } else if (openOrder.type == 1) {
-          orderType = OrderType.SELL;
-        } else {
-          throw new TradingApiException(
-              "Unrecognised order type received in getYourOpenOrders(). Value: " + openOrder.type);
-        }
-
-        final OpenOrder order =
-            new OpenOrderImpl(
-                Long.toString(openOrder.id),
-                openOrder.datetime,
-                marketId,
-                orderType,
-                openOrder.price,
-                openOrder.amount,
-                null, // orig_quantity - not provided by stamp :-(
-                openOrder.price.multiply(openOrder.amount) // total - not provided by stamp :-(
-                );
-        ordersToReturn.add(order);
-      }
-      return ordersToReturn;
+      return adaptBitstampOpenOrdersResponse(response, marketId);
 
     } catch (ExchangeNetworkException | TradingApiException e) {
       throw e;
@@ -241,6 +268,50 @@ public class BitstampExchangeAdapter extends AbstractExchangeAdapter implements
     }
   }
 
+  @Override
+  public CompletableFuture<List<OpenOrder>> getYourOpenOrdersAsync(String marketId) {
+    return adaptResponseAsync(
+        sendAuthenticatedRequestToExchangeAsync("open_orders/" + marketId, null),
+        response -> adaptBitstampOpenOrdersResponse(response, marketId));
+  }
+
+  private List<OpenOrder> adaptBitstampOpenOrdersResponse(
+      ExchangeHttpResponse response, String marketId)
+      throws TradingApiException, ExchangeNetworkException {
+    LOG.debug(() -> "Open Orders response: " + response);
+
+    final BitstampOrderResponse[] myOpenOrders =
+        gson.fromJson(response.getPayload(), BitstampOrderResponse[].class);
+
+    // No need to filter on marketId; exchange does this for us.
+    final List<OpenOrder> ordersToReturn = new ArrayList<>();
+    for (final BitstampOrderResponse openOrder : myOpenOrders) {
+      OrderType orderType;
+      if (openOrder.type == 0) {
+        orderType = OrderType.BUY;
+      } else if (openOrder.type == 1) {
+        orderType = OrderType.SELL;
+      } else {
+        throw new TradingApiException(
+            "Unrecognised order type received in getYourOpenOrders(). Value: " + openOrder.type);
+      }
+
+      final OpenOrder order =
+          new OpenOrderImpl(
+              Long.toString(openOrder.id),
+              openOrder.datetime,
+              marketId,
+              orderType,
+              openOrder.price,
+              openOrder.amount,
+              null, // orig_quantity - not provided by stamp :-(
+              openOrder.price.multiply(openOrder.amount) // total - not provided by stamp :-(
+              );
+      ordersToReturn.add(order);
+    }
+    return ordersToReturn;
+  }
+
   @Override
   public String createOrder(
       String marketId, OrderType orderType, BigDecimal quantity, BigDecimal price)
@@ -329,16 +400,37 @@ public class BitstampExchangeAdapter extends AbstractExchangeAdapter implements
     }
   }
 
+  /*
+   * The request is signed and queued in nonce order under the nonce lock, but its response is
+   * waited for outside the lock.
+   */
+  private ExchangeHttpResponse sendAuthenticatedRequestToExchange(
+      String apiMethod, Map<String, String> params)
+      throws ExchangeNetworkException, TradingApiException {
+    return awaitResponse(sendAuthenticatedRequestToExchangeAsync(apiMethod, params));
+  }
+
+  /*
+   * Uses the exchange's cancel_all_orders request for the market - a single round trip however
+   * many orders are open.
+   */
   @Override
-  public BigDecimal getLatestMarketPrice(String marketId)
+  public int cancelAllOrders(String marketId)
       throws TradingApiException, ExchangeNetworkException {
     try {
-      final ExchangeHttpResponse response = sendPublicRequestToExchange("ticker/" + marketId);
-      LOG.debug(() -> "Latest Market Price response: " + response);
+      final ExchangeHttpResponse response =
+          sendAuthenticatedRequestToExchange("cancel_all_orders/" + marketId, null);
+      LOG.debug(() -> "Cancel All Orders response: " + response);
 
-      final BitstampTicker bitstampTicker =
-          gson.fromJson(response.getPayload(), BitstampTicker.class);
-      return bitstampTicker.last;
+      final BitstampCancelAllOrdersResponse cancelAllOrdersResponse =
+          gson.fromJson(response.getPayload(), BitstampCancelAllOrdersResponse.class);
+      if (!cancelAllOrdersResponse.success || cancelAllOrdersResponse.canceled == null) {
+        final String errorMsg =
+            "Failed to cancel all orders on exchange. Error response: " + response;
+        LOG.error(errorMsg);
+        throw new TradingApiException(errorMsg);
+      }
+      return cancelAllOrdersResponse.canceled.size();
 
     } catch (ExchangeNetworkException | TradingApiException e) {
       throw e;
@@ -350,28 +442,15 @@ public class BitstampExchangeAdapter extends AbstractExchangeAdapter implements
   }
 
   @Override
-  public BalanceInfo getBalanceInfo() throws TradingApiException, ExchangeNetworkException {
+  public BigDecimal getLatestMarketPrice(String marketId)
+      throws TradingApiException, ExchangeNetworkException {
     try {
-      final ExchangeHttpResponse response = sendAuthenticatedRequestToExchange(BALANCE, null);
-      LOG.debug(() -> "Balance Info response: " + response);
-
-      final BitstampBalance balances = gson.fromJson(response.getPayload(), BitstampBalance.class);
-
-      final Map<String, BigDecimal> balancesAvailable = new HashMap<>();
-      balancesAvailable.put("BTC", balances.btcAvailable);
-      balancesAvailable.put("USD", balances.usdAvailable);
-      balancesAvailable.put("EUR", balances.eurAvailable);
-      balancesAvailable.put("LTC", balances.ltcAvailable);
-      balancesAvailable.put("XRP", balances.xrpAvailable);
-
-      final Map<String, BigDecimal> balancesOnOrder = new HashMap<>();
-      balancesOnOrder.put("BTC", balances.btcReserved);
-      balancesOnOrder.put("USD", balances.usdReserved);
-      balancesOnOrder.put("EUR", balances.eurReserved);
-      balancesOnOrder.put("LTC", balances.ltcReserved);
-      balancesOnOrder.put("XRP", balances.xrpReserved);
+      final ExchangeHttpResponse response = sendPublicRequestToExchange("ticker/" + marketId);
+      LOG.debug(() -> "Latest Market Price response: " + response);
 
-      return new BalanceInfoImpl(balancesAvailable, balancesOnOrder);
+      final BitstampTicker bitstampTicker =
+          gson.fromJson(response.getPayload(), BitstampTicker.class);
+      return bitstampTicker.last;
 
     } catch (ExchangeNetworkException | TradingApiException e) {
       throw e;
@@ -383,33 +462,15 @@ public class BitstampExchangeAdapter extends AbstractExchangeAdapter implements
   }
 
   @Override
-  public BigDecimal getPercentageOfBuyOrderTakenForExchangeFee(String marketId)
-      throws TradingApiException, ExchangeNetworkException {
+  public BalanceInfo getBalanceInfo() throws TradingApiException, ExchangeNetworkException {
+    return singleFlight(
+        ExchangeOperation.BALANCE, List.of("getBalanceInfo"), this::fetchBalanceInfo);
+  }
+
+  private BalanceInfo fetchBalanceInfo() throws TradingApiException, ExchangeNetworkException {
     try {
       final ExchangeHttpResponse response = sendAuthenticatedRequestToExchange(BALANCE, null);
-      LOG.debug(() -> "Buy Fee response: " + response);
-
-      final BitstampBalance balances = gson.fromJson(response.getPayload(), BitstampBalance.class);
-
-      // Ouch!
-      final Class<?> clazz = balances.getClass();
-      final Field[] fields = clazz.getDeclaredFields();
-      for (final Field field : fields) {
-        if (field.getName().startsWith(marketId)) {
-          final BigDecimal fee = (BigDecimal) field.get(balances);
-          // adapt the % into BigDecimal format
-          return fee.divide(new BigDecimal("100"), 8, RoundingMode.HALF_UP);
-        }
-      }
-
-      final String errorMsg =
-          "Unable to map marketId to currency balances returned from the Exchange. "
-              + "MarketId: "
-              + marketId
-              + " BitstampBalances: "
-              + balances;
-      LOG.error(errorMsg);
-      throw new IllegalArgumentException(errorMsg);
+      return adaptBitstampBalanceResponse(response);
 
     } catch (ExchangeNetworkException | TradingApiException e) {
       throw e;
@@ -421,41 +482,59 @@ public class BitstampExchangeAdapter extends AbstractExchangeAdapter implements
   }
 
   @Override
-  public BigDecimal getPercentageOfSellOrderTakenForExchangeFee(String marketId)
-      throws TradingApiException, ExchangeNetworkException {
-    try {
-      final ExchangeHttpResponse response = sendAuthenticatedRequestToExchange(BALANCE, null);
-      LOG.debug(() -> "Sell Fee response: " + response);
-
-      final BitstampBalance balances = gson.fromJson(response.getPayload(), BitstampBalance.class);
-
-      // Ouch!
-      final Class<?> clazz = balances.getClass();
-      final Field[] fields = clazz.getDeclaredFields();
-      for (final Field field : fields) {
-        if (field.getName().startsWith(marketId) && field.getName().endsWith("Fee")) {
-          final BigDecimal fee = (BigDecimal) field.get(balances);
-          // adapt the % into BigDecimal format
-          return fee.divide(new BigDecimal("100"), 8, RoundingMode.HALF_UP);
-        }
-      }
+  public CompletableFuture<BalanceInfo> getBalanceInfoAsync() {
+    return singleFlightAsync(
+        ExchangeOperation.BALANCE,
+        List.of("getBalanceInfo"),
+        () ->
+            adaptResponseAsync(
+                sendAuthenticatedRequestToExchangeAsync(BALANCE, null),
+                this::adaptBitstampBalanceResponse));
+  }
 
-      final String errorMsg =
-          "Unable to map marketId to currency balances returned from the Exchange. "
-              + "MarketId: "
-              + marketId
-              + " BitstampBalances: "
-              + balances;
-      LOG.error(errorMsg);
-      throw new IllegalArgumentException(errorMsg);
+  private BalanceInfo adaptBitstampBalanceResponse(ExchangeHttpResponse response)
+      throws TradingApiException, ExchangeNetworkException {
+    LOG.debug(() -> "Balance Info response: " + response);
+
+    final BitstampBalance balances = gson.fromJson(response.getPayload(), BitstampBalance.class);
+    updateExchangeFees(balances); // same response, so keep the fees fresh for free
+
+    final Map<String, BigDecimal> balancesAvailable = new HashMap<>();
+    balancesAvailable.put("BTC", balances.btcAvailable);
+    balancesAvailable.put("USD", balances.usdAvailable);
+    balancesAvailable.put("EUR", balances.eurAvailable);
+    balancesAvailable.put("LTC", balances.ltcAvailable);
+    balancesAvailable.put("XRP", balances.xrpAvailable);
+
+    final Map<String, BigDecimal> balancesOnOrder = new HashMap<>();
+    balancesOnOrder.put("BTC", balances.btcReserved);
+    balancesOnOrder.put("USD", balances.usdReserved);
+    balancesOnOrder.put("EUR", balances.eurReserved);
+    balancesOnOrder.put("LTC", balances.ltcReserved);
+    balancesOnOrder.put("XRP", balances.xrpReserved);
+
+    return new BalanceInfoImpl(balancesAvailable, balancesOnOrder);
+  }
 
-    } catch (ExchangeNetworkException | TradingApiException e) {
-      throw e;
+  /**
+   * Returns the fee for the market. The fees for all markets are fetched from the exchange in a
+   * single balance call at most once per fee-refresh-interval, so this call is normally served
+   * without a network round trip.
+   */
+  @Override
+  public BigDecimal getPercentageOfBuyOrderTakenForExchangeFee(String marketId)
+      throws TradingApiException, ExchangeNetworkException {
+    return getExchangeFee(marketId);
+  }
 
-    } catch (Exception e) {
-      LOG.error(UNEXPECTED_ERROR_MSG, e);
-      throw new TradingApiException(UNEXPECTED_ERROR_MSG, e);
-    }
+  /**
+   * Returns the fee for the market. Bitstamp charges the same fee for buy and sell orders - see
+   * {@link #getPercentageOfBuyOrderTakenForExchangeFee(String)}.
+   */
+  @Override
+  public BigDecimal getPercentageOfSellOrderTakenForExchangeFee(String marketId)
+      throws TradingApiException, ExchangeNetworkException {
+    return getExchangeFee(marketId);
   }
 
   @Override
@@ -468,20 +547,7 @@ public class BitstampExchangeAdapter extends AbstractExchangeAdapter implements
 
     try {
       final ExchangeHttpResponse response = sendPublicRequestToExchange("ticker/" + marketId);
-      LOG.debug(() -> "Ticker response: " + response);
-
-      final BitstampTicker bitstampTicker =
-          gson.fromJson(response.getPayload(), BitstampTicker.class);
-      return new TickerImpl(
-          bitstampTicker.last,
-          bitstampTicker.bid,
-          bitstampTicker.ask,
-          bitstampTicker.low,
-          bitstampTicker.high,
-          bitstampTicker.open,
-          bitstampTicker.volume,
-          bitstampTicker.vwap,
-          bitstampTicker.timestamp);
+      return adaptBitstampTickerResponse(response);
 
     } catch (ExchangeNetworkException | TradingApiException e) {
       throw e;
@@ -492,6 +558,30 @@ public class BitstampExchangeAdapter extends AbstractExchangeAdapter implements
     }
   }
 
+  @Override
+  public CompletableFuture<Ticker> getTickerAsync(String marketId) {
+    return adaptResponseAsync(
+        sendPublicRequestToExchangeAsync("ticker/" + marketId), this::adaptBitstampTickerResponse);
+  }
+
+  private Ticker adaptBitstampTickerResponse(ExchangeHttpResponse response)
+      throws TradingApiException, ExchangeNetworkException {
+    LOG.debug(() -> "Ticker response: " + response);
+
+    final BitstampTicker bitstampTicker =
+        gson.fromJson(response.getPayload(), BitstampTicker.class);
+    return new TickerImpl(
+        bitstampTicker.last,
+        bitstampTicker.bid,
+        bitstampTicker.ask,
+        bitstampTicker.low,
+        bitstampTicker.high,
+        bitstampTicker.open,
+        bitstampTicker.volume,
+        bitstampTicker.vwap,
+        bitstampTicker.timestamp);
+  }
+
   // --------------------------------------------------------------------------
   //  GSON classes for JSON responses.
   //  See https://www.bitstamp.net/api/
@@ -707,6 +797,21 @@ public class BitstampExchangeAdapter extends AbstractExchangeAdapter implements
     }
   }
 
+  /** GSON class for Bitstamp cancel all orders response. */
+  private static class BitstampCancelAllOrdersResponse {
+
+    boolean success;
+    List<BitstampCancelOrderResponse> canceled;
+
+    @Override
+    public String toString() {
+      return MoreObjects.toStringHelper(this)
+          .add("success", success)
+          .add("canceled", canceled)
+          .toString();
+    }
+  }
+
   /**
    * Deserializer needed because stamp Date format is different in open_order response and causes
    * default GSON parsing to barf.
@@ -761,9 +866,35 @@ public class BitstampExchangeAdapter extends AbstractExchangeAdapter implements
     }
   }
 
-  private ExchangeHttpResponse sendAuthenticatedRequestToExchange(
-      String apiMethod, Map<String, String> params)
+  private <T> T sendPublicRequestToExchangeStreaming(
+      String apiMethod, ExchangeResponseStreamParser<T> responseParser)
       throws ExchangeNetworkException, TradingApiException {
+    try {
+      final URL url = new URL(API_BASE_URL + apiMethod);
+      return sendNetworkRequestStreaming(url, "GET", null, createHeaderParamMap(), responseParser);
+
+    } catch (MalformedURLException e) {
+      final String errorMsg = UNEXPECTED_IO_ERROR_MSG;
+      LOG.error(errorMsg, e);
+      throw new TradingApiException(errorMsg, e);
+    }
+  }
+
+  private CompletableFuture<ExchangeHttpResponse> sendPublicRequestToExchangeAsync(
+      String apiMethod) {
+    try {
+      final URL url = new URL(API_BASE_URL + apiMethod);
+      return sendNetworkRequestAsync(url, "GET", null, createHeaderParamMap());
+
+    } catch (MalformedURLException e) {
+      final String errorMsg = UNEXPECTED_IO_ERROR_MSG;
+      LOG.error(errorMsg, e);
+      return CompletableFuture.failedFuture(new TradingApiException(errorMsg, e));
+    }
+  }
+
+  private synchronized CompletableFuture<ExchangeHttpResponse>
+      sendAuthenticatedRequestToExchangeAsync(String apiMethod, Map<String, String> params) {
 
     if (!initializedMacAuthentication) {
       final String errorMsg = "MAC Message security layer has not been initialized.";
@@ -777,15 +908,12 @@ public class BitstampExchangeAdapter extends AbstractExchangeAdapter implements
         params = createRequestParamMap();
       }
 
+      final long nonce = nonceProvider.next();
       params.put("key", key);
       params.put("nonce", Long.toString(nonce));
 
       // Create MAC message for signature
       // message = nonce + client_id + api_key
-      mac.reset(); // force reset
-      mac.update(String.valueOf(nonce).getBytes(StandardCharsets.UTF_8));
-      mac.update(clientId.getBytes(StandardCharsets.UTF_8));
-      mac.update(key.getBytes(StandardCharsets.UTF_8));
 
       /*
        * Signature is a HMAC-SHA256 encoded message containing: nonce, client ID and API key.
@@ -795,12 +923,11 @@ public class BitstampExchangeAdapter extends AbstractExchangeAdapter implements
        *
        * signature = hmac.new(API_SECRET, msg=message, digestmod=hashlib.sha256).hexdigest().upper()
        */
-      final String signature = toHex(mac.doFinal()).toUpperCase();
+      final String signature =
+          RequestSigner.toHex(requestSigner.sign(Long.toString(nonce), clientId, key))
+              .toUpperCase();
       params.put("signature", signature);
 
-      // increment ready for next call...
-      nonce++;
-
       // Build the URL with query param args in it
       final StringBuilder postData = new StringBuilder();
       for (final Map.Entry<String, String> param : params.entrySet()) {
@@ -818,23 +945,15 @@ public class BitstampExchangeAdapter extends AbstractExchangeAdapter implements
 
       // MUST have the trailing slash else exchange barfs...
       final URL url = new URL(API_BASE_URL + apiMethod + "/");
-      return makeNetworkRequest(url, "POST", postData.toString(), requestHeaders);
+      return makeNetworkRequestAsync(url, "POST", postData.toString(), requestHeaders);
 
     } catch (MalformedURLException e) {
       final String errorMsg = UNEXPECTED_IO_ERROR_MSG;
       LOG.error(errorMsg, e);
-      throw new TradingApiException(errorMsg, e);
+      return CompletableFuture.failedFuture(new TradingApiException(errorMsg, e));
     }
   }
 
-  private String toHex(byte[] byteArrayToConvert) {
-    final StringBuilder hexString = new StringBuilder();
-    for (final byte aByte : byteArrayToConvert) {
-      hexString.append(String.format("%02x", aByte & 0xff));
-    }
-    return hexString.toString();
-  }
-
   /*
    * Initialises the secure messaging layer.
    * Sets up the MAC to safeguard the data we send to the exchange.
@@ -843,10 +962,7 @@ public class BitstampExchangeAdapter extends AbstractExchangeAdapter implements
    */
   private void initSecureMessageLayer() {
     try {
-      final SecretKeySpec keyspec =
-          new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
-      mac = Mac.getInstance("HmacSHA256");
-      mac.init(keyspec);
+      requestSigner = RequestSigner.create("HmacSHA256", secret.getBytes(StandardCharsets.UTF_8));
       initializedMacAuthentication = true;
     } catch (NoSuchAlgorithmException e) {
       final String errorMsg = "Failed to setup MAC security. HINT: Is HMAC-SHA256 installed?";
@@ -870,10 +986,139 @@ public class BitstampExchangeAdapter extends AbstractExchangeAdapter implements
     secret = getAuthenticationConfigItem(authenticationConfig, SECRET_PROPERTY_NAME);
   }
 
+  private void setOtherConfig(ExchangeConfig exchangeConfig) {
+    // other config is optional for this adapter
+    final OtherConfig otherConfig = exchangeConfig.getOtherConfig();
+    setStreamingOrderBookParsing(otherConfig);
+    nonceProvider = createNonceProvider(TimeUnit.MILLISECONDS, otherConfig);
+    if (otherConfig == null) {
+      return;
+    }
+    final String feeRefreshInterval = otherConfig.getItem(FEE_REFRESH_INTERVAL_PROPERTY_NAME);
+    if (feeRefreshInterval != null) {
+      feeRefreshIntervalNanos =
+          TimeUnit.SECONDS.toNanos(getFeeRefreshIntervalInSecs(feeRefreshInterval));
+      LOG.info(() -> "Exchange fees will be refreshed every " + feeRefreshInterval + " secs");
+    }
+  }
+
+  private static long getFeeRefreshIntervalInSecs(String feeRefreshInterval) {
+    final String errorMsg =
+        FEE_REFRESH_INTERVAL_PROPERTY_NAME
+            + " must be a whole number of seconds greater than 0. Value: "
+            + feeRefreshInterval;
+    final long feeRefreshIntervalInSecs;
+    try {
+      feeRefreshIntervalInSecs = Long.parseLong(feeRefreshInterval);
+    } catch (NumberFormatException e) {
+      LOG.error(errorMsg, e);
+      throw new IllegalArgumentException(errorMsg, e);
+    }
+    if (feeRefreshIntervalInSecs <= 0) {
+      LOG.error(errorMsg);
+      throw new IllegalArgumentException(errorMsg);
+    }
+    return feeRefreshIntervalInSecs;
+  }
+
   // --------------------------------------------------------------------------
   //  Util methods
   // --------------------------------------------------------------------------
 
+  private BigDecimal getExchangeFee(String marketId)
+      throws TradingApiException, ExchangeNetworkException {
+    try {
+      ExchangeFees fees = exchangeFees;
+      if (fees == null || fees.isStale(System.nanoTime())) {
+        fees = refreshExchangeFees(fees);
+      }
+
+      final BigDecimal fee = fees.feesByMarket.get(marketId);
+      if (fee == null) {
+        final String errorMsg =
+            "Unable to map marketId to currency balances returned from the Exchange. "
+                + "MarketId: "
+                + marketId
+                + " Fees: "
+                + fees.feesByMarket;
+        LOG.error(errorMsg);
+        throw new IllegalArgumentException(errorMsg);
+      }
+      return fee;
+
+    } catch (ExchangeNetworkException | TradingApiException e) {
+      throw e;
+
+    } catch (Exception e) {
+      LOG.error(UNEXPECTED_ERROR_MSG, e);
+      throw new TradingApiException(UNEXPECTED_ERROR_MSG, e);
+    }
+  }
+
+  /*
+   * Fetches the fees, unless another thread refreshed them while this one waited for the lock.
+   */
+  private ExchangeFees refreshExchangeFees(ExchangeFees staleFees)
+      throws TradingApiException, ExchangeNetworkException {
+    synchronized (feeRefreshLock) {
+      final ExchangeFees currentFees = exchangeFees;
+      if (currentFees != null && currentFees != staleFees) {
+        return currentFees;
+      }
+      final ExchangeHttpResponse response = sendAuthenticatedRequestToExchange(BALANCE, null);
+      LOG.debug(() -> "Fee response: " + response);
+      return updateExchangeFees(gson.fromJson(response.getPayload(), BitstampBalance.class));
+    }
+  }
+
+  private ExchangeFees updateExchangeFees(BitstampBalance balances) {
+    final Map<String, BigDecimal> feesByMarket = new HashMap<>();
+    for (final Map.Entry<String, Function<BitstampBalance, BigDecimal>> feeField :
+        FEE_FIELDS.entrySet()) {
+      final BigDecimal fee = feeField.getValue().apply(balances);
+      if (fee != null) {
+        // adapt the % into BigDecimal format
+        feesByMarket.put(
+            feeField.getKey(), fee.divide(new BigDecimal("100"), 8, RoundingMode.HALF_UP));
+      }
+    }
+    final ExchangeFees fees =
+        new ExchangeFees(feesByMarket, System.nanoTime() + feeRefreshIntervalNanos);
+    exchangeFees = fees;
+    return fees;
+  }
+
+  private MarketOrderBook adaptBitstampOrderBook(String marketId, ExchangeHttpResponse response) {
+    final BitstampOrderBook bitstampOrderBook =
+        gson.fromJson(response.getPayload(), BitstampOrderBook.class);
+
+    final List<MarketOrder> buyOrders = new ArrayList<>();
+    final List<List<BigDecimal>> bitstampBuyOrders = bitstampOrderBook.bids;
+    for (final List<BigDecimal> order : bitstampBuyOrders) {
+      final MarketOrder buyOrder =
+          new MarketOrderImpl(
+              OrderType.BUY,
+              order.get(0), // price
+              order.get(1), // quantity
+              order.get(0).multiply(order.get(1)));
+      buyOrders.add(buyOrder);
+    }
+
+    final List<MarketOrder> sellOrders = new ArrayList<>();
+    final List<List<BigDecimal>> bitstampSellOrders = bitstampOrderBook.asks;
+    for (final List<BigDecimal> order : bitstampSellOrders) {
+      final MarketOrder sellOrder =
+          new MarketOrderImpl(
+              OrderType.SELL,
+              order.get(0), // price
+              order.get(1), // quantity
+              order.get(0).multiply(order.get(1)));
+      sellOrders.add(sellOrder);
+    }
+
+    return new MarketOrderBookImpl(marketId, sellOrders, buyOrders);
+  }
+
   private void initGson() {
     final GsonBuilder gsonBuilder = new GsonBuilder();
     gsonBuilder.registerTypeAdapter(Date.class, new BitstampDateDeserializer());
@@ -887,6 +1132,18 @@ public class BitstampExchangeAdapter extends AbstractExchangeAdapter implements
     return new HashMap<>();
   }
 
+  /*
+   * Balance requests go to the "balance" endpoint.
+   */
+  @Override
+  ExchangeOperation getExchangeOperation(
+      URL url, String httpMethod, Map<String, String> requestHeaders) {
+    final String path = url.getPath();
+    return path.endsWith("/" + BALANCE + "/")
+        ? ExchangeOperation.BALANCE
+        : super.getExchangeOperation(url, httpMethod, requestHeaders);
+  }
+
   /*
    * Hack for unit-testing header params passed to transport layer.
    */
@@ -902,4 +1159,27 @@ public class BitstampExchangeAdapter extends AbstractExchangeAdapter implements
       throws TradingApiException, ExchangeNetworkException {
     return super.sendNetworkRequest(url, httpMethod, postData, requestHeaders);
   }
+
+  /*
+   * Hack for unit-testing transport layer.
+   */
+  private CompletableFuture<ExchangeHttpResponse> makeNetworkRequestAsync(
+      URL url, String httpMethod, String postData, Map<String, String> requestHeaders) {
+    return super.sendNonceOrderedRequestAsync(url, httpMethod, postData, requestHeaders);
+  }
+
+  /** The fees for all markets, as fetched from the exchange. */
+  private static final class ExchangeFees {
+    private final Map<String, BigDecimal> feesByMarket;
+    private final long refreshAt;
+
+    private ExchangeFees(Map<String, BigDecimal> feesByMarket, long refreshAt) {
+      this.feesByMarket = feesByMarket;
+      this.refreshAt = refreshAt;
+    }
+
+    boolean isStale(long now) {
+      return now - refreshAt >= 0;
+    }
+  }
 }
@@ -0,0 +1,313 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.exchanges;
+
+import com.gazbert.bxbot.exchange.api.CircuitBreakerConfig;
+import com.google.common.base.MoreObjects;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Stops an adapter sending requests to exchange API endpoints that keep failing.
+ *
+ * <p>Each endpoint has its own circuit, which starts closed. The outcomes of the endpoint's most
+ * recent requests are kept in a window; once it holds the minimum number of requests and the
+ * failure rate reaches the threshold, the circuit opens. Requests to an open circuit are rejected
+ * straight away instead of waiting for the connection timeout. Once the cooldown has passed, the
+ * circuit goes half open and lets a single probe request through: if it succeeds the circuit
+ * closes, otherwise it opens for another cooldown.
+ *
+ * <p>Only network errors count as failures. An error response from a healthy exchange, e.g.
+ * insufficient funds, does not.
+ *
+ * @author gazbert
+ */
+final class ExchangeCircuitBreaker {
+
+  private static final Logger LOG = LogManager.getLogger();
+
+  /** Failure rate threshold, as a percentage, if none is configured. */
+  static final int DEFAULT_FAILURE_RATE_THRESHOLD = 50;
+
+  /** Number of requests the failure rate is calculated over if none is configured. */
+  static final int DEFAULT_WINDOW_SIZE = 10;
+
+  /** Number of requests before a circuit can open if none is configured. */
+  static final int DEFAULT_MINIMUM_REQUESTS = 5;
+
+  /** Time a circuit stays open before a probe request is let through if none is configured. */
+  static final int DEFAULT_COOLDOWN_SECONDS = 60;
+
+  /** The state of an endpoint's circuit. */
+  enum State {
+    CLOSED,
+    OPEN,
+    HALF_OPEN
+  }
+
+  private final int failureRateThreshold;
+  private final int windowSize;
+  private final int minimumRequests;
+  private final long cooldownNanos;
+  private final LongSupplier nanoClock;
+
+  private final ConcurrentMap<String, Circuit> circuits = new ConcurrentHashMap<>();
+  private final LongAdder rejectedRequestCount = new LongAdder();
+
+  private ExchangeCircuitBreaker(
+      int failureRateThreshold,
+      int windowSize,
+      int minimumRequests,
+      long cooldownNanos,
+      LongSupplier nanoClock) {
+    this.failureRateThreshold = failureRateThreshold;
+    this.windowSize = windowSize;
+    this.minimumRequests = minimumRequests;
+    this.cooldownNanos = cooldownNanos;
+    this.nanoClock = nanoClock;
+  }
+
+  /**
+   * Creates a circuit breaker from the adapter's config.
+   *
+   * @param circuitBreakerConfig the circuit breaker config.
+   * @return the circuit breaker.
+   */
+  static ExchangeCircuitBreaker create(CircuitBreakerConfig circuitBreakerConfig) {
+    return create(circuitBreakerConfig, System::nanoTime);
+  }
+
+  /**
+   * Creates a circuit breaker from the adapter's config that uses the given clock.
+   *
+   * @param circuitBreakerConfig the circuit breaker config.
+   * @param nanoClock the clock, in nanos.
+   * @return the circuit breaker.
+   */
+  static ExchangeCircuitBreaker create(
+      CircuitBreakerConfig circuitBreakerConfig, LongSupplier nanoClock) {
+    final int failureRateThreshold =
+        getOrDefault(
+            circuitBreakerConfig.getFailureRateThreshold(), DEFAULT_FAILURE_RATE_THRESHOLD);
+    final int windowSize = getOrDefault(circuitBreakerConfig.getWindowSize(), DEFAULT_WINDOW_SIZE);
+    final int minimumRequests =
+        getOrDefault(circuitBreakerConfig.getMinimumRequests(), DEFAULT_MINIMUM_REQUESTS);
+    final int cooldownSeconds =
+        getOrDefault(circuitBreakerConfig.getCooldownSeconds(), DEFAULT_COOLDOWN_SECONDS);
+
+    if (failureRateThreshold < 1
+        || failureRateThreshold > 100
+        || windowSize < 1
+        || minimumRequests < 1
+        || cooldownSeconds < 1) {
+      throw new IllegalArgumentException(
+          "Circuit breaker failure rate threshold must be between 1 and 100, and window size, "
+              + "minimum requests and cooldown must be 1 or more. Config: "
+              + circuitBreakerConfig);
+    }
+    return new ExchangeCircuitBreaker(
+        failureRateThreshold,
+        windowSize,
+        Math.min(minimumRequests, windowSize),
+        TimeUnit.SECONDS.toNanos(cooldownSeconds),
+        nanoClock);
+  }
+
+  /**
+   * Asks if a request can be sent to an endpoint. If true is returned, the caller must report the
+   * outcome of the request by calling {@link #onSuccess(String)} or {@link #onFailure(String)}.
+   *
+   * @param endpoint the endpoint, e.g. the request URL's path.
+   * @return true if the request can be sent, false if it must fail fast.
+   */
+  boolean tryAcquire(String endpoint) {
+    final boolean acquired =
+        circuits.computeIfAbsent(endpoint, key -> new Circuit()).tryAcquire(nanoClock.getAsLong());
+    if (!acquired) {
+      rejectedRequestCount.increment();
+    }
+    return acquired;
+  }
+
+  /**
+   * Reports that a request to an endpoint got a response from the exchange.
+   *
+   * @param endpoint the endpoint.
+   */
+  void onSuccess(String endpoint) {
+    final Circuit circuit = circuits.get(endpoint);
+    if (circuit != null && circuit.onSuccess()) {
+      LOG.info(() -> "Circuit breaker closed for Exchange endpoint: " + endpoint);
+    }
+  }
+
+  /**
+   * Reports that a request to an endpoint failed with a network error.
+   *
+   * @param endpoint the endpoint.
+   */
+  void onFailure(String endpoint) {
+    final Circuit circuit = circuits.get(endpoint);
+    if (circuit != null && circuit.onFailure(nanoClock.getAsLong())) {
+      LOG.warn(
+          () ->
+              "Circuit breaker opened for Exchange endpoint: "
+                  + endpoint
+                  + " - requests to it will fail fast for the next "
+                  + TimeUnit.NANOSECONDS.toSeconds(cooldownNanos)
+                  + "s");
+    }
+  }
+
+  /**
+   * Returns the state of each endpoint's circuit.
+   *
+   * @return the circuit states, keyed and sorted by endpoint.
+   */
+  Map<String, State> getStates() {
+    final Map<String, State> states = new TreeMap<>();
+    final long now = nanoClock.getAsLong();
+    circuits.forEach((endpoint, circuit) -> states.put(endpoint, circuit.getState(now)));
+    return states;
+  }
+
+  /** Returns the number of requests rejected because their circuit was open. */
+  long getRejectedRequestCount() {
+    return rejectedRequestCount.sum();
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("failureRateThreshold", failureRateThreshold)
+        .add("windowSize", windowSize)
+        .add("minimumRequests", minimumRequests)
+        .add("cooldownSeconds", TimeUnit.NANOSECONDS.toSeconds(cooldownNanos))
+        .add("rejectedRequestCount", getRejectedRequestCount())
+        .toString();
+  }
+
+  private static int getOrDefault(Integer value, int defaultValue) {
+    return value == null ? defaultValue : value;
+  }
+
+  /** An endpoint's circuit. The outcomes window is a ring buffer: true for a failure. */
+  private final class Circuit {
+
+    private final boolean[] outcomes = new boolean[windowSize];
+    private int nextOutcome;
+    private int requestCount;
+    private int failureCount;
+
+    private State state = State.CLOSED;
+    private long openedAtNanos;
+    private boolean probeInFlight;
+
+    synchronized boolean tryAcquire(long now) {
+      if (state == State.CLOSED) {
+        return true;
+      }
+      if (state == State.OPEN && now - openedAtNanos >= cooldownNanos) {
+        state = State.HALF_OPEN;
+        probeInFlight = false;
+      }
+      if (state == State.HALF_OPEN && !probeInFlight) {
+        probeInFlight = true;
+        return true;
+      }
+      return false;
+    }
+
+    /* Returns true if the circuit was closed by the probe succeeding. */
+    synchronized boolean onSuccess() {
+      if (state == State.HALF_OPEN) {
+        close();
+        return true;
+      }
+      if (state == State.CLOSED) {
+        record(false);
+      }
+      return false;
+    }
+
+    /* Returns true if the circuit was opened by the failure. */
+    synchronized boolean onFailure(long now) {
+      if (state == State.HALF_OPEN) {
+        open(now);
+        return true;
+      }
+      if (state == State.CLOSED) {
+        record(true);
+        if (requestCount >= minimumRequests
+            && failureCount * 100 >= failureRateThreshold * requestCount) {
+          open(now);
+          return true;
+        }
+      }
+      return false;
+    }
+
+    synchronized State getState(long now) {
+      return state == State.OPEN && now - openedAtNanos >= cooldownNanos
+          ? State.HALF_OPEN
+          : state;
+    }
+
+    private void record(boolean failure) {
+      if (requestCount == windowSize) {
+        if (outcomes[nextOutcome]) {
+          failureCount--;
+        }
+      } else {
+        requestCount++;
+      }
+      outcomes[nextOutcome] = failure;
+      if (failure) {
+        failureCount++;
+      }
+      nextOutcome = (nextOutcome + 1) % windowSize;
+    }
+
+    private void open(long now) {
+      state = State.OPEN;
+      openedAtNanos = now;
+      probeInFlight = false;
+    }
+
+    private void close() {
+      state = State.CLOSED;
+      probeInFlight = false;
+      requestCount = 0;
+      failureCount = 0;
+      nextOutcome = 0;
+    }
+  }
+}
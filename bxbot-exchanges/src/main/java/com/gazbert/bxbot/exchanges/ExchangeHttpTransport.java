@@ -0,0 +1,136 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.exchanges;
+
+import com.gazbert.bxbot.exchanges.AbstractExchangeAdapter.ExchangeHttpResponse;
+import com.gazbert.bxbot.exchanges.AbstractExchangeAdapter.ExchangeHttpStreamResponse;
+import java.io.IOException;
+import java.net.URL;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The transport used by Exchange Adapters to send HTTP requests to the exchange.
+ *
+ * <p>Implementations must be thread safe; a single transport instance is shared by all of an
+ * adapter's requests. The transport only moves bytes: mapping failures onto {@link
+ * com.gazbert.bxbot.trading.api.ExchangeNetworkException} and {@link
+ * com.gazbert.bxbot.trading.api.TradingApiException} is done by {@link AbstractExchangeAdapter}.
+ *
+ * @author gazbert
+ */
+interface ExchangeHttpTransport {
+
+  /**
+   * Sends a request to the exchange and returns its response, whatever the HTTP status code.
+   *
+   * @param url the URL to invoke.
+   * @param httpMethod the HTTP method to use, e.g. GET, POST, DELETE
+   * @param postData optional post data to send. This can be null.
+   * @param requestHeaders the request headers to set.
+   * @param timeout how long to wait for the response, body included.
+   * @return the response from the exchange.
+   * @throws IOException if the request could not be sent or the response could not be read.
+   * @throws InterruptedException if the calling thread was interrupted waiting for the response.
+   */
+  ExchangeHttpResponse send(
+      URL url,
+      String httpMethod,
+      String postData,
+      Map<String, String> requestHeaders,
+      Duration timeout)
+      throws IOException, InterruptedException;
+
+  /**
+   * Sends a request to the exchange without blocking the calling thread. The returned future
+   * completes with the response, whatever the HTTP status code, or exceptionally with the {@link
+   * IOException} that prevented a response being received.
+   *
+   * @param url the URL to invoke.
+   * @param httpMethod the HTTP method to use, e.g. GET, POST, DELETE
+   * @param postData optional post data to send. This can be null.
+   * @param requestHeaders the request headers to set.
+   * @param timeout how long to wait for the response, body included.
+   * @return a future for the response from the exchange.
+   */
+  CompletableFuture<ExchangeHttpResponse> sendAsync(
+      URL url,
+      String httpMethod,
+      String postData,
+      Map<String, String> requestHeaders,
+      Duration timeout);
+
+  /**
+   * Sends a request to the exchange and returns as soon as the response headers have arrived. The
+   * body is left on the wire for the caller to read, so it is never buffered into a String.
+   *
+   * <p>The caller must close the returned response to release the connection.
+   *
+   * @param url the URL to invoke.
+   * @param httpMethod the HTTP method to use, e.g. GET, POST, DELETE
+   * @param postData optional post data to send. This can be null.
+   * @param requestHeaders the request headers to set.
+   * @param timeout how long to wait for the response. Reading the body fails once it has passed.
+   * @return the response from the exchange, with its unread body.
+   * @throws IOException if the request could not be sent or the response could not be read.
+   * @throws InterruptedException if the calling thread was interrupted waiting for the response.
+   */
+  ExchangeHttpStreamResponse sendStreaming(
+      URL url,
+      String httpMethod,
+      String postData,
+      Map<String, String> requestHeaders,
+      Duration timeout)
+      throws IOException, InterruptedException;
+
+  /**
+   * Sends a request to the exchange without blocking the calling thread. The returned future
+   * completes as soon as the response headers have arrived, with the body left on the wire for the
+   * caller to read, or exceptionally with the {@link IOException} that prevented a response being
+   * received.
+   *
+   * <p>The caller must close the response to release the connection.
+   *
+   * @param url the URL to invoke.
+   * @param httpMethod the HTTP method to use, e.g. GET, POST, DELETE
+   * @param postData optional post data to send. This can be null.
+   * @param requestHeaders the request headers to set.
+   * @param timeout how long to wait for the response. Reading the body fails once it has passed.
+   * @return a future for the response from the exchange, with its unread body.
+   */
+  CompletableFuture<ExchangeHttpStreamResponse> sendStreamingAsync(
+      URL url,
+      String httpMethod,
+      String postData,
+      Map<String, String> requestHeaders,
+      Duration timeout);
+
+  /**
+   * Returns a snapshot of the transport's statistics.
+   *
+   * @return the transport statistics.
+   */
+  HttpTransportStatistics getStatistics();
+}
@@ -0,0 +1,249 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.exchanges;
+
+import com.gazbert.bxbot.exchange.api.RateLimitConfig;
+import com.google.common.base.MoreObjects;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps the requests an adapter sends within the exchange's rate limits.
+ *
+ * <p>Requests to the public and private APIs are charged to separate token buckets. A bucket starts
+ * full, and each request takes its cost from it; if the bucket does not hold enough tokens, the
+ * request must wait until enough have been added back. This models a request counter that decays
+ * over time too, e.g. Kraken's: the counter is the bucket's capacity minus the tokens left in it.
+ *
+ * <p>Callers reserve tokens before sending a request and are told how long to wait, so the
+ * limiter never blocks a thread itself. Reservations are granted in order, so a request that has
+ * to wait does not let later requests jump ahead of it.
+ *
+ * @author gazbert
+ */
+final class ExchangeRateLimiter {
+
+  private static final int DEFAULT_METHOD_COST = 1;
+
+  private final TokenBucket publicApiBucket;
+  private final TokenBucket privateApiBucket;
+  private final Map<String, Integer> methodCosts;
+
+  private final LongAdder throttledRequestCount = new LongAdder();
+  private final LongAdder throttledNanos = new LongAdder();
+
+  private ExchangeRateLimiter(
+      TokenBucket publicApiBucket, TokenBucket privateApiBucket, Map<String, Integer> methodCosts) {
+    this.publicApiBucket = publicApiBucket;
+    this.privateApiBucket = privateApiBucket;
+    this.methodCosts = methodCosts;
+  }
+
+  /**
+   * Creates a rate limiter from the adapter's config.
+   *
+   * @param rateLimitConfig the rate limit config.
+   * @return the rate limiter, or null if no limits are set.
+   */
+  static ExchangeRateLimiter create(RateLimitConfig rateLimitConfig) {
+    return create(rateLimitConfig, System::nanoTime);
+  }
+
+  /**
+   * Creates a rate limiter from the adapter's config that uses the given clock.
+   *
+   * @param rateLimitConfig the rate limit config.
+   * @param nanoClock the clock, in nanos.
+   * @return the rate limiter, or null if no limits are set.
+   */
+  static ExchangeRateLimiter create(RateLimitConfig rateLimitConfig, LongSupplier nanoClock) {
+    final TokenBucket publicApiBucket =
+        createTokenBucket(
+            rateLimitConfig.getPublicApiCapacity(),
+            rateLimitConfig.getPublicApiRefillPerSecond(),
+            nanoClock);
+    final TokenBucket privateApiBucket =
+        createTokenBucket(
+            rateLimitConfig.getPrivateApiCapacity(),
+            rateLimitConfig.getPrivateApiRefillPerSecond(),
+            nanoClock);
+    if (publicApiBucket == null && privateApiBucket == null) {
+      return null;
+    }
+
+    final Map<String, Integer> methodCosts = new HashMap<>();
+    if (rateLimitConfig.getMethodCosts() != null) {
+      methodCosts.putAll(rateLimitConfig.getMethodCosts());
+    }
+    return new ExchangeRateLimiter(
+        publicApiBucket,
+        privateApiBucket == null ? publicApiBucket : privateApiBucket,
+        methodCosts);
+  }
+
+  /**
+   * Reserves the tokens needed to send a request.
+   *
+   * @param url the request URL. Its path is matched against the API method costs.
+   * @param privateApi true if the request is to the exchange's private API.
+   * @return the time in nanos the caller must wait before sending the request; 0 if it can be sent
+   *     now.
+   */
+  long reserve(URL url, boolean privateApi) {
+    final TokenBucket bucket = privateApi ? privateApiBucket : publicApiBucket;
+    if (bucket == null) {
+      return 0;
+    }
+    final long waitNanos = bucket.reserve(getMethodCost(url.getPath()));
+    if (waitNanos > 0) {
+      throttledRequestCount.increment();
+      throttledNanos.add(waitNanos);
+    }
+    return waitNanos;
+  }
+
+  /**
+   * Takes the tokens needed to send a request only if the bucket holds them now. Used for optional
+   * requests, e.g. hedges, that must not wait or make other requests wait.
+   *
+   * @param url the request URL. Its path is matched against the API method costs.
+   * @param privateApi true if the request is to the exchange's private API.
+   * @return true if the tokens were taken and the request can be sent now.
+   */
+  boolean tryReserve(URL url, boolean privateApi) {
+    final TokenBucket bucket = privateApi ? privateApiBucket : publicApiBucket;
+    return bucket == null || bucket.tryReserve(getMethodCost(url.getPath()));
+  }
+
+  /** Returns the number of requests that have had to wait for the rate limit. */
+  long getThrottledRequestCount() {
+    return throttledRequestCount.sum();
+  }
+
+  /** Returns the total time in millis requests have had to wait for the rate limit. */
+  long getThrottledMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(throttledNanos.sum());
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("publicApiBucket", publicApiBucket)
+        .add("privateApiBucket", privateApiBucket)
+        .add("methodCosts", methodCosts)
+        .add("throttledRequestCount", getThrottledRequestCount())
+        .add("throttledMillis", getThrottledMillis())
+        .toString();
+  }
+
+  /*
+   * Returns the cost of the first path segment that is a known API method, e.g. Ledgers in
+   * /0/private/Ledgers, or the default cost if there is none.
+   */
+  private int getMethodCost(String path) {
+    if (methodCosts.isEmpty()) {
+      return DEFAULT_METHOD_COST;
+    }
+    int segmentStart = 0;
+    while (segmentStart < path.length()) {
+      int segmentEnd = path.indexOf('/', segmentStart);
+      if (segmentEnd < 0) {
+        segmentEnd = path.length();
+      }
+      final Integer cost = methodCosts.get(path.substring(segmentStart, segmentEnd));
+      if (cost != null) {
+        return cost;
+      }
+      segmentStart = segmentEnd + 1;
+    }
+    return DEFAULT_METHOD_COST;
+  }
+
+  private static TokenBucket createTokenBucket(
+      Integer capacity, Double refillPerSecond, LongSupplier nanoClock) {
+    if (capacity == null || refillPerSecond == null) {
+      return null;
+    }
+    if (capacity < 1 || refillPerSecond <= 0) {
+      throw new IllegalArgumentException(
+          "Rate limit capacity must be 1 or more and refill per second must be more than 0. "
+              + "Capacity: "
+              + capacity
+              + " Refill per second: "
+              + refillPerSecond);
+    }
+    return new TokenBucket(capacity, refillPerSecond, nanoClock);
+  }
+
+  /** A token bucket that lets callers go into debt, so waiting requests are queued in order. */
+  private static final class TokenBucket {
+
+    private final double capacity;
+    private final double refillPerNano;
+    private final LongSupplier nanoClock;
+
+    private double tokens;
+    private long lastRefillNanos;
+
+    TokenBucket(int capacity, double refillPerSecond, LongSupplier nanoClock) {
+      this.capacity = capacity;
+      this.refillPerNano = refillPerSecond / TimeUnit.SECONDS.toNanos(1);
+      this.nanoClock = nanoClock;
+      tokens = capacity;
+      lastRefillNanos = nanoClock.getAsLong();
+    }
+
+    synchronized long reserve(int cost) {
+      final long now = nanoClock.getAsLong();
+      tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * refillPerNano);
+      lastRefillNanos = now;
+      tokens -= cost;
+      return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / refillPerNano);
+    }
+
+    synchronized boolean tryReserve(int cost) {
+      final long now = nanoClock.getAsLong();
+      tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * refillPerNano);
+      lastRefillNanos = now;
+      if (tokens < cost) {
+        return false;
+      }
+      tokens -= cost;
+      return true;
+    }
+
+    @Override
+    public synchronized String toString() {
+      return MoreObjects.toStringHelper(this)
+          .add("capacity", capacity)
+          .add("refillPerSecond", refillPerNano * TimeUnit.SECONDS.toNanos(1))
+          .add("tokens", tokens)
+          .toString();
+    }
+  }
+}
@@ -0,0 +1,297 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.exchanges;
+
+import com.gazbert.bxbot.exchange.api.HedgingConfig;
+import com.google.common.base.MoreObjects;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Hedges requests to exchange API endpoints that occasionally stall.
+ *
+ * <p>The response times of each endpoint's most recent requests are kept in a window. If a request
+ * has not been answered within the configured percentile of them, a second, identical request is
+ * sent and whichever answers first is used; the other response is discarded. An endpoint's
+ * requests are only hedged once it has enough response times for the percentile to mean anything.
+ *
+ * <p>The budget caps the hedged requests as a percentage of all requests: each request adds a
+ * fraction of a hedge to the budget, and each hedge takes a whole one. Callers must only pass
+ * requests that are safe to send twice.
+ *
+ * @author gazbert
+ */
+final class ExchangeRequestHedger {
+
+  private static final Logger LOG = LogManager.getLogger();
+
+  /** Percentile of response times to wait for before hedging if none is configured. */
+  static final int DEFAULT_LATENCY_PERCENTILE = 95;
+
+  /** Maximum hedged requests, as a percentage of all requests, if none is configured. */
+  static final int DEFAULT_BUDGET_PERCENT = 10;
+
+  /** Minimum time to wait before hedging if none is configured. */
+  static final int DEFAULT_MIN_DELAY_MILLIS = 20;
+
+  /** Number of response times the percentile is calculated over if none is configured. */
+  static final int DEFAULT_WINDOW_SIZE = 100;
+
+  /** Number of response times an endpoint needs before its requests are hedged. */
+  static final int MINIMUM_SAMPLES = 20;
+
+  /** Most hedges the budget can save up, so a quiet spell cannot fund a burst of them. */
+  private static final double MAX_BUDGET = 10;
+
+  private final int latencyPercentile;
+  private final double budgetPerRequest;
+  private final long minDelayNanos;
+  private final int windowSize;
+
+  private final ConcurrentMap<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+  private final LongAdder hedgedRequestCount = new LongAdder();
+  private final LongAdder hedgeWinCount = new LongAdder();
+  private double budget;
+
+  private ExchangeRequestHedger(
+      int latencyPercentile, int budgetPercent, long minDelayNanos, int windowSize) {
+    this.latencyPercentile = latencyPercentile;
+    this.budgetPerRequest = budgetPercent / 100.0;
+    this.minDelayNanos = minDelayNanos;
+    this.windowSize = windowSize;
+  }
+
+  /**
+   * Creates a request hedger from the adapter's config.
+   *
+   * @param hedgingConfig the hedging config.
+   * @return the request hedger.
+   */
+  static ExchangeRequestHedger create(HedgingConfig hedgingConfig) {
+    final int latencyPercentile =
+        getOrDefault(hedgingConfig.getLatencyPercentile(), DEFAULT_LATENCY_PERCENTILE);
+    final int budgetPercent =
+        getOrDefault(hedgingConfig.getBudgetPercent(), DEFAULT_BUDGET_PERCENT);
+    final int minDelayMillis =
+        getOrDefault(hedgingConfig.getMinDelayMillis(), DEFAULT_MIN_DELAY_MILLIS);
+    final int windowSize = getOrDefault(hedgingConfig.getWindowSize(), DEFAULT_WINDOW_SIZE);
+
+    if (latencyPercentile < 1
+        || latencyPercentile > 99
+        || budgetPercent < 1
+        || budgetPercent > 100
+        || minDelayMillis < 1
+        || windowSize < 1) {
+      throw new IllegalArgumentException(
+          "Hedging latency percentile must be between 1 and 99, budget percent must be between 1 "
+              + "and 100, and minimum delay and window size must be 1 or more. Config: "
+              + hedgingConfig);
+    }
+    return new ExchangeRequestHedger(
+        latencyPercentile,
+        budgetPercent,
+        TimeUnit.MILLISECONDS.toNanos(minDelayMillis),
+        windowSize);
+  }
+
+  /**
+   * Sends a request, and sends it again if it is not answered within the endpoint's hedge delay.
+   *
+   * @param endpoint the endpoint, e.g. the request URL's path.
+   * @param request sends the request and returns its response.
+   * @param hedgePermit asked just before a hedge is sent; returns false if it must not be, e.g.
+   *     because the rate limit has no room for it.
+   * @param discard releases a response that lost the race, e.g. by closing its body.
+   * @param <T> the response type.
+   * @return the first response, or the last error if every request failed.
+   */
+  <T> CompletableFuture<T> send(
+      String endpoint,
+      Supplier<CompletableFuture<T>> request,
+      BooleanSupplier hedgePermit,
+      Consumer<T> discard) {
+    addToBudget();
+    final long hedgeDelayNanos = getHedgeDelayNanos(endpoint);
+    final CompletableFuture<T> result = new CompletableFuture<>();
+    final AtomicBoolean answered = new AtomicBoolean();
+    final AtomicInteger pendingRequests = new AtomicInteger(1);
+    sendAttempt(endpoint, request, false, answered, pendingRequests, result, discard);
+
+    if (hedgeDelayNanos >= 0) {
+      CompletableFuture.delayedExecutor(hedgeDelayNanos, TimeUnit.NANOSECONDS)
+          .execute(
+              () -> {
+                if (result.isDone() || !takeFromBudget()) {
+                  return;
+                }
+                if (!hedgePermit.getAsBoolean()) {
+                  returnToBudget();
+                  return;
+                }
+                pendingRequests.incrementAndGet();
+                hedgedRequestCount.increment();
+                LOG.debug(
+                    () ->
+                        "Hedging API call not answered within "
+                            + TimeUnit.NANOSECONDS.toMillis(hedgeDelayNanos)
+                            + "ms: "
+                            + endpoint);
+                sendAttempt(endpoint, request, true, answered, pendingRequests, result, discard);
+              });
+    }
+    return result;
+  }
+
+  /**
+   * Returns how long to wait for a request to the endpoint before hedging it.
+   *
+   * @param endpoint the endpoint.
+   * @return the hedge delay in nanos, or -1 if the endpoint's requests are not hedged yet.
+   */
+  long getHedgeDelayNanos(String endpoint) {
+    final LatencyWindow window = latencies.get(endpoint);
+    if (window == null) {
+      return -1;
+    }
+    final long percentileNanos = window.getPercentile(latencyPercentile);
+    return percentileNanos < 0 ? -1 : Math.max(minDelayNanos, percentileNanos);
+  }
+
+  /** Returns the number of hedged requests sent. */
+  long getHedgedRequestCount() {
+    return hedgedRequestCount.sum();
+  }
+
+  /** Returns the number of hedged requests that answered before the original request. */
+  long getHedgeWinCount() {
+    return hedgeWinCount.sum();
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("latencyPercentile", latencyPercentile)
+        .add("budgetPercent", Math.round(budgetPerRequest * 100))
+        .add("minDelayMillis", TimeUnit.NANOSECONDS.toMillis(minDelayNanos))
+        .add("windowSize", windowSize)
+        .add("hedgedRequestCount", getHedgedRequestCount())
+        .add("hedgeWinCount", getHedgeWinCount())
+        .toString();
+  }
+
+  private <T> void sendAttempt(
+      String endpoint,
+      Supplier<CompletableFuture<T>> request,
+      boolean hedge,
+      AtomicBoolean answered,
+      AtomicInteger pendingRequests,
+      CompletableFuture<T> result,
+      Consumer<T> discard) {
+    final long startNanos = System.nanoTime();
+    CompletableFuture<T> response;
+    try {
+      response = request.get();
+    } catch (RuntimeException e) {
+      response = CompletableFuture.failedFuture(e);
+    }
+    response.whenComplete(
+        (value, error) -> {
+          if (error == null) {
+            latencies
+                .computeIfAbsent(endpoint, key -> new LatencyWindow())
+                .add(System.nanoTime() - startNanos);
+            if (answered.compareAndSet(false, true)) {
+              if (hedge) {
+                hedgeWinCount.increment();
+              }
+              if (!result.complete(value)) {
+                discard.accept(value);
+              }
+            } else {
+              discard.accept(value);
+            }
+          } else if (pendingRequests.decrementAndGet() == 0) {
+            result.completeExceptionally(error);
+          }
+        });
+  }
+
+  private synchronized void addToBudget() {
+    budget = Math.min(MAX_BUDGET, budget + budgetPerRequest);
+  }
+
+  private synchronized boolean takeFromBudget() {
+    if (budget < 1) {
+      return false;
+    }
+    budget--;
+    return true;
+  }
+
+  private synchronized void returnToBudget() {
+    budget++;
+  }
+
+  private static int getOrDefault(Integer value, int defaultValue) {
+    return value == null ? defaultValue : value;
+  }
+
+  /** An endpoint's most recent response times, in a ring buffer. */
+  private final class LatencyWindow {
+
+    private final long[] latencyNanos = new long[windowSize];
+    private int nextLatency;
+    private int latencyCount;
+
+    synchronized void add(long nanos) {
+      latencyNanos[nextLatency] = nanos;
+      nextLatency = (nextLatency + 1) % windowSize;
+      if (latencyCount < windowSize) {
+        latencyCount++;
+      }
+    }
+
+    /* Returns the percentile, or -1 if there are not enough response times yet. */
+    synchronized long getPercentile(int percentile) {
+      if (latencyCount < Math.min(MINIMUM_SAMPLES, windowSize)) {
+        return -1;
+      }
+      final long[] sorted = Arrays.copyOf(latencyNanos, latencyCount);
+      Arrays.sort(sorted);
+      final int rank = (int) Math.ceil(percentile / 100.0 * latencyCount) - 1;
+      return sorted[Math.max(0, rank)];
+    }
+  }
+}
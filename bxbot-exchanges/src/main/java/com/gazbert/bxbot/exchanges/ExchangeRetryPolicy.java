@@ -0,0 +1,177 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.exchanges;
+
+import com.gazbert.bxbot.exchange.api.RetryConfig;
+import com.google.common.base.MoreObjects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Decides if, and when, a request that failed with a recoverable network error is sent again.
+ *
+ * <p>The backoff before each retry is drawn at random between 0 and a ceiling that starts at the
+ * initial backoff and doubles for each retry, up to the max backoff. The random jitter stops
+ * bots that failed at the same time from retrying in lockstep. No retry is started once the
+ * deadline, measured from the first attempt, would be passed.
+ *
+ * <p>The policy does not know which requests are safe to send twice; callers must only ask it
+ * about idempotent requests.
+ *
+ * @author gazbert
+ */
+final class ExchangeRetryPolicy {
+
+  /** Backoff before the first retry if none is configured. */
+  static final int DEFAULT_INITIAL_BACKOFF_MILLIS = 100;
+
+  /** Upper bound of the backoff if none is configured. */
+  static final int DEFAULT_MAX_BACKOFF_MILLIS = 2000;
+
+  /**
+   * Returned by {@link #nextBackoffNanos(int, long)} when the request must not be retried.
+   */
+  static final long NO_RETRY = -1;
+
+  private final int maxAttempts;
+  private final long initialBackoffNanos;
+  private final long maxBackoffNanos;
+  private final long deadlineNanos;
+  private final LongUnaryOperator jitter;
+
+  private final LongAdder retryCount = new LongAdder();
+  private final LongAdder recoveredRequestCount = new LongAdder();
+
+  private ExchangeRetryPolicy(
+      int maxAttempts,
+      long initialBackoffNanos,
+      long maxBackoffNanos,
+      long deadlineNanos,
+      LongUnaryOperator jitter) {
+    this.maxAttempts = maxAttempts;
+    this.initialBackoffNanos = initialBackoffNanos;
+    this.maxBackoffNanos = maxBackoffNanos;
+    this.deadlineNanos = deadlineNanos;
+    this.jitter = jitter;
+  }
+
+  /**
+   * Creates a retry policy from the adapter's config.
+   *
+   * @param retryConfig the retry config.
+   * @return the retry policy, or null if requests are only to be attempted once.
+   */
+  static ExchangeRetryPolicy create(RetryConfig retryConfig) {
+    return create(retryConfig, ceiling -> ThreadLocalRandom.current().nextLong(ceiling + 1));
+  }
+
+  /**
+   * Creates a retry policy from the adapter's config that uses the given jitter.
+   *
+   * @param retryConfig the retry config.
+   * @param jitter given the backoff ceiling in nanos, returns the backoff to use.
+   * @return the retry policy, or null if requests are only to be attempted once.
+   */
+  static ExchangeRetryPolicy create(RetryConfig retryConfig, LongUnaryOperator jitter) {
+    final Integer maxAttempts = retryConfig.getMaxAttempts();
+    if (maxAttempts == null || maxAttempts == 1) {
+      return null;
+    }
+    final int initialBackoffMillis =
+        getOrDefault(retryConfig.getInitialBackoffMillis(), DEFAULT_INITIAL_BACKOFF_MILLIS);
+    final int maxBackoffMillis =
+        getOrDefault(retryConfig.getMaxBackoffMillis(), DEFAULT_MAX_BACKOFF_MILLIS);
+    final int deadlineMillis = getOrDefault(retryConfig.getDeadlineMillis(), 0);
+
+    if (maxAttempts < 1 || initialBackoffMillis < 0 || maxBackoffMillis < 0 || deadlineMillis < 0) {
+      throw new IllegalArgumentException(
+          "Retry max attempts must be 1 or more and backoffs and deadline cannot be negative. "
+              + "Config: "
+              + retryConfig);
+    }
+    return new ExchangeRetryPolicy(
+        maxAttempts,
+        TimeUnit.MILLISECONDS.toNanos(initialBackoffMillis),
+        TimeUnit.MILLISECONDS.toNanos(maxBackoffMillis),
+        TimeUnit.MILLISECONDS.toNanos(deadlineMillis),
+        jitter);
+  }
+
+  /**
+   * Returns how long to back off before retrying a failed request.
+   *
+   * @param attempts the number of attempts made so far, including the one that just failed.
+   * @param elapsedNanos the time since the first attempt was started.
+   * @return the backoff in nanos, or {@link #NO_RETRY} if the attempts are used up or the retry
+   *     would start after the deadline.
+   */
+  long nextBackoffNanos(int attempts, long elapsedNanos) {
+    if (attempts >= maxAttempts) {
+      return NO_RETRY;
+    }
+    long ceiling = initialBackoffNanos;
+    for (int i = 1; i < attempts && ceiling < maxBackoffNanos; i++) {
+      ceiling *= 2;
+    }
+    final long backoffNanos = jitter.applyAsLong(Math.min(ceiling, maxBackoffNanos));
+    if (deadlineNanos > 0 && elapsedNanos + backoffNanos >= deadlineNanos) {
+      return NO_RETRY;
+    }
+    retryCount.increment();
+    return backoffNanos;
+  }
+
+  /** Records that a request succeeded after being retried. */
+  void recordRecovery() {
+    recoveredRequestCount.increment();
+  }
+
+  /** Returns the number of retries that have been made. */
+  long getRetryCount() {
+    return retryCount.sum();
+  }
+
+  /** Returns the number of requests that succeeded after being retried. */
+  long getRecoveredRequestCount() {
+    return recoveredRequestCount.sum();
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("maxAttempts", maxAttempts)
+        .add("initialBackoffMillis", TimeUnit.NANOSECONDS.toMillis(initialBackoffNanos))
+        .add("maxBackoffMillis", TimeUnit.NANOSECONDS.toMillis(maxBackoffNanos))
+        .add("deadlineMillis", TimeUnit.NANOSECONDS.toMillis(deadlineNanos))
+        .add("retryCount", getRetryCount())
+        .add("recoveredRequestCount", getRecoveredRequestCount())
+        .toString();
+  }
+
+  private static int getOrDefault(Integer value, int defaultValue) {
+    return value == null ? defaultValue : value;
+  }
+}
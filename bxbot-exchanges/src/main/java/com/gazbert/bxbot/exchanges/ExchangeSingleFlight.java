@@ -0,0 +1,224 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.exchanges;
+
+import com.gazbert.bxbot.exchanges.AbstractExchangeAdapter.TradingApiCall;
+import com.gazbert.bxbot.trading.api.ExchangeNetworkException;
+import com.gazbert.bxbot.trading.api.TradingApiException;
+import com.google.common.base.MoreObjects;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Coalesces concurrent identical Trading API calls, so they share a single request to the exchange.
+ *
+ * <p>Calls are keyed by the Trading API method and its arguments. While a call is in flight, any
+ * identical call joins it and gets its result instead of sending a request of its own. Nothing is
+ * cached: once the call completes, the next one goes to the exchange.
+ *
+ * <p>Public market data calls can always be joined. A call for account data, e.g. balances, can
+ * only be joined if no order request has completed since it was sent, so a caller that has just
+ * placed or cancelled an order never gets a response that predates it.
+ *
+ * <p>Results are shared between the callers and must not be modified.
+ *
+ * @author gazbert
+ */
+final class ExchangeSingleFlight {
+
+  private static final Logger LOG = LogManager.getLogger();
+
+  private static final String DEADLINE_PASSED_ERROR_MSG =
+      "Request deadline passed waiting for in-flight call: ";
+
+  private final ConcurrentMap<List<?>, Flight> flights = new ConcurrentHashMap<>();
+  private final AtomicLong orderRequestCount = new AtomicLong();
+  private final LongAdder sharedCallCount = new LongAdder();
+
+  /**
+   * Makes a call on the calling thread, or waits for an identical call already in flight.
+   *
+   * @param operation the kind of call, which decides whether it can be joined.
+   * @param key the Trading API method and its arguments.
+   * @param call makes the call.
+   * @param deadline the calling thread's request deadline, as a {@link System#nanoTime()} value.
+   *     This can be null.
+   * @param <T> the result type.
+   * @return the result.
+   * @throws ExchangeNetworkException if the call failed with a network error, or the deadline
+   *     passed while waiting for an in-flight call.
+   * @throws TradingApiException if the call failed for any other reason.
+   */
+  @SuppressWarnings("unchecked")
+  <T> T call(ExchangeOperation operation, List<?> key, TradingApiCall<T> call, Long deadline)
+      throws ExchangeNetworkException, TradingApiException {
+    final Flight claimed = new Flight(orderRequestCount.get());
+    final Flight flight = joinOrClaim(operation, key, claimed);
+    if (flight != claimed) {
+      return (T) await(flight.result, key, deadline);
+    }
+
+    final T result;
+    try {
+      result = call.call();
+    } catch (ExchangeNetworkException | TradingApiException | RuntimeException | Error e) {
+      land(key, claimed);
+      claimed.result.completeExceptionally(e);
+      throw e;
+    }
+    land(key, claimed);
+    claimed.result.complete(result);
+    return result;
+  }
+
+  /**
+   * Makes an async call, or joins an identical call already in flight.
+   *
+   * @param operation the kind of call, which decides whether it can be joined.
+   * @param key the Trading API method and its arguments.
+   * @param call makes the call.
+   * @param <T> the result type.
+   * @return a future for the result.
+   */
+  @SuppressWarnings("unchecked")
+  <T> CompletableFuture<T> callAsync(
+      ExchangeOperation operation, List<?> key, Supplier<CompletableFuture<T>> call) {
+    final Flight claimed = new Flight(orderRequestCount.get());
+    final Flight flight = joinOrClaim(operation, key, claimed);
+    if (flight == claimed) {
+      CompletableFuture<T> response;
+      try {
+        response = call.get();
+      } catch (RuntimeException e) {
+        response = CompletableFuture.failedFuture(e);
+      }
+      response.whenComplete(
+          (result, e) -> {
+            land(key, claimed);
+            if (e == null) {
+              claimed.result.complete(result);
+            } else {
+              claimed.result.completeExceptionally(
+                  e instanceof CompletionException ? e.getCause() : e);
+            }
+          });
+    }
+    // a dependent stage, so callers cannot complete the shared future
+    return flight.result.thenApply(result -> (T) result);
+  }
+
+  /**
+   * Records that an order request has completed, so account data calls already in flight can no
+   * longer be joined.
+   */
+  void recordOrderRequest() {
+    orderRequestCount.incrementAndGet();
+  }
+
+  /** Returns the number of calls that joined an identical call instead of calling the exchange. */
+  long getSharedCallCount() {
+    return sharedCallCount.sum();
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("inFlightCalls", flights.size())
+        .add("sharedCallCount", getSharedCallCount())
+        .toString();
+  }
+
+  private Flight joinOrClaim(ExchangeOperation operation, List<?> key, Flight claimed) {
+    while (true) {
+      final Flight existing = flights.putIfAbsent(key, claimed);
+      if (existing == null) {
+        return claimed;
+      }
+      if (operation == ExchangeOperation.MARKET_DATA
+          || existing.orderRequestCount == claimed.orderRequestCount) {
+        sharedCallCount.increment();
+        LOG.debug(() -> "Joining in-flight call: " + key);
+        return existing;
+      }
+      if (flights.replace(key, existing, claimed)) {
+        return claimed;
+      }
+    }
+  }
+
+  /* Removed before its result is set, so a completed call is never joined. */
+  private void land(List<?> key, Flight flight) {
+    flights.remove(key, flight);
+  }
+
+  private static Object await(CompletableFuture<Object> result, List<?> key, Long deadline)
+      throws ExchangeNetworkException, TradingApiException {
+    try {
+      if (deadline == null) {
+        return result.get();
+      }
+      return result.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+    } catch (TimeoutException e) {
+      final String errorMsg = DEADLINE_PASSED_ERROR_MSG + key;
+      LOG.warn(errorMsg);
+      throw new ExchangeNetworkException(errorMsg, e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ExchangeNetworkException("Interrupted waiting for in-flight call: " + key, e);
+    } catch (ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof ExchangeNetworkException) {
+        throw (ExchangeNetworkException) cause;
+      } else if (cause instanceof TradingApiException) {
+        throw (TradingApiException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new TradingApiException("In-flight call failed: " + key, cause);
+    }
+  }
+
+  /** A call in flight, until its result completes. */
+  private static final class Flight {
+    private final CompletableFuture<Object> result = new CompletableFuture<>();
+    private final long orderRequestCount;
+
+    private Flight(long orderRequestCount) {
+      this.orderRequestCount = orderRequestCount;
+    }
+  }
+}
@@ -58,12 +58,12 @@ import java.security.NoSuchAlgorithmException;
 import java.text.DecimalFormat;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
+import java.util.concurrent.CompletableFuture;
 import javax.xml.bind.DatatypeConverter;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -141,7 +141,7 @@ public final class GdaxExchangeAdapter extends AbstractExchangeAdapter implement
   private String key = "";
   private String secret = "";
 
-  private Mac mac;
+  private RequestSigner requestSigner;
   private boolean initializedMacAuthentication = false;
 
   private Gson gson;
@@ -263,60 +263,24 @@ public final class GdaxExchangeAdapter extends AbstractExchangeAdapter implement
     }
   }
 
+  /*
+   * DELETE /orders with a product_id cancels all the open orders for that product - a single round
+   * trip however many orders are open. The exchange returns the ids of the cancelled orders.
+   */
   @Override
-  public List<OpenOrder> getYourOpenOrders(String marketId)
+  public int cancelAllOrders(String marketId)
       throws TradingApiException, ExchangeNetworkException {
     try {
-      // we use default request no-param call - only open or un-settled orders are returned.
-      // As soon as an order is no longer open and settled, it will no longer appear in the default
-      // request.
       final ExchangeHttpResponse response =
-          sendAuthenticatedRequestToExchange("GET", "orders", null);
+          sendAuthenticatedRequestToExchange("DELETE", "orders?product_id=" + marketId, null);
 
-      LOG.debug(() -> "Open Orders response: " + response);
+      LOG.debug(() -> "Cancel All Orders response: " + response);
 
       if (response.getStatusCode() == HttpURLConnection.HTTP_OK) {
-        final GdaxOrder[] gdaxOpenOrders = gson.fromJson(response.getPayload(), GdaxOrder[].class);
-        final List<OpenOrder> ordersToReturn = new ArrayList<>();
-        for (final GdaxOrder openOrder : gdaxOpenOrders) {
-
-          if (!marketId.equalsIgnoreCase(openOrder.productId)) {
-            continue;
-          }
-
-          OrderType orderType;
-          switch (openOrder.side) {
-            case "buy":
-              orderType = OrderType.BUY;
-              break;
-            case "sell":
-              orderType = OrderType.SELL;
-              break;
-            default:
-              throw new TradingApiException(
-                  "Unrecognised order type received in getYourOpenOrders(). Value: "
-                      + openOrder.side);
-          }
-
-          final OpenOrder order =
-              new OpenOrderImpl(
-                  openOrder.id,
-                  Date.from(Instant.parse(openOrder.createdAt)),
-                  marketId,
-                  orderType,
-                  openOrder.price,
-                  openOrder.size.subtract(
-                      openOrder.filledSize), // quantity remaining - not provided by GDAX
-                  openOrder.size, // orig quantity
-                  openOrder.price.multiply(openOrder.size) // total - not provided by GDAX
-                  );
-
-          ordersToReturn.add(order);
-        }
-        return ordersToReturn;
+        final String[] cancelledOrderIds = gson.fromJson(response.getPayload(), String[].class);
+        return cancelledOrderIds == null ? 0 : cancelledOrderIds.length;
       } else {
-        final String errorMsg =
-            "Failed to get your open orders from exchange. Details: " + response;
+        final String errorMsg = "Failed to cancel all orders on exchange. Details: " + response;
         LOG.error(errorMsg);
         throw new TradingApiException(errorMsg);
       }
@@ -330,51 +294,148 @@ public final class GdaxExchangeAdapter extends AbstractExchangeAdapter implement
     }
   }
 
+  @Override
+  public List<OpenOrder> getYourOpenOrders(String marketId)
+      throws TradingApiException, ExchangeNetworkException {
+    try {
+      // we use default request no-param call - only open or un-settled orders are returned.
+      // As soon as an order is no longer open and settled, it will no longer appear in the default
+      // request.
+      final ExchangeHttpResponse response =
+          sendAuthenticatedRequestToExchange("GET", "orders", null);
+      return adaptGdaxOpenOrdersResponse(response, marketId);
+
+    } catch (ExchangeNetworkException | TradingApiException e) {
+      throw e;
+
+    } catch (Exception e) {
+      LOG.error(UNEXPECTED_ERROR_MSG, e);
+      throw new TradingApiException(UNEXPECTED_ERROR_MSG, e);
+    }
+  }
+
+  @Override
+  public CompletableFuture<List<OpenOrder>> getYourOpenOrdersAsync(String marketId) {
+    return adaptResponseAsync(
+        sendAuthenticatedRequestToExchangeAsync("GET", "orders", null),
+        response -> adaptGdaxOpenOrdersResponse(response, marketId));
+  }
+
+  private List<OpenOrder> adaptGdaxOpenOrdersResponse(
+      ExchangeHttpResponse response, String marketId)
+      throws TradingApiException, ExchangeNetworkException {
+    LOG.debug(() -> "Open Orders response: " + response);
+
+    if (response.getStatusCode() == HttpURLConnection.HTTP_OK) {
+      final GdaxOrder[] gdaxOpenOrders = gson.fromJson(response.getPayload(), GdaxOrder[].class);
+      final List<OpenOrder> ordersToReturn = new ArrayList<>();
+      for (final GdaxOrder openOrder : gdaxOpenOrders) {
+
+        if (!marketId.equalsIgnoreCase(openOrder.productId)) {
+          continue;
+        }
+
+        OrderType orderType;
+        switch (openOrder.side) {
+          case "buy":
+            orderType = OrderType.BUY;
+            break;
+          case "sell":
+            orderType = OrderType.SELL;
+            break;
+          default:
+            throw new TradingApiException(
+                "Unrecognised order type received in getYourOpenOrders(). Value: "
+                    + openOrder.side);
+        }
+
+        final OpenOrder order =
+            new OpenOrderImpl(
+                openOrder.id,
+                Date.from(Instant.parse(openOrder.createdAt)),
+                marketId,
+                orderType,
+                openOrder.price,
+                openOrder.size.subtract(
+                    openOrder.filledSize), // quantity remaining - not provided by GDAX
+                openOrder.size, // orig quantity
+                openOrder.price.multiply(openOrder.size) // total - not provided by GDAX
+                );
+
+        ordersToReturn.add(order);
+      }
+      return ordersToReturn;
+    } else {
+      final String errorMsg =
+          "Failed to get your open orders from exchange. Details: " + response;
+      LOG.error(errorMsg);
+      throw new TradingApiException(errorMsg);
+    }
+  }
+
   @Override
   public MarketOrderBook getMarketOrders(String marketId)
       throws TradingApiException, ExchangeNetworkException {
+    return singleFlight(
+        ExchangeOperation.MARKET_DATA,
+        Arrays.asList("getMarketOrders", marketId),
+        () -> fetchMarketOrders(marketId));
+  }
+
+  /**
+   * Fetches the top {@code depth} levels of the order book. A depth of 1 is fetched using GDAX's
+   * level 1 book, which only holds the best bid and ask. Deeper books use the level 2 book, which
+   * holds at most 50 levels each side; the levels below {@code depth} are skipped over as the
+   * response is parsed.
+   */
+  @Override
+  public MarketOrderBook getMarketOrders(String marketId, int depth)
+      throws TradingApiException, ExchangeNetworkException {
+    assertValidOrderBookDepth(depth);
+    return singleFlight(
+        ExchangeOperation.MARKET_DATA,
+        Arrays.asList("getMarketOrders", marketId, depth),
+        () -> fetchMarketOrders(marketId, depth));
+  }
+
+  private MarketOrderBook fetchMarketOrders(String marketId)
+      throws TradingApiException, ExchangeNetworkException {
     try {
       final Map<String, String> params = createRequestParamMap();
       params.put("level", "2"); //  "2" = Top 50 bids and asks (aggregated)
 
+      if (isStreamingOrderBookParsingEnabled()) {
+        return sendPublicRequestToExchangeStreaming(
+            PRODUCTS + marketId + "/book",
+            params,
+            reader -> StreamingOrderBookReader.readArrayOrderBook(marketId, reader));
+      }
+
       final ExchangeHttpResponse response =
           sendPublicRequestToExchange(PRODUCTS + marketId + "/book", params);
 
       LOG.debug(() -> "Market Orders response: " + response);
 
-      if (response.getStatusCode() == HttpURLConnection.HTTP_OK) {
-        final GdaxBookWrapper orderBook =
-            gson.fromJson(response.getPayload(), GdaxBookWrapper.class);
-
-        final List<MarketOrder> buyOrders = new ArrayList<>();
-        for (GdaxMarketOrder gdaxBuyOrder : orderBook.bids) {
-          final MarketOrder buyOrder =
-              new MarketOrderImpl(
-                  OrderType.BUY,
-                  gdaxBuyOrder.get(0),
-                  gdaxBuyOrder.get(1),
-                  gdaxBuyOrder.get(0).multiply(gdaxBuyOrder.get(1)));
-          buyOrders.add(buyOrder);
-        }
+      return adaptGdaxBookResponse(marketId, response);
 
-        final List<MarketOrder> sellOrders = new ArrayList<>();
-        for (GdaxMarketOrder gdaxSellOrder : orderBook.asks) {
-          final MarketOrder sellOrder =
-              new MarketOrderImpl(
-                  OrderType.SELL,
-                  gdaxSellOrder.get(0),
-                  gdaxSellOrder.get(1),
-                  gdaxSellOrder.get(0).multiply(gdaxSellOrder.get(1)));
-          sellOrders.add(sellOrder);
-        }
-        return new MarketOrderBookImpl(marketId, sellOrders, buyOrders);
+    } catch (ExchangeNetworkException | TradingApiException e) {
+      throw e;
 
-      } else {
-        final String errorMsg =
-            "Failed to get market order book from exchange. Details: " + response;
-        LOG.error(errorMsg);
-        throw new TradingApiException(errorMsg);
-      }
+    } catch (Exception e) {
+      LOG.error(UNEXPECTED_ERROR_MSG, e);
+      throw new TradingApiException(UNEXPECTED_ERROR_MSG, e);
+    }
+  }
+
+  private MarketOrderBook fetchMarketOrders(String marketId, int depth)
+      throws TradingApiException, ExchangeNetworkException {
+    try {
+      final Map<String, String> params = createRequestParamMap();
+      params.put("level", depth == 1 ? "1" : "2");
+      return sendPublicRequestToExchangeStreaming(
+          PRODUCTS + marketId + "/book",
+          params,
+          reader -> StreamingOrderBookReader.readArrayOrderBook(marketId, reader, depth));
 
     } catch (ExchangeNetworkException | TradingApiException e) {
       throw e;
@@ -385,32 +446,33 @@ public final class GdaxExchangeAdapter extends AbstractExchangeAdapter implement
     }
   }
 
+  @Override
+  public CompletableFuture<MarketOrderBook> getMarketOrdersAsync(String marketId) {
+    return singleFlightAsync(
+        ExchangeOperation.MARKET_DATA,
+        Arrays.asList("getMarketOrders", marketId),
+        () -> fetchMarketOrdersAsync(marketId));
+  }
+
+  private CompletableFuture<MarketOrderBook> fetchMarketOrdersAsync(String marketId) {
+    final Map<String, String> params = createRequestParamMap();
+    params.put("level", "2"); //  "2" = Top 50 bids and asks (aggregated)
+    return adaptResponseAsync(
+        sendPublicRequestToExchangeAsync(PRODUCTS + marketId + "/book", params),
+        response -> adaptGdaxBookResponse(marketId, response));
+  }
+
   @Override
   public BalanceInfo getBalanceInfo() throws TradingApiException, ExchangeNetworkException {
+    return singleFlight(
+        ExchangeOperation.BALANCE, List.of("getBalanceInfo"), this::fetchBalanceInfo);
+  }
+
+  private BalanceInfo fetchBalanceInfo() throws TradingApiException, ExchangeNetworkException {
     try {
       final ExchangeHttpResponse response =
           sendAuthenticatedRequestToExchange("GET", "accounts", null);
-
-      LOG.debug(() -> "Balance Info response: " + response);
-
-      if (response.getStatusCode() == HttpURLConnection.HTTP_OK) {
-        final GdaxAccount[] gdaxAccounts =
-            gson.fromJson(response.getPayload(), GdaxAccount[].class);
-
-        final HashMap<String, BigDecimal> balancesAvailable = new HashMap<>();
-        final HashMap<String, BigDecimal> balancesOnHold = new HashMap<>();
-
-        for (final GdaxAccount gdaxAccount : gdaxAccounts) {
-          balancesAvailable.put(gdaxAccount.currency, gdaxAccount.available);
-          balancesOnHold.put(gdaxAccount.currency, gdaxAccount.hold);
-        }
-        return new BalanceInfoImpl(balancesAvailable, balancesOnHold);
-      } else {
-        final String errorMsg =
-            "Failed to get your wallet balance info from exchange. Details: " + response;
-        LOG.error(errorMsg);
-        throw new TradingApiException(errorMsg);
-      }
+      return adaptGdaxBalanceResponse(response);
 
     } catch (ExchangeNetworkException | TradingApiException e) {
       throw e;
@@ -420,6 +482,41 @@ public final class GdaxExchangeAdapter extends AbstractExchangeAdapter implement
     }
   }
 
+  @Override
+  public CompletableFuture<BalanceInfo> getBalanceInfoAsync() {
+    return singleFlightAsync(
+        ExchangeOperation.BALANCE,
+        List.of("getBalanceInfo"),
+        () ->
+            adaptResponseAsync(
+                sendAuthenticatedRequestToExchangeAsync("GET", "accounts", null),
+                this::adaptGdaxBalanceResponse));
+  }
+
+  private BalanceInfo adaptGdaxBalanceResponse(ExchangeHttpResponse response)
+      throws TradingApiException, ExchangeNetworkException {
+    LOG.debug(() -> "Balance Info response: " + response);
+
+    if (response.getStatusCode() == HttpURLConnection.HTTP_OK) {
+      final GdaxAccount[] gdaxAccounts =
+          gson.fromJson(response.getPayload(), GdaxAccount[].class);
+
+      final HashMap<String, BigDecimal> balancesAvailable = new HashMap<>();
+      final HashMap<String, BigDecimal> balancesOnHold = new HashMap<>();
+
+      for (final GdaxAccount gdaxAccount : gdaxAccounts) {
+        balancesAvailable.put(gdaxAccount.currency, gdaxAccount.available);
+        balancesOnHold.put(gdaxAccount.currency, gdaxAccount.hold);
+      }
+      return new BalanceInfoImpl(balancesAvailable, balancesOnHold);
+    } else {
+      final String errorMsg =
+          "Failed to get your wallet balance info from exchange. Details: " + response;
+      LOG.error(errorMsg);
+      throw new TradingApiException(errorMsg);
+    }
+  }
+
   @Override
   public BigDecimal getLatestMarketPrice(String marketId)
       throws ExchangeNetworkException, TradingApiException {
@@ -477,49 +574,12 @@ public final class GdaxExchangeAdapter extends AbstractExchangeAdapter implement
     try {
       final ExchangeHttpResponse tickerResponse =
           sendPublicRequestToExchange(PRODUCTS + marketId + "/ticker", null);
+      final TickerImpl ticker = adaptGdaxTickerResponse(tickerResponse);
 
-      LOG.debug(() -> "Ticker response: " + tickerResponse);
-
-      if (tickerResponse.getStatusCode() == HttpURLConnection.HTTP_OK) {
-        final GdaxTicker gdaxTicker = gson.fromJson(tickerResponse.getPayload(), GdaxTicker.class);
-
-        final TickerImpl ticker =
-            new TickerImpl(
-                gdaxTicker.price,
-                gdaxTicker.bid,
-                gdaxTicker.ask,
-                null, // low,
-                null, // high,
-                null, // open,
-                gdaxTicker.volume,
-                null, // vwap - not supplied by GDAX
-                Date.from(Instant.parse(gdaxTicker.time)).getTime());
-
-        // Now we need to call the stats operation to get the 24hr indicators
-        final ExchangeHttpResponse statsResponse =
-            sendPublicRequestToExchange(PRODUCTS + marketId + "/stats", null);
-
-        LOG.debug(() -> "Stats response: " + statsResponse);
-
-        if (statsResponse.getStatusCode() == HttpURLConnection.HTTP_OK) {
-          final GdaxStats gdaxStats = gson.fromJson(statsResponse.getPayload(), GdaxStats.class);
-          ticker.setLow(gdaxStats.low);
-          ticker.setHigh(gdaxStats.high);
-          ticker.setOpen(gdaxStats.open);
-        } else {
-          final String errorMsg = "Failed to get stats from exchange. Details: " + statsResponse;
-          LOG.error(errorMsg);
-          throw new TradingApiException(errorMsg);
-        }
-
-        return ticker;
-
-      } else {
-        final String errorMsg =
-            "Failed to get market ticker from exchange. Details: " + tickerResponse;
-        LOG.error(errorMsg);
-        throw new TradingApiException(errorMsg);
-      }
+      // Now we need to call the stats operation to get the 24hr indicators
+      final ExchangeHttpResponse statsResponse =
+          sendPublicRequestToExchange(PRODUCTS + marketId + "/stats", null);
+      return addGdaxStats(ticker, adaptGdaxStatsResponse(statsResponse));
 
     } catch (ExchangeNetworkException | TradingApiException e) {
       throw e;
@@ -530,6 +590,65 @@ public final class GdaxExchangeAdapter extends AbstractExchangeAdapter implement
     }
   }
 
+  /** Fetches the ticker and the 24hr stats at the same time. */
+  @Override
+  public CompletableFuture<Ticker> getTickerAsync(String marketId) {
+    final CompletableFuture<TickerImpl> ticker =
+        adaptResponseAsync(
+            sendPublicRequestToExchangeAsync(PRODUCTS + marketId + "/ticker", null),
+            this::adaptGdaxTickerResponse);
+    final CompletableFuture<GdaxStats> stats =
+        adaptResponseAsync(
+            sendPublicRequestToExchangeAsync(PRODUCTS + marketId + "/stats", null),
+            this::adaptGdaxStatsResponse);
+    return ticker.thenCombine(stats, this::addGdaxStats);
+  }
+
+  private TickerImpl adaptGdaxTickerResponse(ExchangeHttpResponse tickerResponse)
+      throws TradingApiException {
+    LOG.debug(() -> "Ticker response: " + tickerResponse);
+
+    if (tickerResponse.getStatusCode() == HttpURLConnection.HTTP_OK) {
+      final GdaxTicker gdaxTicker = gson.fromJson(tickerResponse.getPayload(), GdaxTicker.class);
+      return new TickerImpl(
+          gdaxTicker.price,
+          gdaxTicker.bid,
+          gdaxTicker.ask,
+          null, // low,
+          null, // high,
+          null, // open,
+          gdaxTicker.volume,
+          null, // vwap - not supplied by GDAX
+          Date.from(Instant.parse(gdaxTicker.time)).getTime());
+
+    } else {
+      final String errorMsg =
+          "Failed to get market ticker from exchange. Details: " + tickerResponse;
+      LOG.error(errorMsg);
+      throw new TradingApiException(errorMsg);
+    }
+  }
+
+  private GdaxStats adaptGdaxStatsResponse(ExchangeHttpResponse statsResponse)
+      throws TradingApiException {
+    LOG.debug(() -> "Stats response: " + statsResponse);
+
+    if (statsResponse.getStatusCode() == HttpURLConnection.HTTP_OK) {
+      return gson.fromJson(statsResponse.getPayload(), GdaxStats.class);
+    } else {
+      final String errorMsg = "Failed to get stats from exchange. Details: " + statsResponse;
+      LOG.error(errorMsg);
+      throw new TradingApiException(errorMsg);
+    }
+  }
+
+  private Ticker addGdaxStats(TickerImpl ticker, GdaxStats gdaxStats) {
+    ticker.setLow(gdaxStats.low);
+    ticker.setHigh(gdaxStats.high);
+    ticker.setOpen(gdaxStats.open);
+    return ticker;
+  }
+
   // --------------------------------------------------------------------------
   //  GSON classes for JSON responses.
   //  See https://docs.gdax.com/#api
@@ -711,34 +830,78 @@ public final class GdaxExchangeAdapter extends AbstractExchangeAdapter implement
     final Map<String, String> requestHeaders = new HashMap<>();
 
     try {
+      final URL url = createPublicApiUrl(apiMethod, params, requestHeaders);
+      return makeNetworkRequest(url, "GET", null, requestHeaders);
 
-      final StringBuilder queryString = new StringBuilder();
-      if (params.size() > 0) {
-
-        queryString.append("?");
+    } catch (MalformedURLException e) {
+      final String errorMsg = UNEXPECTED_IO_ERROR_MSG;
+      LOG.error(errorMsg, e);
+      throw new TradingApiException(errorMsg, e);
+    }
+  }
 
-        for (final Map.Entry<String, String> param : params.entrySet()) {
-          if (queryString.length() > 1) {
-            queryString.append("&");
-          }
-          queryString.append(param.getKey());
-          queryString.append("=");
-          queryString.append(URLEncoder.encode(param.getValue(), StandardCharsets.UTF_8));
-        }
+  private <T> T sendPublicRequestToExchangeStreaming(
+      String apiMethod, Map<String, String> params, ExchangeResponseStreamParser<T> responseParser)
+      throws ExchangeNetworkException, TradingApiException {
+    // Request headers required by Exchange
+    final Map<String, String> requestHeaders = new HashMap<>();
+    try {
+      final URL url = createPublicApiUrl(apiMethod, params, requestHeaders);
+      return sendNetworkRequestStreaming(url, "GET", null, requestHeaders, responseParser);
 
-        requestHeaders.put("Content-Type", "application/x-www-form-urlencoded");
-      }
+    } catch (MalformedURLException e) {
+      final String errorMsg = UNEXPECTED_IO_ERROR_MSG;
+      LOG.error(errorMsg, e);
+      throw new TradingApiException(errorMsg, e);
+    }
+  }
 
-      final URL url = new URL(PUBLIC_API_BASE_URL + apiMethod + queryString);
-      return makeNetworkRequest(url, "GET", null, requestHeaders);
+  private CompletableFuture<ExchangeHttpResponse> sendPublicRequestToExchangeAsync(
+      String apiMethod, Map<String, String> params) {
+    // Request headers required by Exchange
+    final Map<String, String> requestHeaders = new HashMap<>();
+    try {
+      final URL url = createPublicApiUrl(apiMethod, params, requestHeaders);
+      return sendNetworkRequestAsync(url, "GET", null, requestHeaders);
 
     } catch (MalformedURLException e) {
       final String errorMsg = UNEXPECTED_IO_ERROR_MSG;
       LOG.error(errorMsg, e);
-      throw new TradingApiException(errorMsg, e);
+      return CompletableFuture.failedFuture(new TradingApiException(errorMsg, e));
     }
   }
 
+  /*
+   * Builds the public API URL with the params as the query string. Adds the Content-Type header
+   * required by the exchange when there are params.
+   */
+  private static URL createPublicApiUrl(
+      String apiMethod, Map<String, String> params, Map<String, String> requestHeaders)
+      throws MalformedURLException {
+    final StringBuilder queryString = new StringBuilder();
+    if (params.size() > 0) {
+      queryString.append("?");
+      for (final Map.Entry<String, String> param : params.entrySet()) {
+        if (queryString.length() > 1) {
+          queryString.append("&");
+        }
+        queryString.append(param.getKey());
+        queryString.append("=");
+        queryString.append(URLEncoder.encode(param.getValue(), StandardCharsets.UTF_8));
+      }
+
+      requestHeaders.put("Content-Type", "application/x-www-form-urlencoded");
+    }
+
+    return new URL(PUBLIC_API_BASE_URL + apiMethod + queryString);
+  }
+
+  private ExchangeHttpResponse sendAuthenticatedRequestToExchange(
+      String httpMethod, String apiMethod, Map<String, String> params)
+      throws ExchangeNetworkException, TradingApiException {
+    return awaitResponse(sendAuthenticatedRequestToExchangeAsync(httpMethod, apiMethod, params));
+  }
+
   /*
   * Makes an authenticated API call to the GDAX exchange.
   *
@@ -777,9 +940,8 @@ public final class GdaxExchangeAdapter extends AbstractExchangeAdapter implement
   * using it as the key for HMAC. Also, base64-encode the digest output before sending in the
   * header.
   */
-  private ExchangeHttpResponse sendAuthenticatedRequestToExchange(
-      String httpMethod, String apiMethod, Map<String, String> params)
-      throws ExchangeNetworkException, TradingApiException {
+  private CompletableFuture<ExchangeHttpResponse> sendAuthenticatedRequestToExchangeAsync(
+      String httpMethod, String apiMethod, Map<String, String> params) {
 
     if (!initializedMacAuthentication) {
       final String errorMsg = "MAC Message security layer has not been initialized.";
@@ -845,9 +1007,8 @@ public final class GdaxExchangeAdapter extends AbstractExchangeAdapter implement
           timestamp + httpMethod.toUpperCase() + "/" + apiMethod + requestBody;
 
       // Sign the signature string and Base64 encode it
-      mac.reset();
-      mac.update(signatureBuilder.getBytes(StandardCharsets.UTF_8));
-      final String signature = DatatypeConverter.printBase64Binary(mac.doFinal());
+      final String signature =
+          DatatypeConverter.printBase64Binary(requestSigner.sign(signatureBuilder));
 
       // Request headers required by Exchange
       final Map<String, String> requestHeaders = createHeaderParamMap();
@@ -858,12 +1019,12 @@ public final class GdaxExchangeAdapter extends AbstractExchangeAdapter implement
       requestHeaders.put("CB-ACCESS-PASSPHRASE", passphrase);
 
       final URL url = new URL(invocationUrl);
-      return makeNetworkRequest(url, httpMethod, requestBody, requestHeaders);
+      return makeNetworkRequestAsync(url, httpMethod, requestBody, requestHeaders);
 
     } catch (MalformedURLException e) {
       final String errorMsg = UNEXPECTED_IO_ERROR_MSG;
       LOG.error(errorMsg, e);
-      throw new TradingApiException(errorMsg, e);
+      return CompletableFuture.failedFuture(new TradingApiException(errorMsg, e));
     }
   }
 
@@ -878,9 +1039,7 @@ public final class GdaxExchangeAdapter extends AbstractExchangeAdapter implement
       // GDAX secret is in Base64 so we must decode it first.
       final byte[] decodedBase64Secret = DatatypeConverter.parseBase64Binary(secret);
 
-      final SecretKeySpec keyspec = new SecretKeySpec(decodedBase64Secret, "HmacSHA256");
-      mac = Mac.getInstance("HmacSHA256");
-      mac.init(keyspec);
+      requestSigner = RequestSigner.create("HmacSHA256", decodedBase64Secret);
       initializedMacAuthentication = true;
     } catch (NoSuchAlgorithmException e) {
       final String errorMsg = "Failed to setup MAC security. HINT: Is HMAC-SHA256 installed?";
@@ -916,12 +1075,51 @@ public final class GdaxExchangeAdapter extends AbstractExchangeAdapter implement
     sellFeePercentage =
         new BigDecimal(sellFeeInConfig).divide(new BigDecimal("100"), 8, RoundingMode.HALF_UP);
     LOG.info(() -> "Sell fee % in BigDecimal format: " + sellFeePercentage);
+
+    setStreamingOrderBookParsing(otherConfig);
   }
 
   // --------------------------------------------------------------------------
   //  Util methods
   // --------------------------------------------------------------------------
 
+  private MarketOrderBook adaptGdaxBookResponse(String marketId, ExchangeHttpResponse response)
+      throws TradingApiException, ExchangeNetworkException {
+    if (response.getStatusCode() == HttpURLConnection.HTTP_OK) {
+      final GdaxBookWrapper orderBook =
+          gson.fromJson(response.getPayload(), GdaxBookWrapper.class);
+
+      final List<MarketOrder> buyOrders = new ArrayList<>();
+      for (GdaxMarketOrder gdaxBuyOrder : orderBook.bids) {
+        final MarketOrder buyOrder =
+            new MarketOrderImpl(
+                OrderType.BUY,
+                gdaxBuyOrder.get(0),
+                gdaxBuyOrder.get(1),
+                gdaxBuyOrder.get(0).multiply(gdaxBuyOrder.get(1)));
+        buyOrders.add(buyOrder);
+      }
+
+      final List<MarketOrder> sellOrders = new ArrayList<>();
+      for (GdaxMarketOrder gdaxSellOrder : orderBook.asks) {
+        final MarketOrder sellOrder =
+            new MarketOrderImpl(
+                OrderType.SELL,
+                gdaxSellOrder.get(0),
+                gdaxSellOrder.get(1),
+                gdaxSellOrder.get(0).multiply(gdaxSellOrder.get(1)));
+        sellOrders.add(sellOrder);
+      }
+      return new MarketOrderBookImpl(marketId, sellOrders, buyOrders);
+
+    } else {
+      final String errorMsg =
+          "Failed to get market order book from exchange. Details: " + response;
+      LOG.error(errorMsg);
+      throw new TradingApiException(errorMsg);
+    }
+  }
+
   private void initGson() {
     final GsonBuilder gsonBuilder = new GsonBuilder();
     gson = gsonBuilder.create();
@@ -934,6 +1132,35 @@ public final class GdaxExchangeAdapter extends AbstractExchangeAdapter implement
     return new HashMap<>();
   }
 
+  /*
+   * GETs are used for both public and private API calls, so look for the auth header instead.
+   */
+  @Override
+  boolean isPrivateApiRequest(URL url, String httpMethod, Map<String, String> requestHeaders) {
+    return requestHeaders != null && requestHeaders.containsKey("CB-ACCESS-KEY");
+  }
+
+  /*
+   * Private API calls are signed with a timestamp rather than a nonce, so a GET - e.g. fetching
+   * balances or open orders - can be resent while the timestamp is within the 30 second window.
+   */
+  @Override
+  boolean isIdempotentRequest(URL url, String httpMethod, Map<String, String> requestHeaders) {
+    return "GET".equals(httpMethod);
+  }
+
+  /*
+   * Balance requests go to the "accounts" endpoint.
+   */
+  @Override
+  ExchangeOperation getExchangeOperation(
+      URL url, String httpMethod, Map<String, String> requestHeaders) {
+    final String path = url.getPath();
+    return path.endsWith("/accounts")
+        ? ExchangeOperation.BALANCE
+        : super.getExchangeOperation(url, httpMethod, requestHeaders);
+  }
+
   /*
    * Hack for unit-testing header params passed to transport layer.
    */
@@ -949,4 +1176,12 @@ public final class GdaxExchangeAdapter extends AbstractExchangeAdapter implement
       throws TradingApiException, ExchangeNetworkException {
     return super.sendNetworkRequest(url, httpMethod, postData, requestHeaders);
   }
+
+  /*
+   * Hack for unit-testing transport layer.
+   */
+  private CompletableFuture<ExchangeHttpResponse> makeNetworkRequestAsync(
+      URL url, String httpMethod, String postData, Map<String, String> requestHeaders) {
+    return super.sendNetworkRequestAsync(url, httpMethod, postData, requestHeaders);
+  }
 }
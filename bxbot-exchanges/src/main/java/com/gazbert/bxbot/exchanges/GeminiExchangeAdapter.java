@@ -54,12 +54,16 @@ import java.security.NoSuchAlgorithmException;
 import java.text.DecimalFormat;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import javax.xml.bind.DatatypeConverter;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -156,20 +160,23 @@ public final class GeminiExchangeAdapter extends AbstractExchangeAdapter
   private String key = "";
   private String secret = "";
 
-  private Mac mac;
+  private RequestSigner requestSigner;
   private boolean initializedMacAuthentication = false;
-  private long nonce = 0;
+  private NonceProvider nonceProvider;
 
   private Gson gson;
 
+  /*
+   * Synchronized so the authenticated requests, which are sent under the same lock, see the
+   * config and request signer it sets up.
+   */
   @Override
-  public void init(ExchangeConfig config) {
+  public synchronized void init(ExchangeConfig config) {
     LOG.info(() -> "About to initialise Gemini ExchangeConfig: " + config);
     setAuthenticationConfig(config);
     setNetworkConfig(config);
     setOtherConfig(config);
 
-    nonce = System.currentTimeMillis() / 1000;
     initSecureMessageLayer();
     initGson();
   }
@@ -293,50 +300,79 @@ public final class GeminiExchangeAdapter extends AbstractExchangeAdapter
   public List<OpenOrder> getYourOpenOrders(String marketId)
       throws TradingApiException, ExchangeNetworkException {
     try {
-      final ExchangeHttpResponse response = sendAuthenticatedRequestToExchange("orders", null);
+      return adaptGeminiOpenOrders(fetchGeminiOpenOrders(), marketId);
 
-      LOG.debug(() -> "Open Orders response: " + response);
+    } catch (ExchangeNetworkException | TradingApiException e) {
+      throw e;
 
-      final GeminiOpenOrders geminiOpenOrders =
-          gson.fromJson(response.getPayload(), GeminiOpenOrders.class);
+    } catch (Exception e) {
+      LOG.error(UNEXPECTED_ERROR_MSG, e);
+      throw new TradingApiException(UNEXPECTED_ERROR_MSG, e);
+    }
+  }
 
-      final List<OpenOrder> ordersToReturn = new ArrayList<>();
-      for (final GeminiOpenOrder geminiOpenOrder : geminiOpenOrders) {
+  @Override
+  public CompletableFuture<List<OpenOrder>> getYourOpenOrdersAsync(String marketId) {
+    return adaptResponseAsync(
+        sendAuthenticatedRequestToExchangeAsync("orders", null),
+        response -> adaptGeminiOpenOrders(adaptGeminiOpenOrdersResponse(response), marketId));
+  }
 
-        if (!marketId.equalsIgnoreCase(geminiOpenOrder.symbol)) {
-          continue;
+  @Override
+  public boolean isCancelAllOrdersAcrossMarketsSupported() {
+    return true;
+  }
+
+  @Override
+  public int cancelAllOrders(String marketId)
+      throws TradingApiException, ExchangeNetworkException {
+    return cancelAllOrders(List.of(marketId)).get(marketId);
+  }
+
+  /*
+   * Gemini's order/cancel/all request cancels every open order on the account, whatever the
+   * symbol. Your open orders are fetched once for all the markets: order/cancel/all is only used if
+   * they are all on the given markets; otherwise each market's orders are cancelled one by one.
+   */
+  @Override
+  public Map<String, Integer> cancelAllOrders(Collection<String> marketIds)
+      throws TradingApiException, ExchangeNetworkException {
+    try {
+      final GeminiOpenOrders geminiOpenOrders = fetchGeminiOpenOrders();
+      final Map<String, List<String>> orderIdsByMarket = new LinkedHashMap<>();
+      int marketOpenOrderCount = 0;
+      for (final String marketId : new LinkedHashSet<>(marketIds)) {
+        final List<String> orderIds = new ArrayList<>();
+        for (final OpenOrder openOrder : adaptGeminiOpenOrders(geminiOpenOrders, marketId)) {
+          orderIds.add(openOrder.getId());
         }
+        orderIdsByMarket.put(marketId, orderIds);
+        marketOpenOrderCount += orderIds.size();
+      }
 
-        OrderType orderType;
-        switch (geminiOpenOrder.side) {
-          case "buy":
-            orderType = OrderType.BUY;
-            break;
-          case "sell":
-            orderType = OrderType.SELL;
-            break;
-          default:
-            throw new TradingApiException(
-                "Unrecognised order type received in getYourOpenOrders(). Value: "
-                    + geminiOpenOrder.type);
+      final Map<String, Integer> cancelledCounts = new LinkedHashMap<>();
+      if (marketOpenOrderCount == 0 || geminiOpenOrders.size() > marketOpenOrderCount) {
+        for (final Map.Entry<String, List<String>> market : orderIdsByMarket.entrySet()) {
+          cancelledCounts.put(
+              market.getKey(),
+              market.getValue().isEmpty()
+                  ? 0
+                  : countCancelledOrders(cancelOrders(market.getValue(), market.getKey())));
         }
+        return cancelledCounts;
+      }
 
-        final OpenOrder order =
-            new OpenOrderImpl(
-                Long.toString(geminiOpenOrder.orderId),
-                Date.from(Instant.ofEpochMilli(geminiOpenOrder.timestampms)),
-                marketId,
-                orderType,
-                geminiOpenOrder.price,
-                geminiOpenOrder.remainingAmount,
-                geminiOpenOrder.originalAmount,
-                geminiOpenOrder.price.multiply(
-                    geminiOpenOrder.originalAmount) // total - not provided by Gemini :-(
-                );
-
-        ordersToReturn.add(order);
+      final int cancelledCount = sendCancelAllRequest();
+      for (final Map.Entry<String, List<String>> market : orderIdsByMarket.entrySet()) {
+        // order/cancel/all returns the ids but not the symbols, so share the total out by the
+        // open orders we found
+        cancelledCounts.put(
+            market.getKey(),
+            market.getValue().size() == marketOpenOrderCount
+                ? cancelledCount
+                : market.getValue().size());
       }
-      return ordersToReturn;
+      return cancelledCounts;
 
     } catch (ExchangeNetworkException | TradingApiException e) {
       throw e;
@@ -347,39 +383,119 @@ public final class GeminiExchangeAdapter extends AbstractExchangeAdapter
     }
   }
 
-  @Override
-  public MarketOrderBook getMarketOrders(String marketId)
-      throws TradingApiException, ExchangeNetworkException {
+  private int sendCancelAllRequest() throws TradingApiException, ExchangeNetworkException {
     try {
-      final ExchangeHttpResponse response = sendPublicRequestToExchange("book/" + marketId);
+      final ExchangeHttpResponse response =
+          sendAuthenticatedRequestToExchange("order/cancel/all", null);
 
-      LOG.debug(() -> "Market Orders response: " + response);
+      LOG.debug(() -> "Cancel All Orders response: " + response);
 
-      final GeminiOrderBook orderBook = gson.fromJson(response.getPayload(), GeminiOrderBook.class);
-
-      final List<MarketOrder> buyOrders = new ArrayList<>();
-      for (GeminiMarketOrder geminiBuyOrder : orderBook.bids) {
-        final MarketOrder buyOrder =
-            new MarketOrderImpl(
-                OrderType.BUY,
-                geminiBuyOrder.price,
-                geminiBuyOrder.amount,
-                geminiBuyOrder.price.multiply(geminiBuyOrder.amount));
-        buyOrders.add(buyOrder);
+      final GeminiCancelAllOrdersResponse cancelAllOrdersResponse =
+          gson.fromJson(response.getPayload(), GeminiCancelAllOrdersResponse.class);
+      if (!"ok".equals(cancelAllOrdersResponse.result)
+          || cancelAllOrdersResponse.details == null
+          || cancelAllOrdersResponse.details.cancelledOrders == null) {
+        final String errorMsg =
+            "Failed to cancel all orders on exchange. Error response: " + response;
+        LOG.error(errorMsg);
+        throw new TradingApiException(errorMsg);
       }
+      return cancelAllOrdersResponse.details.cancelledOrders.size();
 
-      final List<MarketOrder> sellOrders = new ArrayList<>();
-      for (GeminiMarketOrder geminiSellOrder : orderBook.asks) {
-        final MarketOrder sellOrder =
-            new MarketOrderImpl(
-                OrderType.SELL,
-                geminiSellOrder.price,
-                geminiSellOrder.amount,
-                geminiSellOrder.price.multiply(geminiSellOrder.amount));
-        sellOrders.add(sellOrder);
+    } catch (ExchangeNetworkException | TradingApiException e) {
+      throw e;
+
+    } catch (Exception e) {
+      LOG.error(UNEXPECTED_ERROR_MSG, e);
+      throw new TradingApiException(UNEXPECTED_ERROR_MSG, e);
+    }
+  }
+
+  private GeminiOpenOrders fetchGeminiOpenOrders()
+      throws TradingApiException, ExchangeNetworkException {
+    return adaptGeminiOpenOrdersResponse(sendAuthenticatedRequestToExchange("orders", null));
+  }
+
+  private GeminiOpenOrders adaptGeminiOpenOrdersResponse(ExchangeHttpResponse response) {
+    LOG.debug(() -> "Open Orders response: " + response);
+
+    return gson.fromJson(response.getPayload(), GeminiOpenOrders.class);
+  }
+
+  private List<OpenOrder> adaptGeminiOpenOrders(
+      GeminiOpenOrders geminiOpenOrders, String marketId) throws TradingApiException {
+    final List<OpenOrder> ordersToReturn = new ArrayList<>();
+    for (final GeminiOpenOrder geminiOpenOrder : geminiOpenOrders) {
+
+      if (!marketId.equalsIgnoreCase(geminiOpenOrder.symbol)) {
+        continue;
+      }
+
+      OrderType orderType;
+      switch (geminiOpenOrder.side) {
+        case "buy":
+          orderType = OrderType.BUY;
+          break;
+        case "sell":
+          orderType = OrderType.SELL;
+          break;
+        default:
+          throw new TradingApiException(
+              "Unrecognised order type received in getYourOpenOrders(). Value: "
+                  + geminiOpenOrder.type);
       }
 
-      return new MarketOrderBookImpl(marketId, sellOrders, buyOrders);
+      final OpenOrder order =
+          new OpenOrderImpl(
+              Long.toString(geminiOpenOrder.orderId),
+              Date.from(Instant.ofEpochMilli(geminiOpenOrder.timestampms)),
+              marketId,
+              orderType,
+              geminiOpenOrder.price,
+              geminiOpenOrder.remainingAmount,
+              geminiOpenOrder.originalAmount,
+              geminiOpenOrder.price.multiply(
+                  geminiOpenOrder.originalAmount) // total - not provided by Gemini :-(
+              );
+
+      ordersToReturn.add(order);
+    }
+    return ordersToReturn;
+  }
+
+  @Override
+  public MarketOrderBook getMarketOrders(String marketId)
+      throws TradingApiException, ExchangeNetworkException {
+    return singleFlight(
+        ExchangeOperation.MARKET_DATA,
+        Arrays.asList("getMarketOrders", marketId),
+        () -> getMarketOrders(marketId, "book/" + marketId));
+  }
+
+  /**
+   * Fetches the top {@code depth} levels of the order book. The depth is passed to Gemini as the
+   * limit_bids and limit_asks params, so only the levels asked for are sent back.
+   */
+  @Override
+  public MarketOrderBook getMarketOrders(String marketId, int depth)
+      throws TradingApiException, ExchangeNetworkException {
+    assertValidOrderBookDepth(depth);
+    final String apiMethod =
+        "book/" + marketId + "?limit_bids=" + depth + "&limit_asks=" + depth;
+    return singleFlight(
+        ExchangeOperation.MARKET_DATA,
+        Arrays.asList("getMarketOrders", marketId, depth),
+        () -> getMarketOrders(marketId, apiMethod));
+  }
+
+  private MarketOrderBook getMarketOrders(String marketId, String apiMethod)
+      throws TradingApiException, ExchangeNetworkException {
+    try {
+      final ExchangeHttpResponse response = sendPublicRequestToExchange(apiMethod);
+
+      LOG.debug(() -> "Market Orders response: " + response);
+
+      return adaptGeminiOrderBook(marketId, response);
 
     } catch (ExchangeNetworkException | TradingApiException e) {
       throw e;
@@ -390,6 +506,20 @@ public final class GeminiExchangeAdapter extends AbstractExchangeAdapter
     }
   }
 
+  @Override
+  public CompletableFuture<MarketOrderBook> getMarketOrdersAsync(String marketId) {
+    return singleFlightAsync(
+        ExchangeOperation.MARKET_DATA,
+        Arrays.asList("getMarketOrders", marketId),
+        () -> fetchMarketOrdersAsync(marketId));
+  }
+
+  private CompletableFuture<MarketOrderBook> fetchMarketOrdersAsync(String marketId) {
+    return adaptResponseAsync(
+        sendPublicRequestToExchangeAsync("book/" + marketId),
+        response -> adaptGeminiOrderBook(marketId, response));
+  }
+
   @Override
   public BigDecimal getLatestMarketPrice(String marketId)
       throws TradingApiException, ExchangeNetworkException {
@@ -412,25 +542,14 @@ public final class GeminiExchangeAdapter extends AbstractExchangeAdapter
 
   @Override
   public BalanceInfo getBalanceInfo() throws TradingApiException, ExchangeNetworkException {
+    return singleFlight(
+        ExchangeOperation.BALANCE, List.of("getBalanceInfo"), this::fetchBalanceInfo);
+  }
+
+  private BalanceInfo fetchBalanceInfo() throws TradingApiException, ExchangeNetworkException {
     try {
       final ExchangeHttpResponse response = sendAuthenticatedRequestToExchange("balances", null);
-
-      LOG.debug(() -> "Balance Info response: " + response);
-
-      final GeminiBalances allAccountBalances =
-          gson.fromJson(response.getPayload(), GeminiBalances.class);
-      final HashMap<String, BigDecimal> balancesAvailable = new HashMap<>();
-
-      // This adapter only supports 'exchange' account type.
-      allAccountBalances.stream()
-          .filter(accountBalance -> accountBalance.type.equalsIgnoreCase("exchange"))
-          .forEach(
-              accountBalance ->
-                  balancesAvailable.put(accountBalance.currency, accountBalance.available));
-
-      // 2nd arg of BalanceInfo constructor for reserved/on-hold balances is not provided by
-      // exchange.
-      return new BalanceInfoImpl(balancesAvailable, new HashMap<>());
+      return adaptGeminiBalanceResponse(response);
 
     } catch (ExchangeNetworkException | TradingApiException e) {
       throw e;
@@ -441,6 +560,37 @@ public final class GeminiExchangeAdapter extends AbstractExchangeAdapter
     }
   }
 
+  @Override
+  public CompletableFuture<BalanceInfo> getBalanceInfoAsync() {
+    return singleFlightAsync(
+        ExchangeOperation.BALANCE,
+        List.of("getBalanceInfo"),
+        () ->
+            adaptResponseAsync(
+                sendAuthenticatedRequestToExchangeAsync("balances", null),
+                this::adaptGeminiBalanceResponse));
+  }
+
+  private BalanceInfo adaptGeminiBalanceResponse(ExchangeHttpResponse response)
+      throws TradingApiException, ExchangeNetworkException {
+    LOG.debug(() -> "Balance Info response: " + response);
+
+    final GeminiBalances allAccountBalances =
+        gson.fromJson(response.getPayload(), GeminiBalances.class);
+    final HashMap<String, BigDecimal> balancesAvailable = new HashMap<>();
+
+    // This adapter only supports 'exchange' account type.
+    allAccountBalances.stream()
+        .filter(accountBalance -> accountBalance.type.equalsIgnoreCase("exchange"))
+        .forEach(
+            accountBalance ->
+                balancesAvailable.put(accountBalance.currency, accountBalance.available));
+
+    // 2nd arg of BalanceInfo constructor for reserved/on-hold balances is not provided by
+    // exchange.
+    return new BalanceInfoImpl(balancesAvailable, new HashMap<>());
+  }
+
   /*
    * Gemini does not provide API call for fetching % buy fee. We load the % fee statically
    * from exchange.yaml file - see https://gemini.com/fee-schedule/
@@ -565,6 +715,36 @@ public final class GeminiExchangeAdapter extends AbstractExchangeAdapter
     }
   }
 
+  /** GSON class for holding a cancel all orders API call response. */
+  private static class GeminiCancelAllOrdersResponse {
+
+    String result;
+    GeminiCancelAllOrdersDetails details;
+
+    @Override
+    public String toString() {
+      return MoreObjects.toStringHelper(this)
+          .add("result", result)
+          .add("details", details)
+          .toString();
+    }
+  }
+
+  /** GSON class for holding the orders cancelled by a cancel all orders API call. */
+  private static class GeminiCancelAllOrdersDetails {
+
+    List<Long> cancelledOrders;
+    List<Long> cancelRejects;
+
+    @Override
+    public String toString() {
+      return MoreObjects.toStringHelper(this)
+          .add("cancelledOrders", cancelledOrders)
+          .add("cancelRejects", cancelRejects)
+          .toString();
+    }
+  }
+
   /** GSON class for holding an active orders API call response. */
   private static class GeminiOpenOrders extends ArrayList<GeminiOpenOrder> {
 
@@ -652,6 +832,29 @@ public final class GeminiExchangeAdapter extends AbstractExchangeAdapter
     }
   }
 
+  private CompletableFuture<ExchangeHttpResponse> sendPublicRequestToExchangeAsync(
+      String apiMethod) {
+    try {
+      final URL url = new URL(PUBLIC_API_BASE_URL + apiMethod);
+      return sendNetworkRequestAsync(url, "GET", null, createRequestParamMap());
+
+    } catch (MalformedURLException e) {
+      final String errorMsg = UNEXPECTED_IO_ERROR_MSG;
+      LOG.error(errorMsg, e);
+      return CompletableFuture.failedFuture(new TradingApiException(errorMsg, e));
+    }
+  }
+
+  /*
+   * The request is signed and queued in nonce order under the nonce lock, but its response is
+   * waited for outside the lock.
+   */
+  private ExchangeHttpResponse sendAuthenticatedRequestToExchange(
+      String apiMethod, Map<String, String> params)
+      throws ExchangeNetworkException, TradingApiException {
+    return awaitResponse(sendAuthenticatedRequestToExchangeAsync(apiMethod, params));
+  }
+
   /*
    * Makes an authenticated API call to the Gemini exchange.
    *
@@ -693,9 +896,8 @@ public final class GeminiExchangeAdapter extends AbstractExchangeAdapter
    * X-GEMINI-PAYLOAD:ewogICAgInJlcXVlc3QiOiAiL3YxL29yZGVyL3N
    * X-GEMINI-SIGNATURE: 337cc8b4ea692cfe65b4a85fcc9f042b2e3f
    */
-  private ExchangeHttpResponse sendAuthenticatedRequestToExchange(
-      String apiMethod, Map<String, String> params)
-      throws ExchangeNetworkException, TradingApiException {
+  private synchronized CompletableFuture<ExchangeHttpResponse>
+      sendAuthenticatedRequestToExchangeAsync(String apiMethod, Map<String, String> params) {
 
     if (!initializedMacAuthentication) {
       final String errorMsg = "MAC Message security layer has not been initialized.";
@@ -713,8 +915,7 @@ public final class GeminiExchangeAdapter extends AbstractExchangeAdapter
       params.put("request", "/" + GEMINI_API_VERSION + "/" + apiMethod);
 
       // nonce is required by Gemini in every request
-      params.put("nonce", Long.toString(nonce));
-      nonce++;
+      params.put("nonce", Long.toString(nonceProvider.next()));
 
       // JSON-ify the param dictionary
       final String paramsInJson = gson.toJson(params);
@@ -724,9 +925,7 @@ public final class GeminiExchangeAdapter extends AbstractExchangeAdapter
           DatatypeConverter.printBase64Binary(paramsInJson.getBytes(StandardCharsets.UTF_8));
 
       // Create the signature
-      mac.reset(); // force reset
-      mac.update(base64payload.getBytes(StandardCharsets.UTF_8));
-      final String signature = toHex(mac.doFinal()).toLowerCase();
+      final String signature = RequestSigner.toHex(requestSigner.sign(base64payload));
 
       // Request headers required by Exchange
       final Map<String, String> requestHeaders = createHeaderParamMap();
@@ -738,21 +937,13 @@ public final class GeminiExchangeAdapter extends AbstractExchangeAdapter
       requestHeaders.put("Content-Type", "application/json");
 
       final URL url = new URL(AUTHENTICATED_API_URL + apiMethod);
-      return makeNetworkRequest(url, "POST", paramsInJson, requestHeaders);
+      return makeNetworkRequestAsync(url, "POST", paramsInJson, requestHeaders);
 
     } catch (MalformedURLException e) {
       final String errorMsg = UNEXPECTED_IO_ERROR_MSG;
       LOG.error(errorMsg, e);
-      throw new TradingApiException(errorMsg, e);
-    }
-  }
-
-  private String toHex(byte[] byteArrayToConvert) {
-    final StringBuilder hexString = new StringBuilder();
-    for (final byte aByte : byteArrayToConvert) {
-      hexString.append(String.format("%02x", aByte & 0xff));
+      return CompletableFuture.failedFuture(new TradingApiException(errorMsg, e));
     }
-    return hexString.toString();
   }
 
   /*
@@ -763,10 +954,7 @@ public final class GeminiExchangeAdapter extends AbstractExchangeAdapter
    */
   private void initSecureMessageLayer() {
     try {
-      final SecretKeySpec keyspec =
-          new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA384");
-      mac = Mac.getInstance("HmacSHA384");
-      mac.init(keyspec);
+      requestSigner = RequestSigner.create("HmacSHA384", secret.getBytes(StandardCharsets.UTF_8));
       initializedMacAuthentication = true;
     } catch (NoSuchAlgorithmException e) {
       final String errorMsg = "Failed to setup MAC security. HINT: Is HMAC-SHA384 installed?";
@@ -801,12 +989,42 @@ public final class GeminiExchangeAdapter extends AbstractExchangeAdapter
     sellFeePercentage =
         new BigDecimal(sellFeeInConfig).divide(new BigDecimal("100"), 8, RoundingMode.HALF_UP);
     LOG.info(() -> "Sell fee % in BigDecimal format: " + sellFeePercentage);
+
+    nonceProvider = createNonceProvider(TimeUnit.MILLISECONDS, otherConfig);
   }
 
   // --------------------------------------------------------------------------
   //  Util methods
   // --------------------------------------------------------------------------
 
+  private MarketOrderBook adaptGeminiOrderBook(String marketId, ExchangeHttpResponse response) {
+    final GeminiOrderBook orderBook = gson.fromJson(response.getPayload(), GeminiOrderBook.class);
+
+    final List<MarketOrder> buyOrders = new ArrayList<>();
+    for (GeminiMarketOrder geminiBuyOrder : orderBook.bids) {
+      final MarketOrder buyOrder =
+          new MarketOrderImpl(
+              OrderType.BUY,
+              geminiBuyOrder.price,
+              geminiBuyOrder.amount,
+              geminiBuyOrder.price.multiply(geminiBuyOrder.amount));
+      buyOrders.add(buyOrder);
+    }
+
+    final List<MarketOrder> sellOrders = new ArrayList<>();
+    for (GeminiMarketOrder geminiSellOrder : orderBook.asks) {
+      final MarketOrder sellOrder =
+          new MarketOrderImpl(
+              OrderType.SELL,
+              geminiSellOrder.price,
+              geminiSellOrder.amount,
+              geminiSellOrder.price.multiply(geminiSellOrder.amount));
+      sellOrders.add(sellOrder);
+    }
+
+    return new MarketOrderBookImpl(marketId, sellOrders, buyOrders);
+  }
+
   private void initGson() {
     final GsonBuilder gsonBuilder = new GsonBuilder();
     gson = gsonBuilder.create();
@@ -819,6 +1037,18 @@ public final class GeminiExchangeAdapter extends AbstractExchangeAdapter
     return new HashMap<>();
   }
 
+  /*
+   * Balance requests go to the "balances" endpoint.
+   */
+  @Override
+  ExchangeOperation getExchangeOperation(
+      URL url, String httpMethod, Map<String, String> requestHeaders) {
+    final String path = url.getPath();
+    return path.endsWith("/balances")
+        ? ExchangeOperation.BALANCE
+        : super.getExchangeOperation(url, httpMethod, requestHeaders);
+  }
+
   /*
    * Hack for unit-testing header params passed to transport layer.
    */
@@ -834,4 +1064,12 @@ public final class GeminiExchangeAdapter extends AbstractExchangeAdapter
       throws TradingApiException, ExchangeNetworkException {
     return super.sendNetworkRequest(url, httpMethod, postData, requestHeaders);
   }
+
+  /*
+   * Hack for unit-testing transport layer.
+   */
+  private CompletableFuture<ExchangeHttpResponse> makeNetworkRequestAsync(
+      URL url, String httpMethod, String postData, Map<String, String> requestHeaders) {
+    return super.sendNonceOrderedRequestAsync(url, httpMethod, postData, requestHeaders);
+  }
 }
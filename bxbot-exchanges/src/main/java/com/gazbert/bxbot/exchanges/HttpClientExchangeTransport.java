@@ -0,0 +1,537 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.exchanges;
+
+import com.gazbert.bxbot.exchanges.AbstractExchangeAdapter.ExchangeHttpResponse;
+import com.gazbert.bxbot.exchanges.AbstractExchangeAdapter.ExchangeHttpStreamResponse;
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * {@link ExchangeHttpTransport} built on the JDK {@link HttpClient}.
+ *
+ * <p>The client keeps connections alive and pools them, so consecutive requests to the same
+ * exchange reuse the TCP+TLS connection instead of paying a new handshake every call. HTTP/2 is
+ * negotiated for https URLs where the exchange supports it, otherwise HTTP/1.1 is used.
+ *
+ * <p>Responses are requested gzip or deflate compressed, and are decoded as they are read by the
+ * {@link ResponseBodyDecoder}. Large order books are typically a tenth of the size on the wire.
+ *
+ * <p>{@link HttpRequest#timeout} only bounds the wait for the response headers, so the transport
+ * also fails a response whose body is still being read when the request times out. A stalled
+ * exchange cannot block the caller forever half way through an order book. The deadline is
+ * cancelled as soon as the response has been received, so only requests still in flight hold one.
+ *
+ * <p>One client is shared per connect timeout value by all Exchange Adapters in the JVM. The JDK
+ * client does not expose its connection pool, so the statistics describe the requests sent through
+ * it and the protocol versions negotiated.
+ *
+ * @author gazbert
+ */
+final class HttpClientExchangeTransport implements ExchangeHttpTransport {
+
+  private static final Logger LOG = LogManager.getLogger();
+
+  private static final ConcurrentMap<Duration, HttpClientExchangeTransport> SHARED_TRANSPORTS =
+      new ConcurrentHashMap<>();
+
+  private static final int STATISTICS_LOG_INTERVAL = 100;
+
+  private static final ScheduledThreadPoolExecutor DEADLINE_SCHEDULER = createDeadlineScheduler();
+
+  private static final HttpResponse.BodyHandler<byte[]> RESPONSE_BODY_HANDLER =
+      HttpResponse.BodyHandlers.ofByteArray();
+
+  private static final HttpResponse.BodyHandler<InputStream> STREAMING_BODY_HANDLER =
+      HttpResponse.BodyHandlers.ofInputStream();
+
+  private static final String USER_AGENT =
+      "Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 (KHTML, like Gecko) "
+          + "Chrome/74.0.3729.169 Safari/537.36";
+
+  private final HttpClient httpClient;
+  private final ResponseBodyDecoder responseBodyDecoder = new ResponseBodyDecoder();
+
+  private final AtomicLong requestCount = new AtomicLong();
+  private final AtomicLong failedRequestCount = new AtomicLong();
+  private final AtomicLong inFlightRequests = new AtomicLong();
+  private final AtomicLong peakInFlightRequests = new AtomicLong();
+  private final AtomicLong http2ResponseCount = new AtomicLong();
+  private final AtomicLong http11ResponseCount = new AtomicLong();
+  private final AtomicLong totalResponseTimeMillis = new AtomicLong();
+
+  HttpClientExchangeTransport(Duration connectTimeout) {
+    httpClient =
+        HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .connectTimeout(connectTimeout)
+            .build();
+  }
+
+  /**
+   * Returns the transport shared by all adapters using the given connect timeout.
+   *
+   * @param connectTimeout the connect timeout.
+   * @return the shared transport.
+   */
+  static HttpClientExchangeTransport getSharedInstance(Duration connectTimeout) {
+    return SHARED_TRANSPORTS.computeIfAbsent(connectTimeout, HttpClientExchangeTransport::new);
+  }
+
+  @Override
+  public ExchangeHttpResponse send(
+      URL url,
+      String httpMethod,
+      String postData,
+      Map<String, String> requestHeaders,
+      Duration timeout)
+      throws IOException, InterruptedException {
+
+    final HttpRequest request = buildRequest(url, httpMethod, postData, requestHeaders, timeout);
+
+    final long startTime = requestStarted();
+    try {
+      final HttpResponse<InputStream> response = httpClient.send(request, STREAMING_BODY_HANDLER);
+      final String body =
+          readBody(url, response, new DeadlineInputStream(response.body(), startTime, timeout));
+      responseReceived(response, startTime);
+      return new ExchangeHttpResponse(
+          response.statusCode(), reasonPhrase(response.statusCode()), body);
+
+    } catch (IOException | InterruptedException e) {
+      failedRequestCount.incrementAndGet();
+      throw e;
+
+    } finally {
+      requestFinished();
+    }
+  }
+
+  @Override
+  public CompletableFuture<ExchangeHttpResponse> sendAsync(
+      URL url,
+      String httpMethod,
+      String postData,
+      Map<String, String> requestHeaders,
+      Duration timeout) {
+
+    final HttpRequest request;
+    try {
+      request = buildRequest(url, httpMethod, postData, requestHeaders, timeout);
+    } catch (MalformedURLException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+
+    final long startTime = requestStarted();
+    return withDeadline(httpClient.sendAsync(request, RESPONSE_BODY_HANDLER), startTime, timeout)
+        .handle(
+            (response, error) -> {
+              requestFinished();
+              if (error != null) {
+                failedRequestCount.incrementAndGet();
+                throw error instanceof CompletionException
+                    ? (CompletionException) error
+                    : new CompletionException(error);
+              }
+              final String body;
+              try {
+                body = readBody(url, response, new ByteArrayInputStream(response.body()));
+              } catch (IOException e) {
+                failedRequestCount.incrementAndGet();
+                throw new CompletionException(e);
+              }
+              responseReceived(response, startTime);
+              return new ExchangeHttpResponse(
+                  response.statusCode(), reasonPhrase(response.statusCode()), body);
+            });
+  }
+
+  @Override
+  public ExchangeHttpStreamResponse sendStreaming(
+      URL url,
+      String httpMethod,
+      String postData,
+      Map<String, String> requestHeaders,
+      Duration timeout)
+      throws IOException, InterruptedException {
+
+    final HttpRequest request = buildRequest(url, httpMethod, postData, requestHeaders, timeout);
+
+    final long startTime = requestStarted();
+    try {
+      final HttpResponse<InputStream> response = httpClient.send(request, STREAMING_BODY_HANDLER);
+      responseReceived(response, startTime);
+      return new ExchangeHttpStreamResponse(
+          response.statusCode(),
+          reasonPhrase(response.statusCode()),
+          decodeBody(url, response, new DeadlineInputStream(response.body(), startTime, timeout)));
+
+    } catch (IOException | InterruptedException e) {
+      failedRequestCount.incrementAndGet();
+      throw e;
+
+    } finally {
+      requestFinished();
+    }
+  }
+
+  @Override
+  public CompletableFuture<ExchangeHttpStreamResponse> sendStreamingAsync(
+      URL url,
+      String httpMethod,
+      String postData,
+      Map<String, String> requestHeaders,
+      Duration timeout) {
+
+    final HttpRequest request;
+    try {
+      request = buildRequest(url, httpMethod, postData, requestHeaders, timeout);
+    } catch (MalformedURLException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+
+    final long startTime = requestStarted();
+    return httpClient
+        .sendAsync(request, STREAMING_BODY_HANDLER)
+        .handle(
+            (response, error) -> {
+              requestFinished();
+              if (error != null) {
+                failedRequestCount.incrementAndGet();
+                throw error instanceof CompletionException
+                    ? (CompletionException) error
+                    : new CompletionException(error);
+              }
+              responseReceived(response, startTime);
+              return new ExchangeHttpStreamResponse(
+                  response.statusCode(),
+                  reasonPhrase(response.statusCode()),
+                  decodeBody(
+                      url,
+                      response,
+                      new DeadlineInputStream(response.body(), startTime, timeout)));
+            });
+  }
+
+  @Override
+  public HttpTransportStatistics getStatistics() {
+    return new HttpTransportStatistics(
+        requestCount.get(),
+        failedRequestCount.get(),
+        inFlightRequests.get(),
+        peakInFlightRequests.get(),
+        http2ResponseCount.get(),
+        http11ResponseCount.get(),
+        totalResponseTimeMillis.get(),
+        responseBodyDecoder.getByteCounts());
+  }
+
+  // --------------------------------------------------------------------------
+  //  Util methods
+  // --------------------------------------------------------------------------
+
+  private long requestStarted() {
+    final long inFlight = inFlightRequests.incrementAndGet();
+    peakInFlightRequests.accumulateAndGet(inFlight, Math::max);
+    if (requestCount.incrementAndGet() % STATISTICS_LOG_INTERVAL == 0) {
+      LOG.info(() -> "HTTP transport statistics: " + getStatistics());
+    }
+    return System.nanoTime();
+  }
+
+  private void responseReceived(HttpResponse<?> response, long startTime) {
+    totalResponseTimeMillis.addAndGet((System.nanoTime() - startTime) / 1_000_000);
+    if (response.version() == HttpClient.Version.HTTP_2) {
+      http2ResponseCount.incrementAndGet();
+    } else {
+      http11ResponseCount.incrementAndGet();
+    }
+  }
+
+  private void requestFinished() {
+    inFlightRequests.decrementAndGet();
+  }
+
+  private String readBody(URL url, HttpResponse<?> response, InputStream body)
+      throws IOException {
+    try (InputStream decodedBody = decodeBody(url, response, body)) {
+      return new String(decodedBody.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+
+  private InputStream decodeBody(URL url, HttpResponse<?> response, InputStream body) {
+    return responseBodyDecoder.decode(
+        url.getHost() + url.getPath(), response.headers().firstValue("Content-Encoding"), body);
+  }
+
+  /*
+   * Fails the response with a HttpTimeoutException if it has not been received in full, body
+   * included, by the time the request times out.
+   */
+  private static <T> CompletableFuture<T> withDeadline(
+      CompletableFuture<T> response, long startTime, Duration timeout) {
+    final CompletableFuture<T> result = new CompletableFuture<>();
+    final ScheduledFuture<?> deadline =
+        scheduleDeadline(
+            startTime,
+            timeout,
+            () -> {
+              if (result.completeExceptionally(responseTimeoutError(timeout))) {
+                response.cancel(true);
+              }
+            });
+    response.whenComplete(
+        (value, error) -> {
+          deadline.cancel(false);
+          if (error == null) {
+            result.complete(value);
+          } else {
+            result.completeExceptionally(error);
+          }
+        });
+    return result;
+  }
+
+  /*
+   * Runs the task when the request times out, unless the returned future is cancelled first. The
+   * task is handed to the common pool so that slow callbacks on a timed out response cannot hold
+   * up the deadlines of other requests.
+   */
+  private static ScheduledFuture<?> scheduleDeadline(
+      long startTime, Duration timeout, Runnable task) {
+    return DEADLINE_SCHEDULER.schedule(
+        () -> ForkJoinPool.commonPool().execute(task),
+        remainingNanos(startTime, timeout),
+        TimeUnit.NANOSECONDS);
+  }
+
+  /*
+   * One daemon thread runs the deadlines for all transports. Cancelled deadlines are removed from
+   * its queue straight away rather than when they would have run.
+   */
+  private static ScheduledThreadPoolExecutor createDeadlineScheduler() {
+    final ScheduledThreadPoolExecutor scheduler =
+        new ScheduledThreadPoolExecutor(
+            1,
+            task -> {
+              final Thread thread = new Thread(task, "exchange-response-deadline");
+              thread.setDaemon(true);
+              return thread;
+            });
+    scheduler.setRemoveOnCancelPolicy(true);
+    return scheduler;
+  }
+
+  private static long remainingNanos(long startTime, Duration timeout) {
+    return Math.max(0, startTime + timeout.toNanos() - System.nanoTime());
+  }
+
+  private static HttpTimeoutException responseTimeoutError(Duration timeout) {
+    return new HttpTimeoutException(
+        "Response not received in full within " + timeout.toMillis() + "ms");
+  }
+
+  private static HttpRequest buildRequest(
+      URL url,
+      String httpMethod,
+      String postData,
+      Map<String, String> requestHeaders,
+      Duration timeout)
+      throws MalformedURLException {
+
+    final HttpRequest.Builder requestBuilder;
+    try {
+      requestBuilder = HttpRequest.newBuilder(url.toURI());
+    } catch (URISyntaxException e) {
+      final MalformedURLException malformedUrlException = new MalformedURLException(e.getMessage());
+      malformedUrlException.initCause(e);
+      throw malformedUrlException;
+    }
+
+    // h2c upgrades over plain http are not worth the risk with exchange proxies.
+    if (!"https".equalsIgnoreCase(url.getProtocol())) {
+      requestBuilder.version(HttpClient.Version.HTTP_1_1);
+    }
+    requestBuilder.timeout(timeout);
+
+    // Er, perhaps, we need to be a bit more stealth here...
+    // This was needed for some exchanges back in the day!
+    requestBuilder.header("User-Agent", USER_AGENT);
+    requestBuilder.header("Accept-Encoding", ResponseBodyDecoder.ACCEPT_ENCODING);
+
+    boolean contentTypeSet = false;
+    if (requestHeaders != null) {
+      for (final Map.Entry<String, String> requestHeader : requestHeaders.entrySet()) {
+        requestBuilder.setHeader(requestHeader.getKey(), requestHeader.getValue());
+        contentTypeSet |= "Content-Type".equalsIgnoreCase(requestHeader.getKey());
+        LOG.debug(() -> "Setting following request header: " + requestHeader);
+      }
+    }
+
+    if (httpMethod.equalsIgnoreCase("POST") && postData != null) {
+      LOG.debug(() -> "Doing POST with request body: " + postData);
+      if (!contentTypeSet) {
+        // Same default as HttpURLConnection
+        requestBuilder.header("Content-Type", "application/x-www-form-urlencoded");
+      }
+      requestBuilder.POST(HttpRequest.BodyPublishers.ofString(postData, StandardCharsets.UTF_8));
+    } else {
+      requestBuilder.method(
+          httpMethod.toUpperCase(Locale.ROOT), HttpRequest.BodyPublishers.noBody());
+    }
+    return requestBuilder.build();
+  }
+
+  private static String reasonPhrase(int statusCode) {
+    // HTTP/2 has no reason phrase; use the standard ones so adapter error messages still read well.
+    switch (statusCode) {
+      case 200:
+        return "OK";
+      case 201:
+        return "Created";
+      case 202:
+        return "Accepted";
+      case 204:
+        return "No Content";
+      case 400:
+        return "Bad Request";
+      case 401:
+        return "Unauthorized";
+      case 403:
+        return "Forbidden";
+      case 404:
+        return "Not Found";
+      case 429:
+        return "Too Many Requests";
+      case 500:
+        return "Internal Server Error";
+      case 502:
+        return "Bad Gateway";
+      case 503:
+        return "Service Unavailable";
+      case 504:
+        return "Gateway Timeout";
+      default:
+        return "HTTP " + statusCode;
+    }
+  }
+
+  /*
+   * Closes a response body that is still being read when its request times out. The blocked read
+   * then fails with a HttpTimeoutException, which the adapters treat as a non-fatal network error.
+   */
+  private static final class DeadlineInputStream extends FilterInputStream {
+
+    private final Duration timeout;
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final ScheduledFuture<?> deadline;
+    private volatile boolean expired;
+
+    DeadlineInputStream(InputStream body, long startTime, Duration timeout) {
+      super(body);
+      this.timeout = timeout;
+      deadline = scheduleDeadline(startTime, timeout, this::expire);
+    }
+
+    @Override
+    public int read() throws IOException {
+      final int result;
+      try {
+        result = super.read();
+      } catch (IOException e) {
+        throw expired ? timeoutError(e) : e;
+      }
+      return checkNotExpired(result);
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      final int result;
+      try {
+        result = super.read(b, off, len);
+      } catch (IOException e) {
+        throw expired ? timeoutError(e) : e;
+      }
+      return checkNotExpired(result);
+    }
+
+    @Override
+    public void close() throws IOException {
+      closed.set(true);
+      deadline.cancel(false);
+      super.close();
+    }
+
+    private void expire() {
+      if (closed.get()) {
+        return;
+      }
+      expired = true;
+      try {
+        in.close();
+      } catch (IOException e) {
+        LOG.debug("Failed to close timed out response body", e);
+      }
+    }
+
+    private int checkNotExpired(int result) throws IOException {
+      if (result == -1 && expired) {
+        throw responseTimeoutError(timeout);
+      }
+      return result;
+    }
+
+    private IOException timeoutError(IOException cause) {
+      final IOException timeoutError = responseTimeoutError(timeout);
+      timeoutError.initCause(cause);
+      return timeoutError;
+    }
+  }
+}
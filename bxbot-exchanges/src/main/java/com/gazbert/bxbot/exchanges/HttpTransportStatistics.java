@@ -0,0 +1,180 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.exchanges;
+
+import com.google.common.base.MoreObjects;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of an {@link ExchangeHttpTransport}'s statistics.
+ *
+ * @author gazbert
+ */
+final class HttpTransportStatistics {
+
+  private final long requestCount;
+  private final long failedRequestCount;
+  private final long inFlightRequests;
+  private final long peakInFlightRequests;
+  private final long http2ResponseCount;
+  private final long http11ResponseCount;
+  private final long totalResponseTimeMillis;
+  private final Map<String, ResponseByteCounts> responseByteCounts;
+
+  HttpTransportStatistics(
+      long requestCount,
+      long failedRequestCount,
+      long inFlightRequests,
+      long peakInFlightRequests,
+      long http2ResponseCount,
+      long http11ResponseCount,
+      long totalResponseTimeMillis,
+      Map<String, ResponseByteCounts> responseByteCounts) {
+    this.requestCount = requestCount;
+    this.failedRequestCount = failedRequestCount;
+    this.inFlightRequests = inFlightRequests;
+    this.peakInFlightRequests = peakInFlightRequests;
+    this.http2ResponseCount = http2ResponseCount;
+    this.http11ResponseCount = http11ResponseCount;
+    this.totalResponseTimeMillis = totalResponseTimeMillis;
+    this.responseByteCounts = Collections.unmodifiableMap(responseByteCounts);
+  }
+
+  /** Returns the number of requests sent. */
+  long getRequestCount() {
+    return requestCount;
+  }
+
+  /** Returns the number of requests that failed with an IO error, i.e. got no response. */
+  long getFailedRequestCount() {
+    return failedRequestCount;
+  }
+
+  /** Returns the number of requests waiting for a response when the snapshot was taken. */
+  long getInFlightRequests() {
+    return inFlightRequests;
+  }
+
+  /** Returns the largest number of requests that have been waiting for a response at once. */
+  long getPeakInFlightRequests() {
+    return peakInFlightRequests;
+  }
+
+  /** Returns the number of responses received over HTTP/2. */
+  long getHttp2ResponseCount() {
+    return http2ResponseCount;
+  }
+
+  /** Returns the number of responses received over HTTP/1.1. */
+  long getHttp11ResponseCount() {
+    return http11ResponseCount;
+  }
+
+  /** Returns the mean time in millis taken to receive a response; 0 if there are none. */
+  long getAverageResponseTimeMillis() {
+    final long responseCount = http2ResponseCount + http11ResponseCount;
+    return responseCount == 0 ? 0 : totalResponseTimeMillis / responseCount;
+  }
+
+  /** Returns the response body byte counts, keyed by endpoint (host and path). */
+  Map<String, ResponseByteCounts> getResponseByteCounts() {
+    return responseByteCounts;
+  }
+
+  /** Returns the number of response body bytes received on the wire, i.e. before decoding. */
+  long getWireBytesReceived() {
+    return responseByteCounts.values().stream().mapToLong(ResponseByteCounts::getWireBytes).sum();
+  }
+
+  /** Returns the number of response body bytes after decoding. */
+  long getDecodedBytesReceived() {
+    return responseByteCounts.values().stream()
+        .mapToLong(ResponseByteCounts::getDecodedBytes)
+        .sum();
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("requestCount", requestCount)
+        .add("failedRequestCount", failedRequestCount)
+        .add("inFlightRequests", inFlightRequests)
+        .add("peakInFlightRequests", peakInFlightRequests)
+        .add("http2ResponseCount", http2ResponseCount)
+        .add("http11ResponseCount", http11ResponseCount)
+        .add("averageResponseTimeMillis", getAverageResponseTimeMillis())
+        .add("wireBytesReceived", getWireBytesReceived())
+        .add("decodedBytesReceived", getDecodedBytesReceived())
+        .add("responseByteCounts", responseByteCounts)
+        .toString();
+  }
+
+  /** Immutable snapshot of the response body bytes received from an endpoint. */
+  static final class ResponseByteCounts {
+
+    private final long responseCount;
+    private final long compressedResponseCount;
+    private final long wireBytes;
+    private final long decodedBytes;
+
+    ResponseByteCounts(
+        long responseCount, long compressedResponseCount, long wireBytes, long decodedBytes) {
+      this.responseCount = responseCount;
+      this.compressedResponseCount = compressedResponseCount;
+      this.wireBytes = wireBytes;
+      this.decodedBytes = decodedBytes;
+    }
+
+    /** Returns the number of responses received. */
+    long getResponseCount() {
+      return responseCount;
+    }
+
+    /** Returns the number of responses that were gzip or deflate compressed. */
+    long getCompressedResponseCount() {
+      return compressedResponseCount;
+    }
+
+    /** Returns the number of body bytes received on the wire. */
+    long getWireBytes() {
+      return wireBytes;
+    }
+
+    /** Returns the number of body bytes after decoding. */
+    long getDecodedBytes() {
+      return decodedBytes;
+    }
+
+    @Override
+    public String toString() {
+      return MoreObjects.toStringHelper(this)
+          .add("responseCount", responseCount)
+          .add("compressedResponseCount", compressedResponseCount)
+          .add("wireBytes", wireBytes)
+          .add("decodedBytes", decodedBytes)
+          .toString();
+    }
+  }
+}
@@ -53,17 +53,17 @@ import java.net.URL;
 import java.net.URLConnection;
 import java.nio.charset.StandardCharsets;
 import java.security.InvalidKeyException;
-import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.text.DecimalFormat;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import javax.xml.bind.DatatypeConverter;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -159,20 +159,23 @@ public final class ItBitExchangeAdapter extends AbstractExchangeAdapter implemen
   private String key = "";
   private String secret = "";
 
-  private Mac mac;
+  private RequestSigner requestSigner;
   private boolean initializedMacAuthentication = false;
-  private long nonce = 0;
+  private NonceProvider nonceProvider;
 
   private Gson gson;
 
+  /*
+   * Synchronized so the authenticated requests, which are sent under the same lock, see the
+   * config and request signer it sets up.
+   */
   @Override
-  public void init(ExchangeConfig config) {
+  public synchronized void init(ExchangeConfig config) {
     LOG.info(() -> "About to initialise itBit ExchangeConfig: " + config);
     setAuthenticationConfig(config);
     setNetworkConfig(config);
     setOtherConfig(config);
 
-    nonce = System.currentTimeMillis() / 1000;
     initSecureMessageLayer();
     initGson();
   }
@@ -329,23 +332,7 @@ public final class ItBitExchangeAdapter extends AbstractExchangeAdapter implemen
       response =
           sendAuthenticatedRequestToExchange(
               "GET", WALLETS_RESOURCE + "/" + walletId + "/orders", params);
-
-      if (LOG.isDebugEnabled()) {
-        LOG.debug("Open Orders response: {}", response);
-      }
-
-      if (response.getStatusCode() == HttpURLConnection.HTTP_OK) {
-        final ItBitYourOrder[] itBitOpenOrders =
-            gson.fromJson(response.getPayload(), ItBitYourOrder[].class);
-
-        return adaptItBitOpenOrders(itBitOpenOrders, marketId);
-
-      } else {
-        final String errorMsg =
-            "Failed to get your open orders from exchange. Details: " + response;
-        LOG.error(errorMsg);
-        throw new TradingApiException(errorMsg);
-      }
+      return adaptItBitOpenOrdersResponse(response, marketId);
 
     } catch (ExchangeNetworkException | TradingApiException e) {
       throw e;
@@ -363,9 +350,51 @@ public final class ItBitExchangeAdapter extends AbstractExchangeAdapter implemen
     }
   }
 
+  @Override
+  public CompletableFuture<List<OpenOrder>> getYourOpenOrdersAsync(String marketId) {
+    final CompletableFuture<?> fetchWalletId =
+        walletId == null ? getBalanceInfoAsync() : CompletableFuture.completedFuture(null);
+    return fetchWalletId.thenCompose(
+        ignored -> {
+          final Map<String, String> params = createRequestParamMap();
+          params.put("status", "open"); // we only want open orders
+          return adaptItBitResponseAsync(
+              sendAuthenticatedRequestToExchangeAsync(
+                  "GET", WALLETS_RESOURCE + "/" + walletId + "/orders", params),
+              response -> adaptItBitOpenOrdersResponse(response, marketId));
+        });
+  }
+
+  private List<OpenOrder> adaptItBitOpenOrdersResponse(
+      ExchangeHttpResponse response, String marketId) throws TradingApiException {
+    if (LOG.isDebugEnabled()) {
+      LOG.debug("Open Orders response: {}", response);
+    }
+
+    if (response.getStatusCode() == HttpURLConnection.HTTP_OK) {
+      final ItBitYourOrder[] itBitOpenOrders =
+          gson.fromJson(response.getPayload(), ItBitYourOrder[].class);
+
+      return adaptItBitOpenOrders(itBitOpenOrders, marketId);
+
+    } else {
+      final String errorMsg = "Failed to get your open orders from exchange. Details: " + response;
+      LOG.error(errorMsg);
+      throw new TradingApiException(errorMsg);
+    }
+  }
+
   @Override
   public MarketOrderBook getMarketOrders(String marketId)
       throws TradingApiException, ExchangeNetworkException {
+    return singleFlight(
+        ExchangeOperation.MARKET_DATA,
+        Arrays.asList("getMarketOrders", marketId),
+        () -> fetchMarketOrders(marketId));
+  }
+
+  private MarketOrderBook fetchMarketOrders(String marketId)
+      throws TradingApiException, ExchangeNetworkException {
 
     ExchangeHttpResponse response = null;
 
@@ -375,40 +404,7 @@ public final class ItBitExchangeAdapter extends AbstractExchangeAdapter implemen
         LOG.debug("Market Orders response: {}", response);
       }
 
-      if (response.getStatusCode() == HttpURLConnection.HTTP_OK) {
-
-        final ItBitOrderBookWrapper orderBook =
-            gson.fromJson(response.getPayload(), ItBitOrderBookWrapper.class);
-
-        final List<MarketOrder> buyOrders = new ArrayList<>();
-        for (ItBitMarketOrder itBitBuyOrder : orderBook.bids) {
-          final MarketOrder buyOrder =
-              new MarketOrderImpl(
-                  OrderType.BUY,
-                  itBitBuyOrder.get(0),
-                  itBitBuyOrder.get(1),
-                  itBitBuyOrder.get(0).multiply(itBitBuyOrder.get(1)));
-          buyOrders.add(buyOrder);
-        }
-
-        final List<MarketOrder> sellOrders = new ArrayList<>();
-        for (ItBitMarketOrder itBitSellOrder : orderBook.asks) {
-          final MarketOrder sellOrder =
-              new MarketOrderImpl(
-                  OrderType.SELL,
-                  itBitSellOrder.get(0),
-                  itBitSellOrder.get(1),
-                  itBitSellOrder.get(0).multiply(itBitSellOrder.get(1)));
-          sellOrders.add(sellOrder);
-        }
-
-        return new MarketOrderBookImpl(marketId, sellOrders, buyOrders);
-      } else {
-        final String errorMsg =
-            "Failed to get market order book from exchange. Details: " + response;
-        LOG.error(errorMsg);
-        throw new TradingApiException(errorMsg);
-      }
+      return adaptItBitOrderBookResponse(marketId, response);
 
     } catch (ExchangeNetworkException | TradingApiException e) {
       throw e;
@@ -427,6 +423,20 @@ public final class ItBitExchangeAdapter extends AbstractExchangeAdapter implemen
     }
   }
 
+  @Override
+  public CompletableFuture<MarketOrderBook> getMarketOrdersAsync(String marketId) {
+    return singleFlightAsync(
+        ExchangeOperation.MARKET_DATA,
+        Arrays.asList("getMarketOrders", marketId),
+        () -> fetchMarketOrdersAsync(marketId));
+  }
+
+  private CompletableFuture<MarketOrderBook> fetchMarketOrdersAsync(String marketId) {
+    return adaptItBitResponseAsync(
+        sendPublicRequestToExchangeAsync(MARKETS_RESOURCE + "/" + marketId + "/order_book"),
+        response -> adaptItBitOrderBookResponse(marketId, response));
+  }
+
   @Override
   public BigDecimal getLatestMarketPrice(String marketId)
       throws TradingApiException, ExchangeNetworkException {
@@ -467,6 +477,11 @@ public final class ItBitExchangeAdapter extends AbstractExchangeAdapter implemen
 
   @Override
   public BalanceInfo getBalanceInfo() throws TradingApiException, ExchangeNetworkException {
+    return singleFlight(
+        ExchangeOperation.BALANCE, List.of("getBalanceInfo"), this::fetchBalanceInfo);
+  }
+
+  private BalanceInfo fetchBalanceInfo() throws TradingApiException, ExchangeNetworkException {
 
     ExchangeHttpResponse response = null;
 
@@ -475,22 +490,7 @@ public final class ItBitExchangeAdapter extends AbstractExchangeAdapter implemen
       params.put(USER_ID_PROPERTY_NAME, userId);
 
       response = sendAuthenticatedRequestToExchange("GET", WALLETS_RESOURCE, params);
-      if (LOG.isDebugEnabled()) {
-        LOG.debug("Balance Info response: {}", response);
-      }
-
-      if (response.getStatusCode() == HttpURLConnection.HTTP_OK) {
-        final ItBitWallet[] itBitWallets =
-            gson.fromJson(response.getPayload(), ItBitWallet[].class);
-
-        return adaptItBitBalanceInfo(itBitWallets);
-
-      } else {
-        final String errorMsg =
-            "Failed to get your wallet balance info from exchange. Details: " + response;
-        LOG.error(errorMsg);
-        throw new TradingApiException(errorMsg);
-      }
+      return adaptItBitBalanceResponse(response);
 
     } catch (ExchangeNetworkException | TradingApiException e) {
       throw e;
@@ -508,6 +508,39 @@ public final class ItBitExchangeAdapter extends AbstractExchangeAdapter implemen
     }
   }
 
+  @Override
+  public CompletableFuture<BalanceInfo> getBalanceInfoAsync() {
+    return singleFlightAsync(
+        ExchangeOperation.BALANCE,
+        List.of("getBalanceInfo"),
+        () -> {
+          final Map<String, String> params = createRequestParamMap();
+          params.put(USER_ID_PROPERTY_NAME, userId);
+          return adaptItBitResponseAsync(
+              sendAuthenticatedRequestToExchangeAsync("GET", WALLETS_RESOURCE, params),
+              this::adaptItBitBalanceResponse);
+        });
+  }
+
+  private BalanceInfo adaptItBitBalanceResponse(ExchangeHttpResponse response)
+      throws TradingApiException {
+    if (LOG.isDebugEnabled()) {
+      LOG.debug("Balance Info response: {}", response);
+    }
+
+    if (response.getStatusCode() == HttpURLConnection.HTTP_OK) {
+      final ItBitWallet[] itBitWallets = gson.fromJson(response.getPayload(), ItBitWallet[].class);
+
+      return adaptItBitBalanceInfo(itBitWallets);
+
+    } else {
+      final String errorMsg =
+          "Failed to get your wallet balance info from exchange. Details: " + response;
+      LOG.error(errorMsg);
+      throw new TradingApiException(errorMsg);
+    }
+  }
+
   /*
    * itBit does not provide API call for fetching % buy fee; it only provides the fee monetary
    * value for a given order via /wallets/{walletId}/trades API call. We load the % fee statically
@@ -540,27 +573,7 @@ public final class ItBitExchangeAdapter extends AbstractExchangeAdapter implemen
 
     try {
       response = sendPublicRequestToExchange(MARKETS_RESOURCE + "/" + marketId + "/ticker");
-      if (LOG.isDebugEnabled()) {
-        LOG.debug("Ticker response: {}", response);
-      }
-
-      if (response.getStatusCode() == HttpURLConnection.HTTP_OK) {
-        final ItBitTicker itBitTicker = gson.fromJson(response.getPayload(), ItBitTicker.class);
-        return new TickerImpl(
-            itBitTicker.lastPrice,
-            itBitTicker.bid,
-            itBitTicker.ask,
-            itBitTicker.low24h,
-            itBitTicker.high24h,
-            itBitTicker.openToday,
-            itBitTicker.volume24h,
-            itBitTicker.vwap24h,
-            Date.from(Instant.parse(itBitTicker.serverTimeUtc)).getTime());
-      } else {
-        final String errorMsg = "Failed to get market ticker from exchange. Details: " + response;
-        LOG.error(errorMsg);
-        throw new TradingApiException(errorMsg);
-      }
+      return adaptItBitTickerResponse(response);
 
     } catch (ExchangeNetworkException | TradingApiException e) {
       throw e;
@@ -578,6 +591,38 @@ public final class ItBitExchangeAdapter extends AbstractExchangeAdapter implemen
     }
   }
 
+  @Override
+  public CompletableFuture<Ticker> getTickerAsync(String marketId) {
+    return adaptItBitResponseAsync(
+        sendPublicRequestToExchangeAsync(MARKETS_RESOURCE + "/" + marketId + "/ticker"),
+        this::adaptItBitTickerResponse);
+  }
+
+  private Ticker adaptItBitTickerResponse(ExchangeHttpResponse response)
+      throws TradingApiException {
+    if (LOG.isDebugEnabled()) {
+      LOG.debug("Ticker response: {}", response);
+    }
+
+    if (response.getStatusCode() == HttpURLConnection.HTTP_OK) {
+      final ItBitTicker itBitTicker = gson.fromJson(response.getPayload(), ItBitTicker.class);
+      return new TickerImpl(
+          itBitTicker.lastPrice,
+          itBitTicker.bid,
+          itBitTicker.ask,
+          itBitTicker.low24h,
+          itBitTicker.high24h,
+          itBitTicker.openToday,
+          itBitTicker.volume24h,
+          itBitTicker.vwap24h,
+          Date.from(Instant.parse(itBitTicker.serverTimeUtc)).getTime());
+    } else {
+      final String errorMsg = "Failed to get market ticker from exchange. Details: " + response;
+      LOG.error(errorMsg);
+      throw new TradingApiException(errorMsg);
+    }
+  }
+
   // --------------------------------------------------------------------------
   //  GSON classes for JSON responses.
   //  See https://api.itbit.com/docs
@@ -784,14 +829,37 @@ public final class ItBitExchangeAdapter extends AbstractExchangeAdapter implemen
     }
   }
 
+  private CompletableFuture<ExchangeHttpResponse> sendPublicRequestToExchangeAsync(
+      String apiMethod) {
+    try {
+      final URL url = new URL(PUBLIC_API_BASE_URL + apiMethod);
+      return sendNetworkRequestAsync(url, "GET", null, createHeaderParamMap());
+
+    } catch (MalformedURLException e) {
+      final String errorMsg = UNEXPECTED_IO_ERROR_MSG;
+      LOG.error(errorMsg, e);
+      return CompletableFuture.failedFuture(new TradingApiException(errorMsg, e));
+    }
+  }
+
   /*
-   * Makes an authenticated API call to the itBit exchange.
-   *
-   * Quite complex, but well documented: https://api.itbit.com/docs#faq-2.-how-do-i-sign-a-request
+   * The request is signed and queued in nonce order under the nonce lock, but its response is
+   * waited for outside the lock.
    */
   private ExchangeHttpResponse sendAuthenticatedRequestToExchange(
       String httpMethod, String apiMethod, Map<String, String> params)
       throws ExchangeNetworkException, TradingApiException {
+    return awaitResponse(sendAuthenticatedRequestToExchangeAsync(httpMethod, apiMethod, params));
+  }
+
+  /*
+   * Makes an authenticated API call to the itBit exchange.
+   *
+   * Quite complex, but well documented: https://api.itbit.com/docs#faq-2.-how-do-i-sign-a-request
+   */
+  private synchronized CompletableFuture<ExchangeHttpResponse>
+      sendAuthenticatedRequestToExchangeAsync(
+          String httpMethod, String apiMethod, Map<String, String> params) {
 
     if (!initializedMacAuthentication) {
       final String errorMsg = "MAC Message security layer has not been initialized.";
@@ -803,8 +871,8 @@ public final class ItBitExchangeAdapter extends AbstractExchangeAdapter implemen
       // Generate new UNIX time in secs
       final String unixTime = Long.toString(System.currentTimeMillis());
 
-      // increment nonce for use in this call
-      nonce++;
+      // new nonce for use in this call
+      final long nonce = nonceProvider.next();
 
       if (params == null) {
         // create empty map for non-param API calls
@@ -893,22 +961,16 @@ public final class ItBitExchangeAdapter extends AbstractExchangeAdapter implemen
       final String signatureParamsInJson = gson.toJson(signatureParamList);
       LOG.debug(() -> "Signature params in JSON: " + signatureParamsInJson);
 
-      // Prepend the string version of the nonce to the JSON-encoded array string
-      final String noncePrependedToJson = nonce + signatureParamsInJson;
-
-      // Construct the SHA-256 hash of the noncePrependedToJson. Call this the message hash.
-      final MessageDigest md = MessageDigest.getInstance("SHA-256");
-      md.update(noncePrependedToJson.getBytes(StandardCharsets.UTF_8));
-      final byte[] messageHash = md.digest();
+      // Construct the SHA-256 hash of the string version of the nonce prepended to the
+      // JSON-encoded array string. Call this the message hash.
+      final byte[] messageHash =
+          requestSigner.digest(Long.toString(nonce), signatureParamsInJson);
 
       // Prepend the UTF-8 encoded request URL to the message hash.
       // Generate the SHA-512 HMAC of the prependRequestUrlToMsgHash using your API secret as the
       // key.
-      mac.reset(); // force reset
-      mac.update(invocationUrl.getBytes(StandardCharsets.UTF_8));
-      mac.update(messageHash);
-
-      final String signature = DatatypeConverter.printBase64Binary(mac.doFinal());
+      final String signature =
+          DatatypeConverter.printBase64Binary(requestSigner.sign(invocationUrl, messageHash));
 
       // Request headers required by Exchange
       final Map<String, String> requestHeaders = createHeaderParamMap();
@@ -924,17 +986,12 @@ public final class ItBitExchangeAdapter extends AbstractExchangeAdapter implemen
       requestHeaders.put("X-Auth-Nonce", Long.toString(nonce));
 
       final URL url = new URL(invocationUrl);
-      return makeNetworkRequest(url, httpMethod, requestBody, requestHeaders);
+      return makeNetworkRequestAsync(url, httpMethod, requestBody, requestHeaders);
 
     } catch (MalformedURLException e) {
       final String errorMsg = UNEXPECTED_IO_ERROR_MSG;
       LOG.error(errorMsg, e);
-      throw new TradingApiException(errorMsg, e);
-
-    } catch (NoSuchAlgorithmException e) {
-      final String errorMsg = "Failed to create SHA-256 digest when building message signature.";
-      LOG.error(errorMsg, e);
-      throw new TradingApiException(errorMsg, e);
+      return CompletableFuture.failedFuture(new TradingApiException(errorMsg, e));
     }
   }
 
@@ -946,13 +1003,13 @@ public final class ItBitExchangeAdapter extends AbstractExchangeAdapter implemen
    */
   private void initSecureMessageLayer() {
     try {
-      final SecretKeySpec keyspec =
-          new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA512");
-      mac = Mac.getInstance("HmacSHA512");
-      mac.init(keyspec);
+      requestSigner =
+          RequestSigner.create(
+              "HmacSHA512", secret.getBytes(StandardCharsets.UTF_8), "SHA-256");
       initializedMacAuthentication = true;
     } catch (NoSuchAlgorithmException e) {
-      final String errorMsg = "Failed to setup MAC security. HINT: Is HMAC-SHA512 installed?";
+      final String errorMsg =
+          "Failed to setup MAC security. HINT: Are HMAC-SHA512 and SHA-256 installed?";
       LOG.error(errorMsg, e);
       throw new IllegalStateException(errorMsg, e);
     } catch (InvalidKeyException e) {
@@ -994,12 +1051,78 @@ public final class ItBitExchangeAdapter extends AbstractExchangeAdapter implemen
     } else {
       LOG.info(() -> KEEP_ALIVE_DURING_MAINTENANCE_PROPERTY_NAME + " is not set in exchange.yaml");
     }
+
+    nonceProvider = createNonceProvider(TimeUnit.MILLISECONDS, otherConfig);
   }
 
   // --------------------------------------------------------------------------
   //  Util methods
   // --------------------------------------------------------------------------
 
+  /*
+   * Adapts the response like adaptResponseAsync, but treats a response that cannot be adapted
+   * while the exchange is down for maintenance as a network error, the same as the blocking calls.
+   */
+  private <T> CompletableFuture<T> adaptItBitResponseAsync(
+      CompletableFuture<ExchangeHttpResponse> futureResponse,
+      ExchangeResponseAdapter<T> responseAdapter) {
+    return adaptResponseAsync(
+        futureResponse,
+        response -> {
+          try {
+            return responseAdapter.adapt(response);
+
+          } catch (TradingApiException e) {
+            throw e;
+
+          } catch (Exception e) {
+            if (isExchangeUndergoingMaintenance(response) && keepAliveDuringMaintenance) {
+              LOG.warn(() -> UNDER_MAINTENANCE_WARNING_MESSAGE);
+              throw new ExchangeNetworkException(UNDER_MAINTENANCE_WARNING_MESSAGE);
+            }
+            throw e;
+          }
+        });
+  }
+
+  private MarketOrderBook adaptItBitOrderBookResponse(
+      String marketId, ExchangeHttpResponse response) throws TradingApiException {
+    if (response.getStatusCode() == HttpURLConnection.HTTP_OK) {
+
+      final ItBitOrderBookWrapper orderBook =
+          gson.fromJson(response.getPayload(), ItBitOrderBookWrapper.class);
+
+      final List<MarketOrder> buyOrders = new ArrayList<>();
+      for (ItBitMarketOrder itBitBuyOrder : orderBook.bids) {
+        final MarketOrder buyOrder =
+            new MarketOrderImpl(
+                OrderType.BUY,
+                itBitBuyOrder.get(0),
+                itBitBuyOrder.get(1),
+                itBitBuyOrder.get(0).multiply(itBitBuyOrder.get(1)));
+        buyOrders.add(buyOrder);
+      }
+
+      final List<MarketOrder> sellOrders = new ArrayList<>();
+      for (ItBitMarketOrder itBitSellOrder : orderBook.asks) {
+        final MarketOrder sellOrder =
+            new MarketOrderImpl(
+                OrderType.SELL,
+                itBitSellOrder.get(0),
+                itBitSellOrder.get(1),
+                itBitSellOrder.get(0).multiply(itBitSellOrder.get(1)));
+        sellOrders.add(sellOrder);
+      }
+
+      return new MarketOrderBookImpl(marketId, sellOrders, buyOrders);
+    } else {
+      final String errorMsg =
+          "Failed to get market order book from exchange. Details: " + response;
+      LOG.error(errorMsg);
+      throw new TradingApiException(errorMsg);
+    }
+  }
+
   private List<OpenOrder> adaptItBitOpenOrders(ItBitYourOrder[] itBitOpenOrders, String marketId)
       throws TradingApiException {
 
@@ -1096,6 +1219,26 @@ public final class ItBitExchangeAdapter extends AbstractExchangeAdapter implemen
     return new HashMap<>();
   }
 
+  /*
+   * GETs are used for both public and private API calls, so look for the auth header instead.
+   */
+  @Override
+  boolean isPrivateApiRequest(URL url, String httpMethod, Map<String, String> requestHeaders) {
+    return requestHeaders != null && requestHeaders.containsKey("Authorization");
+  }
+
+  /*
+   * Balance requests go to the "wallets" endpoint.
+   */
+  @Override
+  ExchangeOperation getExchangeOperation(
+      URL url, String httpMethod, Map<String, String> requestHeaders) {
+    final String path = url.getPath();
+    return path.endsWith("/" + WALLETS_RESOURCE)
+        ? ExchangeOperation.BALANCE
+        : super.getExchangeOperation(url, httpMethod, requestHeaders);
+  }
+
   /*
    * Hack for unit-testing header params passed to transport layer.
    */
@@ -1111,4 +1254,12 @@ public final class ItBitExchangeAdapter extends AbstractExchangeAdapter implemen
       throws TradingApiException, ExchangeNetworkException {
     return super.sendNetworkRequest(url, httpMethod, postData, requestHeaders);
   }
+
+  /*
+   * Hack for unit-testing transport layer.
+   */
+  private CompletableFuture<ExchangeHttpResponse> makeNetworkRequestAsync(
+      URL url, String httpMethod, String postData, Map<String, String> requestHeaders) {
+    return super.sendNonceOrderedRequestAsync(url, httpMethod, postData, requestHeaders);
+  }
 }
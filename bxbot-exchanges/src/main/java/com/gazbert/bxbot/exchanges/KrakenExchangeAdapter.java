@@ -50,6 +50,8 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.annotations.SerializedName;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import java.io.IOException;
 import java.lang.reflect.Type;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -60,19 +62,21 @@ import java.net.URLConnection;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.security.InvalidKeyException;
-import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -171,7 +175,7 @@ public final class KrakenExchangeAdapter extends AbstractExchangeAdapter
       "keep-alive-during-maintenance";
   private static final String EXCHANGE_UNDERGOING_MAINTENANCE_RESPONSE = "EService:Unavailable";
 
-  private long nonce = 0;
+  private NonceProvider nonceProvider;
 
   private BigDecimal buyFeePercentage;
   private BigDecimal sellFeePercentage;
@@ -181,19 +185,22 @@ public final class KrakenExchangeAdapter extends AbstractExchangeAdapter
   private String key = "";
   private String secret = "";
 
-  private Mac mac;
+  private RequestSigner requestSigner;
   private boolean initializedMacAuthentication = false;
 
   private Gson gson;
 
+  /*
+   * Synchronized so the authenticated requests, which are sent under the same lock, see the
+   * config and request signer it sets up.
+   */
   @Override
-  public void init(ExchangeConfig config) {
+  public synchronized void init(ExchangeConfig config) {
     LOG.info(() -> "About to initialise Kraken ExchangeConfig: " + config);
     setAuthenticationConfig(config);
     setNetworkConfig(config);
     setOtherConfig(config);
 
-    nonce = System.currentTimeMillis() / 1000;
     initSecureMessageLayer();
     initGson();
   }
@@ -206,42 +213,94 @@ public final class KrakenExchangeAdapter extends AbstractExchangeAdapter
   @Override
   public MarketOrderBook getMarketOrders(String marketId)
       throws TradingApiException, ExchangeNetworkException {
+    return singleFlight(
+        ExchangeOperation.MARKET_DATA,
+        Arrays.asList("getMarketOrders", marketId),
+        () -> getMarketOrders(marketId, null));
+  }
+
+  /**
+   * Fetches the top {@code depth} levels of the order book. The depth is passed to Kraken as the
+   * count param, so only the levels asked for are sent back.
+   */
+  @Override
+  public MarketOrderBook getMarketOrders(String marketId, int depth)
+      throws TradingApiException, ExchangeNetworkException {
+    assertValidOrderBookDepth(depth);
+    return singleFlight(
+        ExchangeOperation.MARKET_DATA,
+        Arrays.asList("getMarketOrders", marketId, depth),
+        () -> getMarketOrders(marketId, Integer.valueOf(depth)));
+  }
+
+  private MarketOrderBook getMarketOrders(String marketId, Integer depth)
+      throws TradingApiException, ExchangeNetworkException {
 
     ExchangeHttpResponse response;
 
     try {
       final Map<String, String> params = createRequestParamMap();
       params.put("pair", marketId);
+      if (depth != null) {
+        params.put("count", String.valueOf(depth));
+      }
+
+      if (isStreamingOrderBookParsingEnabled()) {
+        return sendPublicRequestToExchangeStreaming(
+                "Depth", params, reader -> readKrakenDepthResponse(List.of(marketId), reader))
+            .get(marketId);
+      }
 
       response = sendPublicRequestToExchange("Depth", params);
       LOG.debug(() -> "Market Orders response: " + response);
 
-      if (response.getStatusCode() == HttpURLConnection.HTTP_OK) {
-        final Type resultType =
-            new TypeToken<KrakenResponse<KrakenMarketOrderBookResult>>() {}.getType();
-        final KrakenResponse krakenResponse = gson.fromJson(response.getPayload(), resultType);
+      return adaptKrakenDepthResponse(List.of(marketId), response).get(marketId);
 
-        final List errors = krakenResponse.error;
-        if (errors == null || errors.isEmpty()) {
-          return adaptKrakenOrderBook(krakenResponse, marketId);
+    } catch (ExchangeNetworkException | TradingApiException e) {
+      throw e;
 
-        } else {
-          if (isExchangeUndergoingMaintenance(response) && keepAliveDuringMaintenance) {
-            LOG.warn(() -> UNDER_MAINTENANCE_WARNING_MESSAGE);
-            throw new ExchangeNetworkException(UNDER_MAINTENANCE_WARNING_MESSAGE);
-          }
+    } catch (Exception e) {
+      LOG.error(UNEXPECTED_ERROR_MSG, e);
+      throw new TradingApiException(UNEXPECTED_ERROR_MSG, e);
+    }
+  }
 
-          final String errorMsg = FAILED_TO_GET_MARKET_ORDERS + response;
-          LOG.error(errorMsg);
-          throw new TradingApiException(errorMsg);
-        }
+  /**
+   * Fetches the order books for all the markets in a single Depth request; Kraken takes a
+   * comma-separated list of pairs. The books are returned in the order the market ids were given.
+   */
+  @Override
+  public Map<String, MarketOrderBook> getMarketOrders(Collection<String> marketIds)
+      throws TradingApiException, ExchangeNetworkException {
+    final List<String> pairs = List.copyOf(new LinkedHashSet<>(marketIds));
+    if (pairs.size() < 2) {
+      return ExchangeAdapter.super.getMarketOrders(pairs);
+    }
+    return singleFlight(
+        ExchangeOperation.MARKET_DATA,
+        Arrays.asList("getMarketOrders", pairs),
+        () -> fetchMarketOrders(pairs));
+  }
 
-      } else {
-        final String errorMsg = FAILED_TO_GET_MARKET_ORDERS + response;
-        LOG.error(errorMsg);
-        throw new TradingApiException(errorMsg);
+  private Map<String, MarketOrderBook> fetchMarketOrders(List<String> marketIds)
+      throws TradingApiException, ExchangeNetworkException {
+
+    ExchangeHttpResponse response;
+
+    try {
+      final Map<String, String> params = createRequestParamMap();
+      params.put("pair", String.join(",", marketIds));
+
+      if (isStreamingOrderBookParsingEnabled()) {
+        return sendPublicRequestToExchangeStreaming(
+            "Depth", params, reader -> readKrakenDepthResponse(marketIds, reader));
       }
 
+      response = sendPublicRequestToExchange("Depth", params);
+      LOG.debug(() -> "Market Orders response: " + response);
+
+      return adaptKrakenDepthResponse(marketIds, response);
+
     } catch (ExchangeNetworkException | TradingApiException e) {
       throw e;
 
@@ -251,48 +310,90 @@ public final class KrakenExchangeAdapter extends AbstractExchangeAdapter
     }
   }
 
+  @Override
+  public CompletableFuture<MarketOrderBook> getMarketOrdersAsync(String marketId) {
+    return singleFlightAsync(
+        ExchangeOperation.MARKET_DATA,
+        Arrays.asList("getMarketOrders", marketId),
+        () -> fetchMarketOrdersAsync(marketId));
+  }
+
+  private CompletableFuture<MarketOrderBook> fetchMarketOrdersAsync(String marketId) {
+    final Map<String, String> params = createRequestParamMap();
+    params.put("pair", marketId);
+    return adaptResponseAsync(
+        sendPublicRequestToExchangeAsync("Depth", params),
+        response -> adaptKrakenDepthResponse(List.of(marketId), response).get(marketId));
+  }
+
   @Override
   public List<OpenOrder> getYourOpenOrders(String marketId)
       throws TradingApiException, ExchangeNetworkException {
+    try {
+      return adaptKrakenOpenOrders(fetchKrakenOpenOrders(), marketId);
+
+    } catch (ExchangeNetworkException | TradingApiException e) {
+      throw e;
+
+    } catch (Exception e) {
+      LOG.error(UNEXPECTED_ERROR_MSG, e);
+      throw new TradingApiException(UNEXPECTED_ERROR_MSG, e);
+    }
+  }
+
+  @Override
+  public CompletableFuture<List<OpenOrder>> getYourOpenOrdersAsync(String marketId) {
+    return adaptResponseAsync(
+        sendAuthenticatedRequestToExchangeAsync("OpenOrders", null),
+        response -> adaptKrakenOpenOrders(adaptKrakenOpenOrdersResponse(response), marketId));
+  }
+
+  private KrakenResponse fetchKrakenOpenOrders()
+      throws TradingApiException, ExchangeNetworkException {
 
     ExchangeHttpResponse response;
 
     try {
       response = sendAuthenticatedRequestToExchange("OpenOrders", null);
-      LOG.debug(() -> "Open Orders response: " + response);
+      return adaptKrakenOpenOrdersResponse(response);
 
-      if (response.getStatusCode() == HttpURLConnection.HTTP_OK) {
+    } catch (ExchangeNetworkException | TradingApiException e) {
+      throw e;
 
-        final Type resultType = new TypeToken<KrakenResponse<KrakenOpenOrderResult>>() {}.getType();
-        final KrakenResponse krakenResponse = gson.fromJson(response.getPayload(), resultType);
+    } catch (Exception e) {
+      LOG.error(UNEXPECTED_ERROR_MSG, e);
+      throw new TradingApiException(UNEXPECTED_ERROR_MSG, e);
+    }
+  }
 
-        final List errors = krakenResponse.error;
-        if (errors == null || errors.isEmpty()) {
-          return adaptKrakenOpenOrders(krakenResponse, marketId);
+  private KrakenResponse adaptKrakenOpenOrdersResponse(ExchangeHttpResponse response)
+      throws TradingApiException, ExchangeNetworkException {
+    LOG.debug(() -> "Open Orders response: " + response);
 
-        } else {
-          if (isExchangeUndergoingMaintenance(response) && keepAliveDuringMaintenance) {
-            LOG.warn(() -> UNDER_MAINTENANCE_WARNING_MESSAGE);
-            throw new ExchangeNetworkException(UNDER_MAINTENANCE_WARNING_MESSAGE);
-          }
+    if (response.getStatusCode() == HttpURLConnection.HTTP_OK) {
 
-          final String errorMsg = FAILED_TO_GET_OPEN_ORDERS + response;
-          LOG.error(errorMsg);
-          throw new TradingApiException(errorMsg);
-        }
+      final Type resultType = new TypeToken<KrakenResponse<KrakenOpenOrderResult>>() {}.getType();
+      final KrakenResponse krakenResponse = gson.fromJson(response.getPayload(), resultType);
+
+      final List errors = krakenResponse.error;
+      if (errors == null || errors.isEmpty()) {
+        return krakenResponse;
 
       } else {
+        if (isExchangeUndergoingMaintenance(response) && keepAliveDuringMaintenance) {
+          LOG.warn(() -> UNDER_MAINTENANCE_WARNING_MESSAGE);
+          throw new ExchangeNetworkException(UNDER_MAINTENANCE_WARNING_MESSAGE);
+        }
+
         final String errorMsg = FAILED_TO_GET_OPEN_ORDERS + response;
         LOG.error(errorMsg);
         throw new TradingApiException(errorMsg);
       }
 
-    } catch (ExchangeNetworkException | TradingApiException e) {
-      throw e;
-
-    } catch (Exception e) {
-      LOG.error(UNEXPECTED_ERROR_MSG, e);
-      throw new TradingApiException(UNEXPECTED_ERROR_MSG, e);
+    } else {
+      final String errorMsg = FAILED_TO_GET_OPEN_ORDERS + response;
+      LOG.error(errorMsg);
+      throw new TradingApiException(errorMsg);
     }
   }
 
@@ -420,6 +521,116 @@ public final class KrakenExchangeAdapter extends AbstractExchangeAdapter
     }
   }
 
+  @Override
+  public boolean isCancelAllOrdersAcrossMarketsSupported() {
+    return true;
+  }
+
+  @Override
+  public int cancelAllOrders(String marketId)
+      throws TradingApiException, ExchangeNetworkException {
+    return cancelAllOrders(List.of(marketId)).get(marketId);
+  }
+
+  /*
+   * Kraken's CancelAll request cancels every open order on the account, whatever the pair. Your
+   * open orders are fetched once for all the markets: CancelAll is only used if they are all on
+   * the given markets; otherwise each market's orders are cancelled one by one.
+   */
+  @Override
+  public Map<String, Integer> cancelAllOrders(Collection<String> marketIds)
+      throws TradingApiException, ExchangeNetworkException {
+    try {
+      final KrakenResponse openOrdersResponse = fetchKrakenOpenOrders();
+      final Map<String, List<String>> orderIdsByMarket = new LinkedHashMap<>();
+      int marketOpenOrderCount = 0;
+      for (final String marketId : new LinkedHashSet<>(marketIds)) {
+        final List<String> orderIds = new ArrayList<>();
+        for (final OpenOrder openOrder : adaptKrakenOpenOrders(openOrdersResponse, marketId)) {
+          orderIds.add(openOrder.getId());
+        }
+        orderIdsByMarket.put(marketId, orderIds);
+        marketOpenOrderCount += orderIds.size();
+      }
+
+      final Map<String, Integer> cancelledCounts = new LinkedHashMap<>();
+      final Map<String, KrakenOpenOrder> allOpenOrders =
+          ((KrakenOpenOrderResult) openOrdersResponse.result).open;
+      if (marketOpenOrderCount == 0 || allOpenOrders.size() > marketOpenOrderCount) {
+        for (final Map.Entry<String, List<String>> market : orderIdsByMarket.entrySet()) {
+          cancelledCounts.put(
+              market.getKey(),
+              market.getValue().isEmpty()
+                  ? 0
+                  : countCancelledOrders(cancelOrders(market.getValue(), market.getKey())));
+        }
+        return cancelledCounts;
+      }
+
+      final int cancelledCount = sendCancelAllRequest();
+      for (final Map.Entry<String, List<String>> market : orderIdsByMarket.entrySet()) {
+        // CancelAll only returns a total, so share it out by the open orders we found
+        cancelledCounts.put(
+            market.getKey(),
+            market.getValue().size() == marketOpenOrderCount
+                ? cancelledCount
+                : market.getValue().size());
+      }
+      return cancelledCounts;
+
+    } catch (ExchangeNetworkException | TradingApiException e) {
+      throw e;
+
+    } catch (Exception e) {
+      LOG.error(UNEXPECTED_ERROR_MSG, e);
+      throw new TradingApiException(UNEXPECTED_ERROR_MSG, e);
+    }
+  }
+
+  private int sendCancelAllRequest() throws TradingApiException, ExchangeNetworkException {
+
+    ExchangeHttpResponse response;
+
+    try {
+      response = sendAuthenticatedRequestToExchange("CancelAll", null);
+      LOG.debug(() -> "Cancel All Orders response: " + response);
+
+      if (response.getStatusCode() == HttpURLConnection.HTTP_OK) {
+
+        final Type resultType =
+            new TypeToken<KrakenResponse<KrakenCancelOrderResult>>() {}.getType();
+        final KrakenResponse krakenResponse = gson.fromJson(response.getPayload(), resultType);
+
+        final List errors = krakenResponse.error;
+        if (errors == null || errors.isEmpty()) {
+          return ((KrakenCancelOrderResult) krakenResponse.result).count;
+
+        } else {
+          if (isExchangeUndergoingMaintenance(response) && keepAliveDuringMaintenance) {
+            LOG.warn(() -> UNDER_MAINTENANCE_WARNING_MESSAGE);
+            throw new ExchangeNetworkException(UNDER_MAINTENANCE_WARNING_MESSAGE);
+          }
+
+          final String errorMsg = FAILED_TO_CANCEL_ORDER + response;
+          LOG.error(errorMsg);
+          throw new TradingApiException(errorMsg);
+        }
+
+      } else {
+        final String errorMsg = FAILED_TO_CANCEL_ORDER + response;
+        LOG.error(errorMsg);
+        throw new TradingApiException(errorMsg);
+      }
+
+    } catch (ExchangeNetworkException | TradingApiException e) {
+      throw e;
+
+    } catch (Exception e) {
+      LOG.error(UNEXPECTED_ERROR_MSG, e);
+      throw new TradingApiException(UNEXPECTED_ERROR_MSG, e);
+    }
+  }
+
   @Override
   public BigDecimal getLatestMarketPrice(String marketId)
       throws TradingApiException, ExchangeNetworkException {
@@ -476,22 +687,17 @@ public final class KrakenExchangeAdapter extends AbstractExchangeAdapter
 
   @Override
   public BalanceInfo getBalanceInfo() throws TradingApiException, ExchangeNetworkException {
+    return singleFlight(
+        ExchangeOperation.BALANCE, List.of("getBalanceInfo"), this::fetchBalanceInfo);
+  }
+
+  private BalanceInfo fetchBalanceInfo() throws TradingApiException, ExchangeNetworkException {
 
     ExchangeHttpResponse response;
 
     try {
       response = sendAuthenticatedRequestToExchange("Balance", null);
-      LOG.debug(() -> "Balance Info response: " + response);
-
-      if (response.getStatusCode() == HttpURLConnection.HTTP_OK) {
-        final Type resultType = new TypeToken<KrakenResponse<KrakenBalanceResult>>() {}.getType();
-        return adaptKrakenBalanceInfo(response, resultType);
-
-      } else {
-        final String errorMsg = FAILED_TO_GET_BALANCE + response;
-        LOG.error(errorMsg);
-        throw new TradingApiException(errorMsg);
-      }
+      return adaptKrakenBalanceResponse(response);
 
     } catch (ExchangeNetworkException | TradingApiException e) {
       throw e;
@@ -502,6 +708,32 @@ public final class KrakenExchangeAdapter extends AbstractExchangeAdapter
     }
   }
 
+  @Override
+  public CompletableFuture<BalanceInfo> getBalanceInfoAsync() {
+    return singleFlightAsync(
+        ExchangeOperation.BALANCE,
+        List.of("getBalanceInfo"),
+        () ->
+            adaptResponseAsync(
+                sendAuthenticatedRequestToExchangeAsync("Balance", null),
+                this::adaptKrakenBalanceResponse));
+  }
+
+  private BalanceInfo adaptKrakenBalanceResponse(ExchangeHttpResponse response)
+      throws TradingApiException, ExchangeNetworkException {
+    LOG.debug(() -> "Balance Info response: " + response);
+
+    if (response.getStatusCode() == HttpURLConnection.HTTP_OK) {
+      final Type resultType = new TypeToken<KrakenResponse<KrakenBalanceResult>>() {}.getType();
+      return adaptKrakenBalanceInfo(response, resultType);
+
+    } else {
+      final String errorMsg = FAILED_TO_GET_BALANCE + response;
+      LOG.error(errorMsg);
+      throw new TradingApiException(errorMsg);
+    }
+  }
+
   /*
    * Kraken does not provide API call for fetching % buy fee; it only provides the fee monetary
    * value for a given order via the OpenOrders API call. We load the % fee statically from
@@ -537,54 +769,67 @@ public final class KrakenExchangeAdapter extends AbstractExchangeAdapter
       params.put("pair", marketId);
 
       response = sendPublicRequestToExchange("Ticker", params);
-      LOG.debug(() -> "Ticker response: " + response);
+      return adaptKrakenTickerResponse(response);
 
-      if (response.getStatusCode() == HttpURLConnection.HTTP_OK) {
+    } catch (ExchangeNetworkException | TradingApiException e) {
+      throw e;
 
-        final Type resultType = new TypeToken<KrakenResponse<KrakenTickerResult>>() {}.getType();
-        final KrakenResponse krakenResponse = gson.fromJson(response.getPayload(), resultType);
+    } catch (Exception e) {
+      LOG.error(UNEXPECTED_ERROR_MSG, e);
+      throw new TradingApiException(UNEXPECTED_ERROR_MSG, e);
+    }
+  }
 
-        final List errors = krakenResponse.error;
-        if (errors == null || errors.isEmpty()) {
+  @Override
+  public CompletableFuture<Ticker> getTickerAsync(String marketId) {
+    final Map<String, String> params = createRequestParamMap();
+    params.put("pair", marketId);
+    return adaptResponseAsync(
+        sendPublicRequestToExchangeAsync("Ticker", params), this::adaptKrakenTickerResponse);
+  }
 
-          // Assume we'll always get something here if errors array is empty; else blow fast wih NPE
-          final KrakenTickerResult tickerResult = (KrakenTickerResult) krakenResponse.result;
+  private Ticker adaptKrakenTickerResponse(ExchangeHttpResponse response)
+      throws TradingApiException, ExchangeNetworkException {
+    LOG.debug(() -> "Ticker response: " + response);
 
-          // ouch!
-          return new TickerImpl(
-              new BigDecimal(tickerResult.get("c")), // last trade
-              new BigDecimal(tickerResult.get("b")), // bid
-              new BigDecimal(tickerResult.get("a")), // ask
-              new BigDecimal(tickerResult.get("l")), // low 24h
-              new BigDecimal(tickerResult.get("h")), // high 24hr
-              new BigDecimal(tickerResult.get("o")), // open
-              new BigDecimal(tickerResult.get("v")), // volume 24hr
-              new BigDecimal(tickerResult.get("p")), // vwap 24hr
-              null); // timestamp not supplied by Kraken
+    if (response.getStatusCode() == HttpURLConnection.HTTP_OK) {
 
-        } else {
-          if (isExchangeUndergoingMaintenance(response) && keepAliveDuringMaintenance) {
-            LOG.warn(() -> UNDER_MAINTENANCE_WARNING_MESSAGE);
-            throw new ExchangeNetworkException(UNDER_MAINTENANCE_WARNING_MESSAGE);
-          }
+      final Type resultType = new TypeToken<KrakenResponse<KrakenTickerResult>>() {}.getType();
+      final KrakenResponse krakenResponse = gson.fromJson(response.getPayload(), resultType);
 
-          final String errorMsg = FAILED_TO_GET_TICKER + response;
-          LOG.error(errorMsg);
-          throw new TradingApiException(errorMsg);
-        }
+      final List errors = krakenResponse.error;
+      if (errors == null || errors.isEmpty()) {
+
+        // Assume we'll always get something here if errors array is empty; else blow fast wih NPE
+        final KrakenTickerResult tickerResult = (KrakenTickerResult) krakenResponse.result;
+
+        // ouch!
+        return new TickerImpl(
+            new BigDecimal(tickerResult.get("c")), // last trade
+            new BigDecimal(tickerResult.get("b")), // bid
+            new BigDecimal(tickerResult.get("a")), // ask
+            new BigDecimal(tickerResult.get("l")), // low 24h
+            new BigDecimal(tickerResult.get("h")), // high 24hr
+            new BigDecimal(tickerResult.get("o")), // open
+            new BigDecimal(tickerResult.get("v")), // volume 24hr
+            new BigDecimal(tickerResult.get("p")), // vwap 24hr
+            null); // timestamp not supplied by Kraken
 
       } else {
+        if (isExchangeUndergoingMaintenance(response) && keepAliveDuringMaintenance) {
+          LOG.warn(() -> UNDER_MAINTENANCE_WARNING_MESSAGE);
+          throw new ExchangeNetworkException(UNDER_MAINTENANCE_WARNING_MESSAGE);
+        }
+
         final String errorMsg = FAILED_TO_GET_TICKER + response;
         LOG.error(errorMsg);
         throw new TradingApiException(errorMsg);
       }
 
-    } catch (ExchangeNetworkException | TradingApiException e) {
-      throw e;
-
-    } catch (Exception e) {
-      LOG.error(UNEXPECTED_ERROR_MSG, e);
-      throw new TradingApiException(UNEXPECTED_ERROR_MSG, e);
+    } else {
+      final String errorMsg = FAILED_TO_GET_TICKER + response;
+      LOG.error(errorMsg);
+      throw new TradingApiException(errorMsg);
     }
   }
 
@@ -878,23 +1123,24 @@ public final class KrakenExchangeAdapter extends AbstractExchangeAdapter
     final Map<String, String> requestHeaders = createHeaderParamMap();
 
     try {
-      final StringBuilder queryString = new StringBuilder();
-      if (!params.isEmpty()) {
-        queryString.append("?");
-        for (final Map.Entry<String, String> param : params.entrySet()) {
-          if (queryString.length() > 1) {
-            queryString.append("&");
-          }
-          queryString.append(param.getKey());
-          queryString.append("=");
-          queryString.append(URLEncoder.encode(param.getValue(), StandardCharsets.UTF_8));
-        }
+      final URL url = createPublicApiUrl(apiMethod, params, requestHeaders);
+      return makeNetworkRequest(url, "GET", null, requestHeaders);
 
-        requestHeaders.put("Content-Type", "application/x-www-form-urlencoded");
-      }
+    } catch (MalformedURLException e) {
+      final String errorMsg = UNEXPECTED_IO_ERROR_MSG;
+      LOG.error(errorMsg, e);
+      throw new TradingApiException(errorMsg, e);
+    }
+  }
 
-      final URL url = new URL(PUBLIC_API_BASE_URL + apiMethod + queryString);
-      return makeNetworkRequest(url, "GET", null, requestHeaders);
+  private <T> T sendPublicRequestToExchangeStreaming(
+      String apiMethod, Map<String, String> params, ExchangeResponseStreamParser<T> responseParser)
+      throws ExchangeNetworkException, TradingApiException {
+    // Request headers required by Exchange
+    final Map<String, String> requestHeaders = createHeaderParamMap();
+    try {
+      final URL url = createPublicApiUrl(apiMethod, params, requestHeaders);
+      return sendNetworkRequestStreaming(url, "GET", null, requestHeaders, responseParser);
 
     } catch (MalformedURLException e) {
       final String errorMsg = UNEXPECTED_IO_ERROR_MSG;
@@ -903,6 +1149,56 @@ public final class KrakenExchangeAdapter extends AbstractExchangeAdapter
     }
   }
 
+  private CompletableFuture<ExchangeHttpResponse> sendPublicRequestToExchangeAsync(
+      String apiMethod, Map<String, String> params) {
+    // Request headers required by Exchange
+    final Map<String, String> requestHeaders = createHeaderParamMap();
+    try {
+      final URL url = createPublicApiUrl(apiMethod, params, requestHeaders);
+      return sendNetworkRequestAsync(url, "GET", null, requestHeaders);
+
+    } catch (MalformedURLException e) {
+      final String errorMsg = UNEXPECTED_IO_ERROR_MSG;
+      LOG.error(errorMsg, e);
+      return CompletableFuture.failedFuture(new TradingApiException(errorMsg, e));
+    }
+  }
+
+  /*
+   * Builds the public API URL with the params as the query string. Adds the Content-Type header
+   * required by the exchange when there are params.
+   */
+  private static URL createPublicApiUrl(
+      String apiMethod, Map<String, String> params, Map<String, String> requestHeaders)
+      throws MalformedURLException {
+    final StringBuilder queryString = new StringBuilder();
+    if (!params.isEmpty()) {
+      queryString.append("?");
+      for (final Map.Entry<String, String> param : params.entrySet()) {
+        if (queryString.length() > 1) {
+          queryString.append("&");
+        }
+        queryString.append(param.getKey());
+        queryString.append("=");
+        queryString.append(URLEncoder.encode(param.getValue(), StandardCharsets.UTF_8));
+      }
+
+      requestHeaders.put("Content-Type", "application/x-www-form-urlencoded");
+    }
+
+    return new URL(PUBLIC_API_BASE_URL + apiMethod + queryString);
+  }
+
+  /*
+   * The request is signed and queued in nonce order under the nonce lock, but its response is
+   * waited for outside the lock.
+   */
+  private ExchangeHttpResponse sendAuthenticatedRequestToExchange(
+      String apiMethod, Map<String, String> params)
+      throws ExchangeNetworkException, TradingApiException {
+    return awaitResponse(sendAuthenticatedRequestToExchangeAsync(apiMethod, params));
+  }
+
   /*
    * Makes an authenticated API call to the Kraken exchange.
    *
@@ -920,9 +1216,8 @@ public final class KrakenExchangeAdapter extends AbstractExchangeAdapter
    * nonce. Depending on your connectivity, a setting that would accommodate 3-15 seconds of
    * network issues is suggested.
    */
-  private ExchangeHttpResponse sendAuthenticatedRequestToExchange(
-      String apiMethod, Map<String, String> params)
-      throws ExchangeNetworkException, TradingApiException {
+  private synchronized CompletableFuture<ExchangeHttpResponse>
+      sendAuthenticatedRequestToExchangeAsync(String apiMethod, Map<String, String> params) {
 
     if (!initializedMacAuthentication) {
       final String errorMsg = "MAC Message security layer has not been initialized.";
@@ -939,7 +1234,7 @@ public final class KrakenExchangeAdapter extends AbstractExchangeAdapter
       // The nonce is required by Kraken in every request.
       // It MUST be incremented each time and the nonce param MUST match the value used in
       // signature.
-      nonce++;
+      final long nonce = nonceProvider.next();
       params.put("nonce", Long.toString(nonce));
 
       // Build the URL with query param args in it - yuk!
@@ -954,23 +1249,16 @@ public final class KrakenExchangeAdapter extends AbstractExchangeAdapter
       }
 
       // And now the tricky part... ;-o
-      final byte[] pathInBytes =
-          ("/" + KRAKEN_API_VERSION + KRAKEN_PRIVATE_PATH + apiMethod)
-              .getBytes(StandardCharsets.UTF_8);
-      final String noncePrependedToPostData = Long.toString(nonce) + postData;
+      final String path = "/" + KRAKEN_API_VERSION + KRAKEN_PRIVATE_PATH + apiMethod;
 
       // Create sha256 hash of nonce and post data:
-      final MessageDigest md = MessageDigest.getInstance("SHA-256");
-      md.update(noncePrependedToPostData.getBytes(StandardCharsets.UTF_8));
-      final byte[] messageHash = md.digest();
+      final byte[] messageHash = requestSigner.digest(Long.toString(nonce), postData);
 
       // Create hmac_sha512 digest of path and previous sha256 hash
-      mac.reset(); // force reset
-      mac.update(pathInBytes);
-      mac.update(messageHash);
+      final byte[] messageSignature = requestSigner.sign(path, messageHash);
 
       // Signature in Base64
-      final String signature = Base64.getEncoder().encodeToString(mac.doFinal());
+      final String signature = Base64.getEncoder().encodeToString(messageSignature);
 
       // Request headers required by Exchange
       final Map<String, String> requestHeaders = createHeaderParamMap();
@@ -979,12 +1267,12 @@ public final class KrakenExchangeAdapter extends AbstractExchangeAdapter
       requestHeaders.put("API-Sign", signature);
 
       final URL url = new URL(AUTHENTICATED_API_URL + apiMethod);
-      return makeNetworkRequest(url, "POST", postData.toString(), requestHeaders);
+      return makeNetworkRequestAsync(url, "POST", postData.toString(), requestHeaders);
 
-    } catch (MalformedURLException | NoSuchAlgorithmException e) {
+    } catch (MalformedURLException e) {
       final String errorMsg = UNEXPECTED_IO_ERROR_MSG;
       LOG.error(errorMsg, e);
-      throw new TradingApiException(errorMsg, e);
+      return CompletableFuture.failedFuture(new TradingApiException(errorMsg, e));
     }
   }
 
@@ -999,12 +1287,11 @@ public final class KrakenExchangeAdapter extends AbstractExchangeAdapter
       // Kraken secret key is in Base64, so we need to decode it first
       final byte[] base64DecodedSecret = Base64.getDecoder().decode(secret);
 
-      final SecretKeySpec keyspec = new SecretKeySpec(base64DecodedSecret, "HmacSHA512");
-      mac = Mac.getInstance("HmacSHA512");
-      mac.init(keyspec);
+      requestSigner = RequestSigner.create("HmacSHA512", base64DecodedSecret, "SHA-256");
       initializedMacAuthentication = true;
     } catch (NoSuchAlgorithmException e) {
-      final String errorMsg = "Failed to setup MAC security. HINT: Is HmacSHA512 installed?";
+      final String errorMsg =
+          "Failed to setup MAC security. HINT: Are HmacSHA512 and SHA-256 installed?";
       LOG.error(errorMsg, e);
       throw new IllegalStateException(errorMsg, e);
     } catch (InvalidKeyException e) {
@@ -1045,12 +1332,99 @@ public final class KrakenExchangeAdapter extends AbstractExchangeAdapter
     } else {
       LOG.info(() -> KEEP_ALIVE_DURING_MAINTENANCE_PROPERTY_NAME + " is not set in exchange.yaml");
     }
+
+    setStreamingOrderBookParsing(otherConfig);
+    nonceProvider = createNonceProvider(TimeUnit.MILLISECONDS, otherConfig);
   }
 
   // --------------------------------------------------------------------------
   //  Util methods
   // --------------------------------------------------------------------------
 
+  private Map<String, MarketOrderBook> adaptKrakenDepthResponse(
+      List<String> marketIds, ExchangeHttpResponse response)
+      throws TradingApiException, ExchangeNetworkException {
+    if (response.getStatusCode() == HttpURLConnection.HTTP_OK) {
+      final Type resultType =
+          new TypeToken<KrakenResponse<KrakenMarketOrderBookResult>>() {}.getType();
+      final KrakenResponse krakenResponse = gson.fromJson(response.getPayload(), resultType);
+
+      final List errors = krakenResponse.error;
+      if (errors == null || errors.isEmpty()) {
+        return adaptKrakenOrderBooks(krakenResponse, marketIds);
+
+      } else {
+        if (isExchangeUndergoingMaintenance(response) && keepAliveDuringMaintenance) {
+          LOG.warn(() -> UNDER_MAINTENANCE_WARNING_MESSAGE);
+          throw new ExchangeNetworkException(UNDER_MAINTENANCE_WARNING_MESSAGE);
+        }
+
+        final String errorMsg = FAILED_TO_GET_MARKET_ORDERS + response;
+        LOG.error(errorMsg);
+        throw new TradingApiException(errorMsg);
+      }
+
+    } else {
+      final String errorMsg = FAILED_TO_GET_MARKET_ORDERS + response;
+      LOG.error(errorMsg);
+      throw new TradingApiException(errorMsg);
+    }
+  }
+
+  /*
+   * Streaming equivalent of adaptKrakenDepthResponse: reads the error list and the order book for
+   * each pair in the result straight off the wire.
+   */
+  private Map<String, MarketOrderBook> readKrakenDepthResponse(
+      List<String> marketIds, JsonReader reader)
+      throws IOException, TradingApiException, ExchangeNetworkException {
+    final List<String> errors = new ArrayList<>();
+    final Map<String, MarketOrderBook> orderBooks = new HashMap<>();
+
+    reader.beginObject();
+    while (reader.hasNext()) {
+      switch (reader.nextName()) {
+        case "error":
+          reader.beginArray();
+          while (reader.hasNext()) {
+            errors.add(reader.nextString());
+          }
+          reader.endArray();
+          break;
+        case "result":
+          reader.beginObject();
+          while (reader.hasNext()) {
+            final String marketId = findMarketIdForPair(reader.nextName(), marketIds);
+            if (marketId == null) {
+              reader.skipValue();
+            } else {
+              orderBooks.put(
+                  marketId, StreamingOrderBookReader.readArrayOrderBook(marketId, reader));
+            }
+          }
+          reader.endObject();
+          break;
+        default:
+          reader.skipValue();
+      }
+    }
+    reader.endObject();
+
+    if (errors.isEmpty() && orderBooks.keySet().containsAll(marketIds)) {
+      return inMarketIdOrder(marketIds, orderBooks);
+    }
+
+    if (keepAliveDuringMaintenance
+        && errors.stream().anyMatch(e -> e.contains(EXCHANGE_UNDERGOING_MAINTENANCE_RESPONSE))) {
+      LOG.warn(() -> UNDER_MAINTENANCE_WARNING_MESSAGE);
+      throw new ExchangeNetworkException(UNDER_MAINTENANCE_WARNING_MESSAGE);
+    }
+
+    final String errorMsg = FAILED_TO_GET_MARKET_ORDERS + errors;
+    LOG.error(errorMsg);
+    throw new TradingApiException(errorMsg);
+  }
+
   private List<OpenOrder> adaptKrakenOpenOrders(KrakenResponse krakenResponse, String marketId)
       throws TradingApiException {
     final List<OpenOrder> openOrders = new ArrayList<>();
@@ -1104,38 +1478,23 @@ public final class KrakenExchangeAdapter extends AbstractExchangeAdapter
     return openOrders;
   }
 
-  private MarketOrderBookImpl adaptKrakenOrderBook(KrakenResponse krakenResponse, String marketId)
-      throws TradingApiException {
+  private Map<String, MarketOrderBook> adaptKrakenOrderBooks(
+      KrakenResponse krakenResponse, List<String> marketIds) throws TradingApiException {
 
     // Assume we'll always get something here if errors array is empty; else blow fast wih NPE
     final KrakenMarketOrderBookResult krakenOrderBookResult =
         (KrakenMarketOrderBookResult) krakenResponse.result;
-    final Optional<KrakenOrderBook> first = krakenOrderBookResult.values().stream().findFirst();
-    if (first.isPresent()) {
-      final KrakenOrderBook krakenOrderBook = first.get();
-
-      final List<MarketOrder> buyOrders = new ArrayList<>();
-      for (KrakenMarketOrder krakenBuyOrder : krakenOrderBook.bids) {
-        final MarketOrder buyOrder =
-            new MarketOrderImpl(
-                OrderType.BUY,
-                krakenBuyOrder.get(0),
-                krakenBuyOrder.get(1),
-                krakenBuyOrder.get(0).multiply(krakenBuyOrder.get(1)));
-        buyOrders.add(buyOrder);
-      }
 
-      final List<MarketOrder> sellOrders = new ArrayList<>();
-      for (KrakenMarketOrder krakenSellOrder : krakenOrderBook.asks) {
-        final MarketOrder sellOrder =
-            new MarketOrderImpl(
-                OrderType.SELL,
-                krakenSellOrder.get(0),
-                krakenSellOrder.get(1),
-                krakenSellOrder.get(0).multiply(krakenSellOrder.get(1)));
-        sellOrders.add(sellOrder);
+    final Map<String, MarketOrderBook> orderBooks = new HashMap<>();
+    for (final Map.Entry<String, KrakenOrderBook> pair : krakenOrderBookResult.entrySet()) {
+      final String marketId = findMarketIdForPair(pair.getKey(), marketIds);
+      if (marketId != null) {
+        orderBooks.put(marketId, adaptKrakenOrderBook(pair.getValue(), marketId));
       }
-      return new MarketOrderBookImpl(marketId, sellOrders, buyOrders);
+    }
+
+    if (orderBooks.keySet().containsAll(marketIds)) {
+      return inMarketIdOrder(marketIds, orderBooks);
     } else {
       final String errorMsg = FAILED_TO_GET_MARKET_ORDERS + krakenResponse;
       LOG.error(errorMsg);
@@ -1143,6 +1502,69 @@ public final class KrakenExchangeAdapter extends AbstractExchangeAdapter
     }
   }
 
+  private MarketOrderBookImpl adaptKrakenOrderBook(
+      KrakenOrderBook krakenOrderBook, String marketId) {
+    final List<MarketOrder> buyOrders = new ArrayList<>();
+    for (KrakenMarketOrder krakenBuyOrder : krakenOrderBook.bids) {
+      final MarketOrder buyOrder =
+          new MarketOrderImpl(
+              OrderType.BUY,
+              krakenBuyOrder.get(0),
+              krakenBuyOrder.get(1),
+              krakenBuyOrder.get(0).multiply(krakenBuyOrder.get(1)));
+      buyOrders.add(buyOrder);
+    }
+
+    final List<MarketOrder> sellOrders = new ArrayList<>();
+    for (KrakenMarketOrder krakenSellOrder : krakenOrderBook.asks) {
+      final MarketOrder sellOrder =
+          new MarketOrderImpl(
+              OrderType.SELL,
+              krakenSellOrder.get(0),
+              krakenSellOrder.get(1),
+              krakenSellOrder.get(0).multiply(krakenSellOrder.get(1)));
+      sellOrders.add(sellOrder);
+    }
+    return new MarketOrderBookImpl(marketId, sellOrders, buyOrders);
+  }
+
+  /*
+   * Kraken keys the Depth result by its own name for each pair, which is not always the name it
+   * was asked for, e.g. XXBTZUSD for XBTUSD. Returns the market id the pair name is for, or null if
+   * it matches none of them.
+   */
+  private static String findMarketIdForPair(String pairName, List<String> marketIds) {
+    if (marketIds.size() == 1) {
+      return marketIds.get(0);
+    }
+    for (final String marketId : marketIds) {
+      if (marketId.equalsIgnoreCase(pairName)) {
+        return marketId;
+      }
+    }
+    // Legacy pair names prefix each 3 letter asset with X (crypto) or Z (fiat)
+    if (pairName.length() == 8
+        && "XZ".indexOf(pairName.charAt(0)) >= 0
+        && "XZ".indexOf(pairName.charAt(4)) >= 0) {
+      final String unprefixedPairName = pairName.substring(1, 4) + pairName.substring(5);
+      for (final String marketId : marketIds) {
+        if (marketId.equalsIgnoreCase(unprefixedPairName)) {
+          return marketId;
+        }
+      }
+    }
+    return null;
+  }
+
+  private static Map<String, MarketOrderBook> inMarketIdOrder(
+      List<String> marketIds, Map<String, MarketOrderBook> orderBooks) {
+    final Map<String, MarketOrderBook> orderedBooks = new LinkedHashMap<>();
+    for (final String marketId : marketIds) {
+      orderedBooks.put(marketId, orderBooks.get(marketId));
+    }
+    return orderedBooks;
+  }
+
   private boolean adaptKrakenCancelOrderResult(KrakenResponse krakenResponse) {
     // Assume we'll always get something here if errors array is empty; else blow fast wih NPE
     final KrakenCancelOrderResult krakenCancelOrderResult =
@@ -1218,6 +1640,18 @@ public final class KrakenExchangeAdapter extends AbstractExchangeAdapter
     return new HashMap<>();
   }
 
+  /*
+   * Balance requests go to the "Balance" endpoint.
+   */
+  @Override
+  ExchangeOperation getExchangeOperation(
+      URL url, String httpMethod, Map<String, String> requestHeaders) {
+    final String path = url.getPath();
+    return path.endsWith("/Balance")
+        ? ExchangeOperation.BALANCE
+        : super.getExchangeOperation(url, httpMethod, requestHeaders);
+  }
+
   /*
    * Hack for unit-testing header params passed to transport layer.
    */
@@ -1233,4 +1667,12 @@ public final class KrakenExchangeAdapter extends AbstractExchangeAdapter
       throws TradingApiException, ExchangeNetworkException {
     return super.sendNetworkRequest(url, httpMethod, postData, requestHeaders);
   }
+
+  /*
+   * Hack for unit-testing transport layer.
+   */
+  private CompletableFuture<ExchangeHttpResponse> makeNetworkRequestAsync(
+      URL url, String httpMethod, String postData, Map<String, String> requestHeaders) {
+    return super.sendNonceOrderedRequestAsync(url, httpMethod, postData, requestHeaders);
+  }
 }
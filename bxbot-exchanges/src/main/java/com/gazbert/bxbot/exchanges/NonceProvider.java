@@ -0,0 +1,135 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.exchanges;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Generates the nonces the exchanges require in signed requests.
+ *
+ * <p>Each nonce is the current time in the provider's unit, or the last nonce + 1 if that is
+ * greater, so nonces are strictly increasing even when the clock is adjusted backwards or several
+ * requests are signed within one tick. It is safe to call from multiple threads.
+ *
+ * <p>Optionally, the last nonce is written to a memory-mapped file and the provider is seeded from
+ * it on startup. This keeps nonces increasing across a restart, even when the previous run had
+ * issued nonces ahead of the clock. The file is updated in the page cache on every call, so it
+ * survives the process dying, but not necessarily the machine crashing.
+ *
+ * @author gazbert
+ */
+final class NonceProvider {
+
+  private final AtomicLong lastNonce;
+  private final LongSupplier clock;
+  private final MappedByteBuffer nonceFile;
+  private long lastPersistedNonce;
+
+  private NonceProvider(LongSupplier clock, long persistedNonce, MappedByteBuffer nonceFile) {
+    this.clock = clock;
+    this.nonceFile = nonceFile;
+    lastPersistedNonce = persistedNonce;
+    lastNonce = new AtomicLong(persistedNonce);
+  }
+
+  /**
+   * Creates a provider that is not persisted.
+   *
+   * @param unit the unit of the clock time used for the nonces, e.g. MICROSECONDS.
+   * @return the provider.
+   */
+  static NonceProvider create(TimeUnit unit) {
+    return new NonceProvider(wallClock(unit), 0, null);
+  }
+
+  /**
+   * Creates a provider that persists the last nonce to a file, creating it if needed.
+   *
+   * @param unit the unit of the clock time used for the nonces, e.g. MICROSECONDS.
+   * @param file the file.
+   * @return the provider.
+   * @throws IOException if the file cannot be opened or mapped.
+   */
+  static NonceProvider create(TimeUnit unit, Path file) throws IOException {
+    return create(wallClock(unit), file);
+  }
+
+  /** Creates a persisted provider that uses the given clock. For testing. */
+  static NonceProvider create(LongSupplier clock, Path file) throws IOException {
+    try (FileChannel channel =
+        FileChannel.open(
+            file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      // the mapping stays valid after the channel is closed
+      final MappedByteBuffer nonceFile = channel.map(FileChannel.MapMode.READ_WRITE, 0, Long.BYTES);
+      return new NonceProvider(clock, nonceFile.getLong(0), nonceFile);
+    }
+  }
+
+  /** Creates a provider that uses the given clock. For testing. */
+  static NonceProvider create(LongSupplier clock) {
+    return new NonceProvider(clock, 0, null);
+  }
+
+  /**
+   * Returns the next nonce. It is greater than every nonce this provider, or a previous provider
+   * persisted to the same file, has returned.
+   *
+   * @return the nonce.
+   */
+  long next() {
+    final long nonce =
+        lastNonce.accumulateAndGet(clock.getAsLong(), (last, now) -> Math.max(last + 1, now));
+    if (nonceFile != null) {
+      persist(nonce);
+    }
+    return nonce;
+  }
+
+  /*
+   * Only moves the persisted value forward, so a thread that lost the race cannot write an older
+   * nonce over a newer one. The nonce is persisted before it is returned to the caller.
+   */
+  private synchronized void persist(long nonce) {
+    if (nonce > lastPersistedNonce) {
+      nonceFile.putLong(0, nonce);
+      lastPersistedNonce = nonce;
+    }
+  }
+
+  private static LongSupplier wallClock(TimeUnit unit) {
+    return () -> {
+      final Instant now = Instant.now();
+      return unit.convert(now.getEpochSecond(), TimeUnit.SECONDS)
+          + unit.convert(now.getNano(), TimeUnit.NANOSECONDS);
+    };
+  }
+}
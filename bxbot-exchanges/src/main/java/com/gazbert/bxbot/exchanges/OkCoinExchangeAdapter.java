@@ -52,14 +52,15 @@ import java.net.URL;
 import java.net.URLConnection;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -114,6 +115,9 @@ public final class OkCoinExchangeAdapter extends AbstractExchangeAdapter
   private static final String SYMBOL = "symbol";
   private static final String ORDER_ID = "orderId";
 
+  /** The most order book levels OKCoin will send back each side. */
+  private static final int MAX_DEPTH_SIZE = 200;
+
   private static final String KEY_PROPERTY_NAME = "key";
   private static final String SECRET_PROPERTY_NAME = "secret";
 
@@ -126,7 +130,7 @@ public final class OkCoinExchangeAdapter extends AbstractExchangeAdapter
   private String key = "";
   private String secret = "";
 
-  private MessageDigest messageDigest;
+  private RequestSigner requestSigner;
   private boolean initializedSecureMessagingLayer = false;
 
   private Gson gson;
@@ -240,50 +244,7 @@ public final class OkCoinExchangeAdapter extends AbstractExchangeAdapter
 
       final ExchangeHttpResponse response =
           sendAuthenticatedRequestToExchange("order_info.do", params);
-      LOG.debug(() -> "Open Orders response: " + response);
-
-      final OkCoinOrderInfoWrapper orderInfoWrapper =
-          gson.fromJson(response.getPayload(), OkCoinOrderInfoWrapper.class);
-      if (orderInfoWrapper.result) {
-
-        final List<OpenOrder> ordersToReturn = new ArrayList<>();
-        for (final OkCoinOpenOrder openOrder : orderInfoWrapper.orders) {
-          OrderType orderType;
-          switch (openOrder.type) {
-            case "buy":
-              orderType = OrderType.BUY;
-              break;
-            case "sell":
-              orderType = OrderType.SELL;
-              break;
-            default:
-              throw new TradingApiException(
-                  "Unrecognised order type received in getYourOpenOrders(). Value: "
-                      + openOrder.type);
-          }
-
-          final OpenOrder order =
-              new OpenOrderImpl(
-                  Long.toString(openOrder.orderId),
-                  new Date(openOrder.createDate),
-                  marketId,
-                  orderType,
-                  openOrder.price,
-                  openOrder.amount,
-                  null, // orig_quantity - not provided by OKCoin :-(
-                  openOrder.price.multiply(openOrder.amount) // total - not provided by OKCoin :-(
-                  );
-
-          ordersToReturn.add(order);
-        }
-        return ordersToReturn;
-
-      } else {
-        final String errorMsg =
-            "Failed to get Open Order Info from exchange. Error response: " + response;
-        LOG.error(errorMsg);
-        throw new TradingApiException(errorMsg);
-      }
+      return adaptOkCoinOpenOrdersResponse(response, marketId);
 
     } catch (ExchangeNetworkException | TradingApiException e) {
       throw e;
@@ -294,47 +255,100 @@ public final class OkCoinExchangeAdapter extends AbstractExchangeAdapter
     }
   }
 
+  @Override
+  public CompletableFuture<List<OpenOrder>> getYourOpenOrdersAsync(String marketId) {
+    final Map<String, String> params = createRequestParamMap();
+    params.put(SYMBOL, marketId);
+    params.put("order_id", "-1"); // -1 means bring back all the orders
+    return adaptResponseAsync(
+        sendAuthenticatedRequestToExchangeAsync("order_info.do", params),
+        response -> adaptOkCoinOpenOrdersResponse(response, marketId));
+  }
+
+  private List<OpenOrder> adaptOkCoinOpenOrdersResponse(
+      ExchangeHttpResponse response, String marketId) throws TradingApiException {
+    LOG.debug(() -> "Open Orders response: " + response);
+
+    final OkCoinOrderInfoWrapper orderInfoWrapper =
+        gson.fromJson(response.getPayload(), OkCoinOrderInfoWrapper.class);
+    if (orderInfoWrapper.result) {
+
+      final List<OpenOrder> ordersToReturn = new ArrayList<>();
+      for (final OkCoinOpenOrder openOrder : orderInfoWrapper.orders) {
+        OrderType orderType;
+        switch (openOrder.type) {
+          case "buy":
+            orderType = OrderType.BUY;
+            break;
+          case "sell":
+            orderType = OrderType.SELL;
+            break;
+          default:
+            throw new TradingApiException(
+                "Unrecognised order type received in getYourOpenOrders(). Value: "
+                    + openOrder.type);
+        }
+
+        final OpenOrder order =
+            new OpenOrderImpl(
+                Long.toString(openOrder.orderId),
+                new Date(openOrder.createDate),
+                marketId,
+                orderType,
+                openOrder.price,
+                openOrder.amount,
+                null, // orig_quantity - not provided by OKCoin :-(
+                openOrder.price.multiply(openOrder.amount) // total - not provided by OKCoin :-(
+                );
+
+        ordersToReturn.add(order);
+      }
+      return ordersToReturn;
+
+    } else {
+      final String errorMsg =
+          "Failed to get Open Order Info from exchange. Error response: " + response;
+      LOG.error(errorMsg);
+      throw new TradingApiException(errorMsg);
+    }
+  }
+
   @Override
   public MarketOrderBook getMarketOrders(String marketId)
       throws TradingApiException, ExchangeNetworkException {
+    return singleFlight(
+        ExchangeOperation.MARKET_DATA,
+        Arrays.asList("getMarketOrders", marketId),
+        () -> getMarketOrders(marketId, null));
+  }
+
+  /**
+   * Fetches the top {@code depth} levels of the order book. The depth is passed to OKCoin as the
+   * size param, so only the levels asked for are sent back. OKCoin caps the size at 200.
+   */
+  @Override
+  public MarketOrderBook getMarketOrders(String marketId, int depth)
+      throws TradingApiException, ExchangeNetworkException {
+    assertValidOrderBookDepth(depth);
+    return singleFlight(
+        ExchangeOperation.MARKET_DATA,
+        Arrays.asList("getMarketOrders", marketId, depth),
+        () -> getMarketOrders(marketId, Integer.valueOf(depth)));
+  }
+
+  private MarketOrderBook getMarketOrders(String marketId, Integer depth)
+      throws TradingApiException, ExchangeNetworkException {
     try {
       final Map<String, String> params = createRequestParamMap();
       params.put(SYMBOL, marketId);
+      if (depth != null) {
+        params.put("size", String.valueOf(Math.min(depth, MAX_DEPTH_SIZE)));
+      }
 
       final ExchangeHttpResponse response = sendPublicRequestToExchange("depth.do", params);
       LOG.debug(() -> "Market Orders response: " + response);
 
-      final OkCoinDepthWrapper orderBook =
-          gson.fromJson(response.getPayload(), OkCoinDepthWrapper.class);
-
-      final List<MarketOrder> buyOrders = new ArrayList<>();
-      for (OkCoinMarketOrder okCoinBuyOrder : orderBook.bids) {
-        final MarketOrder buyOrder =
-            new MarketOrderImpl(
-                OrderType.BUY,
-                okCoinBuyOrder.get(0),
-                okCoinBuyOrder.get(1),
-                okCoinBuyOrder.get(0).multiply(okCoinBuyOrder.get(1)));
-        buyOrders.add(buyOrder);
-      }
-
-      final List<MarketOrder> sellOrders = new ArrayList<>();
-      for (OkCoinMarketOrder okCoinSellOrder : orderBook.asks) {
-        final MarketOrder sellOrder =
-            new MarketOrderImpl(
-                OrderType.SELL,
-                okCoinSellOrder.get(0),
-                okCoinSellOrder.get(1),
-                okCoinSellOrder.get(0).multiply(okCoinSellOrder.get(1)));
-        sellOrders.add(sellOrder);
-      }
-
-      // For some reason, OKCoin sorts ask orders in descending order instead of ascending.
-      // We need to re-order price ascending - lowest ASK price will be first in list.
-      sellOrders.sort(
-          (thisOrder, thatOrder) ->
-              Integer.compare(thisOrder.getPrice().compareTo(thatOrder.getPrice()), 0));
-      return new MarketOrderBookImpl(marketId, sellOrders, buyOrders);
+      return adaptOkCoinDepthResponse(marketId, response);
 
     } catch (ExchangeNetworkException | TradingApiException e) {
       throw e;
@@ -345,6 +359,22 @@ public final class OkCoinExchangeAdapter extends AbstractExchangeAdapter
     }
   }
 
+  @Override
+  public CompletableFuture<MarketOrderBook> getMarketOrdersAsync(String marketId) {
+    return singleFlightAsync(
+        ExchangeOperation.MARKET_DATA,
+        Arrays.asList("getMarketOrders", marketId),
+        () -> fetchMarketOrdersAsync(marketId));
+  }
+
+  private CompletableFuture<MarketOrderBook> fetchMarketOrdersAsync(String marketId) {
+    final Map<String, String> params = createRequestParamMap();
+    params.put(SYMBOL, marketId);
+    return adaptResponseAsync(
+        sendPublicRequestToExchangeAsync("depth.do", params),
+        response -> adaptOkCoinDepthResponse(marketId, response));
+  }
+
   @Override
   public BigDecimal getLatestMarketPrice(String marketId)
       throws ExchangeNetworkException, TradingApiException {
@@ -370,33 +400,14 @@ public final class OkCoinExchangeAdapter extends AbstractExchangeAdapter
 
   @Override
   public BalanceInfo getBalanceInfo() throws TradingApiException, ExchangeNetworkException {
+    return singleFlight(
+        ExchangeOperation.BALANCE, List.of("getBalanceInfo"), this::fetchBalanceInfo);
+  }
+
+  private BalanceInfo fetchBalanceInfo() throws TradingApiException, ExchangeNetworkException {
     try {
       final ExchangeHttpResponse response = sendAuthenticatedRequestToExchange("userinfo.do", null);
-      LOG.debug(() -> "Balance Info response: " + response);
-
-      final OkCoinUserInfoWrapper userInfoWrapper =
-          gson.fromJson(response.getPayload(), OkCoinUserInfoWrapper.class);
-      if (userInfoWrapper.result) {
-        final Map<String, BigDecimal> balancesAvailable = new HashMap<>();
-        for (final Map.Entry<String, BigDecimal> balance :
-            userInfoWrapper.info.funds.free.entrySet()) {
-          balancesAvailable.put(balance.getKey().toUpperCase(), balance.getValue());
-        }
-
-        final Map<String, BigDecimal> balancesOnOrder = new HashMap<>();
-        for (final Map.Entry<String, BigDecimal> balance :
-            userInfoWrapper.info.funds.freezed.entrySet()) {
-          balancesOnOrder.put(balance.getKey().toUpperCase(), balance.getValue());
-        }
-
-        return new BalanceInfoImpl(balancesAvailable, balancesOnOrder);
-
-      } else {
-        final String errorMsg =
-            "Failed to get Balance Info from exchange. Error response: " + response;
-        LOG.error(errorMsg);
-        throw new TradingApiException(errorMsg);
-      }
+      return adaptOkCoinBalanceResponse(response);
 
     } catch (ExchangeNetworkException | TradingApiException e) {
       throw e;
@@ -407,6 +418,46 @@ public final class OkCoinExchangeAdapter extends AbstractExchangeAdapter
     }
   }
 
+  @Override
+  public CompletableFuture<BalanceInfo> getBalanceInfoAsync() {
+    return singleFlightAsync(
+        ExchangeOperation.BALANCE,
+        List.of("getBalanceInfo"),
+        () ->
+            adaptResponseAsync(
+                sendAuthenticatedRequestToExchangeAsync("userinfo.do", null),
+                this::adaptOkCoinBalanceResponse));
+  }
+
+  private BalanceInfo adaptOkCoinBalanceResponse(ExchangeHttpResponse response)
+      throws TradingApiException {
+    LOG.debug(() -> "Balance Info response: " + response);
+
+    final OkCoinUserInfoWrapper userInfoWrapper =
+        gson.fromJson(response.getPayload(), OkCoinUserInfoWrapper.class);
+    if (userInfoWrapper.result) {
+      final Map<String, BigDecimal> balancesAvailable = new HashMap<>();
+      for (final Map.Entry<String, BigDecimal> balance :
+          userInfoWrapper.info.funds.free.entrySet()) {
+        balancesAvailable.put(balance.getKey().toUpperCase(), balance.getValue());
+      }
+
+      final Map<String, BigDecimal> balancesOnOrder = new HashMap<>();
+      for (final Map.Entry<String, BigDecimal> balance :
+          userInfoWrapper.info.funds.freezed.entrySet()) {
+        balancesOnOrder.put(balance.getKey().toUpperCase(), balance.getValue());
+      }
+
+      return new BalanceInfoImpl(balancesAvailable, balancesOnOrder);
+
+    } else {
+      final String errorMsg =
+          "Failed to get Balance Info from exchange. Error response: " + response;
+      LOG.error(errorMsg);
+      throw new TradingApiException(errorMsg);
+    }
+  }
+
   /*
    * OKCoin does not provide API call for fetching % buy fee; it only provides the fee monetary
    * value for a given order via order_fee.do API call. We load the % fee statically from
@@ -439,20 +490,7 @@ public final class OkCoinExchangeAdapter extends AbstractExchangeAdapter
       params.put(SYMBOL, marketId);
 
       final ExchangeHttpResponse response = sendPublicRequestToExchange("ticker.do", params);
-      LOG.debug(() -> "Latest Market Price response: " + response);
-
-      final OkCoinTickerWrapper tickerWrapper =
-          gson.fromJson(response.getPayload(), OkCoinTickerWrapper.class);
-      return new TickerImpl(
-          tickerWrapper.ticker.last,
-          tickerWrapper.ticker.buy,
-          tickerWrapper.ticker.sell,
-          tickerWrapper.ticker.low,
-          tickerWrapper.ticker.high,
-          null, // open not supplied by OKCoin
-          tickerWrapper.ticker.vol,
-          null, // vwap not supplied by OKCoin
-          Long.valueOf(tickerWrapper.date));
+      return adaptOkCoinTickerResponse(response);
 
     } catch (ExchangeNetworkException | TradingApiException e) {
       throw e;
@@ -463,6 +501,31 @@ public final class OkCoinExchangeAdapter extends AbstractExchangeAdapter
     }
   }
 
+  @Override
+  public CompletableFuture<Ticker> getTickerAsync(String marketId) {
+    final Map<String, String> params = createRequestParamMap();
+    params.put(SYMBOL, marketId);
+    return adaptResponseAsync(
+        sendPublicRequestToExchangeAsync("ticker.do", params), this::adaptOkCoinTickerResponse);
+  }
+
+  private Ticker adaptOkCoinTickerResponse(ExchangeHttpResponse response) {
+    LOG.debug(() -> "Latest Market Price response: " + response);
+
+    final OkCoinTickerWrapper tickerWrapper =
+        gson.fromJson(response.getPayload(), OkCoinTickerWrapper.class);
+    return new TickerImpl(
+        tickerWrapper.ticker.last,
+        tickerWrapper.ticker.buy,
+        tickerWrapper.ticker.sell,
+        tickerWrapper.ticker.low,
+        tickerWrapper.ticker.high,
+        null, // open not supplied by OKCoin
+        tickerWrapper.ticker.vol,
+        null, // vwap not supplied by OKCoin
+        Long.valueOf(tickerWrapper.date));
+  }
+
   // --------------------------------------------------------------------------
   //  GSON classes for JSON responses.
   //  See https://www.okcoin.com/about/rest_getStarted.do
@@ -694,22 +757,7 @@ public final class OkCoinExchangeAdapter extends AbstractExchangeAdapter
     final Map<String, String> requestHeaders = createHeaderParamMap();
 
     try {
-      final StringBuilder queryString = new StringBuilder();
-      if (!params.isEmpty()) {
-        queryString.append("?");
-        for (final Map.Entry<String, String> param : params.entrySet()) {
-          if (queryString.length() > 1) {
-            queryString.append("&");
-          }
-          queryString.append(param.getKey());
-          queryString.append("=");
-          queryString.append(URLEncoder.encode(param.getValue(), StandardCharsets.UTF_8));
-        }
-
-        requestHeaders.put("Content-Type", "application/x-www-form-urlencoded");
-      }
-
-      final URL url = new URL(PUBLIC_API_BASE_URL + apiMethod + queryString);
+      final URL url = createPublicApiUrl(apiMethod, params, requestHeaders);
       return makeNetworkRequest(url, "GET", null, requestHeaders);
 
     } catch (MalformedURLException e) {
@@ -719,6 +767,52 @@ public final class OkCoinExchangeAdapter extends AbstractExchangeAdapter
     }
   }
 
+  private CompletableFuture<ExchangeHttpResponse> sendPublicRequestToExchangeAsync(
+      String apiMethod, Map<String, String> params) {
+    // Request headers required by Exchange
+    final Map<String, String> requestHeaders = createHeaderParamMap();
+    try {
+      final URL url = createPublicApiUrl(apiMethod, params, requestHeaders);
+      return sendNetworkRequestAsync(url, "GET", null, requestHeaders);
+
+    } catch (MalformedURLException e) {
+      final String errorMsg = UNEXPECTED_IO_ERROR_MSG;
+      LOG.error(errorMsg, e);
+      return CompletableFuture.failedFuture(new TradingApiException(errorMsg, e));
+    }
+  }
+
+  /*
+   * Builds the public API URL with the params as the query string. Adds the Content-Type header
+   * required by the exchange when there are params.
+   */
+  private static URL createPublicApiUrl(
+      String apiMethod, Map<String, String> params, Map<String, String> requestHeaders)
+      throws MalformedURLException {
+    final StringBuilder queryString = new StringBuilder();
+    if (!params.isEmpty()) {
+      queryString.append("?");
+      for (final Map.Entry<String, String> param : params.entrySet()) {
+        if (queryString.length() > 1) {
+          queryString.append("&");
+        }
+        queryString.append(param.getKey());
+        queryString.append("=");
+        queryString.append(URLEncoder.encode(param.getValue(), StandardCharsets.UTF_8));
+      }
+
+      requestHeaders.put("Content-Type", "application/x-www-form-urlencoded");
+    }
+
+    return new URL(PUBLIC_API_BASE_URL + apiMethod + queryString);
+  }
+
+  private ExchangeHttpResponse sendAuthenticatedRequestToExchange(
+      String apiMethod, Map<String, String> params)
+      throws ExchangeNetworkException, TradingApiException {
+    return awaitResponse(sendAuthenticatedRequestToExchangeAsync(apiMethod, params));
+  }
+
   /*
    * Makes an authenticated API call to the OkCoin exchange.
    *
@@ -748,9 +842,8 @@ public final class OkCoinExchangeAdapter extends AbstractExchangeAdapter
    * Use 32 bit MD5 encryption function to sign the string. Pass the encrypted string to 'sign'
    * parameter. Letters of the encrypted string must be in upper case.
    */
-  private ExchangeHttpResponse sendAuthenticatedRequestToExchange(
-      String apiMethod, Map<String, String> params)
-      throws ExchangeNetworkException, TradingApiException {
+  private CompletableFuture<ExchangeHttpResponse> sendAuthenticatedRequestToExchangeAsync(
+      String apiMethod, Map<String, String> params) {
 
     if (!initializedSecureMessagingLayer) {
       final String errorMsg = "Message security layer has not been initialized.";
@@ -793,33 +886,20 @@ public final class OkCoinExchangeAdapter extends AbstractExchangeAdapter
       requestHeaders.put("Content-Type", "application/x-www-form-urlencoded");
 
       final URL url = new URL(AUTHENTICATED_API_URL + apiMethod);
-      return makeNetworkRequest(url, "POST", payload.toString(), requestHeaders);
+      return makeNetworkRequestAsync(url, "POST", payload.toString(), requestHeaders);
 
     } catch (MalformedURLException e) {
       final String errorMsg = UNEXPECTED_IO_ERROR_MSG;
       LOG.error(errorMsg, e);
-      throw new TradingApiException(errorMsg, e);
+      return CompletableFuture.failedFuture(new TradingApiException(errorMsg, e));
     }
   }
 
   private String createMd5HashAndReturnAsUpperCaseString(String stringToHash) {
-    final char[] hexDigits = {
-      '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'A', 'B', 'C', 'D', 'E', 'F'
-    };
     if (stringToHash == null || stringToHash.isEmpty()) {
       return "";
     }
-
-    messageDigest.update(stringToHash.getBytes(StandardCharsets.UTF_8));
-    final byte[] md5HashInBytes = messageDigest.digest();
-
-    final StringBuilder md5HashAsUpperCaseString = new StringBuilder();
-    for (final byte md5HashByte : md5HashInBytes) {
-      md5HashAsUpperCaseString
-          .append(hexDigits[(md5HashByte & 0xf0) >> 4])
-          .append(hexDigits[md5HashByte & 0xf]);
-    }
-    return md5HashAsUpperCaseString.toString();
+    return RequestSigner.toHex(requestSigner.digest(stringToHash)).toUpperCase();
   }
 
   /*
@@ -830,7 +910,7 @@ public final class OkCoinExchangeAdapter extends AbstractExchangeAdapter
    */
   private void initSecureMessageLayer() {
     try {
-      messageDigest = MessageDigest.getInstance("MD5");
+      requestSigner = RequestSigner.createDigest("MD5");
       initializedSecureMessagingLayer = true;
     } catch (NoSuchAlgorithmException e) {
       final String errorMsg =
@@ -868,6 +948,41 @@ public final class OkCoinExchangeAdapter extends AbstractExchangeAdapter
   //  Util methods
   // --------------------------------------------------------------------------
 
+  private MarketOrderBook adaptOkCoinDepthResponse(String marketId, ExchangeHttpResponse response)
+      throws TradingApiException, ExchangeNetworkException {
+    final OkCoinDepthWrapper orderBook =
+        gson.fromJson(response.getPayload(), OkCoinDepthWrapper.class);
+
+    final List<MarketOrder> buyOrders = new ArrayList<>();
+    for (OkCoinMarketOrder okCoinBuyOrder : orderBook.bids) {
+      final MarketOrder buyOrder =
+          new MarketOrderImpl(
+              OrderType.BUY,
+              okCoinBuyOrder.get(0),
+              okCoinBuyOrder.get(1),
+              okCoinBuyOrder.get(0).multiply(okCoinBuyOrder.get(1)));
+      buyOrders.add(buyOrder);
+    }
+
+    final List<MarketOrder> sellOrders = new ArrayList<>();
+    for (OkCoinMarketOrder okCoinSellOrder : orderBook.asks) {
+      final MarketOrder sellOrder =
+          new MarketOrderImpl(
+              OrderType.SELL,
+              okCoinSellOrder.get(0),
+              okCoinSellOrder.get(1),
+              okCoinSellOrder.get(0).multiply(okCoinSellOrder.get(1)));
+      sellOrders.add(sellOrder);
+    }
+
+    // For some reason, OKCoin sorts ask orders in descending order instead of ascending.
+    // We need to re-order price ascending - lowest ASK price will be first in list.
+    sellOrders.sort(
+        (thisOrder, thatOrder) ->
+            Integer.compare(thisOrder.getPrice().compareTo(thatOrder.getPrice()), 0));
+    return new MarketOrderBookImpl(marketId, sellOrders, buyOrders);
+  }
+
   /** Initialises the GSON layer. */
   private void initGson() {
     final GsonBuilder gsonBuilder = new GsonBuilder();
@@ -881,6 +996,18 @@ public final class OkCoinExchangeAdapter extends AbstractExchangeAdapter
     return new HashMap<>();
   }
 
+  /*
+   * Balance requests go to the "userinfo.do" endpoint.
+   */
+  @Override
+  ExchangeOperation getExchangeOperation(
+      URL url, String httpMethod, Map<String, String> requestHeaders) {
+    final String path = url.getPath();
+    return path.endsWith("/userinfo.do")
+        ? ExchangeOperation.BALANCE
+        : super.getExchangeOperation(url, httpMethod, requestHeaders);
+  }
+
   /*
    * Hack for unit-testing header params passed to transport layer.
    */
@@ -896,4 +1023,12 @@ public final class OkCoinExchangeAdapter extends AbstractExchangeAdapter
       throws TradingApiException, ExchangeNetworkException {
     return super.sendNetworkRequest(url, httpMethod, postData, requestHeaders);
   }
+
+  /*
+   * Hack for unit-testing transport layer.
+   */
+  private CompletableFuture<ExchangeHttpResponse> makeNetworkRequestAsync(
+      URL url, String httpMethod, String postData, Map<String, String> requestHeaders) {
+    return super.sendNetworkRequestAsync(url, httpMethod, postData, requestHeaders);
+  }
 }
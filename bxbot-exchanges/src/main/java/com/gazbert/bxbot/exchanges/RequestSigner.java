@@ -0,0 +1,260 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.exchanges;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Signs the authenticated requests sent to the exchanges.
+ *
+ * <p>A {@link Mac} or {@link MessageDigest} is not thread-safe, so each thread gets its own
+ * instance, keyed once on first use and then reused. Text is UTF-8 encoded into a per-thread
+ * buffer that grows as needed, so signing does not allocate a byte[] copy of each input.
+ *
+ * <p>The algorithms and key are checked when the signer is created, so a misconfigured adapter
+ * fails at startup rather than on its first authenticated request.
+ *
+ * @author gazbert
+ */
+final class RequestSigner {
+
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+  private static final int INITIAL_BUFFER_SIZE = 1024;
+
+  private final SecretKeySpec keySpec;
+  private final String digestAlgorithm;
+  private final ThreadLocal<SigningState> signingState;
+
+  private RequestSigner(SecretKeySpec keySpec, String digestAlgorithm) {
+    this.keySpec = keySpec;
+    this.digestAlgorithm = digestAlgorithm;
+    signingState = ThreadLocal.withInitial(this::createSigningState);
+  }
+
+  /**
+   * Creates a signer for the given HMAC algorithm.
+   *
+   * @param macAlgorithm the MAC algorithm, e.g. HmacSHA256.
+   * @param secret the secret key.
+   * @return the signer.
+   * @throws NoSuchAlgorithmException if the MAC algorithm is not installed.
+   * @throws InvalidKeyException if the secret cannot be used as a key for the MAC algorithm.
+   */
+  static RequestSigner create(String macAlgorithm, byte[] secret)
+      throws NoSuchAlgorithmException, InvalidKeyException {
+    return create(macAlgorithm, secret, null);
+  }
+
+  /**
+   * Creates a signer for the given HMAC algorithm that can also hash message content.
+   *
+   * @param macAlgorithm the MAC algorithm, e.g. HmacSHA512.
+   * @param secret the secret key.
+   * @param digestAlgorithm the message digest algorithm used by {@link #digest(CharSequence...)},
+   *     e.g. SHA-256. May be null if the exchange does not hash messages.
+   * @return the signer.
+   * @throws NoSuchAlgorithmException if the MAC or digest algorithm is not installed.
+   * @throws InvalidKeyException if the secret cannot be used as a key for the MAC algorithm.
+   */
+  static RequestSigner create(String macAlgorithm, byte[] secret, String digestAlgorithm)
+      throws NoSuchAlgorithmException, InvalidKeyException {
+    final SecretKeySpec keySpec = new SecretKeySpec(secret, macAlgorithm);
+    Mac.getInstance(macAlgorithm).init(keySpec);
+    if (digestAlgorithm != null) {
+      MessageDigest.getInstance(digestAlgorithm);
+    }
+    return new RequestSigner(keySpec, digestAlgorithm);
+  }
+
+  /**
+   * Creates a signer that only hashes message content, for exchanges that sign requests with a
+   * plain message digest rather than an HMAC.
+   *
+   * @param digestAlgorithm the message digest algorithm used by {@link #digest(CharSequence...)},
+   *     e.g. MD5.
+   * @return the signer.
+   * @throws NoSuchAlgorithmException if the digest algorithm is not installed.
+   */
+  static RequestSigner createDigest(String digestAlgorithm) throws NoSuchAlgorithmException {
+    MessageDigest.getInstance(digestAlgorithm);
+    return new RequestSigner(null, digestAlgorithm);
+  }
+
+  /**
+   * Returns the HMAC of the UTF-8 encoded text parts, taken in order.
+   *
+   * @param parts the text to sign.
+   * @return the HMAC.
+   * @throws IllegalStateException if the signer was created without a MAC algorithm.
+   */
+  byte[] sign(CharSequence... parts) {
+    final SigningState state = getMacSigningState();
+    for (final CharSequence part : parts) {
+      state.mac.update(state.encode(part));
+    }
+    return state.mac.doFinal();
+  }
+
+  /**
+   * Returns the HMAC of the UTF-8 encoded text followed by the given bytes, e.g. a message hash.
+   *
+   * @param text the text to sign.
+   * @param bytes the bytes to sign after the text.
+   * @return the HMAC.
+   * @throws IllegalStateException if the signer was created without a MAC algorithm.
+   */
+  byte[] sign(CharSequence text, byte[] bytes) {
+    final SigningState state = getMacSigningState();
+    state.mac.update(state.encode(text));
+    state.mac.update(bytes);
+    return state.mac.doFinal();
+  }
+
+  /**
+   * Returns the message digest of the UTF-8 encoded text parts, taken in order.
+   *
+   * @param parts the text to hash.
+   * @return the digest.
+   * @throws IllegalStateException if the signer was created without a digest algorithm.
+   */
+  byte[] digest(CharSequence... parts) {
+    final SigningState state = signingState.get();
+    if (state.messageDigest == null) {
+      throw new IllegalStateException("Request signer has no message digest algorithm.");
+    }
+    for (final CharSequence part : parts) {
+      state.messageDigest.update(state.encode(part));
+    }
+    return state.messageDigest.digest();
+  }
+
+  /**
+   * Converts bytes to a lowercase hexadecimal string.
+   *
+   * @param bytes the bytes to convert.
+   * @return the hex string.
+   */
+  static String toHex(byte[] bytes) {
+    final char[] hex = new char[bytes.length * 2];
+    for (int i = 0; i < bytes.length; i++) {
+      hex[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0xf];
+      hex[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0xf];
+    }
+    return new String(hex);
+  }
+
+  private SigningState getMacSigningState() {
+    final SigningState state = signingState.get();
+    if (state.mac == null) {
+      throw new IllegalStateException("Request signer has no MAC algorithm.");
+    }
+    return state;
+  }
+
+  private SigningState createSigningState() {
+    try {
+      Mac mac = null;
+      if (keySpec != null) {
+        mac = Mac.getInstance(keySpec.getAlgorithm());
+        mac.init(keySpec);
+      }
+      final MessageDigest messageDigest =
+          digestAlgorithm == null ? null : MessageDigest.getInstance(digestAlgorithm);
+      return new SigningState(mac, messageDigest);
+    } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+      // The algorithms and key were checked when the signer was created.
+      throw new IllegalStateException("Failed to create request signing state.", e);
+    }
+  }
+
+  /** A thread's MAC, digest, and text encoding buffer. */
+  private static final class SigningState {
+
+    private final Mac mac;
+    private final MessageDigest messageDigest;
+    private final CharsetEncoder encoder =
+        StandardCharsets.UTF_8
+            .newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+
+    SigningState(Mac mac, MessageDigest messageDigest) {
+      this.mac = mac;
+      this.messageDigest = messageDigest;
+    }
+
+    /* Encodes the text into the reusable buffer and returns it ready for reading. */
+    ByteBuffer encode(CharSequence text) {
+      // Request text is almost always ASCII, which maps straight to bytes.
+      final int length = text.length();
+      if (buffer.capacity() < length) {
+        buffer = ByteBuffer.allocate(Math.max(length, buffer.capacity() * 2));
+      }
+      final byte[] bytes = buffer.array();
+      int ascii = 0;
+      while (ascii < length && text.charAt(ascii) < 0x80) {
+        bytes[ascii] = (byte) text.charAt(ascii);
+        ascii++;
+      }
+      buffer.clear();
+      if (ascii == length) {
+        buffer.limit(length);
+        return buffer;
+      }
+
+      final CharBuffer chars = CharBuffer.wrap(text);
+      encoder.reset();
+      CoderResult result = encoder.encode(chars, buffer, true);
+      while (result.isOverflow()) {
+        grow();
+        result = encoder.encode(chars, buffer, true);
+      }
+      result = encoder.flush(buffer);
+      while (result.isOverflow()) {
+        grow();
+        result = encoder.flush(buffer);
+      }
+      buffer.flip();
+      return buffer;
+    }
+
+    private void grow() {
+      final ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+      buffer.flip();
+      larger.put(buffer);
+      buffer = larger;
+    }
+  }
+}
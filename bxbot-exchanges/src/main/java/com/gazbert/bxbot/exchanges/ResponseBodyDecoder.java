@@ -0,0 +1,247 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.exchanges;
+
+import com.gazbert.bxbot.exchanges.HttpTransportStatistics.ResponseByteCounts;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Decodes gzip and deflate compressed response bodies as they are read, so a compressed order book
+ * is inflated straight into the JSON parser without being buffered first.
+ *
+ * <p>It also counts the bytes received on the wire and the bytes after decoding for each endpoint,
+ * so the bandwidth saved by compression can be seen in the transport statistics.
+ *
+ * @author gazbert
+ */
+final class ResponseBodyDecoder {
+
+  /** The value sent in the Accept-Encoding request header. */
+  static final String ACCEPT_ENCODING = "gzip, deflate";
+
+  private final ConcurrentMap<String, EndpointCounters> counters = new ConcurrentHashMap<>();
+
+  /**
+   * Wraps a response body so it is decoded as it is read. The decoder is only created on the first
+   * read, as reading the gzip header would otherwise block the caller until the body arrives.
+   *
+   * @param endpoint the endpoint the response came from.
+   * @param contentEncoding the response's Content-Encoding header, if it has one.
+   * @param body the response body, as received on the wire.
+   * @return the decoded body.
+   */
+  InputStream decode(String endpoint, Optional<String> contentEncoding, InputStream body) {
+    final EndpointCounters endpointCounters =
+        counters.computeIfAbsent(endpoint, e -> new EndpointCounters());
+    final String encoding =
+        contentEncoding.map(e -> e.trim().toLowerCase(Locale.ROOT)).orElse("identity");
+
+    endpointCounters.responseCount.increment();
+    if (!"identity".equals(encoding)) {
+      endpointCounters.compressedResponseCount.increment();
+    }
+
+    final InputStream wireBody = new CountingInputStream(body, endpointCounters.wireBytes);
+    return new CountingInputStream(
+        new DecodingInputStream(encoding, wireBody), endpointCounters.decodedBytes);
+  }
+
+  /**
+   * Returns a snapshot of the byte counts, keyed by endpoint.
+   *
+   * @return the byte counts.
+   */
+  Map<String, ResponseByteCounts> getByteCounts() {
+    final Map<String, ResponseByteCounts> byteCounts = new TreeMap<>();
+    counters.forEach(
+        (endpoint, endpointCounters) ->
+            byteCounts.put(
+                endpoint,
+                new ResponseByteCounts(
+                    endpointCounters.responseCount.sum(),
+                    endpointCounters.compressedResponseCount.sum(),
+                    endpointCounters.wireBytes.sum(),
+                    endpointCounters.decodedBytes.sum())));
+    return byteCounts;
+  }
+
+  // --------------------------------------------------------------------------
+  //  Util methods
+  // --------------------------------------------------------------------------
+
+  static InputStream createDecoder(String encoding, InputStream wireBody)
+      throws IOException {
+    switch (encoding) {
+      case "identity":
+        return wireBody;
+      case "gzip":
+      case "x-gzip":
+        return new GZIPInputStream(wireBody);
+      case "deflate":
+        return createInflater(wireBody);
+      default:
+        throw new IOException("Unsupported response Content-Encoding: " + encoding);
+    }
+  }
+
+  /*
+   * HTTP deflate should be zlib wrapped, but some servers send raw deflate data, so we peek at the
+   * first 2 bytes to see if they are a zlib header.
+   */
+  private static InputStream createInflater(InputStream wireBody) throws IOException {
+    final PushbackInputStream pushbackBody = new PushbackInputStream(wireBody, 2);
+    final byte[] header = pushbackBody.readNBytes(2);
+    pushbackBody.unread(header);
+
+    final boolean zlibWrapped =
+        header.length == 2
+            && (header[0] & 0x0F) == 8
+            && (((header[0] & 0xFF) << 8) | (header[1] & 0xFF)) % 31 == 0;
+
+    return new InflaterInputStream(pushbackBody, new Inflater(!zlibWrapped)) {
+      @Override
+      public void close() throws IOException {
+        try {
+          super.close();
+        } finally {
+          inf.end(); // not done by InflaterInputStream when given its own Inflater
+        }
+      }
+    };
+  }
+
+  /** The live byte counts for an endpoint. */
+  private static final class EndpointCounters {
+    private final LongAdder responseCount = new LongAdder();
+    private final LongAdder compressedResponseCount = new LongAdder();
+    private final LongAdder wireBytes = new LongAdder();
+    private final LongAdder decodedBytes = new LongAdder();
+  }
+
+  /** Adds the number of bytes read to a counter. */
+  private static final class CountingInputStream extends FilterInputStream {
+
+    private final LongAdder byteCount;
+
+    CountingInputStream(InputStream in, LongAdder byteCount) {
+      super(in);
+      this.byteCount = byteCount;
+    }
+
+    @Override
+    public int read() throws IOException {
+      final int b = in.read();
+      if (b != -1) {
+        byteCount.increment();
+      }
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      final int bytesRead = in.read(b, off, len);
+      if (bytesRead > 0) {
+        byteCount.add(bytesRead);
+      }
+      return bytesRead;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      final long skipped = in.skip(n);
+      byteCount.add(skipped);
+      return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+      return false;
+    }
+  }
+
+  /** Creates the decoder for the body on the first read. */
+  private static final class DecodingInputStream extends InputStream {
+
+    private final String encoding;
+    private final InputStream wireBody;
+    private InputStream decodedBody;
+
+    DecodingInputStream(String encoding, InputStream wireBody) {
+      this.encoding = encoding;
+      this.wireBody = wireBody;
+    }
+
+    @Override
+    public int read() throws IOException {
+      return decodedBody().read();
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      return decodedBody().read(b, off, len);
+    }
+
+    @Override
+    public int available() throws IOException {
+      return decodedBody == null ? 0 : decodedBody.available();
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (decodedBody == null) {
+        wireBody.close();
+      } else {
+        decodedBody.close();
+      }
+    }
+
+    private InputStream decodedBody() throws IOException {
+      if (decodedBody == null) {
+        // e.g. a 204 has no body to decode, whatever its Content-Encoding says
+        final PushbackInputStream pushbackBody = new PushbackInputStream(wireBody, 1);
+        final int firstByte = pushbackBody.read();
+        if (firstByte == -1) {
+          decodedBody = pushbackBody;
+        } else {
+          pushbackBody.unread(firstByte);
+          decodedBody = createDecoder(encoding, pushbackBody);
+        }
+      }
+      return decodedBody;
+    }
+  }
+}
@@ -0,0 +1,232 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.exchanges;
+
+import com.gazbert.bxbot.exchanges.trading.api.impl.FixedPointMarketOrderBook;
+import com.gazbert.bxbot.trading.api.MarketOrderBook;
+import com.gazbert.bxbot.trading.api.OrderType;
+import com.google.gson.stream.JsonReader;
+import java.io.IOException;
+
+/**
+ * Reads order books straight off a {@link JsonReader}, converting each price level to fixed-point
+ * values as it is read.
+ *
+ * <p>This skips the intermediate GSON object graph the adapters otherwise deserialize into, and
+ * builds a {@link FixedPointMarketOrderBook}, so a poll allocates little more than the JSON
+ * strings and the order book's arrays.
+ *
+ * @author gazbert
+ */
+final class StreamingOrderBookReader {
+
+  private StreamingOrderBookReader() {
+  }
+
+  /**
+   * Reads an order book object whose bids and asks are arrays of {@code [price, quantity, ...]}
+   * arrays, e.g. {@code {"bids": [["7505.01", "0.75"]], "asks": [["7506.00", "1.2"]]}}. Any other
+   * fields, and any elements after the quantity, are skipped.
+   *
+   * @param marketId the market id.
+   * @param reader the reader, positioned at the start of the order book object.
+   * @return the order book.
+   * @throws IOException if the JSON cannot be read.
+   */
+  static MarketOrderBook readArrayOrderBook(String marketId, JsonReader reader)
+      throws IOException {
+    return readArrayOrderBook(marketId, reader, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Reads the top {@code depth} levels of an order book object whose bids and asks are arrays of
+   * {@code [price, quantity, ...]} arrays. The levels after that are skipped over without being
+   * parsed.
+   *
+   * @param marketId the market id.
+   * @param reader the reader, positioned at the start of the order book object.
+   * @param depth the maximum number of levels to read each side.
+   * @return the order book.
+   * @throws IOException if the JSON cannot be read.
+   */
+  static MarketOrderBook readArrayOrderBook(String marketId, JsonReader reader, int depth)
+      throws IOException {
+    return readOrderBook(marketId, reader, depth, StreamingOrderBookReader::readArrayPriceLevel);
+  }
+
+  /**
+   * Reads an order book object whose bids and asks are arrays of price level objects, e.g. {@code
+   * {"bids": [{"price": "7505.01", "amount": "0.75"}]}}. Any other fields are skipped.
+   *
+   * @param marketId the market id.
+   * @param reader the reader, positioned at the start of the order book object.
+   * @param priceName the name of the price field in a price level object.
+   * @param quantityName the name of the quantity field in a price level object.
+   * @return the order book.
+   * @throws IOException if the JSON cannot be read.
+   */
+  static MarketOrderBook readObjectOrderBook(
+      String marketId, JsonReader reader, String priceName, String quantityName)
+      throws IOException {
+    return readObjectOrderBook(marketId, reader, priceName, quantityName, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Reads the top {@code depth} levels of an order book object whose bids and asks are arrays of
+   * price level objects. The levels after that are skipped over without being parsed.
+   *
+   * @param marketId the market id.
+   * @param reader the reader, positioned at the start of the order book object.
+   * @param priceName the name of the price field in a price level object.
+   * @param quantityName the name of the quantity field in a price level object.
+   * @param depth the maximum number of levels to read each side.
+   * @return the order book.
+   * @throws IOException if the JSON cannot be read.
+   */
+  static MarketOrderBook readObjectOrderBook(
+      String marketId, JsonReader reader, String priceName, String quantityName, int depth)
+      throws IOException {
+    return readOrderBook(
+        marketId,
+        reader,
+        depth,
+        (levelReader, orderBook, orderType) ->
+            readObjectPriceLevel(levelReader, orderBook, orderType, priceName, quantityName));
+  }
+
+  /**
+   * Reads a JSON number or string as a fixed-point value. Exchanges send prices as both. Extra
+   * decimal places are rounded half-even.
+   *
+   * @param reader the reader, positioned at the value.
+   * @return the value in units of 10^-{@value FixedPointMarketOrderBook#SCALE}.
+   * @throws IOException if the JSON cannot be read.
+   * @throws NumberFormatException if the value is not a decimal number or is too large to be held
+   *     at the fixed-point scale.
+   */
+  static long nextScaled(JsonReader reader) throws IOException {
+    return FixedPointMarketOrderBook.toScaled(reader.nextString());
+  }
+
+  // --------------------------------------------------------------------------
+  //  Util methods
+  // --------------------------------------------------------------------------
+
+  private static MarketOrderBook readOrderBook(
+      String marketId, JsonReader reader, int depth, PriceLevelReader priceLevelReader)
+      throws IOException {
+    final FixedPointMarketOrderBook.Builder orderBook =
+        new FixedPointMarketOrderBook.Builder(marketId);
+
+    reader.beginObject();
+    while (reader.hasNext()) {
+      switch (reader.nextName()) {
+        case "bids":
+          readPriceLevels(reader, orderBook, OrderType.BUY, depth, priceLevelReader);
+          break;
+        case "asks":
+          readPriceLevels(reader, orderBook, OrderType.SELL, depth, priceLevelReader);
+          break;
+        default:
+          reader.skipValue();
+      }
+    }
+    reader.endObject();
+
+    return orderBook.build();
+  }
+
+  private static void readPriceLevels(
+      JsonReader reader,
+      FixedPointMarketOrderBook.Builder orderBook,
+      OrderType orderType,
+      int depth,
+      PriceLevelReader priceLevelReader)
+      throws IOException {
+    reader.beginArray();
+    while (reader.hasNext()) {
+      if (orderBook.getDepth(orderType) < depth) {
+        priceLevelReader.read(reader, orderBook, orderType);
+      } else {
+        reader.skipValue();
+      }
+    }
+    reader.endArray();
+  }
+
+  private static void readArrayPriceLevel(
+      JsonReader reader, FixedPointMarketOrderBook.Builder orderBook, OrderType orderType)
+      throws IOException {
+    reader.beginArray();
+    final long price = nextScaled(reader);
+    final long quantity = nextScaled(reader);
+    while (reader.hasNext()) {
+      reader.skipValue(); // e.g. timestamp or number of orders
+    }
+    reader.endArray();
+    orderBook.addOrder(orderType, price, quantity);
+  }
+
+  private static void readObjectPriceLevel(
+      JsonReader reader,
+      FixedPointMarketOrderBook.Builder orderBook,
+      OrderType orderType,
+      String priceName,
+      String quantityName)
+      throws IOException {
+    long price = 0;
+    long quantity = 0;
+    boolean hasPrice = false;
+    boolean hasQuantity = false;
+
+    reader.beginObject();
+    while (reader.hasNext()) {
+      final String name = reader.nextName();
+      if (priceName.equals(name)) {
+        price = nextScaled(reader);
+        hasPrice = true;
+      } else if (quantityName.equals(name)) {
+        quantity = nextScaled(reader);
+        hasQuantity = true;
+      } else {
+        reader.skipValue();
+      }
+    }
+    reader.endObject();
+
+    if (!hasPrice || !hasQuantity) {
+      throw new IOException(
+          "Price level is missing '" + priceName + "' or '" + quantityName + "' at "
+              + reader.getPath());
+    }
+    orderBook.addOrder(orderType, price, quantity);
+  }
+
+  /** Reads a single price level. */
+  @FunctionalInterface
+  private interface PriceLevelReader {
+    void read(JsonReader reader, FixedPointMarketOrderBook.Builder orderBook, OrderType orderType)
+        throws IOException;
+  }
+}
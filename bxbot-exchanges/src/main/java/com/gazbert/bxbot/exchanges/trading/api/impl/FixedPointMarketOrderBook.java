@@ -0,0 +1,373 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.exchanges.trading.api.impl;
+
+import com.gazbert.bxbot.trading.api.MarketOrder;
+import com.gazbert.bxbot.trading.api.OrderType;
+import com.gazbert.bxbot.trading.api.ScaledMarketOrderBook;
+import com.google.common.base.MoreObjects;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * A ScaledMarketOrderBook implementation that holds its prices and quantities as scaled fixed-point
+ * longs in parallel arrays, rather than as a {@link MarketOrder} with three BigDecimals per price
+ * level.
+ *
+ * <p>All values are held in units of 10^-{@value #SCALE}, e.g. a price of 230.34 is held as
+ * 23034000000. The {@link MarketOrder}s returned by {@link #getBuyOrders()} and {@link
+ * #getSellOrders()} are created on demand from the arrays, so a Trading Strategy that only looks
+ * at the top of the book only pays for the levels it reads. Strategies that want to avoid
+ * BigDecimals altogether can use the {@link ScaledMarketOrderBook} accessors, e.g. {@link
+ * #bestBidScaled()}.
+ *
+ * <p>Instances are immutable and are created using a {@link Builder}.
+ *
+ * @author gazbert
+ */
+public final class FixedPointMarketOrderBook implements ScaledMarketOrderBook {
+
+  private static final long[] POWERS_OF_TEN = {
+    1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L
+  };
+
+  private final String marketId;
+
+  private final long[] buyPrices;
+  private final long[] buyQuantities;
+  private final int buyDepth;
+
+  private final long[] sellPrices;
+  private final long[] sellQuantities;
+  private final int sellDepth;
+
+  private final List<MarketOrder> buyOrders;
+  private final List<MarketOrder> sellOrders;
+
+  private FixedPointMarketOrderBook(Builder builder) {
+    marketId = builder.marketId;
+    buyPrices = builder.buyPrices;
+    buyQuantities = builder.buyQuantities;
+    buyDepth = builder.buyDepth;
+    sellPrices = builder.sellPrices;
+    sellQuantities = builder.sellQuantities;
+    sellDepth = builder.sellDepth;
+    buyOrders = new MarketOrderView(OrderType.BUY, buyPrices, buyQuantities, buyDepth);
+    sellOrders = new MarketOrderView(OrderType.SELL, sellPrices, sellQuantities, sellDepth);
+  }
+
+  @Override
+  public String getMarketId() {
+    return marketId;
+  }
+
+  /**
+   * Returns the buy orders, best (highest) price first. The MarketOrders are created as they are
+   * read; the list cannot be modified.
+   */
+  @Override
+  public List<MarketOrder> getBuyOrders() {
+    return buyOrders;
+  }
+
+  /**
+   * Returns the sell orders, best (lowest) price first. The MarketOrders are created as they are
+   * read; the list cannot be modified.
+   */
+  @Override
+  public List<MarketOrder> getSellOrders() {
+    return sellOrders;
+  }
+
+  @Override
+  public int getBuyDepth() {
+    return buyDepth;
+  }
+
+  @Override
+  public int getSellDepth() {
+    return sellDepth;
+  }
+
+  @Override
+  public long bestBidScaled() {
+    if (buyDepth == 0) {
+      throw new NoSuchElementException("No buy orders in " + marketId + " order book");
+    }
+    return buyPrices[0];
+  }
+
+  @Override
+  public long bestAskScaled() {
+    if (sellDepth == 0) {
+      throw new NoSuchElementException("No sell orders in " + marketId + " order book");
+    }
+    return sellPrices[0];
+  }
+
+  @Override
+  public long getBuyPriceScaled(int level) {
+    return buyPrices[checkLevel(level, buyDepth)];
+  }
+
+  @Override
+  public long getBuyQuantityScaled(int level) {
+    return buyQuantities[checkLevel(level, buyDepth)];
+  }
+
+  @Override
+  public long getSellPriceScaled(int level) {
+    return sellPrices[checkLevel(level, sellDepth)];
+  }
+
+  @Override
+  public long getSellQuantityScaled(int level) {
+    return sellQuantities[checkLevel(level, sellDepth)];
+  }
+
+  /**
+   * Converts a decimal string, as sent by the exchanges, to a scaled fixed-point value. Values with
+   * more than {@value #SCALE} decimal places are rounded half-even, as some exchanges quote small
+   * quantities to more places than the book holds.
+   *
+   * @param value the decimal value, e.g. "230.34" or "1.5e-3".
+   * @return the value in units of 10^-{@value #SCALE}.
+   * @throws NumberFormatException if the value is not a decimal number, or is too large to be held
+   *     in a long.
+   */
+  public static long toScaled(String value) {
+    final int length = value.length();
+    int i = 0;
+    boolean negative = false;
+    if (length > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+')) {
+      negative = value.charAt(0) == '-';
+      i++;
+    }
+
+    long unscaled = 0;
+    int digits = 0;
+    int decimalPlaces = -1;
+    int roundingDigit = 0; // the first digit beyond the scale
+    boolean nonZeroAfterRoundingDigit = false;
+    try {
+      for (; i < length; i++) {
+        final char c = value.charAt(i);
+        if (c >= '0' && c <= '9') {
+          if (decimalPlaces >= SCALE) {
+            if (decimalPlaces++ == SCALE) {
+              roundingDigit = c - '0';
+            } else if (c != '0') {
+              nonZeroAfterRoundingDigit = true;
+            }
+            continue;
+          }
+          unscaled = Math.addExact(Math.multiplyExact(unscaled, 10L), c - '0');
+          digits++;
+          if (decimalPlaces >= 0) {
+            decimalPlaces++;
+          }
+        } else if (c == '.' && decimalPlaces < 0) {
+          decimalPlaces = 0;
+        } else if (c == 'e' || c == 'E') {
+          return toScaledHalfEven(new BigDecimal(value));
+        } else {
+          throw new NumberFormatException("Invalid decimal value: " + value);
+        }
+      }
+      if (digits == 0) {
+        throw new NumberFormatException("Invalid decimal value: " + value);
+      }
+      if (roundingDigit > 5
+          || (roundingDigit == 5 && (nonZeroAfterRoundingDigit || (unscaled & 1) == 1))) {
+        unscaled = Math.incrementExact(unscaled);
+      }
+      final long scaled =
+          Math.multiplyExact(
+              unscaled, POWERS_OF_TEN[SCALE - Math.min(Math.max(decimalPlaces, 0), SCALE)]);
+      return negative ? -scaled : scaled;
+
+    } catch (ArithmeticException e) {
+      throw new NumberFormatException("Value too large for fixed-point scale: " + value);
+    }
+  }
+
+  /**
+   * Converts a scaled fixed-point value to a BigDecimal.
+   *
+   * @param scaled the value in units of 10^-{@value #SCALE}.
+   * @return the value, with a scale of {@value #SCALE}.
+   */
+  public static BigDecimal toBigDecimal(long scaled) {
+    return BigDecimal.valueOf(scaled, SCALE);
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("marketId", marketId)
+        .add("sellOrders", sellOrders)
+        .add("buyOrders", buyOrders)
+        .toString();
+  }
+
+  // --------------------------------------------------------------------------
+  //  Util methods
+  // --------------------------------------------------------------------------
+
+  private static long toScaledHalfEven(BigDecimal value) {
+    try {
+      return value.setScale(SCALE, RoundingMode.HALF_EVEN).movePointRight(SCALE).longValueExact();
+    } catch (ArithmeticException e) {
+      throw new NumberFormatException(
+          "Value cannot be held at fixed-point scale " + SCALE + ": " + value.toPlainString());
+    }
+  }
+
+  private static int checkLevel(int level, int depth) {
+    if (level < 0 || level >= depth) {
+      throw new IndexOutOfBoundsException("Level: " + level + ", depth: " + depth);
+    }
+    return level;
+  }
+
+  /** Read-only list of MarketOrders created on demand from one side of the book. */
+  private static final class MarketOrderView extends AbstractList<MarketOrder>
+      implements RandomAccess {
+
+    private final OrderType type;
+    private final long[] prices;
+    private final long[] quantities;
+    private final int depth;
+
+    MarketOrderView(OrderType type, long[] prices, long[] quantities, int depth) {
+      this.type = type;
+      this.prices = prices;
+      this.quantities = quantities;
+      this.depth = depth;
+    }
+
+    @Override
+    public MarketOrder get(int index) {
+      checkLevel(index, depth);
+      final BigDecimal price = toBigDecimal(prices[index]);
+      final BigDecimal quantity = toBigDecimal(quantities[index]);
+      return new MarketOrderImpl(type, price, quantity, price.multiply(quantity));
+    }
+
+    @Override
+    public int size() {
+      return depth;
+    }
+  }
+
+  /**
+   * Builds a FixedPointMarketOrderBook one price level at a time. Levels must be added best price
+   * first. A Builder must not be used again once {@link #build()} has been called.
+   */
+  public static final class Builder {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final String marketId;
+
+    private long[] buyPrices;
+    private long[] buyQuantities;
+    private int buyDepth;
+
+    private long[] sellPrices;
+    private long[] sellQuantities;
+    private int sellDepth;
+
+    private boolean built;
+
+    /** Creates a new Builder for the given market. */
+    public Builder(String marketId) {
+      this.marketId = marketId;
+      buyPrices = new long[INITIAL_CAPACITY];
+      buyQuantities = new long[INITIAL_CAPACITY];
+      sellPrices = new long[INITIAL_CAPACITY];
+      sellQuantities = new long[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Adds the next price level to one side of the book.
+     *
+     * @param type BUY to add a bid, SELL to add an ask.
+     * @param priceScaled the price in units of 10^-{@value #SCALE}.
+     * @param quantityScaled the quantity in units of 10^-{@value #SCALE}.
+     * @return this Builder.
+     */
+    public Builder addOrder(OrderType type, long priceScaled, long quantityScaled) {
+      checkNotBuilt();
+      if (type == OrderType.BUY) {
+        if (buyDepth == buyPrices.length) {
+          buyPrices = Arrays.copyOf(buyPrices, buyDepth * 2);
+          buyQuantities = Arrays.copyOf(buyQuantities, buyDepth * 2);
+        }
+        buyPrices[buyDepth] = priceScaled;
+        buyQuantities[buyDepth++] = quantityScaled;
+      } else {
+        if (sellDepth == sellPrices.length) {
+          sellPrices = Arrays.copyOf(sellPrices, sellDepth * 2);
+          sellQuantities = Arrays.copyOf(sellQuantities, sellDepth * 2);
+        }
+        sellPrices[sellDepth] = priceScaled;
+        sellQuantities[sellDepth++] = quantityScaled;
+      }
+      return this;
+    }
+
+    /**
+     * Returns the number of levels added so far to one side of the book.
+     *
+     * @param type BUY for the bids, SELL for the asks.
+     * @return the number of levels.
+     */
+    public int getDepth(OrderType type) {
+      return type == OrderType.BUY ? buyDepth : sellDepth;
+    }
+
+    /**
+     * Builds the order book. The arrays are handed over to the order book rather than copied.
+     *
+     * @return the order book.
+     */
+    public FixedPointMarketOrderBook build() {
+      checkNotBuilt();
+      built = true;
+      return new FixedPointMarketOrderBook(this);
+    }
+
+    private void checkNotBuilt() {
+      if (built) {
+        throw new IllegalStateException("Order book has already been built");
+      }
+    }
+  }
+}
@@ -27,6 +27,7 @@ import static org.easymock.EasyMock.anyObject;
 import static org.easymock.EasyMock.anyString;
 import static org.easymock.EasyMock.eq;
 import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.getCurrentArguments;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
@@ -36,6 +37,7 @@ import static org.junit.Assert.assertTrue;
 import com.gazbert.bxbot.exchange.api.AuthenticationConfig;
 import com.gazbert.bxbot.exchange.api.ExchangeConfig;
 import com.gazbert.bxbot.exchange.api.NetworkConfig;
+import com.gazbert.bxbot.exchange.api.OtherConfig;
 import com.gazbert.bxbot.trading.api.BalanceInfo;
 import com.gazbert.bxbot.trading.api.ExchangeNetworkException;
 import com.gazbert.bxbot.trading.api.MarketOrderBook;
@@ -44,6 +46,7 @@ import com.gazbert.bxbot.trading.api.OrderType;
 import com.gazbert.bxbot.trading.api.Ticker;
 import com.gazbert.bxbot.trading.api.TradingApiException;
 import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonReader;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.net.URL;
@@ -55,6 +58,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -115,10 +119,18 @@ public class TestBitfinexExchangeAdapter extends AbstractExchangeAdapterTest {
   private static final String MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD = "createRequestParamMap";
   private static final String MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_METHOD =
       "sendAuthenticatedRequestToExchange";
+  private static final String MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_ASYNC_METHOD =
+      "sendAuthenticatedRequestToExchangeAsync";
   private static final String MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_METHOD =
       "sendPublicRequestToExchange";
+  private static final String MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_ASYNC_METHOD =
+      "sendPublicRequestToExchangeAsync";
+  private static final String MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_STREAMING_METHOD =
+      "sendPublicRequestToExchangeStreaming";
   private static final String MOCKED_CREATE_REQUEST_HEADER_MAP_METHOD = "createHeaderParamMap";
   private static final String MOCKED_MAKE_NETWORK_REQUEST_METHOD = "makeNetworkRequest";
+  private static final String MOCKED_MAKE_NETWORK_REQUEST_ASYNC_METHOD =
+      "makeNetworkRequestAsync";
 
   private static final String KEY = "key123";
   private static final String SECRET = "notGonnaTellYa";
@@ -149,11 +161,17 @@ public class TestBitfinexExchangeAdapter extends AbstractExchangeAdapterTest {
     expect(networkConfig.getConnectionTimeout()).andReturn(30);
     expect(networkConfig.getNonFatalErrorCodes()).andReturn(nonFatalNetworkErrorCodes);
     expect(networkConfig.getNonFatalErrorMessages()).andReturn(nonFatalNetworkErrorMessages);
+    expect(networkConfig.getRateLimitConfig()).andReturn(null);
+    expect(networkConfig.getRetryConfig()).andReturn(null);
+    expect(networkConfig.getCircuitBreakerConfig()).andReturn(null);
+    expect(networkConfig.getTimeoutConfig()).andReturn(null);
+    expect(networkConfig.getHedgingConfig()).andReturn(null);
 
     exchangeConfig = PowerMock.createMock(ExchangeConfig.class);
     expect(exchangeConfig.getAuthenticationConfig()).andReturn(authenticationConfig);
     expect(exchangeConfig.getNetworkConfig()).andReturn(networkConfig);
-    // optional config not needed for this adapter
+    // other config is optional for this adapter
+    expect(exchangeConfig.getOtherConfig()).andReturn(null);
   }
 
   // --------------------------------------------------------------------------
@@ -448,6 +466,141 @@ public class TestBitfinexExchangeAdapter extends AbstractExchangeAdapterTest {
     PowerMock.verifyAll();
   }
 
+  @Test
+  public void testGettingMarketOrdersByStreamingSuccessfully() throws Exception {
+    final OtherConfig otherConfig = PowerMock.createMock(OtherConfig.class);
+    expect(otherConfig.getItem("streaming-order-book-parsing")).andReturn("true");
+    expect(otherConfig.getItem("nonce-file")).andReturn(null);
+    PowerMock.reset(exchangeConfig);
+    expect(exchangeConfig.getAuthenticationConfig()).andReturn(authenticationConfig);
+    expect(exchangeConfig.getNetworkConfig()).andReturn(networkConfig);
+    expect(exchangeConfig.getOtherConfig()).andReturn(otherConfig);
+
+    final BitfinexExchangeAdapter exchangeAdapter =
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
+            BitfinexExchangeAdapter.class, MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_STREAMING_METHOD);
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_STREAMING_METHOD,
+            eq(BOOK + "/" + MARKET_ID),
+            anyObject(AbstractExchangeAdapter.ExchangeResponseStreamParser.class))
+        .andAnswer(
+            () -> {
+              final AbstractExchangeAdapter.ExchangeResponseStreamParser<?> parser =
+                  (AbstractExchangeAdapter.ExchangeResponseStreamParser<?>)
+                      getCurrentArguments()[1];
+              try (JsonReader reader =
+                  new JsonReader(Files.newBufferedReader(Paths.get(BOOK_JSON_RESPONSE)))) {
+                return parser.parse(reader);
+              }
+            });
+
+    PowerMock.replayAll();
+    exchangeAdapter.init(exchangeConfig);
+
+    final MarketOrderBook marketOrderBook = exchangeAdapter.getMarketOrders(MARKET_ID);
+
+    // assert some key stuff parsed straight off the wire.
+    assertEquals(MARKET_ID, marketOrderBook.getMarketId());
+
+    final BigDecimal buyPrice = new BigDecimal("239.43");
+    final BigDecimal buyQuantity = new BigDecimal("5.0");
+    final BigDecimal buyTotal = buyPrice.multiply(buyQuantity);
+
+    assertEquals(906, marketOrderBook.getBuyOrders().size()); // 'finex sends them all back!
+    assertSame(OrderType.BUY, marketOrderBook.getBuyOrders().get(0).getType());
+    assertEquals(0, marketOrderBook.getBuyOrders().get(0).getPrice().compareTo(buyPrice));
+    assertEquals(0, marketOrderBook.getBuyOrders().get(0).getQuantity().compareTo(buyQuantity));
+    assertEquals(0, marketOrderBook.getBuyOrders().get(0).getTotal().compareTo(buyTotal));
+
+    final BigDecimal sellPrice = new BigDecimal("239.53");
+    final BigDecimal sellQuantity = new BigDecimal("6.35595596");
+    final BigDecimal sellTotal = sellPrice.multiply(sellQuantity);
+
+    assertEquals(984, marketOrderBook.getSellOrders().size()); // 'finex sends them all back!
+    assertSame(OrderType.SELL, marketOrderBook.getSellOrders().get(0).getType());
+    assertEquals(0, marketOrderBook.getSellOrders().get(0).getPrice().compareTo(sellPrice));
+    assertEquals(0, marketOrderBook.getSellOrders().get(0).getQuantity().compareTo(sellQuantity));
+    assertEquals(0, marketOrderBook.getSellOrders().get(0).getTotal().compareTo(sellTotal));
+
+    PowerMock.verifyAll();
+  }
+
+  @Test
+  public void testGettingMarketOrdersToDepthPassesDepthToExchange() throws Exception {
+    final byte[] encoded = Files.readAllBytes(Paths.get(BOOK_JSON_RESPONSE));
+    final AbstractExchangeAdapter.ExchangeHttpResponse exchangeResponse =
+        new AbstractExchangeAdapter.ExchangeHttpResponse(
+            200, "OK", new String(encoded, StandardCharsets.UTF_8));
+
+    final BitfinexExchangeAdapter exchangeAdapter =
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
+            BitfinexExchangeAdapter.class, MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_METHOD);
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_METHOD,
+            BOOK + "/" + MARKET_ID + "?limit_bids=10&limit_asks=10")
+        .andReturn(exchangeResponse);
+
+    PowerMock.replayAll();
+    exchangeAdapter.init(exchangeConfig);
+
+    final MarketOrderBook marketOrderBook = exchangeAdapter.getMarketOrders(MARKET_ID, 10);
+
+    assertEquals(MARKET_ID, marketOrderBook.getMarketId());
+    assertEquals(
+        0, marketOrderBook.getBuyOrders().get(0).getPrice().compareTo(new BigDecimal("239.43")));
+
+    PowerMock.verifyAll();
+  }
+
+  @Test
+  public void testGettingMarketOrdersAsynchronously() throws Exception {
+    final byte[] encoded = Files.readAllBytes(Paths.get(BOOK_JSON_RESPONSE));
+    final AbstractExchangeAdapter.ExchangeHttpResponse exchangeResponse =
+        new AbstractExchangeAdapter.ExchangeHttpResponse(
+            200, "OK", new String(encoded, StandardCharsets.UTF_8));
+
+    final BitfinexExchangeAdapter exchangeAdapter =
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
+            BitfinexExchangeAdapter.class, MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_ASYNC_METHOD);
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_ASYNC_METHOD,
+            BOOK + "/" + MARKET_ID)
+        .andReturn(CompletableFuture.completedFuture(exchangeResponse));
+
+    PowerMock.replayAll();
+    exchangeAdapter.init(exchangeConfig);
+
+    final MarketOrderBook marketOrderBook = exchangeAdapter.getMarketOrdersAsync(MARKET_ID).get();
+
+    // assert some key stuff; we're not testing GSON here.
+    assertEquals(MARKET_ID, marketOrderBook.getMarketId());
+
+    final BigDecimal buyPrice = new BigDecimal("239.43");
+    final BigDecimal buyQuantity = new BigDecimal("5.0");
+    final BigDecimal buyTotal = buyPrice.multiply(buyQuantity);
+
+    assertEquals(906, marketOrderBook.getBuyOrders().size()); // 'finex sends them all back!
+    assertSame(OrderType.BUY, marketOrderBook.getBuyOrders().get(0).getType());
+    assertEquals(0, marketOrderBook.getBuyOrders().get(0).getPrice().compareTo(buyPrice));
+    assertEquals(0, marketOrderBook.getBuyOrders().get(0).getQuantity().compareTo(buyQuantity));
+    assertEquals(0, marketOrderBook.getBuyOrders().get(0).getTotal().compareTo(buyTotal));
+
+    final BigDecimal sellPrice = new BigDecimal("239.53");
+    final BigDecimal sellQuantity = new BigDecimal("6.35595596");
+    final BigDecimal sellTotal = sellPrice.multiply(sellQuantity);
+
+    assertEquals(984, marketOrderBook.getSellOrders().size()); // 'finex sends them all back!
+    assertSame(OrderType.SELL, marketOrderBook.getSellOrders().get(0).getType());
+    assertEquals(0, marketOrderBook.getSellOrders().get(0).getPrice().compareTo(sellPrice));
+    assertEquals(0, marketOrderBook.getSellOrders().get(0).getQuantity().compareTo(sellQuantity));
+    assertEquals(0, marketOrderBook.getSellOrders().get(0).getTotal().compareTo(sellTotal));
+
+    PowerMock.verifyAll();
+  }
+
   @Test(expected = ExchangeNetworkException.class)
   public void testGettingMarketOrdersHandlesExchangeNetworkException() throws Exception {
     final BitfinexExchangeAdapter exchangeAdapter =
@@ -530,6 +683,49 @@ public class TestBitfinexExchangeAdapter extends AbstractExchangeAdapterTest {
     PowerMock.verifyAll();
   }
 
+  @Test
+  public void testGettingYourOpenOrdersAsynchronously() throws Exception {
+    final byte[] encoded = Files.readAllBytes(Paths.get(ORDERS_JSON_RESPONSE));
+    final AbstractExchangeAdapter.ExchangeHttpResponse exchangeResponse =
+        new AbstractExchangeAdapter.ExchangeHttpResponse(
+            200, "OK", new String(encoded, StandardCharsets.UTF_8));
+
+    final BitfinexExchangeAdapter exchangeAdapter =
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
+            BitfinexExchangeAdapter.class,
+            MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_ASYNC_METHOD);
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_ASYNC_METHOD,
+            eq(ORDERS),
+            eq(null))
+        .andReturn(CompletableFuture.completedFuture(exchangeResponse));
+
+    PowerMock.replayAll();
+    exchangeAdapter.init(exchangeConfig);
+
+    final List<OpenOrder> openOrders = exchangeAdapter.getYourOpenOrdersAsync(MARKET_ID).get();
+
+    // assert some key stuff; we're not testing GSON here.
+    assertEquals(2, openOrders.size());
+    assertEquals(MARKET_ID, openOrders.get(0).getMarketId());
+    assertEquals("423760243", openOrders.get(0).getId());
+    assertSame(OrderType.SELL, openOrders.get(0).getType());
+    assertEquals(1442073766, openOrders.get(0).getCreationDate().getTime());
+    assertEquals(0, openOrders.get(0).getPrice().compareTo(new BigDecimal("259.38")));
+    assertEquals(0, openOrders.get(0).getQuantity().compareTo(new BigDecimal("0.03")));
+    assertEquals(0, openOrders.get(0).getOriginalQuantity().compareTo(new BigDecimal("0.03")));
+    assertEquals(
+        0,
+        openOrders
+            .get(0)
+            .getTotal()
+            .compareTo(
+                openOrders.get(0).getPrice().multiply(openOrders.get(0).getOriginalQuantity())));
+
+    PowerMock.verifyAll();
+  }
+
   @Test(expected = ExchangeNetworkException.class)
   public void testGettingYourOpenOrdersHandlesExchangeNetworkException() throws Exception {
     final BitfinexExchangeAdapter exchangeAdapter =
@@ -692,6 +888,41 @@ public class TestBitfinexExchangeAdapter extends AbstractExchangeAdapterTest {
     PowerMock.verifyAll();
   }
 
+  @Test
+  public void testGettingBalanceInfoAsynchronously() throws Exception {
+    final byte[] encoded = Files.readAllBytes(Paths.get(BALANCE_JSON_RESPONSE));
+    final AbstractExchangeAdapter.ExchangeHttpResponse exchangeResponse =
+        new AbstractExchangeAdapter.ExchangeHttpResponse(
+            200, "OK", new String(encoded, StandardCharsets.UTF_8));
+
+    final BitfinexExchangeAdapter exchangeAdapter =
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
+            BitfinexExchangeAdapter.class,
+            MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_ASYNC_METHOD);
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_ASYNC_METHOD,
+            eq(BALANCES),
+            eq(null))
+        .andReturn(CompletableFuture.completedFuture(exchangeResponse));
+
+    PowerMock.replayAll();
+    exchangeAdapter.init(exchangeConfig);
+
+    final BalanceInfo balanceInfo = exchangeAdapter.getBalanceInfoAsync().get();
+
+    // assert some key stuff; we're not testing GSON here.
+    assertEquals(
+        0, balanceInfo.getBalancesAvailable().get("BTC").compareTo(new BigDecimal("0.1267283")));
+    assertEquals(0, balanceInfo.getBalancesAvailable().get("USD").compareTo(new BigDecimal("0")));
+
+    // Bitfinex does not provide "balances on hold" info.
+    assertNull(balanceInfo.getBalancesOnHold().get("BTC"));
+    assertNull(balanceInfo.getBalancesOnHold().get("LTC"));
+
+    PowerMock.verifyAll();
+  }
+
   @Test(expected = ExchangeNetworkException.class)
   public void testGettingBalanceInfoHandlesExchangeNetworkException() throws Exception {
     final BitfinexExchangeAdapter exchangeAdapter =
@@ -935,6 +1166,39 @@ public class TestBitfinexExchangeAdapter extends AbstractExchangeAdapterTest {
     PowerMock.verifyAll();
   }
 
+  @Test
+  public void testGettingTickerAsynchronously() throws Exception {
+    final byte[] encoded = Files.readAllBytes(Paths.get(PUB_TICKER_JSON_RESPONSE));
+    final AbstractExchangeAdapter.ExchangeHttpResponse exchangeResponse =
+        new AbstractExchangeAdapter.ExchangeHttpResponse(
+            200, "OK", new String(encoded, StandardCharsets.UTF_8));
+
+    final BitfinexExchangeAdapter exchangeAdapter =
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
+            BitfinexExchangeAdapter.class, MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_ASYNC_METHOD);
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_ASYNC_METHOD,
+            PUB_TICKER + "/" + MARKET_ID)
+        .andReturn(CompletableFuture.completedFuture(exchangeResponse));
+
+    PowerMock.replayAll();
+    exchangeAdapter.init(exchangeConfig);
+
+    final Ticker ticker = exchangeAdapter.getTickerAsync(MARKET_ID).get();
+    assertEquals(0, ticker.getLast().compareTo(new BigDecimal("236.07")));
+    assertEquals(0, ticker.getAsk().compareTo(new BigDecimal("236.3")));
+    assertEquals(0, ticker.getBid().compareTo(new BigDecimal("236.1")));
+    assertEquals(0, ticker.getHigh().compareTo(new BigDecimal("241.59")));
+    assertEquals(0, ticker.getLow().compareTo(new BigDecimal("235.51")));
+    assertNull(ticker.getOpen()); // vwap not supplied by finex
+    assertEquals(0, ticker.getVolume().compareTo(new BigDecimal("8002.20183869")));
+    assertNull(ticker.getVwap()); // vwap not supplied by finex
+    assertEquals(1442080762L, (long) ticker.getTimestamp());
+
+    PowerMock.verifyAll();
+  }
+
   @Test(expected = ExchangeNetworkException.class)
   public void testGettingTickerHandlesExchangeNetworkException() throws Exception {
     final BitfinexExchangeAdapter exchangeAdapter =
@@ -1175,7 +1439,7 @@ public class TestBitfinexExchangeAdapter extends AbstractExchangeAdapterTest {
     final BitfinexExchangeAdapter exchangeAdapter =
         PowerMock.createPartialMockAndInvokeDefaultConstructor(
             BitfinexExchangeAdapter.class,
-            MOCKED_MAKE_NETWORK_REQUEST_METHOD,
+            MOCKED_MAKE_NETWORK_REQUEST_ASYNC_METHOD,
             MOCKED_CREATE_REQUEST_HEADER_MAP_METHOD,
             MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD);
     PowerMock.expectPrivate(exchangeAdapter, MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD)
@@ -1186,12 +1450,12 @@ public class TestBitfinexExchangeAdapter extends AbstractExchangeAdapterTest {
     final URL url = new URL(AUTHENTICATED_API_URL + ORDER_NEW);
     PowerMock.expectPrivate(
             exchangeAdapter,
-            MOCKED_MAKE_NETWORK_REQUEST_METHOD,
+            MOCKED_MAKE_NETWORK_REQUEST_ASYNC_METHOD,
             eq(url),
             eq("POST"),
             eq(new GsonBuilder().create().toJson(requestParamMap)),
             eq(requestHeaderMap))
-        .andReturn(exchangeResponse);
+        .andReturn(CompletableFuture.completedFuture(exchangeResponse));
 
     PowerMock.replayAll();
     exchangeAdapter.init(exchangeConfig);
@@ -1238,7 +1502,7 @@ public class TestBitfinexExchangeAdapter extends AbstractExchangeAdapterTest {
     final BitfinexExchangeAdapter exchangeAdapter =
         PowerMock.createPartialMockAndInvokeDefaultConstructor(
             BitfinexExchangeAdapter.class,
-            MOCKED_MAKE_NETWORK_REQUEST_METHOD,
+            MOCKED_MAKE_NETWORK_REQUEST_ASYNC_METHOD,
             MOCKED_CREATE_REQUEST_HEADER_MAP_METHOD,
             MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD);
     PowerMock.expectPrivate(exchangeAdapter, MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD)
@@ -1249,12 +1513,14 @@ public class TestBitfinexExchangeAdapter extends AbstractExchangeAdapterTest {
     final URL url = new URL(AUTHENTICATED_API_URL + ORDER_NEW);
     PowerMock.expectPrivate(
             exchangeAdapter,
-            MOCKED_MAKE_NETWORK_REQUEST_METHOD,
+            MOCKED_MAKE_NETWORK_REQUEST_ASYNC_METHOD,
             eq(url),
             eq("POST"),
             anyString(),
             eq(requestHeaderMap))
-        .andThrow(new ExchangeNetworkException("The road goes ever on and on..."));
+        .andReturn(
+            CompletableFuture.failedFuture(
+                new ExchangeNetworkException("The road goes ever on and on...")));
 
     PowerMock.replayAll();
     exchangeAdapter.init(exchangeConfig);
@@ -1298,7 +1564,7 @@ public class TestBitfinexExchangeAdapter extends AbstractExchangeAdapterTest {
     final BitfinexExchangeAdapter exchangeAdapter =
         PowerMock.createPartialMockAndInvokeDefaultConstructor(
             BitfinexExchangeAdapter.class,
-            MOCKED_MAKE_NETWORK_REQUEST_METHOD,
+            MOCKED_MAKE_NETWORK_REQUEST_ASYNC_METHOD,
             MOCKED_CREATE_REQUEST_HEADER_MAP_METHOD,
             MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD);
     PowerMock.expectPrivate(exchangeAdapter, MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD)
@@ -1309,16 +1575,17 @@ public class TestBitfinexExchangeAdapter extends AbstractExchangeAdapterTest {
     final URL url = new URL(AUTHENTICATED_API_URL + ORDER_NEW);
     PowerMock.expectPrivate(
             exchangeAdapter,
-            MOCKED_MAKE_NETWORK_REQUEST_METHOD,
+            MOCKED_MAKE_NETWORK_REQUEST_ASYNC_METHOD,
             eq(url),
             eq("POST"),
             anyString(),
             eq(requestHeaderMap))
-        .andThrow(
-            new TradingApiException(
-                "Do you wish me a good morning, or mean that it is a good morning whether I want "
-                    + "it or not; or that you feel good this morning; or that it is a morning to "
-                    + "be good on?"));
+        .andReturn(
+            CompletableFuture.failedFuture(
+                new TradingApiException(
+                    "Do you wish me a good morning, or mean that it is a good morning whether I "
+                        + "want it or not; or that you feel good this morning; or that it is a "
+                        + "morning to be good on?")));
 
     PowerMock.replayAll();
     exchangeAdapter.init(exchangeConfig);
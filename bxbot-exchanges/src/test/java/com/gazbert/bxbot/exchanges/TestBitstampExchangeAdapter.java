@@ -27,16 +27,19 @@ import static org.easymock.EasyMock.anyObject;
 import static org.easymock.EasyMock.anyString;
 import static org.easymock.EasyMock.eq;
 import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.getCurrentArguments;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import com.gazbert.bxbot.exchange.api.AuthenticationConfig;
 import com.gazbert.bxbot.exchange.api.ExchangeAdapter;
 import com.gazbert.bxbot.exchange.api.ExchangeConfig;
 import com.gazbert.bxbot.exchange.api.NetworkConfig;
+import com.gazbert.bxbot.exchange.api.OtherConfig;
 import com.gazbert.bxbot.trading.api.BalanceInfo;
 import com.gazbert.bxbot.trading.api.ExchangeNetworkException;
 import com.gazbert.bxbot.trading.api.MarketOrderBook;
@@ -44,6 +47,7 @@ import com.gazbert.bxbot.trading.api.OpenOrder;
 import com.gazbert.bxbot.trading.api.OrderType;
 import com.gazbert.bxbot.trading.api.Ticker;
 import com.gazbert.bxbot.trading.api.TradingApiException;
+import com.google.gson.stream.JsonReader;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.net.URL;
@@ -56,6 +60,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -93,6 +98,8 @@ public class TestBitstampExchangeAdapter extends AbstractExchangeAdapter {
   private static final String SELL_JSON_RESPONSE = "./src/test/exchange-data/bitstamp/sell.json";
   private static final String CANCEL_ORDER_JSON_RESPONSE =
       "./src/test/exchange-data/bitstamp/cancel_order.json";
+  private static final String CANCEL_ALL_ORDERS_JSON_RESPONSE =
+      "./src/test/exchange-data/bitstamp/cancel_all_orders.json";
 
   private static final String ORDER_BOOK = "order_book/";
   private static final String OPEN_ORDERS = "open_orders/";
@@ -101,6 +108,7 @@ public class TestBitstampExchangeAdapter extends AbstractExchangeAdapter {
   private static final String BUY = "buy/";
   private static final String SELL = "sell/";
   private static final String CANCEL_ORDER = "cancel_order";
+  private static final String CANCEL_ALL_ORDERS = "cancel_all_orders/";
 
   private static final String MARKET_ID = "btcusd";
   private static final BigDecimal BUY_ORDER_PRICE = new BigDecimal("200.18");
@@ -112,10 +120,18 @@ public class TestBitstampExchangeAdapter extends AbstractExchangeAdapter {
   private static final String MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD = "createRequestParamMap";
   private static final String MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_METHOD =
       "sendAuthenticatedRequestToExchange";
+  private static final String MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_ASYNC_METHOD =
+      "sendAuthenticatedRequestToExchangeAsync";
   private static final String MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_METHOD =
       "sendPublicRequestToExchange";
+  private static final String MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_ASYNC_METHOD =
+      "sendPublicRequestToExchangeAsync";
+  private static final String MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_STREAMING_METHOD =
+      "sendPublicRequestToExchangeStreaming";
   private static final String MOCKED_CREATE_REQUEST_HEADER_MAP_METHOD = "createHeaderParamMap";
   private static final String MOCKED_MAKE_NETWORK_REQUEST_METHOD = "makeNetworkRequest";
+  private static final String MOCKED_MAKE_NETWORK_REQUEST_ASYNC_METHOD =
+      "makeNetworkRequestAsync";
 
   private static final String CLIENT_ID = "clientId123";
   private static final String KEY = "key123";
@@ -148,11 +164,17 @@ public class TestBitstampExchangeAdapter extends AbstractExchangeAdapter {
     expect(networkConfig.getConnectionTimeout()).andReturn(30);
     expect(networkConfig.getNonFatalErrorCodes()).andReturn(nonFatalNetworkErrorCodes);
     expect(networkConfig.getNonFatalErrorMessages()).andReturn(nonFatalNetworkErrorMessages);
+    expect(networkConfig.getRateLimitConfig()).andReturn(null);
+    expect(networkConfig.getRetryConfig()).andReturn(null);
+    expect(networkConfig.getCircuitBreakerConfig()).andReturn(null);
+    expect(networkConfig.getTimeoutConfig()).andReturn(null);
+    expect(networkConfig.getHedgingConfig()).andReturn(null);
 
     exchangeConfig = PowerMock.createMock(ExchangeConfig.class);
     expect(exchangeConfig.getAuthenticationConfig()).andReturn(authenticationConfig);
     expect(exchangeConfig.getNetworkConfig()).andReturn(networkConfig);
-    // optional config not needed for this adapter
+    // optional config not set for these tests
+    expect(exchangeConfig.getOtherConfig()).andReturn(null);
   }
 
   // --------------------------------------------------------------------------
@@ -246,6 +268,55 @@ public class TestBitstampExchangeAdapter extends AbstractExchangeAdapter {
     PowerMock.verifyAll();
   }
 
+  @Test
+  public void testCancelAllOrdersIsSuccessful() throws Exception {
+    final byte[] encoded = Files.readAllBytes(Paths.get(CANCEL_ALL_ORDERS_JSON_RESPONSE));
+    final AbstractExchangeAdapter.ExchangeHttpResponse exchangeResponse =
+        new AbstractExchangeAdapter.ExchangeHttpResponse(
+            200, "OK", new String(encoded, StandardCharsets.UTF_8));
+
+    final BitstampExchangeAdapter exchangeAdapter =
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
+            BitstampExchangeAdapter.class, MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_METHOD);
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_METHOD,
+            eq(CANCEL_ALL_ORDERS + MARKET_ID),
+            eq(null))
+        .andReturn(exchangeResponse);
+
+    PowerMock.replayAll();
+    exchangeAdapter.init(exchangeConfig);
+
+    assertEquals(2, exchangeAdapter.cancelAllOrders(MARKET_ID));
+
+    PowerMock.verifyAll();
+  }
+
+  @Test(expected = TradingApiException.class)
+  public void testCancelAllOrdersHandlesUnsuccessfulResponse() throws Exception {
+    final AbstractExchangeAdapter.ExchangeHttpResponse exchangeResponse =
+        new AbstractExchangeAdapter.ExchangeHttpResponse(
+            200, "OK", "{\"error\": \"Invalid currency pair\"}");
+
+    final BitstampExchangeAdapter exchangeAdapter =
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
+            BitstampExchangeAdapter.class, MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_METHOD);
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_METHOD,
+            eq(CANCEL_ALL_ORDERS + MARKET_ID),
+            eq(null))
+        .andReturn(exchangeResponse);
+
+    PowerMock.replayAll();
+    exchangeAdapter.init(exchangeConfig);
+
+    exchangeAdapter.cancelAllOrders(MARKET_ID);
+
+    PowerMock.verifyAll();
+  }
+
   // --------------------------------------------------------------------------
   //  Create Orders tests
   // --------------------------------------------------------------------------
@@ -437,6 +508,151 @@ public class TestBitstampExchangeAdapter extends AbstractExchangeAdapter {
     PowerMock.verifyAll();
   }
 
+  @Test
+  public void testGettingMarketOrdersByStreamingSuccessfully() throws Exception {
+    final OtherConfig otherConfig = PowerMock.createMock(OtherConfig.class);
+    expect(otherConfig.getItem("streaming-order-book-parsing")).andReturn("true");
+    expect(otherConfig.getItem("nonce-file")).andReturn(null);
+    expect(otherConfig.getItem("fee-refresh-interval")).andReturn(null);
+    PowerMock.reset(exchangeConfig);
+    expect(exchangeConfig.getAuthenticationConfig()).andReturn(authenticationConfig);
+    expect(exchangeConfig.getNetworkConfig()).andReturn(networkConfig);
+    expect(exchangeConfig.getOtherConfig()).andReturn(otherConfig);
+
+    final BitstampExchangeAdapter exchangeAdapter =
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
+            BitstampExchangeAdapter.class, MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_STREAMING_METHOD);
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_STREAMING_METHOD,
+            eq(ORDER_BOOK + MARKET_ID),
+            anyObject(AbstractExchangeAdapter.ExchangeResponseStreamParser.class))
+        .andAnswer(
+            () -> {
+              final AbstractExchangeAdapter.ExchangeResponseStreamParser<?> parser =
+                  (AbstractExchangeAdapter.ExchangeResponseStreamParser<?>)
+                      getCurrentArguments()[1];
+              try (JsonReader reader =
+                  new JsonReader(Files.newBufferedReader(Paths.get(ORDER_BOOK_JSON_RESPONSE)))) {
+                return parser.parse(reader);
+              }
+            });
+
+    PowerMock.replayAll();
+    exchangeAdapter.init(exchangeConfig);
+
+    final MarketOrderBook marketOrderBook = exchangeAdapter.getMarketOrders(MARKET_ID);
+
+    // assert some key stuff parsed straight off the wire.
+    assertEquals(MARKET_ID, marketOrderBook.getMarketId());
+
+    final BigDecimal buyPrice = new BigDecimal("230.34");
+    final BigDecimal buyQuantity = new BigDecimal("7.22860000");
+    final BigDecimal buyTotal = buyPrice.multiply(buyQuantity);
+
+    assertEquals(1268, marketOrderBook.getBuyOrders().size()); // stamp send them all back!
+    assertSame(OrderType.BUY, marketOrderBook.getBuyOrders().get(0).getType());
+    assertEquals(0, marketOrderBook.getBuyOrders().get(0).getPrice().compareTo(buyPrice));
+    assertEquals(0, marketOrderBook.getBuyOrders().get(0).getQuantity().compareTo(buyQuantity));
+    assertEquals(0, marketOrderBook.getBuyOrders().get(0).getTotal().compareTo(buyTotal));
+
+    final BigDecimal sellPrice = new BigDecimal("230.90");
+    final BigDecimal sellQuantity = new BigDecimal("0.62263188");
+    final BigDecimal sellTotal = sellPrice.multiply(sellQuantity);
+
+    assertEquals(1957, marketOrderBook.getSellOrders().size()); // stamp send them all back!
+    assertSame(OrderType.SELL, marketOrderBook.getSellOrders().get(0).getType());
+    assertEquals(0, marketOrderBook.getSellOrders().get(0).getPrice().compareTo(sellPrice));
+    assertEquals(0, marketOrderBook.getSellOrders().get(0).getQuantity().compareTo(sellQuantity));
+    assertEquals(0, marketOrderBook.getSellOrders().get(0).getTotal().compareTo(sellTotal));
+
+    PowerMock.verifyAll();
+  }
+
+  @Test
+  public void testGettingMarketOrdersToDepthStopsParsingAtDepth() throws Exception {
+    final BitstampExchangeAdapter exchangeAdapter =
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
+            BitstampExchangeAdapter.class,
+            MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_STREAMING_METHOD);
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_STREAMING_METHOD,
+            eq(ORDER_BOOK + MARKET_ID),
+            anyObject(AbstractExchangeAdapter.ExchangeResponseStreamParser.class))
+        .andAnswer(
+            () -> {
+              final AbstractExchangeAdapter.ExchangeResponseStreamParser<?> parser =
+                  (AbstractExchangeAdapter.ExchangeResponseStreamParser<?>)
+                      getCurrentArguments()[1];
+              try (JsonReader reader =
+                  new JsonReader(Files.newBufferedReader(Paths.get(ORDER_BOOK_JSON_RESPONSE)))) {
+                return parser.parse(reader);
+              }
+            });
+
+    PowerMock.replayAll();
+    exchangeAdapter.init(exchangeConfig);
+
+    final MarketOrderBook marketOrderBook = exchangeAdapter.getMarketOrders(MARKET_ID, 5);
+
+    assertEquals(5, marketOrderBook.getBuyOrders().size());
+    assertEquals(
+        0, marketOrderBook.getBuyOrders().get(0).getPrice().compareTo(new BigDecimal("230.34")));
+    assertEquals(5, marketOrderBook.getSellOrders().size());
+    assertEquals(
+        0, marketOrderBook.getSellOrders().get(0).getPrice().compareTo(new BigDecimal("230.90")));
+
+    PowerMock.verifyAll();
+  }
+
+  @Test
+  public void testGettingMarketOrdersAsynchronously() throws Exception {
+    final byte[] encoded = Files.readAllBytes(Paths.get(ORDER_BOOK_JSON_RESPONSE));
+    final AbstractExchangeAdapter.ExchangeHttpResponse exchangeResponse =
+        new AbstractExchangeAdapter.ExchangeHttpResponse(
+            200, "OK", new String(encoded, StandardCharsets.UTF_8));
+
+    final BitstampExchangeAdapter exchangeAdapter =
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
+            BitstampExchangeAdapter.class, MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_ASYNC_METHOD);
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_ASYNC_METHOD,
+            eq(ORDER_BOOK + MARKET_ID))
+        .andReturn(CompletableFuture.completedFuture(exchangeResponse));
+
+    PowerMock.replayAll();
+    exchangeAdapter.init(exchangeConfig);
+
+    final MarketOrderBook marketOrderBook = exchangeAdapter.getMarketOrdersAsync(MARKET_ID).get();
+
+    // assert some key stuff; we're not testing GSON here.
+    assertEquals(MARKET_ID, marketOrderBook.getMarketId());
+
+    final BigDecimal buyPrice = new BigDecimal("230.34");
+    final BigDecimal buyQuantity = new BigDecimal("7.22860000");
+    final BigDecimal buyTotal = buyPrice.multiply(buyQuantity);
+
+    assertEquals(1268, marketOrderBook.getBuyOrders().size()); // stamp send them all back!
+    assertSame(OrderType.BUY, marketOrderBook.getBuyOrders().get(0).getType());
+    assertEquals(0, marketOrderBook.getBuyOrders().get(0).getPrice().compareTo(buyPrice));
+    assertEquals(0, marketOrderBook.getBuyOrders().get(0).getQuantity().compareTo(buyQuantity));
+    assertEquals(0, marketOrderBook.getBuyOrders().get(0).getTotal().compareTo(buyTotal));
+
+    final BigDecimal sellPrice = new BigDecimal("230.90");
+    final BigDecimal sellQuantity = new BigDecimal("0.62263188");
+    final BigDecimal sellTotal = sellPrice.multiply(sellQuantity);
+
+    assertEquals(1957, marketOrderBook.getSellOrders().size()); // stamp send them all back!
+    assertSame(OrderType.SELL, marketOrderBook.getSellOrders().get(0).getType());
+    assertEquals(0, marketOrderBook.getSellOrders().get(0).getPrice().compareTo(sellPrice));
+    assertEquals(0, marketOrderBook.getSellOrders().get(0).getQuantity().compareTo(sellQuantity));
+    assertEquals(0, marketOrderBook.getSellOrders().get(0).getTotal().compareTo(sellTotal));
+
+    PowerMock.verifyAll();
+  }
+
   @Test(expected = ExchangeNetworkException.class)
   public void testGettingMarketOrdersHandlesExchangeNetworkException() throws Exception {
     final BitstampExchangeAdapter exchangeAdapter =
@@ -528,6 +744,52 @@ public class TestBitstampExchangeAdapter extends AbstractExchangeAdapter {
     PowerMock.verifyAll();
   }
 
+  @Test
+  public void testGettingYourOpenOrdersAsynchronously() throws Exception {
+    final byte[] encoded = Files.readAllBytes(Paths.get(OPEN_ORDERS_JSON_RESPONSE));
+    final AbstractExchangeAdapter.ExchangeHttpResponse exchangeResponse =
+        new AbstractExchangeAdapter.ExchangeHttpResponse(
+            200, "OK", new String(encoded, StandardCharsets.UTF_8));
+
+    final BitstampExchangeAdapter exchangeAdapter =
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
+            BitstampExchangeAdapter.class,
+            MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_ASYNC_METHOD);
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_ASYNC_METHOD,
+            eq(OPEN_ORDERS + MARKET_ID),
+            eq(null))
+        .andReturn(CompletableFuture.completedFuture(exchangeResponse));
+
+    PowerMock.replayAll();
+    exchangeAdapter.init(exchangeConfig);
+
+    final List<OpenOrder> openOrders = exchangeAdapter.getYourOpenOrdersAsync(MARKET_ID).get();
+
+    // assert some key stuff; we're not testing GSON here.
+    assertEquals(2, openOrders.size());
+    assertEquals(MARKET_ID, openOrders.get(0).getMarketId());
+    assertEquals("52603560", openOrders.get(0).getId());
+    assertSame(OrderType.SELL, openOrders.get(0).getType());
+    assertEquals(
+        openOrders.get(0).getCreationDate().getTime(),
+        bitstampExchangeDateFormat.parse("2015-01-09 21:14:50").getTime());
+    assertEquals(0, openOrders.get(0).getPrice().compareTo(new BigDecimal("350.00")));
+    assertEquals(0, openOrders.get(0).getQuantity().compareTo(new BigDecimal("0.20000000")));
+    assertEquals(
+        0,
+        openOrders
+            .get(0)
+            .getTotal()
+            .compareTo(openOrders.get(0).getPrice().multiply(openOrders.get(0).getQuantity())));
+
+    // the values below are not provided by Bitstamp
+    assertNull(openOrders.get(0).getOriginalQuantity());
+
+    PowerMock.verifyAll();
+  }
+
   @Test(expected = ExchangeNetworkException.class)
   public void testGettingYourOpenOrdersHandlesExchangeNetworkException() throws Exception {
     final BitstampExchangeAdapter exchangeAdapter =
@@ -679,6 +941,50 @@ public class TestBitstampExchangeAdapter extends AbstractExchangeAdapter {
     PowerMock.verifyAll();
   }
 
+  @Test
+  public void testGettingBalanceInfoAsynchronously() throws Exception {
+    final byte[] encoded = Files.readAllBytes(Paths.get(BALANCE_JSON_RESPONSE));
+    final AbstractExchangeAdapter.ExchangeHttpResponse exchangeResponse =
+        new AbstractExchangeAdapter.ExchangeHttpResponse(
+            200, "OK", new String(encoded, StandardCharsets.UTF_8));
+
+    final BitstampExchangeAdapter exchangeAdapter =
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
+            BitstampExchangeAdapter.class,
+            MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_ASYNC_METHOD);
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_ASYNC_METHOD,
+            eq(BALANCE),
+            eq(null))
+        .andReturn(CompletableFuture.completedFuture(exchangeResponse));
+
+    PowerMock.replayAll();
+    exchangeAdapter.init(exchangeConfig);
+
+    final BalanceInfo balanceInfo = exchangeAdapter.getBalanceInfoAsync().get();
+
+    assertEquals(
+        0, balanceInfo.getBalancesAvailable().get("BTC").compareTo(new BigDecimal("0.00760854")));
+    assertEquals(
+        0, balanceInfo.getBalancesAvailable().get("USD").compareTo(new BigDecimal("57.03")));
+    assertEquals(
+        0, balanceInfo.getBalancesAvailable().get("EUR").compareTo(new BigDecimal("16.01")));
+    assertEquals(
+        0, balanceInfo.getBalancesAvailable().get("LTC").compareTo(new BigDecimal("50.01")));
+    assertEquals(
+        0, balanceInfo.getBalancesAvailable().get("XRP").compareTo(new BigDecimal("10.01")));
+
+    assertEquals(
+        0, balanceInfo.getBalancesOnHold().get("BTC").compareTo(new BigDecimal("0.01918917")));
+    assertEquals(0, balanceInfo.getBalancesOnHold().get("USD").compareTo(new BigDecimal("62.23")));
+    assertEquals(0, balanceInfo.getBalancesOnHold().get("EUR").compareTo(new BigDecimal("12.01")));
+    assertEquals(0, balanceInfo.getBalancesOnHold().get("LTC").compareTo(new BigDecimal("40.01")));
+    assertEquals(0, balanceInfo.getBalancesOnHold().get("XRP").compareTo(new BigDecimal("5.01")));
+
+    PowerMock.verifyAll();
+  }
+
   @Test(expected = ExchangeNetworkException.class)
   public void testGettingBalanceInfoHandlesExchangeNetworkException() throws Exception {
     final BitstampExchangeAdapter exchangeAdapter =
@@ -868,6 +1174,125 @@ public class TestBitstampExchangeAdapter extends AbstractExchangeAdapter {
     PowerMock.verifyAll();
   }
 
+  // --------------------------------------------------------------------------
+  //  Exchange Fee caching tests
+  // --------------------------------------------------------------------------
+
+  @Test
+  public void testExchangeFeesAreFetchedOnceUntilRefreshIntervalExpires() throws Exception {
+    final BitstampExchangeAdapter exchangeAdapter = createFeeTestAdapter(1);
+
+    PowerMock.replayAll();
+    exchangeAdapter.init(exchangeConfig);
+
+    final BigDecimal btcUsdFee =
+        exchangeAdapter.getPercentageOfBuyOrderTakenForExchangeFee(MARKET_ID);
+    assertEquals(0, btcUsdFee.compareTo(new BigDecimal("0.0025")));
+    assertEquals(
+        0,
+        exchangeAdapter
+            .getPercentageOfSellOrderTakenForExchangeFee(MARKET_ID)
+            .compareTo(btcUsdFee));
+    assertEquals(
+        0,
+        exchangeAdapter
+            .getPercentageOfBuyOrderTakenForExchangeFee("ltcusd")
+            .compareTo(new BigDecimal("0.0022")));
+
+    PowerMock.verifyAll();
+  }
+
+  @Test
+  public void testExchangeFeesAreRefreshedAfterConfiguredInterval() throws Exception {
+    final OtherConfig otherConfig = PowerMock.createMock(OtherConfig.class);
+    expect(otherConfig.getItem("fee-refresh-interval")).andReturn("1");
+    expect(otherConfig.getItem("streaming-order-book-parsing")).andReturn(null);
+    expect(otherConfig.getItem("nonce-file")).andReturn(null);
+    PowerMock.reset(exchangeConfig);
+    expect(exchangeConfig.getAuthenticationConfig()).andReturn(authenticationConfig);
+    expect(exchangeConfig.getNetworkConfig()).andReturn(networkConfig);
+    expect(exchangeConfig.getOtherConfig()).andReturn(otherConfig);
+
+    final BitstampExchangeAdapter exchangeAdapter = createFeeTestAdapter(2);
+
+    PowerMock.replayAll();
+    exchangeAdapter.init(exchangeConfig);
+
+    exchangeAdapter.getPercentageOfBuyOrderTakenForExchangeFee(MARKET_ID);
+    exchangeAdapter.getPercentageOfSellOrderTakenForExchangeFee(MARKET_ID);
+    Thread.sleep(1100);
+    exchangeAdapter.getPercentageOfSellOrderTakenForExchangeFee(MARKET_ID);
+
+    PowerMock.verifyAll();
+  }
+
+  @Test
+  public void testGettingBalanceInfoRefreshesExchangeFees() throws Exception {
+    final BitstampExchangeAdapter exchangeAdapter = createFeeTestAdapter(1);
+
+    PowerMock.replayAll();
+    exchangeAdapter.init(exchangeConfig);
+
+    exchangeAdapter.getBalanceInfo();
+    final BigDecimal sellPercentageFee =
+        exchangeAdapter.getPercentageOfSellOrderTakenForExchangeFee("btceur");
+    assertEquals(0, sellPercentageFee.compareTo(new BigDecimal("0.0015")));
+
+    PowerMock.verifyAll();
+  }
+
+  @Test(expected = TradingApiException.class)
+  public void testGettingExchangeFeeForUnknownMarketFails() throws Exception {
+    final BitstampExchangeAdapter exchangeAdapter = createFeeTestAdapter(1);
+
+    PowerMock.replayAll();
+    exchangeAdapter.init(exchangeConfig);
+
+    exchangeAdapter.getPercentageOfBuyOrderTakenForExchangeFee("dogeusd");
+    PowerMock.verifyAll();
+  }
+
+  private void assertFeeRefreshIntervalIsRejected(String feeRefreshInterval) {
+    final OtherConfig otherConfig = PowerMock.createMock(OtherConfig.class);
+    expect(otherConfig.getItem("fee-refresh-interval")).andReturn(feeRefreshInterval);
+    expect(otherConfig.getItem("streaming-order-book-parsing")).andReturn(null);
+    expect(otherConfig.getItem("nonce-file")).andReturn(null);
+    PowerMock.reset(exchangeConfig);
+    expect(exchangeConfig.getAuthenticationConfig()).andReturn(authenticationConfig);
+    expect(exchangeConfig.getNetworkConfig()).andReturn(networkConfig);
+    expect(exchangeConfig.getOtherConfig()).andReturn(otherConfig);
+    PowerMock.replayAll();
+
+    try {
+      new BitstampExchangeAdapter().init(exchangeConfig);
+      fail("Expected fee-refresh-interval to be rejected: " + feeRefreshInterval);
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage().contains("fee-refresh-interval"));
+      assertTrue(e.getMessage().contains(feeRefreshInterval));
+    }
+    PowerMock.verifyAll();
+  }
+
+  private BitstampExchangeAdapter createFeeTestAdapter(int expectedBalanceRequests)
+      throws Exception {
+    final byte[] encoded = Files.readAllBytes(Paths.get(BALANCE_JSON_RESPONSE));
+    final AbstractExchangeAdapter.ExchangeHttpResponse exchangeResponse =
+        new AbstractExchangeAdapter.ExchangeHttpResponse(
+            200, "OK", new String(encoded, StandardCharsets.UTF_8));
+
+    final BitstampExchangeAdapter exchangeAdapter =
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
+            BitstampExchangeAdapter.class, MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_METHOD);
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_METHOD,
+            eq(BALANCE),
+            eq(null))
+        .andReturn(exchangeResponse)
+        .times(expectedBalanceRequests);
+    return exchangeAdapter;
+  }
+
   // --------------------------------------------------------------------------
   //  Get Ticker tests
   // --------------------------------------------------------------------------
@@ -903,6 +1328,39 @@ public class TestBitstampExchangeAdapter extends AbstractExchangeAdapter {
     PowerMock.verifyAll();
   }
 
+  @Test
+  public void testGettingTickerAsynchronously() throws Exception {
+    final byte[] encoded = Files.readAllBytes(Paths.get(TICKER_JSON_RESPONSE));
+    final AbstractExchangeAdapter.ExchangeHttpResponse exchangeResponse =
+        new AbstractExchangeAdapter.ExchangeHttpResponse(
+            200, "OK", new String(encoded, StandardCharsets.UTF_8));
+
+    final BitstampExchangeAdapter exchangeAdapter =
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
+            BitstampExchangeAdapter.class, MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_ASYNC_METHOD);
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_ASYNC_METHOD,
+            eq(TICKER + MARKET_ID))
+        .andReturn(CompletableFuture.completedFuture(exchangeResponse));
+
+    PowerMock.replayAll();
+    exchangeAdapter.init(exchangeConfig);
+
+    final Ticker ticker = exchangeAdapter.getTickerAsync(MARKET_ID).get();
+    assertEquals(0, ticker.getLast().compareTo(new BigDecimal("230.33")));
+    assertEquals(0, ticker.getAsk().compareTo(new BigDecimal("230.69")));
+    assertEquals(0, ticker.getBid().compareTo(new BigDecimal("230.34")));
+    assertEquals(0, ticker.getHigh().compareTo(new BigDecimal("231.38")));
+    assertEquals(0, ticker.getLow().compareTo(new BigDecimal("224.39")));
+    assertEquals(0, ticker.getOpen().compareTo(new BigDecimal("220.69")));
+    assertEquals(0, ticker.getVolume().compareTo(new BigDecimal("16666.06077534")));
+    assertEquals(0, ticker.getVwap().compareTo(new BigDecimal("228.28")));
+    assertEquals(1441040860L, (long) ticker.getTimestamp());
+
+    PowerMock.verifyAll();
+  }
+
   @Test(expected = ExchangeNetworkException.class)
   public void testGettingTickerHandlesExchangeNetworkException() throws Exception {
     final BitstampExchangeAdapter exchangeAdapter =
@@ -1006,6 +1464,16 @@ public class TestBitstampExchangeAdapter extends AbstractExchangeAdapter {
     PowerMock.verifyAll();
   }
 
+  @Test
+  public void testExchangeAdapterThrowsExceptionIfFeeRefreshIntervalIsNotPositive() {
+    assertFeeRefreshIntervalIsRejected("0");
+  }
+
+  @Test
+  public void testExchangeAdapterThrowsExceptionIfFeeRefreshIntervalIsNotANumber() {
+    assertFeeRefreshIntervalIsRejected("1h");
+  }
+
   @Test(expected = IllegalArgumentException.class)
   public void testExchangeAdapterThrowsExceptionIfTimeoutConfigIsMissing() {
     PowerMock.reset(networkConfig);
@@ -1135,7 +1603,7 @@ public class TestBitstampExchangeAdapter extends AbstractExchangeAdapter {
     final BitstampExchangeAdapter exchangeAdapter =
         PowerMock.createPartialMockAndInvokeDefaultConstructor(
             BitstampExchangeAdapter.class,
-            MOCKED_MAKE_NETWORK_REQUEST_METHOD,
+            MOCKED_MAKE_NETWORK_REQUEST_ASYNC_METHOD,
             MOCKED_CREATE_REQUEST_HEADER_MAP_METHOD,
             MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD);
     PowerMock.expectPrivate(exchangeAdapter, MOCKED_CREATE_REQUEST_HEADER_MAP_METHOD)
@@ -1146,12 +1614,12 @@ public class TestBitstampExchangeAdapter extends AbstractExchangeAdapter {
     final URL url = new URL(API_BASE_URL + SELL + MARKET_ID + "/");
     PowerMock.expectPrivate(
             exchangeAdapter,
-            MOCKED_MAKE_NETWORK_REQUEST_METHOD,
+            MOCKED_MAKE_NETWORK_REQUEST_ASYNC_METHOD,
             eq(url),
             eq("POST"),
             anyString(),
             eq(requestHeaderMap))
-        .andReturn(exchangeResponse);
+        .andReturn(CompletableFuture.completedFuture(exchangeResponse));
 
     PowerMock.replayAll();
     exchangeAdapter.init(exchangeConfig);
@@ -1193,7 +1661,7 @@ public class TestBitstampExchangeAdapter extends AbstractExchangeAdapter {
     final BitstampExchangeAdapter exchangeAdapter =
         PowerMock.createPartialMockAndInvokeDefaultConstructor(
             BitstampExchangeAdapter.class,
-            MOCKED_MAKE_NETWORK_REQUEST_METHOD,
+            MOCKED_MAKE_NETWORK_REQUEST_ASYNC_METHOD,
             MOCKED_CREATE_REQUEST_HEADER_MAP_METHOD,
             MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD);
     PowerMock.expectPrivate(exchangeAdapter, MOCKED_CREATE_REQUEST_HEADER_MAP_METHOD)
@@ -1204,12 +1672,14 @@ public class TestBitstampExchangeAdapter extends AbstractExchangeAdapter {
     final URL url = new URL(API_BASE_URL + SELL + MARKET_ID + "/");
     PowerMock.expectPrivate(
             exchangeAdapter,
-            MOCKED_MAKE_NETWORK_REQUEST_METHOD,
+            MOCKED_MAKE_NETWORK_REQUEST_ASYNC_METHOD,
             eq(url),
             eq("POST"),
             anyString(),
             eq(requestHeaderMap))
-        .andThrow(new ExchangeNetworkException("These aren’t the droids you’re looking for..."));
+        .andReturn(
+            CompletableFuture.failedFuture(
+                new ExchangeNetworkException("These aren’t the droids you’re looking for...")));
 
     PowerMock.replayAll();
     exchangeAdapter.init(exchangeConfig);
@@ -1248,7 +1718,7 @@ public class TestBitstampExchangeAdapter extends AbstractExchangeAdapter {
     final BitstampExchangeAdapter exchangeAdapter =
         PowerMock.createPartialMockAndInvokeDefaultConstructor(
             BitstampExchangeAdapter.class,
-            MOCKED_MAKE_NETWORK_REQUEST_METHOD,
+            MOCKED_MAKE_NETWORK_REQUEST_ASYNC_METHOD,
             MOCKED_CREATE_REQUEST_HEADER_MAP_METHOD,
             MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD);
     PowerMock.expectPrivate(exchangeAdapter, MOCKED_CREATE_REQUEST_HEADER_MAP_METHOD)
@@ -1259,13 +1729,15 @@ public class TestBitstampExchangeAdapter extends AbstractExchangeAdapter {
     final URL url = new URL(API_BASE_URL + SELL + MARKET_ID + "/");
     PowerMock.expectPrivate(
             exchangeAdapter,
-            MOCKED_MAKE_NETWORK_REQUEST_METHOD,
+            MOCKED_MAKE_NETWORK_REQUEST_ASYNC_METHOD,
             eq(url),
             eq("POST"),
             anyString(),
             eq(requestHeaderMap))
-        .andThrow(
-            new TradingApiException("Mmm. Lost a planet, Master Obi-Wan has. How embarrassing."));
+        .andReturn(
+            CompletableFuture.failedFuture(
+                new TradingApiException(
+                    "Mmm. Lost a planet, Master Obi-Wan has. How embarrassing.")));
 
     PowerMock.replayAll();
     exchangeAdapter.init(exchangeConfig);
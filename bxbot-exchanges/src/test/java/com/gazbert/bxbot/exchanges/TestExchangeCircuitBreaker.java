@@ -0,0 +1,202 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.exchanges;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.gazbert.bxbot.exchange.api.CircuitBreakerConfig;
+import com.gazbert.bxbot.exchanges.ExchangeCircuitBreaker.State;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+
+/**
+ * Tests the Exchange Circuit Breaker behaves as expected.
+ *
+ * @author gazbert
+ */
+public class TestExchangeCircuitBreaker {
+
+  private static final String TICKER = "/ticker";
+  private static final String BOOK = "/book";
+  private static final long COOLDOWN_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+  private final AtomicLong clock = new AtomicLong();
+
+  @Test
+  public void testCircuitOpensOnceFailureRateReachesThreshold() {
+    final ExchangeCircuitBreaker circuitBreaker = createCircuitBreaker(50, 4, 4, 30);
+    sendAndSucceed(circuitBreaker, TICKER);
+    sendAndFail(circuitBreaker, TICKER);
+    sendAndSucceed(circuitBreaker, TICKER);
+    assertEquals(State.CLOSED, circuitBreaker.getStates().get(TICKER));
+
+    sendAndFail(circuitBreaker, TICKER);
+    assertEquals(State.OPEN, circuitBreaker.getStates().get(TICKER));
+    assertFalse(circuitBreaker.tryAcquire(TICKER));
+    assertEquals(1, circuitBreaker.getRejectedRequestCount());
+  }
+
+  @Test
+  public void testCircuitStaysClosedUntilMinimumRequestsMade() {
+    final ExchangeCircuitBreaker circuitBreaker = createCircuitBreaker(50, 10, 3, 30);
+    sendAndFail(circuitBreaker, TICKER);
+    sendAndFail(circuitBreaker, TICKER);
+    assertEquals(State.CLOSED, circuitBreaker.getStates().get(TICKER));
+
+    sendAndFail(circuitBreaker, TICKER);
+    assertEquals(State.OPEN, circuitBreaker.getStates().get(TICKER));
+  }
+
+  @Test
+  public void testOldOutcomesLeaveTheWindow() {
+    final ExchangeCircuitBreaker circuitBreaker = createCircuitBreaker(75, 4, 4, 30);
+    sendAndFail(circuitBreaker, TICKER);
+    sendAndFail(circuitBreaker, TICKER);
+    sendAndSucceed(circuitBreaker, TICKER);
+    sendAndSucceed(circuitBreaker, TICKER);
+    sendAndSucceed(circuitBreaker, TICKER);
+    sendAndSucceed(circuitBreaker, TICKER);
+    sendAndFail(circuitBreaker, TICKER);
+    sendAndFail(circuitBreaker, TICKER);
+    assertEquals(State.CLOSED, circuitBreaker.getStates().get(TICKER));
+
+    sendAndFail(circuitBreaker, TICKER);
+    assertEquals(State.OPEN, circuitBreaker.getStates().get(TICKER));
+  }
+
+  @Test
+  public void testEndpointsHaveTheirOwnCircuit() {
+    final ExchangeCircuitBreaker circuitBreaker = createCircuitBreaker(50, 2, 2, 30);
+    sendAndFail(circuitBreaker, TICKER);
+    sendAndFail(circuitBreaker, TICKER);
+    sendAndSucceed(circuitBreaker, BOOK);
+
+    assertFalse(circuitBreaker.tryAcquire(TICKER));
+    assertTrue(circuitBreaker.tryAcquire(BOOK));
+    assertEquals(State.CLOSED, circuitBreaker.getStates().get(BOOK));
+  }
+
+  @Test
+  public void testSingleProbeLetThroughAfterCooldownAndClosesCircuitOnSuccess() {
+    final ExchangeCircuitBreaker circuitBreaker = openCircuit();
+    clock.addAndGet(COOLDOWN_NANOS - 1);
+    assertFalse(circuitBreaker.tryAcquire(TICKER));
+
+    clock.incrementAndGet();
+    assertEquals(State.HALF_OPEN, circuitBreaker.getStates().get(TICKER));
+    assertTrue(circuitBreaker.tryAcquire(TICKER));
+    assertFalse(circuitBreaker.tryAcquire(TICKER));
+
+    circuitBreaker.onSuccess(TICKER);
+    assertEquals(State.CLOSED, circuitBreaker.getStates().get(TICKER));
+    assertTrue(circuitBreaker.tryAcquire(TICKER));
+  }
+
+  @Test
+  public void testFailedProbeReopensCircuitForAnotherCooldown() {
+    final ExchangeCircuitBreaker circuitBreaker = openCircuit();
+    clock.addAndGet(COOLDOWN_NANOS);
+    sendAndFail(circuitBreaker, TICKER);
+    assertEquals(State.OPEN, circuitBreaker.getStates().get(TICKER));
+
+    clock.addAndGet(COOLDOWN_NANOS - 1);
+    assertFalse(circuitBreaker.tryAcquire(TICKER));
+    clock.incrementAndGet();
+    assertTrue(circuitBreaker.tryAcquire(TICKER));
+  }
+
+  @Test
+  public void testDefaultsAreUsedIfNotSet() {
+    final ExchangeCircuitBreaker circuitBreaker = createCircuitBreaker(null, null, null, null);
+    for (int i = 1; i < ExchangeCircuitBreaker.DEFAULT_MINIMUM_REQUESTS; i++) {
+      sendAndFail(circuitBreaker, TICKER);
+    }
+    assertEquals(State.CLOSED, circuitBreaker.getStates().get(TICKER));
+
+    sendAndFail(circuitBreaker, TICKER);
+    assertEquals(State.OPEN, circuitBreaker.getStates().get(TICKER));
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(ExchangeCircuitBreaker.DEFAULT_COOLDOWN_SECONDS));
+    assertEquals(State.HALF_OPEN, circuitBreaker.getStates().get(TICKER));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testFailureRateThresholdOver100IsRejected() {
+    createCircuitBreaker(101, 10, 5, 30);
+  }
+
+  // --------------------------------------------------------------------------
+  //  Util methods
+  // --------------------------------------------------------------------------
+
+  private ExchangeCircuitBreaker openCircuit() {
+    final ExchangeCircuitBreaker circuitBreaker = createCircuitBreaker(50, 2, 2, 30);
+    sendAndFail(circuitBreaker, TICKER);
+    sendAndFail(circuitBreaker, TICKER);
+    assertEquals(State.OPEN, circuitBreaker.getStates().get(TICKER));
+    return circuitBreaker;
+  }
+
+  private static void sendAndSucceed(ExchangeCircuitBreaker circuitBreaker, String endpoint) {
+    assertTrue(circuitBreaker.tryAcquire(endpoint));
+    circuitBreaker.onSuccess(endpoint);
+  }
+
+  private static void sendAndFail(ExchangeCircuitBreaker circuitBreaker, String endpoint) {
+    assertTrue(circuitBreaker.tryAcquire(endpoint));
+    circuitBreaker.onFailure(endpoint);
+  }
+
+  private ExchangeCircuitBreaker createCircuitBreaker(
+      Integer failureRateThreshold,
+      Integer windowSize,
+      Integer minimumRequests,
+      Integer cooldownSeconds) {
+    final CircuitBreakerConfig circuitBreakerConfig =
+        new CircuitBreakerConfig() {
+          @Override
+          public Integer getFailureRateThreshold() {
+            return failureRateThreshold;
+          }
+
+          @Override
+          public Integer getWindowSize() {
+            return windowSize;
+          }
+
+          @Override
+          public Integer getMinimumRequests() {
+            return minimumRequests;
+          }
+
+          @Override
+          public Integer getCooldownSeconds() {
+            return cooldownSeconds;
+          }
+        };
+    return ExchangeCircuitBreaker.create(circuitBreakerConfig, clock::get);
+  }
+}
@@ -0,0 +1,190 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.exchanges;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.gazbert.bxbot.exchange.api.RateLimitConfig;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the Exchange Rate Limiter behaves as expected.
+ *
+ * @author gazbert
+ */
+public class TestExchangeRateLimiter {
+
+  private static final long ONE_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  private URL balanceUrl;
+  private URL ledgersUrl;
+  private URL tickerUrl;
+  private long now;
+
+  /** Sets up the URLs and fake clock. */
+  @Before
+  public void setupBeforeEachTest() throws Exception {
+    balanceUrl = new URL("https://api.kraken.com/0/private/Balance");
+    ledgersUrl = new URL("https://api.kraken.com/0/private/Ledgers");
+    tickerUrl = new URL("https://api.kraken.com/0/public/Ticker?pair=XXBTZUSD");
+    now = 1_000_000L;
+  }
+
+  @Test
+  public void testRequestsWithinCapacityDoNotWait() {
+    final ExchangeRateLimiter rateLimiter = createRateLimiter(3, 1.0, null, null, Map.of());
+    for (int i = 0; i < 3; i++) {
+      assertEquals(0, rateLimiter.reserve(tickerUrl, false));
+    }
+    assertEquals(0, rateLimiter.getThrottledRequestCount());
+  }
+
+  @Test
+  public void testRequestsOverCapacityWaitInTurn() {
+    final ExchangeRateLimiter rateLimiter = createRateLimiter(2, 2.0, null, null, Map.of());
+    assertEquals(0, rateLimiter.reserve(tickerUrl, false));
+    assertEquals(0, rateLimiter.reserve(tickerUrl, false));
+    assertEquals(ONE_SECOND / 2, rateLimiter.reserve(tickerUrl, false));
+    assertEquals(ONE_SECOND, rateLimiter.reserve(tickerUrl, false));
+
+    assertEquals(2, rateLimiter.getThrottledRequestCount());
+    assertEquals(1500, rateLimiter.getThrottledMillis());
+  }
+
+  @Test
+  public void testTokensAreAddedBackOverTimeUpToCapacity() {
+    final ExchangeRateLimiter rateLimiter = createRateLimiter(2, 1.0, null, null, Map.of());
+    assertEquals(0, rateLimiter.reserve(tickerUrl, false));
+    assertEquals(0, rateLimiter.reserve(tickerUrl, false));
+
+    now += 10 * ONE_SECOND; // would be 10 tokens, but capacity is 2
+    assertEquals(0, rateLimiter.reserve(tickerUrl, false));
+    assertEquals(0, rateLimiter.reserve(tickerUrl, false));
+    assertEquals(ONE_SECOND, rateLimiter.reserve(tickerUrl, false));
+  }
+
+  @Test
+  public void testPublicAndPrivateRequestsUseSeparateBuckets() {
+    final ExchangeRateLimiter rateLimiter = createRateLimiter(1, 1.0, 1, 0.5, Map.of());
+    assertEquals(0, rateLimiter.reserve(tickerUrl, false));
+    assertEquals(0, rateLimiter.reserve(balanceUrl, true));
+    assertEquals(ONE_SECOND, rateLimiter.reserve(tickerUrl, false));
+    assertEquals(2 * ONE_SECOND, rateLimiter.reserve(balanceUrl, true));
+  }
+
+  @Test
+  public void testPrivateRequestsUsePublicBucketIfPrivateBucketNotSet() {
+    final ExchangeRateLimiter rateLimiter = createRateLimiter(1, 1.0, null, null, Map.of());
+    assertEquals(0, rateLimiter.reserve(balanceUrl, true));
+    assertEquals(ONE_SECOND, rateLimiter.reserve(tickerUrl, false));
+  }
+
+  @Test
+  public void testPublicRequestsAreNotLimitedIfOnlyPrivateBucketSet() {
+    final ExchangeRateLimiter rateLimiter = createRateLimiter(null, null, 1, 1.0, Map.of());
+    for (int i = 0; i < 5; i++) {
+      assertEquals(0, rateLimiter.reserve(tickerUrl, false));
+    }
+    assertEquals(0, rateLimiter.reserve(balanceUrl, true));
+    assertEquals(ONE_SECOND, rateLimiter.reserve(balanceUrl, true));
+  }
+
+  @Test
+  public void testMethodCostsAreMatchedOnUrlPathSegment() {
+    // Kraken's private API counter: max 15, +2 for Ledgers, decays by 0.33 per second
+    final ExchangeRateLimiter rateLimiter =
+        createRateLimiter(null, null, 15, 0.33, Map.of("Ledgers", 2));
+    for (int i = 0; i < 7; i++) {
+      assertEquals(0, rateLimiter.reserve(ledgersUrl, true));
+    }
+    assertEquals(0, rateLimiter.reserve(balanceUrl, true));
+    assertEquals((long) Math.ceil(2 * ONE_SECOND / 0.33), rateLimiter.reserve(ledgersUrl, true));
+  }
+
+  @Test
+  public void testTryReserveOnlyTakesTokensIfAvailableNow() {
+    final ExchangeRateLimiter rateLimiter = createRateLimiter(1, 1.0, null, null, Map.of());
+    assertTrue(rateLimiter.tryReserve(tickerUrl, false));
+    assertFalse(rateLimiter.tryReserve(tickerUrl, false));
+
+    now += ONE_SECOND;
+    assertTrue(rateLimiter.tryReserve(tickerUrl, false));
+    assertEquals(ONE_SECOND, rateLimiter.reserve(tickerUrl, false));
+    assertEquals(1, rateLimiter.getThrottledRequestCount());
+  }
+
+  @Test
+  public void testNoRateLimiterIfNoBucketsSet() {
+    assertNull(createRateLimiter(null, null, null, null, Map.of()));
+    assertNull(createRateLimiter(10, null, null, 1.0, Map.of()));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidRefillRateIsRejected() {
+    createRateLimiter(10, 0.0, null, null, Map.of());
+  }
+
+  private ExchangeRateLimiter createRateLimiter(
+      Integer publicApiCapacity,
+      Double publicApiRefillPerSecond,
+      Integer privateApiCapacity,
+      Double privateApiRefillPerSecond,
+      Map<String, Integer> methodCosts) {
+    final RateLimitConfig rateLimitConfig =
+        new RateLimitConfig() {
+          @Override
+          public Integer getPublicApiCapacity() {
+            return publicApiCapacity;
+          }
+
+          @Override
+          public Double getPublicApiRefillPerSecond() {
+            return publicApiRefillPerSecond;
+          }
+
+          @Override
+          public Integer getPrivateApiCapacity() {
+            return privateApiCapacity;
+          }
+
+          @Override
+          public Double getPrivateApiRefillPerSecond() {
+            return privateApiRefillPerSecond;
+          }
+
+          @Override
+          public Map<String, Integer> getMethodCosts() {
+            return methodCosts;
+          }
+        };
+    return ExchangeRateLimiter.create(rateLimitConfig, () -> now);
+  }
+}
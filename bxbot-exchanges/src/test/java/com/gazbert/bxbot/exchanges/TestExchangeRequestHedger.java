@@ -0,0 +1,268 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.exchanges;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.gazbert.bxbot.exchange.api.HedgingConfig;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+import org.junit.Test;
+
+/**
+ * Tests the Exchange Request Hedger behaves as expected.
+ *
+ * @author gazbert
+ */
+public class TestExchangeRequestHedger {
+
+  private static final String TICKER = "/ticker";
+  private static final String BOOK = "/book";
+  private static final long MIN_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+  private final List<String> discarded = new CopyOnWriteArrayList<>();
+
+  @Test
+  public void testRequestsAreNotHedgedUntilEnoughResponseTimesRecorded() throws Exception {
+    final ExchangeRequestHedger hedger = createHedger(95, 100, 20, 100);
+    for (int i = 0; i < ExchangeRequestHedger.MINIMUM_SAMPLES - 1; i++) {
+      sendAndAnswer(hedger, TICKER);
+      assertEquals(-1, hedger.getHedgeDelayNanos(TICKER));
+    }
+    sendAndAnswer(hedger, TICKER);
+    assertTrue(hedger.getHedgeDelayNanos(TICKER) >= MIN_DELAY_NANOS);
+    assertEquals(-1, hedger.getHedgeDelayNanos(BOOK));
+    assertEquals(0, hedger.getHedgedRequestCount());
+  }
+
+  @Test
+  public void testStalledRequestIsHedgedAndHedgeWins() throws Exception {
+    final ExchangeRequestHedger hedger = createHedger(95, 100, 20, 100);
+    recordResponseTimes(hedger, TICKER, ExchangeRequestHedger.MINIMUM_SAMPLES);
+
+    final CompletableFuture<String> stalled = new CompletableFuture<>();
+    final AtomicInteger attempts = new AtomicInteger();
+    final CompletableFuture<String> response =
+        hedger.send(
+            TICKER,
+            () ->
+                attempts.incrementAndGet() == 1
+                    ? stalled
+                    : CompletableFuture.completedFuture("hedge"),
+            () -> true,
+            discarded::add);
+
+    assertEquals("hedge", response.get(1, TimeUnit.SECONDS));
+    assertEquals(2, attempts.get());
+    assertEquals(1, hedger.getHedgedRequestCount());
+    assertEquals(1, hedger.getHedgeWinCount());
+
+    stalled.complete("original");
+    assertEquals(List.of("original"), discarded);
+  }
+
+  @Test
+  public void testRequestAnsweredWithinDelayIsNotHedged() throws Exception {
+    final ExchangeRequestHedger hedger = createHedger(95, 100, 200, 100);
+    recordResponseTimes(hedger, TICKER, ExchangeRequestHedger.MINIMUM_SAMPLES);
+
+    final AtomicInteger attempts = new AtomicInteger();
+    final CompletableFuture<String> response =
+        hedger.send(
+            TICKER,
+            () -> {
+              attempts.incrementAndGet();
+              return CompletableFuture.supplyAsync(() -> "original");
+            },
+            () -> true,
+            discarded::add);
+
+    assertEquals("original", response.get(1, TimeUnit.SECONDS));
+    Thread.sleep(300);
+    assertEquals(1, attempts.get());
+    assertEquals(0, hedger.getHedgedRequestCount());
+  }
+
+  @Test
+  public void testHedgesAreLimitedByBudget() throws Exception {
+    // 25% budget: the 3 requests to fill the window and the first stalled request save up 1 hedge
+    final ExchangeRequestHedger hedger = createHedger(95, 25, 20, 3);
+    recordResponseTimes(hedger, TICKER, 3);
+
+    final CompletableFuture<String> first = sendStalled(hedger, () -> true);
+    final CompletableFuture<String> second = sendStalled(hedger, () -> true);
+
+    Thread.sleep(200);
+    assertTrue(first.isDone() ^ second.isDone());
+    assertEquals(1, hedger.getHedgedRequestCount());
+  }
+
+  @Test
+  public void testHedgeIsNotSentIfPermitRefused() throws Exception {
+    final ExchangeRequestHedger hedger = createHedger(95, 100, 20, 100);
+    recordResponseTimes(hedger, TICKER, ExchangeRequestHedger.MINIMUM_SAMPLES);
+
+    final AtomicInteger permitRequests = new AtomicInteger();
+    final CompletableFuture<String> refused =
+        sendStalled(
+            hedger,
+            () -> {
+              permitRequests.incrementAndGet();
+              return false;
+            });
+    Thread.sleep(100);
+    assertFalse(refused.isDone());
+    assertEquals(1, permitRequests.get());
+    assertEquals(0, hedger.getHedgedRequestCount());
+
+    // the refused hedge's budget is handed back for the next one
+    assertEquals("hedge", sendStalled(hedger, () -> true).get(1, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testResponseFailsOnlyOnceEveryAttemptHasFailed() throws Exception {
+    final ExchangeRequestHedger hedger = createHedger(95, 100, 20, 100);
+    recordResponseTimes(hedger, TICKER, ExchangeRequestHedger.MINIMUM_SAMPLES);
+
+    final CompletableFuture<String> original = new CompletableFuture<>();
+    final CompletableFuture<String> hedge = new CompletableFuture<>();
+    final AtomicInteger attempts = new AtomicInteger();
+    final CompletableFuture<String> response =
+        hedger.send(
+            TICKER,
+            () -> attempts.incrementAndGet() == 1 ? original : hedge,
+            () -> true,
+            discarded::add);
+
+    waitForAttempts(attempts, 2);
+    original.completeExceptionally(new IOException("original failed"));
+    assertFalse(response.isDone());
+
+    hedge.completeExceptionally(new IOException("hedge failed"));
+    try {
+      response.get(1, TimeUnit.SECONDS);
+      fail();
+    } catch (ExecutionException e) {
+      assertEquals("hedge failed", e.getCause().getMessage());
+    }
+  }
+
+  @Test
+  public void testHedgeDelayIsNeverLessThanMinimumDelay() throws Exception {
+    final ExchangeRequestHedger hedger = createHedger(50, 10, 500, 20);
+    recordResponseTimes(hedger, TICKER, 20);
+    assertEquals(TimeUnit.MILLISECONDS.toNanos(500), hedger.getHedgeDelayNanos(TICKER));
+  }
+
+  @Test
+  public void testDefaultsAreUsedIfNotConfigured() {
+    final ExchangeRequestHedger hedger = createHedger(null, null, null, null);
+    assertEquals(
+        "ExchangeRequestHedger{latencyPercentile=95, budgetPercent=10, minDelayMillis=20, "
+            + "windowSize=100, hedgedRequestCount=0, hedgeWinCount=0}",
+        hedger.toString());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidLatencyPercentileIsRejected() {
+    createHedger(100, 10, 20, 100);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidBudgetPercentIsRejected() {
+    createHedger(95, 0, 20, 100);
+  }
+
+  private CompletableFuture<String> sendStalled(
+      ExchangeRequestHedger hedger, BooleanSupplier hedgePermit) {
+    final AtomicInteger attempts = new AtomicInteger();
+    final Supplier<CompletableFuture<String>> request =
+        () ->
+            attempts.incrementAndGet() == 1
+                ? new CompletableFuture<>()
+                : CompletableFuture.completedFuture("hedge");
+    return hedger.send(TICKER, request, hedgePermit, discarded::add);
+  }
+
+  private void sendAndAnswer(ExchangeRequestHedger hedger, String endpoint) throws Exception {
+    hedger
+        .send(endpoint, () -> CompletableFuture.completedFuture("ok"), () -> true, discarded::add)
+        .get(1, TimeUnit.SECONDS);
+  }
+
+  private void recordResponseTimes(ExchangeRequestHedger hedger, String endpoint, int count)
+      throws Exception {
+    for (int i = 0; i < count; i++) {
+      sendAndAnswer(hedger, endpoint);
+    }
+  }
+
+  private static void waitForAttempts(AtomicInteger attempts, int expected) throws Exception {
+    final long giveUpNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+    while (attempts.get() < expected && System.nanoTime() < giveUpNanos) {
+      Thread.sleep(5);
+    }
+    assertEquals(expected, attempts.get());
+  }
+
+  private static ExchangeRequestHedger createHedger(
+      Integer latencyPercentile,
+      Integer budgetPercent,
+      Integer minDelayMillis,
+      Integer windowSize) {
+    final HedgingConfig hedgingConfig =
+        new HedgingConfig() {
+          @Override
+          public Integer getLatencyPercentile() {
+            return latencyPercentile;
+          }
+
+          @Override
+          public Integer getBudgetPercent() {
+            return budgetPercent;
+          }
+
+          @Override
+          public Integer getMinDelayMillis() {
+            return minDelayMillis;
+          }
+
+          @Override
+          public Integer getWindowSize() {
+            return windowSize;
+          }
+        };
+    return ExchangeRequestHedger.create(hedgingConfig);
+  }
+}
@@ -0,0 +1,142 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.exchanges;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.gazbert.bxbot.exchange.api.RetryConfig;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongUnaryOperator;
+import org.junit.Test;
+
+/**
+ * Tests the Exchange Retry Policy behaves as expected.
+ *
+ * @author gazbert
+ */
+public class TestExchangeRetryPolicy {
+
+  private static final long ONE_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+  private static final LongUnaryOperator NO_JITTER = ceiling -> ceiling;
+
+  @Test
+  public void testBackoffDoublesForEachRetryUpToMaxBackoff() {
+    final ExchangeRetryPolicy retryPolicy = createRetryPolicy(6, 100, 500, null, NO_JITTER);
+    assertEquals(100 * ONE_MILLI, retryPolicy.nextBackoffNanos(1, 0));
+    assertEquals(200 * ONE_MILLI, retryPolicy.nextBackoffNanos(2, 0));
+    assertEquals(400 * ONE_MILLI, retryPolicy.nextBackoffNanos(3, 0));
+    assertEquals(500 * ONE_MILLI, retryPolicy.nextBackoffNanos(4, 0));
+    assertEquals(500 * ONE_MILLI, retryPolicy.nextBackoffNanos(5, 0));
+    assertEquals(5, retryPolicy.getRetryCount());
+  }
+
+  @Test
+  public void testNoRetryOnceMaxAttemptsMade() {
+    final ExchangeRetryPolicy retryPolicy = createRetryPolicy(3, 100, 500, null, NO_JITTER);
+    assertTrue(retryPolicy.nextBackoffNanos(2, 0) >= 0);
+    assertEquals(ExchangeRetryPolicy.NO_RETRY, retryPolicy.nextBackoffNanos(3, 0));
+    assertEquals(1, retryPolicy.getRetryCount());
+  }
+
+  @Test
+  public void testNoRetryIfItWouldStartAfterDeadline() {
+    final ExchangeRetryPolicy retryPolicy = createRetryPolicy(5, 100, 500, 1000, NO_JITTER);
+    assertEquals(100 * ONE_MILLI, retryPolicy.nextBackoffNanos(1, 800 * ONE_MILLI));
+    assertEquals(ExchangeRetryPolicy.NO_RETRY, retryPolicy.nextBackoffNanos(2, 800 * ONE_MILLI));
+  }
+
+  @Test
+  public void testBackoffIsJitteredBelowCeiling() {
+    final ExchangeRetryPolicy retryPolicy = createRetryPolicy(10, 100, 2000, null, null);
+    for (int attempts = 1; attempts < 10; attempts++) {
+      final long ceiling = Math.min(100L << (attempts - 1), 2000) * ONE_MILLI;
+      final long backoffNanos = retryPolicy.nextBackoffNanos(attempts, 0);
+      assertTrue(backoffNanos >= 0 && backoffNanos <= ceiling);
+    }
+  }
+
+  @Test
+  public void testDefaultBackoffsAreUsedIfNotSet() {
+    final ExchangeRetryPolicy retryPolicy = createRetryPolicy(10, null, null, null, NO_JITTER);
+    assertEquals(
+        ExchangeRetryPolicy.DEFAULT_INITIAL_BACKOFF_MILLIS * ONE_MILLI,
+        retryPolicy.nextBackoffNanos(1, 0));
+    assertEquals(
+        ExchangeRetryPolicy.DEFAULT_MAX_BACKOFF_MILLIS * ONE_MILLI,
+        retryPolicy.nextBackoffNanos(9, 0));
+  }
+
+  @Test
+  public void testRecoveriesAreCounted() {
+    final ExchangeRetryPolicy retryPolicy = createRetryPolicy(3, 100, 500, null, NO_JITTER);
+    retryPolicy.recordRecovery();
+    assertEquals(1, retryPolicy.getRecoveredRequestCount());
+  }
+
+  @Test
+  public void testNoRetryPolicyIfSingleAttempt() {
+    assertNull(createRetryPolicy(null, 100, 500, null, NO_JITTER));
+    assertNull(createRetryPolicy(1, 100, 500, null, NO_JITTER));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeBackoffIsRejected() {
+    createRetryPolicy(3, -1, 500, null, NO_JITTER);
+  }
+
+  private static ExchangeRetryPolicy createRetryPolicy(
+      Integer maxAttempts,
+      Integer initialBackoffMillis,
+      Integer maxBackoffMillis,
+      Integer deadlineMillis,
+      LongUnaryOperator jitter) {
+    final RetryConfig retryConfig =
+        new RetryConfig() {
+          @Override
+          public Integer getMaxAttempts() {
+            return maxAttempts;
+          }
+
+          @Override
+          public Integer getInitialBackoffMillis() {
+            return initialBackoffMillis;
+          }
+
+          @Override
+          public Integer getMaxBackoffMillis() {
+            return maxBackoffMillis;
+          }
+
+          @Override
+          public Integer getDeadlineMillis() {
+            return deadlineMillis;
+          }
+        };
+    return jitter == null
+        ? ExchangeRetryPolicy.create(retryConfig)
+        : ExchangeRetryPolicy.create(retryConfig, jitter);
+  }
+}
@@ -0,0 +1,244 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.exchanges;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.gazbert.bxbot.exchanges.AbstractExchangeAdapter.TradingApiCall;
+import com.gazbert.bxbot.trading.api.ExchangeNetworkException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests the Exchange Single Flight behaves as expected.
+ *
+ * @author gazbert
+ */
+public class TestExchangeSingleFlight {
+
+  private static final List<?> BTC_USD_BOOK = List.of("getMarketOrders", "btcusd");
+  private static final List<?> ETH_USD_BOOK = List.of("getMarketOrders", "ethusd");
+  private static final List<?> BALANCE_INFO = List.of("getBalanceInfo");
+
+  private final ExchangeSingleFlight singleFlight = new ExchangeSingleFlight();
+  private final AtomicInteger callCount = new AtomicInteger();
+  private final CountDownLatch callStarted = new CountDownLatch(1);
+  private final CountDownLatch releaseCall = new CountDownLatch(1);
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+
+  @After
+  public void tearDownAfterEachTest() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void testConcurrentIdenticalCallsShareOneCall() throws Exception {
+    final CompletableFuture<Object> first = callInBackground(ExchangeOperation.MARKET_DATA);
+    callStarted.await();
+
+    final CompletableFuture<Object> second = callInBackground(ExchangeOperation.MARKET_DATA);
+    waitForSharedCalls(1);
+    releaseCall.countDown();
+
+    assertSame(first.get(1, TimeUnit.SECONDS), second.get(1, TimeUnit.SECONDS));
+    assertEquals(1, callCount.get());
+  }
+
+  @Test
+  public void testCallsWithDifferentArgumentsAreNotShared() throws Exception {
+    final CompletableFuture<Object> first = callInBackground(ExchangeOperation.MARKET_DATA);
+    callStarted.await();
+
+    final Object second =
+        singleFlight.call(ExchangeOperation.MARKET_DATA, ETH_USD_BOOK, this::count, null);
+    releaseCall.countDown();
+
+    assertEquals(0, second);
+    assertEquals(1, first.get(1, TimeUnit.SECONDS));
+    assertEquals(0, singleFlight.getSharedCallCount());
+  }
+
+  @Test
+  public void testCompletedCallIsNotCached() throws Exception {
+    singleFlight.call(ExchangeOperation.MARKET_DATA, BTC_USD_BOOK, this::count, null);
+    singleFlight.call(ExchangeOperation.MARKET_DATA, BTC_USD_BOOK, this::count, null);
+    assertEquals(2, callCount.get());
+    assertEquals(0, singleFlight.getSharedCallCount());
+  }
+
+  @Test
+  public void testFailureIsSharedButNotKept() throws Exception {
+    final TradingApiCall<Object> failingCall =
+        () -> {
+          callStarted.countDown();
+          await(releaseCall);
+          throw new ExchangeNetworkException("timeout");
+        };
+    final CompletableFuture<Object> first =
+        CompletableFuture.supplyAsync(
+            () -> call(ExchangeOperation.MARKET_DATA, BTC_USD_BOOK, failingCall), executor);
+    callStarted.await();
+    final CompletableFuture<Object> second = callInBackground(ExchangeOperation.MARKET_DATA);
+    waitForSharedCalls(1);
+    releaseCall.countDown();
+
+    assertNetworkError(first);
+    assertNetworkError(second);
+    assertEquals(
+        0, singleFlight.call(ExchangeOperation.MARKET_DATA, BTC_USD_BOOK, this::count, null));
+  }
+
+  @Test
+  public void testAccountDataCallIsNotJoinedAfterOrderRequest() throws Exception {
+    final CompletableFuture<Object> first =
+        CompletableFuture.supplyAsync(
+            () -> call(ExchangeOperation.BALANCE, BALANCE_INFO, this::countOnceReleased),
+            executor);
+    callStarted.await();
+
+    singleFlight.recordOrderRequest();
+    final Object second =
+        singleFlight.call(ExchangeOperation.BALANCE, BALANCE_INFO, this::count, null);
+    releaseCall.countDown();
+
+    assertEquals(1, first.get(1, TimeUnit.SECONDS));
+    assertEquals(0, second);
+    assertEquals(0, singleFlight.getSharedCallCount());
+  }
+
+  @Test
+  public void testMarketDataCallIsJoinedAfterOrderRequest() throws Exception {
+    final CompletableFuture<Object> first = callInBackground(ExchangeOperation.MARKET_DATA);
+    callStarted.await();
+
+    singleFlight.recordOrderRequest();
+    final CompletableFuture<Object> second = callInBackground(ExchangeOperation.MARKET_DATA);
+    waitForSharedCalls(1);
+    releaseCall.countDown();
+
+    assertSame(first.get(1, TimeUnit.SECONDS), second.get(1, TimeUnit.SECONDS));
+    assertEquals(1, callCount.get());
+  }
+
+  @Test
+  public void testAsyncCallJoinsBlockingCall() throws Exception {
+    final CompletableFuture<Object> first = callInBackground(ExchangeOperation.MARKET_DATA);
+    callStarted.await();
+
+    final CompletableFuture<Object> second =
+        singleFlight.callAsync(
+            ExchangeOperation.MARKET_DATA,
+            BTC_USD_BOOK,
+            () -> CompletableFuture.completedFuture(count()));
+    assertEquals(1, singleFlight.getSharedCallCount());
+    releaseCall.countDown();
+
+    assertSame(first.get(1, TimeUnit.SECONDS), second.get(1, TimeUnit.SECONDS));
+    assertEquals(1, callCount.get());
+  }
+
+  @Test
+  public void testWaitingForInFlightCallStopsAtDeadline() throws Exception {
+    final CompletableFuture<Object> first = callInBackground(ExchangeOperation.MARKET_DATA);
+    callStarted.await();
+
+    try {
+      singleFlight.call(
+          ExchangeOperation.MARKET_DATA,
+          BTC_USD_BOOK,
+          this::count,
+          System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(50));
+      fail("Expected ExchangeNetworkException");
+    } catch (ExchangeNetworkException e) {
+      assertTrue(e.getMessage().startsWith("Request deadline passed"));
+    }
+    releaseCall.countDown();
+    assertEquals(0, first.get(1, TimeUnit.SECONDS));
+    assertEquals(1, callCount.get());
+  }
+
+  // --------------------------------------------------------------------------
+  //  Util methods
+  // --------------------------------------------------------------------------
+
+  private CompletableFuture<Object> callInBackground(ExchangeOperation operation) {
+    return CompletableFuture.supplyAsync(
+        () -> call(operation, BTC_USD_BOOK, this::countOnceReleased), executor);
+  }
+
+  private Object call(ExchangeOperation operation, List<?> key, TradingApiCall<Object> call) {
+    try {
+      return singleFlight.call(operation, key, call, null);
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private Object count() {
+    return callCount.getAndIncrement();
+  }
+
+  /* Counts the call once the test lets it finish, so other calls can join it meanwhile. */
+  private Object countOnceReleased() {
+    callStarted.countDown();
+    await(releaseCall);
+    return count();
+  }
+
+  private void waitForSharedCalls(int expected) throws InterruptedException {
+    final long giveUpNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+    while (singleFlight.getSharedCallCount() < expected && System.nanoTime() < giveUpNanos) {
+      Thread.sleep(5);
+    }
+    assertEquals(expected, singleFlight.getSharedCallCount());
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(1, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void assertNetworkError(CompletableFuture<Object> result) throws Exception {
+    try {
+      result.get(1, TimeUnit.SECONDS);
+      fail("Expected ExchangeNetworkException");
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause().getCause() instanceof ExchangeNetworkException);
+    }
+  }
+}
@@ -27,6 +27,7 @@ import static org.easymock.EasyMock.anyObject;
 import static org.easymock.EasyMock.anyString;
 import static org.easymock.EasyMock.eq;
 import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.getCurrentArguments;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
@@ -46,6 +47,7 @@ import com.gazbert.bxbot.trading.api.OrderType;
 import com.gazbert.bxbot.trading.api.Ticker;
 import com.gazbert.bxbot.trading.api.TradingApiException;
 import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonReader;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.net.URL;
@@ -59,6 +61,7 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -100,6 +103,8 @@ public class TestGdaxExchangeAdapter extends AbstractExchangeAdapterTest {
       "./src/test/exchange-data/gdax/new_sell_order.json";
   private static final String CANCEL_ORDER_JSON_RESPONSE =
       "./src/test/exchange-data/gdax/cancel.json";
+  private static final String CANCEL_ALL_ORDERS_JSON_RESPONSE =
+      "./src/test/exchange-data/gdax/cancel_all.json";
   private static final String STATS_JSON_RESPONSE = "./src/test/exchange-data/gdax/stats.json";
 
   private static final String MARKET_ID = "BTC-GBP";
@@ -117,15 +122,24 @@ public class TestGdaxExchangeAdapter extends AbstractExchangeAdapterTest {
   private static final String TICKER = "products/" + MARKET_ID + "/ticker";
   private static final String NEW_ORDER = "orders";
   private static final String CANCEL_ORDER = "orders/" + ORDER_ID_TO_CANCEL;
+  private static final String CANCEL_ALL_ORDERS = "orders?product_id=" + MARKET_ID;
   private static final String STATS = "products/" + MARKET_ID + "/stats";
 
   private static final String MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD = "createRequestParamMap";
   private static final String MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_METHOD =
       "sendAuthenticatedRequestToExchange";
+  private static final String MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_ASYNC_METHOD =
+      "sendAuthenticatedRequestToExchangeAsync";
   private static final String MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_METHOD =
       "sendPublicRequestToExchange";
+  private static final String MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_ASYNC_METHOD =
+      "sendPublicRequestToExchangeAsync";
+  private static final String MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_STREAMING_METHOD =
+      "sendPublicRequestToExchangeStreaming";
   private static final String MOCKED_CREATE_REQUEST_HEADER_MAP_METHOD = "createHeaderParamMap";
   private static final String MOCKED_MAKE_NETWORK_REQUEST_METHOD = "makeNetworkRequest";
+  private static final String MOCKED_MAKE_NETWORK_REQUEST_ASYNC_METHOD =
+      "makeNetworkRequestAsync";
 
   private static final String PASSPHRASE = "lePassPhrase";
   private static final String KEY = "key123";
@@ -159,10 +173,16 @@ public class TestGdaxExchangeAdapter extends AbstractExchangeAdapterTest {
     expect(networkConfig.getConnectionTimeout()).andReturn(30);
     expect(networkConfig.getNonFatalErrorCodes()).andReturn(nonFatalNetworkErrorCodes);
     expect(networkConfig.getNonFatalErrorMessages()).andReturn(nonFatalNetworkErrorMessages);
+    expect(networkConfig.getRateLimitConfig()).andReturn(null);
+    expect(networkConfig.getRetryConfig()).andReturn(null);
+    expect(networkConfig.getCircuitBreakerConfig()).andReturn(null);
+    expect(networkConfig.getTimeoutConfig()).andReturn(null);
+    expect(networkConfig.getHedgingConfig()).andReturn(null);
 
     otherConfig = PowerMock.createMock(OtherConfig.class);
     expect(otherConfig.getItem("buy-fee")).andReturn("0.25");
     expect(otherConfig.getItem("sell-fee")).andReturn("0.25");
+    expect(otherConfig.getItem("streaming-order-book-parsing")).andReturn(null);
 
     exchangeConfig = PowerMock.createMock(ExchangeConfig.class);
     expect(exchangeConfig.getAuthenticationConfig()).andReturn(authenticationConfig);
@@ -404,6 +424,32 @@ public class TestGdaxExchangeAdapter extends AbstractExchangeAdapterTest {
     PowerMock.verifyAll();
   }
 
+  @Test
+  public void testCancelAllOrdersIsSuccessful() throws Exception {
+    final byte[] encoded = Files.readAllBytes(Paths.get(CANCEL_ALL_ORDERS_JSON_RESPONSE));
+    final AbstractExchangeAdapter.ExchangeHttpResponse exchangeResponse =
+        new AbstractExchangeAdapter.ExchangeHttpResponse(
+            200, "OK", new String(encoded, StandardCharsets.UTF_8));
+
+    final GdaxExchangeAdapter exchangeAdapter =
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
+            GdaxExchangeAdapter.class, MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_METHOD);
+
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_METHOD,
+            eq("DELETE"),
+            eq(CANCEL_ALL_ORDERS),
+            eq(null))
+        .andReturn(exchangeResponse);
+
+    PowerMock.replayAll();
+    exchangeAdapter.init(exchangeConfig);
+
+    assertEquals(2, exchangeAdapter.cancelAllOrders(MARKET_ID));
+    PowerMock.verifyAll();
+  }
+
   // --------------------------------------------------------------------------
   //  Get Your Open Orders tests
   // --------------------------------------------------------------------------
@@ -454,6 +500,52 @@ public class TestGdaxExchangeAdapter extends AbstractExchangeAdapterTest {
     PowerMock.verifyAll();
   }
 
+  @Test
+  public void testGettingYourOpenOrdersAsynchronously() throws Exception {
+    final byte[] encoded = Files.readAllBytes(Paths.get(ORDERS_JSON_RESPONSE));
+    final AbstractExchangeAdapter.ExchangeHttpResponse exchangeResponse =
+        new AbstractExchangeAdapter.ExchangeHttpResponse(
+            200, "OK", new String(encoded, StandardCharsets.UTF_8));
+
+    final GdaxExchangeAdapter exchangeAdapter =
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
+            GdaxExchangeAdapter.class, MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_ASYNC_METHOD);
+
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_ASYNC_METHOD,
+            eq("GET"),
+            eq(ORDERS),
+            eq(null))
+        .andReturn(CompletableFuture.completedFuture(exchangeResponse));
+
+    PowerMock.replayAll();
+    exchangeAdapter.init(exchangeConfig);
+
+    final List<OpenOrder> openOrders = exchangeAdapter.getYourOpenOrdersAsync(MARKET_ID).get();
+
+    // assert some key stuff; we're not testing GSON here.
+    assertEquals(2, openOrders.size());
+    assertEquals(MARKET_ID, openOrders.get(0).getMarketId());
+    assertEquals("cdad7602-f290-41e5-a64d-42a1a20fd02", openOrders.get(0).getId());
+    assertSame(OrderType.SELL, openOrders.get(0).getType());
+    assertEquals(
+        openOrders.get(0).getCreationDate(), Date.from(Instant.parse("2015-10-15T21:10:38.193Z")));
+    assertEquals(0, openOrders.get(0).getPrice().compareTo(new BigDecimal("275.00000000")));
+    assertEquals(
+        0, openOrders.get(0).getOriginalQuantity().compareTo(new BigDecimal("0.01000000")));
+    assertEquals(0, openOrders.get(0).getQuantity().compareTo(new BigDecimal("0.00500000")));
+    assertEquals(
+        0,
+        openOrders
+            .get(0)
+            .getTotal()
+            .compareTo(
+                openOrders.get(0).getPrice().multiply(openOrders.get(0).getOriginalQuantity())));
+
+    PowerMock.verifyAll();
+  }
+
   @Test(expected = ExchangeNetworkException.class)
   public void testGettingYourOpenOrdersHandlesExchangeNetworkException() throws Exception {
     final GdaxExchangeAdapter exchangeAdapter =
@@ -557,6 +649,176 @@ public class TestGdaxExchangeAdapter extends AbstractExchangeAdapterTest {
     PowerMock.verifyAll();
   }
 
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testGettingMarketOrdersByStreamingSuccessfully() throws Exception {
+    final Map<String, String> requestParamMap = PowerMock.createMock(Map.class);
+    expect(requestParamMap.put("level", ORDER_BOOK_DEPTH_LEVEL)).andStubReturn(null);
+
+    final GdaxExchangeAdapter exchangeAdapter =
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
+            GdaxExchangeAdapter.class,
+            MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_STREAMING_METHOD,
+            MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD);
+
+    PowerMock.expectPrivate(exchangeAdapter, MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD)
+        .andReturn(requestParamMap);
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_STREAMING_METHOD,
+            eq(BOOK),
+            eq(requestParamMap),
+            anyObject(AbstractExchangeAdapter.ExchangeResponseStreamParser.class))
+        .andAnswer(
+            () -> {
+              final AbstractExchangeAdapter.ExchangeResponseStreamParser<?> parser =
+                  (AbstractExchangeAdapter.ExchangeResponseStreamParser<?>)
+                      getCurrentArguments()[2];
+              try (JsonReader reader =
+                  new JsonReader(Files.newBufferedReader(Paths.get(BOOK_JSON_RESPONSE)))) {
+                return parser.parse(reader);
+              }
+            });
+
+    PowerMock.reset(otherConfig);
+    expect(otherConfig.getItem("buy-fee")).andReturn("0.25");
+    expect(otherConfig.getItem("sell-fee")).andReturn("0.25");
+    expect(otherConfig.getItem("streaming-order-book-parsing")).andReturn("true");
+
+    PowerMock.replayAll();
+    exchangeAdapter.init(exchangeConfig);
+
+    final MarketOrderBook marketOrderBook = exchangeAdapter.getMarketOrders(MARKET_ID);
+
+    // assert some key stuff parsed straight off the wire.
+    assertEquals(MARKET_ID, marketOrderBook.getMarketId());
+
+    final BigDecimal buyPrice = new BigDecimal("165.87");
+    final BigDecimal buyQuantity = new BigDecimal("16.2373");
+    final BigDecimal buyTotal = buyPrice.multiply(buyQuantity);
+
+    assertEquals(50, marketOrderBook.getBuyOrders().size());
+    assertSame(OrderType.BUY, marketOrderBook.getBuyOrders().get(0).getType());
+    assertEquals(0, marketOrderBook.getBuyOrders().get(0).getPrice().compareTo(buyPrice));
+    assertEquals(0, marketOrderBook.getBuyOrders().get(0).getQuantity().compareTo(buyQuantity));
+    assertEquals(0, marketOrderBook.getBuyOrders().get(0).getTotal().compareTo(buyTotal));
+
+    final BigDecimal sellPrice = new BigDecimal("165.96");
+    final BigDecimal sellQuantity = new BigDecimal("24.31");
+    final BigDecimal sellTotal = sellPrice.multiply(sellQuantity);
+
+    assertEquals(50, marketOrderBook.getSellOrders().size());
+    assertSame(OrderType.SELL, marketOrderBook.getSellOrders().get(0).getType());
+    assertEquals(0, marketOrderBook.getSellOrders().get(0).getPrice().compareTo(sellPrice));
+    assertEquals(0, marketOrderBook.getSellOrders().get(0).getQuantity().compareTo(sellQuantity));
+    assertEquals(0, marketOrderBook.getSellOrders().get(0).getTotal().compareTo(sellTotal));
+
+    PowerMock.verifyAll();
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testGettingMarketOrdersToDepthOfOneUsesLevelOneBook() throws Exception {
+    final Map<String, String> requestParamMap = PowerMock.createMock(Map.class);
+    expect(requestParamMap.put("level", "1")).andReturn(null);
+
+    final GdaxExchangeAdapter exchangeAdapter =
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
+            GdaxExchangeAdapter.class,
+            MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_STREAMING_METHOD,
+            MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD);
+
+    PowerMock.expectPrivate(exchangeAdapter, MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD)
+        .andReturn(requestParamMap);
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_STREAMING_METHOD,
+            eq(BOOK),
+            eq(requestParamMap),
+            anyObject(AbstractExchangeAdapter.ExchangeResponseStreamParser.class))
+        .andAnswer(
+            () -> {
+              final AbstractExchangeAdapter.ExchangeResponseStreamParser<?> parser =
+                  (AbstractExchangeAdapter.ExchangeResponseStreamParser<?>)
+                      getCurrentArguments()[2];
+              try (JsonReader reader =
+                  new JsonReader(Files.newBufferedReader(Paths.get(BOOK_JSON_RESPONSE)))) {
+                return parser.parse(reader);
+              }
+            });
+
+    PowerMock.replayAll();
+    exchangeAdapter.init(exchangeConfig);
+
+    final MarketOrderBook marketOrderBook = exchangeAdapter.getMarketOrders(MARKET_ID, 1);
+
+    assertEquals(1, marketOrderBook.getBuyOrders().size());
+    assertEquals(
+        0, marketOrderBook.getBuyOrders().get(0).getPrice().compareTo(new BigDecimal("165.87")));
+    assertEquals(1, marketOrderBook.getSellOrders().size());
+    assertEquals(
+        0, marketOrderBook.getSellOrders().get(0).getPrice().compareTo(new BigDecimal("165.96")));
+
+    PowerMock.verifyAll();
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testGettingMarketOrdersAsynchronously() throws Exception {
+    final byte[] encoded = Files.readAllBytes(Paths.get(BOOK_JSON_RESPONSE));
+    final AbstractExchangeAdapter.ExchangeHttpResponse exchangeResponse =
+        new AbstractExchangeAdapter.ExchangeHttpResponse(
+            200, "OK", new String(encoded, StandardCharsets.UTF_8));
+
+    final Map<String, String> requestParamMap = PowerMock.createMock(Map.class);
+    expect(requestParamMap.put("level", ORDER_BOOK_DEPTH_LEVEL)).andStubReturn(null);
+
+    final GdaxExchangeAdapter exchangeAdapter =
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
+            GdaxExchangeAdapter.class,
+            MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_ASYNC_METHOD,
+            MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD);
+
+    PowerMock.expectPrivate(exchangeAdapter, MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD)
+        .andReturn(requestParamMap);
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_ASYNC_METHOD,
+            eq(BOOK),
+            eq(requestParamMap))
+        .andReturn(CompletableFuture.completedFuture(exchangeResponse));
+
+    PowerMock.replayAll();
+    exchangeAdapter.init(exchangeConfig);
+
+    final MarketOrderBook marketOrderBook = exchangeAdapter.getMarketOrdersAsync(MARKET_ID).get();
+
+    // assert some key stuff; we're not testing GSON here.
+    assertEquals(MARKET_ID, marketOrderBook.getMarketId());
+
+    final BigDecimal buyPrice = new BigDecimal("165.87");
+    final BigDecimal buyQuantity = new BigDecimal("16.2373");
+    final BigDecimal buyTotal = buyPrice.multiply(buyQuantity);
+
+    assertEquals(50, marketOrderBook.getBuyOrders().size());
+    assertSame(OrderType.BUY, marketOrderBook.getBuyOrders().get(0).getType());
+    assertEquals(0, marketOrderBook.getBuyOrders().get(0).getPrice().compareTo(buyPrice));
+    assertEquals(0, marketOrderBook.getBuyOrders().get(0).getQuantity().compareTo(buyQuantity));
+    assertEquals(0, marketOrderBook.getBuyOrders().get(0).getTotal().compareTo(buyTotal));
+
+    final BigDecimal sellPrice = new BigDecimal("165.96");
+    final BigDecimal sellQuantity = new BigDecimal("24.31");
+    final BigDecimal sellTotal = sellPrice.multiply(sellQuantity);
+
+    assertEquals(50, marketOrderBook.getSellOrders().size());
+    assertSame(OrderType.SELL, marketOrderBook.getSellOrders().get(0).getType());
+    assertEquals(0, marketOrderBook.getSellOrders().get(0).getPrice().compareTo(sellPrice));
+    assertEquals(0, marketOrderBook.getSellOrders().get(0).getQuantity().compareTo(sellQuantity));
+    assertEquals(0, marketOrderBook.getSellOrders().get(0).getTotal().compareTo(sellTotal));
+
+    PowerMock.verifyAll();
+  }
+
   @Test(expected = ExchangeNetworkException.class)
   public void testGettingMarketOrdersHandlesExchangeNetworkException() throws Exception {
     final GdaxExchangeAdapter exchangeAdapter =
@@ -723,6 +985,61 @@ public class TestGdaxExchangeAdapter extends AbstractExchangeAdapterTest {
     PowerMock.verifyAll();
   }
 
+  @Test
+  public void testGettingBalanceInfoAsynchronously() throws Exception {
+    final byte[] encoded = Files.readAllBytes(Paths.get(ACCOUNTS_JSON_RESPONSE));
+    final AbstractExchangeAdapter.ExchangeHttpResponse exchangeResponse =
+        new AbstractExchangeAdapter.ExchangeHttpResponse(
+            200, "OK", new String(encoded, StandardCharsets.UTF_8));
+
+    final GdaxExchangeAdapter exchangeAdapter =
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
+            GdaxExchangeAdapter.class, MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_ASYNC_METHOD);
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_ASYNC_METHOD,
+            eq("GET"),
+            eq(ACCOUNTS),
+            eq(null))
+        .andReturn(CompletableFuture.completedFuture(exchangeResponse));
+
+    PowerMock.replayAll();
+    exchangeAdapter.init(exchangeConfig);
+
+    final BalanceInfo balanceInfo = exchangeAdapter.getBalanceInfoAsync().get();
+
+    // assert some key stuff; we're not testing GSON here.
+    assertEquals(
+        0,
+        balanceInfo
+            .getBalancesAvailable()
+            .get("BTC")
+            .compareTo(new BigDecimal("100.0000000000000004")));
+    assertEquals(
+        0,
+        balanceInfo
+            .getBalancesAvailable()
+            .get("GBP")
+            .compareTo(new BigDecimal("501.0100000000000001")));
+    assertEquals(0, balanceInfo.getBalancesAvailable().get("EUR").compareTo(new BigDecimal("0")));
+
+    assertEquals(
+        0,
+        balanceInfo
+            .getBalancesOnHold()
+            .get("BTC")
+            .compareTo(new BigDecimal("100.0000000000000005")));
+    assertEquals(
+        0,
+        balanceInfo
+            .getBalancesOnHold()
+            .get("GBP")
+            .compareTo(new BigDecimal("499.9900000000000002")));
+    assertEquals(0, balanceInfo.getBalancesOnHold().get("EUR").compareTo(new BigDecimal("0")));
+
+    PowerMock.verifyAll();
+  }
+
   @Test(expected = ExchangeNetworkException.class)
   public void testGettingBalanceInfoHandlesExchangeNetworkException() throws Exception {
     final GdaxExchangeAdapter exchangeAdapter =
@@ -812,6 +1129,53 @@ public class TestGdaxExchangeAdapter extends AbstractExchangeAdapterTest {
     PowerMock.verifyAll();
   }
 
+  @Test
+  public void testGettingTickerAsynchronously() throws Exception {
+    final byte[] encodedTicker = Files.readAllBytes(Paths.get(TICKER_JSON_RESPONSE));
+    final AbstractExchangeAdapter.ExchangeHttpResponse tickerExchangeResponse =
+        new AbstractExchangeAdapter.ExchangeHttpResponse(
+            200, "OK", new String(encodedTicker, StandardCharsets.UTF_8));
+
+    final byte[] encodedStats = Files.readAllBytes(Paths.get(STATS_JSON_RESPONSE));
+    final AbstractExchangeAdapter.ExchangeHttpResponse statsExchangeResponse =
+        new AbstractExchangeAdapter.ExchangeHttpResponse(
+            200, "OK", new String(encodedStats, StandardCharsets.UTF_8));
+
+    final GdaxExchangeAdapter exchangeAdapter =
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
+            GdaxExchangeAdapter.class, MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_ASYNC_METHOD);
+
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_ASYNC_METHOD,
+            eq(TICKER),
+            eq(null))
+        .andReturn(CompletableFuture.completedFuture(tickerExchangeResponse));
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_ASYNC_METHOD,
+            eq(STATS),
+            eq(null))
+        .andReturn(CompletableFuture.completedFuture(statsExchangeResponse));
+
+    PowerMock.replayAll();
+    exchangeAdapter.init(exchangeConfig);
+
+    final Ticker ticker = exchangeAdapter.getTickerAsync(MARKET_ID).get();
+
+    assertEquals(0, ticker.getLast().compareTo(new BigDecimal("14744.9")));
+    assertEquals(0, ticker.getAsk().compareTo(new BigDecimal("14744.81")));
+    assertEquals(0, ticker.getBid().compareTo(new BigDecimal("14744.8")));
+    assertEquals(0, ticker.getHigh().compareTo(new BigDecimal("14899.00000000")));
+    assertEquals(0, ticker.getLow().compareTo(new BigDecimal("13409.97000000")));
+    assertEquals(0, ticker.getOpen().compareTo(new BigDecimal("13609.53000000")));
+    assertEquals(0, ticker.getVolume().compareTo(new BigDecimal("607.54445656")));
+    assertNull(ticker.getVwap()); // not provided by GDAX
+    assertEquals(1508008776604L, (long) ticker.getTimestamp());
+
+    PowerMock.verifyAll();
+  }
+
   @Test(expected = ExchangeNetworkException.class)
   public void testGettingTickerHandlesExchangeNetworkException() throws Exception {
     final GdaxExchangeAdapter exchangeAdapter =
@@ -1099,7 +1463,7 @@ public class TestGdaxExchangeAdapter extends AbstractExchangeAdapterTest {
     final GdaxExchangeAdapter exchangeAdapter =
         PowerMock.createPartialMockAndInvokeDefaultConstructor(
             GdaxExchangeAdapter.class,
-            MOCKED_MAKE_NETWORK_REQUEST_METHOD,
+            MOCKED_MAKE_NETWORK_REQUEST_ASYNC_METHOD,
             MOCKED_CREATE_REQUEST_HEADER_MAP_METHOD);
     PowerMock.expectPrivate(exchangeAdapter, MOCKED_CREATE_REQUEST_HEADER_MAP_METHOD)
         .andReturn(requestHeaderMap);
@@ -1107,12 +1471,12 @@ public class TestGdaxExchangeAdapter extends AbstractExchangeAdapterTest {
     final URL url = new URL(AUTHENTICATED_API_URL + NEW_ORDER);
     PowerMock.expectPrivate(
             exchangeAdapter,
-            MOCKED_MAKE_NETWORK_REQUEST_METHOD,
+            MOCKED_MAKE_NETWORK_REQUEST_ASYNC_METHOD,
             eq(url),
             eq("POST"),
             eq(new GsonBuilder().create().toJson(requestParamMap)),
             eq(requestHeaderMap))
-        .andReturn(exchangeResponse);
+        .andReturn(CompletableFuture.completedFuture(exchangeResponse));
 
     PowerMock.replayAll();
     exchangeAdapter.init(exchangeConfig);
@@ -1149,7 +1513,7 @@ public class TestGdaxExchangeAdapter extends AbstractExchangeAdapterTest {
     final GdaxExchangeAdapter exchangeAdapter =
         PowerMock.createPartialMockAndInvokeDefaultConstructor(
             GdaxExchangeAdapter.class,
-            MOCKED_MAKE_NETWORK_REQUEST_METHOD,
+            MOCKED_MAKE_NETWORK_REQUEST_ASYNC_METHOD,
             MOCKED_CREATE_REQUEST_HEADER_MAP_METHOD);
     PowerMock.expectPrivate(exchangeAdapter, MOCKED_CREATE_REQUEST_HEADER_MAP_METHOD)
         .andReturn(requestHeaderMap);
@@ -1157,16 +1521,17 @@ public class TestGdaxExchangeAdapter extends AbstractExchangeAdapterTest {
     final URL url = new URL(AUTHENTICATED_API_URL + NEW_ORDER);
     PowerMock.expectPrivate(
             exchangeAdapter,
-            MOCKED_MAKE_NETWORK_REQUEST_METHOD,
+            MOCKED_MAKE_NETWORK_REQUEST_ASYNC_METHOD,
             eq(url),
             eq("POST"),
             eq(new GsonBuilder().create().toJson(requestParamMap)),
             eq(requestHeaderMap))
-        .andThrow(
-            new ExchangeNetworkException(
-                "Allow me then a moment to consider. You seek your creator. "
-                    + "I am looking at mine. I will serve you, yet you're human. "
-                    + "You will die, I will not."));
+        .andReturn(
+            CompletableFuture.failedFuture(
+                new ExchangeNetworkException(
+                    "Allow me then a moment to consider. You seek your creator. "
+                        + "I am looking at mine. I will serve you, yet you're human. "
+                        + "You will die, I will not.")));
 
     PowerMock.replayAll();
     exchangeAdapter.init(exchangeConfig);
@@ -1200,7 +1565,7 @@ public class TestGdaxExchangeAdapter extends AbstractExchangeAdapterTest {
     final GdaxExchangeAdapter exchangeAdapter =
         PowerMock.createPartialMockAndInvokeDefaultConstructor(
             GdaxExchangeAdapter.class,
-            MOCKED_MAKE_NETWORK_REQUEST_METHOD,
+            MOCKED_MAKE_NETWORK_REQUEST_ASYNC_METHOD,
             MOCKED_CREATE_REQUEST_HEADER_MAP_METHOD);
     PowerMock.expectPrivate(exchangeAdapter, MOCKED_CREATE_REQUEST_HEADER_MAP_METHOD)
         .andReturn(requestHeaderMap);
@@ -1208,12 +1573,14 @@ public class TestGdaxExchangeAdapter extends AbstractExchangeAdapterTest {
     final URL url = new URL(AUTHENTICATED_API_URL + NEW_ORDER);
     PowerMock.expectPrivate(
             exchangeAdapter,
-            MOCKED_MAKE_NETWORK_REQUEST_METHOD,
+            MOCKED_MAKE_NETWORK_REQUEST_ASYNC_METHOD,
             eq(url),
             eq("POST"),
             eq(new GsonBuilder().create().toJson(requestParamMap)),
             eq(requestHeaderMap))
-        .andThrow(new TradingApiException("When you close your eyes do you dream of me?"));
+        .andReturn(
+            CompletableFuture.failedFuture(
+                new TradingApiException("When you close your eyes do you dream of me?")));
 
     PowerMock.replayAll();
     exchangeAdapter.init(exchangeConfig);
@@ -54,6 +54,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -92,6 +93,10 @@ public class TestGeminiExchangeAdapter extends AbstractExchangeAdapterTest {
       "./src/test/exchange-data/gemini/order_new_sell.json";
   private static final String ORDER_CANCEL_JSON_RESPONSE =
       "./src/test/exchange-data/gemini/order_cancel.json";
+  private static final String ORDERS_ONE_MARKET_JSON_RESPONSE =
+      "./src/test/exchange-data/gemini/orders-one-market.json";
+  private static final String ORDER_CANCEL_ALL_JSON_RESPONSE =
+      "./src/test/exchange-data/gemini/order_cancel_all.json";
 
   private static final String BOOK = "book";
   private static final String BALANCES = "balances";
@@ -99,6 +104,7 @@ public class TestGeminiExchangeAdapter extends AbstractExchangeAdapterTest {
   private static final String ORDERS = "orders";
   private static final String ORDER_NEW = "order/new";
   private static final String ORDER_CANCEL = "order/cancel";
+  private static final String ORDER_CANCEL_ALL = "order/cancel/all";
 
   private static final String ETH_BTC_MARKET_ID = "ethbtc";
   private static final String BTC_USD_MARKET_ID = "btcusd";
@@ -111,10 +117,16 @@ public class TestGeminiExchangeAdapter extends AbstractExchangeAdapterTest {
   private static final String MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD = "createRequestParamMap";
   private static final String MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_METHOD =
       "sendAuthenticatedRequestToExchange";
+  private static final String MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_ASYNC_METHOD =
+      "sendAuthenticatedRequestToExchangeAsync";
   private static final String MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_METHOD =
       "sendPublicRequestToExchange";
+  private static final String MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_ASYNC_METHOD =
+      "sendPublicRequestToExchangeAsync";
   private static final String MOCKED_CREATE_REQUEST_HEADER_MAP_METHOD = "createHeaderParamMap";
   private static final String MOCKED_MAKE_NETWORK_REQUEST_METHOD = "makeNetworkRequest";
+  private static final String MOCKED_MAKE_NETWORK_REQUEST_ASYNC_METHOD =
+      "makeNetworkRequestAsync";
 
   private static final String KEY = "key123";
   private static final String SECRET = "notGonnaTellYa";
@@ -145,10 +157,16 @@ public class TestGeminiExchangeAdapter extends AbstractExchangeAdapterTest {
     expect(networkConfig.getConnectionTimeout()).andReturn(30);
     expect(networkConfig.getNonFatalErrorCodes()).andReturn(nonFatalNetworkErrorCodes);
     expect(networkConfig.getNonFatalErrorMessages()).andReturn(nonFatalNetworkErrorMessages);
+    expect(networkConfig.getRateLimitConfig()).andReturn(null);
+    expect(networkConfig.getRetryConfig()).andReturn(null);
+    expect(networkConfig.getCircuitBreakerConfig()).andReturn(null);
+    expect(networkConfig.getTimeoutConfig()).andReturn(null);
+    expect(networkConfig.getHedgingConfig()).andReturn(null);
 
     final OtherConfig otherConfig = PowerMock.createMock(OtherConfig.class);
     expect(otherConfig.getItem("buy-fee")).andReturn("0.25");
     expect(otherConfig.getItem("sell-fee")).andReturn("0.25");
+    expect(otherConfig.getItem("nonce-file")).andReturn(null);
 
     exchangeConfig = PowerMock.createMock(ExchangeConfig.class);
     expect(exchangeConfig.getAuthenticationConfig()).andReturn(authenticationConfig);
@@ -209,6 +227,84 @@ public class TestGeminiExchangeAdapter extends AbstractExchangeAdapterTest {
     PowerMock.verifyAll();
   }
 
+  @Test
+  public void testGettingMarketOrdersToDepthPassesDepthToExchange() throws Exception {
+    final byte[] encoded = Files.readAllBytes(Paths.get(BOOK_JSON_RESPONSE));
+    final AbstractExchangeAdapter.ExchangeHttpResponse exchangeResponse =
+        new AbstractExchangeAdapter.ExchangeHttpResponse(
+            200, "OK", new String(encoded, StandardCharsets.UTF_8));
+
+    final GeminiExchangeAdapter exchangeAdapter =
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
+            GeminiExchangeAdapter.class, MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_METHOD);
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_METHOD,
+            BOOK + "/" + ETH_BTC_MARKET_ID + "?limit_bids=10&limit_asks=10")
+        .andReturn(exchangeResponse);
+
+    PowerMock.replayAll();
+    exchangeAdapter.init(exchangeConfig);
+
+    final MarketOrderBook marketOrderBook = exchangeAdapter.getMarketOrders(ETH_BTC_MARKET_ID, 10);
+
+    assertEquals(ETH_BTC_MARKET_ID, marketOrderBook.getMarketId());
+    assertEquals(
+        0, marketOrderBook.getBuyOrders().get(0).getPrice().compareTo(new BigDecimal("603.01")));
+
+    PowerMock.verifyAll();
+  }
+
+  @Test
+  public void testGettingMarketOrdersAsynchronously() throws Exception {
+    // Load the canned response from the exchange
+    final byte[] encoded = Files.readAllBytes(Paths.get(BOOK_JSON_RESPONSE));
+    final AbstractExchangeAdapter.ExchangeHttpResponse exchangeResponse =
+        new AbstractExchangeAdapter.ExchangeHttpResponse(
+            200, "OK", new String(encoded, StandardCharsets.UTF_8));
+
+    // Partial mock so we do not send stuff down the wire
+    final GeminiExchangeAdapter exchangeAdapter =
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
+            GeminiExchangeAdapter.class, MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_ASYNC_METHOD);
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_ASYNC_METHOD,
+            BOOK + "/" + ETH_BTC_MARKET_ID)
+        .andReturn(CompletableFuture.completedFuture(exchangeResponse));
+
+    PowerMock.replayAll();
+    exchangeAdapter.init(exchangeConfig);
+
+    final MarketOrderBook marketOrderBook =
+        exchangeAdapter.getMarketOrdersAsync(ETH_BTC_MARKET_ID).get();
+
+    // assert some key stuff; we're not testing GSON here.
+    assertEquals(ETH_BTC_MARKET_ID, marketOrderBook.getMarketId());
+
+    final BigDecimal buyPrice = new BigDecimal("603.01");
+    final BigDecimal buyQuantity = new BigDecimal("104.56720978");
+    final BigDecimal buyTotal = buyPrice.multiply(buyQuantity);
+
+    assertEquals(50, marketOrderBook.getBuyOrders().size());
+    assertSame(OrderType.BUY, marketOrderBook.getBuyOrders().get(0).getType());
+    assertEquals(0, marketOrderBook.getBuyOrders().get(0).getPrice().compareTo(buyPrice));
+    assertEquals(0, marketOrderBook.getBuyOrders().get(0).getQuantity().compareTo(buyQuantity));
+    assertEquals(0, marketOrderBook.getBuyOrders().get(0).getTotal().compareTo(buyTotal));
+
+    final BigDecimal sellPrice = new BigDecimal("603.02");
+    final BigDecimal sellQuantity = new BigDecimal("24.5498");
+    final BigDecimal sellTotal = sellPrice.multiply(sellQuantity);
+
+    assertEquals(50, marketOrderBook.getSellOrders().size());
+    assertSame(OrderType.SELL, marketOrderBook.getSellOrders().get(0).getType());
+    assertEquals(0, marketOrderBook.getSellOrders().get(0).getPrice().compareTo(sellPrice));
+    assertEquals(0, marketOrderBook.getSellOrders().get(0).getQuantity().compareTo(sellQuantity));
+    assertEquals(0, marketOrderBook.getSellOrders().get(0).getTotal().compareTo(sellTotal));
+
+    PowerMock.verifyAll();
+  }
+
   @Test(expected = ExchangeNetworkException.class)
   public void testGettingMarketOrdersHandlesExchangeNetworkException() throws Exception {
     final GeminiExchangeAdapter exchangeAdapter =
@@ -484,6 +580,115 @@ public class TestGeminiExchangeAdapter extends AbstractExchangeAdapterTest {
     PowerMock.verifyAll();
   }
 
+  @Test
+  public void testCancelAllOrdersUsesCancelAllWhenAllOpenOrdersAreOnMarket() throws Exception {
+    final byte[] orders = Files.readAllBytes(Paths.get(ORDERS_ONE_MARKET_JSON_RESPONSE));
+    final byte[] cancelAll = Files.readAllBytes(Paths.get(ORDER_CANCEL_ALL_JSON_RESPONSE));
+
+    final GeminiExchangeAdapter exchangeAdapter =
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
+            GeminiExchangeAdapter.class, MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_METHOD);
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_METHOD,
+            eq(ORDERS),
+            eq(null))
+        .andReturn(
+            new AbstractExchangeAdapter.ExchangeHttpResponse(
+                200, "OK", new String(orders, StandardCharsets.UTF_8)));
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_METHOD,
+            eq(ORDER_CANCEL_ALL),
+            eq(null))
+        .andReturn(
+            new AbstractExchangeAdapter.ExchangeHttpResponse(
+                200, "OK", new String(cancelAll, StandardCharsets.UTF_8)));
+
+    PowerMock.replayAll();
+    exchangeAdapter.init(exchangeConfig);
+
+    assertEquals(2, exchangeAdapter.cancelAllOrders(ETH_BTC_MARKET_ID));
+
+    PowerMock.verifyAll();
+  }
+
+  @Test
+  public void testCancelAllOrdersCancelsMarketOrdersWhenOtherMarketsHaveOpenOrders()
+      throws Exception {
+    final byte[] orders = Files.readAllBytes(Paths.get(ORDERS_JSON_RESPONSE));
+    final byte[] cancelOrder = Files.readAllBytes(Paths.get(ORDER_CANCEL_JSON_RESPONSE));
+
+    final GeminiExchangeAdapter exchangeAdapter =
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
+            GeminiExchangeAdapter.class, MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_METHOD);
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_METHOD,
+            eq(ORDERS),
+            eq(null))
+        .andReturn(
+            new AbstractExchangeAdapter.ExchangeHttpResponse(
+                200, "OK", new String(orders, StandardCharsets.UTF_8)));
+    // the other markets' orders must be left alone, so order/cancel/all is not used
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_METHOD,
+            eq(ORDER_CANCEL),
+            anyObject(Map.class))
+        .andReturn(
+            new AbstractExchangeAdapter.ExchangeHttpResponse(
+                200, "OK", new String(cancelOrder, StandardCharsets.UTF_8)))
+        .times(2);
+
+    PowerMock.replayAll();
+    exchangeAdapter.init(exchangeConfig);
+
+    assertEquals(2, exchangeAdapter.cancelAllOrders(ETH_BTC_MARKET_ID));
+
+    PowerMock.verifyAll();
+  }
+
+  @Test
+  public void testCancelAllOrdersOnSeveralMarketsFetchesOpenOrdersOnceAndUsesCancelAll()
+      throws Exception {
+    final byte[] orders = Files.readAllBytes(Paths.get(ORDERS_JSON_RESPONSE));
+    final byte[] cancelAll = Files.readAllBytes(Paths.get(ORDER_CANCEL_ALL_JSON_RESPONSE));
+
+    final GeminiExchangeAdapter exchangeAdapter =
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
+            GeminiExchangeAdapter.class, MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_METHOD);
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_METHOD,
+            eq(ORDERS),
+            eq(null))
+        .andReturn(
+            new AbstractExchangeAdapter.ExchangeHttpResponse(
+                200, "OK", new String(orders, StandardCharsets.UTF_8)));
+    // all the open orders are on the given markets, so one order/cancel/all clears them
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_METHOD,
+            eq(ORDER_CANCEL_ALL),
+            eq(null))
+        .andReturn(
+            new AbstractExchangeAdapter.ExchangeHttpResponse(
+                200, "OK", new String(cancelAll, StandardCharsets.UTF_8)));
+
+    PowerMock.replayAll();
+    exchangeAdapter.init(exchangeConfig);
+
+    final Map<String, Integer> cancelledCounts =
+        exchangeAdapter.cancelAllOrders(
+            Arrays.asList(ETH_BTC_MARKET_ID, BTC_USD_MARKET_ID, "ethusd"));
+    assertEquals(Integer.valueOf(2), cancelledCounts.get(ETH_BTC_MARKET_ID));
+    assertEquals(Integer.valueOf(1), cancelledCounts.get(BTC_USD_MARKET_ID));
+    assertEquals(Integer.valueOf(1), cancelledCounts.get("ethusd"));
+
+    PowerMock.verifyAll();
+  }
+
   // --------------------------------------------------------------------------
   //  Get Balance Info tests
   // --------------------------------------------------------------------------
@@ -525,6 +730,44 @@ public class TestGeminiExchangeAdapter extends AbstractExchangeAdapterTest {
     PowerMock.verifyAll();
   }
 
+  @Test
+  public void testGettingBalanceInfoAsynchronously() throws Exception {
+    final byte[] encoded = Files.readAllBytes(Paths.get(BALANCES_JSON_RESPONSE));
+    final AbstractExchangeAdapter.ExchangeHttpResponse exchangeResponse =
+        new AbstractExchangeAdapter.ExchangeHttpResponse(
+            200, "OK", new String(encoded, StandardCharsets.UTF_8));
+
+    final GeminiExchangeAdapter exchangeAdapter =
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
+            GeminiExchangeAdapter.class,
+            MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_ASYNC_METHOD);
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_ASYNC_METHOD,
+            eq(BALANCES),
+            eq(null))
+        .andReturn(CompletableFuture.completedFuture(exchangeResponse));
+
+    PowerMock.replayAll();
+    exchangeAdapter.init(exchangeConfig);
+
+    final BalanceInfo balanceInfo = exchangeAdapter.getBalanceInfoAsync().get();
+
+    // assert some key stuff; we're not testing GSON here.
+    assertEquals(
+        0, balanceInfo.getBalancesAvailable().get("BTC").compareTo(new BigDecimal("7.2682949")));
+    assertEquals(
+        0, balanceInfo.getBalancesAvailable().get("USD").compareTo(new BigDecimal("512.28")));
+    assertEquals(0, balanceInfo.getBalancesAvailable().get("ETH").compareTo(new BigDecimal("0")));
+
+    // Gemini does not provide "balances on hold" info.
+    assertNull(balanceInfo.getBalancesOnHold().get("BTC"));
+    assertNull(balanceInfo.getBalancesOnHold().get("LTC"));
+    assertNull(balanceInfo.getBalancesOnHold().get("ETH"));
+
+    PowerMock.verifyAll();
+  }
+
   @Test(expected = ExchangeNetworkException.class)
   public void testGettingBalanceInfoHandlesExchangeNetworkException() throws Exception {
     final GeminiExchangeAdapter exchangeAdapter =
@@ -685,6 +928,50 @@ public class TestGeminiExchangeAdapter extends AbstractExchangeAdapterTest {
     PowerMock.verifyAll();
   }
 
+  @Test
+  public void testGettingYourOpenOrdersAsynchronously() throws Exception {
+    final byte[] encoded = Files.readAllBytes(Paths.get(ORDERS_JSON_RESPONSE));
+    final AbstractExchangeAdapter.ExchangeHttpResponse exchangeResponse =
+        new AbstractExchangeAdapter.ExchangeHttpResponse(
+            200, "OK", new String(encoded, StandardCharsets.UTF_8));
+
+    final GeminiExchangeAdapter exchangeAdapter =
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
+            GeminiExchangeAdapter.class,
+            MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_ASYNC_METHOD);
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_ASYNC_METHOD,
+            eq(ORDERS),
+            eq(null))
+        .andReturn(CompletableFuture.completedFuture(exchangeResponse));
+
+    PowerMock.replayAll();
+    exchangeAdapter.init(exchangeConfig);
+
+    final List<OpenOrder> openOrders =
+        exchangeAdapter.getYourOpenOrdersAsync(ETH_BTC_MARKET_ID).get();
+
+    // assert some key stuff; we're not testing GSON here.
+    assertEquals(2, openOrders.size());
+    assertEquals(ETH_BTC_MARKET_ID, openOrders.get(0).getMarketId());
+    assertEquals("196267999", openOrders.get(0).getId());
+    assertSame(OrderType.BUY, openOrders.get(0).getType());
+    assertEquals(1470419470223L, openOrders.get(0).getCreationDate().getTime());
+    assertEquals(0, openOrders.get(0).getPrice().compareTo(new BigDecimal("0.00002")));
+    assertEquals(0, openOrders.get(0).getQuantity().compareTo(new BigDecimal("0.0009")));
+    assertEquals(0, openOrders.get(0).getOriginalQuantity().compareTo(new BigDecimal("0.001")));
+    assertEquals(
+        0,
+        openOrders
+            .get(0)
+            .getTotal()
+            .compareTo(
+                openOrders.get(0).getPrice().multiply(openOrders.get(0).getOriginalQuantity())));
+
+    PowerMock.verifyAll();
+  }
+
   @Test(expected = ExchangeNetworkException.class)
   public void testGettingYourOpenOrdersHandlesExchangeNetworkException() throws Exception {
     final GeminiExchangeAdapter exchangeAdapter =
@@ -955,7 +1242,7 @@ public class TestGeminiExchangeAdapter extends AbstractExchangeAdapterTest {
     final GeminiExchangeAdapter exchangeAdapter =
         PowerMock.createPartialMockAndInvokeDefaultConstructor(
             GeminiExchangeAdapter.class,
-            MOCKED_MAKE_NETWORK_REQUEST_METHOD,
+            MOCKED_MAKE_NETWORK_REQUEST_ASYNC_METHOD,
             MOCKED_CREATE_REQUEST_HEADER_MAP_METHOD,
             MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD);
     PowerMock.expectPrivate(exchangeAdapter, MOCKED_CREATE_REQUEST_HEADER_MAP_METHOD)
@@ -966,12 +1253,12 @@ public class TestGeminiExchangeAdapter extends AbstractExchangeAdapterTest {
     final URL url = new URL(AUTHENTICATED_API_URL + ORDER_NEW);
     PowerMock.expectPrivate(
             exchangeAdapter,
-            MOCKED_MAKE_NETWORK_REQUEST_METHOD,
+            MOCKED_MAKE_NETWORK_REQUEST_ASYNC_METHOD,
             eq(url),
             eq("POST"),
             anyString(),
             eq(requestHeaderMap))
-        .andReturn(exchangeResponse);
+        .andReturn(CompletableFuture.completedFuture(exchangeResponse));
 
     PowerMock.replayAll();
     exchangeAdapter.init(exchangeConfig);
@@ -1018,7 +1305,7 @@ public class TestGeminiExchangeAdapter extends AbstractExchangeAdapterTest {
     final GeminiExchangeAdapter exchangeAdapter =
         PowerMock.createPartialMockAndInvokeDefaultConstructor(
             GeminiExchangeAdapter.class,
-            MOCKED_MAKE_NETWORK_REQUEST_METHOD,
+            MOCKED_MAKE_NETWORK_REQUEST_ASYNC_METHOD,
             MOCKED_CREATE_REQUEST_HEADER_MAP_METHOD,
             MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD);
     PowerMock.expectPrivate(exchangeAdapter, MOCKED_CREATE_REQUEST_HEADER_MAP_METHOD)
@@ -1029,15 +1316,17 @@ public class TestGeminiExchangeAdapter extends AbstractExchangeAdapterTest {
     final URL url = new URL(AUTHENTICATED_API_URL + ORDER_NEW);
     PowerMock.expectPrivate(
             exchangeAdapter,
-            MOCKED_MAKE_NETWORK_REQUEST_METHOD,
+            MOCKED_MAKE_NETWORK_REQUEST_ASYNC_METHOD,
             eq(url),
             eq("POST"),
             anyString(),
             eq(requestHeaderMap))
-        .andThrow(
-            new ExchangeNetworkException(
-                "We wants it, we needs it. Must have the precious. "
-                    + "They stole it from us. Sneaky little hobbitses. Wicked, tricksy, false!"));
+        .andReturn(
+            CompletableFuture.failedFuture(
+                new ExchangeNetworkException(
+                    "We wants it, we needs it. Must have the precious. "
+                        + "They stole it from us. Sneaky little hobbitses. "
+                        + "Wicked, tricksy, false!")));
 
     PowerMock.replayAll();
     exchangeAdapter.init(exchangeConfig);
@@ -1082,7 +1371,7 @@ public class TestGeminiExchangeAdapter extends AbstractExchangeAdapterTest {
     final GeminiExchangeAdapter exchangeAdapter =
         PowerMock.createPartialMockAndInvokeDefaultConstructor(
             GeminiExchangeAdapter.class,
-            MOCKED_MAKE_NETWORK_REQUEST_METHOD,
+            MOCKED_MAKE_NETWORK_REQUEST_ASYNC_METHOD,
             MOCKED_CREATE_REQUEST_HEADER_MAP_METHOD,
             MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD);
     PowerMock.expectPrivate(exchangeAdapter, MOCKED_CREATE_REQUEST_HEADER_MAP_METHOD)
@@ -1093,16 +1382,17 @@ public class TestGeminiExchangeAdapter extends AbstractExchangeAdapterTest {
     final URL url = new URL(AUTHENTICATED_API_URL + ORDER_NEW);
     PowerMock.expectPrivate(
             exchangeAdapter,
-            MOCKED_MAKE_NETWORK_REQUEST_METHOD,
+            MOCKED_MAKE_NETWORK_REQUEST_ASYNC_METHOD,
             eq(url),
             eq("POST"),
             anyString(),
             eq(requestHeaderMap))
-        .andThrow(
-            new TradingApiException(
-                "You cannot pass! I am a servant of the Secret Fire, "
-                    + "wielder of the Flame of Anor. The dark fire will not avail you, "
-                    + "Flame of Udun! Go back to the shadow. You shall not pass!"));
+        .andReturn(
+            CompletableFuture.failedFuture(
+                new TradingApiException(
+                    "You cannot pass! I am a servant of the Secret Fire, "
+                        + "wielder of the Flame of Anor. The dark fire will not avail you, "
+                        + "Flame of Udun! Go back to the shadow. You shall not pass!")));
 
     PowerMock.replayAll();
     exchangeAdapter.init(exchangeConfig);
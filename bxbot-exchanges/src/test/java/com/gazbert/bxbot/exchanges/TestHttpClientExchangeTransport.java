@@ -0,0 +1,1103 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.exchanges;
+
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.gazbert.bxbot.exchange.api.CircuitBreakerConfig;
+import com.gazbert.bxbot.exchange.api.ExchangeConfig;
+import com.gazbert.bxbot.exchange.api.HedgingConfig;
+import com.gazbert.bxbot.exchange.api.NetworkConfig;
+import com.gazbert.bxbot.exchange.api.OtherConfig;
+import com.gazbert.bxbot.exchange.api.RateLimitConfig;
+import com.gazbert.bxbot.exchange.api.RetryConfig;
+import com.gazbert.bxbot.exchanges.AbstractExchangeAdapter.ExchangeHttpResponse;
+import com.gazbert.bxbot.exchanges.AbstractExchangeAdapter.ExchangeHttpStreamResponse;
+import com.gazbert.bxbot.exchanges.HttpTransportStatistics.ResponseByteCounts;
+import com.gazbert.bxbot.trading.api.ExchangeNetworkException;
+import com.gazbert.bxbot.trading.api.MarketOrderBook;
+import com.gazbert.bxbot.trading.api.TradingApiException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URL;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.powermock.reflect.Whitebox;
+
+/**
+ * Tests the HttpClient Exchange Transport and how Exchange Adapters map its responses.
+ *
+ * @author gazbert
+ */
+public class TestHttpClientExchangeTransport {
+
+  private static final int TIMEOUT_IN_SECS = 5;
+  private static final Duration TIMEOUT = Duration.ofSeconds(TIMEOUT_IN_SECS);
+  private static final String TICKER_JSON = "{\"last\":\"100.5\"}";
+  private static final String BOOK_JSON =
+      "{\"bids\":[[\"100.5\",\"2\"]],\"asks\":[[\"101.0\",\"1.5\"],[\"102\",3]]}\n";
+
+  private HttpServer server;
+  private String baseUrl;
+  private final Map<String, String> lastRequest = new HashMap<>();
+  private final AtomicInteger requestCount = new AtomicInteger();
+  private final AtomicInteger flakyFailures = new AtomicInteger();
+  private final AtomicBoolean stallNextRequest = new AtomicBoolean();
+  private final List<String> privateRequestBodies = new CopyOnWriteArrayList<>();
+  private final AtomicInteger privateRequestsInFlight = new AtomicInteger();
+  private final AtomicInteger maxPrivateRequestsInFlight = new AtomicInteger();
+
+  /** Starts a local server to play the part of the exchange. */
+  @Before
+  public void setupBeforeEachTest() throws Exception {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/ticker", exchange -> respond(exchange, 200, TICKER_JSON));
+    server.createContext("/book", exchange -> respond(exchange, 200, BOOK_JSON));
+    server.createContext("/gzip-book", exchange -> respondCompressed(exchange, "gzip", BOOK_JSON));
+    server.createContext(
+        "/deflate-book", exchange -> respondCompressed(exchange, "deflate", BOOK_JSON));
+    server.createContext("/list", exchange -> respond(exchange, 200, "[\"not a book\"]"));
+    server.createContext("/order", exchange -> respond(exchange, 201, "{\"id\":\"1\"}"));
+    server.createContext("/missing", exchange -> respond(exchange, 404, "gone"));
+    server.createContext("/busy", exchange -> respond(exchange, 503, "busy"));
+    server.createContext("/bad", exchange -> respond(exchange, 400, "{\"error\":\"bad\"}"));
+    server.createContext(
+        "/flaky",
+        exchange ->
+            respond(exchange, flakyFailures.getAndDecrement() > 0 ? 503 : 200, TICKER_JSON));
+    server.createContext(
+        "/slow",
+        exchange -> {
+          if (stallNextRequest.getAndSet(false)) {
+            sleep(2000);
+          }
+          respond(exchange, 200, TICKER_JSON);
+        });
+    server.createContext(
+        "/private",
+        exchange -> {
+          maxPrivateRequestsInFlight.accumulateAndGet(
+              privateRequestsInFlight.incrementAndGet(), Math::max);
+          privateRequestBodies.add(
+              new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+          if (privateRequestBodies.size() == 1) {
+            sleep(300); // longer than the rate limit wait, so an unordered request would overlap
+          }
+          privateRequestsInFlight.decrementAndGet();
+          respond(exchange, 200, TICKER_JSON);
+        });
+    server.createContext(
+        "/stalled-body",
+        exchange -> {
+          requestCount.incrementAndGet();
+          exchange.sendResponseHeaders(200, BOOK_JSON.length());
+          final OutputStream responseBody = exchange.getResponseBody();
+          responseBody.write(BOOK_JSON.substring(0, 10).getBytes(StandardCharsets.UTF_8));
+          responseBody.flush();
+          sleep(2000);
+          exchange.close();
+        });
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.start();
+    baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+  }
+
+  @After
+  public void tearDownAfterEachTest() {
+    server.stop(0);
+  }
+
+  @Test
+  public void testGetReturnsResponseAndUpdatesStatistics() throws Exception {
+    final HttpClientExchangeTransport transport = new HttpClientExchangeTransport(TIMEOUT);
+
+    for (int i = 0; i < 3; i++) {
+      final ExchangeHttpResponse response =
+          transport.send(
+              new URL(baseUrl + "/ticker"),
+              "GET",
+              null,
+              Collections.singletonMap("Key", "my-key"),
+              TIMEOUT);
+      assertEquals(200, response.getStatusCode());
+      assertEquals("OK", response.getReasonPhrase());
+      assertEquals(TICKER_JSON, response.getPayload());
+    }
+
+    assertEquals("GET", lastRequest.get("method"));
+    assertEquals("my-key", lastRequest.get("Key"));
+    assertTrue(lastRequest.get("User-Agent").startsWith("Mozilla/5.0"));
+
+    final HttpTransportStatistics statistics = transport.getStatistics();
+    assertEquals(3, statistics.getRequestCount());
+    assertEquals(0, statistics.getFailedRequestCount());
+    assertEquals(0, statistics.getInFlightRequests());
+    assertEquals(1, statistics.getPeakInFlightRequests());
+    assertEquals(3, statistics.getHttp11ResponseCount());
+    assertEquals(0, statistics.getHttp2ResponseCount());
+  }
+
+  @Test
+  public void testResponsesAreRequestedCompressedAndDecoded() throws Exception {
+    final HttpClientExchangeTransport transport = new HttpClientExchangeTransport(TIMEOUT);
+
+    final ExchangeHttpResponse response =
+        transport.send(new URL(baseUrl + "/gzip-book"), "GET", null, null, TIMEOUT);
+    final ExchangeHttpResponse asyncResponse =
+        transport.sendAsync(new URL(baseUrl + "/gzip-book"), "GET", null, null, TIMEOUT).get();
+
+    assertEquals("gzip, deflate", lastRequest.get("Accept-Encoding"));
+    assertEquals(BOOK_JSON, response.getPayload());
+    assertEquals(BOOK_JSON, asyncResponse.getPayload());
+
+    final ResponseByteCounts byteCounts =
+        transport.getStatistics().getResponseByteCounts().get("127.0.0.1/gzip-book");
+    assertEquals(2, byteCounts.getResponseCount());
+    assertEquals(2, byteCounts.getCompressedResponseCount());
+    assertEquals(2 * gzip(BOOK_JSON).length, byteCounts.getWireBytes());
+    assertEquals(2 * BOOK_JSON.length(), byteCounts.getDecodedBytes());
+  }
+
+  @Test
+  public void testUncompressedResponsesAreCounted() throws Exception {
+    final HttpClientExchangeTransport transport = new HttpClientExchangeTransport(TIMEOUT);
+
+    transport.send(new URL(baseUrl + "/ticker"), "GET", null, null, TIMEOUT);
+
+    final HttpTransportStatistics statistics = transport.getStatistics();
+    final ResponseByteCounts byteCounts =
+        statistics.getResponseByteCounts().get("127.0.0.1/ticker");
+    assertEquals(1, byteCounts.getResponseCount());
+    assertEquals(0, byteCounts.getCompressedResponseCount());
+    assertEquals(TICKER_JSON.length(), byteCounts.getWireBytes());
+    assertEquals(TICKER_JSON.length(), statistics.getDecodedBytesReceived());
+  }
+
+  @Test
+  public void testPostSendsBodyWithDefaultContentType() throws Exception {
+    final HttpClientExchangeTransport transport = new HttpClientExchangeTransport(TIMEOUT);
+
+    final ExchangeHttpResponse response =
+        transport.send(new URL(baseUrl + "/order"), "POST", "price=100&amount=1", null, TIMEOUT);
+
+    assertEquals(201, response.getStatusCode());
+    assertEquals("POST", lastRequest.get("method"));
+    assertEquals("price=100&amount=1", lastRequest.get("body"));
+    assertEquals("application/x-www-form-urlencoded", lastRequest.get("Content-Type"));
+  }
+
+  @Test
+  public void testErrorResponsesAreReturnedNotThrown() throws Exception {
+    final HttpClientExchangeTransport transport = new HttpClientExchangeTransport(TIMEOUT);
+
+    final ExchangeHttpResponse response =
+        transport.send(new URL(baseUrl + "/busy"), "GET", null, null, TIMEOUT);
+
+    assertEquals(503, response.getStatusCode());
+    assertEquals("busy", response.getPayload());
+  }
+
+  @Test
+  public void testFailedRequestsAreCounted() throws Exception {
+    final HttpClientExchangeTransport transport = new HttpClientExchangeTransport(TIMEOUT);
+    server.stop(0);
+
+    try {
+      transport.send(new URL(baseUrl + "/ticker"), "GET", null, null, TIMEOUT);
+    } catch (IOException e) {
+      // expected
+    }
+    assertEquals(1, transport.getStatistics().getFailedRequestCount());
+    assertEquals(0, transport.getStatistics().getInFlightRequests());
+  }
+
+  @Test
+  public void testSendAsyncReturnsResponseAndUpdatesStatistics() throws Exception {
+    final HttpClientExchangeTransport transport = new HttpClientExchangeTransport(TIMEOUT);
+
+    final CompletableFuture<ExchangeHttpResponse> ticker =
+        transport.sendAsync(new URL(baseUrl + "/ticker"), "GET", null, null, TIMEOUT);
+    final CompletableFuture<ExchangeHttpResponse> order =
+        transport.sendAsync(new URL(baseUrl + "/order"), "POST", "id=1", null, TIMEOUT);
+
+    assertEquals(TICKER_JSON, ticker.get().getPayload());
+    assertEquals(201, order.get().getStatusCode());
+    assertEquals(2, transport.getStatistics().getRequestCount());
+    assertEquals(0, transport.getStatistics().getInFlightRequests());
+  }
+
+  @Test
+  public void testStalledResponseBodyTimesOut() throws Exception {
+    final HttpClientExchangeTransport transport = new HttpClientExchangeTransport(TIMEOUT);
+    final URL url = new URL(baseUrl + "/stalled-body");
+    final Duration timeout = Duration.ofMillis(300);
+    final long startNanos = System.nanoTime();
+
+    try {
+      transport.send(url, "GET", null, null, timeout);
+      fail("Expected HttpTimeoutException");
+    } catch (HttpTimeoutException e) {
+      // expected
+    }
+    try {
+      transport.sendAsync(url, "GET", null, null, timeout).get();
+      fail("Expected ExecutionException");
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof HttpTimeoutException);
+    }
+    try (ExchangeHttpStreamResponse response =
+        transport.sendStreaming(url, "GET", null, null, timeout)) {
+      response.getBody().readAllBytes();
+      fail("Expected HttpTimeoutException");
+    } catch (HttpTimeoutException e) {
+      // expected
+    }
+
+    assertTrue(System.nanoTime() - startNanos < TimeUnit.SECONDS.toNanos(2));
+    assertEquals(2, transport.getStatistics().getFailedRequestCount());
+  }
+
+  @Test
+  public void testDeadlinesAreCancelledWhenResponsesAreReceived() throws Exception {
+    final HttpClientExchangeTransport transport = new HttpClientExchangeTransport(TIMEOUT);
+    final URL url = new URL(baseUrl + "/ticker");
+    final Duration timeout = Duration.ofMinutes(10);
+    final ScheduledThreadPoolExecutor deadlineScheduler =
+        Whitebox.getInternalState(HttpClientExchangeTransport.class, "DEADLINE_SCHEDULER");
+    final int pendingDeadlines = deadlineScheduler.getQueue().size();
+
+    transport.send(url, "GET", null, null, timeout);
+    transport.sendAsync(url, "GET", null, null, timeout).get();
+    try (ExchangeHttpStreamResponse response =
+        transport.sendStreaming(url, "GET", null, null, timeout)) {
+      assertEquals(
+          TICKER_JSON, new String(response.getBody().readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    assertTrue(deadlineScheduler.getQueue().size() <= pendingDeadlines);
+  }
+
+  @Test
+  public void testAdapterReturnsSuccessfulResponse() throws Exception {
+    final AbstractExchangeAdapter adapter = createAdapter();
+
+    final ExchangeHttpResponse response =
+        adapter.sendNetworkRequest(new URL(baseUrl + "/ticker"), "GET", null, null);
+
+    assertEquals(TICKER_JSON, response.getPayload());
+    assertEquals(1, adapter.getHttpTransportStatistics().getRequestCount());
+  }
+
+  @Test(expected = ExchangeNetworkException.class)
+  public void testAdapterThrowsExchangeNetworkExceptionForNotFound() throws Exception {
+    createAdapter().sendNetworkRequest(new URL(baseUrl + "/missing"), "GET", null, null);
+  }
+
+  @Test(expected = ExchangeNetworkException.class)
+  public void testAdapterThrowsExchangeNetworkExceptionForNonFatalErrorCode() throws Exception {
+    final NetworkConfig networkConfig = createMock(NetworkConfig.class);
+    expect(networkConfig.getConnectionTimeout()).andReturn(TIMEOUT_IN_SECS);
+    expect(networkConfig.getNonFatalErrorCodes()).andReturn(Collections.singletonList(503));
+    expect(networkConfig.getNonFatalErrorMessages()).andReturn(null);
+    expect(networkConfig.getRateLimitConfig()).andReturn(null);
+    expect(networkConfig.getRetryConfig()).andReturn(null);
+    expect(networkConfig.getCircuitBreakerConfig()).andReturn(null);
+    expect(networkConfig.getTimeoutConfig()).andReturn(null);
+    expect(networkConfig.getHedgingConfig()).andReturn(null);
+    final ExchangeConfig exchangeConfig = createMock(ExchangeConfig.class);
+    expect(exchangeConfig.getNetworkConfig()).andReturn(networkConfig);
+    replay(networkConfig, exchangeConfig);
+
+    final AbstractExchangeAdapter adapter = createAdapter();
+    adapter.setNetworkConfig(exchangeConfig);
+    adapter.sendNetworkRequest(new URL(baseUrl + "/busy"), "GET", null, null);
+  }
+
+  @Test
+  public void testAdapterWaitsForRateLimit() throws Exception {
+    final AbstractExchangeAdapter adapter = createRateLimitedAdapter();
+    final URL url = new URL(baseUrl + "/ticker");
+
+    final long start = System.nanoTime();
+    adapter.sendNetworkRequest(url, "GET", null, null);
+    adapter.sendNetworkRequest(url, "GET", null, null);
+    final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+    assertTrue(elapsedMillis >= 100);
+    assertEquals(1, adapter.getRateLimiter().getThrottledRequestCount());
+    assertTrue(adapter.getRateLimiter().getThrottledMillis() >= 100);
+  }
+
+  @Test
+  public void testAdapterAsyncRequestWaitsForRateLimitWithoutBlocking() throws Exception {
+    final AbstractExchangeAdapter adapter = createRateLimitedAdapter();
+    final URL url = new URL(baseUrl + "/ticker");
+    adapter.sendNetworkRequestAsync(url, "GET", null, null).get();
+
+    final long start = System.nanoTime();
+    final CompletableFuture<ExchangeHttpResponse> response =
+        adapter.sendNetworkRequestAsync(url, "GET", null, null);
+    final long callMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    assertEquals(TICKER_JSON, response.get().getPayload());
+    final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+    assertTrue(callMillis < 100);
+    assertTrue(elapsedMillis >= 100);
+    assertEquals(1, adapter.getRateLimiter().getThrottledRequestCount());
+  }
+
+  @Test
+  public void testNonceOrderedRequestsAreSentOneAtATimeInNonceOrder() throws Exception {
+    final AbstractExchangeAdapter adapter = createRateLimitedAdapter();
+    final URL url = new URL(baseUrl + "/private");
+    final Object nonceLock = new Object();
+    final AtomicInteger nonce = new AtomicInteger();
+
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    final List<Future<String>> responses = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      responses.add(
+          executor.submit(
+              () -> {
+                final CompletableFuture<ExchangeHttpResponse> response;
+                synchronized (nonceLock) {
+                  response =
+                      adapter.sendNonceOrderedRequestAsync(
+                          url, "POST", "nonce=" + nonce.incrementAndGet(), null);
+                }
+                return response.get().getPayload();
+              }));
+    }
+    for (final Future<String> response : responses) {
+      assertEquals(TICKER_JSON, response.get());
+    }
+    executor.shutdown();
+
+    assertEquals(List.of("nonce=1", "nonce=2", "nonce=3", "nonce=4"), privateRequestBodies);
+    assertEquals(1, maxPrivateRequestsInFlight.get());
+    // once the first request is answered, the rest still have to wait for the rate limit
+    assertTrue(adapter.getRateLimiter().getThrottledRequestCount() >= 2);
+  }
+
+  @Test
+  public void testAdapterAsyncRequestCompletesExceptionallyForNotFound() throws Exception {
+    final CompletableFuture<ExchangeHttpResponse> response =
+        createAdapter().sendNetworkRequestAsync(new URL(baseUrl + "/missing"), "GET", null, null);
+    try {
+      response.get();
+      fail("Expected ExecutionException");
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof ExchangeNetworkException);
+    }
+  }
+
+  @Test
+  public void testAdapterAsyncResponseAdapterErrorsAreWrapped() throws Exception {
+    final AbstractExchangeAdapter adapter = createAdapter();
+    final CompletableFuture<Integer> result =
+        adapter.adaptResponseAsync(
+            adapter.sendNetworkRequestAsync(new URL(baseUrl + "/ticker"), "GET", null, null),
+            response -> Integer.parseInt(response.getPayload()));
+    try {
+      result.get();
+      fail("Expected ExecutionException");
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof TradingApiException);
+      assertTrue(e.getCause().getCause() instanceof NumberFormatException);
+    }
+  }
+
+  @Test
+  public void testStreamingOrderBookParsingIsSwitchedOnInOtherConfig() {
+    final AbstractExchangeAdapter adapter = createAdapter();
+    assertFalse(adapter.isStreamingOrderBookParsingEnabled());
+
+    final OtherConfig streamingOn = Map.of("streaming-order-book-parsing", "true")::get;
+    adapter.setStreamingOrderBookParsing(streamingOn);
+    assertTrue(adapter.isStreamingOrderBookParsingEnabled());
+
+    final OtherConfig streamingNotSet = Map.of("buy-fee", "0.25")::get;
+    adapter.setStreamingOrderBookParsing(streamingNotSet);
+    assertFalse(adapter.isStreamingOrderBookParsingEnabled());
+
+    adapter.setStreamingOrderBookParsing(null);
+    assertFalse(adapter.isStreamingOrderBookParsingEnabled());
+  }
+
+  @Test
+  public void testNoncesArePersistedToNonceFileInOtherConfig() throws Exception {
+    final Path nonceFile = Files.createTempFile("bxbot-nonce", ".dat");
+    try {
+      final AbstractExchangeAdapter adapter = createAdapter();
+      final OtherConfig otherConfig = Map.of("nonce-file", nonceFile.toString())::get;
+
+      final NonceProvider firstRun =
+          adapter.createNonceProvider(TimeUnit.MILLISECONDS, otherConfig);
+      long lastNonce = 0;
+      for (int i = 0; i < 1_000; i++) {
+        lastNonce = firstRun.next(); // run ahead of the clock
+      }
+      assertEquals(Long.BYTES, Files.size(nonceFile));
+
+      // restarted - the last nonce is read back from the file
+      final NonceProvider secondRun =
+          adapter.createNonceProvider(TimeUnit.MILLISECONDS, otherConfig);
+      assertTrue(secondRun.next() > lastNonce);
+    } finally {
+      Files.deleteIfExists(nonceFile);
+    }
+  }
+
+  @Test
+  public void testAdapterParsesStreamedResponse() throws Exception {
+    final AbstractExchangeAdapter adapter = createAdapter();
+
+    for (int i = 0; i < 2; i++) {
+      final MarketOrderBook orderBook =
+          adapter.sendNetworkRequestStreaming(
+              new URL(baseUrl + "/book"),
+              "GET",
+              null,
+              null,
+              reader -> StreamingOrderBookReader.readArrayOrderBook("btcusd", reader));
+
+      assertEquals(1, orderBook.getBuyOrders().size());
+      assertEquals(2, orderBook.getSellOrders().size());
+      assertEquals(
+          0, new BigDecimal("306").compareTo(orderBook.getSellOrders().get(1).getTotal()));
+    }
+    assertEquals(0, adapter.getHttpTransportStatistics().getInFlightRequests());
+  }
+
+  @Test
+  public void testAdapterParsesCompressedStreamedResponse() throws Exception {
+    final AbstractExchangeAdapter adapter = createAdapter();
+
+    for (final String path : List.of("/gzip-book", "/deflate-book")) {
+      final MarketOrderBook orderBook =
+          adapter.sendNetworkRequestStreaming(
+              new URL(baseUrl + path),
+              "GET",
+              null,
+              null,
+              reader -> StreamingOrderBookReader.readArrayOrderBook("btcusd", reader));
+
+      assertEquals(1, orderBook.getBuyOrders().size());
+      assertEquals(2, orderBook.getSellOrders().size());
+      assertEquals(
+          0, new BigDecimal("306").compareTo(orderBook.getSellOrders().get(1).getTotal()));
+    }
+  }
+
+  @Test(expected = ExchangeNetworkException.class)
+  public void testAdapterStreamingThrowsExchangeNetworkExceptionForNotFound() throws Exception {
+    createAdapter()
+        .sendNetworkRequestStreaming(
+            new URL(baseUrl + "/missing"),
+            "GET",
+            null,
+            null,
+            reader -> StreamingOrderBookReader.readArrayOrderBook("btcusd", reader));
+  }
+
+  @Test(expected = TradingApiException.class)
+  public void testAdapterStreamingThrowsTradingApiExceptionForMalformedResponse()
+      throws Exception {
+    createAdapter()
+        .sendNetworkRequestStreaming(
+            new URL(baseUrl + "/list"),
+            "GET",
+            null,
+            null,
+            reader -> StreamingOrderBookReader.readArrayOrderBook("btcusd", reader));
+  }
+
+  @Test(expected = TradingApiException.class)
+  public void testAdapterThrowsTradingApiExceptionForFatalErrorCode() throws Exception {
+    createAdapter().sendNetworkRequest(new URL(baseUrl + "/bad"), "GET", null, null);
+  }
+
+  @Test
+  public void testAdapterRetriesIdempotentRequestAfterNonFatalError() throws Exception {
+    final AbstractExchangeAdapter adapter = createRetryingAdapter();
+    flakyFailures.set(2);
+
+    final ExchangeHttpResponse response =
+        adapter.sendNetworkRequest(new URL(baseUrl + "/flaky"), "GET", null, null);
+
+    assertEquals(TICKER_JSON, response.getPayload());
+    assertEquals(3, requestCount.get());
+    assertEquals(2, adapter.getRetryPolicy().getRetryCount());
+    assertEquals(1, adapter.getRetryPolicy().getRecoveredRequestCount());
+  }
+
+  @Test
+  public void testAdapterGivesUpAfterMaxAttempts() throws Exception {
+    final AbstractExchangeAdapter adapter = createRetryingAdapter();
+    try {
+      adapter.sendNetworkRequest(new URL(baseUrl + "/busy"), "GET", null, null);
+      fail("Expected ExchangeNetworkException");
+    } catch (ExchangeNetworkException e) {
+      assertEquals(3, requestCount.get());
+      assertEquals(0, adapter.getRetryPolicy().getRecoveredRequestCount());
+    }
+  }
+
+  @Test
+  public void testAdapterNeverRetriesPost() throws Exception {
+    final AbstractExchangeAdapter adapter = createRetryingAdapter();
+    flakyFailures.set(1);
+    try {
+      adapter.sendNetworkRequest(new URL(baseUrl + "/flaky"), "POST", "price=100", null);
+      fail("Expected ExchangeNetworkException");
+    } catch (ExchangeNetworkException e) {
+      assertEquals(1, requestCount.get());
+      assertEquals(0, adapter.getRetryPolicy().getRetryCount());
+    }
+  }
+
+  @Test
+  public void testAdapterAsyncRequestIsRetried() throws Exception {
+    final AbstractExchangeAdapter adapter = createRetryingAdapter();
+    flakyFailures.set(1);
+
+    final ExchangeHttpResponse response =
+        adapter.sendNetworkRequestAsync(new URL(baseUrl + "/flaky"), "GET", null, null).get();
+
+    assertEquals(TICKER_JSON, response.getPayload());
+    assertEquals(2, requestCount.get());
+    assertEquals(1, adapter.getRetryPolicy().getRecoveredRequestCount());
+  }
+
+  @Test
+  public void testAdapterFailsFastOnceCircuitBreakerOpens() throws Exception {
+    final AbstractExchangeAdapter adapter = createCircuitBreakingAdapter();
+    final URL url = new URL(baseUrl + "/busy");
+    for (int i = 0; i < 2; i++) {
+      try {
+        adapter.sendNetworkRequest(url, "GET", null, null);
+        fail("Expected ExchangeNetworkException");
+      } catch (ExchangeNetworkException e) {
+        // expected
+      }
+    }
+    assertEquals("OPEN", adapter.getCircuitBreakerStates().get("/busy"));
+
+    try {
+      adapter.sendNetworkRequest(url, "GET", null, null);
+      fail("Expected ExchangeNetworkException");
+    } catch (ExchangeNetworkException e) {
+      assertTrue(e.getMessage().startsWith("Circuit breaker is open"));
+    }
+    try {
+      adapter.sendNetworkRequestAsync(url, "GET", null, null).get();
+      fail("Expected ExecutionException");
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof ExchangeNetworkException);
+    }
+    assertEquals(2, requestCount.get());
+    assertEquals(2, adapter.getCircuitBreaker().getRejectedRequestCount());
+
+    adapter.sendNetworkRequest(new URL(baseUrl + "/ticker"), "GET", null, null);
+    assertEquals("CLOSED", adapter.getCircuitBreakerStates().get("/ticker"));
+  }
+
+  @Test
+  public void testAdapterFailsFastOnceRequestDeadlineHasPassed() throws Exception {
+    final AbstractExchangeAdapter adapter = createAdapter();
+    final URL url = new URL(baseUrl + "/ticker");
+    adapter.setRequestDeadline(System.nanoTime());
+    try {
+      adapter.sendNetworkRequest(url, "GET", null, null);
+      fail("Expected ExchangeNetworkException");
+    } catch (ExchangeNetworkException e) {
+      assertTrue(e.getMessage().startsWith("Request deadline has passed"));
+    }
+    try {
+      adapter.sendNetworkRequestAsync(url, "GET", null, null).get();
+      fail("Expected ExecutionException");
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof ExchangeNetworkException);
+    }
+    assertEquals(0, requestCount.get());
+
+    adapter.clearRequestDeadline();
+    assertEquals(200, adapter.sendNetworkRequest(url, "GET", null, null).getStatusCode());
+  }
+
+  @Test
+  public void testAdapterHedgesStalledPublicRequest() throws Exception {
+    final AbstractExchangeAdapter adapter = createHedgingAdapter();
+    final URL url = new URL(baseUrl + "/slow");
+    for (int i = 0; i < 3; i++) {
+      adapter.sendNetworkRequest(url, "GET", null, null);
+    }
+
+    stallNextRequest.set(true);
+    final long startNanos = System.nanoTime();
+    final ExchangeHttpResponse response = adapter.sendNetworkRequest(url, "GET", null, null);
+
+    assertEquals(TICKER_JSON, response.getPayload());
+    assertTrue(System.nanoTime() - startNanos < TimeUnit.SECONDS.toNanos(1));
+    assertEquals(4, requestCount.get());
+    assertEquals(1, adapter.getRequestHedger().getHedgedRequestCount());
+    assertEquals(1, adapter.getRequestHedger().getHedgeWinCount());
+  }
+
+  @Test
+  public void testAdapterNeverHedgesPost() throws Exception {
+    final AbstractExchangeAdapter adapter = createHedgingAdapter();
+    final URL url = new URL(baseUrl + "/slow");
+    for (int i = 0; i < 3; i++) {
+      adapter.sendNetworkRequest(url, "GET", null, null);
+    }
+
+    stallNextRequest.set(true);
+    adapter.sendNetworkRequest(url, "POST", "{}", null);
+
+    assertEquals(4, requestCount.get());
+    assertEquals(0, adapter.getRequestHedger().getHedgedRequestCount());
+  }
+
+  @Test
+  public void testAdapterSharesIdenticalInFlightCalls() throws Exception {
+    final AbstractExchangeAdapter adapter = createAdapter();
+    final URL url = new URL(baseUrl + "/slow");
+    final List<String> key = List.of("getTicker", "btcusd");
+
+    stallNextRequest.set(true);
+    final CompletableFuture<ExchangeHttpResponse> first =
+        adapter.singleFlightAsync(
+            ExchangeOperation.MARKET_DATA,
+            key,
+            () -> adapter.sendNetworkRequestAsync(url, "GET", null, null));
+    final ExchangeHttpResponse second =
+        adapter.singleFlight(
+            ExchangeOperation.MARKET_DATA,
+            key,
+            () -> adapter.sendNetworkRequest(url, "GET", null, null));
+
+    assertSame(first.get(), second);
+    assertEquals(1, requestCount.get());
+    assertEquals(1, adapter.getSingleFlight().getSharedCallCount());
+  }
+
+  @Test(expected = ExchangeNetworkException.class)
+  public void testAdapterThrowsExchangeNetworkExceptionForUnknownHost() throws Exception {
+    createAdapter()
+        .sendNetworkRequest(new URL("http://bxbot.invalid/ticker"), "GET", null, null);
+  }
+
+  @Test(expected = ExchangeNetworkException.class)
+  public void testAdapterThrowsExchangeNetworkExceptionWhenConnectionClosedBeforeResponse()
+      throws Exception {
+    // Depending on the JDK, the HttpClient reports a ConnectException with no message, or
+    // "HTTP/1.1 header parser received no bytes".
+    createAdapter().sendNetworkRequest(serveOnce(""), "GET", null, null);
+  }
+
+  @Test(expected = ExchangeNetworkException.class)
+  public void testAdapterThrowsExchangeNetworkExceptionWhenHeaderParserReceivesNoBytes()
+      throws Exception {
+    final AbstractExchangeAdapter adapter = new AbstractExchangeAdapter() {};
+    adapter.setHttpTransport(
+        new FailingTransport(new IOException("HTTP/1.1 header parser received no bytes")));
+    adapter.sendNetworkRequest(new URL(baseUrl + "/ticker"), "POST", "{}", null);
+  }
+
+  @Test(expected = ExchangeNetworkException.class)
+  public void testAdapterThrowsExchangeNetworkExceptionWhenConnectionClosedMidBody()
+      throws Exception {
+    // The HttpClient reports "EOF reached while reading".
+    createAdapter()
+        .sendNetworkRequest(
+            serveOnce("HTTP/1.1 200 OK\r\nContent-Length: 100\r\n\r\n{\"last\""),
+            "GET",
+            null,
+            null);
+  }
+
+  @Test(expected = ExchangeNetworkException.class)
+  public void testAdapterStreamingThrowsExchangeNetworkExceptionWhenConnectionClosedMidBody()
+      throws Exception {
+    createAdapter()
+        .sendNetworkRequestStreaming(
+            serveOnce("HTTP/1.1 200 OK\r\nContent-Length: 100\r\n\r\n{\"bids\":[[\"1"),
+            "GET",
+            null,
+            null,
+            reader -> StreamingOrderBookReader.readArrayOrderBook("btcusd", reader));
+  }
+
+  @Test(expected = ExchangeNetworkException.class)
+  public void testAdapterThrowsExchangeNetworkExceptionWhenConnectionRefused() throws Exception {
+    // The HttpClient reports a ConnectException with no message.
+    final int closedPort;
+    try (ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+      closedPort = serverSocket.getLocalPort();
+    }
+    createAdapter()
+        .sendNetworkRequest(
+            new URL("http://127.0.0.1:" + closedPort + "/ticker"), "GET", null, null);
+  }
+
+  @Test
+  public void testAdapterThrowsExchangeNetworkExceptionForStalledResponseBody() throws Exception {
+    final AbstractExchangeAdapter adapter = createAdapter();
+    final URL url = new URL(baseUrl + "/stalled-body");
+
+    adapter.setRequestDeadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(300));
+    try {
+      adapter.sendNetworkRequest(url, "GET", null, null);
+      fail("Expected ExchangeNetworkException");
+    } catch (ExchangeNetworkException e) {
+      assertTrue(e.getCause() instanceof HttpTimeoutException);
+    }
+
+    adapter.setRequestDeadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(300));
+    try {
+      adapter.sendNetworkRequestStreaming(
+          url,
+          "GET",
+          null,
+          null,
+          reader -> StreamingOrderBookReader.readArrayOrderBook("btcusd", reader));
+      fail("Expected ExchangeNetworkException");
+    } catch (ExchangeNetworkException e) {
+      assertTrue(e.getCause() instanceof HttpTimeoutException);
+    }
+  }
+
+  @Test(expected = ExchangeNetworkException.class)
+  public void testAdapterThrowsExchangeNetworkExceptionForConnectTimeout() throws Exception {
+    // The HttpClient wraps connect timeouts in a ConnectException.
+    final ConnectException connectException = new ConnectException("HTTP connect timed out");
+    connectException.initCause(new HttpConnectTimeoutException("HTTP connect timed out"));
+    final AbstractExchangeAdapter adapter = new AbstractExchangeAdapter() {};
+    adapter.setHttpTransport(new FailingTransport(connectException));
+    adapter.sendNetworkRequest(new URL(baseUrl + "/ticker"), "GET", null, null);
+  }
+
+  // --------------------------------------------------------------------------
+  //  Util methods
+  // --------------------------------------------------------------------------
+
+  private static AbstractExchangeAdapter createAdapter() {
+    final AbstractExchangeAdapter adapter = new AbstractExchangeAdapter() {};
+    adapter.setHttpTransport(new HttpClientExchangeTransport(TIMEOUT));
+    return adapter;
+  }
+
+  /* Allows 1 request, then 1 more every 200ms. */
+  private AbstractExchangeAdapter createRateLimitedAdapter() throws Exception {
+    final RateLimitConfig rateLimitConfig = createMock(RateLimitConfig.class);
+    expect(rateLimitConfig.getPublicApiCapacity()).andReturn(1);
+    expect(rateLimitConfig.getPublicApiRefillPerSecond()).andReturn(5.0);
+    expect(rateLimitConfig.getPrivateApiCapacity()).andReturn(null);
+    expect(rateLimitConfig.getPrivateApiRefillPerSecond()).andReturn(null);
+    expect(rateLimitConfig.getMethodCosts()).andReturn(null);
+    final NetworkConfig networkConfig = createMock(NetworkConfig.class);
+    expect(networkConfig.getConnectionTimeout()).andReturn(TIMEOUT_IN_SECS);
+    expect(networkConfig.getNonFatalErrorCodes()).andReturn(null);
+    expect(networkConfig.getNonFatalErrorMessages()).andReturn(null);
+    expect(networkConfig.getRateLimitConfig()).andReturn(rateLimitConfig);
+    expect(networkConfig.getRetryConfig()).andReturn(null);
+    expect(networkConfig.getCircuitBreakerConfig()).andReturn(null);
+    expect(networkConfig.getTimeoutConfig()).andReturn(null);
+    expect(networkConfig.getHedgingConfig()).andReturn(null);
+    final ExchangeConfig exchangeConfig = createMock(ExchangeConfig.class);
+    expect(exchangeConfig.getNetworkConfig()).andReturn(networkConfig);
+    replay(rateLimitConfig, networkConfig, exchangeConfig);
+
+    // Connect before the rate limit is set, so the first request is not slowed by the handshake.
+    final AbstractExchangeAdapter adapter = createAdapter();
+    adapter.sendNetworkRequest(new URL(baseUrl + "/ticker"), "GET", null, null);
+    adapter.setNetworkConfig(exchangeConfig);
+    return adapter;
+  }
+
+  /* Treats 503s as non-fatal and makes up to 3 attempts, with a short backoff. */
+  private static AbstractExchangeAdapter createRetryingAdapter() {
+    final RetryConfig retryConfig = createMock(RetryConfig.class);
+    expect(retryConfig.getMaxAttempts()).andReturn(3);
+    expect(retryConfig.getInitialBackoffMillis()).andReturn(10);
+    expect(retryConfig.getMaxBackoffMillis()).andReturn(50);
+    expect(retryConfig.getDeadlineMillis()).andReturn(null);
+    final NetworkConfig networkConfig = createMock(NetworkConfig.class);
+    expect(networkConfig.getConnectionTimeout()).andReturn(TIMEOUT_IN_SECS);
+    expect(networkConfig.getNonFatalErrorCodes()).andReturn(Collections.singletonList(503));
+    expect(networkConfig.getNonFatalErrorMessages()).andReturn(null);
+    expect(networkConfig.getRateLimitConfig()).andReturn(null);
+    expect(networkConfig.getRetryConfig()).andReturn(retryConfig);
+    expect(networkConfig.getCircuitBreakerConfig()).andReturn(null);
+    expect(networkConfig.getTimeoutConfig()).andReturn(null);
+    expect(networkConfig.getHedgingConfig()).andReturn(null);
+    final ExchangeConfig exchangeConfig = createMock(ExchangeConfig.class);
+    expect(exchangeConfig.getNetworkConfig()).andReturn(networkConfig);
+    replay(retryConfig, networkConfig, exchangeConfig);
+
+    final AbstractExchangeAdapter adapter = createAdapter();
+    adapter.setNetworkConfig(exchangeConfig);
+    return adapter;
+  }
+
+  /* Treats 503s as non-fatal and opens an endpoint's circuit after 2 failures in a row. */
+  private static AbstractExchangeAdapter createCircuitBreakingAdapter() {
+    final CircuitBreakerConfig circuitBreakerConfig = createMock(CircuitBreakerConfig.class);
+    expect(circuitBreakerConfig.getFailureRateThreshold()).andReturn(100);
+    expect(circuitBreakerConfig.getWindowSize()).andReturn(2);
+    expect(circuitBreakerConfig.getMinimumRequests()).andReturn(2);
+    expect(circuitBreakerConfig.getCooldownSeconds()).andReturn(60);
+    final NetworkConfig networkConfig = createMock(NetworkConfig.class);
+    expect(networkConfig.getConnectionTimeout()).andReturn(TIMEOUT_IN_SECS);
+    expect(networkConfig.getNonFatalErrorCodes()).andReturn(Collections.singletonList(503));
+    expect(networkConfig.getNonFatalErrorMessages()).andReturn(null);
+    expect(networkConfig.getRateLimitConfig()).andReturn(null);
+    expect(networkConfig.getRetryConfig()).andReturn(null);
+    expect(networkConfig.getCircuitBreakerConfig()).andReturn(circuitBreakerConfig);
+    expect(networkConfig.getTimeoutConfig()).andReturn(null);
+    expect(networkConfig.getHedgingConfig()).andReturn(null);
+    final ExchangeConfig exchangeConfig = createMock(ExchangeConfig.class);
+    expect(exchangeConfig.getNetworkConfig()).andReturn(networkConfig);
+    replay(circuitBreakerConfig, networkConfig, exchangeConfig);
+
+    final AbstractExchangeAdapter adapter = createAdapter();
+    adapter.setNetworkConfig(exchangeConfig);
+    return adapter;
+  }
+
+  /* Hedges requests not answered within the 95th percentile, once 3 have been, after 20ms. */
+  private static AbstractExchangeAdapter createHedgingAdapter() {
+    final HedgingConfig hedgingConfig = createMock(HedgingConfig.class);
+    expect(hedgingConfig.getLatencyPercentile()).andReturn(95);
+    expect(hedgingConfig.getBudgetPercent()).andReturn(100);
+    expect(hedgingConfig.getMinDelayMillis()).andReturn(20);
+    expect(hedgingConfig.getWindowSize()).andReturn(3);
+    final NetworkConfig networkConfig = createMock(NetworkConfig.class);
+    expect(networkConfig.getConnectionTimeout()).andReturn(TIMEOUT_IN_SECS);
+    expect(networkConfig.getNonFatalErrorCodes()).andReturn(null);
+    expect(networkConfig.getNonFatalErrorMessages()).andReturn(null);
+    expect(networkConfig.getRateLimitConfig()).andReturn(null);
+    expect(networkConfig.getRetryConfig()).andReturn(null);
+    expect(networkConfig.getCircuitBreakerConfig()).andReturn(null);
+    expect(networkConfig.getTimeoutConfig()).andReturn(null);
+    expect(networkConfig.getHedgingConfig()).andReturn(hedgingConfig);
+    final ExchangeConfig exchangeConfig = createMock(ExchangeConfig.class);
+    expect(exchangeConfig.getNetworkConfig()).andReturn(networkConfig);
+    replay(hedgingConfig, networkConfig, exchangeConfig);
+
+    final AbstractExchangeAdapter adapter = createAdapter();
+    adapter.setNetworkConfig(exchangeConfig);
+    return adapter;
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /* Serves one connection with a raw response, then closes it - like a dropped keep-alive. */
+  private static URL serveOnce(String rawResponse) throws IOException {
+    final ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+    final Thread server =
+        new Thread(
+            () -> {
+              try (serverSocket;
+                  Socket socket = serverSocket.accept()) {
+                readRequestHeaders(socket.getInputStream());
+                socket.getOutputStream().write(rawResponse.getBytes(StandardCharsets.US_ASCII));
+                socket.getOutputStream().flush();
+              } catch (IOException e) {
+                // the client sees the connection closed, which is what the test is after
+              }
+            });
+    server.setDaemon(true);
+    server.start();
+    return new URL("http://127.0.0.1:" + serverSocket.getLocalPort() + "/ticker");
+  }
+
+  private static void readRequestHeaders(InputStream requestStream) throws IOException {
+    int matched = 0;
+    final byte[] endOfHeaders = "\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+    while (matched < endOfHeaders.length) {
+      final int b = requestStream.read();
+      if (b == -1) {
+        return;
+      }
+      matched = b == endOfHeaders[matched] ? matched + 1 : (b == endOfHeaders[0] ? 1 : 0);
+    }
+  }
+
+  private void respond(HttpExchange exchange, int statusCode, String body) throws IOException {
+    requestCount.incrementAndGet();
+    try (InputStream requestBody = exchange.getRequestBody()) {
+      lastRequest.put("method", exchange.getRequestMethod());
+      lastRequest.put("body", new String(requestBody.readAllBytes(), StandardCharsets.UTF_8));
+      lastRequest.put("Key", exchange.getRequestHeaders().getFirst("Key"));
+      lastRequest.put("User-Agent", exchange.getRequestHeaders().getFirst("User-Agent"));
+      lastRequest.put("Content-Type", exchange.getRequestHeaders().getFirst("Content-Type"));
+      lastRequest.put(
+          "Accept-Encoding", exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+    }
+    sendResponse(exchange, statusCode, body.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private void respondCompressed(HttpExchange exchange, String encoding, String body)
+      throws IOException {
+    final String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+    if (acceptEncoding == null || !acceptEncoding.contains(encoding)) {
+      respond(exchange, 200, body);
+      return;
+    }
+    requestCount.incrementAndGet();
+    lastRequest.put("Accept-Encoding", acceptEncoding);
+    exchange.getResponseHeaders().set("Content-Encoding", encoding);
+    sendResponse(exchange, 200, "gzip".equals(encoding) ? gzip(body) : deflate(body));
+  }
+
+  private static void sendResponse(HttpExchange exchange, int statusCode, byte[] responseBytes)
+      throws IOException {
+    exchange.sendResponseHeaders(statusCode, responseBytes.length);
+    try (OutputStream responseBody = exchange.getResponseBody()) {
+      responseBody.write(responseBytes);
+    }
+  }
+
+  private static byte[] gzip(String body) throws IOException {
+    final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    try (OutputStream gzip = new GZIPOutputStream(compressed)) {
+      gzip.write(body.getBytes(StandardCharsets.UTF_8));
+    }
+    return compressed.toByteArray();
+  }
+
+  private static byte[] deflate(String body) throws IOException {
+    final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    try (OutputStream deflate = new DeflaterOutputStream(compressed)) {
+      deflate.write(body.getBytes(StandardCharsets.UTF_8));
+    }
+    return compressed.toByteArray();
+  }
+
+  /** Test class. */
+  private static final class FailingTransport implements ExchangeHttpTransport {
+
+    private final IOException error;
+
+    FailingTransport(IOException error) {
+      this.error = error;
+    }
+
+    @Override
+    public ExchangeHttpResponse send(
+        URL url,
+        String httpMethod,
+        String postData,
+        Map<String, String> requestHeaders,
+        Duration timeout)
+        throws IOException {
+      throw error;
+    }
+
+    @Override
+    public CompletableFuture<ExchangeHttpResponse> sendAsync(
+        URL url,
+        String httpMethod,
+        String postData,
+        Map<String, String> requestHeaders,
+        Duration timeout) {
+      return CompletableFuture.failedFuture(error);
+    }
+
+    @Override
+    public ExchangeHttpStreamResponse sendStreaming(
+        URL url,
+        String httpMethod,
+        String postData,
+        Map<String, String> requestHeaders,
+        Duration timeout)
+        throws IOException {
+      throw error;
+    }
+
+    @Override
+    public CompletableFuture<ExchangeHttpStreamResponse> sendStreamingAsync(
+        URL url,
+        String httpMethod,
+        String postData,
+        Map<String, String> requestHeaders,
+        Duration timeout) {
+      return CompletableFuture.failedFuture(error);
+    }
+
+    @Override
+    public HttpTransportStatistics getStatistics() {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.exchanges;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.gazbert.bxbot.exchanges.HttpTransportStatistics.ResponseByteCounts;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+
+/**
+ * Tests the HTTP Transport Statistics snapshot behaves as expected.
+ *
+ * @author gazbert
+ */
+public class TestHttpTransportStatistics {
+
+  @Test
+  public void testStatisticsAreInitialisedAsExpected() {
+    final Map<String, ResponseByteCounts> byteCounts = new HashMap<>();
+    byteCounts.put("api.exchange.com/book", new ResponseByteCounts(4, 3, 1000, 9000));
+    byteCounts.put("api.exchange.com/ticker", new ResponseByteCounts(2, 0, 200, 200));
+
+    final HttpTransportStatistics statistics =
+        new HttpTransportStatistics(7, 1, 2, 5, 4, 2, 600, byteCounts);
+
+    assertEquals(7, statistics.getRequestCount());
+    assertEquals(1, statistics.getFailedRequestCount());
+    assertEquals(2, statistics.getInFlightRequests());
+    assertEquals(5, statistics.getPeakInFlightRequests());
+    assertEquals(4, statistics.getHttp2ResponseCount());
+    assertEquals(2, statistics.getHttp11ResponseCount());
+    assertEquals(100, statistics.getAverageResponseTimeMillis());
+    assertEquals(1200, statistics.getWireBytesReceived());
+    assertEquals(9200, statistics.getDecodedBytesReceived());
+    assertEquals(2, statistics.getResponseByteCounts().size());
+
+    final ResponseByteCounts bookByteCounts =
+        statistics.getResponseByteCounts().get("api.exchange.com/book");
+    assertEquals(4, bookByteCounts.getResponseCount());
+    assertEquals(3, bookByteCounts.getCompressedResponseCount());
+    assertEquals(1000, bookByteCounts.getWireBytes());
+    assertEquals(9000, bookByteCounts.getDecodedBytes());
+  }
+
+  @Test
+  public void testAverageResponseTimeIsZeroWithNoResponses() {
+    final HttpTransportStatistics statistics =
+        new HttpTransportStatistics(1, 1, 0, 1, 0, 0, 0, new HashMap<>());
+    assertEquals(0, statistics.getAverageResponseTimeMillis());
+    assertEquals(0, statistics.getWireBytesReceived());
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testResponseByteCountsCannotBeModified() {
+    final HttpTransportStatistics statistics =
+        new HttpTransportStatistics(0, 0, 0, 0, 0, 0, 0, new HashMap<>());
+    statistics.getResponseByteCounts().put("api.exchange.com/book", null);
+  }
+
+  @Test
+  public void testToStringIncludesTotals() {
+    final Map<String, ResponseByteCounts> byteCounts = new HashMap<>();
+    byteCounts.put("api.exchange.com/book", new ResponseByteCounts(1, 1, 10, 90));
+
+    final String statistics =
+        new HttpTransportStatistics(1, 0, 0, 1, 1, 0, 50, byteCounts).toString();
+    assertTrue(statistics.contains("averageResponseTimeMillis=50"));
+    assertTrue(statistics.contains("wireBytesReceived=10"));
+    assertTrue(statistics.contains("compressedResponseCount=1"));
+  }
+}
@@ -58,6 +58,7 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -118,10 +119,16 @@ public class TestItBitExchangeAdapter extends AbstractExchangeAdapterTest {
   private static final String MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD = "createRequestParamMap";
   private static final String MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_METHOD =
       "sendAuthenticatedRequestToExchange";
+  private static final String MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_ASYNC_METHOD =
+      "sendAuthenticatedRequestToExchangeAsync";
   private static final String MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_METHOD =
       "sendPublicRequestToExchange";
+  private static final String MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_ASYNC_METHOD =
+      "sendPublicRequestToExchangeAsync";
   private static final String MOCKED_CREATE_REQUEST_HEADER_MAP_METHOD = "createHeaderParamMap";
   private static final String MOCKED_MAKE_NETWORK_REQUEST_METHOD = "makeNetworkRequest";
+  private static final String MOCKED_MAKE_NETWORK_REQUEST_ASYNC_METHOD =
+      "makeNetworkRequestAsync";
   private static final String MOCKED_GET_BALANCE_INFO_METHOD = "getBalanceInfo";
 
   private static final String MOCKED_WALLET_ID_FIELD_NAME = "walletId";
@@ -158,11 +165,17 @@ public class TestItBitExchangeAdapter extends AbstractExchangeAdapterTest {
     expect(networkConfig.getConnectionTimeout()).andReturn(30);
     expect(networkConfig.getNonFatalErrorCodes()).andReturn(nonFatalNetworkErrorCodes);
     expect(networkConfig.getNonFatalErrorMessages()).andReturn(nonFatalNetworkErrorMessages);
+    expect(networkConfig.getRateLimitConfig()).andReturn(null);
+    expect(networkConfig.getRetryConfig()).andReturn(null);
+    expect(networkConfig.getCircuitBreakerConfig()).andReturn(null);
+    expect(networkConfig.getTimeoutConfig()).andReturn(null);
+    expect(networkConfig.getHedgingConfig()).andReturn(null);
 
     otherConfig = PowerMock.createMock(OtherConfig.class);
     expect(otherConfig.getItem("buy-fee")).andReturn("0.5");
     expect(otherConfig.getItem("sell-fee")).andReturn("0.5");
     expect(otherConfig.getItem("keep-alive-during-maintenance")).andReturn("false");
+    expect(otherConfig.getItem("nonce-file")).andReturn(null);
 
     exchangeConfig = PowerMock.createMock(ExchangeConfig.class);
     expect(exchangeConfig.getAuthenticationConfig()).andReturn(authenticationConfig);
@@ -476,10 +489,68 @@ public class TestItBitExchangeAdapter extends AbstractExchangeAdapterTest {
     PowerMock.verifyAll();
   }
 
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testGettingYourOpenOrdersAsynchronously() throws Exception {
+    final byte[] encoded = Files.readAllBytes(Paths.get(OPEN_ORDERS_JSON_RESPONSE));
+
+    final AbstractExchangeAdapter.ExchangeHttpResponse exchangeResponse =
+        new AbstractExchangeAdapter.ExchangeHttpResponse(
+            200, "OK", new String(encoded, StandardCharsets.UTF_8));
+
+    final Map<String, String> requestParamMap = PowerMock.createMock(Map.class);
+    expect(requestParamMap.put("status", "open")).andStubReturn(null);
+
+    final ItBitExchangeAdapter exchangeAdapter =
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
+            ItBitExchangeAdapter.class,
+            MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_ASYNC_METHOD,
+            MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD);
+
+    PowerMock.expectPrivate(exchangeAdapter, MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD)
+        .andReturn(requestParamMap);
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_ASYNC_METHOD,
+            eq("GET"),
+            eq(OPEN_ORDERS),
+            eq(requestParamMap))
+        .andReturn(CompletableFuture.completedFuture(exchangeResponse));
+
+    PowerMock.replayAll();
+
+    Whitebox.setInternalState(exchangeAdapter, MOCKED_WALLET_ID_FIELD_NAME, WALLET_ID);
+    exchangeAdapter.init(exchangeConfig);
+
+    final List<OpenOrder> openOrders = exchangeAdapter.getYourOpenOrdersAsync(MARKET_ID).get();
+
+    // assert some key stuff; we're not testing GSON here.
+    assertEquals(2, openOrders.size());
+    assertEquals(MARKET_ID, openOrders.get(0).getMarketId());
+    assertEquals("639ccf95-b87c-48ba-b27d-7bc09b841b81", openOrders.get(0).getId());
+    assertSame(OrderType.SELL, openOrders.get(0).getType());
+    assertEquals(
+        openOrders.get(0).getCreationDate(),
+        Date.from(Instant.parse("2015-10-01T18:11:06.8470000Z")));
+    assertEquals(0, openOrders.get(0).getPrice().compareTo(new BigDecimal("255.59000000")));
+    assertEquals(0, openOrders.get(0).getQuantity().compareTo(new BigDecimal("0.01500000")));
+    assertEquals(
+        0, openOrders.get(0).getOriginalQuantity().compareTo(new BigDecimal("0.01500000")));
+    assertEquals(
+        0,
+        openOrders
+            .get(0)
+            .getTotal()
+            .compareTo(
+                openOrders.get(0).getPrice().multiply(openOrders.get(0).getOriginalQuantity())));
+
+    PowerMock.verifyAll();
+  }
+
   @Test(expected = ExchangeNetworkException.class)
   public void testGettingYourOpenOrdersHandlesExchangeNetworkException() throws Exception {
     final ItBitExchangeAdapter exchangeAdapter =
-        PowerMock.createPartialMock(
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
             ItBitExchangeAdapter.class, MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_METHOD);
 
     PowerMock.expectPrivate(
@@ -507,7 +578,7 @@ public class TestItBitExchangeAdapter extends AbstractExchangeAdapterTest {
   @Test(expected = TradingApiException.class)
   public void testGettingYourOpenOrdersHandlesUnexpectedException() throws Exception {
     final ItBitExchangeAdapter exchangeAdapter =
-        PowerMock.createPartialMock(
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
             ItBitExchangeAdapter.class, MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_METHOD);
 
     PowerMock.expectPrivate(
@@ -573,10 +644,55 @@ public class TestItBitExchangeAdapter extends AbstractExchangeAdapterTest {
     PowerMock.verifyAll();
   }
 
+  @Test
+  public void testGettingMarketOrdersAsynchronously() throws Exception {
+    final byte[] encoded = Files.readAllBytes(Paths.get(ORDER_BOOK_JSON_RESPONSE));
+    final AbstractExchangeAdapter.ExchangeHttpResponse exchangeResponse =
+        new AbstractExchangeAdapter.ExchangeHttpResponse(
+            200, "OK", new String(encoded, StandardCharsets.UTF_8));
+
+    final ItBitExchangeAdapter exchangeAdapter =
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
+            ItBitExchangeAdapter.class, MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_ASYNC_METHOD);
+    PowerMock.expectPrivate(
+            exchangeAdapter, MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_ASYNC_METHOD, ORDER_BOOK)
+        .andReturn(CompletableFuture.completedFuture(exchangeResponse));
+
+    PowerMock.replayAll();
+
+    exchangeAdapter.init(exchangeConfig);
+    final MarketOrderBook marketOrderBook = exchangeAdapter.getMarketOrdersAsync(MARKET_ID).get();
+
+    // assert some key stuff; we're not testing GSON here.
+    assertEquals(MARKET_ID, marketOrderBook.getMarketId());
+
+    final BigDecimal buyPrice = new BigDecimal("236.73");
+    final BigDecimal buyQuantity = new BigDecimal("0.03");
+    final BigDecimal buyTotal = buyPrice.multiply(buyQuantity);
+
+    assertEquals(159, marketOrderBook.getBuyOrders().size()); // itBit sends them all back!
+    assertSame(OrderType.BUY, marketOrderBook.getBuyOrders().get(0).getType());
+    assertEquals(0, marketOrderBook.getBuyOrders().get(0).getPrice().compareTo(buyPrice));
+    assertEquals(0, marketOrderBook.getBuyOrders().get(0).getQuantity().compareTo(buyQuantity));
+    assertEquals(0, marketOrderBook.getBuyOrders().get(0).getTotal().compareTo(buyTotal));
+
+    final BigDecimal sellPrice = new BigDecimal("236.84");
+    final BigDecimal sellQuantity = new BigDecimal("6.74");
+    final BigDecimal sellTotal = sellPrice.multiply(sellQuantity);
+
+    assertEquals(143, marketOrderBook.getSellOrders().size()); // itBit sends them all back!
+    assertSame(OrderType.SELL, marketOrderBook.getSellOrders().get(0).getType());
+    assertEquals(0, marketOrderBook.getSellOrders().get(0).getPrice().compareTo(sellPrice));
+    assertEquals(0, marketOrderBook.getSellOrders().get(0).getQuantity().compareTo(sellQuantity));
+    assertEquals(0, marketOrderBook.getSellOrders().get(0).getTotal().compareTo(sellTotal));
+
+    PowerMock.verifyAll();
+  }
+
   @Test(expected = ExchangeNetworkException.class)
   public void testGettingMarketOrdersHandlesExchangeNetworkException() throws Exception {
     final ItBitExchangeAdapter exchangeAdapter =
-        PowerMock.createPartialMock(
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
             ItBitExchangeAdapter.class, MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_METHOD);
     PowerMock.expectPrivate(
             exchangeAdapter, MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_METHOD, ORDER_BOOK)
@@ -638,7 +754,7 @@ public class TestItBitExchangeAdapter extends AbstractExchangeAdapterTest {
   @Test(expected = ExchangeNetworkException.class)
   public void testGettingLatestMarketPriceHandlesExchangeNetworkException() throws Exception {
     final ItBitExchangeAdapter exchangeAdapter =
-        PowerMock.createPartialMock(
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
             ItBitExchangeAdapter.class, MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_METHOD);
     PowerMock.expectPrivate(exchangeAdapter, MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_METHOD, TICKER)
         .andThrow(
@@ -659,7 +775,7 @@ public class TestItBitExchangeAdapter extends AbstractExchangeAdapterTest {
   @Test(expected = TradingApiException.class)
   public void testGettingLatestMarketPriceHandlesUnexpectedException() throws Exception {
     final ItBitExchangeAdapter exchangeAdapter =
-        PowerMock.createPartialMock(
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
             ItBitExchangeAdapter.class, MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_METHOD);
     PowerMock.expectPrivate(exchangeAdapter, MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_METHOD, TICKER)
         .andThrow(new IllegalArgumentException("The horror... the horror..."));
@@ -718,10 +834,55 @@ public class TestItBitExchangeAdapter extends AbstractExchangeAdapterTest {
     PowerMock.verifyAll();
   }
 
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testGettingBalanceInfoAsynchronously() throws Exception {
+    final byte[] encoded = Files.readAllBytes(Paths.get(WALLETS_JSON_RESPONSE));
+    final AbstractExchangeAdapter.ExchangeHttpResponse exchangeResponse =
+        new AbstractExchangeAdapter.ExchangeHttpResponse(
+            200, "Ok", new String(encoded, StandardCharsets.UTF_8));
+
+    final Map<String, String> requestParamMap = PowerMock.createMock(Map.class);
+    expect(requestParamMap.put(eq("userId"), anyString())).andStubReturn(null);
+
+    final ItBitExchangeAdapter exchangeAdapter =
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
+            ItBitExchangeAdapter.class,
+            MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_ASYNC_METHOD,
+            MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD);
+
+    PowerMock.expectPrivate(exchangeAdapter, MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD)
+        .andReturn(requestParamMap);
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_ASYNC_METHOD,
+            eq("GET"),
+            eq(WALLETS),
+            eq(requestParamMap))
+        .andReturn(CompletableFuture.completedFuture(exchangeResponse));
+
+    PowerMock.replayAll();
+
+    exchangeAdapter.init(exchangeConfig);
+    final BalanceInfo balanceInfo = exchangeAdapter.getBalanceInfoAsync().get();
+
+    // assert some key stuff; we're not testing GSON here.
+    assertEquals(
+        0, balanceInfo.getBalancesAvailable().get("XBT").compareTo(new BigDecimal("1.50000000")));
+    assertEquals(
+        0, balanceInfo.getBalancesAvailable().get("USD").compareTo(new BigDecimal("1000.9900000")));
+
+    // itBot does not provide "balances on hold" info.
+    assertNull(balanceInfo.getBalancesOnHold().get("BTC"));
+    assertNull(balanceInfo.getBalancesOnHold().get("USD"));
+
+    PowerMock.verifyAll();
+  }
+
   @Test(expected = ExchangeNetworkException.class)
   public void testGettingBalanceInfoHandlesExchangeNetworkException() throws Exception {
     final ItBitExchangeAdapter exchangeAdapter =
-        PowerMock.createPartialMock(
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
             ItBitExchangeAdapter.class, MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_METHOD);
     PowerMock.expectPrivate(
             exchangeAdapter,
@@ -739,7 +900,7 @@ public class TestItBitExchangeAdapter extends AbstractExchangeAdapterTest {
   @Test(expected = TradingApiException.class)
   public void testGettingBalanceInfoHandlesUnexpectedException() throws Exception {
     final ItBitExchangeAdapter exchangeAdapter =
-        PowerMock.createPartialMock(
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
             ItBitExchangeAdapter.class, MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_METHOD);
     PowerMock.expectPrivate(
             exchangeAdapter,
@@ -791,10 +952,41 @@ public class TestItBitExchangeAdapter extends AbstractExchangeAdapterTest {
     PowerMock.verifyAll();
   }
 
+  @Test
+  public void testGettingTickerAsynchronously() throws Exception {
+    final byte[] encoded = Files.readAllBytes(Paths.get(TICKER_JSON_RESPONSE));
+    final AbstractExchangeAdapter.ExchangeHttpResponse exchangeResponse =
+        new AbstractExchangeAdapter.ExchangeHttpResponse(
+            200, "OK", new String(encoded, StandardCharsets.UTF_8));
+
+    final ItBitExchangeAdapter exchangeAdapter =
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
+            ItBitExchangeAdapter.class, MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_ASYNC_METHOD);
+    PowerMock.expectPrivate(
+            exchangeAdapter, MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_ASYNC_METHOD, TICKER)
+        .andReturn(CompletableFuture.completedFuture(exchangeResponse));
+
+    PowerMock.replayAll();
+    exchangeAdapter.init(exchangeConfig);
+
+    final Ticker ticker = exchangeAdapter.getTickerAsync(MARKET_ID).get();
+    assertEquals(0, ticker.getLast().compareTo(new BigDecimal("237.70000000")));
+    assertEquals(0, ticker.getAsk().compareTo(new BigDecimal("237.84")));
+    assertEquals(0, ticker.getBid().compareTo(new BigDecimal("237.69")));
+    assertEquals(0, ticker.getHigh().compareTo(new BigDecimal("240.75000000")));
+    assertEquals(0, ticker.getLow().compareTo(new BigDecimal("236.60000000")));
+    assertEquals(0, ticker.getOpen().compareTo(new BigDecimal("239.43000000")));
+    assertEquals(0, ticker.getVolume().compareTo(new BigDecimal("13053.72170000")));
+    assertEquals(0, ticker.getVwap().compareTo(new BigDecimal("238.79044524")));
+    assertEquals(1443557593032L, (long) ticker.getTimestamp());
+
+    PowerMock.verifyAll();
+  }
+
   @Test(expected = ExchangeNetworkException.class)
   public void testGettingTickerHandlesExchangeNetworkException() throws Exception {
     final ItBitExchangeAdapter exchangeAdapter =
-        PowerMock.createPartialMock(
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
             ItBitExchangeAdapter.class, MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_METHOD);
     PowerMock.expectPrivate(exchangeAdapter, MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_METHOD, TICKER)
         .andThrow(
@@ -810,7 +1002,7 @@ public class TestItBitExchangeAdapter extends AbstractExchangeAdapterTest {
   @Test(expected = TradingApiException.class)
   public void testGettingTickerHandlesUnexpectedException() throws Exception {
     final ItBitExchangeAdapter exchangeAdapter =
-        PowerMock.createPartialMock(
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
             ItBitExchangeAdapter.class, MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_METHOD);
     PowerMock.expectPrivate(exchangeAdapter, MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_METHOD, TICKER)
         .andThrow(
@@ -1082,7 +1274,7 @@ public class TestItBitExchangeAdapter extends AbstractExchangeAdapterTest {
     final ItBitExchangeAdapter exchangeAdapter =
         PowerMock.createPartialMockAndInvokeDefaultConstructor(
             ItBitExchangeAdapter.class,
-            MOCKED_MAKE_NETWORK_REQUEST_METHOD,
+            MOCKED_MAKE_NETWORK_REQUEST_ASYNC_METHOD,
             MOCKED_CREATE_REQUEST_HEADER_MAP_METHOD,
             MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD,
             MOCKED_GET_BALANCE_INFO_METHOD);
@@ -1099,12 +1291,12 @@ public class TestItBitExchangeAdapter extends AbstractExchangeAdapterTest {
     final URL url = new URL(AUTHENTICATED_API_URL + NEW_ORDER);
     PowerMock.expectPrivate(
             exchangeAdapter,
-            MOCKED_MAKE_NETWORK_REQUEST_METHOD,
+            MOCKED_MAKE_NETWORK_REQUEST_ASYNC_METHOD,
             eq(url),
             eq("POST"),
             anyString(),
             eq(requestHeaderMap))
-        .andReturn(exchangeResponse);
+        .andReturn(CompletableFuture.completedFuture(exchangeResponse));
 
     PowerMock.replayAll();
     exchangeAdapter.init(exchangeConfig);
@@ -1149,7 +1341,7 @@ public class TestItBitExchangeAdapter extends AbstractExchangeAdapterTest {
     final ItBitExchangeAdapter exchangeAdapter =
         PowerMock.createPartialMockAndInvokeDefaultConstructor(
             ItBitExchangeAdapter.class,
-            MOCKED_MAKE_NETWORK_REQUEST_METHOD,
+            MOCKED_MAKE_NETWORK_REQUEST_ASYNC_METHOD,
             MOCKED_CREATE_REQUEST_HEADER_MAP_METHOD,
             MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD,
             MOCKED_GET_BALANCE_INFO_METHOD);
@@ -1166,14 +1358,16 @@ public class TestItBitExchangeAdapter extends AbstractExchangeAdapterTest {
     final URL url = new URL(AUTHENTICATED_API_URL + NEW_ORDER);
     PowerMock.expectPrivate(
             exchangeAdapter,
-            MOCKED_MAKE_NETWORK_REQUEST_METHOD,
+            MOCKED_MAKE_NETWORK_REQUEST_ASYNC_METHOD,
             eq(url),
             eq("POST"),
             anyString(),
             eq(requestHeaderMap))
-        .andThrow(
-            new ExchangeNetworkException(
-                "And a lie, Mr. Mulder, is most convincingly hidden between" + " two truths."));
+        .andReturn(
+            CompletableFuture.failedFuture(
+                new ExchangeNetworkException(
+                    "And a lie, Mr. Mulder, is most convincingly hidden between"
+                        + " two truths.")));
 
     PowerMock.replayAll();
     exchangeAdapter.init(exchangeConfig);
@@ -1216,7 +1410,7 @@ public class TestItBitExchangeAdapter extends AbstractExchangeAdapterTest {
     final ItBitExchangeAdapter exchangeAdapter =
         PowerMock.createPartialMockAndInvokeDefaultConstructor(
             ItBitExchangeAdapter.class,
-            MOCKED_MAKE_NETWORK_REQUEST_METHOD,
+            MOCKED_MAKE_NETWORK_REQUEST_ASYNC_METHOD,
             MOCKED_CREATE_REQUEST_HEADER_MAP_METHOD,
             MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD,
             MOCKED_GET_BALANCE_INFO_METHOD);
@@ -1233,12 +1427,14 @@ public class TestItBitExchangeAdapter extends AbstractExchangeAdapterTest {
     final URL url = new URL(AUTHENTICATED_API_URL + NEW_ORDER);
     PowerMock.expectPrivate(
             exchangeAdapter,
-            MOCKED_MAKE_NETWORK_REQUEST_METHOD,
+            MOCKED_MAKE_NETWORK_REQUEST_ASYNC_METHOD,
             eq(url),
             eq("POST"),
             anyString(),
             eq(requestHeaderMap))
-        .andThrow(new TradingApiException("Sorry, nobody down here but the FBI's most unwanted."));
+        .andReturn(
+            CompletableFuture.failedFuture(
+                new TradingApiException("Sorry, nobody down here but the FBI's most unwanted.")));
 
     PowerMock.replayAll();
     exchangeAdapter.init(exchangeConfig);
@@ -27,6 +27,7 @@ import static org.easymock.EasyMock.anyObject;
 import static org.easymock.EasyMock.anyString;
 import static org.easymock.EasyMock.eq;
 import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.getCurrentArguments;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
@@ -45,6 +46,7 @@ import com.gazbert.bxbot.trading.api.OpenOrder;
 import com.gazbert.bxbot.trading.api.OrderType;
 import com.gazbert.bxbot.trading.api.Ticker;
 import com.gazbert.bxbot.trading.api.TradingApiException;
+import com.google.gson.stream.JsonReader;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.net.URL;
@@ -52,10 +54,12 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.text.DecimalFormat;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -82,6 +86,8 @@ import org.powermock.modules.junit4.PowerMockRunner;
 public class TestKrakenExchangeAdapter extends AbstractExchangeAdapterTest {
 
   private static final String DEPTH_JSON_RESPONSE = "./src/test/exchange-data/kraken/Depth.json";
+  private static final String DEPTH_MULTI_JSON_RESPONSE =
+      "./src/test/exchange-data/kraken/Depth-multi.json";
   private static final String DEPTH_ERROR_JSON_RESPONSE =
       "./src/test/exchange-data/kraken/Depth-error.json";
   private static final String BALANCE_JSON_RESPONSE =
@@ -105,6 +111,10 @@ public class TestKrakenExchangeAdapter extends AbstractExchangeAdapterTest {
       "./src/test/exchange-data/kraken/CancelOrder.json";
   private static final String CANCEL_ORDER_ERROR_JSON_RESPONSE =
       "./src/test/exchange-data/kraken/CancelOrder-error.json";
+  private static final String OPEN_ORDERS_ONE_MARKET_JSON_RESPONSE =
+      "./src/test/exchange-data/kraken/OpenOrders-one-market.json";
+  private static final String CANCEL_ALL_JSON_RESPONSE =
+      "./src/test/exchange-data/kraken/CancelAll.json";
 
   private static final String DEPTH = "Depth";
   private static final String BALANCE = "Balance";
@@ -112,6 +122,7 @@ public class TestKrakenExchangeAdapter extends AbstractExchangeAdapterTest {
   private static final String OPEN_ORDERS = "OpenOrders";
   private static final String ADD_ORDER = "AddOrder";
   private static final String CANCEL_ORDER = "CancelOrder";
+  private static final String CANCEL_ALL = "CancelAll";
 
   // Market id must be the same as the Asset Pair id. See:
   // https://www.kraken.com/help/api#get-tradable-pairs
@@ -125,10 +136,18 @@ public class TestKrakenExchangeAdapter extends AbstractExchangeAdapterTest {
   private static final String MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD = "createRequestParamMap";
   private static final String MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_METHOD =
       "sendAuthenticatedRequestToExchange";
+  private static final String MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_ASYNC_METHOD =
+      "sendAuthenticatedRequestToExchangeAsync";
   private static final String MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_METHOD =
       "sendPublicRequestToExchange";
+  private static final String MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_ASYNC_METHOD =
+      "sendPublicRequestToExchangeAsync";
+  private static final String MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_STREAMING_METHOD =
+      "sendPublicRequestToExchangeStreaming";
   private static final String MOCKED_CREATE_REQUEST_HEADER_MAP_METHOD = "createHeaderParamMap";
   private static final String MOCKED_MAKE_NETWORK_REQUEST_METHOD = "makeNetworkRequest";
+  private static final String MOCKED_MAKE_NETWORK_REQUEST_ASYNC_METHOD =
+      "makeNetworkRequestAsync";
 
   private static final String KEY = "key123";
   private static final String SECRET = "notGonnaTellYa";
@@ -151,6 +170,7 @@ public class TestKrakenExchangeAdapter extends AbstractExchangeAdapterTest {
   private ExchangeConfig exchangeConfig;
   private AuthenticationConfig authenticationConfig;
   private NetworkConfig networkConfig;
+  private OtherConfig otherConfig;
 
   /**
    * Create some exchange config - the TradingEngine would normally do this.
@@ -165,11 +185,18 @@ public class TestKrakenExchangeAdapter extends AbstractExchangeAdapterTest {
     expect(networkConfig.getConnectionTimeout()).andReturn(30);
     expect(networkConfig.getNonFatalErrorCodes()).andReturn(nonFatalNetworkErrorCodes);
     expect(networkConfig.getNonFatalErrorMessages()).andReturn(nonFatalNetworkErrorMessages);
+    expect(networkConfig.getRateLimitConfig()).andReturn(null);
+    expect(networkConfig.getRetryConfig()).andReturn(null);
+    expect(networkConfig.getCircuitBreakerConfig()).andReturn(null);
+    expect(networkConfig.getTimeoutConfig()).andReturn(null);
+    expect(networkConfig.getHedgingConfig()).andReturn(null);
 
-    OtherConfig otherConfig = PowerMock.createMock(OtherConfig.class);
+    otherConfig = PowerMock.createMock(OtherConfig.class);
     expect(otherConfig.getItem("buy-fee")).andReturn("0.1");
     expect(otherConfig.getItem("sell-fee")).andReturn("0.2");
     expect(otherConfig.getItem("keep-alive-during-maintenance")).andReturn("false");
+    expect(otherConfig.getItem("streaming-order-book-parsing")).andReturn(null);
+    expect(otherConfig.getItem("nonce-file")).andReturn(null);
 
     exchangeConfig = PowerMock.createMock(ExchangeConfig.class);
     expect(exchangeConfig.getAuthenticationConfig()).andReturn(authenticationConfig);
@@ -242,6 +269,277 @@ public class TestKrakenExchangeAdapter extends AbstractExchangeAdapterTest {
     PowerMock.verifyAll();
   }
 
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testGettingMarketOrdersByStreamingSuccessfully() throws Exception {
+    // Mock out param map so we can assert the contents passed to the transport layer are what we
+    // expect.
+    final Map<String, String> requestParamMap = PowerMock.createMock(Map.class);
+    expect(requestParamMap.put("pair", MARKET_ID)).andStubReturn(null);
+
+    // Partial mock so we do not send stuff down the wire
+    final KrakenExchangeAdapter exchangeAdapter =
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
+            KrakenExchangeAdapter.class,
+            MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_STREAMING_METHOD,
+            MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD);
+
+    PowerMock.expectPrivate(exchangeAdapter, MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD)
+        .andReturn(requestParamMap);
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_STREAMING_METHOD,
+            eq(DEPTH),
+            eq(requestParamMap),
+            anyObject(AbstractExchangeAdapter.ExchangeResponseStreamParser.class))
+        .andAnswer(
+            () -> {
+              final AbstractExchangeAdapter.ExchangeResponseStreamParser<?> parser =
+                  (AbstractExchangeAdapter.ExchangeResponseStreamParser<?>)
+                      getCurrentArguments()[2];
+              try (JsonReader reader =
+                  new JsonReader(Files.newBufferedReader(Paths.get(DEPTH_JSON_RESPONSE)))) {
+                return parser.parse(reader);
+              }
+            });
+
+    PowerMock.reset(otherConfig);
+    expect(otherConfig.getItem("buy-fee")).andReturn("0.1");
+    expect(otherConfig.getItem("sell-fee")).andReturn("0.2");
+    expect(otherConfig.getItem("keep-alive-during-maintenance")).andReturn("false");
+    expect(otherConfig.getItem("streaming-order-book-parsing")).andReturn("true");
+    expect(otherConfig.getItem("nonce-file")).andReturn(null);
+
+    PowerMock.replayAll();
+    exchangeAdapter.init(exchangeConfig);
+
+    final MarketOrderBook marketOrderBook = exchangeAdapter.getMarketOrders(MARKET_ID);
+
+    // assert some key stuff parsed straight off the wire.
+    assertEquals(MARKET_ID, marketOrderBook.getMarketId());
+
+    final BigDecimal buyPrice = new BigDecimal("662.55000");
+    final BigDecimal buyQuantity = new BigDecimal("5.851");
+    final BigDecimal buyTotal = buyPrice.multiply(buyQuantity);
+
+    assertEquals(100, marketOrderBook.getBuyOrders().size());
+    assertSame(OrderType.BUY, marketOrderBook.getBuyOrders().get(0).getType());
+    assertEquals(0, marketOrderBook.getBuyOrders().get(0).getPrice().compareTo(buyPrice));
+    assertEquals(0, marketOrderBook.getBuyOrders().get(0).getQuantity().compareTo(buyQuantity));
+    assertEquals(0, marketOrderBook.getBuyOrders().get(0).getTotal().compareTo(buyTotal));
+
+    final BigDecimal sellPrice = new BigDecimal("664.53600");
+    final BigDecimal sellQuantity = new BigDecimal("0.888");
+    final BigDecimal sellTotal = sellPrice.multiply(sellQuantity);
+
+    assertEquals(100, marketOrderBook.getSellOrders().size());
+    assertSame(OrderType.SELL, marketOrderBook.getSellOrders().get(0).getType());
+    assertEquals(0, marketOrderBook.getSellOrders().get(0).getPrice().compareTo(sellPrice));
+    assertEquals(0, marketOrderBook.getSellOrders().get(0).getQuantity().compareTo(sellQuantity));
+    assertEquals(0, marketOrderBook.getSellOrders().get(0).getTotal().compareTo(sellTotal));
+
+    PowerMock.verifyAll();
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testGettingMarketOrdersToDepthPassesDepthToExchange() throws Exception {
+    final byte[] encoded = Files.readAllBytes(Paths.get(DEPTH_JSON_RESPONSE));
+    final AbstractExchangeAdapter.ExchangeHttpResponse exchangeResponse =
+        new AbstractExchangeAdapter.ExchangeHttpResponse(
+            200, "OK", new String(encoded, StandardCharsets.UTF_8));
+
+    final Map<String, String> requestParamMap = PowerMock.createMock(Map.class);
+    expect(requestParamMap.put("pair", MARKET_ID)).andReturn(null);
+    expect(requestParamMap.put("count", "10")).andReturn(null);
+
+    final KrakenExchangeAdapter exchangeAdapter =
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
+            KrakenExchangeAdapter.class,
+            MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_METHOD,
+            MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD);
+
+    PowerMock.expectPrivate(exchangeAdapter, MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD)
+        .andReturn(requestParamMap);
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_METHOD,
+            eq(DEPTH),
+            eq(requestParamMap))
+        .andReturn(exchangeResponse);
+
+    PowerMock.replayAll();
+    exchangeAdapter.init(exchangeConfig);
+
+    final MarketOrderBook marketOrderBook = exchangeAdapter.getMarketOrders(MARKET_ID, 10);
+
+    assertEquals(MARKET_ID, marketOrderBook.getMarketId());
+    assertEquals(
+        0, marketOrderBook.getBuyOrders().get(0).getPrice().compareTo(new BigDecimal("662.55000")));
+
+    PowerMock.verifyAll();
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testGettingMarketOrdersForSeveralMarketsInOneRequest() throws Exception {
+    final byte[] encoded = Files.readAllBytes(Paths.get(DEPTH_MULTI_JSON_RESPONSE));
+    final AbstractExchangeAdapter.ExchangeHttpResponse exchangeResponse =
+        new AbstractExchangeAdapter.ExchangeHttpResponse(
+            200, "OK", new String(encoded, StandardCharsets.UTF_8));
+
+    final Map<String, String> requestParamMap = PowerMock.createMock(Map.class);
+    expect(requestParamMap.put("pair", "ETHEUR,XBTUSD")).andReturn(null);
+
+    final KrakenExchangeAdapter exchangeAdapter =
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
+            KrakenExchangeAdapter.class,
+            MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_METHOD,
+            MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD);
+
+    PowerMock.expectPrivate(exchangeAdapter, MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD)
+        .andReturn(requestParamMap);
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_METHOD,
+            eq(DEPTH),
+            eq(requestParamMap))
+        .andReturn(exchangeResponse);
+
+    PowerMock.replayAll();
+    exchangeAdapter.init(exchangeConfig);
+
+    final Map<String, MarketOrderBook> marketOrderBooks =
+        exchangeAdapter.getMarketOrders(List.of("ETHEUR", MARKET_ID));
+
+    // Kraken's pair names (XETHZEUR, XXBTZUSD) are mapped back to the market ids asked for
+    assertEquals(List.of("ETHEUR", MARKET_ID), new ArrayList<>(marketOrderBooks.keySet()));
+
+    final MarketOrderBook ethOrderBook = marketOrderBooks.get("ETHEUR");
+    assertEquals("ETHEUR", ethOrderBook.getMarketId());
+    assertEquals(2, ethOrderBook.getBuyOrders().size());
+    assertEquals(1, ethOrderBook.getSellOrders().size());
+    assertEquals(
+        0, ethOrderBook.getBuyOrders().get(0).getPrice().compareTo(new BigDecimal("10.19100")));
+
+    final MarketOrderBook btcOrderBook = marketOrderBooks.get(MARKET_ID);
+    assertEquals(MARKET_ID, btcOrderBook.getMarketId());
+    assertEquals(2, btcOrderBook.getBuyOrders().size());
+    assertEquals(2, btcOrderBook.getSellOrders().size());
+    assertEquals(
+        0, btcOrderBook.getSellOrders().get(0).getPrice().compareTo(new BigDecimal("664.53600")));
+
+    PowerMock.verifyAll();
+  }
+
+  @Test(expected = TradingApiException.class)
+  @SuppressWarnings("unchecked")
+  public void testGettingMarketOrdersForSeveralMarketsFailsIfMarketMissingFromResponse()
+      throws Exception {
+    final Map<String, String> requestParamMap = PowerMock.createMock(Map.class);
+    expect(requestParamMap.put("pair", "LTCUSD,XBTUSD")).andReturn(null);
+
+    final KrakenExchangeAdapter exchangeAdapter =
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
+            KrakenExchangeAdapter.class,
+            MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_STREAMING_METHOD,
+            MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD);
+
+    PowerMock.expectPrivate(exchangeAdapter, MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD)
+        .andReturn(requestParamMap);
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_STREAMING_METHOD,
+            eq(DEPTH),
+            eq(requestParamMap),
+            anyObject(AbstractExchangeAdapter.ExchangeResponseStreamParser.class))
+        .andAnswer(
+            () -> {
+              final AbstractExchangeAdapter.ExchangeResponseStreamParser<?> parser =
+                  (AbstractExchangeAdapter.ExchangeResponseStreamParser<?>)
+                      getCurrentArguments()[2];
+              try (JsonReader reader =
+                  new JsonReader(Files.newBufferedReader(Paths.get(DEPTH_MULTI_JSON_RESPONSE)))) {
+                return parser.parse(reader);
+              }
+            });
+
+    PowerMock.reset(otherConfig);
+    expect(otherConfig.getItem("buy-fee")).andReturn("0.1");
+    expect(otherConfig.getItem("sell-fee")).andReturn("0.2");
+    expect(otherConfig.getItem("keep-alive-during-maintenance")).andReturn("false");
+    expect(otherConfig.getItem("streaming-order-book-parsing")).andReturn("true");
+    expect(otherConfig.getItem("nonce-file")).andReturn(null);
+
+    PowerMock.replayAll();
+    exchangeAdapter.init(exchangeConfig);
+
+    exchangeAdapter.getMarketOrders(List.of("LTCUSD", MARKET_ID));
+
+    PowerMock.verifyAll();
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testGettingMarketOrdersAsynchronously() throws Exception {
+    // Load the canned response from the exchange
+    final byte[] encoded = Files.readAllBytes(Paths.get(DEPTH_JSON_RESPONSE));
+    final AbstractExchangeAdapter.ExchangeHttpResponse exchangeResponse =
+        new AbstractExchangeAdapter.ExchangeHttpResponse(
+            200, "OK", new String(encoded, StandardCharsets.UTF_8));
+
+    // Mock out param map so we can assert the contents passed to the transport layer are what we
+    // expect.
+    final Map<String, String> requestParamMap = PowerMock.createMock(Map.class);
+    expect(requestParamMap.put("pair", MARKET_ID)).andStubReturn(null);
+
+    // Partial mock so we do not send stuff down the wire
+    final KrakenExchangeAdapter exchangeAdapter =
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
+            KrakenExchangeAdapter.class,
+            MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_ASYNC_METHOD,
+            MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD);
+
+    PowerMock.expectPrivate(exchangeAdapter, MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD)
+        .andReturn(requestParamMap);
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_ASYNC_METHOD,
+            eq(DEPTH),
+            eq(requestParamMap))
+        .andReturn(CompletableFuture.completedFuture(exchangeResponse));
+
+    PowerMock.replayAll();
+    exchangeAdapter.init(exchangeConfig);
+
+    final MarketOrderBook marketOrderBook = exchangeAdapter.getMarketOrdersAsync(MARKET_ID).get();
+
+    // assert some key stuff; we're not testing GSON here.
+    // assertTrue(marketOrderBook.getMarketId().equals(MARKET_ID));
+
+    final BigDecimal buyPrice = new BigDecimal("662.55000");
+    final BigDecimal buyQuantity = new BigDecimal("5.851");
+    final BigDecimal buyTotal = buyPrice.multiply(buyQuantity);
+
+    assertEquals(100, marketOrderBook.getBuyOrders().size());
+    assertSame(OrderType.BUY, marketOrderBook.getBuyOrders().get(0).getType());
+    assertEquals(0, marketOrderBook.getBuyOrders().get(0).getPrice().compareTo(buyPrice));
+    assertEquals(0, marketOrderBook.getBuyOrders().get(0).getQuantity().compareTo(buyQuantity));
+    assertEquals(0, marketOrderBook.getBuyOrders().get(0).getTotal().compareTo(buyTotal));
+
+    final BigDecimal sellPrice = new BigDecimal("664.53600");
+    final BigDecimal sellQuantity = new BigDecimal("0.888");
+    final BigDecimal sellTotal = sellPrice.multiply(sellQuantity);
+
+    assertEquals(100, marketOrderBook.getSellOrders().size());
+    assertSame(OrderType.SELL, marketOrderBook.getSellOrders().get(0).getType());
+    assertEquals(0, marketOrderBook.getSellOrders().get(0).getPrice().compareTo(sellPrice));
+    assertEquals(0, marketOrderBook.getSellOrders().get(0).getQuantity().compareTo(sellQuantity));
+    assertEquals(0, marketOrderBook.getSellOrders().get(0).getTotal().compareTo(sellTotal));
+
+    PowerMock.verifyAll();
+  }
+
   @Test(expected = TradingApiException.class)
   @SuppressWarnings("unchecked")
   public void testGettingMarketOrdersHandlesErrorResponse() throws Exception {
@@ -275,6 +573,51 @@ public class TestKrakenExchangeAdapter extends AbstractExchangeAdapterTest {
     PowerMock.verifyAll();
   }
 
+  @Test(expected = TradingApiException.class)
+  @SuppressWarnings("unchecked")
+  public void testGettingMarketOrdersByStreamingHandlesErrorResponse() throws Exception {
+    final Map<String, String> requestParamMap = PowerMock.createMock(Map.class);
+    expect(requestParamMap.put("pair", MARKET_ID)).andStubReturn(null);
+
+    final KrakenExchangeAdapter exchangeAdapter =
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
+            KrakenExchangeAdapter.class,
+            MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_STREAMING_METHOD,
+            MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD);
+
+    PowerMock.expectPrivate(exchangeAdapter, MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD)
+        .andReturn(requestParamMap);
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_STREAMING_METHOD,
+            eq(DEPTH),
+            eq(requestParamMap),
+            anyObject(AbstractExchangeAdapter.ExchangeResponseStreamParser.class))
+        .andAnswer(
+            () -> {
+              final AbstractExchangeAdapter.ExchangeResponseStreamParser<?> parser =
+                  (AbstractExchangeAdapter.ExchangeResponseStreamParser<?>)
+                      getCurrentArguments()[2];
+              try (JsonReader reader =
+                  new JsonReader(Files.newBufferedReader(Paths.get(DEPTH_ERROR_JSON_RESPONSE)))) {
+                return parser.parse(reader);
+              }
+            });
+
+    PowerMock.reset(otherConfig);
+    expect(otherConfig.getItem("buy-fee")).andReturn("0.1");
+    expect(otherConfig.getItem("sell-fee")).andReturn("0.2");
+    expect(otherConfig.getItem("keep-alive-during-maintenance")).andReturn("false");
+    expect(otherConfig.getItem("streaming-order-book-parsing")).andReturn("true");
+    expect(otherConfig.getItem("nonce-file")).andReturn(null);
+
+    PowerMock.replayAll();
+    exchangeAdapter.init(exchangeConfig);
+
+    exchangeAdapter.getMarketOrders(MARKET_ID);
+    PowerMock.verifyAll();
+  }
+
   @Test(expected = ExchangeNetworkException.class)
   public void testGettingMarketOrdersHandlesExchangeNetworkException() throws Exception {
     final KrakenExchangeAdapter exchangeAdapter =
@@ -369,6 +712,52 @@ public class TestKrakenExchangeAdapter extends AbstractExchangeAdapterTest {
     PowerMock.verifyAll();
   }
 
+  @Test
+  public void testGettingYourOpenOrdersAsynchronously() throws Exception {
+    final byte[] encoded = Files.readAllBytes(Paths.get(OPEN_ORDERS_JSON_RESPONSE));
+    final AbstractExchangeAdapter.ExchangeHttpResponse exchangeResponse =
+        new AbstractExchangeAdapter.ExchangeHttpResponse(
+            200, "OK", new String(encoded, StandardCharsets.UTF_8));
+
+    final KrakenExchangeAdapter exchangeAdapter =
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
+            KrakenExchangeAdapter.class,
+            MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_ASYNC_METHOD,
+            MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD);
+
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_ASYNC_METHOD,
+            eq(OPEN_ORDERS),
+            eq(null))
+        .andReturn(CompletableFuture.completedFuture(exchangeResponse));
+
+    PowerMock.replayAll();
+    exchangeAdapter.init(exchangeConfig);
+
+    final List<OpenOrder> openOrders = exchangeAdapter.getYourOpenOrdersAsync(MARKET_ID).get();
+
+    // assert some key stuff; we're not testing GSON here.
+    assertEquals(2, openOrders.size());
+    assertEquals(MARKET_ID, openOrders.get(0).getMarketId());
+    assertEquals("OZUVVF-XEJUB-BOWOFO", openOrders.get(0).getId());
+    assertSame(OrderType.SELL, openOrders.get(0).getType());
+    assertEquals(1469653618L, openOrders.get(0).getCreationDate().getTime());
+    assertEquals(0, openOrders.get(0).getPrice().compareTo(new BigDecimal("699.100")));
+    assertEquals(0, openOrders.get(0).getQuantity().compareTo(new BigDecimal("0.006")));
+    assertEquals(
+        0,
+        openOrders
+            .get(0)
+            .getTotal()
+            .compareTo(
+                openOrders.get(0).getPrice().multiply(openOrders.get(0).getOriginalQuantity())));
+    assertEquals(
+        0, openOrders.get(0).getOriginalQuantity().compareTo(new BigDecimal("0.01000000")));
+
+    PowerMock.verifyAll();
+  }
+
   @Test(expected = TradingApiException.class)
   public void testGettingYourOpenOrdersExchangeErrorResponse() throws Exception {
     final byte[] encoded = Files.readAllBytes(Paths.get(OPEN_ORDERS_ERROR_JSON_RESPONSE));
@@ -715,6 +1104,113 @@ public class TestKrakenExchangeAdapter extends AbstractExchangeAdapterTest {
     PowerMock.verifyAll();
   }
 
+  @Test
+  public void testCancelAllOrdersUsesCancelAllWhenAllOpenOrdersAreOnMarket() throws Exception {
+    final byte[] openOrders = Files.readAllBytes(Paths.get(OPEN_ORDERS_ONE_MARKET_JSON_RESPONSE));
+    final byte[] cancelAll = Files.readAllBytes(Paths.get(CANCEL_ALL_JSON_RESPONSE));
+
+    final KrakenExchangeAdapter exchangeAdapter =
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
+            KrakenExchangeAdapter.class, MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_METHOD);
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_METHOD,
+            eq(OPEN_ORDERS),
+            eq(null))
+        .andReturn(
+            new AbstractExchangeAdapter.ExchangeHttpResponse(
+                200, "OK", new String(openOrders, StandardCharsets.UTF_8)));
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_METHOD,
+            eq(CANCEL_ALL),
+            eq(null))
+        .andReturn(
+            new AbstractExchangeAdapter.ExchangeHttpResponse(
+                200, "OK", new String(cancelAll, StandardCharsets.UTF_8)));
+
+    PowerMock.replayAll();
+    exchangeAdapter.init(exchangeConfig);
+
+    assertEquals(2, exchangeAdapter.cancelAllOrders(MARKET_ID));
+
+    PowerMock.verifyAll();
+  }
+
+  @Test
+  public void testCancelAllOrdersCancelsMarketOrdersWhenOtherMarketsHaveOpenOrders()
+      throws Exception {
+    final byte[] openOrders = Files.readAllBytes(Paths.get(OPEN_ORDERS_JSON_RESPONSE));
+    final byte[] cancelOrder = Files.readAllBytes(Paths.get(CANCEL_ORDER_JSON_RESPONSE));
+
+    final KrakenExchangeAdapter exchangeAdapter =
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
+            KrakenExchangeAdapter.class, MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_METHOD);
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_METHOD,
+            eq(OPEN_ORDERS),
+            eq(null))
+        .andReturn(
+            new AbstractExchangeAdapter.ExchangeHttpResponse(
+                200, "OK", new String(openOrders, StandardCharsets.UTF_8)));
+    // the XBTEUR order must be left alone, so CancelAll is not used
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_METHOD,
+            eq(CANCEL_ORDER),
+            anyObject(Map.class))
+        .andReturn(
+            new AbstractExchangeAdapter.ExchangeHttpResponse(
+                200, "OK", new String(cancelOrder, StandardCharsets.UTF_8)))
+        .times(2);
+
+    PowerMock.replayAll();
+    exchangeAdapter.init(exchangeConfig);
+
+    assertEquals(2, exchangeAdapter.cancelAllOrders(MARKET_ID));
+
+    PowerMock.verifyAll();
+  }
+
+  @Test
+  public void testCancelAllOrdersOnSeveralMarketsFetchesOpenOrdersOnceAndUsesCancelAll()
+      throws Exception {
+    final byte[] openOrders = Files.readAllBytes(Paths.get(OPEN_ORDERS_JSON_RESPONSE));
+    final byte[] cancelAll = Files.readAllBytes(Paths.get(CANCEL_ALL_JSON_RESPONSE));
+
+    final KrakenExchangeAdapter exchangeAdapter =
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
+            KrakenExchangeAdapter.class, MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_METHOD);
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_METHOD,
+            eq(OPEN_ORDERS),
+            eq(null))
+        .andReturn(
+            new AbstractExchangeAdapter.ExchangeHttpResponse(
+                200, "OK", new String(openOrders, StandardCharsets.UTF_8)));
+    // all the open orders are on the given markets, so one CancelAll clears them
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_METHOD,
+            eq(CANCEL_ALL),
+            eq(null))
+        .andReturn(
+            new AbstractExchangeAdapter.ExchangeHttpResponse(
+                200, "OK", new String(cancelAll, StandardCharsets.UTF_8)));
+
+    PowerMock.replayAll();
+    exchangeAdapter.init(exchangeConfig);
+
+    final Map<String, Integer> cancelledCounts =
+        exchangeAdapter.cancelAllOrders(Arrays.asList(MARKET_ID, "XBTEUR"));
+    assertEquals(Integer.valueOf(2), cancelledCounts.get(MARKET_ID));
+    assertEquals(Integer.valueOf(1), cancelledCounts.get("XBTEUR"));
+
+    PowerMock.verifyAll();
+  }
+
   // --------------------------------------------------------------------------
   //  Get Balance Info tests
   // --------------------------------------------------------------------------
@@ -756,6 +1252,44 @@ public class TestKrakenExchangeAdapter extends AbstractExchangeAdapterTest {
     PowerMock.verifyAll();
   }
 
+  @Test
+  public void testGettingBalanceInfoAsynchronously() throws Exception {
+    final byte[] encoded = Files.readAllBytes(Paths.get(BALANCE_JSON_RESPONSE));
+    final AbstractExchangeAdapter.ExchangeHttpResponse exchangeResponse =
+        new AbstractExchangeAdapter.ExchangeHttpResponse(
+            200, "OK", new String(encoded, StandardCharsets.UTF_8));
+
+    final KrakenExchangeAdapter exchangeAdapter =
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
+            KrakenExchangeAdapter.class,
+            MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_ASYNC_METHOD);
+
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_AUTHENTICATED_REQUEST_TO_EXCHANGE_ASYNC_METHOD,
+            eq(BALANCE),
+            eq(null))
+        .andReturn(CompletableFuture.completedFuture(exchangeResponse));
+
+    PowerMock.replayAll();
+    exchangeAdapter.init(exchangeConfig);
+
+    final BalanceInfo balanceInfo = exchangeAdapter.getBalanceInfoAsync().get();
+
+    // assert some key stuff; we're not testing GSON here.
+    assertEquals(
+        0,
+        balanceInfo.getBalancesAvailable().get("XXBT").compareTo(new BigDecimal("1.1000000000")));
+    assertEquals(
+        0, balanceInfo.getBalancesAvailable().get("ZUSD").compareTo(new BigDecimal("1000.12")));
+
+    // Kraken does not provide on-hold balances
+    assertNull(balanceInfo.getBalancesOnHold().get("XXBT"));
+    assertNull(balanceInfo.getBalancesOnHold().get("ZUSD"));
+
+    PowerMock.verifyAll();
+  }
+
   @Test(expected = TradingApiException.class)
   public void testGettingBalanceInfoHandlesExchangeErrorResponse() throws Exception {
     final byte[] encoded = Files.readAllBytes(Paths.get(BALANCE_ERROR_JSON_RESPONSE));
@@ -979,6 +1513,49 @@ public class TestKrakenExchangeAdapter extends AbstractExchangeAdapterTest {
     PowerMock.verifyAll();
   }
 
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testGettingTickerAsynchronously() throws Exception {
+    final byte[] encoded = Files.readAllBytes(Paths.get(TICKER_JSON_RESPONSE));
+    final AbstractExchangeAdapter.ExchangeHttpResponse exchangeResponse =
+        new AbstractExchangeAdapter.ExchangeHttpResponse(
+            200, "OK", new String(encoded, StandardCharsets.UTF_8));
+
+    final Map<String, String> requestParamMap = PowerMock.createMock(Map.class);
+    expect(requestParamMap.put("pair", MARKET_ID)).andStubReturn(null);
+
+    final KrakenExchangeAdapter exchangeAdapter =
+        PowerMock.createPartialMockAndInvokeDefaultConstructor(
+            KrakenExchangeAdapter.class,
+            MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_ASYNC_METHOD,
+            MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD);
+
+    PowerMock.expectPrivate(exchangeAdapter, MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD)
+        .andReturn(requestParamMap);
+    PowerMock.expectPrivate(
+            exchangeAdapter,
+            MOCKED_SEND_PUBLIC_REQUEST_TO_EXCHANGE_ASYNC_METHOD,
+            eq(TICKER),
+            eq(requestParamMap))
+        .andReturn(CompletableFuture.completedFuture(exchangeResponse));
+
+    PowerMock.replayAll();
+    exchangeAdapter.init(exchangeConfig);
+
+    final Ticker ticker = exchangeAdapter.getTickerAsync(MARKET_ID).get();
+    assertEquals(0, ticker.getLast().compareTo(new BigDecimal("657.99900")));
+    assertEquals(0, ticker.getAsk().compareTo(new BigDecimal("657.99900")));
+    assertEquals(0, ticker.getBid().compareTo(new BigDecimal("655.20100")));
+    assertEquals(0, ticker.getHigh().compareTo(new BigDecimal("659.13000")));
+    assertEquals(0, ticker.getLow().compareTo(new BigDecimal("642.50000")));
+    assertEquals(0, ticker.getOpen().compareTo(new BigDecimal("651.73600")));
+    assertEquals(0, ticker.getVolume().compareTo(new BigDecimal("1152.99666422")));
+    assertEquals(0, ticker.getVwap().compareTo(new BigDecimal("652.64807")));
+    assertNull(ticker.getTimestamp()); // timestamp not supplied by Kraken
+
+    PowerMock.verifyAll();
+  }
+
   @Test(expected = TradingApiException.class)
   public void testGettingTickerHandlesExchangeErrorResponse() throws Exception {
     final byte[] encoded = Files.readAllBytes(Paths.get(TICKER_ERROR_JSON_RESPONSE));
@@ -1280,7 +1857,7 @@ public class TestKrakenExchangeAdapter extends AbstractExchangeAdapterTest {
     final KrakenExchangeAdapter exchangeAdapter =
         PowerMock.createPartialMockAndInvokeDefaultConstructor(
             KrakenExchangeAdapter.class,
-            MOCKED_MAKE_NETWORK_REQUEST_METHOD,
+            MOCKED_MAKE_NETWORK_REQUEST_ASYNC_METHOD,
             MOCKED_CREATE_REQUEST_HEADER_MAP_METHOD,
             MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD);
     PowerMock.expectPrivate(exchangeAdapter, MOCKED_CREATE_REQUEST_HEADER_MAP_METHOD)
@@ -1291,12 +1868,12 @@ public class TestKrakenExchangeAdapter extends AbstractExchangeAdapterTest {
     final URL url = new URL(AUTHENTICATED_API_URL + ADD_ORDER);
     PowerMock.expectPrivate(
             exchangeAdapter,
-            MOCKED_MAKE_NETWORK_REQUEST_METHOD,
+            MOCKED_MAKE_NETWORK_REQUEST_ASYNC_METHOD,
             eq(url),
             eq("POST"),
             anyString(),
             eq(requestHeaderMap))
-        .andReturn(exchangeResponse);
+        .andReturn(CompletableFuture.completedFuture(exchangeResponse));
 
     PowerMock.replayAll();
     exchangeAdapter.init(exchangeConfig);
@@ -1341,7 +1918,7 @@ public class TestKrakenExchangeAdapter extends AbstractExchangeAdapterTest {
     final KrakenExchangeAdapter exchangeAdapter =
         PowerMock.createPartialMockAndInvokeDefaultConstructor(
             KrakenExchangeAdapter.class,
-            MOCKED_MAKE_NETWORK_REQUEST_METHOD,
+            MOCKED_MAKE_NETWORK_REQUEST_ASYNC_METHOD,
             MOCKED_CREATE_REQUEST_HEADER_MAP_METHOD,
             MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD);
     PowerMock.expectPrivate(exchangeAdapter, MOCKED_CREATE_REQUEST_HEADER_MAP_METHOD)
@@ -1352,12 +1929,14 @@ public class TestKrakenExchangeAdapter extends AbstractExchangeAdapterTest {
     final URL url = new URL(AUTHENTICATED_API_URL + ADD_ORDER);
     PowerMock.expectPrivate(
             exchangeAdapter,
-            MOCKED_MAKE_NETWORK_REQUEST_METHOD,
+            MOCKED_MAKE_NETWORK_REQUEST_ASYNC_METHOD,
             eq(url),
             eq("POST"),
             anyString(),
             eq(requestHeaderMap))
-        .andThrow(new ExchangeNetworkException("How may a mortal man face and defeat the Kraken?"));
+        .andReturn(
+            CompletableFuture.failedFuture(
+                new ExchangeNetworkException("How may a mortal man face and defeat the Kraken?")));
 
     PowerMock.replayAll();
     exchangeAdapter.init(exchangeConfig);
@@ -1399,7 +1978,7 @@ public class TestKrakenExchangeAdapter extends AbstractExchangeAdapterTest {
     final KrakenExchangeAdapter exchangeAdapter =
         PowerMock.createPartialMockAndInvokeDefaultConstructor(
             KrakenExchangeAdapter.class,
-            MOCKED_MAKE_NETWORK_REQUEST_METHOD,
+            MOCKED_MAKE_NETWORK_REQUEST_ASYNC_METHOD,
             MOCKED_CREATE_REQUEST_HEADER_MAP_METHOD,
             MOCKED_CREATE_REQUEST_PARAM_MAP_METHOD);
     PowerMock.expectPrivate(exchangeAdapter, MOCKED_CREATE_REQUEST_HEADER_MAP_METHOD)
@@ -1410,18 +1989,19 @@ public class TestKrakenExchangeAdapter extends AbstractExchangeAdapterTest {
     final URL url = new URL(AUTHENTICATED_API_URL + ADD_ORDER);
     PowerMock.expectPrivate(
             exchangeAdapter,
-            MOCKED_MAKE_NETWORK_REQUEST_METHOD,
+            MOCKED_MAKE_NETWORK_REQUEST_ASYNC_METHOD,
             eq(url),
             eq("POST"),
             anyString(),
             eq(requestHeaderMap))
-        .andThrow(
-            new TradingApiException(
-                "Below the thunders of the upper deep;\n"
-                    + "Far far beneath in the abysmal sea,\n"
-                    + "His ancient, dreamless, uninvaded sleep\n"
-                    + "The Kraken sleepeth: faintest sunlights flee\n"
-                    + "About his shadowy sides; above him swell..."));
+        .andReturn(
+            CompletableFuture.failedFuture(
+                new TradingApiException(
+                    "Below the thunders of the upper deep;\n"
+                        + "Far far beneath in the abysmal sea,\n"
+                        + "His ancient, dreamless, uninvaded sleep\n"
+                        + "The Kraken sleepeth: faintest sunlights flee\n"
+                        + "About his shadowy sides; above him swell...")));
 
     PowerMock.replayAll();
     exchangeAdapter.init(exchangeConfig);
@@ -0,0 +1,118 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.exchanges;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the Nonce Provider behaves as expected.
+ *
+ * @author gazbert
+ */
+public class TestNonceProvider {
+
+  private long now;
+  private Path nonceFile;
+
+  /** Sets the fake clock and creates a nonce file. */
+  @Before
+  public void setupBeforeEachTest() throws Exception {
+    now = 1_000L;
+    nonceFile = Files.createTempFile("bxbot-nonce", ".dat");
+  }
+
+  /** Deletes the nonce file. */
+  @After
+  public void tearDownAfterEachTest() throws Exception {
+    Files.deleteIfExists(nonceFile);
+  }
+
+  @Test
+  public void testNoncesFollowTheClock() {
+    final NonceProvider nonceProvider = NonceProvider.create(() -> now);
+    assertEquals(1_000L, nonceProvider.next());
+    now = 5_000L;
+    assertEquals(5_000L, nonceProvider.next());
+  }
+
+  @Test
+  public void testNoncesIncreaseWhenClockStallsOrGoesBackwards() {
+    final NonceProvider nonceProvider = NonceProvider.create(() -> now);
+    assertEquals(1_000L, nonceProvider.next());
+    assertEquals(1_001L, nonceProvider.next());
+    now = 500L;
+    assertEquals(1_002L, nonceProvider.next());
+  }
+
+  @Test
+  public void testWallClockNoncesAreInRequestedUnit() {
+    final long before = System.currentTimeMillis();
+    final long nonce = NonceProvider.create(TimeUnit.MILLISECONDS).next();
+    assertTrue(nonce >= before && nonce <= System.currentTimeMillis() + 1);
+  }
+
+  @Test
+  public void testConcurrentCallersGetUniqueNonces() throws Exception {
+    final NonceProvider nonceProvider = NonceProvider.create(() -> now);
+    final Set<Long> nonces = ConcurrentHashMap.newKeySet();
+
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    for (int i = 0; i < 4_000; i++) {
+      executor.execute(() -> nonces.add(nonceProvider.next()));
+    }
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+    assertEquals(4_000, nonces.size());
+  }
+
+  @Test
+  public void testPersistedNoncesIncreaseAcrossRestart() throws Exception {
+    final NonceProvider firstRun = NonceProvider.create(() -> now, nonceFile);
+    for (int i = 0; i < 100; i++) {
+      firstRun.next(); // run ahead of the clock
+    }
+    assertEquals(1_100L, firstRun.next());
+
+    // restarted with the clock behind the last nonce
+    final NonceProvider secondRun = NonceProvider.create(() -> now, nonceFile);
+    assertEquals(1_101L, secondRun.next());
+
+    // restarted with the clock ahead of the last nonce
+    now = 2_000L;
+    assertEquals(2_000L, NonceProvider.create(() -> now, nonceFile).next());
+  }
+}
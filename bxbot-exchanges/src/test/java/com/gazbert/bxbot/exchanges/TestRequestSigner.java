@@ -0,0 +1,164 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.exchanges;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.junit.Test;
+
+/**
+ * Tests the Request Signer behaves as expected.
+ *
+ * @author gazbert
+ */
+public class TestRequestSigner {
+
+  private static final byte[] SECRET = "Jefe".getBytes(StandardCharsets.UTF_8);
+
+  // HMAC-SHA256 test case 2 from RFC 4231
+  private static final String RFC_4231_DATA = "what do ya want for nothing?";
+  private static final String RFC_4231_HMAC_SHA256 =
+      "5bdcc146bf60754e6a042426089575c75a003f089d2739839dec58b964ec3843";
+
+  @Test
+  public void testSignMatchesKnownHmac() throws Exception {
+    final RequestSigner requestSigner = RequestSigner.create("HmacSHA256", SECRET);
+    assertEquals(RFC_4231_HMAC_SHA256, RequestSigner.toHex(requestSigner.sign(RFC_4231_DATA)));
+    // signer must be reset after each call
+    assertEquals(RFC_4231_HMAC_SHA256, RequestSigner.toHex(requestSigner.sign(RFC_4231_DATA)));
+  }
+
+  @Test
+  public void testSignPartsIsSameAsSigningConcatenatedText() throws Exception {
+    final RequestSigner requestSigner = RequestSigner.create("HmacSHA256", SECRET);
+    assertEquals(
+        RFC_4231_HMAC_SHA256,
+        RequestSigner.toHex(requestSigner.sign("what do ya ", "want for ", "nothing?")));
+  }
+
+  @Test
+  public void testSignLargeAndNonAsciiText() throws Exception {
+    // e acute, euro sign, and an emoji made of a surrogate pair
+    final String nonAscii = new String(new char[] {0xe9, 0x20ac, 0xd83d, 0xde00});
+    final StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 1000; i++) {
+      text.append("price=0.00").append(i).append("&note=").append(nonAscii).append(';');
+    }
+
+    final RequestSigner requestSigner = RequestSigner.create("HmacSHA512", SECRET);
+    assertArrayEquals(
+        hmac("HmacSHA512", text.toString().getBytes(StandardCharsets.UTF_8)),
+        requestSigner.sign(text));
+  }
+
+  @Test
+  public void testSignTextFollowedByMessageHash() throws Exception {
+    final RequestSigner requestSigner =
+        RequestSigner.create("HmacSHA512", SECRET, "SHA-256");
+
+    final byte[] messageHash = requestSigner.digest("1234567890", "pair=XXBTZUSD&nonce=1");
+    assertArrayEquals(
+        MessageDigest.getInstance("SHA-256")
+            .digest("1234567890pair=XXBTZUSD&nonce=1".getBytes(StandardCharsets.UTF_8)),
+        messageHash);
+
+    final byte[] path = "/0/private/Balance".getBytes(StandardCharsets.UTF_8);
+    final byte[] expected = new byte[path.length + messageHash.length];
+    System.arraycopy(path, 0, expected, 0, path.length);
+    System.arraycopy(messageHash, 0, expected, path.length, messageHash.length);
+    assertArrayEquals(
+        hmac("HmacSHA512", expected), requestSigner.sign("/0/private/Balance", messageHash));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testDigestFailsIfSignerHasNoDigestAlgorithm() throws Exception {
+    RequestSigner.create("HmacSHA256", SECRET).digest("some text");
+  }
+
+  @Test
+  public void testDigestOnlySigner() throws Exception {
+    final RequestSigner requestSigner = RequestSigner.createDigest("MD5");
+    assertArrayEquals(
+        MessageDigest.getInstance("MD5")
+            .digest("amount=1.0&secret_key=secretKey".getBytes(StandardCharsets.UTF_8)),
+        requestSigner.digest("amount=1.0&secret_key=secretKey"));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testSignFailsIfSignerHasNoMacAlgorithm() throws Exception {
+    RequestSigner.createDigest("MD5").sign("some text");
+  }
+
+  @Test
+  public void testToHex() {
+    assertEquals("00017f80ff", RequestSigner.toHex(new byte[] {0, 1, 127, -128, -1}));
+    assertEquals("", RequestSigner.toHex(new byte[0]));
+  }
+
+  @Test
+  public void testConcurrentSigningGivesSameResultsAsSingleThreaded() throws Exception {
+    final RequestSigner requestSigner = RequestSigner.create("HmacSHA384", SECRET, "SHA-256");
+
+    final ExecutorService executor = Executors.newFixedThreadPool(8);
+    final List<Future<Boolean>> results = new ArrayList<>();
+    for (int i = 0; i < 2_000; i++) {
+      final String payload = "{\"request\":\"/v1/order/new\",\"nonce\":\"" + i + "\"}";
+      final Callable<Boolean> signAndCheck =
+          () -> {
+            final String base64Payload =
+                Base64.getEncoder().encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+            final byte[] expected =
+                hmac("HmacSHA384", base64Payload.getBytes(StandardCharsets.UTF_8));
+            return MessageDigest.isEqual(expected, requestSigner.sign(base64Payload));
+          };
+      results.add(executor.submit(signAndCheck));
+    }
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+    for (final Future<Boolean> result : results) {
+      assertTrue(result.get());
+    }
+  }
+
+  private static byte[] hmac(String algorithm, byte[] data) throws Exception {
+    final Mac mac = Mac.getInstance(algorithm);
+    mac.init(new SecretKeySpec(SECRET, algorithm));
+    return mac.doFinal(data);
+  }
+}
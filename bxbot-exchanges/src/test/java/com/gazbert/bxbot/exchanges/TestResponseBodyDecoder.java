@@ -0,0 +1,147 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.exchanges;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import com.gazbert.bxbot.exchanges.HttpTransportStatistics.ResponseByteCounts;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+import org.junit.Test;
+
+/**
+ * Tests the Response Body Decoder behaves as expected.
+ *
+ * @author gazbert
+ */
+public class TestResponseBodyDecoder {
+
+  private static final String ENDPOINT = "api.exchange.com/book";
+  private static final String BOOK_JSON =
+      "{\"bids\":[[\"100.5\",\"2\"],[\"100.4\",\"2\"],[\"100.3\",\"2\"],[\"100.2\",\"2\"]]}";
+
+  private final ResponseBodyDecoder decoder = new ResponseBodyDecoder();
+
+  @Test
+  public void testGzipBodyIsDecodedAndCounted() throws Exception {
+    final byte[] gzipped = gzip(BOOK_JSON);
+
+    assertEquals(BOOK_JSON, read(decoder.decode(ENDPOINT, Optional.of("gzip"), body(gzipped))));
+
+    final ResponseByteCounts byteCounts = decoder.getByteCounts().get(ENDPOINT);
+    assertEquals(1, byteCounts.getResponseCount());
+    assertEquals(1, byteCounts.getCompressedResponseCount());
+    assertEquals(gzipped.length, byteCounts.getWireBytes());
+    assertEquals(BOOK_JSON.length(), byteCounts.getDecodedBytes());
+  }
+
+  @Test
+  public void testZlibWrappedAndRawDeflateBodiesAreDecoded() throws Exception {
+    assertEquals(
+        BOOK_JSON,
+        read(decoder.decode(ENDPOINT, Optional.of("deflate"), body(deflate(BOOK_JSON, false)))));
+    assertEquals(
+        BOOK_JSON,
+        read(decoder.decode(ENDPOINT, Optional.of("Deflate"), body(deflate(BOOK_JSON, true)))));
+    assertEquals(2, decoder.getByteCounts().get(ENDPOINT).getCompressedResponseCount());
+  }
+
+  @Test
+  public void testUncompressedBodyIsPassedThrough() throws Exception {
+    final byte[] bytes = BOOK_JSON.getBytes(StandardCharsets.UTF_8);
+
+    assertEquals(BOOK_JSON, read(decoder.decode(ENDPOINT, Optional.empty(), body(bytes))));
+    assertEquals(BOOK_JSON, read(decoder.decode(ENDPOINT, Optional.of("identity"), body(bytes))));
+
+    final ResponseByteCounts byteCounts = decoder.getByteCounts().get(ENDPOINT);
+    assertEquals(2, byteCounts.getResponseCount());
+    assertEquals(0, byteCounts.getCompressedResponseCount());
+    assertEquals(2 * bytes.length, byteCounts.getWireBytes());
+    assertEquals(2 * bytes.length, byteCounts.getDecodedBytes());
+  }
+
+  @Test
+  public void testEmptyCompressedBodyIsEmpty() throws Exception {
+    assertEquals("", read(decoder.decode(ENDPOINT, Optional.of("gzip"), body(new byte[0]))));
+  }
+
+  @Test
+  public void testUnsupportedEncodingFailsOnRead() throws Exception {
+    final InputStream decoded =
+        decoder.decode(ENDPOINT, Optional.of("br"), body(new byte[] {1, 2, 3}));
+    try {
+      read(decoded);
+      fail("Expected IOException");
+    } catch (IOException e) {
+      assertEquals("Unsupported response Content-Encoding: br", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testEndpointsAreCountedSeparately() throws Exception {
+    read(decoder.decode(ENDPOINT, Optional.of("gzip"), body(gzip(BOOK_JSON))));
+    read(decoder.decode("api.exchange.com/ticker", Optional.empty(), body(new byte[] {'1'})));
+
+    assertEquals(2, decoder.getByteCounts().size());
+    assertEquals(1, decoder.getByteCounts().get("api.exchange.com/ticker").getDecodedBytes());
+  }
+
+  private static InputStream body(byte[] bytes) {
+    return new ByteArrayInputStream(bytes);
+  }
+
+  private static String read(InputStream decoded) throws IOException {
+    try (decoded) {
+      return new String(decoded.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+
+  private static byte[] gzip(String body) throws IOException {
+    final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    try (OutputStream gzip = new GZIPOutputStream(compressed)) {
+      gzip.write(body.getBytes(StandardCharsets.UTF_8));
+    }
+    return compressed.toByteArray();
+  }
+
+  private static byte[] deflate(String body, boolean raw) throws IOException {
+    final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, raw);
+    try (OutputStream deflate = new DeflaterOutputStream(compressed, deflater)) {
+      deflate.write(body.getBytes(StandardCharsets.UTF_8));
+    } finally {
+      deflater.end();
+    }
+    return compressed.toByteArray();
+  }
+}
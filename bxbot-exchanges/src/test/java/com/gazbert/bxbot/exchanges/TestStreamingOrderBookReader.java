@@ -0,0 +1,186 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.exchanges;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.gazbert.bxbot.exchanges.trading.api.impl.FixedPointMarketOrderBook;
+import com.gazbert.bxbot.trading.api.MarketOrder;
+import com.gazbert.bxbot.trading.api.MarketOrderBook;
+import com.gazbert.bxbot.trading.api.OrderType;
+import com.google.gson.stream.JsonReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import org.junit.Test;
+
+/**
+ * Tests the Streaming Order Book Reader parses the exchange order books the same as GSON does.
+ *
+ * @author gazbert
+ */
+public class TestStreamingOrderBookReader {
+
+  private static final String MARKET_ID = "btcusd";
+
+  private static final String BITSTAMP_ORDER_BOOK_JSON =
+      "./src/test/exchange-data/bitstamp/order_book.json";
+  private static final String GDAX_BOOK_JSON = "./src/test/exchange-data/gdax/book.json";
+  private static final String BITFINEX_BOOK_JSON = "./src/test/exchange-data/bitfinex/book.json";
+
+  @Test
+  public void testReadingArrayOrderBook() throws Exception {
+    final MarketOrderBook orderBook;
+    try (JsonReader reader = createReader(BITSTAMP_ORDER_BOOK_JSON)) {
+      orderBook = StreamingOrderBookReader.readArrayOrderBook(MARKET_ID, reader);
+    }
+
+    assertEquals(MARKET_ID, orderBook.getMarketId());
+    assertEquals(1268, orderBook.getBuyOrders().size());
+    assertOrder(orderBook.getBuyOrders().get(0), OrderType.BUY, "230.34", "7.22860000");
+    assertEquals(1957, orderBook.getSellOrders().size());
+    assertOrder(orderBook.getSellOrders().get(0), OrderType.SELL, "230.90", "0.62263188");
+  }
+
+  @Test
+  public void testReadingArrayOrderBookSkipsExtraElements() throws Exception {
+    final MarketOrderBook orderBook;
+    try (JsonReader reader = createReader(GDAX_BOOK_JSON)) {
+      orderBook = StreamingOrderBookReader.readArrayOrderBook(MARKET_ID, reader);
+    }
+
+    assertEquals(50, orderBook.getBuyOrders().size());
+    assertOrder(orderBook.getBuyOrders().get(0), OrderType.BUY, "165.87", "16.2373");
+    assertEquals(50, orderBook.getSellOrders().size());
+    assertOrder(orderBook.getSellOrders().get(0), OrderType.SELL, "165.96", "24.31");
+  }
+
+  @Test
+  public void testReadingObjectOrderBook() throws Exception {
+    final MarketOrderBook orderBook;
+    try (JsonReader reader = createReader(BITFINEX_BOOK_JSON)) {
+      orderBook =
+          StreamingOrderBookReader.readObjectOrderBook(MARKET_ID, reader, "price", "amount");
+    }
+
+    assertEquals(906, orderBook.getBuyOrders().size());
+    assertOrder(orderBook.getBuyOrders().get(0), OrderType.BUY, "239.43", "5.0");
+    assertEquals(984, orderBook.getSellOrders().size());
+    assertOrder(orderBook.getSellOrders().get(0), OrderType.SELL, "239.53", "6.35595596");
+  }
+
+  @Test
+  public void testReadingOrderBooksToDepth() throws Exception {
+    final MarketOrderBook arrayOrderBook;
+    try (JsonReader reader = createReader(BITSTAMP_ORDER_BOOK_JSON)) {
+      arrayOrderBook = StreamingOrderBookReader.readArrayOrderBook(MARKET_ID, reader, 1);
+    }
+    assertEquals(1, arrayOrderBook.getBuyOrders().size());
+    assertOrder(arrayOrderBook.getBuyOrders().get(0), OrderType.BUY, "230.34", "7.22860000");
+    assertEquals(1, arrayOrderBook.getSellOrders().size());
+    assertOrder(arrayOrderBook.getSellOrders().get(0), OrderType.SELL, "230.90", "0.62263188");
+
+    final MarketOrderBook objectOrderBook;
+    try (JsonReader reader = createReader(BITFINEX_BOOK_JSON)) {
+      objectOrderBook =
+          StreamingOrderBookReader.readObjectOrderBook(MARKET_ID, reader, "price", "amount", 3);
+    }
+    assertEquals(3, objectOrderBook.getBuyOrders().size());
+    assertOrder(objectOrderBook.getBuyOrders().get(2), OrderType.BUY, "239.15", "12.1527");
+    assertEquals(3, objectOrderBook.getSellOrders().size());
+  }
+
+  @Test
+  public void testReadingNumericPricesAndMissingSide() throws Exception {
+    final MarketOrderBook orderBook =
+        StreamingOrderBookReader.readArrayOrderBook(
+            MARKET_ID, new JsonReader(new StringReader("{\"asks\":[[101.5,2]]}")));
+
+    assertTrue(orderBook.getBuyOrders().isEmpty());
+    assertOrder(orderBook.getSellOrders().get(0), OrderType.SELL, "101.5", "2");
+  }
+
+  @Test
+  public void testReadingOrderBookIntoFixedPointArrays() throws Exception {
+    final FixedPointMarketOrderBook orderBook;
+    try (JsonReader reader = createReader(BITSTAMP_ORDER_BOOK_JSON)) {
+      orderBook =
+          (FixedPointMarketOrderBook)
+              StreamingOrderBookReader.readArrayOrderBook(MARKET_ID, reader);
+    }
+    assertEquals(1268, orderBook.getBuyDepth());
+    assertEquals(23034000000L, orderBook.bestBidScaled());
+    assertEquals(722860000L, orderBook.getBuyQuantityScaled(0));
+    assertEquals(1957, orderBook.getSellDepth());
+    assertEquals(23090000000L, orderBook.bestAskScaled());
+    assertEquals(62263188L, orderBook.getSellQuantityScaled(0));
+  }
+
+  @Test
+  public void testReadingPriceWithTooManyDecimalPlacesRoundsHalfEven() throws Exception {
+    final FixedPointMarketOrderBook orderBook =
+        (FixedPointMarketOrderBook)
+            StreamingOrderBookReader.readArrayOrderBook(
+                MARKET_ID,
+                new JsonReader(new StringReader("{\"bids\":[[\"101.123456789\",\"2\"]]}")));
+
+    assertEquals(10112345679L, orderBook.bestBidScaled());
+  }
+
+  @Test(expected = NumberFormatException.class)
+  public void testReadingPriceTooLargeForFixedPointFails() throws Exception {
+    StreamingOrderBookReader.readArrayOrderBook(
+        MARKET_ID, new JsonReader(new StringReader("{\"bids\":[[\"100000000000000\",\"2\"]]}")));
+  }
+
+  @Test(expected = IOException.class)
+  public void testReadingObjectOrderBookWithMissingQuantityFails() throws Exception {
+    StreamingOrderBookReader.readObjectOrderBook(
+        MARKET_ID,
+        new JsonReader(new StringReader("{\"bids\":[{\"price\":\"101.5\"}]}")),
+        "price",
+        "amount");
+  }
+
+  // --------------------------------------------------------------------------
+  //  Util methods
+  // --------------------------------------------------------------------------
+
+  private static JsonReader createReader(String file) throws IOException {
+    return new JsonReader(Files.newBufferedReader(Paths.get(file)));
+  }
+
+  private static void assertOrder(
+      MarketOrder order, OrderType type, String price, String quantity) {
+    assertSame(type, order.getType());
+    assertEquals(0, new BigDecimal(price).compareTo(order.getPrice()));
+    assertEquals(0, new BigDecimal(quantity).compareTo(order.getQuantity()));
+    assertEquals(
+        0, new BigDecimal(price).multiply(new BigDecimal(quantity)).compareTo(order.getTotal()));
+  }
+}
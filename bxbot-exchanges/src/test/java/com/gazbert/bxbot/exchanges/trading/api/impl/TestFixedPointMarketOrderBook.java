@@ -0,0 +1,183 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.exchanges.trading.api.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.gazbert.bxbot.trading.api.MarketOrder;
+import com.gazbert.bxbot.trading.api.OrderType;
+import java.math.BigDecimal;
+import java.util.NoSuchElementException;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the Fixed Point Market Order Book behaves as expected.
+ *
+ * @author gazbert
+ */
+public class TestFixedPointMarketOrderBook {
+
+  private static final String MARKET_ID = "BTC_USD";
+
+  private static final BigDecimal BUY_1_PRICE = new BigDecimal("222.22");
+  private static final BigDecimal BUY_1_QUANTITY = new BigDecimal("0.02423424");
+  private static final BigDecimal BUY_2_PRICE = new BigDecimal("111.11");
+  private static final BigDecimal BUY_2_QUANTITY = new BigDecimal("0.01614453");
+  private static final BigDecimal SELL_1_PRICE = new BigDecimal("333.33");
+  private static final BigDecimal SELL_1_QUANTITY = new BigDecimal("0.03435344");
+
+  private FixedPointMarketOrderBook orderBook;
+
+  /** Builds an order book with 2 bids and 1 ask. */
+  @Before
+  public void setupOrderBookBeforeEachTest() {
+    orderBook =
+        new FixedPointMarketOrderBook.Builder(MARKET_ID)
+            .addOrder(OrderType.BUY, scaled(BUY_1_PRICE), scaled(BUY_1_QUANTITY))
+            .addOrder(OrderType.SELL, scaled(SELL_1_PRICE), scaled(SELL_1_QUANTITY))
+            .addOrder(OrderType.BUY, scaled(BUY_2_PRICE), scaled(BUY_2_QUANTITY))
+            .build();
+  }
+
+  @Test
+  public void testScaledAccessorsReturnExpectedValues() {
+    assertEquals(MARKET_ID, orderBook.getMarketId());
+
+    assertEquals(2, orderBook.getBuyDepth());
+    assertEquals(22222000000L, orderBook.bestBidScaled());
+    assertEquals(2423424L, orderBook.getBuyQuantityScaled(0));
+    assertEquals(11111000000L, orderBook.getBuyPriceScaled(1));
+    assertEquals(1614453L, orderBook.getBuyQuantityScaled(1));
+
+    assertEquals(1, orderBook.getSellDepth());
+    assertEquals(33333000000L, orderBook.bestAskScaled());
+    assertEquals(33333000000L, orderBook.getSellPriceScaled(0));
+    assertEquals(3435344L, orderBook.getSellQuantityScaled(0));
+  }
+
+  @Test
+  public void testMarketOrderViewsMatchScaledValues() {
+    assertEquals(2, orderBook.getBuyOrders().size());
+    assertOrder(orderBook.getBuyOrders().get(0), OrderType.BUY, BUY_1_PRICE, BUY_1_QUANTITY);
+    assertOrder(orderBook.getBuyOrders().get(1), OrderType.BUY, BUY_2_PRICE, BUY_2_QUANTITY);
+
+    assertEquals(1, orderBook.getSellOrders().size());
+    assertOrder(orderBook.getSellOrders().get(0), OrderType.SELL, SELL_1_PRICE, SELL_1_QUANTITY);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testMarketOrderViewsCannotBeModified() {
+    orderBook.getBuyOrders().remove(0);
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testReadingBeyondDepthFails() {
+    orderBook.getSellPriceScaled(1);
+  }
+
+  @Test(expected = NoSuchElementException.class)
+  public void testBestAskOfEmptySideFails() {
+    new FixedPointMarketOrderBook.Builder(MARKET_ID).build().bestAskScaled();
+  }
+
+  @Test
+  public void testBuilderGrowsBeyondInitialCapacity() {
+    final FixedPointMarketOrderBook.Builder builder =
+        new FixedPointMarketOrderBook.Builder(MARKET_ID);
+    for (int i = 0; i < 1000; i++) {
+      builder.addOrder(OrderType.SELL, 100_000_000L + i, 1L);
+    }
+    final FixedPointMarketOrderBook deepOrderBook = builder.build();
+
+    assertEquals(1000, deepOrderBook.getSellDepth());
+    assertEquals(100_000_999L, deepOrderBook.getSellPriceScaled(999));
+    assertTrue(deepOrderBook.getBuyOrders().isEmpty());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testBuilderCannotBeReused() {
+    final FixedPointMarketOrderBook.Builder builder =
+        new FixedPointMarketOrderBook.Builder(MARKET_ID);
+    builder.build();
+    builder.addOrder(OrderType.BUY, 1L, 1L);
+  }
+
+  @Test
+  public void testConvertingDecimalStringsToScaledValues() {
+    assertEquals(23034000000L, FixedPointMarketOrderBook.toScaled("230.34"));
+    assertEquals(62263188L, FixedPointMarketOrderBook.toScaled("0.62263188"));
+    assertEquals(200000000L, FixedPointMarketOrderBook.toScaled("2"));
+    assertEquals(-150000000L, FixedPointMarketOrderBook.toScaled("-1.5"));
+    assertEquals(50000000L, FixedPointMarketOrderBook.toScaled("+.5"));
+    assertEquals(150000L, FixedPointMarketOrderBook.toScaled("1.5e-3"));
+    assertEquals(100000000L, FixedPointMarketOrderBook.toScaled("1.0000000000"));
+    assertEquals(
+        0,
+        new BigDecimal("230.34")
+            .compareTo(FixedPointMarketOrderBook.toBigDecimal(23034000000L)));
+  }
+
+  @Test
+  public void testConvertingValueWithTooManyDecimalPlacesRoundsHalfEven() {
+    assertEquals(12345679L, FixedPointMarketOrderBook.toScaled("0.123456789"));
+    assertEquals(12345678L, FixedPointMarketOrderBook.toScaled("0.123456784999"));
+    assertEquals(12345678L, FixedPointMarketOrderBook.toScaled("0.123456785"));
+    assertEquals(12345680L, FixedPointMarketOrderBook.toScaled("0.123456795"));
+    assertEquals(12345679L, FixedPointMarketOrderBook.toScaled("0.1234567850001"));
+    assertEquals(-12345679L, FixedPointMarketOrderBook.toScaled("-0.123456789"));
+    assertEquals(100000000L, FixedPointMarketOrderBook.toScaled("0.999999999"));
+    assertEquals(0L, FixedPointMarketOrderBook.toScaled("0.000000004"));
+    assertEquals(12L, FixedPointMarketOrderBook.toScaled("1.25e-7"));
+    assertEquals(14L, FixedPointMarketOrderBook.toScaled("1.35e-7"));
+  }
+
+  @Test(expected = NumberFormatException.class)
+  public void testConvertingValueTooLargeForLongFails() {
+    FixedPointMarketOrderBook.toScaled("100000000000000");
+  }
+
+  @Test(expected = NumberFormatException.class)
+  public void testConvertingInvalidValueFails() {
+    FixedPointMarketOrderBook.toScaled("1.2.3");
+  }
+
+  // --------------------------------------------------------------------------
+  //  Util methods
+  // --------------------------------------------------------------------------
+
+  private static long scaled(BigDecimal value) {
+    return FixedPointMarketOrderBook.toScaled(value.toPlainString());
+  }
+
+  private static void assertOrder(
+      MarketOrder order, OrderType type, BigDecimal price, BigDecimal quantity) {
+    assertSame(type, order.getType());
+    assertEquals(0, price.compareTo(order.getPrice()));
+    assertEquals(0, quantity.compareTo(order.getQuantity()));
+    assertEquals(0, price.multiply(quantity).compareTo(order.getTotal()));
+  }
+}
@@ -66,7 +66,7 @@ public class BotStatusController {
   }
 
   /**
-   * Returns the process status for the bot.
+   * Returns the process status for the bot, and the state of its exchange circuit breakers.
    *
    * @param principal the authenticated user making the request.
    * @return the process status.
@@ -86,6 +86,7 @@ public class BotStatusController {
     botStatus.setDisplayName(engineConfig.getBotName());
     botStatus.setStatus(status);
     botStatus.setDatetime(new Date());
+    botStatus.setCircuitBreakers(botStatusService.getCircuitBreakerStates());
 
     LOG.info(() -> "Response: " + botStatus);
     return botStatus;
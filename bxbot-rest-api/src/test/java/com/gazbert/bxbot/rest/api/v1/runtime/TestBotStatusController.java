@@ -37,6 +37,7 @@ import com.gazbert.bxbot.domain.engine.EngineConfig;
 import com.gazbert.bxbot.services.config.EngineConfigService;
 import com.gazbert.bxbot.services.runtime.BotStatusService;
 import java.math.BigDecimal;
+import java.util.Collections;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -88,6 +89,8 @@ public class TestBotStatusController extends AbstractRuntimeControllerTest {
   @Test
   public void testGetBotStatusWithValidToken() throws Exception {
     given(botStatusService.getStatus()).willReturn(BOT_STATUS);
+    given(botStatusService.getCircuitBreakerStates())
+        .willReturn(Collections.singletonMap("/ticker", "OPEN"));
     given(engineConfigService.getEngineConfig()).willReturn(someEngineConfig());
 
     mockMvc
@@ -100,7 +103,8 @@ public class TestBotStatusController extends AbstractRuntimeControllerTest {
         .andExpect(jsonPath("$.botId").value(BOT_ID))
         .andExpect(jsonPath("$.displayName").value(BOT_NAME))
         .andExpect(jsonPath("$.status").value(BOT_STATUS))
-        .andExpect(jsonPath("$.datetime").isNotEmpty());
+        .andExpect(jsonPath("$.datetime").isNotEmpty())
+        .andExpect(jsonPath("$.circuitBreakers['/ticker']").value("OPEN"));
 
     verify(engineConfigService, times(1)).getEngineConfig();
   }
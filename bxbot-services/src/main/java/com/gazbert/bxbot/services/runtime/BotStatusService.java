@@ -23,6 +23,8 @@
 
 package com.gazbert.bxbot.services.runtime;
 
+import java.util.Map;
+
 /**
  * The Bot status service.
  *
@@ -30,10 +32,24 @@ package com.gazbert.bxbot.services.runtime;
  */
 public interface BotStatusService {
 
+  /**
+   * The name of the health indicator that reports the state of the Exchange Adapter's circuit
+   * breakers.
+   */
+  String CIRCUIT_BREAKER_HEALTH_INDICATOR = "exchangeCircuitBreaker";
+
   /**
    * Returns the status of the Bot.
    *
    * @return UP if the bot is running, DOWN if the bot is not running.
    */
   String getStatus();
+
+  /**
+   * Returns the state of the Exchange Adapter's circuit breakers.
+   *
+   * @return the circuit breaker state - CLOSED, OPEN, or HALF_OPEN - keyed by exchange API
+   *     endpoint. Empty if the adapter has no circuit breakers, or none have been used yet.
+   */
+  Map<String, String> getCircuitBreakerStates();
 }
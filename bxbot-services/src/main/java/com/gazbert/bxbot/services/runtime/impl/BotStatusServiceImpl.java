@@ -24,6 +24,8 @@
 package com.gazbert.bxbot.services.runtime.impl;
 
 import com.gazbert.bxbot.services.runtime.BotStatusService;
+import java.util.Map;
+import java.util.TreeMap;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -55,4 +57,18 @@ public class BotStatusServiceImpl implements BotStatusService {
     LOG.info(() -> "Health Status: " + status);
     return status.getCode();
   }
+
+  @Override
+  public Map<String, String> getCircuitBreakerStates() {
+    final Map<String, String> states = new TreeMap<>();
+    final Object circuitBreakerHealth =
+        healthEndpoint.health().getDetails().get(CIRCUIT_BREAKER_HEALTH_INDICATOR);
+    if (circuitBreakerHealth instanceof Health) {
+      ((Health) circuitBreakerHealth)
+          .getDetails()
+          .forEach((endpoint, state) -> states.put(endpoint, String.valueOf(state)));
+    }
+    LOG.info(() -> "Circuit breaker states: " + states);
+    return states;
+  }
 }
@@ -28,6 +28,8 @@ import static org.easymock.EasyMock.expect;
 import static org.easymock.EasyMock.replay;
 import static org.easymock.EasyMock.verify;
 
+import com.gazbert.bxbot.services.runtime.BotStatusService;
+import java.util.Map;
 import org.easymock.EasyMock;
 import org.junit.Test;
 import org.springframework.boot.actuate.health.Health;
@@ -57,4 +59,38 @@ public class TestBotStatusService {
     assertThat(fetchedBotStatus).isEqualTo(botStatus);
     verify(healthEndpoint);
   }
+
+  @Test
+  public void whenGetCircuitBreakerStatesCalledThenExpectStatesToBeReturned() {
+    final Health circuitBreakerHealth =
+        Health.up().withDetail("/ticker", "OPEN").withDetail("/book", "CLOSED").build();
+    final Health health =
+        Health.up()
+            .withDetail(BotStatusService.CIRCUIT_BREAKER_HEALTH_INDICATOR, circuitBreakerHealth)
+            .build();
+    final HealthEndpoint healthEndpoint = EasyMock.createMock(HealthEndpoint.class);
+
+    expect(healthEndpoint.health()).andReturn(health);
+    replay(healthEndpoint);
+
+    final BotStatusServiceImpl botStatusService = new BotStatusServiceImpl(healthEndpoint);
+    final Map<String, String> states = botStatusService.getCircuitBreakerStates();
+
+    assertThat(states).containsOnlyKeys("/book", "/ticker");
+    assertThat(states.get("/ticker")).isEqualTo("OPEN");
+    assertThat(states.get("/book")).isEqualTo("CLOSED");
+    verify(healthEndpoint);
+  }
+
+  @Test
+  public void whenNoCircuitBreakerHealthThenExpectNoStatesToBeReturned() {
+    final HealthEndpoint healthEndpoint = EasyMock.createMock(HealthEndpoint.class);
+
+    expect(healthEndpoint.health()).andReturn(Health.up().build());
+    replay(healthEndpoint);
+
+    final BotStatusServiceImpl botStatusService = new BotStatusServiceImpl(healthEndpoint);
+    assertThat(botStatusService.getCircuitBreakerStates()).isEmpty();
+    verify(healthEndpoint);
+  }
 }
@@ -30,7 +30,6 @@ import com.gazbert.bxbot.trading.api.ExchangeNetworkException;
 import com.gazbert.bxbot.trading.api.Market;
 import com.gazbert.bxbot.trading.api.MarketOrder;
 import com.gazbert.bxbot.trading.api.MarketOrderBook;
-import com.gazbert.bxbot.trading.api.OpenOrder;
 import com.gazbert.bxbot.trading.api.OrderType;
 import com.gazbert.bxbot.trading.api.TradingApi;
 import com.gazbert.bxbot.trading.api.TradingApiException;
@@ -191,8 +190,8 @@ public class ExampleScalpingStrategy implements TradingStrategy {
     LOG.info(() -> market.getName() + " Checking order status...");
 
     try {
-      // Grab the latest order book for the market.
-      final MarketOrderBook orderBook = tradingApi.getMarketOrders(market.getId());
+      // Grab the best bid and ask from the latest order book for the market.
+      final MarketOrderBook orderBook = tradingApi.getMarketOrders(market.getId(), 1);
 
       final List<MarketOrder> buyOrders = orderBook.getBuyOrders();
       if (buyOrders.isEmpty()) {
@@ -348,19 +347,11 @@ public class ExampleScalpingStrategy implements TradingStrategy {
    */
   private void executeAlgoForWhenLastOrderWasBuy() throws StrategyException {
     try {
-      // Fetch our current open orders and see if the buy order is still outstanding/open on the
-      // exchange
-      final List<OpenOrder> myOrders = tradingApi.getYourOpenOrders(market.getId());
-      boolean lastOrderFound = false;
-      for (final OpenOrder myOrder : myOrders) {
-        if (myOrder.getId().equals(lastOrder.id)) {
-          lastOrderFound = true;
-          break;
-        }
-      }
+      // See if the buy order is still outstanding/open on the exchange
+      final boolean lastOrderOpen = tradingApi.isOrderOpen(lastOrder.id, market.getId());
 
-      // If the order is not there, it must have all filled.
-      if (!lastOrderFound) {
+      // If the order is not open, it must have all filled.
+      if (!lastOrderOpen) {
         LOG.info(
             () ->
                 market.getName()
@@ -483,17 +474,10 @@ public class ExampleScalpingStrategy implements TradingStrategy {
   private void executeAlgoForWhenLastOrderWasSell(
       BigDecimal currentBidPrice, BigDecimal currentAskPrice) throws StrategyException {
     try {
-      final List<OpenOrder> myOrders = tradingApi.getYourOpenOrders(market.getId());
-      boolean lastOrderFound = false;
-      for (final OpenOrder myOrder : myOrders) {
-        if (myOrder.getId().equals(lastOrder.id)) {
-          lastOrderFound = true;
-          break;
-        }
-      }
+      final boolean lastOrderOpen = tradingApi.isOrderOpen(lastOrder.id, market.getId());
 
-      // If the order is not there, it must have all filled.
-      if (!lastOrderFound) {
+      // If the order is not open, it must have all filled.
+      if (!lastOrderOpen) {
         LOG.info(
             () ->
                 market.getName()
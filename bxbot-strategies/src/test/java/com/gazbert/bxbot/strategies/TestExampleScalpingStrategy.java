@@ -34,7 +34,6 @@ import com.gazbert.bxbot.trading.api.ExchangeNetworkException;
 import com.gazbert.bxbot.trading.api.Market;
 import com.gazbert.bxbot.trading.api.MarketOrder;
 import com.gazbert.bxbot.trading.api.MarketOrderBook;
-import com.gazbert.bxbot.trading.api.OpenOrder;
 import com.gazbert.bxbot.trading.api.OrderType;
 import com.gazbert.bxbot.trading.api.TradingApi;
 import com.gazbert.bxbot.trading.api.TradingApiException;
@@ -101,7 +100,7 @@ public class TestExampleScalpingStrategy {
 
     // expect market order book to be fetched
     expect(market.getId()).andReturn(MARKET_ID);
-    expect(tradingApi.getMarketOrders(MARKET_ID)).andReturn(marketOrderBook);
+    expect(tradingApi.getMarketOrders(MARKET_ID, 1)).andReturn(marketOrderBook);
     expect(marketOrderBook.getBuyOrders()).andReturn(marketBuyOrders);
     expect(marketOrderBook.getSellOrders()).andReturn(marketSellOrders);
   }
@@ -173,8 +172,7 @@ public class TestExampleScalpingStrategy {
 
     // expect to check if the buy order has filled
     expect(market.getId()).andReturn(MARKET_ID);
-    expect(tradingApi.getYourOpenOrders(MARKET_ID))
-        .andReturn(new ArrayList<>()); // empty list; order has filled
+    expect(tradingApi.isOrderOpen("45345346", MARKET_ID)).andReturn(false); // order has filled
 
     // expect to send new sell order to exchange
     final BigDecimal requiredProfitInPercent = new BigDecimal("0.02");
@@ -231,25 +229,12 @@ public class TestExampleScalpingStrategy {
     Whitebox.setInternalState(orderState, "price", lastOrderPrice);
     Whitebox.setInternalState(orderState, "amount", lastOrderAmount);
 
-    // expect to check if the buy order has filled
+    // expect to check if the buy order has filled, find it still open, and hold current position
     expect(market.getId()).andReturn(MARKET_ID);
-    final OpenOrder unfilledOrder = createMock(OpenOrder.class);
-    final List<OpenOrder> openOrders = new ArrayList<>();
-    openOrders.add(unfilledOrder); // still have open order
-    expect(tradingApi.getYourOpenOrders(MARKET_ID)).andReturn(openOrders);
-
-    // expect strategy to find existing open order and hold current position
-    expect(openOrders.get(0).getId()).andReturn("45345346");
+    expect(tradingApi.isOrderOpen("45345346", MARKET_ID)).andReturn(true);
 
     replay(
-        tradingApi,
-        market,
-        config,
-        marketOrderBook,
-        marketBuyOrder,
-        marketSellOrder,
-        orderState,
-        unfilledOrder);
+        tradingApi, market, config, marketOrderBook, marketBuyOrder, marketSellOrder, orderState);
 
     final ExampleScalpingStrategy strategy = new ExampleScalpingStrategy();
 
@@ -261,14 +246,7 @@ public class TestExampleScalpingStrategy {
     strategy.execute();
 
     verify(
-        tradingApi,
-        market,
-        config,
-        marketOrderBook,
-        marketBuyOrder,
-        marketSellOrder,
-        orderState,
-        unfilledOrder);
+        tradingApi, market, config, marketOrderBook, marketBuyOrder, marketSellOrder, orderState);
   }
 
   /*
@@ -300,8 +278,7 @@ public class TestExampleScalpingStrategy {
 
     // expect to check if the sell order has filled
     expect(market.getId()).andReturn(MARKET_ID);
-    expect(tradingApi.getYourOpenOrders(MARKET_ID))
-        .andReturn(new ArrayList<>()); // empty list; order has filled
+    expect(tradingApi.isOrderOpen("45345346", MARKET_ID)).andReturn(false); // order has filled
 
     // expect to get amount of base currency to buy for given counter currency amount
     expect(market.getId()).andReturn(MARKET_ID);
@@ -360,25 +337,12 @@ public class TestExampleScalpingStrategy {
     Whitebox.setInternalState(orderState, "price", lastOrderPrice);
     Whitebox.setInternalState(orderState, "amount", lastOrderAmount);
 
-    // expect to check if the sell order has filled
+    // expect to check if the sell order has filled, find it still open, and hold current position
     expect(market.getId()).andReturn(MARKET_ID);
-    final OpenOrder unfilledOrder = createMock(OpenOrder.class);
-    final List<OpenOrder> openOrders = new ArrayList<>();
-    openOrders.add(unfilledOrder); // still have open order
-    expect(tradingApi.getYourOpenOrders(MARKET_ID)).andReturn(openOrders);
-
-    // expect strategy to find existing open order and hold current position
-    expect(openOrders.get(0).getId()).andReturn("45345346");
+    expect(tradingApi.isOrderOpen("45345346", MARKET_ID)).andReturn(true);
 
     replay(
-        tradingApi,
-        market,
-        config,
-        marketOrderBook,
-        marketBuyOrder,
-        marketSellOrder,
-        orderState,
-        unfilledOrder);
+        tradingApi, market, config, marketOrderBook, marketBuyOrder, marketSellOrder, orderState);
 
     final ExampleScalpingStrategy strategy = new ExampleScalpingStrategy();
 
@@ -390,14 +354,7 @@ public class TestExampleScalpingStrategy {
     strategy.execute();
 
     verify(
-        tradingApi,
-        market,
-        config,
-        marketOrderBook,
-        marketBuyOrder,
-        marketSellOrder,
-        orderState,
-        unfilledOrder);
+        tradingApi, market, config, marketOrderBook, marketBuyOrder, marketSellOrder, orderState);
   }
 
   // ------------------------------------------------------------------------
@@ -471,8 +428,7 @@ public class TestExampleScalpingStrategy {
 
     // expect to check if the sell order has filled
     expect(market.getId()).andReturn(MARKET_ID);
-    expect(tradingApi.getYourOpenOrders(MARKET_ID))
-        .andReturn(new ArrayList<>()); // empty list; order has filled
+    expect(tradingApi.isOrderOpen("45345346", MARKET_ID)).andReturn(false); // order has filled
 
     // expect to get amount of base currency to buy for given counter currency amount
     expect(market.getId()).andReturn(MARKET_ID);
@@ -532,8 +488,7 @@ public class TestExampleScalpingStrategy {
 
     // expect to check if the buy order has filled
     expect(market.getId()).andReturn(MARKET_ID);
-    expect(tradingApi.getYourOpenOrders(MARKET_ID))
-        .andReturn(new ArrayList<>()); // empty list; order has filled
+    expect(tradingApi.isOrderOpen("45345346", MARKET_ID)).andReturn(false); // order has filled
 
     // expect to send new sell order to exchange and receive timeout exception
     final BigDecimal requiredProfitInPercent = new BigDecimal("0.02");
@@ -634,8 +589,7 @@ public class TestExampleScalpingStrategy {
 
     // expect to check if the sell order has filled
     expect(market.getId()).andReturn(MARKET_ID);
-    expect(tradingApi.getYourOpenOrders(MARKET_ID))
-        .andReturn(new ArrayList<>()); // empty list; order has filled
+    expect(tradingApi.isOrderOpen("45345346", MARKET_ID)).andReturn(false); // order has filled
 
     // expect to get amount of base currency to buy for given counter currency amount
     expect(market.getId()).andReturn(MARKET_ID);
@@ -695,8 +649,7 @@ public class TestExampleScalpingStrategy {
 
     // expect to check if the buy order has filled
     expect(market.getId()).andReturn(MARKET_ID);
-    expect(tradingApi.getYourOpenOrders(MARKET_ID))
-        .andReturn(new ArrayList<>()); // empty list; order has filled
+    expect(tradingApi.isOrderOpen("45345346", MARKET_ID)).andReturn(false); // order has filled
 
     // expect to send new sell order to exchange and receive timeout exception
     final BigDecimal requiredProfitInPercent = new BigDecimal("0.02");
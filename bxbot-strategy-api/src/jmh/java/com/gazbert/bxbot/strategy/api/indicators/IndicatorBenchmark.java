@@ -0,0 +1,141 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.strategy.api.indicators;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of a single indicator update, in nanoseconds.
+ *
+ * <p>The period is varied to show the cost does not grow with it. Each benchmark returns the
+ * indicator's value so the JIT cannot optimise the update away.
+ *
+ * @author gazbert
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IndicatorBenchmark {
+
+  private static final int PRICE_COUNT = 1 << 12;
+  private static final int PRICE_INDEX_MASK = PRICE_COUNT - 1;
+
+  @Param({"14", "200"})
+  private int period;
+
+  private final double[] prices = new double[PRICE_COUNT];
+  private final double[] volumes = new double[PRICE_COUNT];
+  private int next;
+
+  private SimpleMovingAverage sma;
+  private ExponentialMovingAverage ema;
+  private RelativeStrengthIndex rsi;
+  private BollingerBands bollingerBands;
+  private VolumeWeightedAveragePrice vwap;
+  private AverageTrueRange atr;
+  private MovingAverageConvergenceDivergence macd;
+
+  /** Creates the indicators and the prices fed to them. */
+  @Setup
+  public void setup() {
+    final Random random = new Random(42);
+    double price = 6500;
+    for (int i = 0; i < PRICE_COUNT; i++) {
+      price += random.nextGaussian() * 25;
+      prices[i] = price;
+      volumes[i] = random.nextDouble() * 10;
+    }
+    sma = new SimpleMovingAverage(period);
+    ema = new ExponentialMovingAverage(period);
+    rsi = new RelativeStrengthIndex(period);
+    bollingerBands = new BollingerBands(period, 2);
+    vwap = new VolumeWeightedAveragePrice(period);
+    atr = new AverageTrueRange(period);
+    macd = new MovingAverageConvergenceDivergence(period / 2, period, 9);
+  }
+
+  @Benchmark
+  public double simpleMovingAverage() {
+    sma.update(nextPrice());
+    return sma.getValue();
+  }
+
+  @Benchmark
+  public double exponentialMovingAverage() {
+    ema.update(nextPrice());
+    return ema.getValue();
+  }
+
+  @Benchmark
+  public double relativeStrengthIndex() {
+    rsi.update(nextPrice());
+    return rsi.getValue();
+  }
+
+  @Benchmark
+  public double bollingerBands() {
+    bollingerBands.update(nextPrice());
+    return bollingerBands.getUpperBand();
+  }
+
+  @Benchmark
+  public double volumeWeightedAveragePrice() {
+    vwap.update(nextPrice(), volumes[next]);
+    return vwap.getValue();
+  }
+
+  /** Feeds bars with a high and low either side of the close. */
+  @Benchmark
+  public double averageTrueRange() {
+    final double close = nextPrice();
+    atr.update(close + volumes[next], close - volumes[next], close);
+    return atr.getValue();
+  }
+
+  @Benchmark
+  public double movingAverageConvergenceDivergence() {
+    macd.update(nextPrice());
+    return macd.getHistogram();
+  }
+
+  private double nextPrice() {
+    next = (next + 1) & PRICE_INDEX_MASK;
+    return prices[next];
+  }
+}
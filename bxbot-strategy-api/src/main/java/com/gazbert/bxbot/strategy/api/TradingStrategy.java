@@ -23,6 +23,7 @@
 
 package com.gazbert.bxbot.strategy.api;
 
+import com.gazbert.bxbot.trading.api.AsyncTradingApi;
 import com.gazbert.bxbot.trading.api.Market;
 import com.gazbert.bxbot.trading.api.TradingApi;
 
@@ -46,6 +47,23 @@ public interface TradingStrategy {
    */
   void init(TradingApi tradingApi, Market market, StrategyConfig config);
 
+  /**
+   * Called once by the Trading Engine when it starts up, with a Trading API that can also make
+   * calls without blocking. Override this instead of {@link #init(TradingApi, Market,
+   * StrategyConfig)} to fan out independent calls, e.g. fetch the order book and your balance at
+   * the same time.
+   *
+   * <p>The default implementation calls {@link #init(TradingApi, Market, StrategyConfig)}.
+   *
+   * @param tradingApi the Trading API.
+   * @param market the market for this strategy.
+   * @param config optional configuration for the strategy.
+   * @since 1.2
+   */
+  default void init(AsyncTradingApi tradingApi, Market market, StrategyConfig config) {
+    init((TradingApi) tradingApi, market, config);
+  }
+
   /**
    * Called by the Trading Engine during each trade cycle.
    *
@@ -0,0 +1,96 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.strategy.api.indicators;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Average True Range (ATR): a measure of volatility over the last <em>period</em> bars.
+ *
+ * <p>The true range of a bar is the largest of its high - low, |high - previous close| and |low -
+ * previous close|. The ATR uses Wilder's smoothing, seeded with the simple mean of the first
+ * <em>period</em> true ranges.
+ *
+ * <p>Each update needs the high and low of a bar. The Ticker's high and low cover the last 24
+ * hours, so the Trading Strategy builds its bars from the prices it sees each trade cycle.
+ *
+ * @author gazbert
+ * @since 1.1
+ */
+public final class AverageTrueRange implements Indicator {
+
+  private final int period;
+  private int count;
+  private boolean hasPreviousClose;
+  private double previousClose;
+  private double value;
+
+  /**
+   * Creates an Average True Range.
+   *
+   * @param period the number of bars the average is smoothed over, typically 14.
+   * @throws IllegalArgumentException if period is less than 1.
+   */
+  public AverageTrueRange(int period) {
+    this.period = DoubleRingBuffer.checkPeriod(period, "period");
+  }
+
+  /**
+   * Updates the ATR with the next bar.
+   *
+   * @param high the highest price in the bar.
+   * @param low the lowest price in the bar.
+   * @param close the last price in the bar.
+   */
+  public void update(double high, double low, double close) {
+    double trueRange = high - low;
+    if (hasPreviousClose) {
+      trueRange = Math.max(trueRange, Math.abs(high - previousClose));
+      trueRange = Math.max(trueRange, Math.abs(low - previousClose));
+    }
+    hasPreviousClose = true;
+    previousClose = close;
+    if (count < period) {
+      count++;
+      value += (trueRange - value) / count;
+    } else {
+      value += (trueRange - value) / period;
+    }
+  }
+
+  @Override
+  public boolean isReady() {
+    return count == period;
+  }
+
+  @Override
+  public double getValue() {
+    return isReady() ? value : Double.NaN;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this).add("value", getValue()).toString();
+  }
+}
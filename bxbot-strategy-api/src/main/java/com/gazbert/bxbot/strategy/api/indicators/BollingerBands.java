@@ -0,0 +1,132 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.strategy.api.indicators;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Bollinger Bands: a Simple Moving Average of the last <em>period</em> prices, with bands a number
+ * of standard deviations above and below it.
+ *
+ * <p>The mean and variance of the window are updated with Welford's method as each price enters
+ * and leaves it, which stays accurate where a running sum of squares would lose precision. The
+ * population standard deviation is used, as is usual for Bollinger Bands.
+ *
+ * @author gazbert
+ * @since 1.1
+ */
+public final class BollingerBands implements PriceIndicator {
+
+  private final DoubleRingBuffer prices;
+  private final double standardDeviations;
+  private double mean;
+  private double sumOfSquaredDeviations;
+
+  /**
+   * Creates Bollinger Bands.
+   *
+   * @param period the number of prices in the moving average, typically 20.
+   * @param standardDeviations how many standard deviations the bands are from the moving average,
+   *     typically 2.
+   * @throws IllegalArgumentException if period is less than 1, or standardDeviations is negative.
+   */
+  public BollingerBands(int period, double standardDeviations) {
+    if (!(standardDeviations >= 0)) {
+      throw new IllegalArgumentException(
+          "standardDeviations must not be negative but was: " + standardDeviations);
+    }
+    this.prices = new DoubleRingBuffer(DoubleRingBuffer.checkPeriod(period, "period"));
+    this.standardDeviations = standardDeviations;
+  }
+
+  @Override
+  public void update(double price) {
+    if (prices.isFull()) {
+      final double dropped = prices.add(price);
+      final double previousMean = mean;
+      mean += (price - dropped) / prices.size();
+      sumOfSquaredDeviations += (price - dropped) * (price - mean + dropped - previousMean);
+    } else {
+      prices.add(price);
+      final double delta = price - mean;
+      mean += delta / prices.size();
+      sumOfSquaredDeviations += delta * (price - mean);
+    }
+  }
+
+  @Override
+  public boolean isReady() {
+    return prices.isFull();
+  }
+
+  /**
+   * Returns the middle band, i.e. the Simple Moving Average.
+   *
+   * @return the middle band, or {@link Double#NaN} until the bands are ready.
+   */
+  @Override
+  public double getValue() {
+    return isReady() ? mean : Double.NaN;
+  }
+
+  /**
+   * Returns the upper band.
+   *
+   * @return the upper band, or {@link Double#NaN} until the bands are ready.
+   */
+  public double getUpperBand() {
+    return getValue() + standardDeviations * getStandardDeviation();
+  }
+
+  /**
+   * Returns the lower band.
+   *
+   * @return the lower band, or {@link Double#NaN} until the bands are ready.
+   */
+  public double getLowerBand() {
+    return getValue() - standardDeviations * getStandardDeviation();
+  }
+
+  /**
+   * Returns the standard deviation of the prices in the window.
+   *
+   * @return the standard deviation, or {@link Double#NaN} until the bands are ready.
+   */
+  public double getStandardDeviation() {
+    if (!isReady()) {
+      return Double.NaN;
+    }
+    // rounding can leave a tiny negative sum when every price in the window is the same
+    return Math.sqrt(Math.max(0, sumOfSquaredDeviations) / prices.size());
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("lowerBand", getLowerBand())
+        .add("middleBand", getValue())
+        .add("upperBand", getUpperBand())
+        .toString();
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.strategy.api.indicators;
+
+/**
+ * A fixed size window over the most recent values, backed by a primitive array.
+ *
+ * @author gazbert
+ */
+final class DoubleRingBuffer {
+
+  private final double[] values;
+  private int next;
+  private int size;
+
+  DoubleRingBuffer(int capacity) {
+    values = new double[checkPeriod(capacity, "capacity")];
+  }
+
+  /*
+   * Adds a value to the window. Returns the oldest value if it had to be dropped to make room,
+   * 0 otherwise, so running sums can be updated with: sum += value - add(value).
+   */
+  double add(double value) {
+    final double dropped = size == values.length ? values[next] : 0;
+    values[next] = value;
+    next = next + 1 == values.length ? 0 : next + 1;
+    if (size < values.length) {
+      size++;
+    }
+    return dropped;
+  }
+
+  int size() {
+    return size;
+  }
+
+  boolean isFull() {
+    return size == values.length;
+  }
+
+  static int checkPeriod(int period, String name) {
+    if (period < 1) {
+      throw new IllegalArgumentException(name + " must be at least 1 but was: " + period);
+    }
+    return period;
+  }
+}
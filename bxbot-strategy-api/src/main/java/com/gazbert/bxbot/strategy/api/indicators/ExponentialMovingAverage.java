@@ -0,0 +1,80 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.strategy.api.indicators;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Exponential Moving Average (EMA): a moving average that weights recent prices more heavily.
+ *
+ * <p>The smoothing factor is 2 / (period + 1). The average is seeded with the simple mean of the
+ * first <em>period</em> prices.
+ *
+ * @author gazbert
+ * @since 1.1
+ */
+public final class ExponentialMovingAverage implements PriceIndicator {
+
+  private final int period;
+  private final double smoothingFactor;
+  private int count;
+  private double value;
+
+  /**
+   * Creates an Exponential Moving Average.
+   *
+   * @param period the number of prices the average is smoothed over.
+   * @throws IllegalArgumentException if period is less than 1.
+   */
+  public ExponentialMovingAverage(int period) {
+    this.period = DoubleRingBuffer.checkPeriod(period, "period");
+    this.smoothingFactor = 2.0 / (period + 1);
+  }
+
+  @Override
+  public void update(double price) {
+    if (count < period) {
+      // seed with the simple mean of the first period prices
+      count++;
+      value += (price - value) / count;
+    } else {
+      value += smoothingFactor * (price - value);
+    }
+  }
+
+  @Override
+  public boolean isReady() {
+    return count == period;
+  }
+
+  @Override
+  public double getValue() {
+    return isReady() ? value : Double.NaN;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this).add("value", getValue()).toString();
+  }
+}
@@ -0,0 +1,54 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.strategy.api.indicators;
+
+/**
+ * A technical indicator that is updated incrementally, one sample at a time.
+ *
+ * <p>Each update costs O(1) and allocates nothing, however long the indicator's period, so a
+ * Trading Strategy can update its indicators every trade cycle without recomputing over its price
+ * history.
+ *
+ * <p>Indicators are not thread-safe. Each one is expected to be owned and updated by a single
+ * Trading Strategy.
+ *
+ * @author gazbert
+ * @since 1.1
+ */
+public interface Indicator {
+
+  /**
+   * Returns true once the indicator has seen enough samples to fill its period.
+   *
+   * @return true if the indicator is ready, false otherwise.
+   */
+  boolean isReady();
+
+  /**
+   * Returns the current value of the indicator.
+   *
+   * @return the current value, or {@link Double#NaN} until the indicator is ready.
+   */
+  double getValue();
+}
@@ -0,0 +1,96 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.strategy.api.indicators;
+
+import com.gazbert.bxbot.trading.api.MarketOrder;
+import com.gazbert.bxbot.trading.api.MarketOrderBook;
+import com.gazbert.bxbot.trading.api.ScaledMarketOrderBook;
+import com.gazbert.bxbot.trading.api.Ticker;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Util class for taking the prices that feed indicators from Trading API market data.
+ *
+ * @author gazbert
+ * @since 1.1
+ */
+public final class MarketPrices {
+
+  private static final double SCALE_FACTOR = Math.pow(10, ScaledMarketOrderBook.SCALE);
+
+  private MarketPrices() {
+  }
+
+  /**
+   * Returns the last trade price of a Ticker.
+   *
+   * @param ticker the Ticker.
+   * @return the last trade price.
+   * @throws IllegalArgumentException if the Ticker has no last trade price.
+   */
+  public static double lastPrice(Ticker ticker) {
+    final BigDecimal last = ticker.getLast();
+    if (last == null) {
+      throw new IllegalArgumentException("Ticker has no last trade price");
+    }
+    return last.doubleValue();
+  }
+
+  /**
+   * Returns the mid price of an order book, i.e. halfway between the best bid and the best ask. A
+   * {@link ScaledMarketOrderBook} is read from its scaled prices, without creating BigDecimals.
+   *
+   * @param orderBook the order book.
+   * @return the mid price.
+   * @throws IllegalArgumentException if the order book has no bids or no asks.
+   */
+  public static double midPrice(MarketOrderBook orderBook) {
+    if (orderBook instanceof ScaledMarketOrderBook) {
+      return midPrice((ScaledMarketOrderBook) orderBook);
+    }
+    final double bestBid = bestPrice(orderBook.getBuyOrders(), "bids");
+    final double bestAsk = bestPrice(orderBook.getSellOrders(), "asks");
+    return (bestBid + bestAsk) / 2;
+  }
+
+  private static double midPrice(ScaledMarketOrderBook orderBook) {
+    if (orderBook.getBuyDepth() == 0) {
+      throw new IllegalArgumentException("Order book has no bids");
+    }
+    if (orderBook.getSellDepth() == 0) {
+      throw new IllegalArgumentException("Order book has no asks");
+    }
+    final double bestBid = orderBook.bestBidScaled() / SCALE_FACTOR;
+    final double bestAsk = orderBook.bestAskScaled() / SCALE_FACTOR;
+    return (bestBid + bestAsk) / 2;
+  }
+
+  private static double bestPrice(List<MarketOrder> orders, String side) {
+    if (orders == null || orders.isEmpty()) {
+      throw new IllegalArgumentException("Order book has no " + side);
+    }
+    return orders.get(0).getPrice().doubleValue();
+  }
+}
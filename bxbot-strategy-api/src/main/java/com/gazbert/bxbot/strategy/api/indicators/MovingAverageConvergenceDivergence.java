@@ -0,0 +1,122 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.strategy.api.indicators;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Moving Average Convergence Divergence (MACD).
+ *
+ * <p>The MACD line is the fast EMA of the price minus the slow EMA. The signal line is an EMA of
+ * the MACD line, and the histogram is the MACD line minus the signal line. The usual periods are
+ * 12, 26 and 9.
+ *
+ * @author gazbert
+ * @since 1.1
+ */
+public final class MovingAverageConvergenceDivergence implements PriceIndicator {
+
+  private final ExponentialMovingAverage fastAverage;
+  private final ExponentialMovingAverage slowAverage;
+  private final ExponentialMovingAverage signalAverage;
+
+  /**
+   * Creates a Moving Average Convergence Divergence.
+   *
+   * @param fastPeriod the period of the fast EMA, typically 12.
+   * @param slowPeriod the period of the slow EMA, typically 26.
+   * @param signalPeriod the period of the signal line EMA, typically 9.
+   * @throws IllegalArgumentException if a period is less than 1, or the fast period is not shorter
+   *     than the slow period.
+   */
+  public MovingAverageConvergenceDivergence(int fastPeriod, int slowPeriod, int signalPeriod) {
+    if (fastPeriod >= slowPeriod) {
+      throw new IllegalArgumentException(
+          "fastPeriod must be shorter than slowPeriod but was: "
+              + fastPeriod
+              + " and slowPeriod: "
+              + slowPeriod);
+    }
+    fastAverage = new ExponentialMovingAverage(fastPeriod);
+    slowAverage = new ExponentialMovingAverage(slowPeriod);
+    signalAverage = new ExponentialMovingAverage(signalPeriod);
+  }
+
+  @Override
+  public void update(double price) {
+    fastAverage.update(price);
+    slowAverage.update(price);
+    if (slowAverage.isReady()) {
+      signalAverage.update(getValue());
+    }
+  }
+
+  /**
+   * Returns true once the signal line is ready, i.e. after slowPeriod + signalPeriod - 1 prices.
+   *
+   * @return true if the MACD is ready, false otherwise.
+   */
+  @Override
+  public boolean isReady() {
+    return signalAverage.isReady();
+  }
+
+  /**
+   * Returns the MACD line. It is available as soon as the slow EMA is ready, before the signal
+   * line.
+   *
+   * @return the MACD line, or {@link Double#NaN} until the slow EMA is ready.
+   */
+  @Override
+  public double getValue() {
+    return fastAverage.getValue() - slowAverage.getValue();
+  }
+
+  /**
+   * Returns the signal line.
+   *
+   * @return the signal line, or {@link Double#NaN} until the MACD is ready.
+   */
+  public double getSignal() {
+    return signalAverage.getValue();
+  }
+
+  /**
+   * Returns the histogram, i.e. the MACD line minus the signal line.
+   *
+   * @return the histogram, or {@link Double#NaN} until the MACD is ready.
+   */
+  public double getHistogram() {
+    return getValue() - getSignal();
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("macd", getValue())
+        .add("signal", getSignal())
+        .add("histogram", getHistogram())
+        .toString();
+  }
+}
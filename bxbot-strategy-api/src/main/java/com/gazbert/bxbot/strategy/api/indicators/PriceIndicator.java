@@ -0,0 +1,66 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.strategy.api.indicators;
+
+import com.gazbert.bxbot.trading.api.MarketOrderBook;
+import com.gazbert.bxbot.trading.api.Ticker;
+
+/**
+ * An indicator that is calculated from a series of prices.
+ *
+ * <p>It can be fed with a price directly, the last trade price of a {@link Ticker}, or the mid
+ * price of a {@link MarketOrderBook}.
+ *
+ * @author gazbert
+ * @since 1.1
+ */
+public interface PriceIndicator extends Indicator {
+
+  /**
+   * Updates the indicator with the next price.
+   *
+   * @param price the next price.
+   */
+  void update(double price);
+
+  /**
+   * Updates the indicator with the last trade price of the Ticker.
+   *
+   * @param ticker the latest Ticker for the market.
+   * @throws IllegalArgumentException if the Ticker has no last trade price.
+   */
+  default void update(Ticker ticker) {
+    update(MarketPrices.lastPrice(ticker));
+  }
+
+  /**
+   * Updates the indicator with the mid price of the order book.
+   *
+   * @param orderBook the latest order book for the market.
+   * @throws IllegalArgumentException if the order book has no bids or no asks.
+   */
+  default void update(MarketOrderBook orderBook) {
+    update(MarketPrices.midPrice(orderBook));
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.strategy.api.indicators;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Relative Strength Index (RSI): a momentum oscillator between 0 and 100.
+ *
+ * <p>Uses Wilder's smoothing: the average gain and loss are seeded with the simple mean of the
+ * first <em>period</em> price changes, then each new change is given a weight of 1 / period. The
+ * index is ready once <em>period</em> + 1 prices have been seen.
+ *
+ * @author gazbert
+ * @since 1.1
+ */
+public final class RelativeStrengthIndex implements PriceIndicator {
+
+  private final int period;
+  private int changes;
+  private boolean hasPreviousPrice;
+  private double previousPrice;
+  private double averageGain;
+  private double averageLoss;
+
+  /**
+   * Creates a Relative Strength Index.
+   *
+   * @param period the number of price changes the index is smoothed over, typically 14.
+   * @throws IllegalArgumentException if period is less than 1.
+   */
+  public RelativeStrengthIndex(int period) {
+    this.period = DoubleRingBuffer.checkPeriod(period, "period");
+  }
+
+  @Override
+  public void update(double price) {
+    if (!hasPreviousPrice) {
+      hasPreviousPrice = true;
+      previousPrice = price;
+      return;
+    }
+    final double change = price - previousPrice;
+    previousPrice = price;
+    final double gain = change > 0 ? change : 0;
+    final double loss = change < 0 ? -change : 0;
+    if (changes < period) {
+      changes++;
+      averageGain += (gain - averageGain) / changes;
+      averageLoss += (loss - averageLoss) / changes;
+    } else {
+      averageGain += (gain - averageGain) / period;
+      averageLoss += (loss - averageLoss) / period;
+    }
+  }
+
+  @Override
+  public boolean isReady() {
+    return changes == period;
+  }
+
+  @Override
+  public double getValue() {
+    if (!isReady()) {
+      return Double.NaN;
+    }
+    if (averageLoss <= 0) {
+      return averageGain <= 0 ? 50 : 100;
+    }
+    return 100 - 100 / (1 + averageGain / averageLoss);
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this).add("value", getValue()).toString();
+  }
+}
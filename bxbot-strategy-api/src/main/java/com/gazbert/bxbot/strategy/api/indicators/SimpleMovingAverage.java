@@ -0,0 +1,71 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.strategy.api.indicators;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Simple Moving Average (SMA): the mean of the last <em>period</em> prices.
+ *
+ * <p>A running sum is kept over the window, so each update adds the new price and takes away the
+ * one that dropped out of the window.
+ *
+ * @author gazbert
+ * @since 1.1
+ */
+public final class SimpleMovingAverage implements PriceIndicator {
+
+  private final DoubleRingBuffer prices;
+  private double sum;
+
+  /**
+   * Creates a Simple Moving Average.
+   *
+   * @param period the number of prices to average.
+   * @throws IllegalArgumentException if period is less than 1.
+   */
+  public SimpleMovingAverage(int period) {
+    prices = new DoubleRingBuffer(DoubleRingBuffer.checkPeriod(period, "period"));
+  }
+
+  @Override
+  public void update(double price) {
+    sum += price - prices.add(price);
+  }
+
+  @Override
+  public boolean isReady() {
+    return prices.isFull();
+  }
+
+  @Override
+  public double getValue() {
+    return isReady() ? sum / prices.size() : Double.NaN;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this).add("value", getValue()).toString();
+  }
+}
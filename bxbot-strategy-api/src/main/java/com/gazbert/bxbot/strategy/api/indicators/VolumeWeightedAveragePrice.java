@@ -0,0 +1,93 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.strategy.api.indicators;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Volume Weighted Average Price (VWAP) over the last <em>period</em> trades or bars.
+ *
+ * <p>Running sums of price x volume and of volume are kept over the window. Each sample needs the
+ * volume traded since the previous one, which neither the Ticker nor the order book carry, so the
+ * Trading Strategy supplies it.
+ *
+ * @author gazbert
+ * @since 1.1
+ */
+public final class VolumeWeightedAveragePrice implements Indicator {
+
+  private final DoubleRingBuffer pricesTimesVolumes;
+  private final DoubleRingBuffer volumes;
+  private double sumOfPricesTimesVolumes;
+  private double sumOfVolumes;
+
+  /**
+   * Creates a Volume Weighted Average Price.
+   *
+   * @param period the number of trades or bars to average over.
+   * @throws IllegalArgumentException if period is less than 1.
+   */
+  public VolumeWeightedAveragePrice(int period) {
+    DoubleRingBuffer.checkPeriod(period, "period");
+    pricesTimesVolumes = new DoubleRingBuffer(period);
+    volumes = new DoubleRingBuffer(period);
+  }
+
+  /**
+   * Updates the VWAP with the next trade or bar.
+   *
+   * @param price the trade price, or a representative price for the bar.
+   * @param volume the volume traded.
+   * @throws IllegalArgumentException if volume is negative.
+   */
+  public void update(double price, double volume) {
+    if (!(volume >= 0)) {
+      throw new IllegalArgumentException("volume must not be negative but was: " + volume);
+    }
+    final double priceTimesVolume = price * volume;
+    sumOfPricesTimesVolumes += priceTimesVolume - pricesTimesVolumes.add(priceTimesVolume);
+    sumOfVolumes += volume - volumes.add(volume);
+  }
+
+  @Override
+  public boolean isReady() {
+    return volumes.isFull();
+  }
+
+  /**
+   * Returns the Volume Weighted Average Price.
+   *
+   * @return the VWAP, or {@link Double#NaN} until it is ready or if no volume was traded in the
+   *     window.
+   */
+  @Override
+  public double getValue() {
+    return isReady() && sumOfVolumes > 0 ? sumOfPricesTimesVolumes / sumOfVolumes : Double.NaN;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this).add("value", getValue()).toString();
+  }
+}
@@ -0,0 +1,25 @@
+/**
+ *
+ *
+ * <h2>Indicators</h2>
+ *
+ * <p>Incremental technical indicators for Trading Strategies. Each update costs O(1) and allocates
+ * nothing. The price history each indicator needs is held in primitive arrays.
+ *
+ * <p>{@link com.gazbert.bxbot.strategy.api.indicators.PriceIndicator}s can be fed straight from a
+ * {@link com.gazbert.bxbot.trading.api.Ticker} or {@link
+ * com.gazbert.bxbot.trading.api.MarketOrderBook}, e.g.
+ *
+ * <pre>
+ * final RelativeStrengthIndex rsi = new RelativeStrengthIndex(14);
+ * ...
+ * rsi.update(tradingApi.getMarketOrders(market.getId()));
+ * if (rsi.isReady() &amp;&amp; rsi.getValue() &lt; 30) {
+ *   // oversold...
+ * }
+ * </pre>
+ *
+ * @author gazbert
+ * @since 1.1
+ */
+package com.gazbert.bxbot.strategy.api.indicators;
@@ -0,0 +1,71 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 gazbert
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.strategy.api;
+
+import static org.junit.Assert.assertSame;
+
+import com.gazbert.bxbot.trading.api.AsyncTradingApi;
+import com.gazbert.bxbot.trading.api.Market;
+import com.gazbert.bxbot.trading.api.TradingApi;
+import java.lang.reflect.Proxy;
+import org.junit.Test;
+
+/**
+ * Tests default impl methods of TradingStrategy interface.
+ *
+ * @author gazbert
+ */
+public class TestTradingStrategy {
+
+  @Test
+  public void testAsyncInitCallsBlockingInitByDefault() {
+    final AsyncTradingApi asyncTradingApi =
+        (AsyncTradingApi)
+            Proxy.newProxyInstance(
+                AsyncTradingApi.class.getClassLoader(),
+                new Class<?>[] {AsyncTradingApi.class},
+                (proxy, method, args) -> null);
+    final MyTradingStrategy strategy = new MyTradingStrategy();
+
+    strategy.init(asyncTradingApi, null, null);
+
+    assertSame(asyncTradingApi, strategy.tradingApi);
+  }
+
+  /** Test class. */
+  static class MyTradingStrategy implements TradingStrategy {
+
+    private TradingApi tradingApi;
+
+    @Override
+    public void init(TradingApi tradingApi, Market market, StrategyConfig config) {
+      this.tradingApi = tradingApi;
+    }
+
+    @Override
+    public void execute() {
+      // nothing to do
+    }
+  }
+}
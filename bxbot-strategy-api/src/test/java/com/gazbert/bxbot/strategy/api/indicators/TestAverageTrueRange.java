@@ -0,0 +1,64 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.strategy.api.indicators;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests the Average True Range behaves as expected.
+ *
+ * @author gazbert
+ */
+public class TestAverageTrueRange {
+
+  private static final double DELTA = 1e-9;
+
+  @Test
+  public void testTrueRangeIncludesGapsFromPreviousClose() {
+    final AverageTrueRange atr = new AverageTrueRange(2);
+    atr.update(12, 10, 11); // high - low = 2
+    assertFalse(atr.isReady());
+    assertTrue(Double.isNaN(atr.getValue()));
+
+    atr.update(16, 15, 15.5); // gap up: high - previous close = 5
+    assertTrue(atr.isReady());
+    assertEquals(3.5, atr.getValue(), DELTA);
+
+    atr.update(14, 9, 10); // gap down: previous close - low = 6.5
+    assertEquals((3.5 + 6.5) / 2, atr.getValue(), DELTA);
+
+    atr.update(10.5, 9.5, 10); // high - low = 1
+    assertEquals((5 + 1) / 2.0, atr.getValue(), DELTA);
+    assertTrue(atr.toString().contains("value=3.0"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testPeriodMustBeAtLeastOne() {
+    new AverageTrueRange(0);
+  }
+}
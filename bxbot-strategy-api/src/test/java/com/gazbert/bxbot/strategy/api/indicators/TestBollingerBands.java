@@ -0,0 +1,91 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.strategy.api.indicators;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import org.junit.Test;
+
+/**
+ * Tests the Bollinger Bands behave as expected.
+ *
+ * @author gazbert
+ */
+public class TestBollingerBands {
+
+  private static final double DELTA = 1e-6;
+
+  @Test
+  public void testBandsAreStandardDeviationsFromTheAverage() {
+    final BollingerBands bands = new BollingerBands(4, 2);
+    bands.update(2);
+    bands.update(4);
+    bands.update(4);
+    assertFalse(bands.isReady());
+    assertTrue(Double.isNaN(bands.getUpperBand()));
+
+    bands.update(6); // mean 4, population std dev 1.414...
+    assertTrue(bands.isReady());
+    assertEquals(4, bands.getValue(), DELTA);
+    assertEquals(Math.sqrt(2), bands.getStandardDeviation(), DELTA);
+    assertEquals(4 + 2 * Math.sqrt(2), bands.getUpperBand(), DELTA);
+    assertEquals(4 - 2 * Math.sqrt(2), bands.getLowerBand(), DELTA);
+    assertTrue(bands.toString().contains("middleBand=4.0"));
+  }
+
+  @Test
+  public void testBandsMatchTheWindowAsPricesSlideThrough() {
+    final double[] prices = TestSimpleMovingAverage.randomPrices(2000);
+    final BollingerBands bands = new BollingerBands(20, 2);
+    for (int i = 0; i < prices.length; i++) {
+      bands.update(prices[i]);
+      if (i >= 19) {
+        final double[] window = Arrays.copyOfRange(prices, i - 19, i + 1);
+        final double mean = Arrays.stream(window).average().getAsDouble();
+        final double variance =
+            Arrays.stream(window).map(price -> (price - mean) * (price - mean)).sum() / 20;
+        assertEquals(mean, bands.getValue(), DELTA);
+        assertEquals(Math.sqrt(variance), bands.getStandardDeviation(), DELTA);
+      }
+    }
+  }
+
+  @Test
+  public void testBandsCloseUpWhenPricesAreFlat() {
+    final BollingerBands bands = new BollingerBands(3, 2);
+    for (int i = 0; i < 10; i++) {
+      bands.update(6543.21);
+    }
+    assertEquals(0, bands.getStandardDeviation(), DELTA);
+    assertEquals(6543.21, bands.getUpperBand(), DELTA);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testStandardDeviationsMustNotBeNegative() {
+    new BollingerBands(20, -2);
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.strategy.api.indicators;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests the Exponential Moving Average behaves as expected.
+ *
+ * @author gazbert
+ */
+public class TestExponentialMovingAverage {
+
+  private static final double DELTA = 1e-9;
+
+  @Test
+  public void testAverageIsSeededWithSimpleMeanThenSmoothed() {
+    final ExponentialMovingAverage ema = new ExponentialMovingAverage(3);
+    ema.update(2);
+    ema.update(4);
+    assertFalse(ema.isReady());
+    assertTrue(Double.isNaN(ema.getValue()));
+
+    ema.update(6);
+    assertTrue(ema.isReady());
+    assertEquals(4.0, ema.getValue(), DELTA);
+
+    // smoothing factor is 2 / (3 + 1) = 0.5
+    ema.update(10);
+    assertEquals(7.0, ema.getValue(), DELTA);
+    ema.update(3);
+    assertEquals(5.0, ema.getValue(), DELTA);
+    assertTrue(ema.toString().contains("value=5.0"));
+  }
+
+  @Test
+  public void testAverageMatchesRecursiveDefinition() {
+    final double[] prices = TestSimpleMovingAverage.randomPrices(500);
+    final ExponentialMovingAverage ema = new ExponentialMovingAverage(10);
+    double expected = 0;
+    for (int i = 0; i < prices.length; i++) {
+      ema.update(prices[i]);
+      if (i == 9) {
+        for (int j = 0; j < 10; j++) {
+          expected += prices[j] / 10;
+        }
+      } else if (i > 9) {
+        expected = prices[i] * (2.0 / 11) + expected * (1 - 2.0 / 11);
+      }
+    }
+    assertEquals(expected, ema.getValue(), 1e-6);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testPeriodMustBeAtLeastOne() {
+    new ExponentialMovingAverage(-1);
+  }
+}
@@ -0,0 +1,263 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.strategy.api.indicators;
+
+import static org.junit.Assert.assertEquals;
+
+import com.gazbert.bxbot.trading.api.MarketOrder;
+import com.gazbert.bxbot.trading.api.MarketOrderBook;
+import com.gazbert.bxbot.trading.api.OrderType;
+import com.gazbert.bxbot.trading.api.ScaledMarketOrderBook;
+import com.gazbert.bxbot.trading.api.Ticker;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * Tests indicators are fed the expected prices from market data.
+ *
+ * @author gazbert
+ */
+public class TestMarketPrices {
+
+  private static final double DELTA = 1e-9;
+
+  @Test
+  public void testIndicatorIsFedLastPriceFromTicker() {
+    final SimpleMovingAverage sma = new SimpleMovingAverage(1);
+    sma.update(new MyTicker(new BigDecimal("6543.21")));
+    assertEquals(6543.21, sma.getValue(), DELTA);
+  }
+
+  @Test
+  public void testIndicatorIsFedMidPriceFromOrderBook() {
+    final MarketOrderBook orderBook =
+        new MyMarketOrderBook(
+            Arrays.asList(new MyMarketOrder("6500.50"), new MyMarketOrder("6500.00")),
+            Arrays.asList(new MyMarketOrder("6501.50"), new MyMarketOrder("6502.00")));
+
+    final SimpleMovingAverage sma = new SimpleMovingAverage(1);
+    sma.update(orderBook);
+    assertEquals(6501.0, sma.getValue(), DELTA);
+  }
+
+  @Test
+  public void testMidPriceIsReadFromScaledOrderBookPrices() {
+    final SimpleMovingAverage sma = new SimpleMovingAverage(1);
+    sma.update(new MyScaledMarketOrderBook(650050000000L, 650150000000L));
+    assertEquals(6501.0, sma.getValue(), DELTA);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testScaledOrderBookMustHaveBids() {
+    MarketPrices.midPrice(new MyScaledMarketOrderBook(null, 650150000000L));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTickerMustHaveLastPrice() {
+    MarketPrices.lastPrice(new MyTicker(null));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testOrderBookMustHaveBids() {
+    MarketPrices.midPrice(
+        new MyMarketOrderBook(
+            Collections.emptyList(), Collections.singletonList(new MyMarketOrder("6501.50"))));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testOrderBookMustHaveAsks() {
+    MarketPrices.midPrice(
+        new MyMarketOrderBook(Collections.singletonList(new MyMarketOrder("6500.50")), null));
+  }
+
+  /** Test class. */
+  private static class MyMarketOrder implements MarketOrder {
+
+    private final BigDecimal price;
+
+    MyMarketOrder(String price) {
+      this.price = new BigDecimal(price);
+    }
+
+    @Override
+    public OrderType getType() {
+      return null;
+    }
+
+    @Override
+    public BigDecimal getPrice() {
+      return price;
+    }
+
+    @Override
+    public BigDecimal getQuantity() {
+      return BigDecimal.ONE;
+    }
+
+    @Override
+    public BigDecimal getTotal() {
+      return price;
+    }
+  }
+
+  /** Test class. */
+  private static class MyMarketOrderBook implements MarketOrderBook {
+
+    private final List<MarketOrder> buyOrders;
+    private final List<MarketOrder> sellOrders;
+
+    MyMarketOrderBook(List<MarketOrder> buyOrders, List<MarketOrder> sellOrders) {
+      this.buyOrders = buyOrders;
+      this.sellOrders = sellOrders;
+    }
+
+    @Override
+    public String getMarketId() {
+      return "btcusd";
+    }
+
+    @Override
+    public List<MarketOrder> getSellOrders() {
+      return sellOrders;
+    }
+
+    @Override
+    public List<MarketOrder> getBuyOrders() {
+      return buyOrders;
+    }
+  }
+
+  /** Test class. */
+  private static class MyScaledMarketOrderBook extends MyMarketOrderBook
+      implements ScaledMarketOrderBook {
+
+    private final Long bestBid;
+    private final Long bestAsk;
+
+    MyScaledMarketOrderBook(Long bestBid, Long bestAsk) {
+      // the BigDecimal orders must not be read
+      super(null, null);
+      this.bestBid = bestBid;
+      this.bestAsk = bestAsk;
+    }
+
+    @Override
+    public int getBuyDepth() {
+      return bestBid == null ? 0 : 1;
+    }
+
+    @Override
+    public int getSellDepth() {
+      return bestAsk == null ? 0 : 1;
+    }
+
+    @Override
+    public long bestBidScaled() {
+      return bestBid;
+    }
+
+    @Override
+    public long bestAskScaled() {
+      return bestAsk;
+    }
+
+    @Override
+    public long getBuyPriceScaled(int level) {
+      return bestBid;
+    }
+
+    @Override
+    public long getBuyQuantityScaled(int level) {
+      return 100000000L;
+    }
+
+    @Override
+    public long getSellPriceScaled(int level) {
+      return bestAsk;
+    }
+
+    @Override
+    public long getSellQuantityScaled(int level) {
+      return 100000000L;
+    }
+  }
+
+  /** Test class. */
+  private static class MyTicker implements Ticker {
+
+    private final BigDecimal last;
+
+    MyTicker(BigDecimal last) {
+      this.last = last;
+    }
+
+    @Override
+    public BigDecimal getLast() {
+      return last;
+    }
+
+    @Override
+    public BigDecimal getBid() {
+      return null;
+    }
+
+    @Override
+    public BigDecimal getAsk() {
+      return null;
+    }
+
+    @Override
+    public BigDecimal getLow() {
+      return null;
+    }
+
+    @Override
+    public BigDecimal getHigh() {
+      return null;
+    }
+
+    @Override
+    public BigDecimal getOpen() {
+      return null;
+    }
+
+    @Override
+    public BigDecimal getVolume() {
+      return null;
+    }
+
+    @Override
+    public BigDecimal getVwap() {
+      return null;
+    }
+
+    @Override
+    public Long getTimestamp() {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.strategy.api.indicators;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests the Moving Average Convergence Divergence behaves as expected.
+ *
+ * @author gazbert
+ */
+public class TestMovingAverageConvergenceDivergence {
+
+  private static final double DELTA = 1e-9;
+
+  @Test
+  public void testMacdIsFastEmaMinusSlowEmaWithSignalLine() {
+    final double[] prices = TestSimpleMovingAverage.randomPrices(200);
+    final MovingAverageConvergenceDivergence macd =
+        new MovingAverageConvergenceDivergence(12, 26, 9);
+    final ExponentialMovingAverage fast = new ExponentialMovingAverage(12);
+    final ExponentialMovingAverage slow = new ExponentialMovingAverage(26);
+    final ExponentialMovingAverage signal = new ExponentialMovingAverage(9);
+
+    for (int i = 0; i < prices.length; i++) {
+      macd.update(prices[i]);
+      fast.update(prices[i]);
+      slow.update(prices[i]);
+      if (i < 25) {
+        assertTrue(Double.isNaN(macd.getValue()));
+        continue;
+      }
+      signal.update(fast.getValue() - slow.getValue());
+      assertEquals(fast.getValue() - slow.getValue(), macd.getValue(), DELTA);
+      // the signal line needs 9 MACD values, i.e. 26 + 9 - 1 prices
+      assertEquals(i >= 33, macd.isReady());
+    }
+
+    assertEquals(signal.getValue(), macd.getSignal(), DELTA);
+    assertEquals(macd.getValue() - signal.getValue(), macd.getHistogram(), DELTA);
+    assertTrue(macd.toString().contains("histogram="));
+  }
+
+  @Test
+  public void testMacdIsNotReadyUntilSignalLineIsReady() {
+    final MovingAverageConvergenceDivergence macd = new MovingAverageConvergenceDivergence(2, 3, 2);
+    macd.update(1);
+    macd.update(2);
+    macd.update(3);
+    assertFalse(macd.isReady());
+    assertTrue(Double.isNaN(macd.getSignal()));
+
+    macd.update(4);
+    assertTrue(macd.isReady());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testFastPeriodMustBeShorterThanSlowPeriod() {
+    new MovingAverageConvergenceDivergence(26, 12, 9);
+  }
+}
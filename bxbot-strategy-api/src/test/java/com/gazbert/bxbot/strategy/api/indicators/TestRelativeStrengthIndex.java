@@ -0,0 +1,80 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.strategy.api.indicators;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests the Relative Strength Index behaves as expected.
+ *
+ * @author gazbert
+ */
+public class TestRelativeStrengthIndex {
+
+  private static final double DELTA = 1e-9;
+
+  @Test
+  public void testIndexUsesWildersSmoothing() {
+    final RelativeStrengthIndex rsi = new RelativeStrengthIndex(3);
+    rsi.update(10);
+    rsi.update(12); // +2
+    rsi.update(11); // -1
+    assertFalse(rsi.isReady());
+    assertTrue(Double.isNaN(rsi.getValue()));
+
+    rsi.update(14); // +3 -> avg gain 5/3, avg loss 1/3
+    assertTrue(rsi.isReady());
+    assertEquals(100 - 100 / (1 + 5.0), rsi.getValue(), DELTA);
+
+    rsi.update(12); // -2 -> avg gain (5/3 * 2) / 3, avg loss (1/3 * 2 + 2) / 3
+    final double averageGain = (5.0 / 3 * 2) / 3;
+    final double averageLoss = (1.0 / 3 * 2 + 2) / 3;
+    assertEquals(100 - 100 / (1 + averageGain / averageLoss), rsi.getValue(), DELTA);
+    assertTrue(rsi.toString().contains("value="));
+  }
+
+  @Test
+  public void testIndexIsBoundedWhenPricesOnlyMoveOneWay() {
+    final RelativeStrengthIndex rising = new RelativeStrengthIndex(2);
+    final RelativeStrengthIndex flat = new RelativeStrengthIndex(2);
+    final RelativeStrengthIndex falling = new RelativeStrengthIndex(2);
+    for (int i = 0; i < 5; i++) {
+      rising.update(100 + i);
+      flat.update(100);
+      falling.update(100 - i);
+    }
+    assertEquals(100, rising.getValue(), DELTA);
+    assertEquals(50, flat.getValue(), DELTA);
+    assertEquals(0, falling.getValue(), DELTA);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testPeriodMustBeAtLeastOne() {
+    new RelativeStrengthIndex(0);
+  }
+}
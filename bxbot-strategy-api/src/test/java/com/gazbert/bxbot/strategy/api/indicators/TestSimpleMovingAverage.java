@@ -0,0 +1,88 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.strategy.api.indicators;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Tests the Simple Moving Average behaves as expected.
+ *
+ * @author gazbert
+ */
+public class TestSimpleMovingAverage {
+
+  private static final double DELTA = 1e-9;
+
+  @Test
+  public void testAverageIsReadyOncePeriodIsFilled() {
+    final SimpleMovingAverage sma = new SimpleMovingAverage(3);
+    sma.update(1);
+    sma.update(2);
+    assertFalse(sma.isReady());
+    assertTrue(Double.isNaN(sma.getValue()));
+
+    sma.update(6);
+    assertTrue(sma.isReady());
+    assertEquals(3.0, sma.getValue(), DELTA);
+
+    sma.update(10);
+    assertEquals(6.0, sma.getValue(), DELTA);
+  }
+
+  @Test
+  public void testAverageMatchesMeanOfLastPeriodPrices() {
+    final double[] prices = randomPrices(1000);
+    final SimpleMovingAverage sma = new SimpleMovingAverage(20);
+    for (int i = 0; i < prices.length; i++) {
+      sma.update(prices[i]);
+      if (i >= 19) {
+        final double expected = Arrays.stream(prices, i - 19, i + 1).average().getAsDouble();
+        assertEquals(expected, sma.getValue(), DELTA);
+      }
+    }
+    assertTrue(sma.toString().contains("value="));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testPeriodMustBeAtLeastOne() {
+    new SimpleMovingAverage(0);
+  }
+
+  static double[] randomPrices(int count) {
+    final Random random = new Random(42);
+    final double[] prices = new double[count];
+    double price = 6500;
+    for (int i = 0; i < count; i++) {
+      price += random.nextGaussian() * 25;
+      prices[i] = price;
+    }
+    return prices;
+  }
+}
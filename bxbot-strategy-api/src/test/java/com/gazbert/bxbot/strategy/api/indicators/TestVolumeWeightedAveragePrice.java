@@ -0,0 +1,69 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.strategy.api.indicators;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests the Volume Weighted Average Price behaves as expected.
+ *
+ * @author gazbert
+ */
+public class TestVolumeWeightedAveragePrice {
+
+  private static final double DELTA = 1e-9;
+
+  @Test
+  public void testPricesAreWeightedByVolumeOverTheWindow() {
+    final VolumeWeightedAveragePrice vwap = new VolumeWeightedAveragePrice(2);
+    vwap.update(100, 1);
+    assertFalse(vwap.isReady());
+    assertTrue(Double.isNaN(vwap.getValue()));
+
+    vwap.update(110, 3);
+    assertTrue(vwap.isReady());
+    assertEquals((100 + 330) / 4.0, vwap.getValue(), DELTA);
+
+    vwap.update(90, 1); // the first trade drops out of the window
+    assertEquals((330 + 90) / 4.0, vwap.getValue(), DELTA);
+    assertTrue(vwap.toString().contains("value=105.0"));
+  }
+
+  @Test
+  public void testNoValueWhenNoVolumeTraded() {
+    final VolumeWeightedAveragePrice vwap = new VolumeWeightedAveragePrice(1);
+    vwap.update(100, 0);
+    assertTrue(vwap.isReady());
+    assertTrue(Double.isNaN(vwap.getValue()));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testVolumeMustNotBeNegative() {
+    new VolumeWeightedAveragePrice(2).update(100, -1);
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.trading.api;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous companion to the {@link TradingApi}.
+ *
+ * <p>Each method returns immediately with a {@link CompletableFuture} so a Trading Strategy can
+ * fan out independent calls and join them, paying one round trip instead of several, e.g.
+ *
+ * <pre>
+ * final CompletableFuture&lt;MarketOrderBook&gt; orderBook = api.getMarketOrdersAsync(marketId);
+ * final CompletableFuture&lt;BalanceInfo&gt; balance = api.getBalanceInfoAsync();
+ * CompletableFuture.allOf(orderBook, balance).join();
+ * </pre>
+ *
+ * <p>The futures complete exceptionally with the {@link ExchangeNetworkException} or {@link
+ * TradingApiException} the equivalent blocking call would have thrown; {@link
+ * CompletableFuture#join()} wraps it in a {@link java.util.concurrent.CompletionException} and
+ * {@link CompletableFuture#get()} wraps it in a {@link java.util.concurrent.ExecutionException}.
+ *
+ * <p>The default implementations run the blocking calls on a small shared thread pool. Exchange
+ * Adapters override them where they can make the call without blocking a thread at all.
+ *
+ * @author gazbert
+ * @since 1.2
+ */
+public interface AsyncTradingApi extends TradingApi {
+
+  /**
+   * Fetches latest <em>market</em> orders for a given market.
+   *
+   * @param marketId the id of the market.
+   * @return a future for the market order book.
+   * @since 1.2
+   */
+  default CompletableFuture<MarketOrderBook> getMarketOrdersAsync(String marketId) {
+    return BlockingCallExecutor.supplyAsync(() -> getMarketOrders(marketId));
+  }
+
+  /**
+   * Fetches <em>your</em> current open orders, i.e. the orders placed by the bot.
+   *
+   * @param marketId the id of the market.
+   * @return a future for your current open orders.
+   * @since 1.2
+   */
+  default CompletableFuture<List<OpenOrder>> getYourOpenOrdersAsync(String marketId) {
+    return BlockingCallExecutor.supplyAsync(() -> getYourOpenOrders(marketId));
+  }
+
+  /**
+   * Places an order on the exchange.
+   *
+   * @param marketId the id of the market.
+   * @param orderType Value must be {@link OrderType#BUY} or {@link OrderType#SELL}.
+   * @param quantity amount of units you are buying/selling in this order.
+   * @param price the price per unit you are buying/selling at.
+   * @return a future for the id of the order.
+   * @since 1.2
+   */
+  default CompletableFuture<String> createOrderAsync(
+      String marketId, OrderType orderType, BigDecimal quantity, BigDecimal price) {
+    return BlockingCallExecutor.supplyAsync(
+        () -> createOrder(marketId, orderType, quantity, price));
+  }
+
+  /**
+   * Cancels your existing order on the exchange.
+   *
+   * @param orderId your order Id.
+   * @param marketId the id of the market the order was placed on, e.g. btc_usd
+   * @return a future that is true if order cancelled ok, false otherwise.
+   * @since 1.2
+   */
+  default CompletableFuture<Boolean> cancelOrderAsync(String orderId, String marketId) {
+    return BlockingCallExecutor.supplyAsync(() -> cancelOrder(orderId, marketId));
+  }
+
+  /**
+   * Fetches the latest price for a given market.
+   *
+   * @param marketId the id of the market.
+   * @return a future for the latest market price.
+   * @since 1.2
+   */
+  default CompletableFuture<BigDecimal> getLatestMarketPriceAsync(String marketId) {
+    return BlockingCallExecutor.supplyAsync(() -> getLatestMarketPrice(marketId));
+  }
+
+  /**
+   * Fetches the balance of your wallets on the exchange.
+   *
+   * @return a future for your wallet balance info.
+   * @since 1.2
+   */
+  default CompletableFuture<BalanceInfo> getBalanceInfoAsync() {
+    return BlockingCallExecutor.supplyAsync(this::getBalanceInfo);
+  }
+
+  /**
+   * Returns the exchange Ticker a given market id.
+   *
+   * @param marketId the id of the market.
+   * @return a future for the exchange Ticker for a given market.
+   * @since 1.2
+   */
+  default CompletableFuture<Ticker> getTickerAsync(String marketId) {
+    return BlockingCallExecutor.supplyAsync(() -> getTicker(marketId));
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.trading.api;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs blocking Trading API calls for the default {@link AsyncTradingApi} methods.
+ *
+ * <p>The pool is bounded because the calls block on network IO; extra calls queue until a thread
+ * is free. Idle threads time out, so the pool costs nothing if the async API is not used.
+ *
+ * @author gazbert
+ */
+final class BlockingCallExecutor {
+
+  private static final int MAX_THREADS = 8;
+  private static final long IDLE_THREAD_TIMEOUT_SECS = 60;
+
+  private static final ExecutorService EXECUTOR = createExecutor();
+
+  private BlockingCallExecutor() {
+  }
+
+  /**
+   * A blocking Trading API call.
+   *
+   * @param <T> the result type.
+   */
+  @FunctionalInterface
+  interface BlockingCall<T> {
+    T call() throws ExchangeNetworkException, TradingApiException;
+  }
+
+  static <T> CompletableFuture<T> supplyAsync(BlockingCall<T> blockingCall) {
+    final CompletableFuture<T> result = new CompletableFuture<>();
+    EXECUTOR.execute(
+        () -> {
+          try {
+            result.complete(blockingCall.call());
+          } catch (Throwable t) {
+            // Errors too, e.g. an OutOfMemoryError, else the caller would wait forever.
+            result.completeExceptionally(t);
+          }
+        });
+    return result;
+  }
+
+  /*
+   * Rethrows the exception a blocking call failed with, unchecked exceptions and errors included.
+   */
+  static void rethrow(Throwable failure) throws ExchangeNetworkException, TradingApiException {
+    if (failure instanceof ExchangeNetworkException) {
+      throw (ExchangeNetworkException) failure;
+    } else if (failure instanceof TradingApiException) {
+      throw (TradingApiException) failure;
+    } else if (failure instanceof RuntimeException) {
+      throw (RuntimeException) failure;
+    } else if (failure instanceof Error) {
+      throw (Error) failure;
+    }
+    throw new IllegalStateException("Unexpected checked exception from blocking call", failure);
+  }
+
+  private static ExecutorService createExecutor() {
+    final AtomicInteger threadCount = new AtomicInteger();
+    final ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            MAX_THREADS,
+            MAX_THREADS,
+            IDLE_THREAD_TIMEOUT_SECS,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            runnable -> {
+              final Thread thread =
+                  new Thread(runnable, "bxbot-trading-api-" + threadCount.getAndIncrement());
+              thread.setDaemon(true);
+              return thread;
+            });
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+}
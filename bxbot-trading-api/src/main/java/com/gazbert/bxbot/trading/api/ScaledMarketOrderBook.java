@@ -0,0 +1,111 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.trading.api;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A Market Order Book that also holds its prices and quantities as scaled fixed-point longs.
+ *
+ * <p>All values are in units of 10^-{@value #SCALE}, e.g. a price of 230.34 is 23034000000. Trading
+ * Strategies that read the book every trade cycle can use these accessors to avoid creating a
+ * BigDecimal per price level.
+ *
+ * <p>Exchange Adapters do not have to return one, so check the type of the order book before
+ * casting, e.g. <code>if (orderBook instanceof ScaledMarketOrderBook)</code>.
+ *
+ * @author gazbert
+ * @since 1.2
+ */
+public interface ScaledMarketOrderBook extends MarketOrderBook {
+
+  /** The number of decimal places held in the scaled values. */
+  int SCALE = 8;
+
+  /**
+   * Returns the number of BUY price levels in the order book.
+   *
+   * @return the number of BUY price levels.
+   */
+  int getBuyDepth();
+
+  /**
+   * Returns the number of SELL price levels in the order book.
+   *
+   * @return the number of SELL price levels.
+   */
+  int getSellDepth();
+
+  /**
+   * Returns the best (highest) BID price.
+   *
+   * @return the price in units of 10^-{@value #SCALE}.
+   * @throws NoSuchElementException if there are no BUY orders.
+   */
+  long bestBidScaled();
+
+  /**
+   * Returns the best (lowest) ASK price.
+   *
+   * @return the price in units of 10^-{@value #SCALE}.
+   * @throws NoSuchElementException if there are no SELL orders.
+   */
+  long bestAskScaled();
+
+  /**
+   * Returns the BUY price at the given level.
+   *
+   * @param level the level, where 0 is the best BID.
+   * @return the price in units of 10^-{@value #SCALE}.
+   * @throws IndexOutOfBoundsException if there is no such level.
+   */
+  long getBuyPriceScaled(int level);
+
+  /**
+   * Returns the BUY quantity at the given level.
+   *
+   * @param level the level, where 0 is the best BID.
+   * @return the quantity in units of 10^-{@value #SCALE}.
+   * @throws IndexOutOfBoundsException if there is no such level.
+   */
+  long getBuyQuantityScaled(int level);
+
+  /**
+   * Returns the SELL price at the given level.
+   *
+   * @param level the level, where 0 is the best ASK.
+   * @return the price in units of 10^-{@value #SCALE}.
+   * @throws IndexOutOfBoundsException if there is no such level.
+   */
+  long getSellPriceScaled(int level);
+
+  /**
+   * Returns the SELL quantity at the given level.
+   *
+   * @param level the level, where 0 is the best ASK.
+   * @return the quantity in units of 10^-{@value #SCALE}.
+   * @throws IndexOutOfBoundsException if there is no such level.
+   */
+  long getSellQuantityScaled(int level);
+}
@@ -24,7 +24,14 @@
 package com.gazbert.bxbot.trading.api;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * BX-bot's Trading API.
@@ -51,7 +58,7 @@ public interface TradingApi {
    * @since 1.0
    */
   default String getVersion() {
-    return "1.1";
+    return "1.2";
   }
 
   /**
@@ -80,6 +87,96 @@ public interface TradingApi {
   MarketOrderBook getMarketOrders(String marketId)
       throws ExchangeNetworkException, TradingApiException;
 
+  /**
+   * Fetches the top {@code depth} levels of the latest <em>market</em> orders for a given market.
+   *
+   * <p>Use this if your Trading Strategy only needs the best few bids and asks. Exchange Adapters
+   * pass the depth to the exchange where it supports it, or stop parsing the order book once they
+   * have enough levels, so less data is sent over the wire and held in memory.
+   *
+   * <p>The default implementation fetches the full order book and returns the first {@code depth}
+   * orders of each side.
+   *
+   * @param marketId the id of the market.
+   * @param depth the maximum number of BUY orders and SELL orders to return. Must be at least 1.
+   * @return the market order book, with at most {@code depth} orders each side.
+   * @throws ExchangeNetworkException if a network error occurred trying to connect to the exchange.
+   *     This is implementation specific for each Exchange Adapter - see the documentation for the
+   *     adapter you are using. You could retry the API call, or exit from your Trading Strategy and
+   *     let the Trading Engine execute your Trading Strategy at the next trade cycle.
+   * @throws TradingApiException if the API call failed for any reason other than a network error.
+   *     This means something bad as happened; you would probably want to wrap this exception in a
+   *     StrategyException and let the Trading Engine shutdown the bot immediately to prevent
+   *     unexpected losses.
+   * @since 1.2
+   */
+  default MarketOrderBook getMarketOrders(String marketId, int depth)
+      throws ExchangeNetworkException, TradingApiException {
+
+    if (depth < 1) {
+      throw new IllegalArgumentException("Order book depth must be at least 1. Value: " + depth);
+    }
+
+    final MarketOrderBook orderBook = getMarketOrders(marketId);
+    final List<MarketOrder> sellOrders = orderBook.getSellOrders();
+    final List<MarketOrder> buyOrders = orderBook.getBuyOrders();
+    if (sellOrders.size() <= depth && buyOrders.size() <= depth) {
+      return orderBook;
+    }
+
+    return new MarketOrderBook() {
+      @Override
+      public String getMarketId() {
+        return orderBook.getMarketId();
+      }
+
+      @Override
+      public List<MarketOrder> getSellOrders() {
+        return sellOrders.subList(0, Math.min(depth, sellOrders.size()));
+      }
+
+      @Override
+      public List<MarketOrder> getBuyOrders() {
+        return buyOrders.subList(0, Math.min(depth, buyOrders.size()));
+      }
+
+      @Override
+      public String toString() {
+        return orderBook.toString();
+      }
+    };
+  }
+
+  /**
+   * Fetches the market order books for several markets.
+   *
+   * <p>Use this if your bot trades several markets on the same exchange. Exchange Adapters fetch
+   * all the order books in a single request where the exchange supports it, e.g. Kraken, instead
+   * of making a round trip per market.
+   *
+   * <p>The default implementation fetches each market's order book in turn.
+   *
+   * @param marketIds the ids of the markets.
+   * @return the market order books, keyed by market id, in the order the ids were given.
+   * @throws ExchangeNetworkException if a network error occurred trying to connect to the exchange.
+   *     This is implementation specific for each Exchange Adapter - see the documentation for the
+   *     adapter you are using. You could retry the API call, or exit from your Trading Strategy and
+   *     let the Trading Engine execute your Trading Strategy at the next trade cycle.
+   * @throws TradingApiException if the API call failed for any reason other than a network error.
+   *     This means something bad as happened; you would probably want to wrap this exception in a
+   *     StrategyException and let the Trading Engine shutdown the bot immediately to prevent
+   *     unexpected losses.
+   * @since 1.2
+   */
+  default Map<String, MarketOrderBook> getMarketOrders(Collection<String> marketIds)
+      throws ExchangeNetworkException, TradingApiException {
+    final Map<String, MarketOrderBook> orderBooks = new LinkedHashMap<>();
+    for (final String marketId : marketIds) {
+      orderBooks.put(marketId, getMarketOrders(marketId));
+    }
+    return orderBooks;
+  }
+
   /**
    * Fetches <em>your</em> current open orders, i.e. the orders placed by the bot.
    *
@@ -98,6 +195,38 @@ public interface TradingApi {
   List<OpenOrder> getYourOpenOrders(String marketId)
       throws ExchangeNetworkException, TradingApiException;
 
+  /**
+   * Checks if one of <em>your</em> orders is still open on the exchange, i.e. it has not been
+   * filled or cancelled.
+   *
+   * <p>The default implementation fetches your open orders and looks for the order in them. When
+   * BX-bot's order manager is switched on, the answer comes from the orders it tracks instead, and
+   * the exchange is only asked for your open orders on the order manager's reconcile interval. An
+   * order that has filled since the last reconcile is then still reported as open.
+   *
+   * @param orderId your order Id.
+   * @param marketId the id of the market the order was placed on, e.g. btc_usd
+   * @return true if the order is still open, false otherwise.
+   * @throws ExchangeNetworkException if a network error occurred trying to connect to the exchange.
+   *     This is implementation specific for each Exchange Adapter - see the documentation for the
+   *     adapter you are using. You could retry the API call, or exit from your Trading Strategy and
+   *     let the Trading Engine execute your Trading Strategy at the next trade cycle.
+   * @throws TradingApiException if the API call failed for any reason other than a network error.
+   *     This means something bad as happened; you would probably want to wrap this exception in a
+   *     StrategyException and let the Trading Engine shutdown the bot immediately to prevent
+   *     unexpected losses.
+   * @since 1.2
+   */
+  default boolean isOrderOpen(String orderId, String marketId)
+      throws ExchangeNetworkException, TradingApiException {
+    for (final OpenOrder openOrder : getYourOpenOrders(marketId)) {
+      if (openOrder.getId().equals(orderId)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   /**
    * Places an order on the exchange.
    *
@@ -138,6 +267,123 @@ public interface TradingApi {
   boolean cancelOrder(String orderId, String marketId)
       throws ExchangeNetworkException, TradingApiException;
 
+  /**
+   * Cancels several of your existing orders on the exchange.
+   *
+   * <p>Use this to clear a batch of resting orders, e.g. a grid, without paying a round trip per
+   * order. Exchange Adapters send the cancels in a single request where the exchange supports it.
+   *
+   * <p>The default implementation sends the cancels concurrently on a small shared thread pool, so
+   * a batch takes about as long as its slowest cancel. If any cancel fails, the first failure is
+   * thrown once the others have completed, so one bad order does not leave the rest open.
+   *
+   * @param orderIds your order Ids.
+   * @param marketId the id of the market the orders were placed on, e.g. btc_usd
+   * @return true for each order cancelled ok, false otherwise, keyed by order id, in the order the
+   *     ids were given.
+   * @throws ExchangeNetworkException if a network error occurred trying to connect to the exchange.
+   *     This is implementation specific for each Exchange Adapter - see the documentation for the
+   *     adapter you are using. You could retry the API call, or exit from your Trading Strategy and
+   *     let the Trading Engine execute your Trading Strategy at the next trade cycle.
+   * @throws TradingApiException if the API call failed for any reason other than a network error.
+   *     This means something bad as happened; you would probably want to wrap this exception in a
+   *     StrategyException and let the Trading Engine shutdown the bot immediately to prevent
+   *     unexpected losses.
+   * @since 1.2
+   */
+  default Map<String, Boolean> cancelOrders(Collection<String> orderIds, String marketId)
+      throws ExchangeNetworkException, TradingApiException {
+    final Map<String, CompletableFuture<Boolean>> cancels = new LinkedHashMap<>();
+    for (final String orderId : orderIds) {
+      cancels.computeIfAbsent(
+          orderId, id -> BlockingCallExecutor.supplyAsync(() -> cancelOrder(id, marketId)));
+    }
+    final Map<String, Boolean> cancelled = new LinkedHashMap<>();
+    Throwable failure = null;
+    for (final Map.Entry<String, CompletableFuture<Boolean>> cancel : cancels.entrySet()) {
+      try {
+        cancelled.put(cancel.getKey(), cancel.getValue().join());
+      } catch (CompletionException e) {
+        if (failure == null) {
+          failure = e.getCause();
+        }
+      }
+    }
+    if (failure != null) {
+      BlockingCallExecutor.rethrow(failure);
+    }
+    return cancelled;
+  }
+
+  /**
+   * Cancels all of <em>your</em> open orders on a market.
+   *
+   * <p>Exchange Adapters use the exchange's cancel-all request where it has one for the market.
+   *
+   * <p>The default implementation fetches your open orders and cancels them with {@link
+   * #cancelOrders(Collection, String)}.
+   *
+   * @param marketId the id of the market, e.g. btc_usd
+   * @return the number of orders cancelled.
+   * @throws ExchangeNetworkException if a network error occurred trying to connect to the exchange.
+   *     This is implementation specific for each Exchange Adapter - see the documentation for the
+   *     adapter you are using. You could retry the API call, or exit from your Trading Strategy and
+   *     let the Trading Engine execute your Trading Strategy at the next trade cycle.
+   * @throws TradingApiException if the API call failed for any reason other than a network error.
+   *     This means something bad as happened; you would probably want to wrap this exception in a
+   *     StrategyException and let the Trading Engine shutdown the bot immediately to prevent
+   *     unexpected losses.
+   * @since 1.2
+   */
+  default int cancelAllOrders(String marketId)
+      throws ExchangeNetworkException, TradingApiException {
+    final List<String> orderIds = new ArrayList<>();
+    for (final OpenOrder openOrder : getYourOpenOrders(marketId)) {
+      orderIds.add(openOrder.getId());
+    }
+    if (orderIds.isEmpty()) {
+      return 0;
+    }
+    int cancelledCount = 0;
+    for (final boolean cancelled : cancelOrders(orderIds, marketId).values()) {
+      if (cancelled) {
+        cancelledCount++;
+      }
+    }
+    return cancelledCount;
+  }
+
+  /**
+   * Cancels all of <em>your</em> open orders on several markets.
+   *
+   * <p>Use this to clear every market your bot trades, e.g. on an emergency stop. Exchange
+   * Adapters fetch your open orders once for all the markets, and use the exchange's cancel-all
+   * request where it has one.
+   *
+   * <p>The default implementation cancels each market's orders in turn with {@link
+   * #cancelAllOrders(String)}.
+   *
+   * @param marketIds the ids of the markets, e.g. btc_usd
+   * @return the number of orders cancelled, keyed by market id, in the order the ids were given.
+   * @throws ExchangeNetworkException if a network error occurred trying to connect to the exchange.
+   *     This is implementation specific for each Exchange Adapter - see the documentation for the
+   *     adapter you are using. You could retry the API call, or exit from your Trading Strategy and
+   *     let the Trading Engine execute your Trading Strategy at the next trade cycle.
+   * @throws TradingApiException if the API call failed for any reason other than a network error.
+   *     This means something bad as happened; you would probably want to wrap this exception in a
+   *     StrategyException and let the Trading Engine shutdown the bot immediately to prevent
+   *     unexpected losses.
+   * @since 1.2
+   */
+  default Map<String, Integer> cancelAllOrders(Collection<String> marketIds)
+      throws ExchangeNetworkException, TradingApiException {
+    final Map<String, Integer> cancelledCounts = new LinkedHashMap<>();
+    for (final String marketId : new LinkedHashSet<>(marketIds)) {
+      cancelledCounts.put(marketId, cancelAllOrders(marketId));
+    }
+    return cancelledCounts;
+  }
+
   /**
    * Fetches the latest price for a given market. This is usually in BTC for altcoin markets and USD
    * for BTC/USD markets - see the Exchange Adapter documentation.
@@ -0,0 +1,172 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Gareth Jon Lynch
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gazbert.bxbot.trading.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+/**
+ * Tests default impl methods of AsyncTradingApi interface.
+ *
+ * @author gazbert
+ */
+public class TestAsyncTradingApi {
+
+  private static final String MARKET_ID = "btc_usd";
+  private static final BigDecimal LATEST_PRICE = new BigDecimal("6543.21");
+
+  @Test
+  public void testAsyncCallReturnsBlockingCallResultOnAnotherThread() throws Exception {
+    final MyAsyncApiImpl myApi = new MyAsyncApiImpl();
+
+    final CompletableFuture<BigDecimal> latestPrice = myApi.getLatestMarketPriceAsync(MARKET_ID);
+
+    assertEquals(LATEST_PRICE, latestPrice.get());
+    assertNotSame(Thread.currentThread(), myApi.callingThread);
+    assertTrue(myApi.callingThread.isDaemon());
+  }
+
+  @Test
+  public void testAsyncCallCompletesExceptionallyWithBlockingCallException() throws Exception {
+    final MyAsyncApiImpl myApi = new MyAsyncApiImpl();
+
+    final CompletableFuture<Boolean> cancelResult = myApi.cancelOrderAsync("order-1", MARKET_ID);
+    try {
+      cancelResult.get();
+      fail("Expected ExecutionException");
+    } catch (ExecutionException e) {
+      assertSame(myApi.cancelOrderException, e.getCause());
+    }
+    assertTrue(cancelResult.isCompletedExceptionally());
+  }
+
+  @Test
+  public void testAsyncCallCompletesExceptionallyWithBlockingCallError() throws Exception {
+    final MyAsyncApiImpl myApi = new MyAsyncApiImpl();
+
+    final CompletableFuture<BalanceInfo> balanceInfo = myApi.getBalanceInfoAsync();
+    try {
+      balanceInfo.get(5, TimeUnit.SECONDS);
+      fail("Expected ExecutionException");
+    } catch (ExecutionException e) {
+      assertSame(myApi.balanceInfoError, e.getCause());
+    }
+    assertTrue(balanceInfo.isCompletedExceptionally());
+  }
+
+  @Test
+  public void testReadOnlyAsyncCallsReturnBlockingCallResults() throws Exception {
+    final MyAsyncApiImpl myApi = new MyAsyncApiImpl();
+
+    final CompletableFuture<MarketOrderBook> orderBook = myApi.getMarketOrdersAsync(MARKET_ID);
+    final CompletableFuture<List<OpenOrder>> openOrders = myApi.getYourOpenOrdersAsync(MARKET_ID);
+    final CompletableFuture<Ticker> ticker = myApi.getTickerAsync(MARKET_ID);
+
+    assertNull(orderBook.get(5, TimeUnit.SECONDS));
+    assertTrue(openOrders.get(5, TimeUnit.SECONDS).isEmpty());
+    assertNull(ticker.get(5, TimeUnit.SECONDS).getLast());
+  }
+
+  @Test
+  public void testIndependentAsyncCallsCanBeJoined() {
+    final MyAsyncApiImpl myApi = new MyAsyncApiImpl();
+
+    final CompletableFuture<BigDecimal> latestPrice = myApi.getLatestMarketPriceAsync(MARKET_ID);
+    final CompletableFuture<String> orderId =
+        myApi.createOrderAsync(MARKET_ID, OrderType.BUY, BigDecimal.ONE, LATEST_PRICE);
+    CompletableFuture.allOf(latestPrice, orderId).join();
+
+    assertEquals(LATEST_PRICE, latestPrice.join());
+    assertEquals("order-1", orderId.join());
+    assertFalse(orderId.isCompletedExceptionally());
+  }
+
+  /** Test class. */
+  class MyAsyncApiImpl implements AsyncTradingApi {
+
+    private volatile Thread callingThread;
+    private final TradingApiException cancelOrderException =
+        new TradingApiException("Order not found");
+    private final Error balanceInfoError = new Error("Balance response could not be parsed");
+
+    @Override
+    public String getImplName() {
+      return null;
+    }
+
+    @Override
+    public MarketOrderBook getMarketOrders(String marketId) {
+      return null;
+    }
+
+    @Override
+    public List<OpenOrder> getYourOpenOrders(String marketId) {
+      return List.of();
+    }
+
+    @Override
+    public String createOrder(
+        String marketId, OrderType orderType, BigDecimal quantity, BigDecimal price) {
+      return "order-1";
+    }
+
+    @Override
+    public boolean cancelOrder(String orderId, String marketId) throws TradingApiException {
+      throw cancelOrderException;
+    }
+
+    @Override
+    public BigDecimal getLatestMarketPrice(String marketId) {
+      callingThread = Thread.currentThread();
+      return LATEST_PRICE;
+    }
+
+    @Override
+    public BalanceInfo getBalanceInfo() {
+      throw balanceInfoError;
+    }
+
+    @Override
+    public BigDecimal getPercentageOfBuyOrderTakenForExchangeFee(String marketId) {
+      return null;
+    }
+
+    @Override
+    public BigDecimal getPercentageOfSellOrderTakenForExchangeFee(String marketId) {
+      return null;
+    }
+  }
+}
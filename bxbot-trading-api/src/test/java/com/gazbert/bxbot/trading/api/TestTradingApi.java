@@ -24,11 +24,23 @@
 package com.gazbert.bxbot.trading.api;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import org.junit.Test;
 
 /**
@@ -41,7 +53,210 @@ public class TestTradingApi {
   @Test
   public void testGetVersion() {
     final MyApiImpl myApi = new MyApiImpl();
-    assertEquals("1.1", myApi.getVersion());
+    assertEquals("1.2", myApi.getVersion());
+  }
+
+  @Test
+  public void testGetMarketOrdersToDepth() throws Exception {
+    final MarketOrder buyOrder = new MyMarketOrder();
+    final MarketOrder sellOrder = new MyMarketOrder();
+    final MarketOrderBook orderBook =
+        new MyMarketOrderBook(
+            Collections.singletonList(sellOrder), Arrays.asList(buyOrder, buyOrder, buyOrder));
+
+    final MyApiImpl myApi =
+        new MyApiImpl() {
+          @Override
+          public MarketOrderBook getMarketOrders(String marketId) {
+            return orderBook;
+          }
+        };
+
+    final MarketOrderBook topOfBook = myApi.getMarketOrders("market-123", 2);
+    assertEquals("market-123", topOfBook.getMarketId());
+    assertEquals(Arrays.asList(buyOrder, buyOrder), topOfBook.getBuyOrders());
+    assertEquals(Collections.singletonList(sellOrder), topOfBook.getSellOrders());
+
+    assertSame(orderBook, myApi.getMarketOrders("market-123", 3));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testGetMarketOrdersRejectsZeroDepth() throws Exception {
+    new MyApiImpl().getMarketOrders("market-123", 0);
+  }
+
+  @Test
+  public void testGetMarketOrdersForSeveralMarkets() throws Exception {
+    final MarketOrderBook btcUsdBook =
+        new MyMarketOrderBook(Collections.emptyList(), Collections.emptyList());
+    final MarketOrderBook ethUsdBook =
+        new MyMarketOrderBook(Collections.emptyList(), Collections.emptyList());
+    final Map<String, MarketOrderBook> exchangeBooks =
+        Map.of("btcusd", btcUsdBook, "ethusd", ethUsdBook);
+
+    final MyApiImpl myApi =
+        new MyApiImpl() {
+          @Override
+          public MarketOrderBook getMarketOrders(String marketId) {
+            return exchangeBooks.get(marketId);
+          }
+        };
+
+    final Map<String, MarketOrderBook> orderBooks =
+        myApi.getMarketOrders(Arrays.asList("ethusd", "btcusd"));
+    assertEquals(Arrays.asList("ethusd", "btcusd"), new ArrayList<>(orderBooks.keySet()));
+    assertSame(ethUsdBook, orderBooks.get("ethusd"));
+    assertSame(btcUsdBook, orderBooks.get("btcusd"));
+  }
+
+  @Test
+  public void testIsOrderOpenLooksForOrderInYourOpenOrders() throws Exception {
+    final MyApiImpl myApi =
+        new MyApiImpl() {
+          @Override
+          public List<OpenOrder> getYourOpenOrders(String marketId) {
+            return Arrays.asList(new MyOpenOrder("order-1"), new MyOpenOrder("order-2"));
+          }
+        };
+
+    assertTrue(myApi.isOrderOpen("order-2", "market-123"));
+    assertFalse(myApi.isOrderOpen("order-3", "market-123"));
+  }
+
+  @Test
+  public void testCancelOrdersCancelsEachOrderOnce() throws Exception {
+    final List<String> cancelledOrderIds = Collections.synchronizedList(new ArrayList<>());
+    final MyApiImpl myApi =
+        new MyApiImpl() {
+          @Override
+          public boolean cancelOrder(String orderId, String marketId) {
+            cancelledOrderIds.add(orderId);
+            return !"order-2".equals(orderId);
+          }
+        };
+
+    final Map<String, Boolean> cancelled =
+        myApi.cancelOrders(Arrays.asList("order-1", "order-2", "order-1"), "market-123");
+
+    assertEquals(Set.of("order-1", "order-2"), Set.copyOf(cancelledOrderIds));
+    assertEquals(2, cancelledOrderIds.size());
+    assertEquals(Arrays.asList("order-1", "order-2"), new ArrayList<>(cancelled.keySet()));
+    assertTrue(cancelled.get("order-1"));
+    assertFalse(cancelled.get("order-2"));
+  }
+
+  @Test
+  public void testCancelOrdersSendsCancelsConcurrently() throws Exception {
+    final CountDownLatch cancelsSent = new CountDownLatch(2);
+    final MyApiImpl myApi =
+        new MyApiImpl() {
+          @Override
+          public boolean cancelOrder(String orderId, String marketId) {
+            cancelsSent.countDown();
+            try {
+              // each cancel only succeeds if the other has been sent while it is in flight
+              return cancelsSent.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+              return false;
+            }
+          }
+        };
+
+    final Map<String, Boolean> cancelled =
+        myApi.cancelOrders(Arrays.asList("order-1", "order-2"), "market-123");
+
+    assertTrue(cancelled.get("order-1"));
+    assertTrue(cancelled.get("order-2"));
+  }
+
+  @Test
+  public void testCancelOrdersThrowsFirstFailureOnceAllCancelsHaveBeenSent() throws Exception {
+    final List<String> cancelledOrderIds = Collections.synchronizedList(new ArrayList<>());
+    final MyApiImpl myApi =
+        new MyApiImpl() {
+          @Override
+          public boolean cancelOrder(String orderId, String marketId)
+              throws TradingApiException {
+            if ("order-1".equals(orderId)) {
+              throw new TradingApiException("Order not found");
+            }
+            cancelledOrderIds.add(orderId);
+            return true;
+          }
+        };
+
+    try {
+      myApi.cancelOrders(Arrays.asList("order-1", "order-2", "order-3"), "market-123");
+      fail("Expected TradingApiException");
+    } catch (TradingApiException e) {
+      assertEquals("Order not found", e.getMessage());
+    }
+    assertEquals(Set.of("order-2", "order-3"), Set.copyOf(cancelledOrderIds));
+  }
+
+  @Test
+  public void testCancelOrdersRethrowsUncheckedFailures() throws Exception {
+    final MyApiImpl myApi =
+        new MyApiImpl() {
+          @Override
+          public boolean cancelOrder(String orderId, String marketId) {
+            throw new IllegalArgumentException("Bad order id: " + orderId);
+          }
+        };
+
+    try {
+      myApi.cancelOrders(Collections.singletonList("order-1"), "market-123");
+      fail("Expected IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Bad order id: order-1", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testCancelAllOrdersCancelsYourOpenOrders() throws Exception {
+    final List<String> cancelledOrderIds = Collections.synchronizedList(new ArrayList<>());
+    final MyApiImpl myApi =
+        new MyApiImpl() {
+          @Override
+          public List<OpenOrder> getYourOpenOrders(String marketId) {
+            return Arrays.asList(new MyOpenOrder("order-1"), new MyOpenOrder("order-2"));
+          }
+
+          @Override
+          public boolean cancelOrder(String orderId, String marketId) {
+            cancelledOrderIds.add(orderId);
+            return true;
+          }
+        };
+
+    assertEquals(2, myApi.cancelAllOrders("market-123"));
+    assertEquals(Set.of("order-1", "order-2"), Set.copyOf(cancelledOrderIds));
+  }
+
+  @Test
+  public void testCancelAllOrdersOnSeveralMarkets() throws Exception {
+    final MyApiImpl myApi =
+        new MyApiImpl() {
+          @Override
+          public List<OpenOrder> getYourOpenOrders(String marketId) {
+            return "market-123".equals(marketId)
+                ? Arrays.asList(new MyOpenOrder("order-1"), new MyOpenOrder("order-2"))
+                : Collections.singletonList(new MyOpenOrder("order-3"));
+          }
+
+          @Override
+          public boolean cancelOrder(String orderId, String marketId) {
+            return true;
+          }
+        };
+
+    final Map<String, Integer> cancelledCounts =
+        myApi.cancelAllOrders(Arrays.asList("market-123", "market-456"));
+
+    assertEquals(Arrays.asList("market-123", "market-456"), List.copyOf(cancelledCounts.keySet()));
+    assertEquals(Integer.valueOf(2), cancelledCounts.get("market-123"));
+    assertEquals(Integer.valueOf(1), cancelledCounts.get("market-456"));
   }
 
   @Test
@@ -61,6 +276,107 @@ public class TestTradingApi {
     assertNull(ticker.getTimestamp());
   }
 
+  /** Test class. */
+  static class MyMarketOrder implements MarketOrder {
+
+    @Override
+    public OrderType getType() {
+      return null;
+    }
+
+    @Override
+    public BigDecimal getPrice() {
+      return null;
+    }
+
+    @Override
+    public BigDecimal getQuantity() {
+      return null;
+    }
+
+    @Override
+    public BigDecimal getTotal() {
+      return null;
+    }
+  }
+
+  /** Test class. */
+  static class MyMarketOrderBook implements MarketOrderBook {
+
+    private final List<MarketOrder> sellOrders;
+    private final List<MarketOrder> buyOrders;
+
+    MyMarketOrderBook(List<MarketOrder> sellOrders, List<MarketOrder> buyOrders) {
+      this.sellOrders = sellOrders;
+      this.buyOrders = buyOrders;
+    }
+
+    @Override
+    public String getMarketId() {
+      return "market-123";
+    }
+
+    @Override
+    public List<MarketOrder> getSellOrders() {
+      return sellOrders;
+    }
+
+    @Override
+    public List<MarketOrder> getBuyOrders() {
+      return buyOrders;
+    }
+  }
+
+  /** Test class. */
+  static class MyOpenOrder implements OpenOrder {
+
+    private final String id;
+
+    MyOpenOrder(String id) {
+      this.id = id;
+    }
+
+    @Override
+    public String getId() {
+      return id;
+    }
+
+    @Override
+    public Date getCreationDate() {
+      return null;
+    }
+
+    @Override
+    public String getMarketId() {
+      return "market-123";
+    }
+
+    @Override
+    public OrderType getType() {
+      return null;
+    }
+
+    @Override
+    public BigDecimal getPrice() {
+      return null;
+    }
+
+    @Override
+    public BigDecimal getQuantity() {
+      return null;
+    }
+
+    @Override
+    public BigDecimal getOriginalQuantity() {
+      return null;
+    }
+
+    @Override
+    public BigDecimal getTotal() {
+      return null;
+    }
+  }
+
   /** Test class. */
   class MyApiImpl implements TradingApi {
 
@@ -86,7 +402,7 @@ public class TestTradingApi {
     }
 
     @Override
-    public boolean cancelOrder(String orderId, String marketId) {
+    public boolean cancelOrder(String orderId, String marketId) throws TradingApiException {
       return false;
     }
 